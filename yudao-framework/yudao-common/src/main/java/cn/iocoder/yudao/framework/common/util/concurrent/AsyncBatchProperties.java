@@ -0,0 +1,40 @@
+package cn.iocoder.yudao.framework.common.util.concurrent;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * {@link AsyncBatchWriter} 的配置
+ *
+ * @author 芋道源码
+ */
+@Data
+public class AsyncBatchProperties {
+
+    /**
+     * 队列容量，会向上取整为 2 的幂
+     */
+    private Integer capacity = 8192;
+    /**
+     * 每批写入的最大数量
+     */
+    private Integer batchSize = 200;
+    /**
+     * 最长等待时间，未攒满一批时，达到该时间也会写入
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+    /**
+     * 队列拥堵时的策略
+     */
+    private AsyncBatchWriter.OverflowPolicy overflowPolicy = AsyncBatchWriter.OverflowPolicy.DROP;
+    /**
+     * 采样的比例，即 SAMPLE 策略下，队列拥堵时每 N 条保留 1 条
+     */
+    private Integer sampleRate = 10;
+    /**
+     * 开始采样的水位，即队列使用率达到该比例时，开始采样
+     */
+    private Double sampleWatermark = 0.8D;
+
+}
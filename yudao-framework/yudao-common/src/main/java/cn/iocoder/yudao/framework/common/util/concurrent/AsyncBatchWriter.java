@@ -0,0 +1,214 @@
+package cn.iocoder.yudao.framework.common.util.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 异步批量写入器
+ *
+ * 请求线程通过 {@link #offer(Object)} 将数据放入 {@link BoundedRingBuffer} 无锁队列后立即返回，
+ * 由独立的后台线程，按照「攒满 batchSize 条」或「等待 flushInterval 时长」，批量交给 writer 写入。
+ * 适合日志等允许少量丢失，但不希望影响请求耗时的场景
+ *
+ * 队列拥堵时，根据 {@link OverflowPolicy} 丢弃或采样，保证不阻塞请求线程
+ *
+ * 指标（通过 name 标签区分）：
+ * 1. yudao.async-batch.queue.size：队列的堆积数量
+ * 2. yudao.async-batch.dropped：丢弃的数量，通过 reason 标签区分原因
+ * 3. yudao.async-batch.flush：每批写入的耗时
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class AsyncBatchWriter<T> implements AutoCloseable {
+
+    /**
+     * 空闲时，后台线程的最长休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * 队列拥堵时的策略
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * 队列满时，丢弃新的数据
+         */
+        DROP,
+        /**
+         * 队列达到水位时，按照比例采样；队列满时，丢弃新的数据
+         */
+        SAMPLE
+
+    }
+
+    private final String name;
+    private final BoundedRingBuffer<T> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final int sampleThreshold;
+    private final Consumer<List<T>> writer;
+
+    private final AtomicLong sampleSequence = new AtomicLong();
+    private final Thread flushThread;
+    private volatile boolean running = true;
+
+    private final Counter fullDroppedCounter;
+    private final Counter sampleDroppedCounter;
+    private final Counter errorDroppedCounter;
+    private final Timer flushTimer;
+
+    /**
+     * @param name 名字，用于线程名、指标的 name 标签
+     * @param properties 配置
+     * @param writer 批量写入的逻辑
+     */
+    public AsyncBatchWriter(String name, AsyncBatchProperties properties, Consumer<List<T>> writer) {
+        this.name = name;
+        this.buffer = new BoundedRingBuffer<>(properties.getCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.overflowPolicy = properties.getOverflowPolicy();
+        this.sampleRate = Math.max(1, properties.getSampleRate());
+        this.sampleThreshold = (int) (buffer.capacity() * properties.getSampleWatermark());
+        this.writer = writer;
+        // 指标
+        Gauge.builder("yudao.async-batch.queue.size", buffer, BoundedRingBuffer::size)
+                .description("异步批量写入的队列堆积数量").tag("name", name)
+                .register(Metrics.globalRegistry);
+        this.fullDroppedCounter = buildDroppedCounter(name, "full");
+        this.sampleDroppedCounter = buildDroppedCounter(name, "sample");
+        this.errorDroppedCounter = buildDroppedCounter(name, "error");
+        this.flushTimer = Timer.builder("yudao.async-batch.flush")
+                .description("异步批量写入的耗时").tag("name", name)
+                .register(Metrics.globalRegistry);
+        // 启动后台线程
+        this.flushThread = new Thread(this::runFlushLoop, "async-batch-" + name);
+        this.flushThread.setDaemon(true);
+        this.flushThread.start();
+    }
+
+    private static Counter buildDroppedCounter(String name, String reason) {
+        return Counter.builder("yudao.async-batch.dropped")
+                .description("异步批量写入丢弃的数量").tag("name", name).tag("reason", reason)
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 添加数据，不会阻塞
+     *
+     * @param item 数据
+     * @return 是否添加成功。如果被丢弃，则返回 false
+     */
+    public boolean offer(T item) {
+        // 采样：队列达到水位时，每 sampleRate 条保留 1 条
+        if (overflowPolicy == OverflowPolicy.SAMPLE && buffer.size() >= sampleThreshold
+                && sampleSequence.getAndIncrement() % sampleRate != 0) {
+            sampleDroppedCounter.increment();
+            return false;
+        }
+        // 丢弃：队列已满
+        if (!running || !buffer.offer(item)) {
+            fullDroppedCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 获得队列的堆积数量
+     *
+     * @return 数量
+     */
+    public int getQueueSize() {
+        return buffer.size();
+    }
+
+    /**
+     * 关闭，会将队列中剩余的数据写入后再返回
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(flushThread);
+        try {
+            flushThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runFlushLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        long batchStartTime = 0;
+        while (running || !buffer.isEmpty()) {
+            T item = buffer.poll();
+            if (item != null) {
+                if (batch.isEmpty()) {
+                    batchStartTime = System.nanoTime();
+                }
+                batch.add(item);
+                // 攒满一批，写入
+                if (batch.size() >= batchSize) {
+                    flush(batch);
+                }
+                continue;
+            }
+            // 队列为空时，如果等待时间已到，写入
+            if (!batch.isEmpty() && System.nanoTime() - batchStartTime >= flushIntervalNanos) {
+                flush(batch);
+                continue;
+            }
+            LockSupport.parkNanos(Math.min(IDLE_PARK_NANOS, flushIntervalNanos));
+        }
+        // 关闭时，写入剩余的数据
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<T> batch) {
+        List<T> items = new ArrayList<>(batch);
+        batch.clear();
+        long startTime = System.nanoTime();
+        try {
+            writer.accept(items);
+        } catch (Throwable ex) {
+            log.error("[flush][{} 批量写入 {} 条失败，逐条重试]", name, items.size(), ex);
+            // 逐条重试，避免个别数据（例如说，参数校验不通过）导致整批丢失
+            flushOneByOne(items);
+        } finally {
+            flushTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flushOneByOne(List<T> items) {
+        if (items.size() == 1) {
+            errorDroppedCounter.increment();
+            return;
+        }
+        for (T item : items) {
+            try {
+                writer.accept(Collections.singletonList(item));
+            } catch (Throwable ex) {
+                log.warn("[flushOneByOne][{} 写入 ({}) 失败]", name, item, ex);
+                errorDroppedCounter.increment();
+            }
+        }
+    }
+
+}
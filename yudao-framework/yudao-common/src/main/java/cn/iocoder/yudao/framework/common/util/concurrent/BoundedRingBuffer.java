@@ -0,0 +1,119 @@
+package cn.iocoder.yudao.framework.common.util.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 无锁的有界环形队列，支持多生产者、多消费者
+ *
+ * 实现上，参考 Dmitry Vyukov 的 Bounded MPMC Queue：每个槽位记录一个序号，生产者、消费者通过 CAS 抢占位置，
+ * 再根据槽位的序号，判断该槽位是否可写、可读。相比 ArrayBlockingQueue，入队时不会因为锁竞争而阻塞请求线程
+ *
+ * @author 芋道源码
+ */
+public class BoundedRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> items;
+    private final AtomicLongArray sequences;
+
+    /**
+     * 入队位置
+     */
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * 出队位置
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity 容量，会向上取整为 2 的幂
+     */
+    public BoundedRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("容量(" + capacity + ") 不合法");
+        }
+        this.capacity = 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1));
+        this.mask = this.capacity - 1;
+        this.items = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 入队
+     *
+     * @param item 元素
+     * @return 是否成功。如果队列已满，则返回 false
+     */
+    public boolean offer(E item) {
+        Objects.requireNonNull(item);
+        while (true) {
+            long pos = tail.get();
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            // 情况一：槽位可写，抢占位置后写入
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items.lazySet(index, item);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+            // 情况二：槽位还未被消费，说明队列已满
+            } else if (diff < 0) {
+                return false;
+            }
+            // 情况三：位置已被其它生产者抢占，重试
+        }
+    }
+
+    /**
+     * 出队
+     *
+     * @return 元素。如果队列为空，则返回 null
+     */
+    public E poll() {
+        while (true) {
+            long pos = head.get();
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            // 情况一：槽位可读，抢占位置后读取
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    E item = items.get(index);
+                    items.lazySet(index, null);
+                    sequences.set(index, pos + capacity);
+                    return item;
+                }
+            // 情况二：槽位还未被写入，说明队列为空
+            } else if (diff < 0) {
+                return null;
+            }
+            // 情况三：位置已被其它消费者抢占，重试
+        }
+    }
+
+    /**
+     * 获得队列的元素数量，并发场景下为近似值
+     *
+     * @return 元素数量
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+}
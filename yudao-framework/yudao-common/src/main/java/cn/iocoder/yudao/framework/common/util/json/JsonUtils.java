@@ -61,6 +61,16 @@ public class JsonUtils {
         return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(object);
     }
 
+    /**
+     * 将对象转换成 JSON 树，即对象当前状态的快照，之后对象的修改不会影响 JSON 树
+     *
+     * @param object 对象
+     * @return JSON 树
+     */
+    public static JsonNode toJsonTree(Object object) {
+        return objectMapper.valueToTree(object);
+    }
+
     public static <T> T parseObject(String text, Class<T> clazz) {
         if (StrUtil.isEmpty(text)) {
             return null;
@@ -0,0 +1,113 @@
+package cn.iocoder.yudao.framework.common.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link AsyncBatchWriter} 和 {@link BoundedRingBuffer} 的单元测试
+ */
+public class AsyncBatchWriterTest {
+
+    @Test
+    public void testBoundedRingBuffer() {
+        // 准备参数：容量向上取整为 4
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+
+        // 调用：写满
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+        // 调用：读取，保证顺序
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(5));
+        assertEquals(1, buffer.poll());
+        assertEquals(2, buffer.poll());
+        assertEquals(3, buffer.poll());
+        assertEquals(5, buffer.poll());
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testOfferAndClose() {
+        // 准备参数
+        AsyncBatchProperties properties = new AsyncBatchProperties();
+        properties.setBatchSize(10);
+        properties.setFlushInterval(Duration.ofMillis(50));
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test", properties, batches::add);
+
+        // 调用
+        for (int i = 0; i < 25; i++) {
+            assertTrue(writer.offer(i));
+        }
+        writer.close();
+        // 断言：每批不超过 batchSize，且全部写入
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 10));
+        assertEquals(25, batches.stream().mapToInt(List::size).sum());
+        // 断言：关闭后，丢弃
+        assertFalse(writer.offer(100));
+    }
+
+    @Test
+    public void testFlush_retryOneByOne() {
+        // 准备参数：包含 3 的批次会写入失败
+        AsyncBatchProperties properties = new AsyncBatchProperties();
+        properties.setBatchSize(5);
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test", properties, items -> {
+            if (items.contains(3)) {
+                throw new IllegalArgumentException("模拟写入失败");
+            }
+            written.addAll(items);
+        });
+
+        // 调用
+        for (int i = 0; i < 5; i++) {
+            writer.offer(i);
+        }
+        writer.close();
+        // 断言：只丢弃失败的那条
+        assertEquals(Arrays.asList(0, 1, 2, 4), written);
+    }
+
+    @Test
+    public void testOffer_sample() {
+        // 准备参数：写入阻塞，使队列堆积
+        AsyncBatchProperties properties = new AsyncBatchProperties();
+        properties.setCapacity(16);
+        properties.setBatchSize(1);
+        properties.setOverflowPolicy(AsyncBatchWriter.OverflowPolicy.SAMPLE);
+        properties.setSampleRate(2);
+        properties.setSampleWatermark(0.5D);
+        Object lock = new Object();
+        AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test-sample", properties, batch -> {
+            synchronized (lock) {
+                // 阻塞，直到测试结束
+            }
+        });
+
+        synchronized (lock) {
+            // 调用：写入 20 条，超过水位（8 条）后，每 2 条保留 1 条
+            int accepted = 0;
+            for (int i = 0; i < 20; i++) {
+                if (writer.offer(i)) {
+                    accepted++;
+                }
+            }
+            // 断言：后台线程最多取走 1 条，所以保留 8 ~ 9 条 + 采样的 5 ~ 6 条；如果不采样，则会保留 17 条
+            assertTrue(accepted >= 14 && accepted <= 15, "accepted: " + accepted);
+        }
+        writer.close();
+    }
+
+}
@@ -0,0 +1,32 @@
+package cn.iocoder.yudao.framework.datapermission.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * 数据权限配置
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.data-permission")
+@Validated
+@Data
+public class DataPermissionProperties {
+
+    /**
+     * 是否开启重写后的 SQL 模板的缓存
+     *
+     * 开启后，数据权限的条件值作为 ? 参数绑定，相同的 SQL 无需重复解析
+     */
+    @NotNull(message = "是否开启 SQL 模板的缓存不能为空")
+    private Boolean sqlCacheEnable = true;
+    /**
+     * SQL 模板的缓存的最大数量
+     */
+    @NotNull(message = "SQL 模板的缓存的最大数量不能为空")
+    private Long sqlCacheMaximumSize = 1000L;
+
+}
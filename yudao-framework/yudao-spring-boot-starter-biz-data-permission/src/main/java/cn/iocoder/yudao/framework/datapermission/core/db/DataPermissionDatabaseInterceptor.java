@@ -11,6 +11,7 @@ import com.baomidou.mybatisplus.extension.parser.JsqlParserSupport;
 import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import net.sf.jsqlparser.expression.*;
 import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
 import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
@@ -50,6 +51,13 @@ public class DataPermissionDatabaseInterceptor extends JsqlParserSupport impleme
     @Getter
     private final MappedStatementCache mappedStatementCache = new MappedStatementCache();
 
+    /**
+     * 重写后的 SQL 模板的缓存。为 null 时，表示不开启
+     */
+    @Getter
+    @Setter
+    private DataPermissionSqlCache sqlCache;
+
     @Override // SELECT 场景
     public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
         // 获得 Mapper 对应的数据权限的规则
@@ -59,11 +67,17 @@ public class DataPermissionDatabaseInterceptor extends JsqlParserSupport impleme
         }
 
         PluginUtils.MPBoundSql mpBs = PluginUtils.mpBoundSql(boundSql);
+        // 优先使用缓存的 SQL 模板，命中时无需解析 SQL
+        if (sqlCache != null && sqlCache.rewrite(ms, mpBs, boundSql, rules)) {
+            return;
+        }
         try {
             // 初始化上下文
-            ContextHolder.init(rules);
+            ContextHolder.init(rules, sqlCache != null);
             // 处理 SQL
-            mpBs.sql(parserSingle(mpBs.sql(), null));
+            long startTime = System.nanoTime();
+            String sql = parserSingle(mpBs.sql(), null);
+            rewriteSql(ms, mpBs, boundSql, sql, System.nanoTime() - startTime);
         } finally {
             // 添加是否需要重写的缓存
             addMappedStatementCache(ms);
@@ -85,11 +99,17 @@ public class DataPermissionDatabaseInterceptor extends JsqlParserSupport impleme
             }
 
             PluginUtils.MPBoundSql mpBs = mpSh.mPBoundSql();
+            // 优先使用缓存的 SQL 模板，命中时无需解析 SQL
+            if (sqlCache != null && sqlCache.rewrite(ms, mpBs, sh.getBoundSql(), rules)) {
+                return;
+            }
             try {
                 // 初始化上下文
-                ContextHolder.init(rules);
+                ContextHolder.init(rules, sqlCache != null);
                 // 处理 SQL
-                mpBs.sql(parserMulti(mpBs.sql(), null));
+                long startTime = System.nanoTime();
+                String sql = parserMulti(mpBs.sql(), null);
+                rewriteSql(ms, mpBs, sh.getBoundSql(), sql, System.nanoTime() - startTime);
             } finally {
                 // 添加是否需要重写的缓存
                 addMappedStatementCache(ms);
@@ -99,6 +119,25 @@ public class DataPermissionDatabaseInterceptor extends JsqlParserSupport impleme
         }
     }
 
+    /**
+     * 设置重写后的 SQL。如果开启 {@link #sqlCache} 缓存，则生成 SQL 模板，并绑定条件值
+     *
+     * @param ms MappedStatement
+     * @param mpBs MPBoundSql
+     * @param boundSql BoundSql
+     * @param sql 重写后的 SQL
+     * @param parseNanos 解析耗时
+     */
+    private void rewriteSql(MappedStatement ms, PluginUtils.MPBoundSql mpBs, BoundSql boundSql,
+                            String sql, long parseNanos) {
+        if (!ContextHolder.isParameterize() || !ContextHolder.getRewrite()) {
+            mpBs.sql(sql);
+            return;
+        }
+        sqlCache.rewrite(ms, mpBs, boundSql, ContextHolder.getRules(), mpBs.sql(), sql,
+                ContextHolder.getInvocations(), ContextHolder.getExpressions(), parseNanos);
+    }
+
     @Override
     protected void processSelect(Select select, int index, String sql, Object obj) {
         processSelectBody(select.getSelectBody());
@@ -494,7 +533,9 @@ public class DataPermissionDatabaseInterceptor extends JsqlParserSupport impleme
     private Expression buildDataPermissionExpression(Table table) {
         // 生成条件
         Expression allExpression = null;
-        for (DataPermissionRule rule : ContextHolder.getRules()) {
+        List<DataPermissionRule> rules = ContextHolder.getRules();
+        for (int i = 0; i < rules.size(); i++) {
+            DataPermissionRule rule = rules.get(i);
             // 判断表名是否匹配
             String tableName = MyBatisUtils.getTableName(table);
             if (!rule.getTableNames().contains(tableName)) {
@@ -507,6 +548,14 @@ public class DataPermissionDatabaseInterceptor extends JsqlParserSupport impleme
 
             // 单条规则的条件
             Expression oneExpress = rule.getExpression(tableName, table.getAlias());
+            // 如果需要参数化，则记录条件，并使用占位符替代，后续生成 SQL 模板
+            if (ContextHolder.isParameterize()) {
+                int index = ContextHolder.addInvocation(new DataPermissionSqlCache.Invocation(i, tableName, table.getAlias()),
+                        oneExpress);
+                if (oneExpress != null) {
+                    oneExpress = new DataPermissionSqlCache.Marker(index);
+                }
+            }
             if (oneExpress == null){
                 continue;
             }
@@ -546,15 +595,37 @@ public class DataPermissionDatabaseInterceptor extends JsqlParserSupport impleme
          * SQL 是否进行重写
          */
         private static final ThreadLocal<Boolean> REWRITE = ThreadLocal.withInitial(() -> Boolean.FALSE);
+        /**
+         * 是否参数化条件，用于生成 {@link DataPermissionSqlCache} 的 SQL 模板
+         */
+        private static final ThreadLocal<Boolean> PARAMETERIZE = ThreadLocal.withInitial(() -> Boolean.FALSE);
+        /**
+         * 需要拼接条件的表，仅参数化时记录
+         */
+        private static final ThreadLocal<List<DataPermissionSqlCache.Invocation>> INVOCATIONS = ThreadLocal.withInitial(ArrayList::new);
+        /**
+         * 每个表的条件，和 {@link #INVOCATIONS} 一一对应
+         */
+        private static final ThreadLocal<List<Expression>> EXPRESSIONS = ThreadLocal.withInitial(ArrayList::new);
 
         public static void init(List<DataPermissionRule> rules) {
+            init(rules, false);
+        }
+
+        public static void init(List<DataPermissionRule> rules, boolean parameterize) {
             RULES.set(rules);
             REWRITE.set(false);
+            PARAMETERIZE.set(parameterize);
+            INVOCATIONS.remove();
+            EXPRESSIONS.remove();
         }
 
         public static void clear() {
             RULES.remove();
             REWRITE.remove();
+            PARAMETERIZE.remove();
+            INVOCATIONS.remove();
+            EXPRESSIONS.remove();
         }
 
         public static boolean getRewrite() {
@@ -569,6 +640,31 @@ public class DataPermissionDatabaseInterceptor extends JsqlParserSupport impleme
             return RULES.get();
         }
 
+        public static boolean isParameterize() {
+            return PARAMETERIZE.get();
+        }
+
+        /**
+         * 记录需要拼接条件的表
+         *
+         * @param invocation 表
+         * @param expression 条件
+         * @return 位置
+         */
+        public static int addInvocation(DataPermissionSqlCache.Invocation invocation, Expression expression) {
+            INVOCATIONS.get().add(invocation);
+            EXPRESSIONS.get().add(expression);
+            return INVOCATIONS.get().size() - 1;
+        }
+
+        public static List<DataPermissionSqlCache.Invocation> getInvocations() {
+            return INVOCATIONS.get();
+        }
+
+        public static List<Expression> getExpressions() {
+            return EXPRESSIONS.get();
+        }
+
     }
 
     /**
@@ -0,0 +1,408 @@
+package cn.iocoder.yudao.framework.datapermission.core.db;
+
+import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRule;
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.expression.*;
+import net.sf.jsqlparser.parser.ASTNodeAccessImpl;
+import net.sf.jsqlparser.util.deparser.ExpressionDeParser;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
+/**
+ * 数据权限重写后的 SQL 模板的缓存
+ *
+ * 背景：{@link DataPermissionDatabaseInterceptor} 每次执行 SQL，都需要通过 JSqlParser 解析、重写，开销较大
+ * 方案：将重写后的 SQL 缓存成模板，其中数据权限的条件值（例如说，部门编号、用户编号）不内联到 SQL 中，而是作为 ? 参数绑定。
+ * 这样，相同的 SQL 再次执行时，只需要重新计算条件值，无需解析 SQL
+ *
+ * 缓存分成两级：
+ * 1. {@link #statementCache}：key 为 (MappedStatement 编号, 原始 SQL, 规则)，value 为需要拼接条件的表，即 {@link Invocation} 数组
+ * 2. {@link #templateCache}：key 额外加上「权限形状」指纹，即每个表参数化后的条件片段，例如说 dept_id IN (?, ?)。
+ *    这样，部门数量、是否可查看自己等不同时，对应不同的模板
+ *
+ * 指标：
+ * 1. {@link #CACHE_NAME}：模板缓存的命中率
+ * 2. yudao.data-permission.sql.parse：解析、重写 SQL 的耗时
+ * 3. yudao.data-permission.sql.parse.saved：命中模板所节省的解析耗时，估算值为「命中时的平均解析耗时」之和
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class DataPermissionSqlCache {
+
+    public static final String CACHE_NAME = "yudao.data-permission.sql-cache";
+
+    /**
+     * 绑定到 {@link BoundSql} 的额外参数的前缀
+     */
+    private static final String PARAMETER_PREFIX = "__data_permission_";
+
+    private final Cache<StatementKey, List<Invocation>> statementCache;
+    private final Cache<TemplateKey, Template> templateCache;
+
+    private final Timer parseTimer;
+    private final Counter parseSavedCounter;
+
+    public DataPermissionSqlCache(long maximumSize) {
+        this.statementCache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+        this.templateCache = CacheBuilder.newBuilder().maximumSize(maximumSize)
+                .recordStats() // 记录命中率等统计，用于 Metrics 指标
+                .build();
+        GuavaCacheMetrics.monitor(Metrics.globalRegistry, templateCache, CACHE_NAME);
+        this.parseTimer = Timer.builder("yudao.data-permission.sql.parse")
+                .description("数据权限解析、重写 SQL 的耗时")
+                .register(Metrics.globalRegistry);
+        this.parseSavedCounter = Counter.builder("yudao.data-permission.sql.parse.saved")
+                .description("数据权限命中 SQL 模板，所节省的解析耗时（估算）")
+                .baseUnit("seconds")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 基于缓存的 SQL 模板，重写 SQL
+     *
+     * @param ms MappedStatement
+     * @param mpBs MPBoundSql
+     * @param boundSql BoundSql
+     * @param rules 数据权限规则数组
+     * @return 是否命中缓存。如果未命中，则需要解析 SQL
+     */
+    public boolean rewrite(MappedStatement ms, PluginUtils.MPBoundSql mpBs, BoundSql boundSql,
+                           List<DataPermissionRule> rules) {
+        StatementKey statementKey = buildStatementKey(ms, mpBs.sql(), rules);
+        List<Invocation> invocations = statementCache.getIfPresent(statementKey);
+        if (invocations == null) {
+            return false;
+        }
+        // 重新计算每个表的条件，得到权限形状的指纹
+        List<Object> values = new ArrayList<>();
+        List<String> fragments = new ArrayList<>(invocations.size());
+        List<Integer> valueCounts = new ArrayList<>(invocations.size());
+        for (Invocation invocation : invocations) {
+            Expression expression = rules.get(invocation.getRuleIndex())
+                    .getExpression(invocation.getTableName(), invocation.getTableAlias());
+            addFragment(expression, fragments, valueCounts, values);
+        }
+        // 使用模板，重写 SQL
+        Template template = templateCache.getIfPresent(new TemplateKey(statementKey, fragments));
+        if (template == null) {
+            return false;
+        }
+        template.apply(ms, mpBs, boundSql, values);
+        parseSavedCounter.increment(parseTimer.mean(TimeUnit.SECONDS));
+        return true;
+    }
+
+    /**
+     * 基于解析后的 SQL，生成 SQL 模板并缓存，然后重写 SQL
+     *
+     * @param ms MappedStatement
+     * @param mpBs MPBoundSql
+     * @param boundSql BoundSql
+     * @param rules 数据权限规则数组
+     * @param originalSql 原始 SQL
+     * @param markerSql 解析后的 SQL，条件使用 {@link Marker} 占位
+     * @param invocations 需要拼接条件的表
+     * @param expressions 每个表的条件，和 invocations 一一对应
+     * @param parseNanos 解析耗时
+     */
+    public void rewrite(MappedStatement ms, PluginUtils.MPBoundSql mpBs, BoundSql boundSql,
+                        List<DataPermissionRule> rules, String originalSql, String markerSql,
+                        List<Invocation> invocations, List<Expression> expressions, long parseNanos) {
+        parseTimer.record(parseNanos, TimeUnit.NANOSECONDS);
+        // 计算每个表参数化后的条件
+        List<Object> values = new ArrayList<>();
+        List<String> fragments = new ArrayList<>(invocations.size());
+        List<Integer> valueCounts = new ArrayList<>(invocations.size());
+        expressions.forEach(expression -> addFragment(expression, fragments, valueCounts, values));
+        // 生成 SQL 模板。如果无法生成，则降级成内联条件值，和未开启缓存时一致
+        List<ParameterMapping> parameterMappings = mpBs.parameterMappings();
+        Template template = Template.build(markerSql, fragments, valueCounts,
+                parameterMappings != null ? parameterMappings.size() : 0);
+        if (template == null) {
+            log.warn("[rewrite][MappedStatement({}) SQL({}) 无法参数化，降级为内联条件值]", ms.getId(), originalSql);
+            mpBs.sql(Template.inline(markerSql, expressions));
+            return;
+        }
+        // 缓存，并重写 SQL
+        StatementKey statementKey = buildStatementKey(ms, originalSql, rules);
+        statementCache.put(statementKey, invocations);
+        templateCache.put(new TemplateKey(statementKey, fragments), template);
+        template.apply(ms, mpBs, boundSql, values);
+    }
+
+    /**
+     * 清空缓存
+     * 目前主要提供给单元测试
+     */
+    public void clear() {
+        statementCache.invalidateAll();
+        templateCache.invalidateAll();
+    }
+
+    private static StatementKey buildStatementKey(MappedStatement ms, String sql, List<DataPermissionRule> rules) {
+        return new StatementKey(ms.getId(), sql, convertList(rules, rule -> rule.getClass()));
+    }
+
+    /**
+     * 将条件参数化，添加到 fragments 中；条件值添加到 values 中
+     */
+    private static void addFragment(Expression expression, List<String> fragments, List<Integer> valueCounts,
+                                    List<Object> values) {
+        if (expression == null) {
+            fragments.add(null);
+            valueCounts.add(0);
+            return;
+        }
+        List<Object> expressionValues = new ArrayList<>();
+        String fragment;
+        try {
+            ParameterizedExpressionDeParser deParser = new ParameterizedExpressionDeParser(expressionValues);
+            expression.accept(deParser);
+            fragment = deParser.getBuffer().toString();
+        } catch (RuntimeException ex) {
+            // 部分条件无法通过 ExpressionDeParser 输出，例如说 DeptDataPermissionRule 的 null = null，则内联
+            expressionValues.clear();
+            fragment = expression.toString();
+        }
+        fragments.add(fragment);
+        valueCounts.add(expressionValues.size());
+        values.addAll(expressionValues);
+    }
+
+    /**
+     * 需要拼接条件的表，即调用 {@link DataPermissionRule#getExpression(String, Alias)} 的参数
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Invocation {
+
+        /**
+         * 规则在数组中的位置
+         */
+        private final int ruleIndex;
+        /**
+         * 表名
+         */
+        private final String tableName;
+        /**
+         * 表别名
+         */
+        private final Alias tableAlias;
+
+    }
+
+    /**
+     * 条件的占位符，解析 SQL 时使用，后续替换成参数化后的条件
+     */
+    public static class Marker extends ASTNodeAccessImpl implements Expression {
+
+        private static final String PREFIX = "__DATA_PERMISSION_";
+        private static final String SUFFIX = "__";
+
+        private final int index;
+
+        public Marker(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void accept(ExpressionVisitor expressionVisitor) {
+            // 仅用于 toString 占位，无需访问
+        }
+
+        @Override
+        public String toString() {
+            return PREFIX + index + SUFFIX;
+        }
+
+    }
+
+    /**
+     * 将常量值输出成 ? 参数的 ExpressionDeParser
+     */
+    private static class ParameterizedExpressionDeParser extends ExpressionDeParser {
+
+        private final List<Object> values;
+
+        private ParameterizedExpressionDeParser(List<Object> values) {
+            this.values = values;
+        }
+
+        @Override
+        public void visit(LongValue longValue) {
+            addParameter(longValue.getValue());
+        }
+
+        @Override
+        public void visit(StringValue stringValue) {
+            addParameter(stringValue.getValue());
+        }
+
+        @Override
+        public void visit(DoubleValue doubleValue) {
+            addParameter(doubleValue.getValue());
+        }
+
+        private void addParameter(Object value) {
+            getBuffer().append('?');
+            values.add(value);
+        }
+
+    }
+
+    @Data
+    private static class StatementKey {
+
+        private final String mappedStatementId;
+        private final String sql;
+        private final List<Class<? extends DataPermissionRule>> ruleClasses;
+
+    }
+
+    @Data
+    private static class TemplateKey {
+
+        private final StatementKey statementKey;
+        /**
+         * 权限形状的指纹
+         */
+        private final List<String> fragments;
+
+    }
+
+    /**
+     * SQL 模板
+     */
+    @Data
+    static class Template {
+
+        /**
+         * 重写后的 SQL
+         */
+        private final String sql;
+        /**
+         * 每个 ? 参数的来源
+         *
+         * 1. 大于等于 0 时，为原始 SQL 的第 n 个参数
+         * 2. 小于 0 时，为第 (-n - 1) 个条件值
+         */
+        private final int[] slots;
+
+        /**
+         * 生成 SQL 模板
+         *
+         * @param markerSql 解析后的 SQL，条件使用 {@link Marker} 占位
+         * @param fragments 参数化后的条件
+         * @param valueCounts 每个条件的参数数量
+         * @param parameterCount 原始 SQL 的参数数量
+         * @return SQL 模板；如果 ? 数量与原始参数数量不一致，说明无法正确识别参数，返回 null
+         */
+        static Template build(String markerSql, List<String> fragments, List<Integer> valueCounts, int parameterCount) {
+            int[] offsets = new int[valueCounts.size()];
+            for (int i = 1; i < offsets.length; i++) {
+                offsets[i] = offsets[i - 1] + valueCounts.get(i - 1);
+            }
+            StringBuilder sql = new StringBuilder(markerSql.length());
+            List<Integer> slots = new ArrayList<>();
+            int originalIndex = 0;
+            char quote = 0;
+            for (int pos = 0; pos < markerSql.length(); pos++) {
+                char c = markerSql.charAt(pos);
+                // 字符串、标识符中的内容，原样保留
+                if (quote != 0) {
+                    sql.append(c);
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                    continue;
+                }
+                if (c == '\'' || c == '"' || c == '`') {
+                    quote = c;
+                    sql.append(c);
+                    continue;
+                }
+                // 原始 SQL 的参数
+                if (c == '?') {
+                    slots.add(originalIndex++);
+                    sql.append(c);
+                    continue;
+                }
+                // 条件的占位符，替换成参数化后的条件
+                if (markerSql.startsWith(Marker.PREFIX, pos)) {
+                    int end = markerSql.indexOf(Marker.SUFFIX, pos + Marker.PREFIX.length());
+                    int index = Integer.parseInt(markerSql.substring(pos + Marker.PREFIX.length(), end));
+                    sql.append(fragments.get(index));
+                    for (int i = 0; i < valueCounts.get(index); i++) {
+                        slots.add(-(offsets[index] + i) - 1);
+                    }
+                    pos = end + Marker.SUFFIX.length() - 1;
+                    continue;
+                }
+                sql.append(c);
+            }
+            if (originalIndex != parameterCount) {
+                return null;
+            }
+            return new Template(sql.toString(), slots.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        /**
+         * 将条件的占位符，替换成内联条件值的条件
+         *
+         * @param markerSql 解析后的 SQL，条件使用 {@link Marker} 占位
+         * @param expressions 条件数组
+         * @return SQL
+         */
+        static String inline(String markerSql, List<Expression> expressions) {
+            String sql = markerSql;
+            for (int i = 0; i < expressions.size(); i++) {
+                if (expressions.get(i) != null) {
+                    sql = sql.replace(new Marker(i).toString(), expressions.get(i).toString());
+                }
+            }
+            return sql;
+        }
+
+        /**
+         * 使用模板，重写 SQL，并绑定条件值
+         */
+        void apply(MappedStatement ms, PluginUtils.MPBoundSql mpBs, BoundSql boundSql, List<Object> values) {
+            List<ParameterMapping> originalMappings = mpBs.parameterMappings() != null
+                    ? mpBs.parameterMappings() : Collections.emptyList();
+            List<ParameterMapping> mappings = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                if (slot >= 0) {
+                    mappings.add(originalMappings.get(slot));
+                    continue;
+                }
+                int index = -slot - 1;
+                Object value = values.get(index);
+                String property = PARAMETER_PREFIX + index;
+                boundSql.setAdditionalParameter(property, value);
+                mappings.add(new ParameterMapping.Builder(ms.getConfiguration(), property, value.getClass()).build());
+            }
+            mpBs.sql(sql);
+            mpBs.parameterMappings(mappings);
+        }
+
+    }
+
+}
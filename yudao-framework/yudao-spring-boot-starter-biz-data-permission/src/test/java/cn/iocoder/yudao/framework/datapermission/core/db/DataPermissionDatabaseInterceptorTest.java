@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.framework.datapermission.core.db;
 
+import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.common.util.collection.SetUtils;
 import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRule;
 import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRuleFactory;
@@ -15,6 +16,8 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -120,6 +123,48 @@ public class DataPermissionDatabaseInterceptorTest extends BaseMockitoUnitTest {
         }
     }
 
+    @Test // 存在规则，且匹配，开启 SQL 模板缓存
+    public void testBeforeQuery_withSqlCache() {
+        // 准备参数
+        Configuration configuration = new Configuration();
+        MappedStatement mappedStatement = mock(MappedStatement.class);
+        when(mappedStatement.getId()).thenReturn("selectList");
+        when(mappedStatement.getConfiguration()).thenReturn(configuration);
+        String sql = "select * from t_user where id = ?";
+        // mock 方法(数据权限)，每次返回不同的部门编号
+        DeptDataPermissionRule rule = new DeptDataPermissionRule();
+        when(ruleFactory.getDataPermissionRule(eq("selectList"))).thenReturn(singletonList(rule));
+        // 开启 SQL 模板缓存
+        DataPermissionDatabaseInterceptor interceptor = spy(new DataPermissionDatabaseInterceptor(ruleFactory));
+        interceptor.setSqlCache(new DataPermissionSqlCache(100L));
+
+        // 调用，第一次：解析 SQL，生成模板
+        BoundSql boundSql = buildBoundSql(configuration, sql);
+        interceptor.beforeQuery(null, mappedStatement, null, null, null, boundSql);
+        // 断言
+        assertEquals("SELECT * FROM t_user WHERE id = ? AND t_user.dept_id = ?", boundSql.getSql());
+        assertEquals(Arrays.asList("id", "__data_permission_0"),
+                CollectionUtils.convertList(boundSql.getParameterMappings(), ParameterMapping::getProperty));
+        assertEquals(100L, boundSql.getAdditionalParameter("__data_permission_0"));
+
+        // 调用，第二次：命中模板，无需解析 SQL，并绑定新的部门编号
+        rule.deptId = 200L;
+        BoundSql boundSql2 = buildBoundSql(configuration, sql);
+        interceptor.beforeQuery(null, mappedStatement, null, null, null, boundSql2);
+        // 断言
+        assertEquals("SELECT * FROM t_user WHERE id = ? AND t_user.dept_id = ?", boundSql2.getSql());
+        assertEquals(Arrays.asList("id", "__data_permission_0"),
+                CollectionUtils.convertList(boundSql2.getParameterMappings(), ParameterMapping::getProperty));
+        assertEquals(200L, boundSql2.getAdditionalParameter("__data_permission_0"));
+        verify(interceptor, times(1)).parserSingle(eq(sql), isNull());
+    }
+
+    private static BoundSql buildBoundSql(Configuration configuration, String sql) {
+        List<ParameterMapping> parameterMappings = new ArrayList<>(singletonList(
+                new ParameterMapping.Builder(configuration, "id", Long.class).build()));
+        return new BoundSql(configuration, sql, parameterMappings, null);
+    }
+
     @Test
     public void testAddNoRewritable() {
         // 准备参数
@@ -159,6 +204,8 @@ public class DataPermissionDatabaseInterceptorTest extends BaseMockitoUnitTest {
 
         private static final String COLUMN = "dept_id";
 
+        private Long deptId = 100L;
+
         @Override
         public Set<String> getTableNames() {
             return SetUtils.asSet("t_user");
@@ -167,7 +214,7 @@ public class DataPermissionDatabaseInterceptorTest extends BaseMockitoUnitTest {
         @Override
         public Expression getExpression(String tableName, Alias tableAlias) {
             Column column = MyBatisUtils.buildColumn(tableName, tableAlias, COLUMN);
-            LongValue value = new LongValue(100L);
+            LongValue value = new LongValue(deptId);
             return new EqualsTo(column, value);
         }
 
@@ -0,0 +1,52 @@
+package cn.iocoder.yudao.framework.operatelog.config;
+
+import cn.iocoder.yudao.framework.common.util.concurrent.AsyncBatchProperties;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 操作日志配置
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.operate-log")
+@Validated
+@Data
+public class OperateLogProperties {
+
+    /**
+     * 是否批量写入
+     *
+     * true 时，先放入有界队列，由后台线程批量写入；false 时，每条日志通过 @Async 异步写入
+     */
+    @NotNull(message = "是否批量写入不能为空")
+    private Boolean batchEnable = true;
+
+    /**
+     * 批量写入的配置，操作日志 v1、v2 各自使用一个队列
+     */
+    @NestedConfigurationProperty
+    private AsyncBatchProperties batch = new AsyncBatchProperties();
+
+    /**
+     * 方法参数、方法结果、拓展字段等数据的最大长度，超过时截断
+     *
+     * 为空时，不进行截断。当然，写入数据库时，仍然会按照字段的长度截断
+     */
+    private Integer payloadMaxLength;
+
+    /**
+     * 每个模块的数据最大长度，优先于 {@link #payloadMaxLength}。设置为 0 时，不记录这些数据
+     *
+     * key：模块。对应 v1 的 module 字段，例如说「管理后台 - 用户」；对应 v2 的 type 字段，例如说「CRM 客户」
+     * value：最大长度
+     */
+    private Map<String, Integer> modulePayloadMaxLength = Collections.emptyMap();
+
+}
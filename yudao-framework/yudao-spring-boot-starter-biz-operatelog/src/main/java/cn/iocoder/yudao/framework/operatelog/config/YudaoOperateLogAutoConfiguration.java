@@ -1,13 +1,18 @@
 package cn.iocoder.yudao.framework.operatelog.config;
 
 import cn.iocoder.yudao.framework.operatelog.core.aop.OperateLogAspect;
+import cn.iocoder.yudao.framework.operatelog.core.service.BatchOperateLogFrameworkServiceImpl;
 import cn.iocoder.yudao.framework.operatelog.core.service.OperateLogFrameworkService;
 import cn.iocoder.yudao.framework.operatelog.core.service.OperateLogFrameworkServiceImpl;
+import cn.iocoder.yudao.framework.operatelog.core.service.OperateLogPayloadProcessor;
 import cn.iocoder.yudao.module.system.api.logger.OperateLogApi;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 
 @AutoConfiguration
+@EnableConfigurationProperties(OperateLogProperties.class)
 public class YudaoOperateLogAutoConfiguration {
 
     @Bean
@@ -16,8 +21,26 @@ public class YudaoOperateLogAutoConfiguration {
     }
 
     @Bean
-    public OperateLogFrameworkService operateLogFrameworkService(OperateLogApi operateLogApi) {
-        return new OperateLogFrameworkServiceImpl(operateLogApi);
+    public OperateLogPayloadProcessor operateLogPayloadProcessor(OperateLogProperties properties) {
+        return new OperateLogPayloadProcessor(properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "yudao.operate-log", value = "batch-enable", havingValue = "false")
+    public OperateLogFrameworkService operateLogFrameworkService(OperateLogApi operateLogApi,
+                                                                 OperateLogPayloadProcessor operateLogPayloadProcessor) {
+        return new OperateLogFrameworkServiceImpl(operateLogApi, operateLogPayloadProcessor);
+    }
+
+    /**
+     * 创建批量写入的 OperateLogFrameworkService Bean，关闭时会写入队列中剩余的日志
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "yudao.operate-log", value = "batch-enable", matchIfMissing = true) // 允许使用 yudao.operate-log.batch-enable=false 回退为逐条异步写入
+    public BatchOperateLogFrameworkServiceImpl batchOperateLogFrameworkService(OperateLogApi operateLogApi,
+                                                                              OperateLogPayloadProcessor operateLogPayloadProcessor,
+                                                                              OperateLogProperties properties) {
+        return new BatchOperateLogFrameworkServiceImpl(operateLogApi, operateLogPayloadProcessor, properties.getBatch());
     }
 
 }
@@ -12,7 +12,9 @@ import cn.iocoder.yudao.framework.common.util.servlet.ServletUtils;
 import cn.iocoder.yudao.framework.operatelog.core.enums.OperateTypeEnum;
 import cn.iocoder.yudao.framework.operatelog.core.service.OperateLog;
 import cn.iocoder.yudao.framework.operatelog.core.service.OperateLogFrameworkService;
+import cn.iocoder.yudao.framework.operatelog.core.service.OperateLogPayloadProcessor;
 import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.Maps;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
@@ -69,6 +71,8 @@ public class OperateLogAspect {
 
     @Resource
     private OperateLogFrameworkService operateLogFrameworkService;
+    @Resource
+    private OperateLogPayloadProcessor operateLogPayloadProcessor;
 
     @Around("@annotation(operation)")
     public Object around(ProceedingJoinPoint joinPoint, Operation operation) throws Throwable {
@@ -159,6 +163,8 @@ public class OperateLogAspect {
         fillRequestFields(operateLogObj);
         // 补全方法信息
         fillMethodFields(operateLogObj, joinPoint, operateLog, startTime, result, exception);
+        // 补全方法参数、方法结果
+        fillPayloadFields(operateLogObj, joinPoint, operateLog, result);
 
         // 异步记录日志
         operateLogFrameworkService.createOperateLog(operateLogObj);
@@ -218,6 +224,7 @@ public class OperateLogAspect {
             return;
         }
         // 补全请求信息
+        operateLogObj.setTenantId(WebFrameworkUtils.getTenantId(request));
         operateLogObj.setRequestMethod(request.getMethod());
         operateLogObj.setRequestUrl(request.getRequestURI());
         operateLogObj.setUserIp(ServletUtils.getClientIP(request));
@@ -230,12 +237,6 @@ public class OperateLogAspect {
                                          LocalDateTime startTime, Object result, Throwable exception) {
         MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
         operateLogObj.setJavaMethod(methodSignature.toString());
-        if (operateLog == null || operateLog.logArgs()) {
-            operateLogObj.setJavaMethodArgs(obtainMethodArgs(joinPoint));
-        }
-        if (operateLog == null || operateLog.logResultData()) {
-            operateLogObj.setResultData(obtainResultData(result));
-        }
         operateLogObj.setDuration((int) (LocalDateTimeUtil.between(startTime, LocalDateTime.now()).toMillis()));
         // （正常）处理 resultCode 和 resultMsg 字段
         if (result instanceof CommonResult) {
@@ -252,6 +253,23 @@ public class OperateLogAspect {
         }
     }
 
+    private void fillPayloadFields(OperateLog operateLogObj, ProceedingJoinPoint joinPoint,
+                                   cn.iocoder.yudao.framework.operatelog.core.annotations.OperateLog operateLog,
+                                   Object result) {
+        // 模块不记录时，无需生成快照
+        if (!operateLogPayloadProcessor.isPayloadEnable(operateLogObj.getModule())) {
+            return;
+        }
+        // 在请求线程上生成方法返回时的快照：后续对参数、结果的修改，不会影响操作日志；后台线程也不会读取非线程安全的对象
+        // JSON 字符串的序列化，延迟到写入操作日志的后台线程执行
+        if (operateLog == null || operateLog.logArgs()) {
+            operateLogObj.setJavaMethodArgsSnapshot(obtainMethodArgs(joinPoint));
+        }
+        if (operateLog == null || operateLog.logResultData()) {
+            operateLogObj.setResultDataSnapshot(obtainResultData(result));
+        }
+    }
+
     private static boolean isLogEnable(ProceedingJoinPoint joinPoint,
                                        cn.iocoder.yudao.framework.operatelog.core.annotations.OperateLog operateLog) {
         // 有 @OperateLog 注解的情况下
@@ -326,7 +344,7 @@ public class OperateLogAspect {
         return ((MethodSignature) joinPoint.getSignature()).getMethod().getDeclaringClass().getAnnotation(annotationClass);
     }
 
-    private static String obtainMethodArgs(ProceedingJoinPoint joinPoint) {
+    private static JsonNode obtainMethodArgs(ProceedingJoinPoint joinPoint) {
         // TODO 提升：参数脱敏和忽略
         MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
         String[] argNames = methodSignature.getParameterNames();
@@ -339,15 +357,15 @@ public class OperateLogAspect {
             // 被忽略时，标记为 ignore 字符串，避免和 null 混在一起
             args.put(argName, !isIgnoreArgs(argValue) ? argValue : "[ignore]");
         }
-        return JsonUtils.toJsonString(args);
+        return JsonUtils.toJsonTree(args);
     }
 
-    private static String obtainResultData(Object result) {
+    private static JsonNode obtainResultData(Object result) {
         // TODO 提升：结果脱敏和忽略
         if (result instanceof CommonResult) {
             result = ((CommonResult<?>) result).getData();
         }
-        return JsonUtils.toJsonString(result);
+        return JsonUtils.toJsonTree(result);
     }
 
     private static boolean isIgnoreArgs(Object object) {
@@ -0,0 +1,58 @@
+package cn.iocoder.yudao.framework.operatelog.core.service;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.iocoder.yudao.framework.common.util.concurrent.AsyncBatchProperties;
+import cn.iocoder.yudao.framework.common.util.concurrent.AsyncBatchWriter;
+import cn.iocoder.yudao.module.system.api.logger.OperateLogApi;
+import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogCreateReqDTO;
+import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogV2CreateReqDTO;
+
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
+/**
+ * 操作日志 Framework Service 实现类，批量写入
+ *
+ * 请求线程只将操作日志放入 {@link AsyncBatchWriter} 的有界队列，由后台线程序列化、截断后，
+ * 基于 {@link OperateLogApi} 的批量接口写入，避免批量操作（例如说，CRM 导入）时被操作日志拖慢
+ *
+ * @author 芋道源码
+ */
+public class BatchOperateLogFrameworkServiceImpl implements OperateLogFrameworkService, AutoCloseable {
+
+    private final AsyncBatchWriter<OperateLog> writer;
+    private final AsyncBatchWriter<OperateLogV2CreateReqDTO> writerV2;
+
+    public BatchOperateLogFrameworkServiceImpl(OperateLogApi operateLogApi, OperateLogPayloadProcessor payloadProcessor,
+                                               AsyncBatchProperties properties) {
+        this.writer = new AsyncBatchWriter<>("operate-log", properties, operateLogs -> {
+            List<OperateLogCreateReqDTO> reqDTOs = convertList(operateLogs, operateLog -> {
+                payloadProcessor.process(operateLog);
+                return BeanUtil.toBean(operateLog, OperateLogCreateReqDTO.class);
+            });
+            operateLogApi.createOperateLogBatch(reqDTOs);
+        });
+        this.writerV2 = new AsyncBatchWriter<>("operate-log-v2", properties, reqDTOs -> {
+            reqDTOs.forEach(payloadProcessor::process);
+            operateLogApi.createOperateLogV2Batch(reqDTOs);
+        });
+    }
+
+    @Override
+    public void createOperateLog(OperateLog operateLog) {
+        writer.offer(operateLog);
+    }
+
+    @Override
+    public void createOperateLogV2(OperateLogV2CreateReqDTO createReqDTO) {
+        writerV2.offer(createReqDTO);
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+        writerV2.close();
+    }
+
+}
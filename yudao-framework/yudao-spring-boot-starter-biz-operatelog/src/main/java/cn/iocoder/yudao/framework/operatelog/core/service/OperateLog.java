@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.framework.operatelog.core.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -18,6 +19,13 @@ public class OperateLog {
      */
     private String traceId;
 
+    /**
+     * 租户编号
+     *
+     * 批量写入时，按照它切换租户上下文
+     */
+    private Long tenantId;
+
     /**
      * 用户编号
      */
@@ -81,6 +89,14 @@ public class OperateLog {
      * Java 方法的参数
      */
     private String javaMethodArgs;
+    /**
+     * Java 方法的参数的快照
+     *
+     * 在请求线程上生成，由写入操作日志的后台线程序列化到 {@link #javaMethodArgs} 字段
+     *
+     * @see OperateLogPayloadProcessor
+     */
+    private JsonNode javaMethodArgsSnapshot;
 
     /**
      * 开始时间
@@ -106,5 +122,13 @@ public class OperateLog {
      * 结果数据
      */
     private String resultData;
+    /**
+     * 结果数据的快照
+     *
+     * 在请求线程上生成，由写入操作日志的后台线程序列化到 {@link #resultData} 字段
+     *
+     * @see OperateLogPayloadProcessor
+     */
+    private JsonNode resultDataSnapshot;
 
 }
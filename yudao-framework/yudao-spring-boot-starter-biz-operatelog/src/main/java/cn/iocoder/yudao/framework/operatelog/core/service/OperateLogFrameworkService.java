@@ -1,5 +1,7 @@
 package cn.iocoder.yudao.framework.operatelog.core.service;
 
+import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogV2CreateReqDTO;
+
 /**
  * 操作日志 Framework Service 接口
  *
@@ -14,4 +16,11 @@ public interface OperateLogFrameworkService {
      */
     void createOperateLog(OperateLog operateLog);
 
+    /**
+     * 记录操作日志 V2
+     *
+     * @param createReqDTO 操作日志请求
+     */
+    void createOperateLogV2(OperateLogV2CreateReqDTO createReqDTO);
+
 }
@@ -3,6 +3,7 @@ package cn.iocoder.yudao.framework.operatelog.core.service;
 import cn.hutool.core.bean.BeanUtil;
 import cn.iocoder.yudao.module.system.api.logger.OperateLogApi;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogCreateReqDTO;
+import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogV2CreateReqDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Async;
 
@@ -17,12 +18,21 @@ import org.springframework.scheduling.annotation.Async;
 public class OperateLogFrameworkServiceImpl implements OperateLogFrameworkService {
 
     private final OperateLogApi operateLogApi;
+    private final OperateLogPayloadProcessor payloadProcessor;
 
     @Override
     @Async
     public void createOperateLog(OperateLog operateLog) {
+        payloadProcessor.process(operateLog);
         OperateLogCreateReqDTO reqDTO = BeanUtil.toBean(operateLog, OperateLogCreateReqDTO.class);
         operateLogApi.createOperateLog(reqDTO);
     }
 
+    @Override
+    @Async
+    public void createOperateLogV2(OperateLogV2CreateReqDTO createReqDTO) {
+        payloadProcessor.process(createReqDTO);
+        operateLogApi.createOperateLogV2(createReqDTO);
+    }
+
 }
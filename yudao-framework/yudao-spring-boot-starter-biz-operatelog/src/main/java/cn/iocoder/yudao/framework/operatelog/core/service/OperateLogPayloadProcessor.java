@@ -0,0 +1,87 @@
+package cn.iocoder.yudao.framework.operatelog.core.service;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.operatelog.config.OperateLogProperties;
+import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogV2CreateReqDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 操作日志的数据处理器
+ *
+ * 在写入操作日志的后台线程中执行：
+ * 1. 将方法参数、方法结果的快照序列化成 JSON 字符串，避免在请求线程上进行序列化
+ * 2. 按照模块，对这些数据进行截断，或者不记录
+ *
+ * 注意，快照在请求线程上生成，后台线程不会读取到被修改、或者非线程安全的参数、结果对象
+ *
+ * @author 芋道源码
+ */
+@RequiredArgsConstructor
+public class OperateLogPayloadProcessor {
+
+    private final OperateLogProperties properties;
+
+    /**
+     * 处理操作日志 v1 的方法参数、方法结果
+     *
+     * @param operateLog 操作日志
+     */
+    public void process(OperateLog operateLog) {
+        Integer maxLength = getPayloadMaxLength(operateLog.getModule());
+        if (operateLog.getJavaMethodArgsSnapshot() != null) {
+            operateLog.setJavaMethodArgs(serialize(operateLog.getJavaMethodArgsSnapshot(), maxLength));
+            operateLog.setJavaMethodArgsSnapshot(null);
+        }
+        if (operateLog.getResultDataSnapshot() != null) {
+            operateLog.setResultData(serialize(operateLog.getResultDataSnapshot(), maxLength));
+            operateLog.setResultDataSnapshot(null);
+        }
+    }
+
+    /**
+     * 判断模块是否记录方法参数、方法结果等数据。不记录时，无需生成快照
+     *
+     * @param module 模块
+     * @return 是否记录
+     */
+    public boolean isPayloadEnable(String module) {
+        Integer maxLength = getPayloadMaxLength(module);
+        return maxLength == null || maxLength > 0;
+    }
+
+    /**
+     * 处理操作日志 v2 的拓展字段
+     *
+     * @param reqDTO 操作日志
+     */
+    public void process(OperateLogV2CreateReqDTO reqDTO) {
+        Integer maxLength = getPayloadMaxLength(reqDTO.getType());
+        reqDTO.setExtra(truncate(reqDTO.getExtra(), maxLength));
+    }
+
+    private Integer getPayloadMaxLength(String module) {
+        Integer maxLength = module != null ? properties.getModulePayloadMaxLength().get(module) : null;
+        return maxLength != null ? maxLength : properties.getPayloadMaxLength();
+    }
+
+    private static String serialize(JsonNode snapshot, Integer maxLength) {
+        // 不记录的情况下，也无需序列化
+        if (maxLength != null && maxLength <= 0) {
+            return null;
+        }
+        return truncate(JsonUtils.toJsonString(snapshot), maxLength);
+    }
+
+    private static String truncate(String value, Integer maxLength) {
+        if (value == null || maxLength == null || value.length() <= maxLength) {
+            return value;
+        }
+        if (maxLength <= 0) {
+            return null;
+        }
+        return StrUtil.sub(value, 0, maxLength);
+    }
+
+}
@@ -5,6 +5,8 @@ import cn.iocoder.yudao.framework.mq.redis.core.interceptor.RedisMessageIntercep
 import cn.iocoder.yudao.framework.mq.redis.core.message.AbstractRedisMessage;
 import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 
+import java.util.Collection;
+
 import static cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils.HEADER_TENANT_ID;
 
 /**
@@ -25,6 +27,16 @@ public class TenantRedisMessageInterceptor implements RedisMessageInterceptor {
         }
     }
 
+    @Override
+    public void sendMessagesBefore(Collection<? extends AbstractRedisMessage> messages) {
+        // 同一批消息的租户相同，只需要获取一次
+        Long tenantId = TenantContextHolder.getTenantId();
+        if (tenantId != null) {
+            String tenantIdStr = tenantId.toString();
+            messages.forEach(message -> message.addHeader(HEADER_TENANT_ID, tenantIdStr));
+        }
+    }
+
     @Override
     public void consumeMessageBefore(AbstractRedisMessage message) {
         String tenantIdStr = message.getHeader(HEADER_TENANT_ID);
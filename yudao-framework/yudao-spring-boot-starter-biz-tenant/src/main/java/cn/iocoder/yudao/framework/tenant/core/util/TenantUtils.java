@@ -1,9 +1,12 @@
 package cn.iocoder.yudao.framework.tenant.core.util;
 
+import cn.hutool.core.util.ObjectUtil;
 import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils.HEADER_TENANT_ID;
 
@@ -14,6 +17,13 @@ import static cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils.HEADER_
  */
 public class TenantUtils {
 
+    /**
+     * 没有租户编号时，{@link #getTenantKey()} 返回的 key，例如说未开启多租户
+     *
+     * 目的：{@link java.util.concurrent.ConcurrentHashMap} 不允许 null 的 key
+     */
+    public static final Long TENANT_ID_NONE = 0L;
+
     /**
      * 使用指定租户，执行对应的逻辑
      *
@@ -78,6 +88,72 @@ public class TenantUtils {
         }
     }
 
+    /**
+     * 忽略租户，执行对应的逻辑
+     *
+     * @param callable 逻辑
+     * @return 结果
+     */
+    public static <V> V executeIgnore(Callable<V> callable) {
+        Boolean oldIgnore = TenantContextHolder.isIgnore();
+        try {
+            TenantContextHolder.setIgnore(true);
+            // 执行逻辑
+            return callable.call();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            TenantContextHolder.setIgnore(oldIgnore);
+        }
+    }
+
+    /**
+     * 按照租户分组，使用各自的租户执行对应的逻辑
+     *
+     * 适合异步批量写入等，脱离了原请求的租户上下文的场景。租户编号为空的数据，会忽略租户执行
+     *
+     * @param list 数据列表
+     * @param tenantIdFunc 获得数据的租户编号
+     * @param consumer 逻辑，参数为同一租户的数据
+     */
+    public static <T> void executeByTenant(Collection<T> list, Function<T, Long> tenantIdFunc,
+                                           Consumer<List<T>> consumer) {
+        Map<Long, List<T>> tenantMap = new LinkedHashMap<>(); // 允许 null 的 key，对应没有租户的数据
+        list.forEach(item -> tenantMap.computeIfAbsent(tenantIdFunc.apply(item), key -> new ArrayList<>()).add(item));
+        tenantMap.forEach((tenantId, items) -> {
+            if (tenantId != null) {
+                execute(tenantId, () -> consumer.accept(items));
+            } else {
+                executeIgnore(() -> consumer.accept(items));
+            }
+        });
+    }
+
+    /**
+     * 获得当前租户编号，作为内存中按租户分组的 key，例如说本地缓存、待批量写入的数据
+     *
+     * @return 租户编号；没有租户编号时，返回 {@link #TENANT_ID_NONE}
+     */
+    public static Long getTenantKey() {
+        return ObjectUtil.defaultIfNull(TenantContextHolder.getTenantId(), TENANT_ID_NONE);
+    }
+
+    /**
+     * 使用 {@link #getTenantKey()} 对应的租户，执行对应的逻辑
+     *
+     * 适合定时任务等，在脱离原请求的线程中，处理按租户分组的数据
+     *
+     * @param tenantKey 租户编号，或者 {@link #TENANT_ID_NONE}。后者不切换租户，直接执行
+     * @param runnable 逻辑
+     */
+    public static void executeByTenantKey(Long tenantKey, Runnable runnable) {
+        if (TENANT_ID_NONE.equals(tenantKey)) {
+            runnable.run();
+            return;
+        }
+        execute(tenantKey, runnable);
+    }
+
     /**
      * 将多租户编号，添加到 header 中
      *
@@ -0,0 +1,128 @@
+package cn.iocoder.yudao.framework.excel.core.reader;
+
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.read.listener.ReadListener;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Excel 分批读取的 {@link ReadListener}，内存占用与数据总量无关
+ *
+ * 1. EasyExcel 逐行解析 Excel，每攒够 batchSize 行，交给 batchConsumer 处理一批
+ * 2. 如果传入 executor，则多批并行处理，并通过 {@link Semaphore} 限制处理中的批数，避免解析过快导致堆积
+ *
+ * 并行处理时，batchConsumer 需要自行保证线程安全，且 executor 需要自行传递租户、登录用户等上下文
+ *
+ * @param <T> Excel head 的类型
+ * @author 芋道源码
+ */
+public class ExcelBatchReadListener<T> implements ReadListener<T> {
+
+    /**
+     * 默认每批的数据量
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final int batchSize;
+    private final Consumer<List<T>> batchConsumer;
+
+    /**
+     * 并行处理的线程池，为空时在解析线程串行处理
+     */
+    private final Executor executor;
+    /**
+     * 处理中的批数的许可
+     */
+    private final Semaphore semaphore;
+    private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    /**
+     * 并行处理时，第一个失败的异常
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private List<T> buffer;
+    /**
+     * 已读取的行数
+     */
+    @Getter
+    private long count;
+
+    public ExcelBatchReadListener(int batchSize, Consumer<List<T>> batchConsumer) {
+        this(batchSize, batchConsumer, null, 1);
+    }
+
+    public ExcelBatchReadListener(int batchSize, Consumer<List<T>> batchConsumer,
+                                  Executor executor, int parallelism) {
+        this.batchSize = batchSize;
+        this.batchConsumer = batchConsumer;
+        this.executor = executor;
+        this.semaphore = new Semaphore(parallelism);
+        this.buffer = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void invoke(T data, AnalysisContext context) {
+        buffer.add(data);
+        count++;
+        if (buffer.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void doAfterAllAnalysed(AnalysisContext context) {
+        flush();
+        // 等待所有批处理完成
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(ex -> null).join();
+        throwIfFailed();
+    }
+
+    private void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        List<T> batch = buffer;
+        buffer = new ArrayList<>(batchSize);
+        // 情况一：串行处理
+        if (executor == null) {
+            batchConsumer.accept(batch);
+            return;
+        }
+
+        // 情况二：并行处理。已有批失败时，不再提交
+        throwIfFailed();
+        semaphore.acquireUninterruptibly();
+        futures.add(CompletableFuture.runAsync(() -> {
+            try {
+                batchConsumer.accept(batch);
+            } catch (Throwable ex) {
+                failure.compareAndSet(null, ex);
+                throw ex;
+            } finally {
+                semaphore.release();
+            }
+        }, executor));
+    }
+
+    private void throwIfFailed() {
+        Throwable ex = failure.get();
+        if (ex == null) {
+            return;
+        }
+        if (ex instanceof RuntimeException) {
+            throw (RuntimeException) ex;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        throw new IllegalStateException(ex);
+    }
+
+}
@@ -1,15 +1,25 @@
 package cn.iocoder.yudao.framework.excel.core.util;
 
+import cn.hutool.core.exceptions.ExceptionUtil;
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import cn.iocoder.yudao.framework.excel.core.reader.ExcelBatchReadListener;
+import cn.iocoder.yudao.framework.excel.core.writer.ExcelStreamWriter;
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
 import com.alibaba.excel.converters.longconverter.LongStringConverter;
+import com.alibaba.excel.exception.ExcelAnalysisException;
+import com.alibaba.excel.write.builder.ExcelWriterBuilder;
 import com.alibaba.excel.write.style.column.LongestMatchColumnWidthStyleStrategy;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Excel 工具类
@@ -32,12 +42,75 @@ public class ExcelUtils {
     public static <T> void write(HttpServletResponse response, String filename, String sheetName,
                                  Class<T> head, List<T> data) throws IOException {
         // 输出 Excel
-        EasyExcel.write(response.getOutputStream(), head)
+        buildExcelWriter(response.getOutputStream(), head).sheet(sheetName).doWrite(data);
+        // 设置 header 和 contentType。写在最后的原因是，避免报错时，响应 contentType 已经被修改了
+        setResponseHeader(response, filename);
+    }
+
+    /**
+     * 将数据以 Excel 流式响应给前端，适合大数据量的导出
+     *
+     * 与 {@link #write(HttpServletResponse, String, String, Class, List)} 不同，数据由 dataWriter 分批写入，
+     * 不需要一次性加载到内存，内存占用与数据总量无关
+     *
+     * @param response 响应
+     * @param filename 文件名
+     * @param sheetName Excel sheet 名
+     * @param head Excel head 头
+     * @param dataWriter 数据写入逻辑，通过 {@link ExcelStreamWriter} 分批写入
+     * @param <T> 泛型，保证 head 和 data 类型的一致性
+     * @throws IOException 写入失败的情况
+     */
+    public static <T> void write(HttpServletResponse response, String filename, String sheetName,
+                                 Class<T> head, Consumer<ExcelStreamWriter<T>> dataWriter) throws IOException {
+        ExcelWriter excelWriter = buildExcelWriter(response.getOutputStream(), head).build();
+        try {
+            dataWriter.accept(new ExcelStreamWriter<>(excelWriter, EasyExcel.writerSheet(sheetName).build(),
+                    ExcelStreamWriter.DEFAULT_BATCH_SIZE));
+        } catch (RuntimeException ex) {
+            excelWriter.writeContext().finish(true); // 发生异常时，只清理临时文件，不输出 Excel
+            throw ex;
+        }
+        // 设置 header 和 contentType。写在 finish 之前的原因是，finish 时才会真正输出到响应
+        setResponseHeader(response, filename);
+        excelWriter.finish();
+    }
+
+    /**
+     * 将数据以 Excel 流式写入到输出流，适合大数据量的导出
+     *
+     * 例如说，后台任务写入到临时文件，再上传到文件服务，避免导出请求长时间占用 HTTP 连接
+     *
+     * @param outputStream 输出流，不会被关闭
+     * @param sheetName Excel sheet 名
+     * @param head Excel head 头
+     * @param dataWriter 数据写入逻辑，通过 {@link ExcelStreamWriter} 分批写入
+     * @param <T> 泛型，保证 head 和 data 类型的一致性
+     * @return 写入的行数
+     */
+    public static <T> long write(OutputStream outputStream, String sheetName,
+                                 Class<T> head, Consumer<ExcelStreamWriter<T>> dataWriter) {
+        ExcelWriter excelWriter = buildExcelWriter(outputStream, head).build();
+        ExcelStreamWriter<T> streamWriter = new ExcelStreamWriter<>(excelWriter, EasyExcel.writerSheet(sheetName).build(),
+                ExcelStreamWriter.DEFAULT_BATCH_SIZE);
+        try {
+            dataWriter.accept(streamWriter);
+        } catch (RuntimeException ex) {
+            excelWriter.writeContext().finish(true); // 发生异常时，只清理临时文件，不输出 Excel
+            throw ex;
+        }
+        excelWriter.finish();
+        return streamWriter.getCount();
+    }
+
+    private static <T> ExcelWriterBuilder buildExcelWriter(OutputStream outputStream, Class<T> head) {
+        return EasyExcel.write(outputStream, head)
                 .autoCloseStream(false) // 不要自动关闭，交给 Servlet 自己处理
                 .registerWriteHandler(new LongestMatchColumnWidthStyleStrategy()) // 基于 column 长度，自动适配。最大 255 宽度
-                .registerConverter(new LongStringConverter()) // 避免 Long 类型丢失精度
-                .sheet(sheetName).doWrite(data);
-        // 设置 header 和 contentType。写在最后的原因是，避免报错时，响应 contentType 已经被修改了
+                .registerConverter(new LongStringConverter()); // 避免 Long 类型丢失精度
+    }
+
+    private static void setResponseHeader(HttpServletResponse response, String filename) throws IOException {
         response.addHeader("Content-Disposition", "attachment;filename=" + URLEncoder.encode(filename, StandardCharsets.UTF_8.name()));
         response.setContentType("application/vnd.ms-excel;charset=UTF-8");
     }
@@ -48,4 +121,58 @@ public class ExcelUtils {
                 .doReadAllSync();
     }
 
+    /**
+     * 分批读取 Excel，适合大数据量的导入
+     *
+     * 与 {@link #read(MultipartFile, Class)} 不同，不会一次性加载全部数据到内存，而是每读取一批，交给 batchConsumer 处理
+     *
+     * @param file Excel 文件
+     * @param head Excel head 头
+     * @param batchConsumer 每批数据的处理逻辑，例如说批量校验、批量插入
+     * @param <T> 泛型，保证 head 和 data 类型的一致性
+     * @return 读取的行数
+     * @throws IOException 读取失败的情况
+     */
+    public static <T> long read(MultipartFile file, Class<T> head, Consumer<List<T>> batchConsumer) throws IOException {
+        ExcelBatchReadListener<T> listener = new ExcelBatchReadListener<>(ExcelBatchReadListener.DEFAULT_BATCH_SIZE, batchConsumer);
+        return read(file, head, listener);
+    }
+
+    /**
+     * 分批读取 Excel，并通过 executor 并行处理多批数据
+     *
+     * 注意，batchConsumer 需要线程安全；不同批之间，不能有顺序依赖，例如说同一个文件内的唯一性校验
+     *
+     * @param file Excel 文件
+     * @param head Excel head 头
+     * @param executor 线程池，需要自行传递租户等上下文
+     * @param parallelism 最大的并行批数
+     * @param batchConsumer 每批数据的处理逻辑，例如说批量校验、批量插入
+     * @param <T> 泛型，保证 head 和 data 类型的一致性
+     * @return 读取的行数
+     * @throws IOException 读取失败的情况
+     */
+    public static <T> long read(MultipartFile file, Class<T> head, Executor executor, int parallelism,
+                                Consumer<List<T>> batchConsumer) throws IOException {
+        ExcelBatchReadListener<T> listener = new ExcelBatchReadListener<>(ExcelBatchReadListener.DEFAULT_BATCH_SIZE,
+                batchConsumer, executor, parallelism);
+        return read(file, head, listener);
+    }
+
+    private static <T> long read(MultipartFile file, Class<T> head, ExcelBatchReadListener<T> listener) throws IOException {
+        try {
+            EasyExcel.read(file.getInputStream(), head, listener)
+                    .autoCloseStream(false)  // 不要自动关闭，交给 Servlet 自己处理
+                    .sheet().doRead();
+        } catch (ExcelAnalysisException ex) {
+            // batchConsumer 抛出的业务异常，会被 EasyExcel 包装，需要解开，从而返回原本的错误码、错误提示
+            Throwable serviceException = ExceptionUtil.getCausedBy(ex, ServiceException.class);
+            if (serviceException != null) {
+                throw (ServiceException) serviceException;
+            }
+            throw ex;
+        }
+        return listener.getCount();
+    }
+
 }
@@ -0,0 +1,110 @@
+package cn.iocoder.yudao.framework.excel.core.writer;
+
+import cn.hutool.core.collection.CollUtil;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Excel 流式写入器，分批写入数据，内存占用与数据总量无关
+ *
+ * 基于 EasyExcel 的 {@link ExcelWriter}，使用 SXSSF 模式：已写入的行会被刷到磁盘的临时文件，内存中只保留最近的少量行。
+ * 所以调用方只需要保证「每批」数据不常驻内存，例如说：
+ * 1. {@link #writePages(BiFunction, Function, Function)}：基于编号游标分页查询，逐页写入
+ * 2. {@link #write(Iterable, Function)}：遍历 MyBatis 的 Cursor 等迭代器，攒批写入
+ *
+ * @param <T> Excel head 的类型
+ * @author 芋道源码
+ */
+public class ExcelStreamWriter<T> {
+
+    /**
+     * 默认每批的数据量
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final ExcelWriter excelWriter;
+    private final WriteSheet writeSheet;
+    private final int batchSize;
+
+    /**
+     * 已写入的行数
+     */
+    @Getter
+    private long count;
+
+    public ExcelStreamWriter(ExcelWriter excelWriter, WriteSheet writeSheet, int batchSize) {
+        this.excelWriter = excelWriter;
+        this.writeSheet = writeSheet;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 写入一批数据
+     *
+     * @param rows 数据列表
+     */
+    public void write(Collection<T> rows) {
+        if (CollUtil.isEmpty(rows)) {
+            return;
+        }
+        excelWriter.write(rows, writeSheet);
+        count += rows.size();
+    }
+
+    /**
+     * 遍历数据源，每攒够 batchSize 条，转换并写入一批
+     *
+     * 适合 MyBatis 的 Cursor 游标查询：数据逐行从数据库读取，不会一次性加载到内存
+     *
+     * @param source 数据源
+     * @param converter 转换器，将一批数据转换成 Excel 行，可在此批量查询关联数据
+     * @param <S> 数据源的类型
+     */
+    public <S> void write(Iterable<S> source, Function<List<S>, List<T>> converter) {
+        List<S> buffer = new ArrayList<>(batchSize);
+        for (S item : source) {
+            buffer.add(item);
+            if (buffer.size() >= batchSize) {
+                write(converter.apply(buffer));
+                buffer = new ArrayList<>(batchSize);
+            }
+        }
+        if (!buffer.isEmpty()) {
+            write(converter.apply(buffer));
+        }
+    }
+
+    /**
+     * 基于编号游标分页查询，逐页转换并写入，直到查询不到数据
+     *
+     * 每页通过「编号 < 上一页最后一条的编号」定位，不使用 offset，也不需要 COUNT 总数，所以每页的查询代价与页码无关
+     *
+     * @param pageLoader 分页查询，参数为上一页最后一条的编号（第一页为 null）、每页数量；需要按编号倒序返回
+     * @param idGetter 编号的获取器
+     * @param converter 转换器，将一页数据转换成 Excel 行，可在此批量查询关联数据
+     * @param <S> 分页结果的类型
+     */
+    public <S> void writePages(BiFunction<Long, Integer, List<S>> pageLoader, Function<S, Long> idGetter,
+                               Function<List<S>, List<T>> converter) {
+        Long lastId = null;
+        while (true) {
+            List<S> list = pageLoader.apply(lastId, batchSize);
+            if (CollUtil.isEmpty(list)) {
+                return;
+            }
+            write(converter.apply(list));
+            if (list.size() < batchSize) { // 不足一页，说明已经是最后一页
+                return;
+            }
+            lastId = idGetter.apply(CollUtil.getLast(list));
+        }
+    }
+
+}
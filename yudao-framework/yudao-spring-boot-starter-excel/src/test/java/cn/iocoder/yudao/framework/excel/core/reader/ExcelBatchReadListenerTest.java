@@ -0,0 +1,129 @@
+package cn.iocoder.yudao.framework.excel.core.reader;
+
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ExcelBatchReadListener} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class ExcelBatchReadListenerTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRead_serial() {
+        // 准备参数
+        List<List<Integer>> batches = new ArrayList<>();
+        Thread readThread = Thread.currentThread();
+        ExcelBatchReadListener<Integer> listener = new ExcelBatchReadListener<>(2, batch -> {
+            assertSame(readThread, Thread.currentThread()); // 在解析线程串行处理
+            batches.add(batch);
+        });
+
+        // 调用
+        read(listener, 5);
+        // 断言：每攒够 2 行处理一批，最后不足一批的也需要处理
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4), Collections.singletonList(5)), batches);
+        assertEquals(5, listener.getCount());
+    }
+
+    @Test
+    public void testRead_serialEmpty() {
+        // 准备参数
+        List<List<Integer>> batches = new ArrayList<>();
+        ExcelBatchReadListener<Integer> listener = new ExcelBatchReadListener<>(2, batches::add);
+
+        // 调用
+        read(listener, 0);
+        // 断言：没有数据时，不处理空批
+        assertTrue(batches.isEmpty());
+        assertEquals(0, listener.getCount());
+    }
+
+    @Test
+    public void testRead_serialFailure() {
+        // 准备参数
+        ExcelBatchReadListener<Integer> listener = new ExcelBatchReadListener<>(2, batch -> {
+            throw new ServiceException(1, "批处理失败");
+        });
+
+        // 调用，并断言异常：原样抛出
+        ServiceException ex = assertThrows(ServiceException.class, () -> read(listener, 1));
+        assertEquals("批处理失败", ex.getMessage());
+    }
+
+    @Test
+    public void testRead_parallel() {
+        // 准备参数
+        List<Integer> rows = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExcelBatchReadListener<Integer> listener = new ExcelBatchReadListener<>(1, batch -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rows.addAll(batch);
+            running.decrementAndGet();
+        }, executor, 2);
+
+        // 调用
+        read(listener, 10);
+        // 断言：返回时，所有批都已经处理完成
+        assertEquals(10, rows.size());
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)), new HashSet<>(rows));
+        assertEquals(10, listener.getCount());
+        // 断言：处理中的批数，不超过 parallelism
+        assertTrue(maxRunning.get() <= 2, "处理中的批数：" + maxRunning.get());
+    }
+
+    @Test
+    public void testRead_parallelFailure() {
+        // 准备参数
+        ExcelBatchReadListener<Integer> listener = new ExcelBatchReadListener<>(1, batch -> {
+            if (batch.contains(3)) {
+                throw new ServiceException(1, "批处理失败");
+            }
+        }, executor, 2);
+
+        // 调用，并断言异常：其它线程的异常，原样抛给解析线程
+        ServiceException ex = assertThrows(ServiceException.class, () -> read(listener, 10));
+        assertEquals("批处理失败", ex.getMessage());
+    }
+
+    /**
+     * 模拟 EasyExcel 的解析过程：逐行回调 invoke，最后回调 doAfterAllAnalysed
+     */
+    private static void read(ExcelBatchReadListener<Integer> listener, int rowCount) {
+        for (int i = 1; i <= rowCount; i++) {
+            listener.invoke(i, null);
+        }
+        listener.doAfterAllAnalysed(null);
+    }
+
+}
@@ -0,0 +1,160 @@
+package cn.iocoder.yudao.framework.excel.core.util;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.annotation.ExcelProperty;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ExcelUtils} 导出的基准测试，单位为「毫秒/次」，即导出一次 Excel 的耗时
+ *
+ * 对比两种方式：
+ * 1. list：先加载全部数据到内存，再一次性写入，相当于 PAGE_SIZE_NONE 不分页查询的原实现
+ * 2. stream：通过 {@link cn.iocoder.yudao.framework.excel.core.writer.ExcelStreamWriter} 分页加载、流式写入
+ *
+ * 通过 {@link HeapPeakProfiler} 在结果中输出每次迭代的堆内存峰值 heap.peak。
+ * 也可以通过 -Xmx 限制堆内存，观察 list 方式在大数据量下的 OOM
+ *
+ * 非单元测试，通过 main 方法运行
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ExcelUtilsBenchmark {
+
+    /**
+     * 导出的行数
+     */
+    @Param({"100000", "1000000"})
+    private int rowCount;
+
+    @Benchmark
+    public void list() {
+        List<DemoRow> rows = loadRows(rowCount, rowCount);
+        EasyExcel.write(new NullOutputStream(), DemoRow.class).sheet("数据").doWrite(rows);
+    }
+
+    @Benchmark
+    public long stream() {
+        return ExcelUtils.write(new NullOutputStream(), "数据", DemoRow.class,
+                writer -> writer.writePages((maxId, limit) -> {
+                    // 编号从 rowCount 倒序到 1，与导出接口的查询顺序一致
+                    long fromId = maxId != null ? maxId - 1 : rowCount;
+                    return loadRows(fromId, (int) Math.min(limit, fromId));
+                }, DemoRow::getId, list -> list));
+    }
+
+    /**
+     * 模拟数据库查询，按编号倒序返回 [fromId - limit + 1, fromId] 的数据
+     */
+    private static List<DemoRow> loadRows(long fromId, int limit) {
+        List<DemoRow> rows = new ArrayList<>(Math.max(limit, 0));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < limit; i++) {
+            long id = fromId - i;
+            rows.add(new DemoRow().setId(id).setName("客户" + id).setMobile("156" + (10000000 + id % 10000000))
+                    .setPrice((int) (id % 100000)).setCreateTime(now));
+        }
+        return rows;
+    }
+
+    @Data
+    public static class DemoRow {
+
+        @ExcelProperty("编号")
+        private Long id;
+        @ExcelProperty("名称")
+        private String name;
+        @ExcelProperty("手机")
+        private String mobile;
+        @ExcelProperty("金额")
+        private Integer price;
+        @ExcelProperty("创建时间")
+        private LocalDateTime createTime;
+
+    }
+
+    /**
+     * 丢弃所有数据的输出流，避免磁盘 IO 影响测试结果
+     */
+    private static class NullOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+
+    }
+
+    /**
+     * 堆内存峰值的 Profiler，作为 heap.peak 指标输出到 JMH 的结果中
+     *
+     * 每次迭代开始前 GC 并重置峰值，结束时汇总各个堆内存池的峰值。峰值包含尚未回收的垃圾对象，所以是上限值，用于对比数量级
+     */
+    public static class HeapPeakProfiler implements InternalProfiler {
+
+        @Override
+        public String getDescription() {
+            return "堆内存峰值";
+        }
+
+        @Override
+        public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+            System.gc();
+            ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+
+        @Override
+        public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                           IterationResult result) {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            return Collections.singletonList(new ScalarResult("heap.peak", peak / 1024.0 / 1024.0, "MB",
+                    AggregationPolicy.MAX));
+        }
+
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ExcelUtilsBenchmark.class.getSimpleName())
+                .addProfiler(HeapPeakProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
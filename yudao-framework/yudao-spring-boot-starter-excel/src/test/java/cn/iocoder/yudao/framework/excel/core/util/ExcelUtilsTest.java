@@ -0,0 +1,80 @@
+package cn.iocoder.yudao.framework.excel.core.util;
+
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.annotation.ExcelProperty;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ExcelUtils} 分批读取的单元测试
+ *
+ * @author 芋道源码
+ */
+public class ExcelUtilsTest {
+
+    @Test
+    public void testRead_batch() throws IOException {
+        // 准备参数
+        MockMultipartFile file = buildFile(2500);
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+
+        // 调用
+        long count = ExcelUtils.read(file, DemoRow.class, batch -> {
+            batchSizes.add(batch.size());
+            batch.forEach(row -> ids.add(row.getId()));
+        });
+        // 断言
+        assertEquals(2500, count);
+        assertEquals(2500, ids.size());
+        assertEquals(1L, ids.get(0));
+        assertEquals(2500L, ids.get(2499));
+        assertEquals(3, batchSizes.size()); // 默认每批 1000 行
+    }
+
+    @Test
+    public void testRead_serviceException() throws IOException {
+        // 准备参数
+        MockMultipartFile file = buildFile(1);
+
+        // 调用，并断言异常：batchConsumer 抛出的业务异常，不会被 EasyExcel 的异常包装
+        ServiceException ex = assertThrows(ServiceException.class, () -> ExcelUtils.read(file, DemoRow.class, batch -> {
+            throw new ServiceException(1_001_000_000, "导入失败");
+        }));
+        assertEquals(1_001_000_000, ex.getCode());
+        assertEquals("导入失败", ex.getMessage());
+    }
+
+    private static MockMultipartFile buildFile(int rowCount) {
+        List<DemoRow> rows = new ArrayList<>(rowCount);
+        for (long i = 1; i <= rowCount; i++) {
+            DemoRow row = new DemoRow();
+            row.setId(i);
+            row.setName("芋道" + i);
+            rows.add(row);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        EasyExcel.write(outputStream, DemoRow.class).sheet("数据").doWrite(rows);
+        return new MockMultipartFile("file", "demo.xlsx", null, outputStream.toByteArray());
+    }
+
+    @Data
+    public static class DemoRow {
+
+        @ExcelProperty("编号")
+        private Long id;
+        @ExcelProperty("名称")
+        private String name;
+
+    }
+
+}
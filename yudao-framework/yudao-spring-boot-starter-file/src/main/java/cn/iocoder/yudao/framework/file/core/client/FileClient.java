@@ -42,6 +42,19 @@ public interface FileClient {
      */
     byte[] getContent(String path) throws Exception;
 
+    /**
+     * 获得文件内容的读取器，用于大文件的流式下载
+     *
+     * 默认基于 {@link #getContent(String)} 实现，会将文件完整加载到内存；支持流式读取的客户端，需要重写该方法
+     *
+     * @param path 相对路径
+     * @return 读取器；文件不存在时，返回 null
+     */
+    default FileContentReader getContentReader(String path) throws Exception {
+        byte[] content = getContent(path);
+        return content != null ? FileContentReader.of(content) : null;
+    }
+
     /**
      * 获得文件预签名地址
      *
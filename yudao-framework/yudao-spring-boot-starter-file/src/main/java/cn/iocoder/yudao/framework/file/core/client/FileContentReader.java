@@ -0,0 +1,75 @@
+package cn.iocoder.yudao.framework.file.core.client;
+
+import java.io.OutputStream;
+
+/**
+ * 文件内容的读取器，用于大文件的流式下载，内存占用与文件大小无关
+ *
+ * 通过 {@link FileClient#getContentReader(String)} 获得时，只读取了文件的长度等元数据；
+ * 调用 {@link #transferTo(long, long, OutputStream)} 时，才按范围读取并写出内容，从而支持 HTTP Range 断点续传
+ *
+ * @author 芋道源码
+ */
+public interface FileContentReader {
+
+    /**
+     * 获得文件的长度
+     *
+     * @return 长度，单位：字节
+     */
+    long getLength();
+
+    /**
+     * 获得文件的最后修改时间，用于 HTTP 缓存协商
+     *
+     * @return 最后修改时间，单位：毫秒；无法获取时，返回 null
+     */
+    Long getLastModified();
+
+    /**
+     * 获得文件的类型
+     *
+     * @return 类型；无法获取时，返回 null
+     */
+    default String getContentType() {
+        return null;
+    }
+
+    /**
+     * 将 [start, end] 范围的内容，写出到输出流
+     *
+     * @param start 开始位置（包含），从 0 开始
+     * @param end 结束位置（包含）
+     * @param out 输出流，不会被关闭
+     * @throws Exception 读取文件时，抛出 Exception 异常
+     */
+    void transferTo(long start, long end, OutputStream out) throws Exception;
+
+    /**
+     * 基于字节数组，创建读取器。用于不支持流式读取的客户端
+     *
+     * @param content 文件内容
+     * @return 读取器
+     */
+    static FileContentReader of(byte[] content) {
+        return new FileContentReader() {
+
+            @Override
+            public long getLength() {
+                return content.length;
+            }
+
+            @Override
+            public Long getLastModified() {
+                return null;
+            }
+
+            @Override
+            public void transferTo(long start, long end, OutputStream out) throws Exception {
+                out.write(content, (int) start, (int) (end - start + 1));
+            }
+
+        };
+    }
+
+}
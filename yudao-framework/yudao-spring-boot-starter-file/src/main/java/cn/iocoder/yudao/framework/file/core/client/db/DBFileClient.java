@@ -1,7 +1,11 @@
 package cn.iocoder.yudao.framework.file.core.client.db;
 
 import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.file.core.client.AbstractFileClient;
+import cn.iocoder.yudao.framework.file.core.client.FileContentReader;
+
+import java.io.OutputStream;
 
 /**
  * 基于 DB 存储的文件客户端的配置类
@@ -10,6 +14,11 @@ import cn.iocoder.yudao.framework.file.core.client.AbstractFileClient;
  */
 public class DBFileClient extends AbstractFileClient<DBFileClientConfig> {
 
+    /**
+     * 流式读取时，每次从 DB 读取的内容长度：1MB
+     */
+    private static final int READ_CHUNK_SIZE = 1024 * 1024;
+
     private DBFileContentFrameworkDAO dao;
 
     public DBFileClient(Long id, DBFileClientConfig config) {
@@ -37,6 +46,38 @@ public class DBFileClient extends AbstractFileClient<DBFileClientConfig> {
         return getDao().selectContent(getId(), path);
     }
 
+    @Override
+    public FileContentReader getContentReader(String path) {
+        KeyValue<String, Long> idAndLength = getDao().selectContentLength(getId(), path);
+        if (idAndLength == null) {
+            return null;
+        }
+        String id = idAndLength.getKey();
+        long length = idAndLength.getValue();
+        return new FileContentReader() {
+
+            @Override
+            public long getLength() {
+                return length;
+            }
+
+            @Override
+            public Long getLastModified() {
+                return null;
+            }
+
+            @Override
+            public void transferTo(long start, long end, OutputStream out) throws Exception {
+                // 分段读取，避免一次性加载整个文件
+                for (long offset = start; offset <= end; offset += READ_CHUNK_SIZE) {
+                    int chunkLength = (int) Math.min(READ_CHUNK_SIZE, end - offset + 1);
+                    out.write(getDao().selectContent(id, offset, chunkLength));
+                }
+            }
+
+        };
+    }
+
     private DBFileContentFrameworkDAO getDao() {
         // 延迟获取，因为 SpringUtil 初始化太慢
         if (dao == null) {
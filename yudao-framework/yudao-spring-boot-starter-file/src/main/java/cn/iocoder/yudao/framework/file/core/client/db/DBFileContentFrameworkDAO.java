@@ -1,5 +1,7 @@
 package cn.iocoder.yudao.framework.file.core.client.db;
 
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+
 /**
  * 文件内容 Framework DAO 接口
  *
@@ -33,4 +35,23 @@ public interface DBFileContentFrameworkDAO {
      */
     byte[] selectContent(Long configId, String path);
 
+    /**
+     * 获得文件内容的编号与长度，不读取内容本身
+     *
+     * @param configId 配置编号
+     * @param path 路径
+     * @return key 内容编号，value 长度；不存在时，返回 null
+     */
+    KeyValue<String, Long> selectContentLength(Long configId, String path);
+
+    /**
+     * 获得文件内容的一段
+     *
+     * @param id 内容编号
+     * @param offset 开始位置，从 0 开始
+     * @param length 长度
+     * @return 内容
+     */
+    byte[] selectContent(String id, long offset, int length);
+
 }
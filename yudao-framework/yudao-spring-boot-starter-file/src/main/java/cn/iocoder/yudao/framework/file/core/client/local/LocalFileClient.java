@@ -2,8 +2,14 @@ package cn.iocoder.yudao.framework.file.core.client.local;
 
 import cn.hutool.core.io.FileUtil;
 import cn.iocoder.yudao.framework.file.core.client.AbstractFileClient;
+import cn.iocoder.yudao.framework.file.core.client.FileContentReader;
 
 import java.io.File;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 
 /**
  * 本地文件客户端
@@ -45,8 +51,61 @@ public class LocalFileClient extends AbstractFileClient<LocalFileClientConfig> {
         return FileUtil.readBytes(filePath);
     }
 
+    @Override
+    public FileContentReader getContentReader(String path) {
+        File file = new File(getFilePath(path));
+        if (!file.isFile()) {
+            return null;
+        }
+        return new LocalFileContentReader(file);
+    }
+
     private String getFilePath(String path) {
         return config.getBasePath() + path;
     }
 
+    /**
+     * 本地文件的读取器，基于 {@link FileChannel#transferTo(long, long, WritableByteChannel)} 写出，不经过堆内存
+     */
+    private static class LocalFileContentReader implements FileContentReader {
+
+        private final File file;
+        private final long length;
+        private final long lastModified;
+
+        private LocalFileContentReader(File file) {
+            this.file = file;
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        @Override
+        public long getLength() {
+            return length;
+        }
+
+        @Override
+        public Long getLastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public void transferTo(long start, long end, OutputStream out) throws Exception {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = start;
+                long remaining = end - start + 1;
+                while (remaining > 0) {
+                    long count = channel.transferTo(position, remaining, target);
+                    if (count <= 0) { // 文件被截断，避免死循环
+                        break;
+                    }
+                    position += count;
+                    remaining -= count;
+                }
+            }
+        }
+
+    }
+
 }
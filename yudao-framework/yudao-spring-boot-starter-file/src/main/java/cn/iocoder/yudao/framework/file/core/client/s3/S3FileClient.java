@@ -4,10 +4,13 @@ import cn.hutool.core.io.IoUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.http.HttpUtil;
 import cn.iocoder.yudao.framework.file.core.client.AbstractFileClient;
+import cn.iocoder.yudao.framework.file.core.client.FileContentReader;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
 
 import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
 import java.util.concurrent.TimeUnit;
 
 import static cn.iocoder.yudao.framework.file.core.client.s3.S3FileClientConfig.ENDPOINT_ALIYUN;
@@ -119,6 +122,54 @@ public class S3FileClient extends AbstractFileClient<S3FileClientConfig> {
         return IoUtil.readBytes(response);
     }
 
+    @Override
+    public FileContentReader getContentReader(String path) throws Exception {
+        // 只获取文件的元数据
+        StatObjectResponse stat;
+        try {
+            stat = client.statObject(StatObjectArgs.builder()
+                    .bucket(config.getBucket()) // bucket 必须传递
+                    .object(path) // 相对路径作为 key
+                    .build());
+        } catch (ErrorResponseException ex) {
+            if ("NoSuchKey".equals(ex.errorResponse().code())) {
+                return null;
+            }
+            throw ex;
+        }
+        Long lastModified = stat.lastModified() != null ? stat.lastModified().toInstant().toEpochMilli() : null;
+        return new FileContentReader() {
+
+            @Override
+            public long getLength() {
+                return stat.size();
+            }
+
+            @Override
+            public Long getLastModified() {
+                return lastModified;
+            }
+
+            @Override
+            public String getContentType() {
+                return stat.contentType();
+            }
+
+            @Override
+            public void transferTo(long start, long end, OutputStream out) throws Exception {
+                // 基于 HTTP Range 的分段下载，只获取需要的范围
+                try (GetObjectResponse response = client.getObject(GetObjectArgs.builder()
+                        .bucket(config.getBucket()) // bucket 必须传递
+                        .object(path) // 相对路径作为 key
+                        .offset(start).length(end - start + 1)
+                        .build())) {
+                    IoUtil.copy(response, out);
+                }
+            }
+
+        };
+    }
+
     @Override
     public FilePresignedUrlRespDTO getPresignedObjectUrl(String path) throws Exception {
         String uploadUrl = client.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
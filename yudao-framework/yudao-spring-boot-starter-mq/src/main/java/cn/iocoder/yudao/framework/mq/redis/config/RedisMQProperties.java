@@ -0,0 +1,110 @@
+package cn.iocoder.yudao.framework.mq.redis.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Redis 消息队列配置
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.mq.redis")
+@Validated
+@Data
+public class RedisMQProperties {
+
+    /**
+     * Stream 的默认最大长度，发送消息时通过 MAXLEN ~ 近似裁剪，避免 Stream 无限增长
+     *
+     * 为空时，不进行裁剪。注意，裁剪不会考虑消费进度，需要大于消息可能堆积的数量
+     */
+    private Long streamMaxLength;
+
+    /**
+     * 每个 Stream 的最大长度，优先于 {@link #streamMaxLength}
+     *
+     * key：Stream Key，默认为消息的类名
+     * value：最大长度
+     */
+    private Map<String, Long> streamMaxLengths = Collections.emptyMap();
+
+    /**
+     * Stream 每个监听器，在每个节点的默认消费者数量
+     *
+     * 每个消费者对应一个拉取线程，在同一个消费者分组中并行消费
+     */
+    @NotNull(message = "Stream 消费者数量不能为空")
+    @Min(value = 1, message = "Stream 消费者数量最小为 {value}")
+    private Integer streamConcurrency = 1;
+
+    /**
+     * 每个 Stream 的监听器，在每个节点的消费者数量，优先于 {@link #streamConcurrency}
+     *
+     * key：Stream Key，默认为消息的类名
+     * value：消费者数量
+     */
+    private Map<String, Integer> streamConcurrencies = Collections.emptyMap();
+
+    /**
+     * Stream 每个消费者，一次性最多拉取多少条消息
+     */
+    @NotNull(message = "Stream 拉取数量不能为空")
+    @Min(value = 1, message = "Stream 拉取数量最小为 {value}")
+    private Integer streamBatchSize = 10;
+
+    /**
+     * Stream 拉取消息的阻塞时间
+     */
+    @NotNull(message = "Stream 拉取阻塞时间不能为空")
+    private Duration streamPollTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Stream pending 消息的超时时间，超时后才会被 RedisPendingMessageResendJob 认领并重新消费
+     */
+    @NotNull(message = "pending 消息超时时间不能为空")
+    private Duration pendingIdleTime = Duration.ofMinutes(5);
+
+    /**
+     * Stream pending 消息的扫描分页大小，即每次 XPENDING / XCLAIM 的消息数量
+     */
+    @NotNull(message = "pending 消息分页大小不能为空")
+    @Min(value = 1, message = "pending 消息分页大小最小为 {value}")
+    private Integer pendingPageSize = 100;
+
+    /**
+     * 每个 Stream 每次任务最多认领的 pending 消息数量，避免单次任务执行过久
+     */
+    @NotNull(message = "pending 消息最大认领数量不能为空")
+    @Min(value = 1, message = "pending 消息最大认领数量最小为 {value}")
+    private Integer pendingMaxReclaimCount = 10000;
+
+    /**
+     * pending 消息的最大投递次数，超过后转入死信 Stream，即 {Stream Key}:DLQ
+     *
+     * 为空时，不转入死信 Stream，一直重试
+     */
+    private Integer pendingMaxDeliveryCount = 16;
+
+    /**
+     * 延迟消息每次转入 Stream 的数量
+     */
+    @NotNull(message = "延迟消息转入数量不能为空")
+    @Min(value = 1, message = "延迟消息转入数量最小为 {value}")
+    private Integer delayBatchSize = 100;
+
+    /**
+     * 延迟消息的投递租约时间
+     *
+     * 到期的消息被某个节点取出后，超过该时间仍未转入 Stream（例如说，节点宕机），会被其它节点再次投递
+     */
+    @NotNull(message = "延迟消息租约时间不能为空")
+    private Duration delayLeaseTime = Duration.ofMinutes(1);
+
+}
@@ -5,15 +5,19 @@ import cn.hutool.core.util.StrUtil;
 import cn.hutool.system.SystemUtil;
 import cn.iocoder.yudao.framework.common.enums.DocumentEnum;
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.mq.redis.core.job.RedisDelayMessageTransferJob;
 import cn.iocoder.yudao.framework.mq.redis.core.job.RedisPendingMessageResendJob;
 import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamBatchMessageListener;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.RedisStreamBatchMessageListenerContainer;
 import cn.iocoder.yudao.framework.redis.config.YudaoRedisAutoConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.redis.connection.RedisServerCommands;
 import org.springframework.data.redis.connection.stream.Consumer;
@@ -36,8 +40,9 @@ import java.util.Properties;
  * @author 芋道源码
  */
 @Slf4j
-@EnableScheduling // 启用定时任务，用于 RedisPendingMessageResendJob 重发消息
+@EnableScheduling // 启用定时任务，用于 RedisPendingMessageResendJob 重发消息、RedisDelayMessageTransferJob 转入延迟消息
 @AutoConfiguration(after = YudaoRedisAutoConfiguration.class)
+@EnableConfigurationProperties(RedisMQProperties.class)
 public class YudaoRedisMQConsumerAutoConfiguration {
 
     /**
@@ -69,8 +74,21 @@ public class YudaoRedisMQConsumerAutoConfiguration {
     public RedisPendingMessageResendJob redisPendingMessageResendJob(List<AbstractRedisStreamMessageListener<?>> listeners,
                                                                      RedisMQTemplate redisTemplate,
                                                                      @Value("${spring.application.name}") String groupName,
-                                                                     RedissonClient redissonClient) {
-        return new RedisPendingMessageResendJob(listeners, redisTemplate, groupName, redissonClient);
+                                                                     RedissonClient redissonClient,
+                                                                     RedisMQProperties properties) {
+        return new RedisPendingMessageResendJob(listeners, redisTemplate, groupName, buildConsumerName(),
+                redissonClient, properties);
+    }
+
+    /**
+     * 创建 Redis 延迟消息转入 Stream 的任务
+     */
+    @Bean
+    @ConditionalOnBean(AbstractRedisStreamMessageListener.class) // 只有 AbstractStreamMessageListener 存在的时候，才需要转入延迟消息
+    public RedisDelayMessageTransferJob redisDelayMessageTransferJob(List<AbstractRedisStreamMessageListener<?>> listeners,
+                                                                     RedisMQTemplate redisTemplate,
+                                                                     RedisMQProperties properties) {
+        return new RedisDelayMessageTransferJob(listeners, redisTemplate, properties);
     }
 
     /**
@@ -81,48 +99,90 @@ public class YudaoRedisMQConsumerAutoConfiguration {
     @Bean(initMethod = "start", destroyMethod = "stop")
     @ConditionalOnBean(AbstractRedisStreamMessageListener.class) // 只有 AbstractStreamMessageListener 存在的时候，才需要注册 Redis pubsub 监听
     public StreamMessageListenerContainer<String, ObjectRecord<String, String>> redisStreamMessageListenerContainer(
-            RedisMQTemplate redisMQTemplate, List<AbstractRedisStreamMessageListener<?>> listeners) {
+            RedisMQTemplate redisMQTemplate, List<AbstractRedisStreamMessageListener<?>> listeners,
+            RedisMQProperties properties) {
         RedisTemplate<String, ?> redisTemplate = redisMQTemplate.getRedisTemplate();
         checkRedisVersion(redisTemplate);
         // 第一步，创建 StreamMessageListenerContainer 容器
         // 创建 options 配置
         StreamMessageListenerContainer.StreamMessageListenerContainerOptions<String, ObjectRecord<String, String>> containerOptions =
                 StreamMessageListenerContainer.StreamMessageListenerContainerOptions.builder()
-                        .batchSize(10) // 一次性最多拉取多少条消息
+                        .batchSize(properties.getStreamBatchSize()) // 一次性最多拉取多少条消息
+                        .pollTimeout(properties.getStreamPollTimeout()) // 拉取消息的阻塞时间
                         .targetType(String.class) // 目标类型。统一使用 String，通过自己封装的 AbstractStreamMessageListener 去反序列化
                         .build();
         // 创建 container 对象
         StreamMessageListenerContainer<String, ObjectRecord<String, String>> container =
                 StreamMessageListenerContainer.create(redisMQTemplate.getRedisTemplate().getRequiredConnectionFactory(), containerOptions);
 
-        // 第二步，注册监听器，消费对应的 Stream 主题
+        // 第二步，注册监听器，消费对应的 Stream 主题。批量监听器，由 RedisStreamBatchMessageListenerContainer 负责
         String consumerName = buildConsumerName();
-        listeners.parallelStream().forEach(listener -> {
+        listeners.parallelStream().filter(listener -> !(listener instanceof AbstractRedisStreamBatchMessageListener)).forEach(listener -> {
             log.info("[redisStreamMessageListenerContainer][开始注册 StreamKey({}) 对应的监听器({})]",
                     listener.getStreamKey(), listener.getClass().getName());
             // 创建 listener 对应的消费者分组
-            try {
-                redisTemplate.opsForStream().createGroup(listener.getStreamKey(), listener.getGroup());
-            } catch (Exception ignore) {
+            createGroup(redisTemplate, listener);
+            // 设置 listener 对应的 redisTemplate
+            listener.setRedisMQTemplate(redisMQTemplate);
+            // 创建 Consumer 对象，每个消费者对应一个拉取线程
+            int concurrency = getStreamConcurrency(properties, listener.getStreamKey());
+            for (int i = 0; i < concurrency; i++) {
+                Consumer consumer = Consumer.from(listener.getGroup(), buildConsumerName(consumerName, i));
+                // 设置 Consumer 消费进度，以最小消费进度为准
+                StreamOffset<String> streamOffset = StreamOffset.create(listener.getStreamKey(), ReadOffset.lastConsumed());
+                // 设置 Consumer 监听
+                StreamMessageListenerContainer.StreamReadRequestBuilder<String> builder = StreamMessageListenerContainer.StreamReadRequest
+                        .builder(streamOffset).consumer(consumer)
+                        .autoAcknowledge(false) // 不自动 ack
+                        .cancelOnError(throwable -> false); // 默认配置，发生异常就取消消费，显然不符合预期；因此，我们设置为 false
+                container.register(builder.build(), listener);
             }
+            log.info("[redisStreamMessageListenerContainer][完成注册 StreamKey({}) 对应的监听器({})，消费者数量({})]",
+                    listener.getStreamKey(), listener.getClass().getName(), concurrency);
+        });
+        return container;
+    }
+
+    /**
+     * 创建 Redis Stream 集群批量消费的容器
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnBean(AbstractRedisStreamBatchMessageListener.class) // 只有 AbstractRedisStreamBatchMessageListener 存在的时候，才需要注册
+    public RedisStreamBatchMessageListenerContainer redisStreamBatchMessageListenerContainer(
+            RedisMQTemplate redisMQTemplate, List<AbstractRedisStreamBatchMessageListener<?>> listeners,
+            RedisMQProperties properties) {
+        RedisTemplate<String, ?> redisTemplate = redisMQTemplate.getRedisTemplate();
+        RedisStreamBatchMessageListenerContainer container = new RedisStreamBatchMessageListenerContainer(
+                redisMQTemplate, properties.getStreamBatchSize(), properties.getStreamPollTimeout());
+        String consumerName = buildConsumerName();
+        listeners.forEach(listener -> {
+            // 创建 listener 对应的消费者分组
+            createGroup(redisTemplate, listener);
             // 设置 listener 对应的 redisTemplate
             listener.setRedisMQTemplate(redisMQTemplate);
-            // 创建 Consumer 对象
-            Consumer consumer = Consumer.from(listener.getGroup(), consumerName);
-            // 设置 Consumer 消费进度，以最小消费进度为准
-            StreamOffset<String> streamOffset = StreamOffset.create(listener.getStreamKey(), ReadOffset.lastConsumed());
-            // 设置 Consumer 监听
-            StreamMessageListenerContainer.StreamReadRequestBuilder<String> builder = StreamMessageListenerContainer.StreamReadRequest
-                    .builder(streamOffset).consumer(consumer)
-                    .autoAcknowledge(false) // 不自动 ack
-                    .cancelOnError(throwable -> false); // 默认配置，发生异常就取消消费，显然不符合预期；因此，我们设置为 false
-            container.register(builder.build(), listener);
-            log.info("[redisStreamMessageListenerContainer][完成注册 StreamKey({}) 对应的监听器({})]",
-                    listener.getStreamKey(), listener.getClass().getName());
+            // 注册 Consumer 对象，每个消费者对应一个拉取线程
+            int concurrency = getStreamConcurrency(properties, listener.getStreamKey());
+            for (int i = 0; i < concurrency; i++) {
+                container.register(listener, Consumer.from(listener.getGroup(), buildConsumerName(consumerName, i)));
+            }
+            log.info("[redisStreamBatchMessageListenerContainer][完成注册 StreamKey({}) 对应的批量监听器({})，消费者数量({})]",
+                    listener.getStreamKey(), listener.getClass().getName(), concurrency);
         });
         return container;
     }
 
+    private static void createGroup(RedisTemplate<String, ?> redisTemplate, AbstractRedisStreamMessageListener<?> listener) {
+        try {
+            redisTemplate.opsForStream().createGroup(listener.getStreamKey(), listener.getGroup());
+        } catch (Exception ignore) {
+        }
+    }
+
+    private static int getStreamConcurrency(RedisMQProperties properties, String streamKey) {
+        Integer concurrency = properties.getStreamConcurrencies().get(streamKey);
+        return concurrency != null ? concurrency : properties.getStreamConcurrency();
+    }
+
     /**
      * 构建消费者名字，使用本地 IP + 进程编号的方式。
      * 参考自 RocketMQ clientId 的实现
@@ -133,6 +193,17 @@ public class YudaoRedisMQConsumerAutoConfiguration {
         return String.format("%s@%d", SystemUtil.getHostInfo().getAddress(), SystemUtil.getCurrentPID());
     }
 
+    /**
+     * 构建第 index 个消费者的名字。第 0 个保持原有名字，从而兼容之前的 pending 消息
+     *
+     * @param consumerName 消费者名字
+     * @param index 序号
+     * @return 消费者名字
+     */
+    private static String buildConsumerName(String consumerName, int index) {
+        return index == 0 ? consumerName : consumerName + "#" + index;
+    }
+
     /**
      * 校验 Redis 版本号，是否满足最低的版本号要求！
      */
@@ -5,6 +5,7 @@ import cn.iocoder.yudao.framework.mq.redis.core.interceptor.RedisMessageIntercep
 import cn.iocoder.yudao.framework.redis.config.YudaoRedisAutoConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
@@ -17,12 +18,17 @@ import java.util.List;
  */
 @Slf4j
 @AutoConfiguration(after = YudaoRedisAutoConfiguration.class)
+@EnableConfigurationProperties(RedisMQProperties.class)
 public class YudaoRedisMQProducerAutoConfiguration {
 
     @Bean
     public RedisMQTemplate redisMQTemplate(StringRedisTemplate redisTemplate,
-                                           List<RedisMessageInterceptor> interceptors) {
+                                           List<RedisMessageInterceptor> interceptors,
+                                           RedisMQProperties properties) {
         RedisMQTemplate redisMQTemplate = new RedisMQTemplate(redisTemplate);
+        // 设置 Stream 的裁剪策略
+        redisMQTemplate.setStreamMaxLength(properties.getStreamMaxLength());
+        redisMQTemplate.setStreamMaxLengths(properties.getStreamMaxLengths());
         // 添加拦截器
         interceptors.forEach(redisMQTemplate::addInterceptor);
         return redisMQTemplate;
@@ -1,27 +1,43 @@
 package cn.iocoder.yudao.framework.mq.redis.core;
 
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.mq.redis.core.interceptor.RedisMessageInterceptor;
 import cn.iocoder.yudao.framework.mq.redis.core.message.AbstractRedisMessage;
 import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
 import org.springframework.data.redis.connection.stream.RecordId;
 import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StreamOperations;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 
 /**
  * Redis MQ 操作模板类
  *
  * @author 芋道源码
  */
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class RedisMQTemplate {
 
+    /**
+     * 延迟消息 ZSET 的后缀，即 {Stream Key}:DELAY
+     */
+    public static final String DELAY_SUFFIX = ":DELAY";
+
     @Getter
     private final RedisTemplate<String, ?> redisTemplate;
     /**
@@ -30,6 +46,19 @@ public class RedisMQTemplate {
     @Getter
     private final List<RedisMessageInterceptor> interceptors = new ArrayList<>();
 
+    /**
+     * Stream 的默认最大长度，发送消息时通过 MAXLEN ~ 近似裁剪。为空时，不进行裁剪
+     */
+    @Setter
+    private Long streamMaxLength;
+    /**
+     * 每个 Stream 的最大长度，优先于 {@link #streamMaxLength}
+     *
+     * key：Stream Key
+     */
+    @Setter
+    private Map<String, Long> streamMaxLengths = Collections.emptyMap();
+
     /**
      * 发送 Redis 消息，基于 Redis pub/sub 实现
      *
@@ -45,6 +74,32 @@ public class RedisMQTemplate {
         }
     }
 
+    /**
+     * 批量发送 Redis 消息，基于 Redis pub/sub 实现
+     *
+     * 通过 pipeline 在一次网络往返中，发送所有消息
+     *
+     * @param messages 消息列表
+     */
+    public <T extends AbstractRedisChannelMessage> void sendChannelBatch(Collection<T> messages) {
+        if (CollUtil.isEmpty(messages)) {
+            return;
+        }
+        try {
+            sendMessagesBefore(messages);
+            // 发送消息
+            List<String> contents = convertList(messages, JsonUtils::toJsonString);
+            executePipelined(operations -> {
+                int i = 0;
+                for (T message : messages) {
+                    operations.convertAndSend(message.getChannel(), contents.get(i++));
+                }
+            });
+        } finally {
+            sendMessagesAfter(messages);
+        }
+    }
+
     /**
      * 发送 Redis 消息，基于 Redis Stream 实现
      *
@@ -55,14 +110,108 @@ public class RedisMQTemplate {
         try {
             sendMessageBefore(message);
             // 发送消息
-            return redisTemplate.opsForStream().add(StreamRecords.newRecord()
-                    .ofObject(JsonUtils.toJsonString(message)) // 设置内容
-                    .withStreamKey(message.getStreamKey())); // 设置 stream key
+            ObjectRecord<String, String> record = buildStreamRecord(message);
+            Long maxLength = getStreamMaxLength(message.getStreamKey());
+            if (maxLength == null) {
+                return redisTemplate.opsForStream().add(record);
+            }
+            // 需要裁剪时，通过 pipeline 在一次网络往返中，执行 XADD 和 XTRIM
+            List<Object> results = executePipelined(operations -> {
+                StreamOperations<String, Object, Object> streamOperations = operations.opsForStream();
+                streamOperations.add(record);
+                streamOperations.trim(record.getStream(), maxLength, true);
+            });
+            return (RecordId) results.get(0);
+        } finally {
+            sendMessageAfter(message);
+        }
+    }
+
+    /**
+     * 批量发送 Redis 消息，基于 Redis Stream 实现
+     *
+     * 通过 pipeline 在一次网络往返中，发送所有消息；如果 Stream 需要裁剪，每个 Stream 只执行一次 XTRIM
+     *
+     * @param messages 消息列表
+     * @return 消息记录的编号对象列表，和 messages 的顺序一致
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractRedisStreamMessage> List<RecordId> sendBatch(Collection<T> messages) {
+        if (CollUtil.isEmpty(messages)) {
+            return Collections.emptyList();
+        }
+        try {
+            sendMessagesBefore(messages);
+            // 发送消息
+            List<ObjectRecord<String, String>> records = convertList(messages, this::buildStreamRecord);
+            Set<String> streamKeys = convertSet(records, ObjectRecord::getStream);
+            List<Object> results = executePipelined(operations -> {
+                StreamOperations<String, Object, Object> streamOperations = operations.opsForStream();
+                records.forEach(streamOperations::add);
+                // 裁剪 Stream
+                streamKeys.forEach(streamKey -> {
+                    Long maxLength = getStreamMaxLength(streamKey);
+                    if (maxLength != null) {
+                        streamOperations.trim(streamKey, maxLength, true);
+                    }
+                });
+            });
+            return (List<RecordId>) (List<?>) results.subList(0, records.size());
+        } finally {
+            sendMessagesAfter(messages);
+        }
+    }
+
+    /**
+     * 发送 Redis 延迟消息，基于 Redis ZSET + Stream 实现
+     *
+     * 1. 消息先写入 {Stream Key}:DELAY 的 ZSET 中，score 为投递时间
+     * 2. 到期后，由 RedisDelayMessageTransferJob 转入 Stream，再由 Stream 监听器集群消费，至少投递一次
+     *
+     * 注意，相同内容的消息只会保存一条，所以重复发送同一条消息是幂等的
+     *
+     * @param message 消息
+     * @param deliverTime 投递时间
+     */
+    public <T extends AbstractRedisStreamMessage> void sendDelay(T message, LocalDateTime deliverTime) {
+        try {
+            sendMessageBefore(message);
+            // 发送消息
+            getStringRedisOperations().opsForZSet().add(message.getStreamKey() + DELAY_SUFFIX,
+                    JsonUtils.toJsonString(message), LocalDateTimeUtil.toEpochMilli(deliverTime));
         } finally {
             sendMessageAfter(message);
         }
     }
 
+    /**
+     * 将到期的延迟消息投递到 Stream 中，并从延迟消息的 ZSET 中移除
+     *
+     * 先 XADD 再 ZREM：如果中途失败，消息会在租约到期后被再次投递，从而保证至少投递一次
+     *
+     * 注意，pipeline 中的命令即使有失败，其它命令也会执行，所以 ZREM 需要在 XADD 成功返回后，再单独执行
+     *
+     * @param streamKey Stream Key
+     * @param contents 消息内容列表，即消息的 JSON 字符串
+     */
+    public void deliverDelayMessages(String streamKey, List<String> contents) {
+        if (CollUtil.isEmpty(contents)) {
+            return;
+        }
+        // 1. 转入 Stream。如果 XADD 失败，会抛出异常，不会执行下面的 ZREM
+        Long maxLength = getStreamMaxLength(streamKey);
+        executePipelined(operations -> {
+            StreamOperations<String, Object, Object> streamOperations = operations.opsForStream();
+            contents.forEach(content -> streamOperations.add(StreamRecords.newRecord()
+                    .ofObject(content).withStreamKey(streamKey)));
+            if (maxLength != null) {
+                streamOperations.trim(streamKey, maxLength, true);
+            }
+        });
+        // 2. 从 ZSET 中移除
+        getStringRedisOperations().opsForZSet().remove(streamKey + DELAY_SUFFIX, contents.toArray());
+    }
+
     /**
      * 添加拦截器
      *
@@ -72,6 +221,35 @@ public class RedisMQTemplate {
         interceptors.add(interceptor);
     }
 
+    private ObjectRecord<String, String> buildStreamRecord(AbstractRedisStreamMessage message) {
+        return StreamRecords.newRecord()
+                .ofObject(JsonUtils.toJsonString(message)) // 设置内容
+                .withStreamKey(message.getStreamKey()); // 设置 stream key
+    }
+
+    private Long getStreamMaxLength(String streamKey) {
+        Long maxLength = streamMaxLengths.get(streamKey);
+        return maxLength != null ? maxLength : streamMaxLength;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisOperations<String, String> getStringRedisOperations() {
+        return (RedisOperations<String, String>) redisTemplate;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Object> executePipelined(Consumer<RedisOperations<String, String>> consumer) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+
+            @Override
+            public Object execute(RedisOperations operations) {
+                consumer.accept(operations);
+                return null; // executePipelined 要求返回 null
+            }
+
+        });
+    }
+
     private void sendMessageBefore(AbstractRedisMessage message) {
         // 正序
         interceptors.forEach(interceptor -> interceptor.sendMessageBefore(message));
@@ -84,4 +262,16 @@ public class RedisMQTemplate {
         }
     }
 
+    private void sendMessagesBefore(Collection<? extends AbstractRedisMessage> messages) {
+        // 正序
+        interceptors.forEach(interceptor -> interceptor.sendMessagesBefore(messages));
+    }
+
+    private void sendMessagesAfter(Collection<? extends AbstractRedisMessage> messages) {
+        // 倒序
+        for (int i = interceptors.size() - 1; i >= 0; i--) {
+            interceptors.get(i).sendMessagesAfter(messages);
+        }
+    }
+
 }
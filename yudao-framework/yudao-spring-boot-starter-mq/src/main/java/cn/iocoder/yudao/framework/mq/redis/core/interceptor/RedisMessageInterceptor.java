@@ -2,6 +2,8 @@ package cn.iocoder.yudao.framework.mq.redis.core.interceptor;
 
 import cn.iocoder.yudao.framework.mq.redis.core.message.AbstractRedisMessage;
 
+import java.util.Collection;
+
 /**
  * {@link AbstractRedisMessage} 消息拦截器
  * 通过拦截器，作为插件机制，实现拓展。
@@ -17,6 +19,26 @@ public interface RedisMessageInterceptor {
     default void sendMessageAfter(AbstractRedisMessage message) {
     }
 
+    /**
+     * 批量发送消息前，默认逐条调用 {@link #sendMessageBefore(AbstractRedisMessage)}
+     *
+     * 如果拦截逻辑对整批消息相同，可以重写该方法，每批只执行一次
+     *
+     * @param messages 消息列表
+     */
+    default void sendMessagesBefore(Collection<? extends AbstractRedisMessage> messages) {
+        messages.forEach(this::sendMessageBefore);
+    }
+
+    /**
+     * 批量发送消息后，默认逐条调用 {@link #sendMessageAfter(AbstractRedisMessage)}
+     *
+     * @param messages 消息列表
+     */
+    default void sendMessagesAfter(Collection<? extends AbstractRedisMessage> messages) {
+        messages.forEach(this::sendMessageAfter);
+    }
+
     default void consumeMessageBefore(AbstractRedisMessage message) {
     }
 
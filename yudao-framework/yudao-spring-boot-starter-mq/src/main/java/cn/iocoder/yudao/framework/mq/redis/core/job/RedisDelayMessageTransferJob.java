@@ -0,0 +1,103 @@
+package cn.iocoder.yudao.framework.mq.redis.core.job;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.mq.redis.config.RedisMQProperties;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+
+/**
+ * 这个任务用于将到期的延迟消息，转入对应的 Stream 中消费
+ *
+ * 1. 通过 Lua 脚本，原子地取出 {Stream Key}:DELAY 中到期的消息，并将其 score 推迟为租约到期时间，所以多个节点可以并行转入，不会重复取出
+ * 2. 转入 Stream 后，再从 ZSET 中移除；如果中途宕机，租约到期后会被再次取出，保证至少投递一次
+ * 3. 转入 Stream 后的消费、重试、死信，复用 Stream 的集群消费机制
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@AllArgsConstructor
+public class RedisDelayMessageTransferJob {
+
+    /**
+     * 取出到期的消息
+     *
+     * KEYS：延迟消息的 ZSET
+     * ARGV：当前时间、租约到期时间、数量
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TAKE_SCRIPT = new DefaultRedisScript<>(
+            "local messages = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[3])\n" +
+            "for _, message in ipairs(messages) do\n" +
+            "    redis.call('ZADD', KEYS[1], ARGV[2], message)\n" +
+            "end\n" +
+            "return messages", List.class);
+
+    private final List<AbstractRedisStreamMessageListener<?>> listeners;
+    private final RedisMQTemplate redisTemplate;
+    private final RedisMQProperties properties;
+
+    /**
+     * 每秒执行一次，即延迟消息最多晚 1 秒左右转入 Stream
+     *
+     * 不同节点无需加锁，通过租约避免重复取出
+     */
+    @Scheduled(initialDelay = 1000, fixedDelay = 1000)
+    public void transfer() {
+        Set<String> streamKeys = convertSet(listeners, AbstractRedisStreamMessageListener::getStreamKey);
+        streamKeys.forEach(streamKey -> {
+            try {
+                transfer(streamKey);
+            } catch (Exception ex) {
+                log.error("[transfer][StreamKey({}) 转入延迟消息异常]", streamKey, ex);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void transfer(String streamKey) {
+        List<String> delayKeys = Collections.singletonList(streamKey + RedisMQTemplate.DELAY_SUFFIX);
+        int batchSize = properties.getDelayBatchSize();
+        int count = 0;
+        while (true) {
+            // 1. 取出到期的消息
+            long now = System.currentTimeMillis();
+            List<String> contents = redisTemplate.getRedisTemplate().execute(TAKE_SCRIPT, delayKeys,
+                    String.valueOf(now), String.valueOf(now + properties.getDelayLeaseTime().toMillis()),
+                    String.valueOf(batchSize));
+            if (CollUtil.isEmpty(contents)) {
+                break;
+            }
+            // 2. 转入 Stream
+            redisTemplate.deliverDelayMessages(streamKey, contents);
+            count += contents.size();
+            if (contents.size() < batchSize) {
+                break;
+            }
+        }
+        if (count > 0) {
+            getDeliveredCounter(streamKey).increment(count);
+            log.debug("[transfer][StreamKey({}) 转入延迟消息数量({})]", streamKey, count);
+        }
+    }
+
+    private static Counter getDeliveredCounter(String streamKey) {
+        return Counter.builder("yudao.redis-mq.delay.delivered")
+                .description("Redis 延迟消息转入 Stream 的数量")
+                .tags("stream", streamKey)
+                .register(Metrics.globalRegistry);
+    }
+
+}
@@ -1,8 +1,12 @@
 package cn.iocoder.yudao.framework.mq.redis.core.job;
 
-import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.mq.redis.config.RedisMQProperties;
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamBatchMessageListener;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
@@ -12,12 +16,18 @@ import org.springframework.data.redis.connection.stream.*;
 import org.springframework.data.redis.core.StreamOperations;
 import org.springframework.scheduling.annotation.Scheduled;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 
 /**
  * 这个任务用于处理，crash 之后的消费者未消费完的消息
+ *
+ * 1. 分页 XPENDING 扫描 pending 消息，通过 XCLAIM 将超时的消息认领给当前节点的消费者，并交给监听器消费
+ * 2. 投递次数超过 {@link RedisMQProperties#getPendingMaxDeliveryCount()} 的消息，转入死信 Stream
  */
 @Slf4j
 @AllArgsConstructor
@@ -26,20 +36,31 @@ public class RedisPendingMessageResendJob {
     private static final String LOCK_KEY = "redis:pending:msg:lock";
 
     /**
-     * 消息超时时间，默认 5 分钟
-     *
-     * 1. 超时的消息才会被重新投递
-     * 2. 由于定时任务 1 分钟一次，消息超时后不会被立即重投，极端情况下消息5分钟过期后，再等 1 分钟才会被扫瞄到
+     * 死信 Stream 的后缀
      */
-    private static final int EXPIRE_TIME = 5 * 60;
+    private static final String DEAD_LETTER_SUFFIX = ":DLQ";
 
     private final List<AbstractRedisStreamMessageListener<?>> listeners;
     private final RedisMQTemplate redisTemplate;
     private final String groupName;
+    /**
+     * 当前节点的消费者名字，超时的消息会认领给它
+     */
+    private final String consumerName;
     private final RedissonClient redissonClient;
+    private final RedisMQProperties properties;
+
+    /**
+     * 每个 Stream 的 pending 消息积压数量
+     *
+     * key：Stream Key
+     */
+    private final Map<String, AtomicLong> pendingSizes = new ConcurrentHashMap<>();
 
     /**
      * 一分钟执行一次,这里选择每分钟的35秒执行，是为了避免整点任务过多的问题
+     *
+     * 由于定时任务 1 分钟一次，消息超时后不会被立即重投，极端情况下消息超时后，再等 1 分钟才会被扫瞄到
      */
     @Scheduled(cron = "35 * * * * ?")
     public void messageResend() {
@@ -64,37 +85,131 @@ public class RedisPendingMessageResendJob {
     private void execute() {
         StreamOperations<String, Object, Object> ops = redisTemplate.getRedisTemplate().opsForStream();
         listeners.forEach(listener -> {
-            PendingMessagesSummary pendingMessagesSummary = Objects.requireNonNull(ops.pending(listener.getStreamKey(), groupName));
-            // 每个消费者的 pending 队列消息数量
-            Map<String, Long> pendingMessagesPerConsumer = pendingMessagesSummary.getPendingMessagesPerConsumer();
-            pendingMessagesPerConsumer.forEach((consumerName, pendingMessageCount) -> {
-                log.info("[processPendingMessage][消费者({}) 消息数量({})]", consumerName, pendingMessageCount);
-                // 每个消费者的 pending消息的详情信息
-                PendingMessages pendingMessages = ops.pending(listener.getStreamKey(), Consumer.from(groupName, consumerName), Range.unbounded(), pendingMessageCount);
-                if (pendingMessages.isEmpty()) {
-                    return;
+            try {
+                reclaim(ops, listener);
+            } catch (Exception ex) {
+                log.error("[execute][StreamKey({}) 认领 pending 消息异常]", listener.getStreamKey(), ex);
+            }
+        });
+    }
+
+    private void reclaim(StreamOperations<String, Object, Object> ops, AbstractRedisStreamMessageListener<?> listener) {
+        String streamKey = listener.getStreamKey();
+        // 1. 记录 pending 消息的积压数量
+        PendingMessagesSummary summary = ops.pending(streamKey, groupName);
+        long pendingSize = summary != null ? summary.getTotalPendingMessages() : 0;
+        getPendingSize(streamKey).set(pendingSize);
+        if (pendingSize == 0) {
+            return;
+        }
+
+        // 2. 分页扫描 pending 消息，认领超时的消息
+        Range<String> range = Range.unbounded();
+        int reclaimCount = 0;
+        while (reclaimCount < properties.getPendingMaxReclaimCount()) {
+            PendingMessages pendingMessages = ops.pending(streamKey, groupName, range, properties.getPendingPageSize());
+            if (pendingMessages == null || pendingMessages.isEmpty()) {
+                break;
+            }
+            // 2.1 筛选超时的消息，通过 XCLAIM 认领给当前节点的消费者。min-idle-time 可以避免和其它消费者冲突
+            List<PendingMessage> expiredMessages = new ArrayList<>();
+            pendingMessages.forEach(pendingMessage -> {
+                if (pendingMessage.getElapsedTimeSinceLastDelivery().compareTo(properties.getPendingIdleTime()) >= 0) {
+                    expiredMessages.add(pendingMessage);
                 }
-                pendingMessages.forEach(pendingMessage -> {
-                    // 获取消息上一次传递到 consumer 的时间,
-                    long lastDelivery = pendingMessage.getElapsedTimeSinceLastDelivery().getSeconds();
-                    if (lastDelivery < EXPIRE_TIME){
-                        return;
-                    }
-                    // 获取指定 id 的消息体
-                    List<MapRecord<String, Object, Object>> records = ops.range(listener.getStreamKey(),
-                            Range.of(Range.Bound.inclusive(pendingMessage.getIdAsString()), Range.Bound.inclusive(pendingMessage.getIdAsString())));
-                    if (CollUtil.isEmpty(records)) {
-                        return;
-                    }
-                    // 重新投递消息
-                    redisTemplate.getRedisTemplate().opsForStream().add(StreamRecords.newRecord()
-                            .ofObject(records.get(0).getValue()) // 设置内容
-                            .withStreamKey(listener.getStreamKey()));
-                    // ack 消息消费完成
-                    redisTemplate.getRedisTemplate().opsForStream().acknowledge(groupName, records.get(0));
-                    log.info("[processPendingMessage][消息({})重新投递成功]", records.get(0).getId());
-                });
             });
+            if (!expiredMessages.isEmpty()) {
+                List<MapRecord<String, Object, Object>> records = ops.claim(streamKey, groupName, consumerName,
+                        properties.getPendingIdleTime(), convertList(expiredMessages, PendingMessage::getId).toArray(new RecordId[0]));
+                handleRecords(ops, listener, expiredMessages, records);
+                reclaimCount += expiredMessages.size();
+            }
+            // 2.2 下一页
+            if (pendingMessages.size() < properties.getPendingPageSize()) {
+                break;
+            }
+            RecordId lastId = pendingMessages.get(pendingMessages.size() - 1).getId();
+            range = Range.rightUnbounded(Range.Bound.inclusive(
+                    RecordId.of(lastId.getTimestamp(), lastId.getSequence() + 1).getValue()));
+        }
+        if (reclaimCount > 0) {
+            log.info("[reclaim][StreamKey({}) pending 消息数量({}) 认领数量({})]", streamKey, pendingSize, reclaimCount);
+        }
+    }
+
+    private void handleRecords(StreamOperations<String, Object, Object> ops, AbstractRedisStreamMessageListener<?> listener,
+                               List<PendingMessage> expiredMessages, List<MapRecord<String, Object, Object>> records) {
+        String streamKey = listener.getStreamKey();
+        Map<RecordId, Long> deliveryCounts = new HashMap<>();
+        expiredMessages.forEach(pendingMessage -> deliveryCounts.put(pendingMessage.getId(), pendingMessage.getTotalDeliveryCount()));
+        // 情况一：消息已被裁剪（例如说，MAXLEN），XCLAIM 不会返回，直接 ack 掉
+        Set<RecordId> recordIds = convertSet(records, MapRecord::getId);
+        List<RecordId> trimmedRecordIds = new ArrayList<>();
+        expiredMessages.forEach(pendingMessage -> {
+            if (!recordIds.contains(pendingMessage.getId())) {
+                trimmedRecordIds.add(pendingMessage.getId());
+            }
+        });
+        if (!trimmedRecordIds.isEmpty()) {
+            ops.acknowledge(streamKey, groupName, trimmedRecordIds.toArray(new RecordId[0]));
+            getReclaimCounter(streamKey, "trimmed").increment(trimmedRecordIds.size());
+        }
+
+        // 情况二：投递次数过多，转入死信 Stream
+        List<RecordId> deadLetterRecordIds = new ArrayList<>();
+        List<ObjectRecord<String, String>> consumeRecords = new ArrayList<>(records.size());
+        Integer maxDeliveryCount = properties.getPendingMaxDeliveryCount();
+        records.forEach(record -> {
+            Long deliveryCount = deliveryCounts.get(record.getId());
+            if (maxDeliveryCount != null && deliveryCount != null && deliveryCount >= maxDeliveryCount) {
+                ops.add(StreamRecords.newRecord().in(streamKey + DEAD_LETTER_SUFFIX).ofMap(record.getValue()));
+                deadLetterRecordIds.add(record.getId());
+                log.warn("[handleRecords][StreamKey({}) 消息({}) 投递次数({}) 过多，转入死信 Stream]",
+                        streamKey, record.getId(), deliveryCount);
+                return;
+            }
+            consumeRecords.add(ops.map(record, String.class));
+        });
+        if (!deadLetterRecordIds.isEmpty()) {
+            ops.acknowledge(streamKey, groupName, deadLetterRecordIds.toArray(new RecordId[0]));
+            getReclaimCounter(streamKey, "dead-letter").increment(deadLetterRecordIds.size());
+        }
+
+        // 情况三：交给监听器重新消费。消费失败的消息，会留在当前消费者的 pending 队列中，等待下次重试
+        if (consumeRecords.isEmpty()) {
+            return;
+        }
+        if (listener instanceof AbstractRedisStreamBatchMessageListener) {
+            try {
+                ((AbstractRedisStreamBatchMessageListener<?>) listener).onMessages(consumeRecords);
+                getReclaimCounter(streamKey, "success").increment(consumeRecords.size());
+            } catch (Exception ex) {
+                log.error("[handleRecords][StreamKey({}) 批量消费 pending 消息异常]", streamKey, ex);
+                getReclaimCounter(streamKey, "failure").increment(consumeRecords.size());
+            }
+            return;
+        }
+        consumeRecords.forEach(record -> {
+            try {
+                listener.onMessage(record);
+                getReclaimCounter(streamKey, "success").increment();
+            } catch (Exception ex) {
+                log.error("[handleRecords][StreamKey({}) 消费 pending 消息({}) 异常]", streamKey, record.getId(), ex);
+                getReclaimCounter(streamKey, "failure").increment();
+            }
         });
     }
+
+    private AtomicLong getPendingSize(String streamKey) {
+        return pendingSizes.computeIfAbsent(streamKey, key -> Metrics.globalRegistry.gauge(
+                "yudao.redis-mq.pending.size", Tags.of("stream", key), new AtomicLong()));
+    }
+
+    private static Counter getReclaimCounter(String streamKey, String result) {
+        return Counter.builder("yudao.redis-mq.pending.reclaimed")
+                .description("Redis Stream 认领的 pending 消息数量")
+                .tags("stream", streamKey, "result", result)
+                .register(Metrics.globalRegistry);
+    }
+
 }
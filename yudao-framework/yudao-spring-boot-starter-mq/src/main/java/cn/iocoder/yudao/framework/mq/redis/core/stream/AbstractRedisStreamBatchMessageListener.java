@@ -0,0 +1,74 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+
+import java.util.*;
+
+/**
+ * Redis Stream 批量监听器抽象类，用于实现集群下的批量消费
+ *
+ * 和 {@link AbstractRedisStreamMessageListener} 的区别是：一次拉取到的多条消息，会一起交给 {@link #onMessage(List)} 处理，
+ * 并且通过一次 XACK 命令批量 ack，适合吞吐量较大的 Stream
+ *
+ * @param <T> 消息类型。一定要填写噢，不然会报错
+ *
+ * @author 芋道源码
+ */
+public abstract class AbstractRedisStreamBatchMessageListener<T extends AbstractRedisStreamMessage>
+        extends AbstractRedisStreamMessageListener<T> {
+
+    /**
+     * 处理拉取到的一批消息
+     *
+     * 由于拦截器（例如说，多租户）是基于消息头生效的，所以会按照消息头分组后，再分别调用 {@link #onMessage(List)} 方法
+     *
+     * @param records 消息记录
+     */
+    public void onMessages(List<ObjectRecord<String, String>> records) {
+        // 按照消息头分组
+        Map<Map<String, String>, List<T>> messageGroups = new LinkedHashMap<>();
+        Map<Map<String, String>, List<RecordId>> recordIdGroups = new HashMap<>();
+        records.forEach(record -> {
+            T message = parseMessage(record.getValue());
+            messageGroups.computeIfAbsent(message.getHeaders(), key -> new ArrayList<>()).add(message);
+            recordIdGroups.computeIfAbsent(message.getHeaders(), key -> new ArrayList<>()).add(record.getId());
+        });
+
+        // 逐组消费消息
+        List<RecordId> ackRecordIds = new ArrayList<>(records.size());
+        try {
+            for (Map.Entry<Map<String, String>, List<T>> entry : messageGroups.entrySet()) {
+                // 同一组消息的消息头相同，使用第一条消息执行拦截器即可
+                T first = entry.getValue().get(0);
+                try {
+                    consumeMessageBefore(first);
+                    // 消费消息
+                    this.onMessage(entry.getValue());
+                } finally {
+                    consumeMessageAfter(first);
+                }
+                ackRecordIds.addAll(recordIdGroups.get(entry.getKey()));
+            }
+        } finally {
+            // ack 消息消费完成：通过一次 XACK 命令批量 ack
+            // 消费失败的消息，会留在 pending 队列中，由 RedisPendingMessageResendJob 重新投递
+            if (!ackRecordIds.isEmpty()) {
+                acknowledge(ackRecordIds.toArray(new RecordId[0]));
+            }
+        }
+    }
+
+    @Override
+    public final void onMessage(T message) {
+        onMessage(Collections.singletonList(message));
+    }
+
+    /**
+     * 批量处理消息
+     *
+     * @param messages 消息列表，消息头相同
+     */
+    public abstract void onMessage(List<T> messages);
+
+}
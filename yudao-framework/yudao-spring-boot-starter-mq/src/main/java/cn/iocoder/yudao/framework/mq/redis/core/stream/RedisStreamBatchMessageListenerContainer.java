@@ -0,0 +1,130 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.thread.ThreadUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.StreamOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Redis Stream 批量消费的容器
+ *
+ * 每个 {@link AbstractRedisStreamBatchMessageListener} 的每个消费者，对应一个拉取线程，通过 XREADGROUP 命令拉取一批消息后消费。
+ * 由于线程消费完一批消息后，才会拉取下一批，所以消费跟不上时，消息会堆积在 Stream 中，而不会堆积在内存中，从而实现背压
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisStreamBatchMessageListenerContainer {
+
+    private final RedisMQTemplate redisMQTemplate;
+    /**
+     * 一次性最多拉取多少条消息
+     */
+    private final int batchSize;
+    /**
+     * 拉取消息的阻塞时间
+     */
+    private final Duration pollTimeout;
+
+    /**
+     * 注册的监听器与消费者数组
+     */
+    private final List<KeyValue<AbstractRedisStreamBatchMessageListener<?>, Consumer>> registrations = new ArrayList<>();
+    /**
+     * 当前运行的拉取线程数组，每次 {@link #start()} 时重新创建
+     */
+    private final List<Thread> threads = new ArrayList<>();
+
+    /**
+     * 当前运行的拉取线程的运行标记，每次 {@link #start()} 时重新创建
+     *
+     * 这样 {@link #stop()} 后未及时退出的拉取线程，不会因为重新 {@link #start()} 而继续拉取。为空时，表示未运行
+     */
+    private AtomicBoolean running;
+
+    /**
+     * 注册监听器的消费者
+     *
+     * @param listener 监听器
+     * @param consumer 消费者
+     */
+    public synchronized void register(AbstractRedisStreamBatchMessageListener<?> listener, Consumer consumer) {
+        registrations.add(new KeyValue<>(listener, consumer));
+        if (running != null) {
+            startThread(listener, consumer, running);
+        }
+    }
+
+    public synchronized void start() {
+        if (running != null) {
+            return;
+        }
+        running = new AtomicBoolean(true);
+        registrations.forEach(registration -> startThread(registration.getKey(), registration.getValue(), running));
+    }
+
+    public synchronized void stop() {
+        if (running == null) {
+            return;
+        }
+        running.set(false);
+        running = null;
+        // 等待拉取线程结束，最多等待两个阻塞时间
+        long deadline = System.currentTimeMillis() + pollTimeout.toMillis() * 2;
+        try {
+            for (Thread thread : threads) {
+                thread.join(Math.max(deadline - System.currentTimeMillis(), 1));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            threads.clear();
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return running != null;
+    }
+
+    private void startThread(AbstractRedisStreamBatchMessageListener<?> listener, Consumer consumer,
+                             AtomicBoolean active) {
+        Thread thread = new Thread(() -> poll(listener, consumer, active),
+                String.format("redis-stream-batch-%s-%s", listener.getStreamKey(), consumer.getName()));
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void poll(AbstractRedisStreamBatchMessageListener<?> listener, Consumer consumer, AtomicBoolean active) {
+        StreamOperations<String, Object, Object> ops = redisMQTemplate.getRedisTemplate().opsForStream();
+        StreamReadOptions readOptions = StreamReadOptions.empty().count(batchSize).block(pollTimeout);
+        StreamOffset<String> streamOffset = StreamOffset.create(listener.getStreamKey(), ReadOffset.lastConsumed());
+        while (active.get()) {
+            try {
+                List<ObjectRecord<String, String>> records = ops.read(String.class, consumer, readOptions, streamOffset);
+                if (CollUtil.isEmpty(records)) {
+                    continue;
+                }
+                listener.onMessages(records);
+            } catch (Exception ex) {
+                log.error("[poll][StreamKey({}) 消费者({}) 消费异常]", listener.getStreamKey(), consumer.getName(), ex);
+                // 发生异常时（例如说，Redis 不可用），暂停一个阻塞时间，避免空转
+                if (active.get()) {
+                    ThreadUtil.sleep(pollTimeout.toMillis());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package cn.iocoder.yudao.framework.mq.redis.core;
+
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
+import com.github.fppt.jedismock.RedisServer;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.redisson.spring.data.connection.RedissonConnectionFactory;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RedisMQTemplate} 发送 Redis Stream 消息的基准测试
+ *
+ * 对比逐条 {@link RedisMQTemplate#send(AbstractRedisStreamMessage)} 与 pipeline 批量
+ * {@link RedisMQTemplate#sendBatch(java.util.Collection)} 的吞吐量，单位为「条/秒」。
+ * 使用内嵌的 jedis-mock 作为 Redis 服务器，只有本机回环的网络开销，真实环境下批量发送的优势会更明显
+ *
+ * 非单元测试，通过 main 方法运行
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisMQTemplateBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private RedisMQTemplate redisMQTemplate;
+
+    private List<BenchmarkMessage> messages;
+
+    @Setup
+    public void setup() throws IOException {
+        // 启动内嵌的 Redis 服务器
+        redisServer = RedisServer.newRedisServer();
+        redisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redisServer.getHost() + ":" + redisServer.getBindPort());
+        redissonClient = Redisson.create(config);
+        // 创建 RedisMQTemplate，并开启裁剪，避免 Stream 无限增长
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(new RedissonConnectionFactory(redissonClient));
+        redisMQTemplate = new RedisMQTemplate(redisTemplate);
+        redisMQTemplate.setStreamMaxLength(10000L);
+
+        // 构造消息
+        messages = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            BenchmarkMessage message = new BenchmarkMessage();
+            message.setId((long) i);
+            message.setContent("yudao-" + i);
+            messages.add(message);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void send() {
+        for (BenchmarkMessage message : messages) {
+            redisMQTemplate.send(message);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<RecordId> sendBatch() {
+        return redisMQTemplate.sendBatch(messages);
+    }
+
+    @Data
+    public static class BenchmarkMessage extends AbstractRedisStreamMessage {
+
+        private Long id;
+        private String content;
+
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RedisMQTemplateBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
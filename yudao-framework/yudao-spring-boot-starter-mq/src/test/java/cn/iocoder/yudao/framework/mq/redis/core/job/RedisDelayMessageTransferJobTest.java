@@ -0,0 +1,179 @@
+package cn.iocoder.yudao.framework.mq.redis.core.job;
+
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.mq.redis.config.RedisMQProperties;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import com.github.fppt.jedismock.RedisServer;
+import lombok.Data;
+import org.junit.jupiter.api.*;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.redisson.spring.data.connection.RedissonConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate.DELAY_SUFFIX;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link RedisDelayMessageTransferJob} 和 {@link RedisMQTemplate} 延迟消息的单元测试
+ *
+ * 使用内嵌的 jedis-mock 作为 Redis 服务器，验证 Lua 脚本、pipeline 的真实执行结果
+ *
+ * @author 芋道源码
+ */
+public class RedisDelayMessageTransferJobTest {
+
+    private static final String STREAM_KEY = TestMessage.class.getSimpleName();
+    private static final String DELAY_KEY = STREAM_KEY + DELAY_SUFFIX;
+    private static final Duration LEASE_TIME = Duration.ofMillis(500);
+
+    private static RedisServer redisServer;
+    private static RedissonClient redissonClient;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private RedisMQTemplate redisMQTemplate;
+    private RedisDelayMessageTransferJob job;
+
+    @BeforeAll
+    public static void beforeAll() throws IOException {
+        // 启动内嵌的 Redis 服务器
+        redisServer = RedisServer.newRedisServer();
+        redisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redisServer.getHost() + ":" + redisServer.getBindPort());
+        redissonClient = Redisson.create(config);
+        stringRedisTemplate = new StringRedisTemplate(new RedissonConnectionFactory(redissonClient));
+        stringRedisTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    public static void afterAll() throws IOException {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.getRequiredConnectionFactory().getConnection().flushDb();
+        redisMQTemplate = spy(new RedisMQTemplate(stringRedisTemplate));
+        AbstractRedisStreamMessageListener<?> listener = mock(AbstractRedisStreamMessageListener.class);
+        when(listener.getStreamKey()).thenReturn(STREAM_KEY);
+        RedisMQProperties properties = new RedisMQProperties();
+        properties.setDelayBatchSize(2);
+        properties.setDelayLeaseTime(LEASE_TIME);
+        job = new RedisDelayMessageTransferJob(Collections.singletonList(listener), redisMQTemplate, properties);
+    }
+
+    @Test
+    public void testTransfer_onlyDue() {
+        // mock 数据：3 条到期的消息，超过每批数量；1 条未到期的消息
+        for (long i = 1; i <= 3; i++) {
+            redisMQTemplate.sendDelay(new TestMessage().setId(i), LocalDateTime.now().minusSeconds(1));
+        }
+        TestMessage future = new TestMessage().setId(4L);
+        redisMQTemplate.sendDelay(future, LocalDateTime.now().plusHours(1));
+
+        // 调用
+        job.transfer();
+        // 断言：到期的消息分批全部转入 Stream，未到期的消息保留
+        assertEquals(3L, stringRedisTemplate.opsForStream().size(STREAM_KEY));
+        assertEquals(Collections.singleton(JsonUtils.toJsonString(future)),
+                stringRedisTemplate.opsForZSet().range(DELAY_KEY, 0, -1));
+    }
+
+    @Test
+    public void testSendDelay_idempotent() {
+        // 调用：重复发送同一条消息
+        TestMessage message = new TestMessage().setId(1L);
+        redisMQTemplate.sendDelay(message, LocalDateTime.now().minusSeconds(2));
+        redisMQTemplate.sendDelay(message, LocalDateTime.now().minusSeconds(1));
+        job.transfer();
+        // 断言：只投递一次
+        assertEquals(1L, stringRedisTemplate.opsForStream().size(STREAM_KEY));
+        assertEquals(0L, stringRedisTemplate.opsForZSet().zCard(DELAY_KEY));
+    }
+
+    @Test
+    public void testTransfer_leaseRetake() throws InterruptedException {
+        // mock 数据
+        TestMessage message = new TestMessage().setId(1L);
+        redisMQTemplate.sendDelay(message, LocalDateTime.now().minusSeconds(1));
+        // mock 方法：取出后，转入 Stream 前宕机
+        doThrow(new RuntimeException("模拟宕机")).when(redisMQTemplate).deliverDelayMessages(eq(STREAM_KEY), any());
+
+        // 调用：第一次取出，转入失败
+        job.transfer();
+        // 断言：消息仍在 ZSET 中，score 推迟为租约到期时间
+        assertEquals(0L, stringRedisTemplate.opsForStream().size(STREAM_KEY));
+        Double score = stringRedisTemplate.opsForZSet().score(DELAY_KEY, JsonUtils.toJsonString(message));
+        assertNotNull(score);
+        assertTrue(score > System.currentTimeMillis());
+
+        // 调用：租约未到期，不会被再次取出
+        job.transfer();
+        // 断言
+        verify(redisMQTemplate, times(1)).deliverDelayMessages(eq(STREAM_KEY), any());
+
+        // 调用：租约到期后，被再次取出并转入 Stream
+        Thread.sleep(LEASE_TIME.toMillis() + 100);
+        doCallRealMethod().when(redisMQTemplate).deliverDelayMessages(eq(STREAM_KEY), any());
+        job.transfer();
+        // 断言
+        verify(redisMQTemplate, times(2)).deliverDelayMessages(eq(STREAM_KEY), any());
+        assertEquals(1L, stringRedisTemplate.opsForStream().size(STREAM_KEY));
+        assertEquals(0L, stringRedisTemplate.opsForZSet().zCard(DELAY_KEY));
+    }
+
+    @Test
+    public void testDeliverDelayMessages_xaddFail() {
+        // mock 数据：Stream Key 被占用为 String 类型，XADD 会返回 WRONGTYPE 错误
+        TestMessage message = new TestMessage().setId(1L);
+        redisMQTemplate.sendDelay(message, LocalDateTime.now().minusSeconds(1));
+        stringRedisTemplate.opsForValue().set(STREAM_KEY, "yudao");
+        String content = JsonUtils.toJsonString(message);
+
+        // 调用，并断言异常
+        assertThrows(Exception.class, () -> redisMQTemplate.deliverDelayMessages(STREAM_KEY,
+                Collections.singletonList(content)));
+        // 断言：XADD 失败时，不会执行 ZREM，消息仍在 ZSET 中等待再次投递
+        assertNotNull(stringRedisTemplate.opsForZSet().score(DELAY_KEY, content));
+    }
+
+    @Test
+    public void testDeliverDelayMessages_success() {
+        // mock 数据
+        TestMessage message = new TestMessage().setId(1L);
+        redisMQTemplate.sendDelay(message, LocalDateTime.now().minusSeconds(1));
+        String content = JsonUtils.toJsonString(message);
+
+        // 调用
+        redisMQTemplate.deliverDelayMessages(STREAM_KEY, Collections.singletonList(content));
+        // 断言
+        assertEquals(1L, stringRedisTemplate.opsForStream().size(STREAM_KEY));
+        assertNull(stringRedisTemplate.opsForZSet().score(DELAY_KEY, content));
+    }
+
+    @Data
+    public static class TestMessage extends AbstractRedisStreamMessage {
+
+        private Long id;
+
+        public TestMessage setId(Long id) {
+            this.id = id;
+            return this;
+        }
+
+    }
+
+}
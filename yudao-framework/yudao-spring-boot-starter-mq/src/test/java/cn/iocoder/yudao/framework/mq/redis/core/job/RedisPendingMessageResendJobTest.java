@@ -0,0 +1,201 @@
+package cn.iocoder.yudao.framework.mq.redis.core.job;
+
+import cn.hutool.core.util.ReflectUtil;
+import cn.iocoder.yudao.framework.mq.redis.config.RedisMQProperties;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import com.github.fppt.jedismock.RedisServer;
+import lombok.Data;
+import org.junit.jupiter.api.*;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.redisson.spring.data.connection.RedissonConnectionFactory;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link RedisPendingMessageResendJob} 的单元测试
+ *
+ * 使用内嵌的 jedis-mock 作为 Redis 服务器，验证 XPENDING 分页、XCLAIM 认领的真实执行结果
+ *
+ * @author 芋道源码
+ */
+public class RedisPendingMessageResendJobTest {
+
+    private static final String STREAM_KEY = TestMessage.class.getSimpleName();
+    private static final String GROUP = "test-group";
+    private static final String CRASHED_CONSUMER = "crashed-consumer";
+    private static final String CONSUMER = "current-consumer";
+    private static final Duration IDLE_TIME = Duration.ofMillis(100);
+
+    private static RedisServer redisServer;
+    private static RedissonClient redissonClient;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private RedisMQTemplate redisMQTemplate;
+    private TestMessageListener listener;
+    private RedisMQProperties properties;
+    private boolean groupCreated;
+
+    @BeforeAll
+    public static void beforeAll() throws IOException {
+        // 启动内嵌的 Redis 服务器
+        redisServer = RedisServer.newRedisServer();
+        redisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redisServer.getHost() + ":" + redisServer.getBindPort());
+        redissonClient = Redisson.create(config);
+        stringRedisTemplate = new StringRedisTemplate(new RedissonConnectionFactory(redissonClient));
+        stringRedisTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    public static void afterAll() throws IOException {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.getRequiredConnectionFactory().getConnection().flushDb();
+        redisMQTemplate = new RedisMQTemplate(stringRedisTemplate);
+        listener = new TestMessageListener();
+        listener.setRedisMQTemplate(redisMQTemplate);
+        ReflectUtil.setFieldValue(listener, "group", GROUP);
+        properties = new RedisMQProperties();
+        properties.setPendingPageSize(2);
+        properties.setPendingIdleTime(IDLE_TIME);
+        groupCreated = false;
+    }
+
+    @Test
+    public void testMessageResend_multiPage() throws InterruptedException {
+        // mock 数据：5 条消息被已宕机的消费者读取，超过多页；超时后，再有 1 条消息被读取，未超时
+        sendAndReadByCrashedConsumer(1L, 2L, 3L, 4L, 5L);
+        Thread.sleep(IDLE_TIME.toMillis() * 2);
+        sendAndReadByCrashedConsumer(6L);
+
+        // 调用
+        createJob().messageResend();
+        // 断言：超时的消息，跨页全部认领并按顺序重新消费
+        assertEquals(asList(1L, 2L, 3L, 4L, 5L), listener.getIds());
+        // 断言：未超时的消息，仍由原消费者持有
+        PendingMessages pendingMessages = stringRedisTemplate.opsForStream().pending(STREAM_KEY, GROUP,
+                Range.unbounded(), 10);
+        assertEquals(1, pendingMessages.size());
+        assertEquals(CRASHED_CONSUMER, pendingMessages.get(0).getConsumerName());
+    }
+
+    @Test
+    public void testMessageResend_consumeFailure() throws InterruptedException {
+        // mock 数据
+        sendAndReadByCrashedConsumer(1L, 2L, 3L);
+        Thread.sleep(IDLE_TIME.toMillis() * 2);
+        // mock 方法：消费失败
+        listener.setFailure(true);
+
+        // 调用
+        createJob().messageResend();
+        // 断言：消费失败的消息，认领给当前消费者，等待下次重试
+        PendingMessages pendingMessages = stringRedisTemplate.opsForStream().pending(STREAM_KEY, GROUP,
+                Range.unbounded(), 10);
+        assertEquals(3, pendingMessages.size());
+        pendingMessages.forEach(pendingMessage -> assertEquals(CONSUMER, pendingMessage.getConsumerName()));
+
+        // 调用：再次超时后，重试成功
+        Thread.sleep(IDLE_TIME.toMillis() * 2);
+        listener.setFailure(false);
+        createJob().messageResend();
+        // 断言
+        assertEquals(asList(1L, 2L, 3L), listener.getIds());
+        assertEquals(0L, stringRedisTemplate.opsForStream().pending(STREAM_KEY, GROUP).getTotalPendingMessages());
+    }
+
+    @Test
+    public void testMessageResend_deadLetter() throws InterruptedException {
+        // mock 数据
+        properties.setPendingMaxDeliveryCount(1);
+        sendAndReadByCrashedConsumer(1L, 2L, 3L);
+        Thread.sleep(IDLE_TIME.toMillis() * 2);
+
+        // 调用
+        createJob().messageResend();
+        // 断言：投递次数过多的消息，转入死信 Stream，不再消费
+        assertTrue(listener.getIds().isEmpty());
+        assertEquals(3L, stringRedisTemplate.opsForStream().size(STREAM_KEY + ":DLQ"));
+        assertEquals(0L, stringRedisTemplate.opsForStream().pending(STREAM_KEY, GROUP).getTotalPendingMessages());
+    }
+
+    private RedisPendingMessageResendJob createJob() {
+        return new RedisPendingMessageResendJob(Collections.singletonList(listener), redisMQTemplate,
+                GROUP, CONSUMER, redissonClient, properties);
+    }
+
+    /**
+     * 发送消息，并由已宕机的消费者读取，但不 ack，使消息留在 pending 队列中
+     */
+    private void sendAndReadByCrashedConsumer(Long... ids) {
+        for (Long id : ids) {
+            redisMQTemplate.send(new TestMessage().setId(id));
+        }
+        // 首次发送后，Stream 已存在，创建消费者分组
+        if (!groupCreated) {
+            stringRedisTemplate.opsForStream().createGroup(STREAM_KEY, ReadOffset.from("0"), GROUP);
+            groupCreated = true;
+        }
+        List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream().read(
+                Consumer.from(GROUP, CRASHED_CONSUMER), StreamReadOptions.empty().count(ids.length),
+                StreamOffset.create(STREAM_KEY, ReadOffset.lastConsumed()));
+        assertEquals(ids.length, records.size());
+    }
+
+    @Data
+    public static class TestMessage extends AbstractRedisStreamMessage {
+
+        private Long id;
+
+        public TestMessage setId(Long id) {
+            this.id = id;
+            return this;
+        }
+
+    }
+
+    public static class TestMessageListener extends AbstractRedisStreamMessageListener<TestMessage> {
+
+        private final List<Long> ids = new CopyOnWriteArrayList<>();
+
+        private volatile boolean failure;
+
+        @Override
+        public void onMessage(TestMessage message) {
+            if (failure) {
+                throw new RuntimeException("模拟消费失败");
+            }
+            ids.add(message.getId());
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public void setFailure(boolean failure) {
+            this.failure = failure;
+        }
+
+    }
+
+}
@@ -0,0 +1,114 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link RedisStreamBatchMessageListenerContainer} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class RedisStreamBatchMessageListenerContainerTest extends BaseMockitoUnitTest {
+
+    private static final String STREAM_KEY = "test-stream";
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(50);
+
+    @Mock
+    private RedisMQTemplate redisMQTemplate;
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+    @Mock
+    private AbstractRedisStreamBatchMessageListener<?> listener;
+
+    private RedisStreamBatchMessageListenerContainer container;
+
+    /**
+     * 模拟的 Stream，拉取时最多阻塞 {@link #POLL_TIMEOUT}
+     */
+    private final BlockingQueue<ObjectRecord<String, String>> stream = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    public void setUp() {
+        container = new RedisStreamBatchMessageListenerContainer(redisMQTemplate, 10, POLL_TIMEOUT);
+        doReturn(redisTemplate).when(redisMQTemplate).getRedisTemplate();
+        doReturn(streamOperations).when(redisTemplate).opsForStream();
+        when(listener.getStreamKey()).thenReturn(STREAM_KEY);
+        when(streamOperations.read(eq(String.class), any(Consumer.class), any(StreamReadOptions.class),
+                any(StreamOffset.class))).thenAnswer(invocation -> {
+            ObjectRecord<String, String> record = stream.poll(POLL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            return record != null ? Collections.singletonList(record) : Collections.emptyList();
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        container.stop();
+    }
+
+    @Test
+    public void testStart_afterStop() throws InterruptedException {
+        // 准备参数
+        container.register(listener, Consumer.from("group", "consumer-0"));
+
+        // 调用：第一次启动
+        container.start();
+        // 断言
+        ObjectRecord<String, String> record01 = buildRecord("1-0");
+        stream.add(record01);
+        verify(listener, timeout(1000)).onMessages(eq(Collections.singletonList(record01)));
+
+        // 调用：停止后，不再拉取
+        container.stop();
+        // 断言
+        assertFalse(container.isRunning());
+        clearInvocations(streamOperations);
+        Thread.sleep(POLL_TIMEOUT.toMillis() * 3);
+        verifyNoInteractions(streamOperations);
+
+        // 调用：再次启动，重新创建拉取线程
+        container.start();
+        // 断言
+        assertTrue(container.isRunning());
+        ObjectRecord<String, String> record02 = buildRecord("2-0");
+        stream.add(record02);
+        verify(listener, timeout(1000)).onMessages(eq(Collections.singletonList(record02)));
+    }
+
+    @Test
+    public void testRegister_afterStart() {
+        // 调用：先启动，再注册
+        container.start();
+        container.register(listener, Consumer.from("group", "consumer-0"));
+
+        // 断言：注册时，直接启动拉取线程
+        ObjectRecord<String, String> record = buildRecord("1-0");
+        stream.add(record);
+        verify(listener, timeout(1000)).onMessages(eq(Collections.singletonList(record)));
+    }
+
+    private static ObjectRecord<String, String> buildRecord(String id) {
+        return StreamRecords.newRecord().in(STREAM_KEY).ofObject("{}").withId(RecordId.of(id));
+    }
+
+}
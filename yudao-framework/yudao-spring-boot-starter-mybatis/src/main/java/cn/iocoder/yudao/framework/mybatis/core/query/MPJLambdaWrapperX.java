@@ -1,8 +1,11 @@
 package cn.iocoder.yudao.framework.mybatis.core.query;
 
+import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.ArrayUtil;
 import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.util.collection.ArrayUtils;
+import cn.iocoder.yudao.framework.mybatis.core.enums.SqlConstants;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.github.yulichang.toolkit.MPJWrappers;
 import com.github.yulichang.wrapper.MPJLambdaWrapper;
@@ -20,6 +23,13 @@ import java.util.function.Consumer;
  */
 public class MPJLambdaWrapperX<T> extends MPJLambdaWrapper<T> {
 
+    /**
+     * SQL Server 限制条数的 TOP 语法，需要拼接在查询字段的前面
+     *
+     * @see #limitN(int)
+     */
+    private String sqlSelectTop;
+
     public MPJLambdaWrapperX<T> likeIfPresent(SFunction<T, ?> column, String val) {
         MPJWrappers.lambdaJoin().like(column, val);
         if (StringUtils.hasText(val)) {
@@ -310,4 +320,45 @@ public class MPJLambdaWrapperX<T> extends MPJLambdaWrapper<T> {
         return this;
     }
 
+    /**
+     * 设置只返回前 n 条
+     *
+     * 和 {@link QueryWrapperX#limitN(int)} 一致，按照数据库的类型，使用不同的语法
+     *
+     * @param n 条数
+     * @return this
+     */
+    public MPJLambdaWrapperX<T> limitN(int n) {
+        Assert.notNull(SqlConstants.DB_TYPE, "获取不到数据库的类型");
+        switch (SqlConstants.DB_TYPE) {
+            case ORACLE:
+            case ORACLE_12C:
+                super.apply("ROWNUM <= {0}", n);
+                break;
+            case SQL_SERVER:
+            case SQL_SERVER2005:
+                sqlSelectTop = "TOP " + n;
+                break;
+            default:
+                super.last("LIMIT " + n);
+        }
+        return this;
+    }
+
+    @Override
+    public String getSqlSelect() {
+        String sqlSelect = super.getSqlSelect();
+        if (sqlSelectTop == null) {
+            return sqlSelect;
+        }
+        // 由于 SQL Server 是通过 SELECT TOP n 实现限制条数，未指定查询字段时，只好使用 * 查询
+        return sqlSelectTop + " " + StrUtil.blankToDefault(sqlSelect, "*");
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        sqlSelectTop = null;
+    }
+
 }
@@ -2,11 +2,15 @@ package cn.iocoder.yudao.framework.redis.config;
 
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.redis.core.TimeoutRedisCacheManager;
+import cn.iocoder.yudao.framework.redis.core.multilevel.MultiLevelCacheSynchronizer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
@@ -14,6 +18,9 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.util.StringUtils;
 
@@ -70,13 +77,43 @@ public class YudaoCacheAutoConfiguration {
     @Bean
     public RedisCacheManager redisCacheManager(RedisTemplate<String, Object> redisTemplate,
                                                RedisCacheConfiguration redisCacheConfiguration,
-                                               YudaoCacheProperties yudaoCacheProperties) {
+                                               YudaoCacheProperties yudaoCacheProperties,
+                                               ObjectProvider<MultiLevelCacheSynchronizer> multiLevelCacheSynchronizer) {
         // 创建 RedisCacheWriter 对象
         RedisConnectionFactory connectionFactory = Objects.requireNonNull(redisTemplate.getConnectionFactory());
         RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory,
                 BatchStrategies.scan(yudaoCacheProperties.getRedisScanBatchSize()));
         // 创建 TenantRedisCacheManager 对象
-        return new TimeoutRedisCacheManager(cacheWriter, redisCacheConfiguration);
+        TimeoutRedisCacheManager cacheManager = new TimeoutRedisCacheManager(cacheWriter, redisCacheConfiguration);
+        cacheManager.setMultiLevelCacheSynchronizer(multiLevelCacheSynchronizer.getIfAvailable());
+        return cacheManager;
+    }
+
+    // ==================== 多级缓存 ====================
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "yudao.cache", name = "local-enable", havingValue = "true") // 允许使用 yudao.cache.local-enable=true 开启本地缓存
+    public static class MultiLevelCacheConfiguration {
+
+        @Bean
+        public MultiLevelCacheSynchronizer multiLevelCacheSynchronizer(StringRedisTemplate stringRedisTemplate,
+                                                                       YudaoCacheProperties yudaoCacheProperties) {
+            return new MultiLevelCacheSynchronizer(stringRedisTemplate, yudaoCacheProperties);
+        }
+
+        /**
+         * 创建多级缓存广播消息的监听容器
+         */
+        @Bean
+        public RedisMessageListenerContainer multiLevelCacheMessageListenerContainer(
+                StringRedisTemplate stringRedisTemplate, MultiLevelCacheSynchronizer multiLevelCacheSynchronizer) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(stringRedisTemplate.getRequiredConnectionFactory());
+            container.addMessageListener(multiLevelCacheSynchronizer,
+                    new ChannelTopic(MultiLevelCacheSynchronizer.CHANNEL));
+            return container;
+        }
+
     }
 
 }
@@ -4,6 +4,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * Cache 配置项
  *
@@ -24,4 +28,25 @@ public class YudaoCacheProperties {
      */
     private Integer redisScanBatchSize = REDIS_SCAN_BATCH_SIZE_DEFAULT;
 
+    /**
+     * 是否开启本地缓存，即 Redis 缓存之前的一级缓存
+     */
+    private Boolean localEnable = false;
+    /**
+     * 开启本地缓存的缓存名
+     *
+     * 注意：本地缓存返回的是同一个对象，只适合调用方不会修改结果的缓存
+     */
+    private Set<String> localCacheNames = Collections.emptySet();
+    /**
+     * 每个本地缓存的最大数量
+     */
+    private Long localMaximumSize = 10000L;
+    /**
+     * 本地缓存的过期时间
+     *
+     * 兜底作用：广播消息丢失时，最多使用该时长的过期缓存。另外，不会超过 Redis 缓存的过期时间
+     */
+    private Duration localExpireTime = Duration.ofMinutes(1);
+
 }
@@ -2,6 +2,9 @@ package cn.iocoder.yudao.framework.redis.core;
 
 import cn.hutool.core.util.NumberUtil;
 import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.redis.core.multilevel.MultiLevelCacheSynchronizer;
+import lombok.Setter;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
@@ -16,16 +19,33 @@ import java.time.Duration;
  * 在 {@link Cacheable#cacheNames()} 格式为 "key#ttl" 时，# 后面的 ttl 为过期时间。
  * 单位为最后一个字母（支持的单位有：d 天，h 小时，m 分钟，s 秒），默认单位为 s 秒
  *
+ * 另外，在设置 {@link #multiLevelCacheSynchronizer} 时，支持对指定缓存开启本地缓存，即多级缓存
+ *
  * @author 芋道源码
  */
 public class TimeoutRedisCacheManager extends RedisCacheManager {
 
     private static final String SPLIT = "#";
 
+    /**
+     * 多级缓存的同步器，为空时不开启本地缓存
+     */
+    @Setter
+    private MultiLevelCacheSynchronizer multiLevelCacheSynchronizer;
+
     public TimeoutRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration) {
         super(cacheWriter, defaultCacheConfiguration);
     }
 
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        cache = super.decorateCache(cache);
+        if (multiLevelCacheSynchronizer == null) {
+            return cache;
+        }
+        return multiLevelCacheSynchronizer.decorateCache(cache);
+    }
+
     @Override
     protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfig) {
         if (StrUtil.isEmpty(name)) {
@@ -0,0 +1,223 @@
+package cn.iocoder.yudao.framework.redis.core.multilevel;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 多级缓存的 {@link Cache} 实现类
+ *
+ * 一级缓存：本地缓存，基于 Guava Cache 实现，读取时不产生网络 IO
+ * 二级缓存：Redis 缓存，即 {@link org.springframework.data.redis.cache.RedisCache}
+ *
+ * 写入、删除时，先操作 Redis 缓存，再通过 {@link MultiLevelCacheSynchronizer} 广播，让其它节点删除本地缓存
+ *
+ * 从 Redis 缓存读取后写入本地缓存时，可能与删除并发：读到删除前的旧值，却在删除之后才写入本地缓存，导致旧值一直保留到过期。
+ * 所以每次删除本地缓存时，递增 key 对应的版本号；写入本地缓存后，如果版本号在读取期间发生变化，则再次删除
+ *
+ * 注意：本地缓存返回的是同一个对象，调用方不能修改缓存的结果！
+ *
+ * @author 芋道源码
+ */
+public class MultiLevelCache implements Cache {
+
+    /**
+     * 本地缓存版本号的分段数
+     */
+    private static final int GENERATION_SEGMENTS = 1024;
+
+    /**
+     * 二级缓存，即 Redis 缓存
+     */
+    private final Cache redisCache;
+    /**
+     * 一级缓存，即本地缓存
+     *
+     * key：{@link #toLocalKey(Object)} 转换后的 key，和 RedisCache 的 key 格式保持一致，方便广播时使用
+     */
+    private final com.google.common.cache.Cache<String, ValueWrapper> localCache;
+
+    private final MultiLevelCacheSynchronizer synchronizer;
+
+    /**
+     * 本地缓存的版本号，按照 key 的哈希分段，删除本地缓存时递增
+     *
+     * 分段冲突时，只会导致本次读取不写入本地缓存，不影响正确性
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SEGMENTS);
+    /**
+     * 本地缓存的全局版本号，删除所有本地缓存时递增
+     */
+    private final AtomicLong clearGeneration = new AtomicLong();
+
+    public MultiLevelCache(Cache redisCache, com.google.common.cache.Cache<String, ValueWrapper> localCache,
+                           MultiLevelCacheSynchronizer synchronizer) {
+        this.redisCache = redisCache;
+        this.localCache = localCache;
+        this.synchronizer = synchronizer;
+    }
+
+    @Override
+    public String getName() {
+        return redisCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        // 优先从本地缓存中获取
+        ValueWrapper value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+        // 获取不到，从 Redis 缓存中获取，并写入本地缓存
+        long generation = getGeneration(localKey);
+        value = redisCache.get(key);
+        if (value != null) {
+            putLocal(localKey, value, generation);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(String.format("缓存(%s) 的值(%s) 不是类型(%s)",
+                    getName(), value, type.getName()));
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        // 由 RedisCache 加载，保证多个线程并发加载时，只加载一次
+        String localKey = toLocalKey(key);
+        long generation = getGeneration(localKey);
+        T value = redisCache.get(key, valueLoader);
+        putLocal(localKey, new SimpleValueWrapper(value), generation);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        redisCache.put(key, value);
+        String localKey = toLocalKey(key);
+        invalidateLocal(localKey); // 使并发读取中的旧值失效
+        localCache.put(localKey, new SimpleValueWrapper(value));
+        synchronizer.publishEvict(getName(), localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = redisCache.putIfAbsent(key, value);
+        String localKey = toLocalKey(key);
+        invalidateLocal(localKey);
+        synchronizer.publishEvict(getName(), localKey);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisCache.evict(key);
+        String localKey = toLocalKey(key);
+        invalidateLocal(localKey);
+        synchronizer.publishEvict(getName(), localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = redisCache.evictIfPresent(key);
+        String localKey = toLocalKey(key);
+        invalidateLocal(localKey);
+        synchronizer.publishEvict(getName(), localKey);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        invalidateLocal(null);
+        synchronizer.publishClear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = redisCache.invalidate();
+        invalidateLocal(null);
+        synchronizer.publishClear(getName());
+        return present;
+    }
+
+    /**
+     * 删除本地缓存，用于其它节点广播时使用
+     *
+     * @param localKey 本地缓存的 key；如果为空，则删除所有
+     */
+    public void evictLocal(String localKey) {
+        invalidateLocal(localKey);
+    }
+
+    /**
+     * 删除本地缓存，并递增版本号，使读取期间的并发写入失效
+     *
+     * @param localKey 本地缓存的 key；如果为空，则删除所有
+     */
+    private void invalidateLocal(String localKey) {
+        if (localKey == null) {
+            clearGeneration.incrementAndGet();
+            localCache.invalidateAll();
+        } else {
+            generations.incrementAndGet(indexOf(localKey));
+            localCache.invalidate(localKey);
+        }
+    }
+
+    /**
+     * 写入本地缓存。如果写入前，版本号已经变化，说明读取期间发生了删除，则删除刚写入的值
+     *
+     * @param localKey 本地缓存的 key
+     * @param value 值
+     * @param generation 读取前的版本号
+     */
+    private void putLocal(String localKey, ValueWrapper value, long generation) {
+        localCache.put(localKey, value);
+        if (getGeneration(localKey) != generation) {
+            localCache.invalidate(localKey);
+        }
+    }
+
+    /**
+     * 获得 key 的版本号：分段版本号与全局版本号都只增不减，所以两者之和变化，说明任一发生了删除
+     */
+    private long getGeneration(String localKey) {
+        return generations.get(indexOf(localKey)) + clearGeneration.get();
+    }
+
+    private static int indexOf(String localKey) {
+        return (localKey.hashCode() & Integer.MAX_VALUE) % GENERATION_SEGMENTS;
+    }
+
+    private static String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+
+}
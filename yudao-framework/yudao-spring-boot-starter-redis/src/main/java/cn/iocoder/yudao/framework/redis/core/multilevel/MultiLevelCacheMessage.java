@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.framework.redis.core.multilevel;
+
+import lombok.Data;
+
+/**
+ * 多级缓存的广播消息，用于通知其它节点删除本地缓存
+ *
+ * @author 芋道源码
+ */
+@Data
+public class MultiLevelCacheMessage {
+
+    /**
+     * 发送消息的节点编号
+     *
+     * 用于忽略自己发送的消息
+     */
+    private String nodeId;
+    /**
+     * 缓存名
+     */
+    private String cacheName;
+    /**
+     * 缓存 key
+     *
+     * 如果为空，说明删除该缓存名下的所有 key
+     */
+    private String key;
+
+}
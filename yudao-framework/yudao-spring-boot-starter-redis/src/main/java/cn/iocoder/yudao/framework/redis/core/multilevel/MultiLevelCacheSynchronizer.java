@@ -0,0 +1,147 @@
+package cn.iocoder.yudao.framework.redis.core.multilevel;
+
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.redis.config.YudaoCacheProperties;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 多级缓存的同步器
+ *
+ * 1. 创建 {@link MultiLevelCache}，只有 {@link YudaoCacheProperties#getLocalCacheNames()} 配置的缓存，才开启本地缓存
+ * 2. 基于 Redis Pub/Sub 广播 {@link MultiLevelCacheMessage} 消息，实现多节点的本地缓存删除
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class MultiLevelCacheSynchronizer implements MessageListener {
+
+    /**
+     * 广播的 Redis Channel
+     */
+    public static final String CHANNEL = "yudao:cache:multi-level";
+
+    /**
+     * 当前节点的编号
+     */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final YudaoCacheProperties cacheProperties;
+
+    /**
+     * MultiLevelCache 映射
+     *
+     * key：缓存名
+     */
+    private final Map<String, MultiLevelCache> caches = new ConcurrentHashMap<>();
+
+    public MultiLevelCacheSynchronizer(StringRedisTemplate stringRedisTemplate, YudaoCacheProperties cacheProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheProperties = cacheProperties;
+    }
+
+    /**
+     * 装饰 Redis 缓存：如果该缓存开启了本地缓存，则创建对应的 {@link MultiLevelCache}
+     *
+     * @param redisCache Redis 缓存
+     * @return 缓存
+     */
+    public Cache decorateCache(Cache redisCache) {
+        String name = redisCache.getName();
+        if (!isLocalCacheEnable(name)) {
+            return redisCache;
+        }
+        // 创建本地缓存，过期时间不超过 Redis 缓存的过期时间
+        Duration expireTime = cacheProperties.getLocalExpireTime();
+        if (redisCache instanceof RedisCache) {
+            Duration ttl = ((RedisCache) redisCache).getCacheConfiguration().getTtl();
+            if (!ttl.isZero() && !ttl.isNegative() && ttl.compareTo(expireTime) < 0) {
+                expireTime = ttl;
+            }
+        }
+        com.google.common.cache.Cache<String, Cache.ValueWrapper> localCache = CacheBuilder.newBuilder()
+                .maximumSize(cacheProperties.getLocalMaximumSize())
+                .expireAfterWrite(expireTime)
+                .recordStats() // 记录命中率等统计，用于 Metrics 指标
+                .build();
+        GuavaCacheMetrics.monitor(Metrics.globalRegistry, localCache, name, "level", "local"); // 按照缓存名，统计命中率
+        // 创建多级缓存
+        MultiLevelCache cache = new MultiLevelCache(redisCache, localCache, this);
+        caches.put(name, cache);
+        log.info("[decorateCache][缓存({}) 开启本地缓存，过期时间为 {}]", name, expireTime);
+        return cache;
+    }
+
+    /**
+     * 判断缓存是否开启本地缓存
+     *
+     * 缓存名可能是 "name#ttl" 格式，也可能拼接了 ":" + 租户编号，所以只使用最前面的 name 进行匹配
+     *
+     * @param name 缓存名
+     * @return 是否开启
+     */
+    private boolean isLocalCacheEnable(String name) {
+        if (StrUtil.isEmpty(name)) {
+            return false;
+        }
+        String baseName = StrUtil.subBefore(StrUtil.subBefore(name, "#", false), StrUtil.COLON, false);
+        return cacheProperties.getLocalCacheNames().contains(baseName);
+    }
+
+    /**
+     * 广播删除指定 key 的本地缓存
+     *
+     * @param cacheName 缓存名
+     * @param key 缓存 key
+     */
+    public void publishEvict(String cacheName, String key) {
+        publish(new MultiLevelCacheMessage().setNodeId(nodeId).setCacheName(cacheName).setKey(key));
+    }
+
+    /**
+     * 广播删除所有的本地缓存
+     *
+     * @param cacheName 缓存名
+     */
+    public void publishClear(String cacheName) {
+        publish(new MultiLevelCacheMessage().setNodeId(nodeId).setCacheName(cacheName));
+    }
+
+    private void publish(MultiLevelCacheMessage message) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, JsonUtils.toJsonString(message));
+        } catch (Exception ex) {
+            // 广播失败时，其它节点依赖本地缓存的过期时间兜底
+            log.error("[publish][广播消息({}) 失败]", message, ex);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        MultiLevelCacheMessage cacheMessage = JsonUtils.parseObject(message.getBody(), MultiLevelCacheMessage.class);
+        if (cacheMessage == null || nodeId.equals(cacheMessage.getNodeId())) {
+            return;
+        }
+        MultiLevelCache cache = caches.get(cacheMessage.getCacheName());
+        if (cache == null) {
+            return;
+        }
+        cache.evictLocal(cacheMessage.getKey());
+    }
+
+}
@@ -0,0 +1,234 @@
+package cn.iocoder.yudao.framework.redis.core.multilevel;
+
+import cn.iocoder.yudao.framework.redis.config.YudaoCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static cn.iocoder.yudao.framework.redis.core.multilevel.MultiLevelCacheSynchronizer.CHANNEL;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link MultiLevelCache} 和 {@link MultiLevelCacheSynchronizer} 的单元测试
+ *
+ * 模拟两个节点：共享同一个二级缓存，广播消息同步投递给两个节点的 {@link MultiLevelCacheSynchronizer}
+ *
+ * @author 芋道源码
+ */
+public class MultiLevelCacheTest {
+
+    private static final String CACHE_NAME = "user";
+    private static final String KEY = "1";
+
+    /**
+     * 二级缓存，多个节点共享
+     */
+    private BlockingCache redisCache;
+
+    private MultiLevelCache cache1;
+    private MultiLevelCache cache2;
+
+    @BeforeEach
+    public void setUp() {
+        redisCache = new BlockingCache(CACHE_NAME);
+        List<MultiLevelCacheSynchronizer> synchronizers = new ArrayList<>();
+        MultiLevelCacheSynchronizer synchronizer1 = createSynchronizer(synchronizers);
+        MultiLevelCacheSynchronizer synchronizer2 = createSynchronizer(synchronizers);
+        synchronizers.add(synchronizer1);
+        synchronizers.add(synchronizer2);
+        cache1 = (MultiLevelCache) synchronizer1.decorateCache(redisCache);
+        cache2 = (MultiLevelCache) synchronizer2.decorateCache(redisCache);
+    }
+
+    @Test
+    public void testDecorateCache_notLocal() {
+        // 准备参数
+        Cache otherCache = new ConcurrentMapCache("other");
+
+        // 调用
+        Cache result = createSynchronizer(new ArrayList<>()).decorateCache(otherCache);
+        // 断言：未开启本地缓存，直接使用二级缓存
+        assertSame(otherCache, result);
+    }
+
+    @Test
+    public void testGet_readThrough() {
+        // mock 数据
+        redisCache.put(KEY, "v1");
+
+        // 调用：从二级缓存读取，并写入本地缓存
+        assertEquals("v1", cache1.get(KEY, String.class));
+        // 调用：二级缓存被直接修改（未广播）时，读取本地缓存
+        redisCache.put(KEY, "v2");
+        assertEquals("v1", cache1.get(KEY, String.class));
+        // 断言：未命中的 key，不写入本地缓存
+        assertNull(cache1.get("2"));
+    }
+
+    @Test
+    public void testGet_valueLoader() {
+        // 调用
+        assertEquals("v1", cache1.get(KEY, () -> "v1"));
+        // 断言：写入二级缓存、本地缓存，不再加载
+        assertEquals("v1", redisCache.get(KEY, String.class));
+        assertEquals("v1", cache1.get(KEY, () -> "v2"));
+    }
+
+    @Test
+    public void testPut_evictOtherNode() {
+        // mock 数据：两个节点都已经写入本地缓存
+        redisCache.put(KEY, "v1");
+        assertEquals("v1", cache1.get(KEY, String.class));
+        assertEquals("v1", cache2.get(KEY, String.class));
+
+        // 调用
+        cache1.put(KEY, "v2");
+        // 断言：其它节点的本地缓存被删除，重新从二级缓存读取
+        assertEquals("v2", cache1.get(KEY, String.class));
+        assertEquals("v2", cache2.get(KEY, String.class));
+    }
+
+    @Test
+    public void testEvict_evictOtherNode() {
+        // mock 数据
+        redisCache.put(KEY, "v1");
+        assertEquals("v1", cache2.get(KEY, String.class));
+
+        // 调用
+        cache1.evict(KEY);
+        // 断言
+        assertNull(redisCache.get(KEY));
+        assertNull(cache2.get(KEY));
+    }
+
+    @Test
+    public void testClear_evictOtherNode() {
+        // mock 数据
+        redisCache.put(KEY, "v1");
+        redisCache.put("2", "v2");
+        assertEquals("v1", cache2.get(KEY, String.class));
+        assertEquals("v2", cache2.get("2", String.class));
+
+        // 调用
+        cache1.clear();
+        // 断言
+        assertNull(cache2.get(KEY));
+        assertNull(cache2.get("2"));
+    }
+
+    @Test
+    public void testGet_evictDuringRead() throws Exception {
+        // mock 数据
+        redisCache.put(KEY, "v1");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // 调用：节点 2 从二级缓存读到旧值后，暂停写入本地缓存
+            redisCache.block();
+            Future<String> reader = executor.submit(() -> cache2.get(KEY, String.class));
+            assertTrue(redisCache.awaitBlocked());
+            // 调用：节点 1 写入新值，广播删除节点 2 的本地缓存
+            cache1.put(KEY, "v2");
+            redisCache.release();
+            // 断言：读取中的请求，返回旧值
+            assertEquals("v1", reader.get(5, TimeUnit.SECONDS));
+            // 断言：旧值没有保留在本地缓存中
+            assertEquals("v2", cache2.get(KEY, String.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGet_clearDuringRead() throws Exception {
+        // mock 数据
+        redisCache.put(KEY, "v1");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // 调用：节点 2 读取期间，节点 1 清空缓存后写入新值
+            redisCache.block();
+            Future<String> reader = executor.submit(() -> cache2.get(KEY, String.class));
+            assertTrue(redisCache.awaitBlocked());
+            cache1.clear();
+            redisCache.put(KEY, "v2");
+            redisCache.release();
+            // 断言
+            assertEquals("v1", reader.get(5, TimeUnit.SECONDS));
+            assertEquals("v2", cache2.get(KEY, String.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static MultiLevelCacheSynchronizer createSynchronizer(List<MultiLevelCacheSynchronizer> synchronizers) {
+        // mock 方法：广播时，同步投递给所有节点
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        when(stringRedisTemplate.convertAndSend(eq(CHANNEL), any())).thenAnswer(invocation -> {
+            Message message = new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    ((String) invocation.getArgument(1)).getBytes(StandardCharsets.UTF_8));
+            synchronizers.forEach(synchronizer -> synchronizer.onMessage(message, null));
+            return (long) synchronizers.size();
+        });
+        YudaoCacheProperties cacheProperties = new YudaoCacheProperties();
+        cacheProperties.setLocalCacheNames(Collections.singleton(CACHE_NAME));
+        return new MultiLevelCacheSynchronizer(stringRedisTemplate, cacheProperties);
+    }
+
+    /**
+     * 可以在读取后暂停的二级缓存，用于模拟读取与删除的并发
+     */
+    private static class BlockingCache extends ConcurrentMapCache {
+
+        private volatile CountDownLatch blocked;
+        private volatile CountDownLatch release;
+
+        private BlockingCache(String name) {
+            super(name);
+        }
+
+        public void block() {
+            blocked = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+
+        public boolean awaitBlocked() throws InterruptedException {
+            return blocked.await(5, TimeUnit.SECONDS);
+        }
+
+        public void release() {
+            CountDownLatch release = this.release;
+            this.release = null;
+            release.countDown();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            ValueWrapper value = super.get(key);
+            CountDownLatch release = this.release;
+            if (release != null) {
+                blocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return value;
+        }
+
+    }
+
+}
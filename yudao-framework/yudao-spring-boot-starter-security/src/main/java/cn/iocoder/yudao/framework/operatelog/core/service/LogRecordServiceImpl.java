@@ -4,7 +4,6 @@ import cn.iocoder.yudao.framework.common.util.monitor.TracerUtils;
 import cn.iocoder.yudao.framework.common.util.servlet.ServletUtils;
 import cn.iocoder.yudao.framework.security.core.LoginUser;
 import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
-import cn.iocoder.yudao.module.system.api.logger.OperateLogApi;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogV2CreateReqDTO;
 import com.mzt.logapi.beans.LogRecord;
 import com.mzt.logapi.service.ILogRecordService;
@@ -17,7 +16,7 @@ import java.util.List;
 /**
  * 操作日志 ILogRecordService 实现类
  *
- * 基于 {@link OperateLogApi} 实现，记录操作日志
+ * 基于 {@link OperateLogFrameworkService} 实现，记录操作日志
  *
  * @author HUIHUI
  */
@@ -25,7 +24,7 @@ import java.util.List;
 public class LogRecordServiceImpl implements ILogRecordService {
 
     @Resource
-    private OperateLogApi operateLogApi;
+    private OperateLogFrameworkService operateLogFrameworkService;
 
     @Override
     public void record(LogRecord logRecord) {
@@ -40,9 +39,8 @@ public class LogRecordServiceImpl implements ILogRecordService {
         fillRequestFields(reqDTO);
 
         // 2. 异步记录日志
-        operateLogApi.createOperateLogV2(reqDTO);
-        // TODO 测试结束删除或搞个开关
-        log.info("操作日志 ===> {}", reqDTO);
+        operateLogFrameworkService.createOperateLogV2(reqDTO);
+        log.debug("[record][操作日志({})]", reqDTO);
     }
 
     private static void fillUserFields(OperateLogV2CreateReqDTO reqDTO) {
@@ -51,6 +49,7 @@ public class LogRecordServiceImpl implements ILogRecordService {
         if (loginUser == null) {
             return;
         }
+        reqDTO.setTenantId(loginUser.getTenantId());
         reqDTO.setUserId(loginUser.getId());
         reqDTO.setUserType(loginUser.getUserType());
     }
@@ -6,6 +6,7 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 
@@ -39,6 +40,26 @@ public class SecurityProperties {
     @NotEmpty(message = "mock 模式的密钥不能为空") // 这里设置了一个默认值，因为实际上只有 mockEnable 为 true 时才需要配置。
     private String mockSecret = "test";
 
+    /**
+     * 访问令牌的本地缓存的开关
+     *
+     * 开启后，校验通过的访问令牌会缓存在本地，减少每个请求对 Redis 的访问
+     */
+    @NotNull(message = "访问令牌的本地缓存的开关不能为空")
+    private Boolean tokenCacheEnable = false;
+    /**
+     * 访问令牌的本地缓存的最大数量
+     */
+    @NotNull(message = "访问令牌的本地缓存的最大数量不能为空")
+    private Long tokenCacheMaximumSize = 10000L;
+    /**
+     * 访问令牌的本地缓存的最长时间
+     *
+     * 兜底作用：令牌删除的广播消息丢失时，最多使用该时长的过期缓存
+     */
+    @NotNull(message = "访问令牌的本地缓存的最长时间不能为空")
+    private Duration tokenCacheExpireTime = Duration.ofMinutes(1);
+
     /**
      * 免登录的 URL 列表
      */
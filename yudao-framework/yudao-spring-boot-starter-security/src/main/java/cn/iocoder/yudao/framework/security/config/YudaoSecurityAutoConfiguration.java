@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.framework.security.config;
 
+import cn.iocoder.yudao.framework.mq.redis.config.YudaoRedisMQConsumerAutoConfiguration;
 import cn.iocoder.yudao.framework.security.core.aop.PreAuthenticatedAspect;
 import cn.iocoder.yudao.framework.security.core.context.TransmittableThreadLocalSecurityContextHolderStrategy;
 import cn.iocoder.yudao.framework.security.core.filter.TokenAuthenticationFilter;
@@ -7,13 +8,18 @@ import cn.iocoder.yudao.framework.security.core.handler.AccessDeniedHandlerImpl;
 import cn.iocoder.yudao.framework.security.core.handler.AuthenticationEntryPointImpl;
 import cn.iocoder.yudao.framework.security.core.service.SecurityFrameworkService;
 import cn.iocoder.yudao.framework.security.core.service.SecurityFrameworkServiceImpl;
+import cn.iocoder.yudao.framework.security.core.token.AccessTokenInvalidateConsumer;
+import cn.iocoder.yudao.framework.security.core.token.AccessTokenLocalCache;
 import cn.iocoder.yudao.framework.web.core.handler.GlobalExceptionHandler;
 import cn.iocoder.yudao.module.system.api.oauth2.OAuth2TokenApi;
 import cn.iocoder.yudao.module.system.api.permission.PermissionApi;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.MethodInvokingFactoryBean;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -30,7 +36,7 @@ import javax.annotation.Resource;
  *
  * @author 芋道源码
  */
-@AutoConfiguration
+@AutoConfiguration(before = YudaoRedisMQConsumerAutoConfiguration.class) // before YudaoRedisMQConsumerAutoConfiguration 的原因是，需要保证 AccessTokenInvalidateConsumer 先创建，才能创建 RedisMessageListenerContainer
 @EnableConfigurationProperties(SecurityProperties.class)
 public class YudaoSecurityAutoConfiguration {
 
@@ -77,8 +83,10 @@ public class YudaoSecurityAutoConfiguration {
      */
     @Bean
     public TokenAuthenticationFilter authenticationTokenFilter(GlobalExceptionHandler globalExceptionHandler,
-                                                               OAuth2TokenApi oauth2TokenApi) {
-        return new TokenAuthenticationFilter(securityProperties, globalExceptionHandler, oauth2TokenApi);
+                                                               OAuth2TokenApi oauth2TokenApi,
+                                                               ObjectProvider<AccessTokenLocalCache> accessTokenLocalCache) {
+        return new TokenAuthenticationFilter(securityProperties, globalExceptionHandler, oauth2TokenApi,
+                accessTokenLocalCache.getIfAvailable());
     }
 
     @Bean("ss") // 使用 Spring Security 的缩写，方便使用
@@ -99,4 +107,23 @@ public class YudaoSecurityAutoConfiguration {
         return methodInvokingFactoryBean;
     }
 
+    // ==================== 访问令牌的本地缓存 ====================
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "yudao.security", name = "token-cache-enable", havingValue = "true") // 允许使用 yudao.security.token-cache-enable=true 开启
+    public class AccessTokenLocalCacheConfiguration {
+
+        @Bean
+        public AccessTokenLocalCache accessTokenLocalCache() {
+            return new AccessTokenLocalCache(securityProperties.getTokenCacheMaximumSize(),
+                    securityProperties.getTokenCacheExpireTime());
+        }
+
+        @Bean
+        public AccessTokenInvalidateConsumer accessTokenInvalidateConsumer(AccessTokenLocalCache accessTokenLocalCache) {
+            return new AccessTokenInvalidateConsumer(accessTokenLocalCache);
+        }
+
+    }
+
 }
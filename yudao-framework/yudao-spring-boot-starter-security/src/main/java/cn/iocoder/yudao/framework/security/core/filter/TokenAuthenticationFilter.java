@@ -7,6 +7,7 @@ import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.util.servlet.ServletUtils;
 import cn.iocoder.yudao.framework.security.config.SecurityProperties;
 import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.security.core.token.AccessTokenLocalCache;
 import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
 import cn.iocoder.yudao.framework.web.core.handler.GlobalExceptionHandler;
 import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
@@ -37,6 +38,11 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
 
     private final OAuth2TokenApi oauth2TokenApi;
 
+    /**
+     * 访问令牌的本地缓存，允许为空
+     */
+    private final AccessTokenLocalCache accessTokenLocalCache;
+
     @Override
     @SuppressWarnings("NullableProblems")
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -70,7 +76,7 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
 
     private LoginUser buildLoginUserByToken(String token, Integer userType) {
         try {
-            OAuth2AccessTokenCheckRespDTO accessToken = oauth2TokenApi.checkAccessToken(token);
+            OAuth2AccessTokenCheckRespDTO accessToken = checkAccessToken(token);
             if (accessToken == null) {
                 return null;
             }
@@ -90,6 +96,23 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    private OAuth2AccessTokenCheckRespDTO checkAccessToken(String token) {
+        if (accessTokenLocalCache == null) {
+            return oauth2TokenApi.checkAccessToken(token);
+        }
+        // 优先从本地缓存中获取
+        OAuth2AccessTokenCheckRespDTO accessToken = accessTokenLocalCache.get(token);
+        if (accessToken != null) {
+            return accessToken;
+        }
+        // 获取不到，则校验后写入本地缓存
+        accessToken = oauth2TokenApi.checkAccessToken(token);
+        if (accessToken != null) {
+            accessTokenLocalCache.put(token, accessToken);
+        }
+        return accessToken;
+    }
+
     /**
      * 模拟登录用户，方便日常开发调试
      *
@@ -0,0 +1,24 @@
+package cn.iocoder.yudao.framework.security.core.token;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link AccessTokenInvalidateMessage} 广播消息的消费者，移除本地缓存的访问令牌
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AccessTokenInvalidateConsumer extends AbstractRedisChannelMessageListener<AccessTokenInvalidateMessage> {
+
+    private final AccessTokenLocalCache accessTokenLocalCache;
+
+    @Override
+    public void onMessage(AccessTokenInvalidateMessage message) {
+        log.debug("[onMessage][移除访问令牌({}) 的本地缓存]", message.getAccessTokens());
+        accessTokenLocalCache.invalidate(message.getAccessTokens());
+    }
+
+}
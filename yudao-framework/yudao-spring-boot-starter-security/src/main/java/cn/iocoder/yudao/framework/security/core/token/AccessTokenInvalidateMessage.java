@@ -0,0 +1,23 @@
+package cn.iocoder.yudao.framework.security.core.token;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 访问令牌失效的广播消息
+ *
+ * 访问令牌被删除时（登出、刷新令牌等），通知各个节点移除 {@link AccessTokenLocalCache} 的缓存
+ *
+ * @author 芋道源码
+ */
+@Data
+public class AccessTokenInvalidateMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 访问令牌数组
+     */
+    private List<String> accessTokens;
+
+}
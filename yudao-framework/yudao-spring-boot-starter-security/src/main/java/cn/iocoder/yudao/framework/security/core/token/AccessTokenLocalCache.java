@@ -0,0 +1,84 @@
+package cn.iocoder.yudao.framework.security.core.token;
+
+import cn.iocoder.yudao.framework.common.util.date.DateUtils;
+import cn.iocoder.yudao.module.system.api.oauth2.dto.OAuth2AccessTokenCheckRespDTO;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * 访问令牌的本地缓存（Near Cache）
+ *
+ * 作用：缓存已经校验通过的访问令牌，避免每个请求都访问 Redis 并反序列化 OAuth2AccessTokenDO
+ * 失效：
+ * 1. 每个令牌的缓存时间，不超过它的过期时间 expiresTime
+ * 2. 令牌被删除时，通过 {@link AccessTokenInvalidateMessage} 广播，各个节点移除对应的缓存
+ * 3. 兜底，缓存最多保留 expireTime 时长，避免广播丢失时，长期使用已删除的令牌
+ *
+ * 指标：通过 Micrometer 的 cache.gets 等指标，查看命中率，cache 名字为 {@link #CACHE_NAME}
+ *
+ * @author 芋道源码
+ */
+public class AccessTokenLocalCache {
+
+    public static final String CACHE_NAME = "yudao.security.access-token";
+
+    private final Cache<String, OAuth2AccessTokenCheckRespDTO> cache;
+
+    public AccessTokenLocalCache(long maximumSize, Duration expireTime) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireTime)
+                .recordStats() // 记录命中率等统计，用于 Metrics 指标
+                .build();
+        GuavaCacheMetrics.monitor(Metrics.globalRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 获得访问令牌
+     *
+     * @param accessToken 访问令牌
+     * @return 访问令牌信息；如果不存在、或者已过期，则返回 null
+     */
+    public OAuth2AccessTokenCheckRespDTO get(String accessToken) {
+        OAuth2AccessTokenCheckRespDTO accessTokenDTO = cache.getIfPresent(accessToken);
+        if (accessTokenDTO == null) {
+            return null;
+        }
+        // 已过期，则移除缓存
+        if (DateUtils.isExpired(accessTokenDTO.getExpiresTime())) {
+            cache.invalidate(accessToken);
+            return null;
+        }
+        return accessTokenDTO;
+    }
+
+    /**
+     * 缓存访问令牌
+     *
+     * @param accessToken 访问令牌
+     * @param accessTokenDTO 访问令牌信息
+     */
+    public void put(String accessToken, OAuth2AccessTokenCheckRespDTO accessTokenDTO) {
+        // 没有过期时间，无法保证缓存的正确性，所以不缓存
+        if (accessTokenDTO.getExpiresTime() == null
+                || DateUtils.isExpired(accessTokenDTO.getExpiresTime())) {
+            return;
+        }
+        cache.put(accessToken, accessTokenDTO);
+    }
+
+    /**
+     * 移除访问令牌的缓存
+     *
+     * @param accessTokens 访问令牌数组
+     */
+    public void invalidate(Collection<String> accessTokens) {
+        cache.invalidateAll(accessTokens);
+    }
+
+}
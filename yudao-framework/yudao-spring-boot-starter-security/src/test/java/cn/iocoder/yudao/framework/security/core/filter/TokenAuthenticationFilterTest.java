@@ -0,0 +1,150 @@
+package cn.iocoder.yudao.framework.security.core.filter;
+
+import cn.hutool.core.util.ReflectUtil;
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import cn.iocoder.yudao.framework.security.config.SecurityProperties;
+import cn.iocoder.yudao.framework.security.config.YudaoSecurityAutoConfiguration;
+import cn.iocoder.yudao.framework.security.core.token.AccessTokenLocalCache;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.framework.web.config.WebProperties;
+import cn.iocoder.yudao.framework.web.core.handler.GlobalExceptionHandler;
+import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
+import cn.iocoder.yudao.module.system.api.oauth2.OAuth2TokenApi;
+import cn.iocoder.yudao.module.system.api.oauth2.dto.OAuth2AccessTokenCheckRespDTO;
+import cn.iocoder.yudao.module.system.api.permission.PermissionApi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.context.annotation.UserConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link TokenAuthenticationFilter} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class TokenAuthenticationFilterTest extends BaseMockitoUnitTest {
+
+    @Mock
+    private GlobalExceptionHandler globalExceptionHandler;
+    @Mock
+    private OAuth2TokenApi oauth2TokenApi;
+
+    private final SecurityProperties securityProperties = new SecurityProperties();
+
+    @BeforeAll
+    public static void setUpClass() {
+        // 初始化 WebFrameworkUtils，用于获取请求的用户类型
+        new WebFrameworkUtils(new WebProperties());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testDoFilter_cacheDisabled() throws Exception {
+        // mock 方法
+        when(oauth2TokenApi.checkAccessToken(eq("token"))).thenReturn(buildAccessToken());
+        // 准备参数：默认关闭本地缓存
+        assertFalse(securityProperties.getTokenCacheEnable());
+        TokenAuthenticationFilter filter = new TokenAuthenticationFilter(securityProperties,
+                globalExceptionHandler, oauth2TokenApi, null);
+
+        // 调用，并断言：每次请求，都校验访问令牌
+        assertEquals(1L, doFilter(filter));
+        assertEquals(1L, doFilter(filter));
+        verify(oauth2TokenApi, times(2)).checkAccessToken(eq("token"));
+    }
+
+    @Test
+    public void testDoFilter_cacheHit() throws Exception {
+        // mock 方法
+        when(oauth2TokenApi.checkAccessToken(eq("token"))).thenReturn(buildAccessToken());
+        // 准备参数
+        TokenAuthenticationFilter filter = new TokenAuthenticationFilter(securityProperties,
+                globalExceptionHandler, oauth2TokenApi, new AccessTokenLocalCache(100, Duration.ofMinutes(1)));
+
+        // 调用，并断言：第二次请求，使用本地缓存
+        assertEquals(1L, doFilter(filter));
+        assertEquals(1L, doFilter(filter));
+        verify(oauth2TokenApi, times(1)).checkAccessToken(eq("token"));
+    }
+
+    @Test
+    public void testDoFilter_cacheInvalidated() throws Exception {
+        // mock 方法：第二次校验时，访问令牌已经被删除
+        when(oauth2TokenApi.checkAccessToken(eq("token"))).thenReturn(buildAccessToken())
+                .thenThrow(new ServiceException(401, "访问令牌不存在"));
+        // 准备参数
+        AccessTokenLocalCache accessTokenLocalCache = new AccessTokenLocalCache(100, Duration.ofMinutes(1));
+        TokenAuthenticationFilter filter = new TokenAuthenticationFilter(securityProperties,
+                globalExceptionHandler, oauth2TokenApi, accessTokenLocalCache);
+        assertEquals(1L, doFilter(filter));
+
+        // 调用：登出后，移除本地缓存
+        accessTokenLocalCache.invalidate(Collections.singletonList("token"));
+        // 断言：重新校验访问令牌，未登录
+        assertNull(doFilter(filter));
+        verify(oauth2TokenApi, times(2)).checkAccessToken(eq("token"));
+    }
+
+    @Test
+    public void testAutoConfiguration_cacheDisabledByDefault() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withConfiguration(UserConfigurations.of(YudaoSecurityAutoConfiguration.class))
+                .withBean(GlobalExceptionHandler.class, () -> globalExceptionHandler)
+                .withBean(OAuth2TokenApi.class, () -> oauth2TokenApi)
+                .withBean(PermissionApi.class, () -> mock(PermissionApi.class));
+        // 调用，并断言：默认不创建本地缓存
+        contextRunner.run(context -> {
+            assertTrue(context.getBeansOfType(AccessTokenLocalCache.class).isEmpty());
+            assertNull(ReflectUtil.getFieldValue(context.getBean(TokenAuthenticationFilter.class),
+                    "accessTokenLocalCache"));
+        });
+        // 调用，并断言：开启后，注入到过滤器
+        contextRunner.withPropertyValues("yudao.security.token-cache-enable=true").run(context -> {
+            AccessTokenLocalCache accessTokenLocalCache = context.getBean(AccessTokenLocalCache.class);
+            assertSame(accessTokenLocalCache, ReflectUtil.getFieldValue(context.getBean(TokenAuthenticationFilter.class),
+                    "accessTokenLocalCache"));
+        });
+    }
+
+    /**
+     * 执行过滤器
+     *
+     * @return 登录用户的编号；未登录时，返回 null
+     */
+    private Long doFilter(TokenAuthenticationFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin-api/system/user/get");
+        request.setServletPath("/admin-api/system/user/get");
+        request.addHeader(securityProperties.getTokenHeader(), "Bearer token");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertSame(request, chain.getRequest());
+        return WebFrameworkUtils.getLoginUserId(request);
+    }
+
+    private static OAuth2AccessTokenCheckRespDTO buildAccessToken() {
+        OAuth2AccessTokenCheckRespDTO accessToken = new OAuth2AccessTokenCheckRespDTO();
+        accessToken.setUserId(1L);
+        accessToken.setUserType(UserTypeEnum.ADMIN.getValue());
+        accessToken.setExpiresTime(LocalDateTime.now().plusHours(1));
+        return accessToken;
+    }
+
+}
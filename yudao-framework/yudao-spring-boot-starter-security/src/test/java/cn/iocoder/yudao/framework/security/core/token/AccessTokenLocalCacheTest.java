@@ -0,0 +1,105 @@
+package cn.iocoder.yudao.framework.security.core.token;
+
+import cn.iocoder.yudao.module.system.api.oauth2.dto.OAuth2AccessTokenCheckRespDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * {@link AccessTokenLocalCache} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class AccessTokenLocalCacheTest {
+
+    private final AccessTokenLocalCache accessTokenLocalCache = new AccessTokenLocalCache(100, Duration.ofMinutes(1));
+
+    @Test
+    public void testGet_hit() {
+        // mock 数据
+        OAuth2AccessTokenCheckRespDTO accessToken = buildAccessToken(LocalDateTime.now().plusHours(1));
+        accessTokenLocalCache.put("token", accessToken);
+
+        // 调用，并断言
+        assertSame(accessToken, accessTokenLocalCache.get("token"));
+        assertNull(accessTokenLocalCache.get("other"));
+    }
+
+    @Test
+    public void testGet_tokenExpired() throws InterruptedException {
+        // mock 数据：缓存期间，令牌过期
+        OAuth2AccessTokenCheckRespDTO accessToken = buildAccessToken(LocalDateTime.now().plusNanos(100_000_000));
+        accessTokenLocalCache.put("token", accessToken);
+        assertSame(accessToken, accessTokenLocalCache.get("token"));
+        Thread.sleep(200);
+
+        // 调用，并断言
+        assertNull(accessTokenLocalCache.get("token"));
+    }
+
+    @Test
+    public void testGet_cacheExpired() throws InterruptedException {
+        // mock 数据：令牌未过期，但超过缓存的最长时间
+        AccessTokenLocalCache accessTokenLocalCache = new AccessTokenLocalCache(100, Duration.ofMillis(100));
+        accessTokenLocalCache.put("token", buildAccessToken(LocalDateTime.now().plusHours(1)));
+        Thread.sleep(200);
+
+        // 调用，并断言
+        assertNull(accessTokenLocalCache.get("token"));
+    }
+
+    @Test
+    public void testPut_noExpiresTime() {
+        // 调用：没有过期时间、已经过期的令牌
+        accessTokenLocalCache.put("token1", buildAccessToken(null));
+        accessTokenLocalCache.put("token2", buildAccessToken(LocalDateTime.now().minusSeconds(1)));
+        // 断言：都不缓存
+        assertNull(accessTokenLocalCache.get("token1"));
+        assertNull(accessTokenLocalCache.get("token2"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        // mock 数据
+        OAuth2AccessTokenCheckRespDTO accessToken = buildAccessToken(LocalDateTime.now().plusHours(1));
+        accessTokenLocalCache.put("token1", accessToken);
+        accessTokenLocalCache.put("token2", accessToken);
+        accessTokenLocalCache.put("token3", accessToken);
+
+        // 调用
+        accessTokenLocalCache.invalidate(asList("token1", "token2"));
+        // 断言
+        assertNull(accessTokenLocalCache.get("token1"));
+        assertNull(accessTokenLocalCache.get("token2"));
+        assertSame(accessToken, accessTokenLocalCache.get("token3"));
+    }
+
+    @Test
+    public void testInvalidateConsumer() {
+        // mock 数据
+        accessTokenLocalCache.put("token", buildAccessToken(LocalDateTime.now().plusHours(1)));
+        // 准备参数：登出时，广播的消息
+        AccessTokenInvalidateMessage message = new AccessTokenInvalidateMessage();
+        message.setAccessTokens(Collections.singletonList("token"));
+
+        // 调用
+        new AccessTokenInvalidateConsumer(accessTokenLocalCache).onMessage(message);
+        // 断言
+        assertNull(accessTokenLocalCache.get("token"));
+    }
+
+    private static OAuth2AccessTokenCheckRespDTO buildAccessToken(LocalDateTime expiresTime) {
+        OAuth2AccessTokenCheckRespDTO accessToken = new OAuth2AccessTokenCheckRespDTO();
+        accessToken.setUserId(1L);
+        accessToken.setUserType(2);
+        accessToken.setExpiresTime(expiresTime);
+        return accessToken;
+    }
+
+}
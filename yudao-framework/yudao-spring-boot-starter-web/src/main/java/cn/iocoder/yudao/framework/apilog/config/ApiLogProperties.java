@@ -0,0 +1,35 @@
+package cn.iocoder.yudao.framework.apilog.config;
+
+import cn.iocoder.yudao.framework.common.util.concurrent.AsyncBatchProperties;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * API 日志配置
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.api-log")
+@Validated
+@Data
+public class ApiLogProperties {
+
+    /**
+     * 是否批量写入
+     *
+     * true 时，先放入有界队列，由后台线程批量写入；false 时，每条日志通过 @Async 异步写入
+     */
+    @NotNull(message = "是否批量写入不能为空")
+    private Boolean batchEnable = true;
+
+    /**
+     * 批量写入的配置，访问日志、错误日志各自使用一个队列
+     */
+    @NestedConfigurationProperty
+    private AsyncBatchProperties batch = new AsyncBatchProperties();
+
+}
@@ -5,6 +5,8 @@ import cn.iocoder.yudao.framework.apilog.core.service.ApiAccessLogFrameworkServi
 import cn.iocoder.yudao.framework.apilog.core.service.ApiAccessLogFrameworkServiceImpl;
 import cn.iocoder.yudao.framework.apilog.core.service.ApiErrorLogFrameworkService;
 import cn.iocoder.yudao.framework.apilog.core.service.ApiErrorLogFrameworkServiceImpl;
+import cn.iocoder.yudao.framework.apilog.core.service.BatchApiAccessLogFrameworkServiceImpl;
+import cn.iocoder.yudao.framework.apilog.core.service.BatchApiErrorLogFrameworkServiceImpl;
 import cn.iocoder.yudao.framework.common.enums.WebFilterOrderEnum;
 import cn.iocoder.yudao.framework.web.config.WebProperties;
 import cn.iocoder.yudao.framework.web.config.YudaoWebAutoConfiguration;
@@ -13,24 +15,48 @@ import cn.iocoder.yudao.module.infra.api.logger.ApiErrorLogApi;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 
 import javax.servlet.Filter;
 
 @AutoConfiguration(after = YudaoWebAutoConfiguration.class)
+@EnableConfigurationProperties(ApiLogProperties.class)
 public class YudaoApiLogAutoConfiguration {
 
     @Bean
+    @ConditionalOnProperty(prefix = "yudao.api-log", value = "batch-enable", havingValue = "false")
     public ApiAccessLogFrameworkService apiAccessLogFrameworkService(ApiAccessLogApi apiAccessLogApi) {
         return new ApiAccessLogFrameworkServiceImpl(apiAccessLogApi);
     }
 
     @Bean
+    @ConditionalOnProperty(prefix = "yudao.api-log", value = "batch-enable", havingValue = "false")
     public ApiErrorLogFrameworkService apiErrorLogFrameworkService(ApiErrorLogApi apiErrorLogApi) {
         return new ApiErrorLogFrameworkServiceImpl(apiErrorLogApi);
     }
 
+    /**
+     * 创建批量写入的 ApiAccessLogFrameworkService Bean，关闭时会写入队列中剩余的日志
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "yudao.api-log", value = "batch-enable", matchIfMissing = true) // 允许使用 yudao.api-log.batch-enable=false 回退为逐条异步写入
+    public BatchApiAccessLogFrameworkServiceImpl batchApiAccessLogFrameworkService(ApiAccessLogApi apiAccessLogApi,
+                                                                                  ApiLogProperties properties) {
+        return new BatchApiAccessLogFrameworkServiceImpl(apiAccessLogApi, properties.getBatch());
+    }
+
+    /**
+     * 创建批量写入的 ApiErrorLogFrameworkService Bean，关闭时会写入队列中剩余的日志
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "yudao.api-log", value = "batch-enable", matchIfMissing = true)
+    public BatchApiErrorLogFrameworkServiceImpl batchApiErrorLogFrameworkService(ApiErrorLogApi apiErrorLogApi,
+                                                                                ApiLogProperties properties) {
+        return new BatchApiErrorLogFrameworkServiceImpl(apiErrorLogApi, properties.getBatch());
+    }
+
     /**
      * 创建 ApiAccessLogFilter Bean，记录 API 请求日志
      */
@@ -80,6 +80,7 @@ public class ApiAccessLogFilter extends ApiRequestFilter {
         // 处理用户信息
         accessLog.setUserId(WebFrameworkUtils.getLoginUserId(request));
         accessLog.setUserType(WebFrameworkUtils.getLoginUserType(request));
+        accessLog.setTenantId(WebFrameworkUtils.getTenantId(request));
         // 设置访问结果
         CommonResult<?> result = WebFrameworkUtils.getCommonResult(request);
         if (result != null) {
@@ -0,0 +1,43 @@
+package cn.iocoder.yudao.framework.apilog.core.service;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.iocoder.yudao.framework.common.util.concurrent.AsyncBatchProperties;
+import cn.iocoder.yudao.framework.common.util.concurrent.AsyncBatchWriter;
+import cn.iocoder.yudao.module.infra.api.logger.ApiAccessLogApi;
+import cn.iocoder.yudao.module.infra.api.logger.dto.ApiAccessLogCreateReqDTO;
+
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
+/**
+ * API 访问日志 Framework Service 实现类，批量写入
+ *
+ * 请求线程只将 {@link ApiAccessLog} 放入 {@link AsyncBatchWriter} 的有界队列，
+ * 由后台线程转换后，基于 {@link ApiAccessLogApi#createApiAccessLogBatch(List)} 批量写入
+ *
+ * @author 芋道源码
+ */
+public class BatchApiAccessLogFrameworkServiceImpl implements ApiAccessLogFrameworkService, AutoCloseable {
+
+    private final AsyncBatchWriter<ApiAccessLog> writer;
+
+    public BatchApiAccessLogFrameworkServiceImpl(ApiAccessLogApi apiAccessLogApi, AsyncBatchProperties properties) {
+        this.writer = new AsyncBatchWriter<>("api-access-log", properties, apiAccessLogs -> {
+            List<ApiAccessLogCreateReqDTO> reqDTOs = convertList(apiAccessLogs,
+                    apiAccessLog -> BeanUtil.copyProperties(apiAccessLog, ApiAccessLogCreateReqDTO.class));
+            apiAccessLogApi.createApiAccessLogBatch(reqDTOs);
+        });
+    }
+
+    @Override
+    public void createApiAccessLog(ApiAccessLog apiAccessLog) {
+        writer.offer(apiAccessLog);
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+
+}
@@ -0,0 +1,43 @@
+package cn.iocoder.yudao.framework.apilog.core.service;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.iocoder.yudao.framework.common.util.concurrent.AsyncBatchProperties;
+import cn.iocoder.yudao.framework.common.util.concurrent.AsyncBatchWriter;
+import cn.iocoder.yudao.module.infra.api.logger.ApiErrorLogApi;
+import cn.iocoder.yudao.module.infra.api.logger.dto.ApiErrorLogCreateReqDTO;
+
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
+/**
+ * API 错误日志 Framework Service 实现类，批量写入
+ *
+ * 请求线程只将 {@link ApiErrorLog} 放入 {@link AsyncBatchWriter} 的有界队列，
+ * 由后台线程转换后，基于 {@link ApiErrorLogApi#createApiErrorLogBatch(List)} 批量写入
+ *
+ * @author 芋道源码
+ */
+public class BatchApiErrorLogFrameworkServiceImpl implements ApiErrorLogFrameworkService, AutoCloseable {
+
+    private final AsyncBatchWriter<ApiErrorLog> writer;
+
+    public BatchApiErrorLogFrameworkServiceImpl(ApiErrorLogApi apiErrorLogApi, AsyncBatchProperties properties) {
+        this.writer = new AsyncBatchWriter<>("api-error-log", properties, apiErrorLogs -> {
+            List<ApiErrorLogCreateReqDTO> reqDTOs = convertList(apiErrorLogs,
+                    apiErrorLog -> BeanUtil.copyProperties(apiErrorLog, ApiErrorLogCreateReqDTO.class));
+            apiErrorLogApi.createApiErrorLogBatch(reqDTOs);
+        });
+    }
+
+    @Override
+    public void createApiErrorLog(ApiErrorLog apiErrorLog) {
+        writer.offer(apiErrorLog);
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+
+}
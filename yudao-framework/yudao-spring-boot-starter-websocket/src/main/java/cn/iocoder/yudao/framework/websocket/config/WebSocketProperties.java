@@ -1,11 +1,14 @@
 package cn.iocoder.yudao.framework.websocket.config;
 
 import lombok.Data;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.time.Duration;
 
 /**
  * WebSocket 配置项
@@ -31,4 +34,39 @@ public class WebSocketProperties {
     @NotNull(message = "WebSocket 的消息发送者不能为空")
     private String senderType = "local";
 
+    /**
+     * 每个 Session 发送单条消息的时间限制，超过后关闭 Session
+     */
+    @NotNull(message = "WebSocket 的发送时间限制不能为空")
+    private Duration sendTimeLimit = Duration.ofSeconds(5);
+
+    /**
+     * 每个 Session 待发送消息的缓冲上限，单位：bytes
+     */
+    @NotNull(message = "WebSocket 的发送缓冲上限不能为空")
+    private Integer sendBufferSizeLimit = 1024 * 100;
+
+    /**
+     * 每个 Session 待发送消息超过缓冲上限时的策略
+     *
+     * TERMINATE：关闭 Session；DROP：丢弃最早的消息
+     */
+    @NotNull(message = "WebSocket 的发送溢出策略不能为空")
+    private ConcurrentWebSocketSessionDecorator.OverflowStrategy sendOverflowStrategy
+            = ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE;
+
+    /**
+     * 发送消息的线程数。同一个 Session 的消息，固定由同一个线程发送，保证顺序
+     */
+    @NotNull(message = "WebSocket 的发送线程数不能为空")
+    @Min(value = 1, message = "WebSocket 的发送线程数最小为 {value}")
+    private Integer sendThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 每个发送线程的队列容量，超过后丢弃消息
+     */
+    @NotNull(message = "WebSocket 的发送队列容量不能为空")
+    @Min(value = 1, message = "WebSocket 的发送队列容量最小为 {value}")
+    private Integer sendQueueCapacity = 10000;
+
 }
@@ -5,6 +5,7 @@ import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
 import cn.iocoder.yudao.framework.websocket.core.handler.JsonWebSocketMessageHandler;
 import cn.iocoder.yudao.framework.websocket.core.listener.WebSocketMessageListener;
 import cn.iocoder.yudao.framework.websocket.core.security.LoginUserHandshakeInterceptor;
+import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageDispatcher;
 import cn.iocoder.yudao.framework.websocket.core.sender.kafka.KafkaWebSocketMessageConsumer;
 import cn.iocoder.yudao.framework.websocket.core.sender.kafka.KafkaWebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.sender.local.LocalWebSocketMessageSender;
@@ -64,11 +65,12 @@ public class YudaoWebSocketAutoConfiguration {
 
     @Bean
     public WebSocketHandler webSocketHandler(WebSocketSessionManager sessionManager,
-                                             List<? extends WebSocketMessageListener<?>> messageListeners) {
+                                             List<? extends WebSocketMessageListener<?>> messageListeners,
+                                             WebSocketProperties webSocketProperties) {
         // 1. 创建 JsonWebSocketMessageHandler 对象，处理消息
         JsonWebSocketMessageHandler messageHandler = new JsonWebSocketMessageHandler(messageListeners);
         // 2. 创建 WebSocketSessionHandlerDecorator 对象，处理连接
-        return new WebSocketSessionHandlerDecorator(messageHandler, sessionManager);
+        return new WebSocketSessionHandlerDecorator(messageHandler, sessionManager, webSocketProperties);
     }
 
     @Bean
@@ -76,6 +78,11 @@ public class YudaoWebSocketAutoConfiguration {
         return new WebSocketSessionManagerImpl();
     }
 
+    @Bean
+    public WebSocketMessageDispatcher webSocketMessageDispatcher(WebSocketProperties webSocketProperties) {
+        return new WebSocketMessageDispatcher(webSocketProperties.getSendThreads(), webSocketProperties.getSendQueueCapacity());
+    }
+
     // ==================== Sender 相关 ====================
 
     @Configuration
@@ -83,8 +90,9 @@ public class YudaoWebSocketAutoConfiguration {
     public class LocalWebSocketMessageSenderConfiguration {
 
         @Bean
-        public LocalWebSocketMessageSender localWebSocketMessageSender(WebSocketSessionManager sessionManager) {
-            return new LocalWebSocketMessageSender(sessionManager);
+        public LocalWebSocketMessageSender localWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                                               WebSocketMessageDispatcher messageDispatcher) {
+            return new LocalWebSocketMessageSender(sessionManager, messageDispatcher);
         }
 
     }
@@ -95,8 +103,9 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public RedisWebSocketMessageSender redisWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                                                       WebSocketMessageDispatcher messageDispatcher,
                                                                        RedisMQTemplate redisMQTemplate) {
-            return new RedisWebSocketMessageSender(sessionManager, redisMQTemplate);
+            return new RedisWebSocketMessageSender(sessionManager, messageDispatcher, redisMQTemplate);
         }
 
         @Bean
@@ -113,9 +122,10 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public RocketMQWebSocketMessageSender rocketMQWebSocketMessageSender(
-                WebSocketSessionManager sessionManager, RocketMQTemplate rocketMQTemplate,
+                WebSocketSessionManager sessionManager, WebSocketMessageDispatcher messageDispatcher,
+                RocketMQTemplate rocketMQTemplate,
                 @Value("${yudao.websocket.sender-rocketmq.topic}") String topic) {
-            return new RocketMQWebSocketMessageSender(sessionManager, rocketMQTemplate, topic);
+            return new RocketMQWebSocketMessageSender(sessionManager, messageDispatcher, rocketMQTemplate, topic);
         }
 
         @Bean
@@ -132,9 +142,10 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public RabbitMQWebSocketMessageSender rabbitMQWebSocketMessageSender(
-                WebSocketSessionManager sessionManager, RabbitTemplate rabbitTemplate,
+                WebSocketSessionManager sessionManager, WebSocketMessageDispatcher messageDispatcher,
+                RabbitTemplate rabbitTemplate,
                 TopicExchange websocketTopicExchange) {
-            return new RabbitMQWebSocketMessageSender(sessionManager, rabbitTemplate, websocketTopicExchange);
+            return new RabbitMQWebSocketMessageSender(sessionManager, messageDispatcher, rabbitTemplate, websocketTopicExchange);
         }
 
         @Bean
@@ -161,9 +172,10 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public KafkaWebSocketMessageSender kafkaWebSocketMessageSender(
-                WebSocketSessionManager sessionManager, KafkaTemplate<Object, Object> kafkaTemplate,
+                WebSocketSessionManager sessionManager, WebSocketMessageDispatcher messageDispatcher,
+                KafkaTemplate<Object, Object> kafkaTemplate,
                 @Value("${yudao.websocket.sender-kafka.topic}") String topic) {
-            return new KafkaWebSocketMessageSender(sessionManager, kafkaTemplate, topic);
+            return new KafkaWebSocketMessageSender(sessionManager, messageDispatcher, kafkaTemplate, topic);
         }
 
         @Bean
@@ -10,7 +10,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -25,6 +24,7 @@ import java.util.List;
 public abstract class AbstractWebSocketMessageSender implements WebSocketMessageSender {
 
     private final WebSocketSessionManager sessionManager;
+    private final WebSocketMessageDispatcher messageDispatcher;
 
     @Override
     public void send(Integer userType, Long userId, String messageType, String messageContent) {
@@ -64,7 +64,7 @@ public abstract class AbstractWebSocketMessageSender implements WebSocketMessage
             sessions = (List<WebSocketSession>) sessionManager.getSessionList(userType);
         }
         if (CollUtil.isEmpty(sessions)) {
-            log.info("[send][sessionId({}) userType({}) userId({}) messageType({}) messageContent({}) 未匹配到会话]",
+            log.debug("[send][sessionId({}) userType({}) userId({}) messageType({}) messageContent({}) 未匹配到会话]",
                     sessionId, userType, userId, messageType, messageContent);
         }
         // 2. 执行发送
@@ -74,31 +74,20 @@ public abstract class AbstractWebSocketMessageSender implements WebSocketMessage
     /**
      * 发送消息的具体实现
      *
+     * 消息只序列化一次，所有 Session 共享同一个 {@link TextMessage}，并通过 {@link WebSocketMessageDispatcher} 异步发送
+     *
      * @param sessions Session 列表
      * @param messageType 消息类型
      * @param messageContent 消息内容
      */
     public void doSend(Collection<WebSocketSession> sessions, String messageType, String messageContent) {
+        if (CollUtil.isEmpty(sessions)) {
+            return;
+        }
         JsonWebSocketMessage message = new JsonWebSocketMessage().setType(messageType).setContent(messageContent);
-        String payload = JsonUtils.toJsonString(message); // 关键，使用 JSON 序列化
-        sessions.forEach(session -> {
-            // 1. 各种校验，保证 Session 可以被发送
-            if (session == null) {
-                log.error("[doSend][session 为空, message({})]", message);
-                return;
-            }
-            if (!session.isOpen()) {
-                log.error("[doSend][session({}) 已关闭, message({})]", session.getId(), message);
-                return;
-            }
-            // 2. 执行发送
-            try {
-                session.sendMessage(new TextMessage(payload));
-                log.info("[doSend][session({}) 发送消息成功，message({})]", session.getId(), message);
-            } catch (IOException ex) {
-                log.error("[doSend][session({}) 发送消息失败，message({})]", session.getId(), message, ex);
-            }
-        });
+        TextMessage textMessage = new TextMessage(JsonUtils.toJsonString(message)); // 关键，使用 JSON 序列化
+        messageDispatcher.dispatch(sessions, textMessage);
+        log.debug("[doSend][sessions({}) 分发消息成功，message({})]", sessions.size(), message);
     }
 
 }
@@ -0,0 +1,109 @@
+package cn.iocoder.yudao.framework.websocket.core.sender;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.*;
+
+/**
+ * WebSocket 消息的分发器，使用专属的线程池异步发送消息，避免阻塞调用方
+ *
+ * 1. 同一个 Session 的消息，固定由同一个线程发送，保证顺序
+ * 2. 每个线程的队列有界，队列满时丢弃消息；每个 Session 的发送缓冲，由 ConcurrentWebSocketSessionDecorator 限制，慢消费者会被关闭或丢弃消息
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class WebSocketMessageDispatcher implements AutoCloseable {
+
+    private final ThreadPoolExecutor[] executors;
+
+    private final Timer sendTimer;
+    private final Counter rejectedCounter;
+    private final Counter closedCounter;
+    private final Counter errorCounter;
+
+    public WebSocketMessageDispatcher(int threads, int queueCapacity) {
+        this.executors = new ThreadPoolExecutor[threads];
+        NamedThreadFactory threadFactory = new NamedThreadFactory("websocket-send-", true);
+        for (int i = 0; i < threads; i++) {
+            executors[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        }
+        // 监控指标
+        Gauge.builder("yudao.websocket.send.queue.size", this, WebSocketMessageDispatcher::getQueueSize)
+                .description("WebSocket 待发送消息的数量")
+                .register(Metrics.globalRegistry);
+        this.sendTimer = Timer.builder("yudao.websocket.send.latency")
+                .description("WebSocket 消息从分发到发送完成的耗时")
+                .register(Metrics.globalRegistry);
+        this.rejectedCounter = buildFailedCounter("rejected");
+        this.closedCounter = buildFailedCounter("closed");
+        this.errorCounter = buildFailedCounter("error");
+    }
+
+    private static Counter buildFailedCounter(String reason) {
+        return Counter.builder("yudao.websocket.send.failed")
+                .description("WebSocket 发送失败的消息数量")
+                .tag("reason", reason)
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 发送消息给多个 Session
+     *
+     * @param sessions Session 列表
+     * @param message 消息，已序列化，所有 Session 共享
+     */
+    public void dispatch(Collection<WebSocketSession> sessions, TextMessage message) {
+        long startTime = System.nanoTime();
+        sessions.forEach(session -> {
+            try {
+                getExecutor(session).execute(() -> send(session, message, startTime));
+            } catch (RejectedExecutionException ex) {
+                rejectedCounter.increment();
+                log.warn("[dispatch][session({}) 发送队列已满，丢弃消息]", session.getId());
+            }
+        });
+    }
+
+    private void send(WebSocketSession session, TextMessage message, long startTime) {
+        if (!session.isOpen()) {
+            closedCounter.increment();
+            log.debug("[send][session({}) 已关闭]", session.getId());
+            return;
+        }
+        try {
+            // 由于 Session 已被 ConcurrentWebSocketSessionDecorator 装饰，超过发送时间或缓冲上限时，会关闭 Session 或丢弃消息
+            session.sendMessage(message);
+            sendTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        } catch (Exception ex) {
+            errorCounter.increment();
+            log.error("[send][session({}) 发送消息失败]", session.getId(), ex);
+        }
+    }
+
+    private ThreadPoolExecutor getExecutor(WebSocketSession session) {
+        return executors[Math.floorMod(session.getId().hashCode(), executors.length)];
+    }
+
+    public int getQueueSize() {
+        return Arrays.stream(executors).mapToInt(executor -> executor.getQueue().size()).sum();
+    }
+
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor executor : executors) {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -8,7 +8,6 @@ import org.springframework.web.socket.WebSocketSession;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -37,6 +36,16 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
     private final ConcurrentMap<Integer, ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>>> userSessions
             = new ConcurrentHashMap<>();
 
+    /**
+     * tenant 与 WebSocketSession 映射，用于按照租户广播时，无需遍历所有用户的 Session
+     *
+     * key1：租户编号
+     * key2：用户类型
+     * key3：Session 编号
+     */
+    private final ConcurrentMap<Long, ConcurrentMap<Integer, ConcurrentMap<String, WebSocketSession>>> tenantSessions
+            = new ConcurrentHashMap<>();
+
     @Override
     public void addSession(WebSocketSession session) {
         // 添加到 idSessions 中
@@ -61,22 +70,32 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
             }
         }
         sessions.add(session);
+        // 添加到 tenantSessions 中
+        if (user.getTenantId() != null) {
+            tenantSessions.computeIfAbsent(user.getTenantId(), key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(user.getUserType(), key -> new ConcurrentHashMap<>())
+                    .put(session.getId(), session);
+        }
     }
 
     @Override
     public void removeSession(WebSocketSession session) {
         // 移除从 idSessions 中
         idSessions.remove(session.getId());
-        // 移除从 idSessions 中
+        // 移除从 userSessions 中
         LoginUser user = WebSocketFrameworkUtils.getLoginUser(session);
         if (user == null) {
             return;
         }
+        removeTenantSession(user, session);
         ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(user.getUserType());
         if (userSessionsMap == null) {
             return;
         }
         CopyOnWriteArrayList<WebSocketSession> sessions = userSessionsMap.get(user.getId());
+        if (sessions == null) {
+            return;
+        }
         sessions.removeIf(session0 -> session0.getId().equals(session.getId()));
         if (CollUtil.isEmpty(sessions)) {
             userSessionsMap.remove(user.getId(), sessions);
@@ -88,27 +107,42 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
         return idSessions.get(id);
     }
 
+    private void removeTenantSession(LoginUser user, WebSocketSession session) {
+        if (user.getTenantId() == null) {
+            return;
+        }
+        ConcurrentMap<Integer, ConcurrentMap<String, WebSocketSession>> userTypeSessionsMap = tenantSessions.get(user.getTenantId());
+        if (userTypeSessionsMap == null) {
+            return;
+        }
+        ConcurrentMap<String, WebSocketSession> sessions = userTypeSessionsMap.get(user.getUserType());
+        if (sessions == null) {
+            return;
+        }
+        // 注意：session 可能是 ConcurrentWebSocketSessionDecorator 装饰后的，所以按照编号移除
+        sessions.remove(session.getId());
+    }
+
     @Override
     public Collection<WebSocketSession> getSessionList(Integer userType) {
+        // 情况一：有租户上下文，直接从 tenantSessions 中获取
+        Long contextTenantId = TenantContextHolder.getTenantId();
+        if (contextTenantId != null) {
+            ConcurrentMap<Integer, ConcurrentMap<String, WebSocketSession>> userTypeSessionsMap = tenantSessions.get(contextTenantId);
+            if (CollUtil.isEmpty(userTypeSessionsMap)) {
+                return new ArrayList<>();
+            }
+            ConcurrentMap<String, WebSocketSession> sessions = userTypeSessionsMap.get(userType);
+            return CollUtil.isNotEmpty(sessions) ? new ArrayList<>(sessions.values()) : new ArrayList<>();
+        }
+
+        // 情况二：无租户上下文，返回所有用户的 Session
         ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(userType);
         if (CollUtil.isEmpty(userSessionsMap)) {
             return new ArrayList<>();
         }
-        LinkedList<WebSocketSession> result = new LinkedList<>(); // 避免扩容
-        Long contextTenantId = TenantContextHolder.getTenantId();
-        for (List<WebSocketSession> sessions : userSessionsMap.values()) {
-            if (CollUtil.isEmpty(sessions)) {
-                continue;
-            }
-            // 特殊：如果租户不匹配，则直接排除
-            if (contextTenantId != null) {
-                Long userTenantId = WebSocketFrameworkUtils.getTenantId(sessions.get(0));
-                if (!contextTenantId.equals(userTenantId)) {
-                    continue;
-                }
-            }
-            result.addAll(sessions);
-        }
+        List<WebSocketSession> result = new ArrayList<>(userSessionsMap.size());
+        userSessionsMap.values().forEach(result::addAll);
         return result;
     }
 
@@ -0,0 +1,161 @@
+package cn.iocoder.yudao.framework.websocket.core.sender;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link WebSocketMessageDispatcher} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class WebSocketMessageDispatcherTest {
+
+    private WebSocketMessageDispatcher dispatcher;
+
+    @AfterEach
+    public void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    public void testDispatch_order() throws Exception {
+        // mock 数据：多个 Session，记录各自收到的消息
+        dispatcher = new WebSocketMessageDispatcher(4, 1000);
+        int sessionCount = 8;
+        int messageCount = 200;
+        Map<String, List<String>> received = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(sessionCount * messageCount);
+        List<WebSocketSession> sessions = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            String id = String.valueOf(i);
+            List<String> payloads = new CopyOnWriteArrayList<>();
+            received.put(id, payloads);
+            sessions.add(mockSession(id, true, message -> {
+                payloads.add(message.getPayload());
+                latch.countDown();
+            }));
+        }
+
+        // 调用
+        for (int i = 0; i < messageCount; i++) {
+            dispatcher.dispatch(sessions, new TextMessage(String.valueOf(i)));
+        }
+        // 断言：每个 Session 按照分发的顺序收到消息
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        received.forEach((id, payloads) -> {
+            assertEquals(messageCount, payloads.size());
+            for (int i = 0; i < messageCount; i++) {
+                assertEquals(String.valueOf(i), payloads.get(i));
+            }
+        });
+    }
+
+    @Test
+    public void testDispatch_queueFull() throws Exception {
+        // mock 数据：第一条消息发送时阻塞，占住唯一的发送线程
+        dispatcher = new WebSocketMessageDispatcher(1, 1);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch releaseLatch = new CountDownLatch(1);
+        WebSocketSession session = mockSession("1", true, message -> {
+            startLatch.countDown();
+            awaitQuietly(releaseLatch);
+        });
+        TextMessage message1 = new TextMessage("1");
+        TextMessage message2 = new TextMessage("2");
+        TextMessage message3 = new TextMessage("3");
+
+        // 调用：第一条发送中，第二条进入队列，第三条因为队列已满被丢弃
+        dispatcher.dispatch(Collections.singletonList(session), message1);
+        assertTrue(startLatch.await(5, TimeUnit.SECONDS));
+        dispatcher.dispatch(Collections.singletonList(session), message2);
+        dispatcher.dispatch(Collections.singletonList(session), message3);
+        // 断言
+        assertEquals(1, dispatcher.getQueueSize());
+
+        // 调用：恢复发送
+        releaseLatch.countDown();
+        // 断言：只发送了前两条消息
+        ArgumentCaptor<TextMessage> messageCaptor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, after(200).times(2)).sendMessage(messageCaptor.capture());
+        assertEquals(asList(message1, message2), messageCaptor.getAllValues());
+    }
+
+    @Test
+    public void testDispatch_sessionClosed() throws Exception {
+        // mock 数据：单个发送线程，按照分发顺序处理
+        dispatcher = new WebSocketMessageDispatcher(1, 100);
+        WebSocketSession closedSession = mockSession("1", false, message -> {});
+        WebSocketSession openSession = mockSession("2", true, message -> {});
+        TextMessage message = new TextMessage("hello");
+
+        // 调用
+        dispatcher.dispatch(asList(closedSession, openSession), message);
+        // 断言：跳过已关闭的 Session
+        verify(openSession, timeout(5000)).sendMessage(same(message));
+        verify(closedSession, never()).sendMessage(any());
+    }
+
+    @Test
+    public void testDispatch_sendError() throws Exception {
+        // mock 数据：第一条消息发送失败
+        dispatcher = new WebSocketMessageDispatcher(1, 100);
+        WebSocketSession session = mockSession("1", true, message -> {});
+        TextMessage message1 = new TextMessage("1");
+        TextMessage message2 = new TextMessage("2");
+        doThrow(new IOException("broken pipe")).when(session).sendMessage(same(message1));
+
+        // 调用
+        dispatcher.dispatch(Collections.singletonList(session), message1);
+        dispatcher.dispatch(Collections.singletonList(session), message2);
+        // 断言：发送失败不影响后续消息
+        verify(session, timeout(5000)).sendMessage(same(message2));
+    }
+
+    private static WebSocketSession mockSession(String id, boolean open, MessageHandler handler) throws IOException {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(open);
+        doAnswer(invocation -> {
+            handler.handle(invocation.getArgument(0));
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface MessageHandler {
+
+        void handle(TextMessage message);
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package cn.iocoder.yudao.framework.websocket.core.session;
+
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.websocket.core.util.WebSocketFrameworkUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link WebSocketSessionManagerImpl} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class WebSocketSessionManagerImplTest {
+
+    private final WebSocketSessionManagerImpl sessionManager = new WebSocketSessionManagerImpl();
+
+    @AfterEach
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testGetSessionList_tenant() {
+        // mock 数据
+        WebSocketSession session1 = mockSession("1", 1L, UserTypeEnum.ADMIN.getValue(), 1L);
+        WebSocketSession session2 = mockSession("2", 2L, UserTypeEnum.ADMIN.getValue(), 1L);
+        WebSocketSession session3 = mockSession("3", 3L, UserTypeEnum.ADMIN.getValue(), 2L); // 其它租户
+        WebSocketSession session4 = mockSession("4", 4L, UserTypeEnum.MEMBER.getValue(), 1L); // 其它用户类型
+        asList(session1, session2, session3, session4).forEach(sessionManager::addSession);
+
+        // 调用，并断言：有租户上下文，只返回该租户的 Session
+        TenantContextHolder.setTenantId(1L);
+        assertSessions(sessionManager.getSessionList(UserTypeEnum.ADMIN.getValue()), session1, session2);
+        assertSessions(sessionManager.getSessionList(UserTypeEnum.MEMBER.getValue()), session4);
+        TenantContextHolder.setTenantId(3L);
+        assertSessions(sessionManager.getSessionList(UserTypeEnum.ADMIN.getValue()));
+        // 调用，并断言：无租户上下文，返回所有租户的 Session
+        TenantContextHolder.clear();
+        assertSessions(sessionManager.getSessionList(UserTypeEnum.ADMIN.getValue()), session1, session2, session3);
+    }
+
+    @Test
+    public void testGetSessionList_afterRemove() {
+        // mock 数据
+        WebSocketSession session1 = mockSession("1", 1L, UserTypeEnum.ADMIN.getValue(), 1L);
+        WebSocketSession session2 = mockSession("2", 1L, UserTypeEnum.ADMIN.getValue(), 1L); // 同一用户的多个连接
+        asList(session1, session2).forEach(sessionManager::addSession);
+
+        // 调用：移除装饰后的 Session，按照编号移除
+        sessionManager.removeSession(new ConcurrentWebSocketSessionDecorator(session1, 1000, 1024));
+        // 断言
+        assertNull(sessionManager.getSession("1"));
+        assertSessions(sessionManager.getSessionList(UserTypeEnum.ADMIN.getValue(), 1L), session2);
+        TenantContextHolder.setTenantId(1L);
+        assertSessions(sessionManager.getSessionList(UserTypeEnum.ADMIN.getValue()), session2);
+
+        // 调用：移除最后一个 Session
+        sessionManager.removeSession(session2);
+        // 断言
+        assertSessions(sessionManager.getSessionList(UserTypeEnum.ADMIN.getValue()));
+        assertSessions(sessionManager.getSessionList(UserTypeEnum.ADMIN.getValue(), 1L));
+
+        // 调用：重新连接
+        sessionManager.addSession(session1);
+        // 断言
+        assertSame(session1, sessionManager.getSession("1"));
+        assertSessions(sessionManager.getSessionList(UserTypeEnum.ADMIN.getValue()), session1);
+    }
+
+    @Test
+    public void testAddSession_noLoginUser() {
+        // mock 数据
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("1");
+        when(session.getAttributes()).thenReturn(new HashMap<>());
+
+        // 调用
+        sessionManager.addSession(session);
+        // 断言：未登录的 Session，只能按照编号获取
+        assertSame(session, sessionManager.getSession("1"));
+        assertSessions(sessionManager.getSessionList(UserTypeEnum.ADMIN.getValue()));
+    }
+
+    private static WebSocketSession mockSession(String id, Long userId, Integer userType, Long tenantId) {
+        Map<String, Object> attributes = new HashMap<>();
+        WebSocketFrameworkUtils.setLoginUser(new LoginUser().setId(userId).setUserType(userType)
+                .setTenantId(tenantId), attributes);
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.getAttributes()).thenReturn(attributes);
+        return session;
+    }
+
+    private static void assertSessions(Collection<WebSocketSession> actual, WebSocketSession... expected) {
+        assertEquals(expected.length, actual.size());
+        assertTrue(actual.containsAll(asList(expected)));
+    }
+
+}
@@ -32,7 +32,9 @@ import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -43,6 +45,7 @@ import static cn.iocoder.yudao.framework.common.pojo.PageParam.PAGE_SIZE_NONE;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
 import static cn.iocoder.yudao.framework.operatelog.core.enums.OperateTypeEnum.EXPORT;
 import static cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils.getLoginUserId;
+import static cn.iocoder.yudao.module.crm.enums.ErrorCodeConstants.CUSTOMER_IMPORT_LIST_IS_EMPTY;
 import static cn.iocoder.yudao.module.crm.enums.ErrorCodeConstants.CUSTOMER_POOL_CONFIG_NOT_EXISTS_OR_DISABLED;
 
 @Tag(name = "管理后台 - CRM 客户")
@@ -193,11 +196,11 @@ public class CrmCustomerController {
     @OperateLog(type = EXPORT)
     public void exportCustomerExcel(@Valid CrmCustomerPageReqVO pageVO,
                                     HttpServletResponse response) throws IOException {
-        pageVO.setPageSize(PAGE_SIZE_NONE); // 不分页
-        List<CrmCustomerDO> list = customerService.getCustomerPage(pageVO, getLoginUserId()).getList();
-        // 导出 Excel
+        Long userId = getLoginUserId();
+        // 导出 Excel：分页查询并流式写入，避免一次性加载全部客户
         ExcelUtils.write(response, "客户.xls", "数据", CrmCustomerRespVO.class,
-                BeanUtils.toBean(list, CrmCustomerRespVO.class));
+                writer -> writer.writePages((maxId, limit) -> customerService.getCustomerList(pageVO, userId, maxId, limit),
+                        CrmCustomerDO::getId, list -> BeanUtils.toBean(list, CrmCustomerRespVO.class)));
     }
 
     @GetMapping("/get-import-template")
@@ -221,8 +224,15 @@ public class CrmCustomerController {
     @PreAuthorize("@ss.hasPermission('system:customer:import')")
     public CommonResult<CrmCustomerImportRespVO> importExcel(@Valid @RequestBody CrmCustomerImportReqVO importReqVO)
             throws Exception {
-        List<CrmCustomerImportExcelVO> list = ExcelUtils.read(importReqVO.getFile(), CrmCustomerImportExcelVO.class);
-        return success(customerService.importCustomerList(list, importReqVO));
+        // 分批读取 Excel，逐批校验、写入
+        CrmCustomerImportRespVO respVO = CrmCustomerImportRespVO.builder().createCustomerNames(new ArrayList<>())
+                .updateCustomerNames(new ArrayList<>()).failureCustomerNames(new LinkedHashMap<>()).build();
+        long count = ExcelUtils.read(importReqVO.getFile(), CrmCustomerImportExcelVO.class,
+                list -> customerService.importCustomerList(list, importReqVO, respVO));
+        if (count == 0) {
+            throw exception(CUSTOMER_IMPORT_LIST_IS_EMPTY);
+        }
+        return success(respVO);
     }
 
     @PutMapping("/transfer")
@@ -47,6 +47,25 @@ public interface CrmCustomerMapper extends BaseMapperX<CrmCustomerDO> {
     }
 
     default PageResult<CrmCustomerDO> selectPage(CrmCustomerPageReqVO pageReqVO, Long userId) {
+        return selectJoinPage(pageReqVO, CrmCustomerDO.class, buildPageWrapper(pageReqVO, userId));
+    }
+
+    default List<CrmCustomerDO> selectListByIdLt(CrmCustomerPageReqVO pageReqVO, Long userId, Long maxId, Integer limit) {
+        MPJLambdaWrapperX<CrmCustomerDO> query = buildPageWrapper(pageReqVO, userId)
+                .ltIfPresent(CrmCustomerDO::getId, maxId)
+                .orderByDesc(CrmCustomerDO::getId)
+                .limitN(limit);
+        return selectJoinList(CrmCustomerDO.class, query);
+    }
+
+    /**
+     * 构建客户分页的 MPJLambdaWrapper，包括数据权限、自身的查询条件
+     *
+     * @param pageReqVO 分页查询参数
+     * @param userId 当前用户编号
+     * @return MPJLambdaWrapper
+     */
+    static MPJLambdaWrapperX<CrmCustomerDO> buildPageWrapper(CrmCustomerPageReqVO pageReqVO, Long userId) {
         MPJLambdaWrapperX<CrmCustomerDO> query = new MPJLambdaWrapperX<>();
         // 拼接数据权限的查询条件
         CrmQueryWrapperUtils.appendPermissionCondition(query, CrmBizTypeEnum.CRM_CUSTOMER.getType(),
@@ -58,7 +77,7 @@ public interface CrmCustomerMapper extends BaseMapperX<CrmCustomerDO> {
                 .eqIfPresent(CrmCustomerDO::getIndustryId, pageReqVO.getIndustryId())
                 .eqIfPresent(CrmCustomerDO::getLevel, pageReqVO.getLevel())
                 .eqIfPresent(CrmCustomerDO::getSource, pageReqVO.getSource());
-        return selectJoinPage(pageReqVO, CrmCustomerDO.class, query);
+        return query;
     }
 
     default List<CrmCustomerDO> selectBatchIds(Collection<Long> ids, Long userId) {
@@ -111,6 +130,10 @@ public interface CrmCustomerMapper extends BaseMapperX<CrmCustomerDO> {
         return selectOne(CrmCustomerDO::getName, name);
     }
 
+    default List<CrmCustomerDO> selectListByCustomerNames(Collection<String> names) {
+        return selectList(CrmCustomerDO::getName, names);
+    }
+
     default PageResult<CrmCustomerDO> selectPutInPoolRemindCustomerPage(CrmCustomerPageReqVO pageReqVO,
                                                                         CrmCustomerPoolConfigDO poolConfigDO,
                                                                         Long userId) {
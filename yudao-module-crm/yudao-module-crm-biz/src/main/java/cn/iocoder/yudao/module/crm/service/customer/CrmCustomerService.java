@@ -67,6 +67,17 @@ public interface CrmCustomerService {
      */
     PageResult<CrmCustomerDO> getCustomerPage(CrmCustomerPageReqVO pageReqVO, Long userId);
 
+    /**
+     * 获得客户列表，基于编号游标分页，用于导出
+     *
+     * @param pageReqVO 查询条件，忽略其中的分页参数
+     * @param userId    用户编号
+     * @param maxId     上一页最后一条的编号，即只查询编号小于它的客户；为空时，从第一条开始
+     * @param limit     数量
+     * @return 客户列表，按编号倒序
+     */
+    List<CrmCustomerDO> getCustomerList(CrmCustomerPageReqVO pageReqVO, Long userId, Long maxId, Integer limit);
+
     /**
      * 校验客户是否存在
      *
@@ -115,6 +126,18 @@ public interface CrmCustomerService {
      */
     CrmCustomerImportRespVO importCustomerList(List<CrmCustomerImportExcelVO> importCustomers, CrmCustomerImportReqVO importReqVO);
 
+    /**
+     * 批量导入一批客户，结果累加到 respVO 中
+     *
+     * 一般由 Excel 分批读取时调用，每批的校验、写入都是批量操作
+     *
+     * @param importCustomers 一批导入客户
+     * @param importReqVO     请求
+     * @param respVO          导入结果
+     */
+    void importCustomerList(List<CrmCustomerImportExcelVO> importCustomers, CrmCustomerImportReqVO importReqVO,
+                            CrmCustomerImportRespVO respVO);
+
     // ==================== 公海相关操作 ====================
 
     /**
@@ -43,7 +43,7 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
 import static cn.iocoder.yudao.module.crm.enums.ErrorCodeConstants.*;
 import static cn.iocoder.yudao.module.crm.enums.LogRecordConstants.*;
 import static cn.iocoder.yudao.module.crm.enums.customer.CrmCustomerLimitConfigTypeEnum.CUSTOMER_LOCK_LIMIT;
@@ -60,6 +60,11 @@ import static java.util.Collections.singletonList;
 @Validated
 public class CrmCustomerServiceImpl implements CrmCustomerService {
 
+    /**
+     * 导入客户时，每批的数量
+     */
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
     @Resource
     private CrmCustomerMapper customerMapper;
 
@@ -250,47 +255,71 @@ public class CrmCustomerServiceImpl implements CrmCustomerService {
         }
         CrmCustomerImportRespVO respVO = CrmCustomerImportRespVO.builder().createCustomerNames(new ArrayList<>())
                 .updateCustomerNames(new ArrayList<>()).failureCustomerNames(new LinkedHashMap<>()).build();
+        CollUtil.split(importCustomers, IMPORT_BATCH_SIZE).forEach(list -> getSelf().importCustomerList(list, importReqVO, respVO));
+        return respVO;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void importCustomerList(List<CrmCustomerImportExcelVO> importCustomers, CrmCustomerImportReqVO importReqVO,
+                                   CrmCustomerImportRespVO respVO) {
+        // 1. 批量查询已存在的客户
+        Map<String, CrmCustomerDO> existCustomerMap = convertMap(customerMapper.selectListByCustomerNames(
+                convertSet(importCustomers, CrmCustomerImportExcelVO::getName, customer -> StrUtil.isNotEmpty(customer.getName()))),
+                CrmCustomerDO::getName);
+
+        // 2. 逐个校验
+        List<CrmCustomerDO> createCustomers = new ArrayList<>();
+        List<CrmCustomerDO> updateCustomers = new ArrayList<>();
+        Set<String> importNames = new HashSet<>();
+        Map<String, String> failureCustomerNames = new LinkedHashMap<>();
         importCustomers.forEach(importCustomer -> {
             // 校验，判断是否有不符合的原因
             // TODO @puhui999：可以用 ValidationUtils 做参数校验；可能要封装一个方法，返回 message；这样的话，就可以在 CrmCustomerImportExcelVO 写需要校验的参数啦；
             try {
                 validateCustomerForCreate(importCustomer);
             } catch (ServiceException ex) {
-                respVO.getFailureCustomerNames().put(importCustomer.getName(), ex.getMessage());
+                failureCustomerNames.put(importCustomer.getName(), ex.getMessage());
                 return;
             }
-            // 情况一：判断如果不存在，在进行插入
-            CrmCustomerDO existCustomer = customerMapper.selectByCustomerName(importCustomer.getName());
-            if (existCustomer == null) {
-                // 1.1 插入客户信息
-                CrmCustomerDO customer = initCustomer(importCustomer, importReqVO.getOwnerUserId());
-                customerMapper.insert(customer);
-                respVO.getCreateCustomerNames().add(importCustomer.getName());
-                // 1.2 创建数据权限
-                if (importReqVO.getOwnerUserId() != null) {
-                    permissionService.createPermission(new CrmPermissionCreateReqBO().setBizType(CrmBizTypeEnum.CRM_CUSTOMER.getType())
-                            .setBizId(customer.getId()).setUserId(importReqVO.getOwnerUserId()).setLevel(CrmPermissionLevelEnum.OWNER.getLevel()));
-                }
-                // 1.3 记录操作日志
-                getSelf().importCustomerLog(customer, false);
+            // 情况一：判断如果不存在，在进行插入。同一批内的客户名称重复时，视为已存在
+            CrmCustomerDO existCustomer = existCustomerMap.get(importCustomer.getName());
+            boolean duplicated = !importNames.add(importCustomer.getName());
+            if (existCustomer == null && !duplicated) {
+                createCustomers.add(initCustomer(importCustomer, importReqVO.getOwnerUserId()));
                 return;
             }
 
             // 情况二：如果存在，判断是否允许更新
-            if (!importReqVO.getUpdateSupport()) {
-                respVO.getFailureCustomerNames().put(importCustomer.getName(),
+            if (existCustomer == null || !importReqVO.getUpdateSupport()) {
+                failureCustomerNames.put(importCustomer.getName(),
                         StrUtil.format(CUSTOMER_NAME_EXISTS.getMsg(), importCustomer.getName()));
                 return;
             }
-            // 2.1 更新客户信息
-            CrmCustomerDO updateCustomer = BeanUtils.toBean(importCustomer, CrmCustomerDO.class)
-                    .setId(existCustomer.getId());
-            customerMapper.updateById(updateCustomer);
-            respVO.getUpdateCustomerNames().add(importCustomer.getName());
-            // 2.2 记录操作日志
-            getSelf().importCustomerLog(updateCustomer, true);
+            updateCustomers.add(BeanUtils.toBean(importCustomer, CrmCustomerDO.class).setId(existCustomer.getId()));
         });
-        return respVO;
+
+        // 3.1 批量插入客户信息，并创建数据权限
+        if (CollUtil.isNotEmpty(createCustomers)) {
+            customerMapper.insertBatch(createCustomers);
+            if (importReqVO.getOwnerUserId() != null) {
+                permissionService.createPermissionBatch(convertList(createCustomers, customer -> new CrmPermissionCreateReqBO()
+                        .setBizType(CrmBizTypeEnum.CRM_CUSTOMER.getType()).setBizId(customer.getId())
+                        .setUserId(importReqVO.getOwnerUserId()).setLevel(CrmPermissionLevelEnum.OWNER.getLevel())));
+            }
+        }
+        // 3.2 批量更新客户信息
+        if (CollUtil.isNotEmpty(updateCustomers)) {
+            customerMapper.updateBatch(updateCustomers);
+        }
+        // 3.3 记录操作日志
+        createCustomers.forEach(customer -> getSelf().importCustomerLog(customer, false));
+        updateCustomers.forEach(customer -> getSelf().importCustomerLog(customer, true));
+
+        // 4. 记录结果
+        respVO.getCreateCustomerNames().addAll(convertList(createCustomers, CrmCustomerDO::getName));
+        respVO.getUpdateCustomerNames().addAll(convertList(updateCustomers, CrmCustomerDO::getName));
+        respVO.getFailureCustomerNames().putAll(failureCustomerNames);
     }
 
     /**
@@ -466,6 +495,11 @@ public class CrmCustomerServiceImpl implements CrmCustomerService {
         return customerMapper.selectPage(pageReqVO, userId);
     }
 
+    @Override
+    public List<CrmCustomerDO> getCustomerList(CrmCustomerPageReqVO pageReqVO, Long userId, Long maxId, Integer limit) {
+        return customerMapper.selectListByIdLt(pageReqVO, userId, maxId, limit);
+    }
+
     public PageResult<CrmCustomerDO> getPutInPoolRemindCustomerPage(CrmCustomerPageReqVO pageReqVO,
                                                                     CrmCustomerPoolConfigDO poolConfigDO,
                                                                     Long userId) {
@@ -30,6 +30,15 @@ public interface ErpStockMapper extends BaseMapperX<ErpStockDO> {
                 .orderByDesc(ErpStockDO::getId));
     }
 
+    default List<ErpStockDO> selectListByIdLt(ErpStockPageReqVO reqVO, Long maxId, Integer limit) {
+        return selectList(new LambdaQueryWrapperX<ErpStockDO>()
+                .eqIfPresent(ErpStockDO::getProductId, reqVO.getProductId())
+                .eqIfPresent(ErpStockDO::getWarehouseId, reqVO.getWarehouseId())
+                .ltIfPresent(ErpStockDO::getId, maxId)
+                .orderByDesc(ErpStockDO::getId)
+                .limitN(limit));
+    }
+
     default ErpStockDO selectByProductIdAndWarehouseId(Long productId, Long warehouseId) {
         return selectOne(ErpStockDO::getProductId, productId,
                 ErpStockDO::getWarehouseId, warehouseId);
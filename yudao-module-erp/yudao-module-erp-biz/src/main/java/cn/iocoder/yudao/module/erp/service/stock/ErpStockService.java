@@ -5,6 +5,7 @@ import cn.iocoder.yudao.module.erp.controller.admin.stock.vo.stock.ErpStockPageR
 import cn.iocoder.yudao.module.erp.dal.dataobject.stock.ErpStockDO;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * ERP 产品库存 Service 接口
@@ -48,6 +49,16 @@ public interface ErpStockService {
      */
     PageResult<ErpStockDO> getStockPage(ErpStockPageReqVO pageReqVO);
 
+    /**
+     * 获得产品库存列表，基于编号游标分页，用于导出
+     *
+     * @param pageReqVO 查询条件，忽略其中的分页参数
+     * @param maxId 上一页最后一条的编号，即只查询编号小于它的库存；为空时，从第一条开始
+     * @param limit 数量
+     * @return 库存列表，按编号倒序
+     */
+    List<ErpStockDO> getStockList(ErpStockPageReqVO pageReqVO, Long maxId, Integer limit);
+
     /**
      * 增量更新产品库存数量
      *
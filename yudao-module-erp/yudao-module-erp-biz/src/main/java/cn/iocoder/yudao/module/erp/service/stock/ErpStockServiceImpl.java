@@ -10,6 +10,7 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.math.BigDecimal;
+import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.erp.enums.ErrorCodeConstants.STOCK_COUNT_NEGATIVE;
@@ -60,6 +61,11 @@ public class ErpStockServiceImpl implements ErpStockService {
         return stockMapper.selectPage(pageReqVO);
     }
 
+    @Override
+    public List<ErpStockDO> getStockList(ErpStockPageReqVO pageReqVO, Long maxId, Integer limit) {
+        return stockMapper.selectListByIdLt(pageReqVO, maxId, limit);
+    }
+
     @Override
     public BigDecimal updateStockCountIncrement(Long productId, Long warehouseId, BigDecimal count) {
         // 1.1 查询当前库存
@@ -3,6 +3,7 @@ package cn.iocoder.yudao.module.infra.api.logger;
 import cn.iocoder.yudao.module.infra.api.logger.dto.ApiAccessLogCreateReqDTO;
 
 import javax.validation.Valid;
+import java.util.List;
 
 /**
  * API 访问日志的 API 接口
@@ -18,4 +19,11 @@ public interface ApiAccessLogApi {
      */
     void createApiAccessLog(@Valid ApiAccessLogCreateReqDTO createDTO);
 
+    /**
+     * 批量创建 API 访问日志
+     *
+     * @param createDTOs 创建信息列表
+     */
+    void createApiAccessLogBatch(@Valid List<ApiAccessLogCreateReqDTO> createDTOs);
+
 }
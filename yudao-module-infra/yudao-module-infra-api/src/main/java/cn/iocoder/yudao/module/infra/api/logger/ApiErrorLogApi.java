@@ -3,6 +3,7 @@ package cn.iocoder.yudao.module.infra.api.logger;
 import cn.iocoder.yudao.module.infra.api.logger.dto.ApiErrorLogCreateReqDTO;
 
 import javax.validation.Valid;
+import java.util.List;
 
 /**
  * API 错误日志的 API 接口
@@ -18,4 +19,11 @@ public interface ApiErrorLogApi {
      */
     void createApiErrorLog(@Valid ApiErrorLogCreateReqDTO createDTO);
 
+    /**
+     * 批量创建 API 错误日志
+     *
+     * @param createDTOs 创建信息列表
+     */
+    void createApiErrorLogBatch(@Valid List<ApiErrorLogCreateReqDTO> createDTOs);
+
 }
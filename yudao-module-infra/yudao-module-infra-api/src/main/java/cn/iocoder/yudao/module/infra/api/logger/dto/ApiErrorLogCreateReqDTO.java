@@ -17,6 +17,12 @@ public class ApiErrorLogCreateReqDTO {
      * 链路编号
      */
     private String traceId;
+    /**
+     * 租户编号
+     *
+     * 批量写入时，按照它切换租户上下文
+     */
+    private Long tenantId;
     /**
      * 账号编号
      */
@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.util.List;
 
 /**
  * API 访问日志的 API 实现类
@@ -24,4 +25,9 @@ public class ApiAccessLogApiImpl implements ApiAccessLogApi {
         apiAccessLogService.createApiAccessLog(createDTO);
     }
 
+    @Override
+    public void createApiAccessLogBatch(List<ApiAccessLogCreateReqDTO> createDTOs) {
+        apiAccessLogService.createApiAccessLogBatch(createDTOs);
+    }
+
 }
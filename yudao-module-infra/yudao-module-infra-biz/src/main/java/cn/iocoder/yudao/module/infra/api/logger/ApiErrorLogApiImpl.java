@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.util.List;
 
 /**
  * API 访问日志的 API 接口
@@ -24,4 +25,9 @@ public class ApiErrorLogApiImpl implements ApiErrorLogApi {
         apiErrorLogService.createApiErrorLog(createDTO);
     }
 
+    @Override
+    public void createApiErrorLogBatch(List<ApiErrorLogCreateReqDTO> createDTOs) {
+        apiErrorLogService.createApiErrorLogBatch(createDTOs);
+    }
+
 }
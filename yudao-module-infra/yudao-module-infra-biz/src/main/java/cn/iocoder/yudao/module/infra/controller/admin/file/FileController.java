@@ -6,7 +6,7 @@ import cn.hutool.core.util.URLUtil;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
-import cn.iocoder.yudao.framework.common.util.servlet.ServletUtils;
+import cn.iocoder.yudao.framework.file.core.client.FileContentReader;
 import cn.iocoder.yudao.framework.operatelog.core.annotations.OperateLog;
 import cn.iocoder.yudao.module.infra.controller.admin.file.vo.file.*;
 import cn.iocoder.yudao.module.infra.dal.dataobject.file.FileDO;
@@ -15,10 +15,14 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.Resource;
@@ -26,6 +30,9 @@ import javax.annotation.security.PermitAll;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 
@@ -84,14 +91,91 @@ public class FileController {
         // 解码，解决中文路径的问题 https://gitee.com/zhijiantianya/ruoyi-vue-pro/pulls/807/
         path = URLUtil.decode(path);
 
-        // 读取内容
-        byte[] content = fileService.getFileContent(configId, path);
-        if (content == null) {
+        // 读取内容：流式输出，避免大文件完整加载到内存
+        FileContentReader reader = fileService.getFileContentReader(configId, path);
+        if (reader == null) {
             log.warn("[getFileContent][configId({}) path({}) 文件不存在]", configId, path);
             response.setStatus(HttpStatus.NOT_FOUND.value());
             return;
         }
-        ServletUtils.writeAttachment(response, path, content);
+        writeFileContent(request, response, path, reader);
+    }
+
+    /**
+     * 流式输出文件内容，支持 HTTP Range 断点续传、条件请求（304 Not Modified）
+     *
+     * @param request 请求
+     * @param response 响应
+     * @param path 文件路径
+     * @param reader 文件内容的读取器
+     */
+    private static void writeFileContent(HttpServletRequest request, HttpServletResponse response,
+                                         String path, FileContentReader reader) throws Exception {
+        long length = reader.getLength();
+        Long lastModified = reader.getLastModified();
+        String etag = lastModified != null ? StrUtil.format("\"{}-{}\"", Long.toHexString(length), Long.toHexString(lastModified)) : null;
+        // 1. 条件请求：文件未变化时，直接返回 304
+        if (etag != null && new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        // 2. 解析 Range 请求头。只支持单个范围，多个范围时返回整个文件
+        long start = 0;
+        long end = length - 1;
+        boolean partial = false;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (StrUtil.isNotEmpty(rangeHeader) && length > 0 && isIfRangeMatched(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException ex) {
+                ranges = Collections.emptyList();
+            }
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    partial = true;
+                } catch (IllegalArgumentException ex) { // 范围超出文件长度
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+            }
+        }
+
+        // 3. 设置 header 和 contentType
+        response.setHeader("Content-Disposition", "attachment;filename=" + URLEncoder.encode(path, "UTF-8"));
+        response.setContentType(StrUtil.blankToDefault(reader.getContentType(), MediaType.APPLICATION_OCTET_STREAM_VALUE));
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentLengthLong(end - start + 1);
+        if (partial) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, StrUtil.format("bytes {}-{}/{}", start, end, length));
+        }
+
+        // 4. 输出内容
+        if (length > 0) {
+            reader.transferTo(start, end, response.getOutputStream());
+        }
+    }
+
+    /**
+     * 判断 If-Range 请求头是否匹配。不匹配时，说明文件已变化，需要返回整个文件
+     */
+    private static boolean isIfRangeMatched(HttpServletRequest request, String etag, Long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (StrUtil.isEmpty(ifRange)) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return lastModified != null && request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
     }
 
     @GetMapping("/page")
@@ -1,9 +1,11 @@
 package cn.iocoder.yudao.module.infra.dal.mysql.file;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.file.core.client.db.DBFileContentFrameworkDAO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.file.FileContentDO;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.Resource;
@@ -37,6 +39,29 @@ public class FileContentDAOImpl implements DBFileContentFrameworkDAO {
                 .orElse(null);
     }
 
+    @Override
+    public KeyValue<String, Long> selectContentLength(Long configId, String path) {
+        // 1. 获得最新的内容编号，不读取内容本身
+        List<FileContentDO> list = fileContentMapper.selectList(
+                buildQuery(configId, path).select(FileContentDO::getId).orderByDesc(FileContentDO::getId));
+        FileContentDO fileContent = CollUtil.getFirst(list);
+        if (fileContent == null) {
+            return null;
+        }
+        // 2. 获得内容的长度
+        Object length = CollUtil.getFirst(fileContentMapper.selectObjs(new QueryWrapper<FileContentDO>()
+                .select("LENGTH(content)").eq("id", fileContent.getId())));
+        return new KeyValue<>(fileContent.getId(), length != null ? ((Number) length).longValue() : 0L);
+    }
+
+    @Override
+    public byte[] selectContent(String id, long offset, int length) {
+        // SUBSTRING 的位置从 1 开始
+        Object content = CollUtil.getFirst(fileContentMapper.selectObjs(new QueryWrapper<FileContentDO>()
+                .select("SUBSTRING(content, " + (offset + 1) + ", " + length + ")").eq("id", id)));
+        return content != null ? (byte[]) content : new byte[0];
+    }
+
     private LambdaQueryWrapper<FileContentDO> buildQuery(Long configId, String path) {
         return new LambdaQueryWrapper<FileContentDO>()
                 .eq(FileContentDO::getConfigId, configId)
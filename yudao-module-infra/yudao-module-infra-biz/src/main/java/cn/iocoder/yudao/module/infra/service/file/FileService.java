@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.module.infra.service.file;
 
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.file.core.client.FileContentReader;
 import cn.iocoder.yudao.module.infra.controller.admin.file.vo.file.FileCreateReqVO;
 import cn.iocoder.yudao.module.infra.controller.admin.file.vo.file.FilePageReqVO;
 import cn.iocoder.yudao.module.infra.controller.admin.file.vo.file.FilePresignedUrlRespVO;
@@ -55,6 +56,15 @@ public interface FileService {
      */
     byte[] getFileContent(Long configId, String path) throws Exception;
 
+    /**
+     * 获得文件内容的读取器，用于大文件的流式下载
+     *
+     * @param configId 配置编号
+     * @param path     文件路径
+     * @return 读取器；文件不存在时，返回 null
+     */
+    FileContentReader getFileContentReader(Long configId, String path) throws Exception;
+
     /**
      * 生成文件预签名地址信息
      *
@@ -1,7 +1,9 @@
 package cn.iocoder.yudao.module.infra.service.logger;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.infra.api.logger.dto.ApiAccessLogCreateReqDTO;
 import cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apiaccesslog.ApiAccessLogPageReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO;
@@ -12,6 +14,7 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * API 访问日志 Service 实现类
@@ -32,6 +35,16 @@ public class ApiAccessLogServiceImpl implements ApiAccessLogService {
         apiAccessLogMapper.insert(apiAccessLog);
     }
 
+    @Override
+    public void createApiAccessLogBatch(List<ApiAccessLogCreateReqDTO> createDTOs) {
+        if (CollUtil.isEmpty(createDTOs)) {
+            return;
+        }
+        // 批量写入在后台线程执行，没有请求的租户上下文，所以按照租户分组写入
+        TenantUtils.executeByTenant(createDTOs, ApiAccessLogCreateReqDTO::getTenantId, tenantCreateDTOs ->
+                apiAccessLogMapper.insertBatch(BeanUtils.toBean(tenantCreateDTOs, ApiAccessLogDO.class)));
+    }
+
     @Override
     public PageResult<ApiAccessLogDO> getApiAccessLogPage(ApiAccessLogPageReqVO pageReqVO) {
         return apiAccessLogMapper.selectPage(pageReqVO);
@@ -5,6 +5,8 @@ import cn.iocoder.yudao.module.infra.api.logger.dto.ApiErrorLogCreateReqDTO;
 import cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apierrorlog.ApiErrorLogPageReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiErrorLogDO;
 
+import java.util.List;
+
 /**
  * API 错误日志 Service 接口
  *
@@ -19,6 +21,13 @@ public interface ApiErrorLogService {
      */
     void createApiErrorLog(ApiErrorLogCreateReqDTO createReqDTO);
 
+    /**
+     * 批量创建 API 错误日志
+     *
+     * @param createReqDTOs API 错误日志列表
+     */
+    void createApiErrorLogBatch(List<ApiErrorLogCreateReqDTO> createReqDTOs);
+
     /**
      * 获得 API 错误日志分页
      *
@@ -1,7 +1,9 @@
 package cn.iocoder.yudao.module.infra.service.logger;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.infra.api.logger.dto.ApiErrorLogCreateReqDTO;
 import cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apierrorlog.ApiErrorLogPageReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiErrorLogDO;
@@ -13,8 +15,10 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
 import static cn.iocoder.yudao.module.infra.enums.ErrorCodeConstants.*;
 
 /**
@@ -37,6 +41,19 @@ public class ApiErrorLogServiceImpl implements ApiErrorLogService {
         apiErrorLogMapper.insert(apiErrorLog);
     }
 
+    @Override
+    public void createApiErrorLogBatch(List<ApiErrorLogCreateReqDTO> createDTOs) {
+        if (CollUtil.isEmpty(createDTOs)) {
+            return;
+        }
+        // 批量写入在后台线程执行，没有请求的租户上下文，所以按照租户分组写入
+        TenantUtils.executeByTenant(createDTOs, ApiErrorLogCreateReqDTO::getTenantId, tenantCreateDTOs -> {
+            List<ApiErrorLogDO> apiErrorLogs = convertList(tenantCreateDTOs, createDTO -> BeanUtils.toBean(createDTO, ApiErrorLogDO.class)
+                    .setProcessStatus(ApiErrorLogProcessStatusEnum.INIT.getStatus()));
+            apiErrorLogMapper.insertBatch(apiErrorLogs);
+        });
+    }
+
     @Override
     public PageResult<ApiErrorLogDO> getApiErrorLogPage(ApiErrorLogPageReqVO pageReqVO) {
         return apiErrorLogMapper.selectPage(pageReqVO);
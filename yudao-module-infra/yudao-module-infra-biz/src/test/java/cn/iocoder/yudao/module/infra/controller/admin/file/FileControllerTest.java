@@ -0,0 +1,182 @@
+package cn.iocoder.yudao.module.infra.controller.admin.file;
+
+import cn.iocoder.yudao.framework.file.core.client.FileContentReader;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.infra.service.file.FileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * {@link FileController} 下载文件的单元测试，覆盖 HTTP Range、条件请求
+ *
+ * @author 芋道源码
+ */
+public class FileControllerTest extends BaseMockitoUnitTest {
+
+    private static final Long CONFIG_ID = 1L;
+    private static final String PATH = "demo.txt";
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+    private static final long LAST_MODIFIED = 1700000000000L;
+
+    @InjectMocks
+    private FileController fileController;
+
+    @Mock
+    private FileService fileService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        // mock 方法：notExists 以外的测试，都读取 PATH 文件
+        lenient().when(fileService.getFileContentReader(eq(CONFIG_ID), eq(PATH))).thenReturn(new FileContentReader() {
+
+            @Override
+            public long getLength() {
+                return CONTENT.length;
+            }
+
+            @Override
+            public Long getLastModified() {
+                return LAST_MODIFIED;
+            }
+
+            @Override
+            public void transferTo(long start, long end, OutputStream out) throws Exception {
+                out.write(CONTENT, (int) start, (int) (end - start + 1));
+            }
+
+        });
+    }
+
+    @Test
+    public void testGetFileContent_full() throws Exception {
+        // 调用
+        MockHttpServletResponse response = getFileContent(buildRequest());
+        // 断言
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testGetFileContent_singleRange() throws Exception {
+        // 准备参数
+        MockHttpServletRequest request = buildRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        // 调用
+        MockHttpServletResponse response = getFileContent(request);
+        // 断言
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals(4, response.getContentLengthLong());
+        assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testGetFileContent_suffixRange() throws Exception {
+        // 准备参数：最后 3 个字节
+        MockHttpServletRequest request = buildRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+        // 调用
+        MockHttpServletResponse response = getFileContent(request);
+        // 断言
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), response.getStatus());
+        assertEquals("789", response.getContentAsString());
+        assertEquals("bytes 7-9/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testGetFileContent_unsatisfiableRange() throws Exception {
+        // 准备参数：超出文件长度
+        MockHttpServletRequest request = buildRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+
+        // 调用
+        MockHttpServletResponse response = getFileContent(request);
+        // 断言
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value(), response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testGetFileContent_multiRange() throws Exception {
+        // 准备参数
+        MockHttpServletRequest request = buildRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1,4-5");
+
+        // 调用
+        MockHttpServletResponse response = getFileContent(request);
+        // 断言：多个范围时，返回整个文件
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testGetFileContent_ifRangeNotMatched() throws Exception {
+        // 准备参数：文件已变化，If-Range 不匹配
+        MockHttpServletRequest request = buildRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        // 调用
+        MockHttpServletResponse response = getFileContent(request);
+        // 断言：返回整个文件
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    public void testGetFileContent_ifNoneMatch() throws Exception {
+        // 准备参数：使用第一次下载返回的 ETag
+        String etag = getFileContent(buildRequest()).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = buildRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        // 调用
+        MockHttpServletResponse response = getFileContent(request);
+        // 断言：文件未变化，返回 304，不输出内容
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testGetFileContent_notExists() throws Exception {
+        // 准备参数
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/infra/file/" + CONFIG_ID + "/get/other.txt");
+
+        // 调用
+        MockHttpServletResponse response = getFileContent(request);
+        // 断言
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatus());
+    }
+
+    private static MockHttpServletRequest buildRequest() {
+        return new MockHttpServletRequest("GET", "/infra/file/" + CONFIG_ID + "/get/" + PATH);
+    }
+
+    private MockHttpServletResponse getFileContent(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileController.getFileContent(request, response, CONFIG_ID);
+        return response;
+    }
+
+}
@@ -13,6 +13,7 @@ import org.springframework.context.annotation.Import;
 
 import javax.annotation.Resource;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.*;
@@ -74,6 +75,21 @@ public class ApiAccessLogServiceImplTest extends BaseDbUnitTest {
         assertPojoEquals(apiAccessLogDO, pageResult.getList().get(0));
     }
 
+    @Test
+    public void testCreateApiAccessLogBatch() {
+        // 准备参数
+        List<ApiAccessLogCreateReqDTO> createDTOs = Arrays.asList(randomPojo(ApiAccessLogCreateReqDTO.class),
+                randomPojo(ApiAccessLogCreateReqDTO.class));
+
+        // 调用
+        apiAccessLogService.createApiAccessLogBatch(createDTOs);
+        // 断言
+        List<ApiAccessLogDO> logs = apiAccessLogMapper.selectList();
+        assertEquals(2, logs.size());
+        assertPojoEquals(createDTOs.get(0), logs.get(0));
+        assertPojoEquals(createDTOs.get(1), logs.get(1));
+    }
+
     @Test
     public void testCleanJobLog() {
         // mock 数据
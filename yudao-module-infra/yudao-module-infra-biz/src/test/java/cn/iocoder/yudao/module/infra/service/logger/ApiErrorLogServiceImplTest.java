@@ -13,6 +13,7 @@ import org.springframework.context.annotation.Import;
 
 import javax.annotation.Resource;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 
 import static cn.hutool.core.util.RandomUtil.randomEle;
@@ -90,6 +91,23 @@ public class ApiErrorLogServiceImplTest extends BaseDbUnitTest {
         assertEquals(ApiErrorLogProcessStatusEnum.INIT.getStatus(), apiErrorLogDO.getProcessStatus());
     }
 
+    @Test
+    public void testCreateApiErrorLogBatch() {
+        // 准备参数
+        List<ApiErrorLogCreateReqDTO> createDTOs = Arrays.asList(randomPojo(ApiErrorLogCreateReqDTO.class),
+                randomPojo(ApiErrorLogCreateReqDTO.class));
+
+        // 调用
+        apiErrorLogService.createApiErrorLogBatch(createDTOs);
+        // 断言
+        List<ApiErrorLogDO> logs = apiErrorLogMapper.selectList();
+        assertEquals(2, logs.size());
+        for (int i = 0; i < createDTOs.size(); i++) {
+            assertPojoEquals(createDTOs.get(i), logs.get(i));
+            assertEquals(ApiErrorLogProcessStatusEnum.INIT.getStatus(), logs.get(i).getProcessStatus());
+        }
+    }
+
     @Test
     public void testUpdateApiErrorLogProcess_success() {
         // 准备参数
@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.module.product.controller.app.spu;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.exceptions.ExceptionUtil;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
@@ -11,12 +12,14 @@ import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
 import cn.iocoder.yudao.module.product.controller.app.spu.vo.AppProductSpuDetailRespVO;
 import cn.iocoder.yudao.module.product.controller.app.spu.vo.AppProductSpuPageReqVO;
 import cn.iocoder.yudao.module.product.controller.app.spu.vo.AppProductSpuRespVO;
-import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
 import cn.iocoder.yudao.module.product.dal.dataobject.spu.ProductSpuDO;
 import cn.iocoder.yudao.module.product.enums.spu.ProductSpuStatusEnum;
 import cn.iocoder.yudao.module.product.service.history.ProductBrowseHistoryService;
-import cn.iocoder.yudao.module.product.service.sku.ProductSkuService;
 import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
+import cn.iocoder.yudao.module.product.service.spu.bo.ProductSpuDetailBO;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,9 +31,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.Resource;
 import javax.validation.Valid;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
@@ -44,11 +50,19 @@ import static cn.iocoder.yudao.module.product.enums.ErrorCodeConstants.SPU_NOT_E
 @Validated
 public class AppProductSpuController {
 
+    /**
+     * 用户的会员等级缓存，key 为用户编号，用于计算 vip 价格
+     *
+     * 在当前请求的线程中加载，保证多租户等上下文可用。vip 价格只用于展示，下单时会重新计算，所以允许短暂的不一致
+     */
+    private final Cache<Long, Optional<MemberLevelRespDTO>> memberLevelCache = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
     @Resource
     private ProductSpuService productSpuService;
     @Resource
-    private ProductSkuService productSkuService;
-    @Resource
     private ProductBrowseHistoryService productBrowseHistoryService;
 
     @Resource
@@ -95,26 +109,24 @@ public class AppProductSpuController {
     @Operation(summary = "获得商品 SPU 明细")
     @Parameter(name = "id", description = "编号", required = true)
     public CommonResult<AppProductSpuDetailRespVO> getSpuDetail(@RequestParam("id") Long id) {
-        // 获得商品 SPU
-        ProductSpuDO spu = productSpuService.getSpu(id);
-        if (spu == null) {
+        // 获得商品 SPU、SKU（缓存）
+        ProductSpuDetailBO spuDetail = productSpuService.getSpuDetail(id);
+        if (spuDetail == null) {
             throw exception(SPU_NOT_EXISTS);
         }
+        ProductSpuDO spu = spuDetail.getSpu();
         if (!ProductSpuStatusEnum.isEnable(spu.getStatus())) {
             throw exception(SPU_NOT_ENABLE);
         }
-        // 获得商品 SKU
-        List<ProductSkuDO> skus = productSkuService.getSkuListBySpuId(spu.getId());
 
         // 增加浏览量
         productSpuService.updateBrowseCount(id, 1);
         // 保存浏览记录
         productBrowseHistoryService.createBrowseHistory(getLoginUserId(), id);
 
-        // 拼接返回
-        spu.setBrowseCount(spu.getBrowseCount() + spu.getVirtualSalesCount());
+        // 拼接返回。注意，缓存的 spu 可能被多个请求共享，不能修改它
         AppProductSpuDetailRespVO spuVO = BeanUtils.toBean(spu, AppProductSpuDetailRespVO.class)
-                .setSkus(BeanUtils.toBean(skus, AppProductSpuDetailRespVO.Sku.class));
+                .setSkus(BeanUtils.toBean(spuDetail.getSkus(), AppProductSpuDetailRespVO.Sku.class));
         // 处理 vip 价格
         MemberLevelRespDTO memberLevel = getMemberLevel();
         spuVO.setVipPrice(calculateVipPrice(spuVO.getPrice(), memberLevel));
@@ -126,6 +138,14 @@ public class AppProductSpuController {
         if (userId == null) {
             return null;
         }
+        try {
+            return memberLevelCache.get(userId, () -> Optional.ofNullable(getMemberLevel0(userId))).orElse(null);
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            throw ExceptionUtil.wrapRuntime(ex.getCause());
+        }
+    }
+
+    private MemberLevelRespDTO getMemberLevel0(Long userId) {
         MemberUserRespDTO user = memberUserApi.getUser(userId);
         if (user.getLevelId() == null || user.getLevelId() <= 0) {
             return null;
@@ -0,0 +1,47 @@
+package cn.iocoder.yudao.module.product.dal.dataobject.sku;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.*;
+
+/**
+ * 商品 SKU 库存分桶 DO
+ *
+ * 开启库存分桶后，一个 SKU 的库存，会被拆分到多个分桶中，扣减时随机选择一个分桶，从而将热点 SKU 的行锁分散到多行。
+ * 此时，{@link ProductSkuDO#getStock()} 是各分桶库存的汇总，异步刷新
+ *
+ * @author 芋道源码
+ */
+@TableName("product_sku_stock_bucket")
+@KeySequence("product_sku_stock_bucket_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSkuStockBucketDO extends BaseDO {
+
+    /**
+     * 编号，自增
+     */
+    @TableId
+    private Long id;
+    /**
+     * SKU 编号
+     *
+     * 关联 {@link ProductSkuDO#getId()}
+     */
+    private Long skuId;
+    /**
+     * 分桶序号，从 0 开始
+     */
+    private Integer bucketNo;
+    /**
+     * 库存
+     */
+    private Integer stock;
+
+}
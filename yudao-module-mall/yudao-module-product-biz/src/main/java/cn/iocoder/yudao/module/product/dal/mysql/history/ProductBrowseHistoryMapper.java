@@ -1,16 +1,23 @@
 package cn.iocoder.yudao.module.product.dal.mysql.history;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.map.MapUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
 import cn.iocoder.yudao.module.product.controller.admin.history.vo.ProductBrowseHistoryPageReqVO;
 import cn.iocoder.yudao.module.product.dal.dataobject.history.ProductBrowseHistoryDO;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
 
 /**
  * 商品浏览记录 Mapper
@@ -26,6 +33,31 @@ public interface ProductBrowseHistoryMapper extends BaseMapperX<ProductBrowseHis
                 .eq(ProductBrowseHistoryDO::getSpuId, spuId));
     }
 
+    default List<ProductBrowseHistoryDO> selectListByUserIdsAndSpuIds(Collection<Long> userIds, Collection<Long> spuIds) {
+        return selectList(new LambdaQueryWrapperX<ProductBrowseHistoryDO>()
+                .in(ProductBrowseHistoryDO::getUserId, userIds)
+                .in(ProductBrowseHistoryDO::getSpuId, spuIds));
+    }
+
+    /**
+     * 获得用户的浏览记录数量
+     *
+     * @param userIds 用户编号数组
+     * @return key：用户编号；value：浏览记录数量
+     */
+    default Map<Long, Long> selectCountMapByUserIds(Collection<Long> userIds) {
+        if (CollUtil.isEmpty(userIds)) {
+            return Collections.emptyMap();
+        }
+        // SQL count 查询
+        List<Map<String, Object>> result = selectMaps(new QueryWrapper<ProductBrowseHistoryDO>()
+                .select("user_id, COUNT(1) AS count")
+                .groupBy("user_id")
+                .in("user_id", userIds));
+        // 获得数量
+        return convertMap(result, obj -> MapUtil.getLong(obj, "user_id"), obj -> MapUtil.getLong(obj, "count"));
+    }
+
     default PageResult<ProductBrowseHistoryDO> selectPage(ProductBrowseHistoryPageReqVO reqVO) {
         return selectPage(reqVO, new LambdaQueryWrapperX<ProductBrowseHistoryDO>()
                 .eqIfPresent(ProductBrowseHistoryDO::getUserId, reqVO.getUserId())
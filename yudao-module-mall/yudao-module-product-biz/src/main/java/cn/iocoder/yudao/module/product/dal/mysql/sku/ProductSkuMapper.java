@@ -9,6 +9,7 @@ import org.apache.ibatis.annotations.Mapper;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface ProductSkuMapper extends BaseMapperX<ProductSkuDO> {
@@ -25,6 +26,12 @@ public interface ProductSkuMapper extends BaseMapperX<ProductSkuDO> {
         delete(new LambdaQueryWrapperX<ProductSkuDO>().eq(ProductSkuDO::getSpuId, spuId));
     }
 
+    default ProductSkuDO selectByIdForUpdate(Long id) {
+        return selectOne(new LambdaQueryWrapperX<ProductSkuDO>()
+                .eq(ProductSkuDO::getId, id)
+                .last("FOR UPDATE"));
+    }
+
     /**
      * 更新 SKU 库存（增加）
      *
@@ -55,4 +62,40 @@ public interface ProductSkuMapper extends BaseMapperX<ProductSkuDO> {
         return update(null, updateWrapper);
     }
 
+    /**
+     * 批量更新 SKU 库存（增加或减少），通过一条 UPDATE 语句完成
+     *
+     * 每个 SKU 的库存变化，通过 CASE WHEN 语句设置；减少库存时，通过 cas 逻辑，保证库存不会扣成负数
+     *
+     * @param incrCounts SKU 编号与库存变化（增量）的映射，不包含 0
+     * @return 更新条数。小于 incrCounts 的数量时，说明存在 SKU 库存不足
+     */
+    default int updateStockBatch(Map<Long, Integer> incrCounts) {
+        Assert.notEmpty(incrCounts);
+        StringBuilder incrSql = new StringBuilder("CASE id");
+        incrCounts.forEach((id, incrCount) -> incrSql.append(" WHEN ").append(id).append(" THEN ").append(incrCount));
+        incrSql.append(" END");
+        LambdaUpdateWrapper<ProductSkuDO> updateWrapper = new LambdaUpdateWrapper<ProductSkuDO>()
+                .setSql(" stock = stock + " + incrSql)
+                .in(ProductSkuDO::getId, incrCounts.keySet())
+                .apply("(" + incrSql + " > 0 OR stock + " + incrSql + " >= 0)"); // cas 逻辑
+        return update(null, updateWrapper);
+    }
+
+    /**
+     * 基于库存分桶，刷新 SKU 的库存汇总
+     *
+     * @param ids SKU 编号数组
+     */
+    default void updateStockByBucket(Collection<Long> ids) {
+        LambdaUpdateWrapper<ProductSkuDO> updateWrapper = new LambdaUpdateWrapper<ProductSkuDO>()
+                .setSql(" stock = (SELECT COALESCE(SUM(b.stock), 0) FROM product_sku_stock_bucket b"
+                        + " WHERE b.sku_id = product_sku.id AND b.deleted = 0)")
+                .in(ProductSkuDO::getId, ids)
+                // 分桶已被删除（例如说，后台修改了库存）时，不进行刷新，避免覆盖
+                .apply("EXISTS (SELECT 1 FROM product_sku_stock_bucket b"
+                        + " WHERE b.sku_id = product_sku.id AND b.deleted = 0)");
+        update(null, updateWrapper);
+    }
+
 }
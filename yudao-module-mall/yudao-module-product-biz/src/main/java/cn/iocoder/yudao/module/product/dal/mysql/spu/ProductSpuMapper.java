@@ -12,6 +12,7 @@ import cn.iocoder.yudao.module.product.enums.spu.ProductSpuStatusEnum;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import org.apache.ibatis.annotations.Mapper;
 
+import java.util.Collection;
 import java.util.Objects;
 import java.util.Set;
 
@@ -91,6 +92,19 @@ public interface ProductSpuMapper extends BaseMapperX<ProductSpuDO> {
         update(null, updateWrapper);
     }
 
+    /**
+     * 基于 SKU 的库存，刷新 SPU 的库存汇总
+     *
+     * @param ids 商品 SPU 编号数组
+     */
+    default void updateStockBySku(Collection<Long> ids) {
+        LambdaUpdateWrapper<ProductSpuDO> updateWrapper = new LambdaUpdateWrapper<ProductSpuDO>()
+                .setSql(" stock = (SELECT COALESCE(SUM(s.stock), 0) FROM product_sku s"
+                        + " WHERE s.spu_id = product_spu.id AND s.deleted = 0)")
+                .in(ProductSpuDO::getId, ids);
+        update(null, updateWrapper);
+    }
+
     /**
      * 添加后台 Tab 选项的查询条件
      *
@@ -0,0 +1,20 @@
+package cn.iocoder.yudao.module.product.dal.redis;
+
+import cn.iocoder.yudao.module.product.service.spu.bo.ProductSpuDetailBO;
+
+/**
+ * 商品 Redis Key 枚举类
+ *
+ * @author 芋道源码
+ */
+public interface RedisKeyConstants {
+
+    /**
+     * 商品 SPU 详情的缓存，包括 SPU 和 SKU 列表
+     *
+     * KEY 格式：product_spu_detail:{id}
+     * VALUE 数据格式：String 商品 SPU 详情 {@link ProductSpuDetailBO}
+     */
+    String PRODUCT_SPU_DETAIL = "product_spu_detail#10m";
+
+}
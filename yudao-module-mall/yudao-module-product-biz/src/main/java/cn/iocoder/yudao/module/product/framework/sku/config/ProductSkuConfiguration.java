@@ -0,0 +1,14 @@
+package cn.iocoder.yudao.module.product.framework.sku.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * product 模块的 SKU 组件的 Configuration
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ProductSkuProperties.class)
+public class ProductSkuConfiguration {
+}
@@ -0,0 +1,35 @@
+package cn.iocoder.yudao.module.product.framework.sku.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * 商品 SKU 的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.product.sku")
+@Data
+@Validated
+public class ProductSkuProperties {
+
+    /**
+     * 是否开启库存分桶
+     *
+     * 开启后，SKU 的库存会被拆分到多个分桶中扣减，适合秒杀等热点 SKU 的场景
+     */
+    @NotNull(message = "是否开启库存分桶不能为空")
+    private Boolean stockBucketEnable = false;
+
+    /**
+     * 库存分桶的数量
+     */
+    @NotNull(message = "库存分桶的数量不能为空")
+    @Min(value = 1, message = "库存分桶的数量不能小于 1")
+    private Integer stockBucketCount = 8;
+
+}
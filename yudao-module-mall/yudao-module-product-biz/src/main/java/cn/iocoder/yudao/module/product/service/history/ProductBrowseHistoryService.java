@@ -3,7 +3,6 @@ package cn.iocoder.yudao.module.product.service.history;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.product.controller.admin.history.vo.ProductBrowseHistoryPageReqVO;
 import cn.iocoder.yudao.module.product.dal.dataobject.history.ProductBrowseHistoryDO;
-import org.springframework.scheduling.annotation.Async;
 
 import java.util.Collection;
 
@@ -17,12 +16,18 @@ public interface ProductBrowseHistoryService {
     /**
      * 创建商品浏览记录
      *
+     * 先在内存中合并同一用户、同一商品的记录，再定时批量写入数据库
+     *
      * @param userId 用户编号
      * @param spuId  SPU 编号
      */
-    @Async
     void createBrowseHistory(Long userId, Long spuId);
 
+    /**
+     * 将内存中合并的浏览记录，批量写入数据库
+     */
+    void flushBrowseHistory();
+
     /**
      * 隐藏用户商品浏览记录
      *
@@ -1,16 +1,30 @@
 package cn.iocoder.yudao.module.product.service.history;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.product.controller.admin.history.vo.ProductBrowseHistoryPageReqVO;
 import cn.iocoder.yudao.module.product.dal.dataobject.history.ProductBrowseHistoryDO;
 import cn.iocoder.yudao.module.product.dal.mysql.history.ProductBrowseHistoryMapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
-import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 
 /**
  * 商品浏览记录 Service 实现类
@@ -19,42 +33,108 @@ import java.util.Collection;
  */
 @Service
 @Validated
+@Slf4j
 public class ProductBrowseHistoryServiceImpl implements ProductBrowseHistoryService {
 
     private static final int USER_STORE_MAXIMUM = 100;
 
+    /**
+     * 每批写入的记录数量
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
     @Resource
     private ProductBrowseHistoryMapper browseHistoryMapper;
 
+    /**
+     * 待写入数据库的浏览记录，key 为租户编号，value 为「(用户编号, SPU 编号) -> 浏览时间」
+     *
+     * 目的：商品详情是热点读接口，每次访问都同步查询、删除、插入浏览记录，开销较大，所以先在内存中合并，再定时批量写入
+     */
+    private final Map<Long, Map<KeyValue<Long, Long>, LocalDateTime>> pendingHistories = new ConcurrentHashMap<>();
+
     @Override
     public void createBrowseHistory(Long userId, Long spuId) {
         // 用户未登录时不记录
         if (userId == null) {
             return;
         }
+        // 同一个商品，只保留最新的一条记录
+        pendingHistories.computeIfAbsent(TenantUtils.getTenantKey(), key -> new ConcurrentHashMap<>())
+                .put(new KeyValue<>(userId, spuId), LocalDateTime.now());
+    }
 
-        // 情况一：同一个商品，只保留最新的一条记录
-        ProductBrowseHistoryDO history = browseHistoryMapper.selectByUserIdAndSpuId(userId, spuId);
-        if (history != null) {
-            browseHistoryMapper.deleteById(history);
-        } else {
-            // 情况二：限制每个用户的浏览记录的条数（只查一条最早地记录、记录总数）
-            // TODO @疯狂：这里最好先查询一次数量。如果发现超过了，再删除；主要考虑，可能有部分不超过，提前就多了一次 sql 查询了
-            Page<ProductBrowseHistoryDO> pageResult = browseHistoryMapper.selectPageByUserIdOrderByCreateTimeAsc(userId, 1, 1);
-            if (pageResult.getTotal() >= USER_STORE_MAXIMUM) {
-                browseHistoryMapper.deleteById(CollUtil.getFirst(pageResult.getRecords()));
+    @Override
+    @Scheduled(initialDelay = 5, fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+    @EventListener(ContextClosedEvent.class) // 关闭时，写入剩余的记录
+    public void flushBrowseHistory() {
+        pendingHistories.forEach((tenantKey, histories) -> {
+            // 逐个移除记录。移除是原子的，移除后新增的记录会进入新的 entry，不会丢失
+            List<ProductBrowseHistoryDO> list = new ArrayList<>();
+            histories.keySet().forEach(key -> {
+                LocalDateTime browseTime = histories.remove(key);
+                if (browseTime != null) {
+                    list.add(new ProductBrowseHistoryDO().setUserId(key.getKey()).setSpuId(key.getValue())
+                            .setCreateTime(browseTime));
+                }
+            });
+            if (list.isEmpty()) {
+                return;
             }
+            // 按浏览时间排序后，分批写入。失败时，放回记录，等待下次写入
+            list.sort(Comparator.comparing(ProductBrowseHistoryDO::getCreateTime));
+            TenantUtils.executeByTenantKey(tenantKey, () -> CollUtil.split(list, FLUSH_BATCH_SIZE).forEach(batch -> {
+                try {
+                    getSelf().createBrowseHistoryList(batch);
+                } catch (Exception ex) {
+                    log.error("[flushBrowseHistory][tenantId({}) 写入 {} 条记录失败]", tenantKey, batch.size(), ex);
+                    batch.forEach(history -> histories.merge(new KeyValue<>(history.getUserId(), history.getSpuId()),
+                            history.getCreateTime(), (oldValue, newValue) -> oldValue.isAfter(newValue) ? oldValue : newValue));
+                }
+            }));
+        });
+    }
+
+    /**
+     * 批量写入浏览记录
+     *
+     * @param histories 浏览记录数组，同一用户、同一商品只有一条
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void createBrowseHistoryList(List<ProductBrowseHistoryDO> histories) {
+        // 1. 同一个商品，只保留最新的一条记录：删除已存在的记录
+        Set<Long> userIds = convertSet(histories, ProductBrowseHistoryDO::getUserId);
+        Set<KeyValue<Long, Long>> keys = convertSet(histories, history -> new KeyValue<>(history.getUserId(), history.getSpuId()));
+        List<ProductBrowseHistoryDO> existsList = browseHistoryMapper.selectListByUserIdsAndSpuIds(userIds,
+                convertSet(histories, ProductBrowseHistoryDO::getSpuId));
+        List<Long> deleteIds = convertList(existsList, ProductBrowseHistoryDO::getId,
+                exists -> keys.contains(new KeyValue<>(exists.getUserId(), exists.getSpuId())));
+        if (CollUtil.isNotEmpty(deleteIds)) {
+            browseHistoryMapper.deleteBatchIds(deleteIds);
         }
 
-        // 插入
-        ProductBrowseHistoryDO browseHistory = new ProductBrowseHistoryDO()
-                .setUserId(userId)
-                .setSpuId(spuId);
-        browseHistoryMapper.insert(browseHistory);
+        // 2. 批量插入
+        browseHistoryMapper.insertBatch(histories);
+
+        // 3. 限制每个用户的浏览记录的条数：超过时，删除最早的记录
+        browseHistoryMapper.selectCountMapByUserIds(userIds).forEach((userId, count) -> {
+            if (count <= USER_STORE_MAXIMUM) {
+                return;
+            }
+            Page<ProductBrowseHistoryDO> pageResult = browseHistoryMapper.selectPageByUserIdOrderByCreateTimeAsc(
+                    userId, 1, (int) (count - USER_STORE_MAXIMUM));
+            browseHistoryMapper.deleteBatchIds(convertList(pageResult.getRecords(), ProductBrowseHistoryDO::getId));
+        });
     }
 
     @Override
     public void hideUserBrowseHistory(Long userId, Collection<Long> spuIds) {
+        // 移除未写入的记录，避免隐藏后又被写入
+        Map<KeyValue<Long, Long>, LocalDateTime> histories = pendingHistories.get(TenantUtils.getTenantKey());
+        if (histories != null) {
+            histories.keySet().removeIf(key -> key.getKey().equals(userId)
+                    && (CollUtil.isEmpty(spuIds) || spuIds.contains(key.getValue())));
+        }
         browseHistoryMapper.updateUserDeletedByUserId(userId, spuIds, true);
     }
 
@@ -63,4 +143,13 @@ public class ProductBrowseHistoryServiceImpl implements ProductBrowseHistoryServ
         return browseHistoryMapper.selectPage(pageReqVO);
     }
 
+    /**
+     * 获得自身的代理对象，解决 AOP 生效问题
+     *
+     * @return 自己
+     */
+    private ProductBrowseHistoryServiceImpl getSelf() {
+        return SpringUtil.getBean(getClass());
+    }
+
 }
\ No newline at end of file
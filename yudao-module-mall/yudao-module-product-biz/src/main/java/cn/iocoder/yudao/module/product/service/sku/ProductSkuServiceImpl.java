@@ -11,12 +11,15 @@ import cn.iocoder.yudao.module.product.dal.dataobject.property.ProductPropertyDO
 import cn.iocoder.yudao.module.product.dal.dataobject.property.ProductPropertyValueDO;
 import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
 import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuMapper;
+import cn.iocoder.yudao.module.product.framework.sku.config.ProductSkuProperties;
 import cn.iocoder.yudao.module.product.service.property.ProductPropertyService;
 import cn.iocoder.yudao.module.product.service.property.ProductPropertyValueService;
 import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
@@ -48,6 +51,11 @@ public class ProductSkuServiceImpl implements ProductSkuService {
     private ProductPropertyService productPropertyService;
     @Resource
     private ProductPropertyValueService productPropertyValueService;
+    @Resource
+    private ProductSkuStockBucketService productSkuStockBucketService;
+
+    @Resource
+    private ProductSkuProperties productSkuProperties;
 
     @Override
     public void deleteSku(Long id) {
@@ -55,6 +63,9 @@ public class ProductSkuServiceImpl implements ProductSkuService {
         validateSkuExists(id);
         // 删除
         productSkuMapper.deleteById(id);
+        if (productSkuProperties.getStockBucketEnable()) {
+            productSkuStockBucketService.deleteBuckets(Collections.singleton(id));
+        }
     }
 
     private void validateSkuExists(Long id) {
@@ -179,6 +190,7 @@ public class ProductSkuServiceImpl implements ProductSkuService {
         }
 
         productSkuMapper.updateBatch(updateSkus);
+        productSpuService.deleteSpuDetailCache(convertSet(updateSkus, ProductSkuDO::getSpuId));
         return updateSkus.size();
     }
 
@@ -204,6 +216,7 @@ public class ProductSkuServiceImpl implements ProductSkuService {
         }
 
         productSkuMapper.updateBatch(updateSkus);
+        productSpuService.deleteSpuDetailCache(convertSet(updateSkus, ProductSkuDO::getSpuId));
         return updateSkus.size();
     }
 
@@ -242,29 +255,61 @@ public class ProductSkuServiceImpl implements ProductSkuService {
         if (CollUtil.isNotEmpty(existsSkuMap)) {
             productSkuMapper.deleteBatchIds(existsSkuMap.values());
         }
+        // 库存以后台修改的为准，删除分桶，下次扣减时重新初始化
+        if (productSkuProperties.getStockBucketEnable()) {
+            productSkuStockBucketService.deleteBuckets(convertSet(updateSkus, ProductSkuDO::getId));
+            productSkuStockBucketService.deleteBuckets(existsSkuMap.values());
+        }
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void updateSkuStock(ProductSkuUpdateStockReqDTO updateStockReqDTO) {
-        // 更新 SKU 库存
-        updateStockReqDTO.getItems().forEach(item -> {
-            if (item.getIncrCount() > 0) {
-                productSkuMapper.updateStockIncr(item.getId(), item.getIncrCount());
-            } else if (item.getIncrCount() < 0) {
-                int updateStockIncr = productSkuMapper.updateStockDecr(item.getId(), item.getIncrCount());
-                if (updateStockIncr == 0) {
-                    throw exception(SKU_STOCK_NOT_ENOUGH);
-                }
+        // 1. 合并相同 SKU 的库存变化
+        Map<Long, Integer> incrCounts = convertMap(updateStockReqDTO.getItems(),
+                ProductSkuUpdateStockReqDTO.Item::getId, ProductSkuUpdateStockReqDTO.Item::getIncrCount, Integer::sum);
+        incrCounts.values().removeIf(incrCount -> incrCount == 0);
+        if (CollUtil.isEmpty(incrCounts)) {
+            return;
+        }
+
+        // 2. 更新 SKU 库存
+        if (productSkuProperties.getStockBucketEnable()) {
+            // 情况一：开启库存分桶，扣减分散到多个分桶中
+            productSkuStockBucketService.updateStock(incrCounts);
+        } else {
+            // 情况二：通过一条 UPDATE 语句批量更新，有一个 SKU 库存不足，则整体失败
+            int updateCount = productSkuMapper.updateStockBatch(incrCounts);
+            if (updateCount < incrCounts.size()) {
+                throw exception(SKU_STOCK_NOT_ENOUGH);
             }
-        });
+        }
 
-        // 更新 SPU 库存
-        List<ProductSkuDO> skus = productSkuMapper.selectBatchIds(
-                convertSet(updateStockReqDTO.getItems(), ProductSkuUpdateStockReqDTO.Item::getId));
-        Map<Long, Integer> spuStockIncrCounts = ProductSkuConvert.INSTANCE.convertSpuStockMap(
-                updateStockReqDTO.getItems(), skus);
-        productSpuService.updateSpuStock(spuStockIncrCounts);
+        // 3. 事务提交后，异步刷新 SPU 库存，避免 SPU 成为热点行
+        Set<Long> spuIds = convertSet(productSkuMapper.selectBatchIds(incrCounts.keySet()), ProductSkuDO::getSpuId);
+        updateStockSummaryAfterCommit(incrCounts.keySet(), spuIds);
+    }
+
+    private void updateStockSummaryAfterCommit(Set<Long> skuIds, Set<Long> spuIds) {
+        Runnable runnable = () -> {
+            if (productSkuProperties.getStockBucketEnable()) {
+                productSkuStockBucketService.updateSkuStockByBucket(skuIds, spuIds);
+            } else {
+                productSpuService.updateSpuStockBySku(spuIds);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+
+        });
     }
 
 }
@@ -0,0 +1,44 @@
+package cn.iocoder.yudao.module.product.service.sku;
+
+import org.springframework.scheduling.annotation.Async;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 商品 SKU 库存分桶 Service 接口
+ *
+ * 开启库存分桶后，SKU 的库存扣减，会分散到多个分桶中，避免热点 SKU 的行锁竞争
+ *
+ * @author 芋道源码
+ */
+public interface ProductSkuStockBucketService {
+
+    /**
+     * 更新 SKU 的分桶库存
+     *
+     * 如果 SKU 的分桶不存在，则基于 SKU 的库存进行初始化
+     *
+     * @param incrCounts SKU 编号与库存变化（增量）的映射
+     */
+    void updateStock(Map<Long, Integer> incrCounts);
+
+    /**
+     * 删除 SKU 的分桶
+     *
+     * 后台修改 SKU 库存时调用，下次扣减时，基于新的库存重新初始化分桶
+     *
+     * @param skuIds SKU 编号数组
+     */
+    void deleteBuckets(Collection<Long> skuIds);
+
+    /**
+     * 基于分桶的库存，异步刷新 SKU 与 SPU 的库存汇总
+     *
+     * @param skuIds SKU 编号数组
+     * @param spuIds SPU 编号数组
+     */
+    @Async
+    void updateSkuStockByBucket(Collection<Long> skuIds, Collection<Long> spuIds);
+
+}
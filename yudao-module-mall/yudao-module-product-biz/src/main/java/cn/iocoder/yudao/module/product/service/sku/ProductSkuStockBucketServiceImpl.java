@@ -0,0 +1,133 @@
+package cn.iocoder.yudao.module.product.service.sku;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.core.util.RandomUtil;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuStockBucketDO;
+import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuMapper;
+import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuStockBucketMapper;
+import cn.iocoder.yudao.module.product.framework.sku.config.ProductSkuProperties;
+import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.module.product.enums.ErrorCodeConstants.SKU_NOT_EXISTS;
+import static cn.iocoder.yudao.module.product.enums.ErrorCodeConstants.SKU_STOCK_NOT_ENOUGH;
+
+/**
+ * 商品 SKU 库存分桶 Service 实现类
+ *
+ * @author 芋道源码
+ */
+@Service
+@Slf4j
+public class ProductSkuStockBucketServiceImpl implements ProductSkuStockBucketService {
+
+    @Resource
+    private ProductSkuStockBucketMapper productSkuStockBucketMapper;
+    @Resource
+    private ProductSkuMapper productSkuMapper;
+
+    @Resource
+    @Lazy // 循环依赖，避免报错
+    private ProductSpuService productSpuService;
+
+    @Resource
+    private ProductSkuProperties productSkuProperties;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void updateStock(Map<Long, Integer> incrCounts) {
+        incrCounts.forEach((skuId, incrCount) -> {
+            List<ProductSkuStockBucketDO> buckets = getOrInitBuckets(skuId);
+            if (incrCount > 0) {
+                // 增加库存：随机选择一个分桶
+                productSkuStockBucketMapper.updateStockIncr(RandomUtil.randomEle(buckets).getId(), incrCount);
+            } else if (incrCount < 0) {
+                updateStockDecr(skuId, buckets, -incrCount);
+            }
+        });
+    }
+
+    private void updateStockDecr(Long skuId, List<ProductSkuStockBucketDO> buckets, int count) {
+        // 1. 从随机的分桶开始，依次尝试扣减。基于快照跳过库存不足的分桶，减少无效的 UPDATE
+        int start = RandomUtil.randomInt(buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            ProductSkuStockBucketDO bucket = buckets.get((start + i) % buckets.size());
+            if (bucket.getStock() < count) {
+                continue;
+            }
+            if (productSkuStockBucketMapper.updateStockDecr(bucket.getId(), -count) > 0) {
+                return;
+            }
+        }
+
+        // 2. 没有单个分桶的库存足够，说明库存已经碎片化，则锁定所有分桶，扣减后重新均分
+        List<ProductSkuStockBucketDO> lockedBuckets = productSkuStockBucketMapper.selectListBySkuIdForUpdate(skuId);
+        int totalStock = lockedBuckets.stream().mapToInt(ProductSkuStockBucketDO::getStock).sum();
+        if (totalStock < count) {
+            throw exception(SKU_STOCK_NOT_ENOUGH);
+        }
+        int remainStock = totalStock - count;
+        List<ProductSkuStockBucketDO> updateBuckets = new ArrayList<>(lockedBuckets.size());
+        for (int i = 0; i < lockedBuckets.size(); i++) {
+            int stock = remainStock / lockedBuckets.size() + (i < remainStock % lockedBuckets.size() ? 1 : 0);
+            updateBuckets.add(new ProductSkuStockBucketDO().setId(lockedBuckets.get(i).getId()).setStock(stock));
+        }
+        productSkuStockBucketMapper.updateBatch(updateBuckets);
+        log.info("[updateStockDecr][sku({}) 分桶库存再平衡，扣减({}) 剩余({})]", skuId, count, remainStock);
+    }
+
+    private List<ProductSkuStockBucketDO> getOrInitBuckets(Long skuId) {
+        List<ProductSkuStockBucketDO> buckets = productSkuStockBucketMapper.selectListBySkuId(skuId);
+        if (CollUtil.isNotEmpty(buckets)) {
+            return buckets;
+        }
+        // 锁定 SKU 后，再次检查，避免并发初始化
+        ProductSkuDO sku = productSkuMapper.selectByIdForUpdate(skuId);
+        if (sku == null) {
+            throw exception(SKU_NOT_EXISTS);
+        }
+        buckets = productSkuStockBucketMapper.selectListBySkuId(skuId);
+        if (CollUtil.isNotEmpty(buckets)) {
+            return buckets;
+        }
+        // 基于 SKU 的库存，均分到各个分桶
+        int stock = ObjectUtil.defaultIfNull(sku.getStock(), 0);
+        int bucketCount = productSkuProperties.getStockBucketCount();
+        buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ProductSkuStockBucketDO().setSkuId(skuId).setBucketNo(i)
+                    .setStock(stock / bucketCount + (i < stock % bucketCount ? 1 : 0)));
+        }
+        productSkuStockBucketMapper.insertBatch(buckets);
+        return buckets;
+    }
+
+    @Override
+    public void deleteBuckets(Collection<Long> skuIds) {
+        if (CollUtil.isEmpty(skuIds)) {
+            return;
+        }
+        productSkuStockBucketMapper.deleteBySkuId(skuIds);
+    }
+
+    @Override
+    public void updateSkuStockByBucket(Collection<Long> skuIds, Collection<Long> spuIds) {
+        if (CollUtil.isNotEmpty(skuIds)) {
+            productSkuMapper.updateStockByBucket(skuIds);
+        }
+        productSpuService.updateSpuStockBySku(spuIds);
+    }
+
+}
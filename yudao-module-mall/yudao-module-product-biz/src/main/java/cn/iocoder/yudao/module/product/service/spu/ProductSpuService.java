@@ -6,6 +6,7 @@ import cn.iocoder.yudao.module.product.controller.admin.spu.vo.ProductSpuSaveReq
 import cn.iocoder.yudao.module.product.controller.admin.spu.vo.ProductSpuUpdateStatusReqVO;
 import cn.iocoder.yudao.module.product.controller.app.spu.vo.AppProductSpuPageReqVO;
 import cn.iocoder.yudao.module.product.dal.dataobject.spu.ProductSpuDO;
+import cn.iocoder.yudao.module.product.service.spu.bo.ProductSpuDetailBO;
 import org.springframework.scheduling.annotation.Async;
 
 import javax.validation.Valid;
@@ -50,6 +51,25 @@ public interface ProductSpuService {
      */
     ProductSpuDO getSpu(Long id);
 
+    /**
+     * 获得商品 SPU 详情，包括 SPU 和 SKU 列表。优先从缓存中读取
+     *
+     * 注意，返回结果可能被多个请求共享，调用方不要修改它
+     *
+     * @param id 编号
+     * @return 商品 SPU 详情
+     */
+    ProductSpuDetailBO getSpuDetail(Long id);
+
+    /**
+     * 删除商品 SPU 详情的缓存
+     *
+     * 商品 SPU、SKU 发生变化时，需要调用该方法。如果在事务中，事务提交后会再删除一次
+     *
+     * @param ids 编号数组
+     */
+    void deleteSpuDetailCache(Collection<Long> ids);
+
     /**
      * 获得商品 SPU 列表
      *
@@ -89,6 +109,16 @@ public interface ProductSpuService {
      */
     void updateSpuStock(Map<Long, Integer> stockIncrCounts);
 
+    /**
+     * 基于 SKU 的库存，异步刷新商品 SPU 库存
+     *
+     * 库存扣减时，不在事务中更新 SPU 库存，避免 SPU 成为热点行
+     *
+     * @param ids 商品 SPU 编号数组
+     */
+    @Async
+    void updateSpuStockBySku(Collection<Long> ids);
+
     /**
      * 更新 SPU 状态
      *
@@ -125,10 +155,16 @@ public interface ProductSpuService {
     /**
      * 更新商品 SPU 浏览量
      *
+     * 先在内存中聚合增量，再定时批量刷新到数据库，避免热点商品的行锁竞争
+     *
      * @param id        商品 SPU 编号
      * @param incrCount 增加的数量
      */
-    @Async
     void updateBrowseCount(Long id, int incrCount);
 
+    /**
+     * 将内存中聚合的浏览量增量，刷新到数据库
+     */
+    void flushBrowseCount();
+
 }
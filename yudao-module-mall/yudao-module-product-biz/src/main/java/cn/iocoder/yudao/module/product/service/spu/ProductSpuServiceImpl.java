@@ -6,6 +6,7 @@ import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.product.controller.admin.category.vo.ProductCategoryListReqVO;
 import cn.iocoder.yudao.module.product.controller.admin.spu.vo.ProductSkuSaveReqVO;
 import cn.iocoder.yudao.module.product.controller.admin.spu.vo.ProductSpuPageReqVO;
@@ -15,18 +16,31 @@ import cn.iocoder.yudao.module.product.controller.app.spu.vo.AppProductSpuPageRe
 import cn.iocoder.yudao.module.product.dal.dataobject.category.ProductCategoryDO;
 import cn.iocoder.yudao.module.product.dal.dataobject.spu.ProductSpuDO;
 import cn.iocoder.yudao.module.product.dal.mysql.spu.ProductSpuMapper;
+import cn.iocoder.yudao.module.product.dal.redis.RedisKeyConstants;
 import cn.iocoder.yudao.module.product.enums.spu.ProductSpuStatusEnum;
 import cn.iocoder.yudao.module.product.service.brand.ProductBrandService;
 import cn.iocoder.yudao.module.product.service.category.ProductCategoryService;
 import cn.iocoder.yudao.module.product.service.sku.ProductSkuService;
+import cn.iocoder.yudao.module.product.service.spu.bo.ProductSpuDetailBO;
 import com.google.common.collect.Maps;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
@@ -40,6 +54,7 @@ import static cn.iocoder.yudao.module.product.enums.ErrorCodeConstants.*;
  */
 @Service
 @Validated
+@Slf4j
 public class ProductSpuServiceImpl implements ProductSpuService {
 
     @Resource
@@ -53,6 +68,16 @@ public class ProductSpuServiceImpl implements ProductSpuService {
     @Resource
     private ProductCategoryService categoryService;
 
+    @Resource
+    private CacheManager cacheManager;
+
+    /**
+     * 待刷新到数据库的浏览量增量，key 为租户编号，value 为「SPU 编号 -> 增量」
+     *
+     * 目的：商品详情是热点读接口，每次访问都 UPDATE 同一行，会产生行锁竞争，所以先在内存中聚合，再定时刷新
+     */
+    private final Map<Long, Map<Long, Integer>> browseCountDeltas = new ConcurrentHashMap<>();
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createSpu(ProductSpuSaveReqVO createReqVO) {
@@ -92,6 +117,8 @@ public class ProductSpuServiceImpl implements ProductSpuService {
         productSpuMapper.updateById(updateObj);
         // 批量更新 SKU
         productSkuService.updateSkuList(updateObj.getId(), updateReqVO.getSkus());
+        // 删除详情缓存
+        deleteSpuDetailCache(Collections.singleton(updateObj.getId()));
     }
 
     /**
@@ -154,7 +181,36 @@ public class ProductSpuServiceImpl implements ProductSpuService {
 
     @Override
     public void updateBrowseCount(Long id, int incrCount) {
-        productSpuMapper.updateBrowseCount(id , incrCount);
+        browseCountDeltas.computeIfAbsent(TenantUtils.getTenantKey(), key -> new ConcurrentHashMap<>())
+                .merge(id, incrCount, Integer::sum);
+    }
+
+    @Override
+    @Scheduled(initialDelay = 5, fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+    @EventListener(ContextClosedEvent.class) // 关闭时，刷新剩余的增量
+    public void flushBrowseCount() {
+        browseCountDeltas.forEach((tenantKey, deltas) -> {
+            // 逐个移除增量。移除是原子的，移除后新增的增量会进入新的 entry，不会丢失
+            Map<Long, Integer> flushDeltas = new HashMap<>();
+            deltas.keySet().forEach(spuId -> {
+                Integer delta = deltas.remove(spuId);
+                if (delta != null && delta != 0) {
+                    flushDeltas.put(spuId, delta);
+                }
+            });
+            if (flushDeltas.isEmpty()) {
+                return;
+            }
+            // 刷新到数据库。失败时，放回增量，等待下次刷新
+            TenantUtils.executeByTenantKey(tenantKey, () -> flushDeltas.forEach((spuId, delta) -> {
+                try {
+                    productSpuMapper.updateBrowseCount(spuId, delta);
+                } catch (Exception ex) {
+                    log.error("[flushBrowseCount][tenantId({}) spuId({}) delta({}) 刷新失败]", tenantKey, spuId, delta, ex);
+                    deltas.merge(spuId, delta, Integer::sum);
+                }
+            }));
+        });
     }
 
     @Override
@@ -174,6 +230,8 @@ public class ProductSpuServiceImpl implements ProductSpuService {
         productSpuMapper.deleteById(id);
         // 删除关联的 SKU
         productSkuService.deleteSkuBySpuId(id);
+        // 删除详情缓存
+        deleteSpuDetailCache(Collections.singleton(id));
     }
 
     private void validateSpuExists(Long id) {
@@ -187,6 +245,38 @@ public class ProductSpuServiceImpl implements ProductSpuService {
         return productSpuMapper.selectById(id);
     }
 
+    @Override
+    @Cacheable(cacheNames = RedisKeyConstants.PRODUCT_SPU_DETAIL, key = "#id", unless = "#result == null")
+    public ProductSpuDetailBO getSpuDetail(Long id) {
+        ProductSpuDO spu = productSpuMapper.selectById(id);
+        if (spu == null) {
+            return null;
+        }
+        return new ProductSpuDetailBO(spu, productSkuService.getSkuListBySpuId(id));
+    }
+
+    @Override
+    public void deleteSpuDetailCache(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(RedisKeyConstants.PRODUCT_SPU_DETAIL);
+        if (cache == null || CollUtil.isEmpty(ids)) {
+            return;
+        }
+        ids.forEach(cache::evict);
+        // 事务提交前，其它请求可能读到旧数据并重新写入缓存，所以事务提交后再删除一次
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Set<Long> evictIds = new HashSet<>(ids);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                evictIds.forEach(cache::evict);
+            }
+
+        });
+    }
+
     @Override
     public List<ProductSpuDO> getSpuList(Collection<Long> ids) {
         if (CollUtil.isEmpty(ids)) {
@@ -229,6 +319,16 @@ public class ProductSpuServiceImpl implements ProductSpuService {
     @Transactional(rollbackFor = Exception.class)
     public void updateSpuStock(Map<Long, Integer> stockIncrCounts) {
         stockIncrCounts.forEach((id, incCount) -> productSpuMapper.updateStock(id, incCount));
+        deleteSpuDetailCache(stockIncrCounts.keySet());
+    }
+
+    @Override
+    public void updateSpuStockBySku(Collection<Long> ids) {
+        if (CollUtil.isEmpty(ids)) {
+            return;
+        }
+        productSpuMapper.updateStockBySku(ids);
+        deleteSpuDetailCache(ids);
     }
 
     @Override
@@ -241,6 +341,8 @@ public class ProductSpuServiceImpl implements ProductSpuService {
         // 更新状态
         ProductSpuDO productSpuDO = productSpuMapper.selectById(updateReqVO.getId()).setStatus(updateReqVO.getStatus());
         productSpuMapper.updateById(productSpuDO);
+        // 删除详情缓存
+        deleteSpuDetailCache(Collections.singleton(productSpuDO.getId()));
     }
 
     @Override
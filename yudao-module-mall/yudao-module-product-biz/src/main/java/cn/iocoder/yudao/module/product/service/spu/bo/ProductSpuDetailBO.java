@@ -0,0 +1,32 @@
+package cn.iocoder.yudao.module.product.service.spu.bo;
+
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
+import cn.iocoder.yudao.module.product.dal.dataobject.spu.ProductSpuDO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 商品 SPU 详情 BO，包括 SPU 和 SKU 列表
+ *
+ * 用于商品详情页的缓存，可能被多个请求共享（本地缓存），所以调用方不要修改它
+ *
+ * @author 芋道源码
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSpuDetailBO {
+
+    /**
+     * 商品 SPU
+     */
+    private ProductSpuDO spu;
+    /**
+     * 商品 SKU 列表
+     */
+    private List<ProductSkuDO> skus;
+
+}
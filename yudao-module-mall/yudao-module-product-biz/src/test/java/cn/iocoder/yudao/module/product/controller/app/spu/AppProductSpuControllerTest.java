@@ -0,0 +1,138 @@
+package cn.iocoder.yudao.module.product.controller.app.spu;
+
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.member.api.level.MemberLevelApi;
+import cn.iocoder.yudao.module.member.api.level.dto.MemberLevelRespDTO;
+import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
+import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
+import cn.iocoder.yudao.module.product.controller.app.spu.vo.AppProductSpuDetailRespVO;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
+import cn.iocoder.yudao.module.product.dal.dataobject.spu.ProductSpuDO;
+import cn.iocoder.yudao.module.product.enums.spu.ProductSpuStatusEnum;
+import cn.iocoder.yudao.module.product.service.history.ProductBrowseHistoryService;
+import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
+import cn.iocoder.yudao.module.product.service.spu.bo.ProductSpuDetailBO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link AppProductSpuController} 商品详情的单元测试，覆盖详情缓存上叠加的会员等级 vip 价格
+ *
+ * @author 芋道源码
+ */
+public class AppProductSpuControllerTest extends BaseMockitoUnitTest {
+
+    private static final Long SPU_ID = 1L;
+    private static final Long USER_ID = 100L;
+
+    @InjectMocks
+    private AppProductSpuController appProductSpuController;
+
+    @Mock
+    private ProductSpuService productSpuService;
+    @Mock
+    private ProductBrowseHistoryService productBrowseHistoryService;
+    @Mock
+    private MemberLevelApi memberLevelApi;
+    @Mock
+    private MemberUserApi memberUserApi;
+
+    private MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMockedStatic;
+
+    private ProductSpuDetailBO spuDetail;
+
+    @BeforeEach
+    public void setUp() {
+        securityFrameworkUtilsMockedStatic = mockStatic(SecurityFrameworkUtils.class);
+        // mock 方法：缓存中的商品详情
+        ProductSpuDO spu = new ProductSpuDO().setId(SPU_ID).setName("芋道").setPrice(100)
+                .setStatus(ProductSpuStatusEnum.ENABLE.getStatus()).setBrowseCount(10).setVirtualSalesCount(5);
+        spuDetail = new ProductSpuDetailBO(spu, Collections.singletonList(
+                new ProductSkuDO().setId(10L).setSpuId(SPU_ID).setPrice(100)));
+        when(productSpuService.getSpuDetail(eq(SPU_ID))).thenReturn(spuDetail);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        securityFrameworkUtilsMockedStatic.close();
+    }
+
+    @Test
+    public void testGetSpuDetail_vipPrice() {
+        // mock 数据：用户是 9 折会员
+        mockLoginUser(USER_ID);
+        when(memberUserApi.getUser(eq(USER_ID))).thenReturn(new MemberUserRespDTO().setId(USER_ID).setLevelId(1L));
+        when(memberLevelApi.getMemberLevel(eq(1L))).thenReturn(new MemberLevelRespDTO().setId(1L).setDiscountPercent(90));
+
+        // 调用：连续访问两次
+        AppProductSpuDetailRespVO first = appProductSpuController.getSpuDetail(SPU_ID).getData();
+        AppProductSpuDetailRespVO second = appProductSpuController.getSpuDetail(SPU_ID).getData();
+        // 断言：vip 价格
+        assertEquals(10, first.getVipPrice());
+        assertEquals(10, second.getVipPrice());
+        assertEquals(1, first.getSkus().size());
+        // 断言：会员等级被缓存，只查询一次
+        verify(memberUserApi, times(1)).getUser(anyLong());
+        verify(memberLevelApi, times(1)).getMemberLevel(anyLong());
+        // 断言：缓存的商品详情，没有被修改
+        assertEquals(10, spuDetail.getSpu().getBrowseCount());
+        assertEquals(100, spuDetail.getSpu().getPrice());
+    }
+
+    @Test
+    public void testGetSpuDetail_noLevel() {
+        // mock 数据：用户没有会员等级
+        mockLoginUser(USER_ID);
+        when(memberUserApi.getUser(eq(USER_ID))).thenReturn(new MemberUserRespDTO().setId(USER_ID));
+
+        // 调用：连续访问两次
+        AppProductSpuDetailRespVO first = appProductSpuController.getSpuDetail(SPU_ID).getData();
+        AppProductSpuDetailRespVO second = appProductSpuController.getSpuDetail(SPU_ID).getData();
+        // 断言：没有 vip 价格；没有会员等级，也会被缓存
+        assertEquals(0, first.getVipPrice());
+        assertEquals(0, second.getVipPrice());
+        verify(memberUserApi, times(1)).getUser(anyLong());
+        verify(memberLevelApi, never()).getMemberLevel(anyLong());
+    }
+
+    @Test
+    public void testGetSpuDetail_perUser() {
+        // mock 数据：用户 100 是 9 折会员，用户 200 不是会员
+        when(memberUserApi.getUser(eq(USER_ID))).thenReturn(new MemberUserRespDTO().setId(USER_ID).setLevelId(1L));
+        when(memberLevelApi.getMemberLevel(eq(1L))).thenReturn(new MemberLevelRespDTO().setId(1L).setDiscountPercent(90));
+        when(memberUserApi.getUser(eq(200L))).thenReturn(new MemberUserRespDTO().setId(200L));
+
+        // 调用，并断言：同一个商品详情，按用户叠加不同的 vip 价格
+        mockLoginUser(USER_ID);
+        assertEquals(10, appProductSpuController.getSpuDetail(SPU_ID).getData().getVipPrice());
+        mockLoginUser(200L);
+        assertEquals(0, appProductSpuController.getSpuDetail(SPU_ID).getData().getVipPrice());
+    }
+
+    @Test
+    public void testGetSpuDetail_anonymous() {
+        // 调用：未登录
+        AppProductSpuDetailRespVO spuVO = appProductSpuController.getSpuDetail(SPU_ID).getData();
+        // 断言
+        assertEquals(0, spuVO.getVipPrice());
+        verifyNoInteractions(memberUserApi, memberLevelApi);
+        verify(productSpuService).updateBrowseCount(eq(SPU_ID), eq(1));
+    }
+
+    private void mockLoginUser(Long userId) {
+        securityFrameworkUtilsMockedStatic.when(SecurityFrameworkUtils::getLoginUserId).thenReturn(userId);
+    }
+
+}
@@ -0,0 +1,56 @@
+package cn.iocoder.yudao.module.product.service.history;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.product.dal.dataobject.history.ProductBrowseHistoryDO;
+import cn.iocoder.yudao.module.product.dal.mysql.history.ProductBrowseHistoryMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link ProductBrowseHistoryServiceImpl} 的单元测试类
+ *
+ * @author 芋道源码
+ */
+public class ProductBrowseHistoryServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private ProductBrowseHistoryServiceImpl browseHistoryService;
+
+    @Mock
+    private ProductBrowseHistoryMapper browseHistoryMapper;
+
+    @Test
+    public void testCreateBrowseHistoryList() {
+        // 准备参数（用户 1 浏览了商品 10、20）
+        List<ProductBrowseHistoryDO> histories = asList(
+                new ProductBrowseHistoryDO().setUserId(1L).setSpuId(10L),
+                new ProductBrowseHistoryDO().setUserId(1L).setSpuId(20L));
+        // mock 方法（用户 1 已浏览过商品 10；用户 2 浏览过商品 20，不应被删除）
+        when(browseHistoryMapper.selectListByUserIdsAndSpuIds(anyCollection(), anyCollection())).thenReturn(asList(
+                new ProductBrowseHistoryDO().setId(100L).setUserId(1L).setSpuId(10L),
+                new ProductBrowseHistoryDO().setId(200L).setUserId(2L).setSpuId(20L)));
+        // mock 方法（插入后，用户 1 的记录超过上限 2 条）
+        when(browseHistoryMapper.selectCountMapByUserIds(anyCollection())).thenReturn(singletonMap(1L, 102L));
+        Page<ProductBrowseHistoryDO> pageResult = new Page<>();
+        pageResult.setRecords(asList(new ProductBrowseHistoryDO().setId(1L), new ProductBrowseHistoryDO().setId(2L)));
+        when(browseHistoryMapper.selectPageByUserIdOrderByCreateTimeAsc(eq(1L), eq(1), eq(2))).thenReturn(pageResult);
+
+        // 调用
+        browseHistoryService.createBrowseHistoryList(histories);
+        // 断言：只删除同一用户、同一商品的记录；批量插入；删除最早的 2 条记录
+        verify(browseHistoryMapper).deleteBatchIds(eq(singletonList(100L)));
+        verify(browseHistoryMapper).insertBatch(same(histories));
+        verify(browseHistoryMapper).deleteBatchIds(eq(asList(1L, 2L)));
+    }
+
+}
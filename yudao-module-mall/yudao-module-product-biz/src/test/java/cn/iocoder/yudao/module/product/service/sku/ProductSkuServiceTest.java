@@ -7,6 +7,7 @@ import cn.iocoder.yudao.module.product.api.sku.dto.ProductSkuUpdateStockReqDTO;
 import cn.iocoder.yudao.module.product.controller.admin.spu.vo.ProductSkuSaveReqVO;
 import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
 import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuMapper;
+import cn.iocoder.yudao.module.product.framework.sku.config.ProductSkuConfiguration;
 import cn.iocoder.yudao.module.product.service.property.ProductPropertyService;
 import cn.iocoder.yudao.module.product.service.property.ProductPropertyValueService;
 import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
@@ -35,7 +36,7 @@ import static org.mockito.Mockito.verify;
  * @author 芋道源码
  */
 @Disabled // TODO 芋艿：后续 fix 补充的单测
-@Import(ProductSkuServiceImpl.class)
+@Import({ProductSkuServiceImpl.class, ProductSkuConfiguration.class})
 public class ProductSkuServiceTest extends BaseDbUnitTest {
 
     @Resource
@@ -50,6 +51,8 @@ public class ProductSkuServiceTest extends BaseDbUnitTest {
     private ProductPropertyService productPropertyService;
     @MockBean
     private ProductPropertyValueService productPropertyValueService;
+    @MockBean
+    private ProductSkuStockBucketService productSkuStockBucketService;
 
     public Long generateId() {
         return RandomUtil.randomLong(100000, 999999);
@@ -122,9 +125,9 @@ public class ProductSkuServiceTest extends BaseDbUnitTest {
         // 断言
         ProductSkuDO sku = productSkuMapper.selectById(1L);
         assertEquals(sku.getStock(), 30);
-        verify(productSpuService).updateSpuStock(argThat(spuStockIncrCounts -> {
-            assertEquals(spuStockIncrCounts.size(), 1);
-            assertEquals(spuStockIncrCounts.get(10L), 10);
+        verify(productSpuService).updateSpuStockBySku(argThat(spuIds -> {
+            assertEquals(spuIds.size(), 1);
+            assertTrue(spuIds.contains(10L));
             return true;
         }));
     }
@@ -149,9 +152,9 @@ public class ProductSkuServiceTest extends BaseDbUnitTest {
         // 断言
         ProductSkuDO sku = productSkuMapper.selectById(1L);
         assertEquals(sku.getStock(), 10);
-        verify(productSpuService).updateSpuStock(argThat(spuStockIncrCounts -> {
-            assertEquals(spuStockIncrCounts.size(), 1);
-            assertEquals(spuStockIncrCounts.get(10L), -10);
+        verify(productSpuService).updateSpuStockBySku(argThat(spuIds -> {
+            assertEquals(spuIds.size(), 1);
+            assertTrue(spuIds.contains(10L));
             return true;
         }));
     }
@@ -0,0 +1,190 @@
+package cn.iocoder.yudao.module.product.service.sku;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuStockBucketDO;
+import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuMapper;
+import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuStockBucketMapper;
+import cn.iocoder.yudao.module.product.framework.sku.config.ProductSkuProperties;
+import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
+import static cn.iocoder.yudao.module.product.enums.ErrorCodeConstants.SKU_NOT_EXISTS;
+import static cn.iocoder.yudao.module.product.enums.ErrorCodeConstants.SKU_STOCK_NOT_ENOUGH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link ProductSkuStockBucketServiceImpl} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@Import(ProductSkuStockBucketServiceImpl.class)
+public class ProductSkuStockBucketServiceImplTest extends BaseDbUnitTest {
+
+    @Resource
+    private ProductSkuStockBucketServiceImpl productSkuStockBucketService;
+
+    @Resource
+    private ProductSkuStockBucketMapper productSkuStockBucketMapper;
+    @Resource
+    private ProductSkuMapper productSkuMapper;
+
+    @MockBean
+    private ProductSpuService productSpuService;
+    @MockBean
+    private ProductSkuProperties productSkuProperties;
+
+    @BeforeEach
+    public void setUp() {
+        when(productSkuProperties.getStockBucketCount()).thenReturn(4);
+    }
+
+    @Test
+    public void testUpdateStock_initBuckets() {
+        // mock 数据
+        Long skuId = createSku(10);
+
+        // 调用：扣减 1 个，初始化分桶
+        productSkuStockBucketService.updateStock(Collections.singletonMap(skuId, -1));
+        // 断言：10 个库存均分为 [3, 3, 2, 2] 4 个分桶，再从其中一个分桶扣减
+        List<Integer> stocks = getBucketStocks(skuId);
+        assertEquals(4, stocks.size());
+        assertEquals(9, sum(stocks));
+    }
+
+    @Test
+    public void testUpdateStock_skuNotExists() {
+        // 调用，并断言异常
+        assertServiceException(() -> productSkuStockBucketService.updateStock(Collections.singletonMap(1L, -1)),
+                SKU_NOT_EXISTS);
+    }
+
+    @Test
+    public void testUpdateStock_decrAcrossBuckets() {
+        // mock 数据
+        Long skuId = createSku(10);
+
+        // 调用：逐个扣减，分散到不同分桶，直到全部扣完
+        for (int i = 0; i < 10; i++) {
+            productSkuStockBucketService.updateStock(Collections.singletonMap(skuId, -1));
+        }
+        // 断言
+        assertEquals(Arrays.asList(0, 0, 0, 0), getBucketStocks(skuId));
+        assertServiceException(() -> productSkuStockBucketService.updateStock(Collections.singletonMap(skuId, -1)),
+                SKU_STOCK_NOT_ENOUGH);
+    }
+
+    @Test
+    public void testUpdateStock_decrWhenOtherBucketsEmpty() {
+        // mock 数据：只有一个分桶有库存
+        Long skuId = createSku(0);
+        createBuckets(skuId, 0, 5, 0, 0);
+
+        // 调用：无论从哪个分桶开始，都会扣减有库存的分桶
+        productSkuStockBucketService.updateStock(Collections.singletonMap(skuId, -2));
+        // 断言：不需要再平衡
+        assertEquals(Arrays.asList(0, 3, 0, 0), getBucketStocks(skuId));
+    }
+
+    @Test
+    public void testUpdateStock_mergeBack() {
+        // mock 数据：总库存足够，但是没有单个分桶足够
+        Long skuId = createSku(0);
+        createBuckets(skuId, 2, 2, 2, 2);
+
+        // 调用
+        productSkuStockBucketService.updateStock(Collections.singletonMap(skuId, -5));
+        // 断言：合并扣减后，剩余 3 个重新均分
+        assertEquals(Arrays.asList(1, 1, 1, 0), getBucketStocks(skuId));
+    }
+
+    @Test
+    public void testUpdateStock_notEnough() {
+        // mock 数据
+        Long skuId = createSku(0);
+        createBuckets(skuId, 1, 1, 1, 1);
+
+        // 调用，并断言异常
+        assertServiceException(() -> productSkuStockBucketService.updateStock(Collections.singletonMap(skuId, -5)),
+                SKU_STOCK_NOT_ENOUGH);
+        // 断言：库存不变
+        assertEquals(Arrays.asList(1, 1, 1, 1), getBucketStocks(skuId));
+    }
+
+    @Test
+    public void testUpdateStock_incr() {
+        // mock 数据
+        Long skuId = createSku(0);
+        createBuckets(skuId, 1, 1, 1, 1);
+
+        // 调用
+        productSkuStockBucketService.updateStock(Collections.singletonMap(skuId, 3));
+        // 断言：增加到其中一个分桶
+        assertEquals(7, sum(getBucketStocks(skuId)));
+    }
+
+    @Test
+    public void testDeleteBuckets() {
+        // mock 数据
+        Long skuId = createSku(0);
+        createBuckets(skuId, 1, 1, 1, 1);
+
+        // 调用
+        productSkuStockBucketService.deleteBuckets(Collections.singleton(skuId));
+        // 断言
+        assertEquals(0, getBucketStocks(skuId).size());
+    }
+
+    @Test
+    public void testUpdateSkuStockByBucket() {
+        // mock 数据
+        Long skuId = createSku(100);
+        createBuckets(skuId, 1, 2, 3, 4);
+        Long noBucketSkuId = createSku(50); // 没有分桶，例如说后台刚修改了库存
+
+        // 调用
+        productSkuStockBucketService.updateSkuStockByBucket(Arrays.asList(skuId, noBucketSkuId),
+                Collections.singleton(1L));
+        // 断言：SKU 库存为分桶库存之和；没有分桶的 SKU，不进行覆盖
+        assertEquals(10, productSkuMapper.selectById(skuId).getStock());
+        assertEquals(50, productSkuMapper.selectById(noBucketSkuId).getStock());
+        // 断言：刷新 SPU 库存
+        verify(productSpuService).updateSpuStockBySku(eq(Collections.singleton(1L)));
+    }
+
+    private Long createSku(int stock) {
+        ProductSkuDO sku = randomPojo(ProductSkuDO.class, o -> o.setSpuId(1L).setStock(stock).setProperties(null));
+        productSkuMapper.insert(sku);
+        return sku.getId();
+    }
+
+    private void createBuckets(Long skuId, Integer... stocks) {
+        for (int i = 0; i < stocks.length; i++) {
+            productSkuStockBucketMapper.insert(new ProductSkuStockBucketDO().setSkuId(skuId).setBucketNo(i)
+                    .setStock(stocks[i]));
+        }
+    }
+
+    private List<Integer> getBucketStocks(Long skuId) {
+        return convertList(productSkuStockBucketMapper.selectListBySkuId(skuId), ProductSkuStockBucketDO::getStock);
+    }
+
+    private static int sum(List<Integer> stocks) {
+        return stocks.stream().mapToInt(Integer::intValue).sum();
+    }
+
+}
@@ -0,0 +1,119 @@
+package cn.iocoder.yudao.module.product.service.spu;
+
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.product.dal.mysql.spu.ProductSpuMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link ProductSpuServiceImpl} 浏览量合并刷新的单元测试
+ *
+ * @author 芋道源码
+ */
+public class ProductSpuServiceBrowseCountTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private ProductSpuServiceImpl productSpuService;
+
+    @Mock
+    private ProductSpuMapper productSpuMapper;
+
+    @AfterEach
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testFlushBrowseCount_merge() {
+        // 准备参数：同一商品的多次浏览，合并为一次更新
+        productSpuService.updateBrowseCount(1L, 1);
+        productSpuService.updateBrowseCount(1L, 2);
+        productSpuService.updateBrowseCount(2L, 1);
+
+        // 调用
+        productSpuService.flushBrowseCount();
+        // 断言
+        verify(productSpuMapper).updateBrowseCount(eq(1L), eq(3));
+        verify(productSpuMapper).updateBrowseCount(eq(2L), eq(1));
+
+        // 调用：再次刷新，增量已经被取出，不会重复更新
+        productSpuService.flushBrowseCount();
+        // 断言
+        verify(productSpuMapper, times(2)).updateBrowseCount(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testFlushBrowseCount_concurrentIncrement() {
+        // 准备参数
+        productSpuService.updateBrowseCount(1L, 1);
+        // mock 方法：刷新过程中，又有新的浏览
+        doAnswer(invocation -> {
+            productSpuService.updateBrowseCount(1L, 5);
+            return null;
+        }).doNothing().when(productSpuMapper).updateBrowseCount(eq(1L), anyInt());
+
+        // 调用
+        productSpuService.flushBrowseCount();
+        // 断言：只刷新取出时的增量
+        verify(productSpuMapper).updateBrowseCount(eq(1L), eq(1));
+
+        // 调用：刷新过程中新增的浏览，在下一次刷新，不会丢失
+        productSpuService.flushBrowseCount();
+        // 断言
+        verify(productSpuMapper).updateBrowseCount(eq(1L), eq(5));
+    }
+
+    @Test
+    public void testFlushBrowseCount_failure() {
+        // 准备参数
+        productSpuService.updateBrowseCount(1L, 3);
+        productSpuService.updateBrowseCount(2L, 1);
+        // mock 方法：商品 1 第一次刷新失败
+        doThrow(new RuntimeException("模拟数据库异常")).doNothing()
+                .when(productSpuMapper).updateBrowseCount(eq(1L), anyInt());
+
+        // 调用
+        productSpuService.flushBrowseCount();
+        // 断言：商品 1 失败，不影响商品 2
+        verify(productSpuMapper).updateBrowseCount(eq(1L), eq(3));
+        verify(productSpuMapper).updateBrowseCount(eq(2L), eq(1));
+
+        // 调用：失败的增量被放回，和之后的浏览合并
+        productSpuService.updateBrowseCount(1L, 2);
+        productSpuService.flushBrowseCount();
+        // 断言
+        verify(productSpuMapper).updateBrowseCount(eq(1L), eq(5));
+        verify(productSpuMapper, times(1)).updateBrowseCount(eq(2L), anyInt());
+    }
+
+    @Test
+    public void testFlushBrowseCount_tenant() {
+        // 准备参数：租户 1 的浏览
+        TenantContextHolder.setTenantId(1L);
+        productSpuService.updateBrowseCount(1L, 1);
+        TenantContextHolder.clear();
+        // mock 方法：记录刷新时的租户
+        AtomicReference<Long> tenantId = new AtomicReference<>();
+        doAnswer(invocation -> {
+            tenantId.set(TenantContextHolder.getTenantId());
+            return null;
+        }).when(productSpuMapper).updateBrowseCount(eq(1L), eq(1));
+
+        // 调用：定时任务的线程中，没有租户
+        productSpuService.flushBrowseCount();
+        // 断言：使用浏览时的租户刷新
+        assertEquals(1L, tenantId.get());
+    }
+
+}
@@ -0,0 +1,146 @@
+package cn.iocoder.yudao.module.product.service.spu;
+
+import cn.iocoder.yudao.framework.redis.config.YudaoCacheAutoConfiguration;
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import cn.iocoder.yudao.module.product.controller.admin.spu.vo.ProductSpuUpdateStatusReqVO;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
+import cn.iocoder.yudao.module.product.dal.dataobject.spu.ProductSpuDO;
+import cn.iocoder.yudao.module.product.dal.mysql.spu.ProductSpuMapper;
+import cn.iocoder.yudao.module.product.dal.redis.RedisKeyConstants;
+import cn.iocoder.yudao.module.product.enums.spu.ProductSpuStatusEnum;
+import cn.iocoder.yudao.module.product.service.brand.ProductBrandService;
+import cn.iocoder.yudao.module.product.service.category.ProductCategoryService;
+import cn.iocoder.yudao.module.product.service.sku.ProductSkuService;
+import cn.iocoder.yudao.module.product.service.spu.bo.ProductSpuDetailBO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.Resource;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link ProductSpuServiceImpl} 商品详情缓存的单元测试
+ *
+ * @author 芋道源码
+ */
+@Import({ProductSpuServiceImpl.class, YudaoCacheAutoConfiguration.class})
+public class ProductSpuServiceDetailCacheTest extends BaseRedisUnitTest {
+
+    private static final Long SPU_ID = 1L;
+
+    @Resource
+    private ProductSpuServiceImpl productSpuService;
+
+    @Resource
+    private CacheManager cacheManager;
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @MockBean
+    private ProductSpuMapper productSpuMapper;
+    @MockBean
+    private ProductSkuService productSkuService;
+    @MockBean
+    private ProductBrandService brandService;
+    @MockBean
+    private ProductCategoryService categoryService;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.getRequiredConnectionFactory().getConnection().flushDb();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testGetSpuDetail_readThrough() {
+        // mock 数据
+        mockSpu();
+
+        // 调用：第一次读取数据库，第二次读取缓存
+        ProductSpuDetailBO detail = productSpuService.getSpuDetail(SPU_ID);
+        ProductSpuDetailBO cachedDetail = productSpuService.getSpuDetail(SPU_ID);
+        // 断言
+        assertEquals("芋道", detail.getSpu().getName());
+        assertEquals(1, detail.getSkus().size());
+        assertEquals(detail, cachedDetail);
+        verify(productSpuMapper, times(1)).selectById(eq(SPU_ID));
+        verify(productSkuService, times(1)).getSkuListBySpuId(eq(SPU_ID));
+    }
+
+    @Test
+    public void testGetSpuDetail_notExists() {
+        // 调用
+        assertNull(productSpuService.getSpuDetail(SPU_ID));
+        assertNull(productSpuService.getSpuDetail(SPU_ID));
+        // 断言：不存在的商品，不缓存
+        verify(productSpuMapper, times(2)).selectById(eq(SPU_ID));
+        assertNull(getCache().get(SPU_ID));
+    }
+
+    @Test
+    public void testDeleteSpuDetailCache_noTransaction() {
+        // mock 数据
+        mockSpu();
+        productSpuService.getSpuDetail(SPU_ID);
+        assertNotNull(getCache().get(SPU_ID));
+
+        // 调用
+        productSpuService.deleteSpuDetailCache(Collections.singleton(SPU_ID));
+        // 断言：不在事务中，立即删除
+        assertNull(getCache().get(SPU_ID));
+    }
+
+    @Test
+    public void testUpdateSpuStatus_evictAfterCommit() {
+        // mock 数据
+        mockSpu();
+        productSpuService.getSpuDetail(SPU_ID);
+        // 模拟开启事务
+        TransactionSynchronizationManager.initSynchronization();
+
+        // 调用
+        productSpuService.updateSpuStatus(new ProductSpuUpdateStatusReqVO().setId(SPU_ID)
+                .setStatus(ProductSpuStatusEnum.DISABLE.getStatus()));
+        // 断言：立即删除
+        assertNull(getCache().get(SPU_ID));
+
+        // 调用：事务提交前，其它请求读到旧数据，重新写入缓存
+        productSpuService.getSpuDetail(SPU_ID);
+        assertNotNull(getCache().get(SPU_ID));
+        // 模拟提交事务
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        // 断言：事务提交后，再次删除
+        assertNull(getCache().get(SPU_ID));
+    }
+
+    private void mockSpu() {
+        ProductSpuDO spu = new ProductSpuDO().setId(SPU_ID).setName("芋道")
+                .setStatus(ProductSpuStatusEnum.ENABLE.getStatus());
+        when(productSpuMapper.selectById(eq(SPU_ID))).thenReturn(spu);
+        when(productSkuService.getSkuListBySpuId(eq(SPU_ID))).thenReturn(Collections.singletonList(
+                new ProductSkuDO().setId(10L).setSpuId(SPU_ID).setPrice(100).setStock(10)));
+    }
+
+    private Cache getCache() {
+        return cacheManager.getCache(RedisKeyConstants.PRODUCT_SPU_DETAIL);
+    }
+
+}
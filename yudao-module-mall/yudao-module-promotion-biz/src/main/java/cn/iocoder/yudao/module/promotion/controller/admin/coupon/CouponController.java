@@ -14,6 +14,7 @@ import cn.iocoder.yudao.module.promotion.dal.dataobject.coupon.CouponDO;
 import cn.iocoder.yudao.module.promotion.service.coupon.CouponService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -71,4 +72,17 @@ public class CouponController {
         return success(true);
     }
 
+    @PostMapping("/send-all")
+    @Operation(summary = "给全部会员发送优惠劵", description = "异步发放，进度见日志；失败时可传入 lastUserId 继续发放")
+    @Parameters({
+            @Parameter(name = "templateId", description = "优惠劵模板编号", required = true, example = "1024"),
+            @Parameter(name = "lastUserId", description = "从该用户编号之后开始发放", example = "2048")
+    })
+    @PreAuthorize("@ss.hasPermission('promotion:coupon:send')")
+    public CommonResult<Boolean> sendCouponToAllUser(@RequestParam("templateId") Long templateId,
+                                                     @RequestParam(value = "lastUserId", required = false) Long lastUserId) {
+        couponService.takeCouponByAdminForAllUser(templateId, lastUserId);
+        return success(true);
+    }
+
 }
@@ -117,4 +117,17 @@ public interface BargainActivityMapper extends BaseMapperX<BargainActivityDO> {
                 .orderByDesc(BargainActivityDO::getCreateTime));
     }
 
+    /**
+     * 获得指定状态，且结束时间晚于 endTime 的活动列表，即进行中、未开始的活动
+     *
+     * @param status  状态
+     * @param endTime 结束时间
+     * @return 活动列表
+     */
+    default List<BargainActivityDO> selectListByStatusAndEndTimeGt(Integer status, LocalDateTime endTime) {
+        return selectList(new LambdaQueryWrapperX<BargainActivityDO>()
+                .eq(BargainActivityDO::getStatus, status)
+                .gt(BargainActivityDO::getEndTime, endTime));
+    }
+
 }
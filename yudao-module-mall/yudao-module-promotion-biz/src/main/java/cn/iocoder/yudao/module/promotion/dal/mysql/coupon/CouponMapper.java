@@ -65,11 +65,16 @@ public interface CouponMapper extends BaseMapperX<CouponDO> {
                 .eq(CouponDO::getStatus, status));
     }
 
-    default List<CouponDO> selectListByTemplateIdAndUserId(Long templateId, Collection<Long> userIds) {
-        return selectList(new LambdaQueryWrapperX<CouponDO>()
+    default Map<Long, Integer> selectCountByTemplateIdAndUserIdIn(Long templateId, Collection<Long> userIds) {
+        String userIdAlias = "userId";
+        String countAlias = "count";
+        List<Map<String, Object>> list = selectMaps(MPJWrappers.lambdaJoin(CouponDO.class)
+                .selectAs(CouponDO::getUserId, userIdAlias)
+                .selectCount(CouponDO::getId, countAlias)
                 .eq(CouponDO::getTemplateId, templateId)
                 .in(CouponDO::getUserId, userIds)
-        );
+                .groupBy(CouponDO::getUserId));
+        return convertMap(list, map -> MapUtil.getLong(map, userIdAlias), map -> MapUtil.getInt(map, countAlias));
     }
 
     default Map<Long, Integer> selectCountByUserIdAndTemplateIdIn(Long userId, Collection<Long> templateIds) {
@@ -100,11 +105,23 @@ public interface CouponMapper extends BaseMapperX<CouponDO> {
                                 .apply(productScopeValuesFindInSetFunc.apply(categoryIds)))));
     }
 
-    default List<CouponDO> selectListByStatusAndValidEndTimeLe(Integer status, LocalDateTime validEndTime) {
-        return selectList(new LambdaQueryWrapperX<CouponDO>()
+    default List<CouponDO> selectIdListByStatusAndValidEndTimeLe(Integer status, LocalDateTime validEndTime,
+                                                                  Long lastId, Integer limit) {
+        LambdaQueryWrapperX<CouponDO> query = new LambdaQueryWrapperX<>();
+        query.select(CouponDO::getId)
                 .eq(CouponDO::getStatus, status)
                 .le(CouponDO::getValidEndTime, validEndTime)
-        );
+                .gt(CouponDO::getId, lastId)
+                .orderByAsc(CouponDO::getId);
+        return selectList(query.limitN(limit));
+    }
+
+    default int updateByIdInAndStatusAndValidEndTimeLe(Collection<Long> ids, Integer status, LocalDateTime validEndTime,
+                                                       CouponDO updateObj) {
+        return update(updateObj, new LambdaUpdateWrapper<CouponDO>()
+                .in(CouponDO::getId, ids)
+                .eq(CouponDO::getStatus, status)
+                .le(CouponDO::getValidEndTime, validEndTime));
     }
 
 }
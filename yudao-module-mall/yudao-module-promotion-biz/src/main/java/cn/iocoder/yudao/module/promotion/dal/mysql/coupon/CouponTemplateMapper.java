@@ -46,6 +46,14 @@ public interface CouponTemplateMapper extends BaseMapperX<CouponTemplateDO> {
                 .setSql("take_count = take_count + " + incrCount));
     }
 
+    default int updateTakeCountIncr(Long id, Integer incrCount) {
+        return update(null, new LambdaUpdateWrapper<CouponTemplateDO>()
+                .eq(CouponTemplateDO::getId, id)
+                .and(w -> w.eq(CouponTemplateDO::getTotalCount, -1) // 不限制发放数量
+                        .or().apply("take_count + {0} <= total_count", incrCount)) // 剩余数量足够
+                .setSql("take_count = take_count + " + incrCount));
+    }
+
     default List<CouponTemplateDO> selectListByTakeType(Integer takeType) {
         return selectList(CouponTemplateDO::getTakeType, takeType);
     }
@@ -43,4 +43,17 @@ public interface DiscountActivityMapper extends BaseMapperX<DiscountActivityDO>
                 .orderByDesc(DiscountActivityDO::getCreateTime));
     }
 
+    /**
+     * 获得指定状态，且结束时间晚于 endTime 的活动列表，即进行中、未开始的活动
+     *
+     * @param status  状态
+     * @param endTime 结束时间
+     * @return 活动列表
+     */
+    default List<DiscountActivityDO> selectListByStatusAndEndTimeGt(Integer status, LocalDateTime endTime) {
+        return selectList(new LambdaQueryWrapperX<DiscountActivityDO>()
+                .eq(DiscountActivityDO::getStatus, status)
+                .gt(DiscountActivityDO::getEndTime, endTime));
+    }
+
 }
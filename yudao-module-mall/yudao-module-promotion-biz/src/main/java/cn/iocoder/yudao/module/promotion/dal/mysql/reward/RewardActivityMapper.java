@@ -66,4 +66,17 @@ public interface RewardActivityMapper extends BaseMapperX<RewardActivityDO> {
         );
     }
 
+    /**
+     * 获得指定状态，且结束时间晚于 endTime 的活动列表，即进行中、未开始的活动
+     *
+     * @param statuses 状态数组
+     * @param endTime  结束时间
+     * @return 活动列表
+     */
+    default List<RewardActivityDO> selectListByStatusAndEndTimeGt(Collection<Integer> statuses, LocalDateTime endTime) {
+        return selectList(new LambdaQueryWrapperX<RewardActivityDO>()
+                .in(RewardActivityDO::getStatus, statuses)
+                .gt(RewardActivityDO::getEndTime, endTime));
+    }
+
 }
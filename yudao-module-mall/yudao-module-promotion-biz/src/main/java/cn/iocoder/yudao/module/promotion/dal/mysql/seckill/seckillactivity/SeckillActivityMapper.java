@@ -69,6 +69,21 @@ public interface SeckillActivityMapper extends BaseMapperX<SeckillActivityDO> {
                 .setSql("stock = stock + " + count));
     }
 
+    /**
+     * 更新活动库存（减少），不校验库存是否充足
+     *
+     * 用于将 Redis 中已扣减的库存，同步到 DB 中
+     *
+     * @param id    活动编号
+     * @param count 扣减的库存数量，负数表示增加库存
+     * @return 影响的行数
+     */
+    default int updateStockDecrForce(Long id, int count) {
+        return update(null, new LambdaUpdateWrapper<SeckillActivityDO>()
+                .eq(SeckillActivityDO::getId, id)
+                .setSql("stock = stock - " + count));
+    }
+
     default PageResult<SeckillActivityDO> selectPage(AppSeckillActivityPageReqVO pageReqVO, Integer status) {
         return selectPage(pageReqVO, new LambdaQueryWrapperX<SeckillActivityDO>()
                 .eqIfPresent(SeckillActivityDO::getStatus, status)
@@ -107,4 +122,17 @@ public interface SeckillActivityMapper extends BaseMapperX<SeckillActivityDO> {
                 .orderByDesc(SeckillActivityDO::getCreateTime));
     }
 
+    /**
+     * 获得指定状态，且结束时间晚于 endTime 的活动列表，即进行中、未开始的活动
+     *
+     * @param status  状态
+     * @param endTime 结束时间
+     * @return 活动列表
+     */
+    default List<SeckillActivityDO> selectListByStatusAndEndTimeGt(Integer status, LocalDateTime endTime) {
+        return selectList(new LambdaQueryWrapperX<SeckillActivityDO>()
+                .eq(SeckillActivityDO::getStatus, status)
+                .gt(SeckillActivityDO::getEndTime, endTime));
+    }
+
 }
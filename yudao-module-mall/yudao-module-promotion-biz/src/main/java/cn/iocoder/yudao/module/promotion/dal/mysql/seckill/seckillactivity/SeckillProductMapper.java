@@ -59,4 +59,21 @@ public interface SeckillProductMapper extends BaseMapperX<SeckillProductDO> {
                 .setSql("stock = stock + " + count));
     }
 
+    /**
+     * 更新活动商品库存（减少），不校验库存是否充足
+     *
+     * 用于将 Redis 中已扣减的库存，同步到 DB 中
+     *
+     * @param activityId 活动编号
+     * @param skuId      商品 SKU 编号
+     * @param count      扣减的库存数量，负数表示增加库存
+     * @return 影响的行数
+     */
+    default int updateStockDecrForce(Long activityId, Long skuId, int count) {
+        return update(null, new LambdaUpdateWrapper<SeckillProductDO>()
+                .eq(SeckillProductDO::getActivityId, activityId)
+                .eq(SeckillProductDO::getSkuId, skuId)
+                .setSql("stock = stock - " + count));
+    }
+
 }
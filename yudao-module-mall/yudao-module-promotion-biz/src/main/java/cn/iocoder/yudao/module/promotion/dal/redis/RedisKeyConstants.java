@@ -0,0 +1,63 @@
+package cn.iocoder.yudao.module.promotion.dal.redis;
+
+/**
+ * 营销 Redis Key 枚举类
+ *
+ * @author 芋道源码
+ */
+public interface RedisKeyConstants {
+
+    /**
+     * 秒杀活动的库存
+     *
+     * KEY 格式：promotion_seckill_stock:{activityId}
+     * VALUE 数据格式：HASH // key：SKU 编号；value：剩余库存
+     * 过期时间：活动结束后 1 天
+     */
+    String SECKILL_STOCK = "promotion_seckill_stock:%d";
+
+    /**
+     * 秒杀活动的待同步库存，即 Redis 已扣减、但 DB 未扣减的库存
+     *
+     * KEY 格式：promotion_seckill_stock_pending:{activityId}
+     * VALUE 数据格式：HASH // key：SKU 编号；value：待扣减的库存，负数表示待归还
+     * 过期时间：不过期，同步到 DB 后删除
+     */
+    String SECKILL_STOCK_PENDING = "promotion_seckill_stock_pending:%d";
+
+    /**
+     * 秒杀活动的同步中库存，由 {@link #SECKILL_STOCK_PENDING} 重命名而来
+     *
+     * KEY 格式：promotion_seckill_stock_processing:{activityId}
+     * VALUE 数据格式：HASH // 同 {@link #SECKILL_STOCK_PENDING}
+     * 过期时间：不过期，同步到 DB 后删除
+     */
+    String SECKILL_STOCK_PROCESSING = "promotion_seckill_stock_processing:%d";
+
+    /**
+     * 存在待同步库存的秒杀活动
+     *
+     * KEY 格式：promotion_seckill_stock_pending_activities
+     * VALUE 数据格式：SET // 秒杀活动编号
+     */
+    String SECKILL_STOCK_PENDING_ACTIVITIES = "promotion_seckill_stock_pending_activities";
+
+    /**
+     * 秒杀活动库存的分布式锁，保证库存加载与库存同步互斥
+     *
+     * KEY 格式：promotion_seckill_stock:lock:%d
+     * VALUE 数据格式：HASH // RLock.class：Redisson 的 Lock 锁，使用 Hash 数据结构
+     * 过期时间：不固定
+     */
+    String SECKILL_STOCK_LOCK = "promotion_seckill_stock:lock:%d";
+
+    /**
+     * 优惠劵模板的用户领取数量，用于每人限领的校验
+     *
+     * KEY 格式：promotion_coupon_take_count:{templateId}
+     * VALUE 数据格式：HASH // key：用户编号；value：领取数量
+     * 过期时间：首次加载后 1 天，过期后从 DB 重新加载
+     */
+    String COUPON_TAKE_COUNT = "promotion_coupon_take_count:%d";
+
+}
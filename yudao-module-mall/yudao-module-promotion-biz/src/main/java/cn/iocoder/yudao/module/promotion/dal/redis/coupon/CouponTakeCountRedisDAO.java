@@ -0,0 +1,151 @@
+package cn.iocoder.yudao.module.promotion.dal.redis.coupon;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.convert.Convert;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.module.promotion.dal.redis.RedisKeyConstants.COUPON_TAKE_COUNT;
+
+/**
+ * 优惠劵模板的用户领取数量的 Redis DAO
+ *
+ * 1. 按需从 DB 加载：只加载用到的用户，避免一次性统计整个模板的领取记录
+ * 2. 领取成功后增加数量；未加载的用户不增加，由下次加载时从 DB 统计
+ * 3. 计数与 DB 在并发下可能存在短暂偏差，所以首次加载 1 天后过期，重新从 DB 加载
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class CouponTakeCountRedisDAO {
+
+    /**
+     * 加载领取数量。已存在的用户不进行覆盖，避免覆盖已增加的数量
+     *
+     * KEYS：领取数量
+     * ARGV：过期时间（秒），然后依次为用户编号、领取数量
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "for i = 2, #ARGV, 2 do\n" +
+            "    redis.call('HSETNX', KEYS[1], ARGV[i], ARGV[i + 1])\n" +
+            "end\n" +
+            "if redis.call('TTL', KEYS[1]) < 0 then\n" +
+            "    redis.call('EXPIRE', KEYS[1], ARGV[1])\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    /**
+     * 增加领取数量，只增加已加载的用户
+     *
+     * KEYS：领取数量
+     * ARGV：增加数量，然后依次为用户编号
+     */
+    private static final RedisScript<Long> INCR_SCRIPT = new DefaultRedisScript<>(
+            "for i = 2, #ARGV do\n" +
+            "    if redis.call('HEXISTS', KEYS[1], ARGV[i]) == 1 then\n" +
+            "        redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[1])\n" +
+            "    end\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    /**
+     * 领取数量的过期时间
+     */
+    private static final Duration TAKE_COUNT_EXPIRE = Duration.ofDays(1);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 获得指定模板下，多个用户的领取数量
+     *
+     * @param templateId 优惠劵模板编号
+     * @param userIds 用户编号数组
+     * @return 领取数量，key：用户编号。未加载的用户，不在结果中
+     */
+    public Map<Long, Integer> getTakeCountMap(Long templateId, Collection<Long> userIds) {
+        List<Long> userIdList = new ArrayList<>(userIds);
+        List<Object> counts = stringRedisTemplate.opsForHash().multiGet(formatKey(templateId),
+                new ArrayList<>(convertList(userIdList, String::valueOf)));
+        return toTakeCountMap(userIdList, counts);
+    }
+
+    /**
+     * 获得指定用户，在多个模板下的领取数量
+     *
+     * @param templateIds 优惠劵模板编号数组
+     * @param userId 用户编号
+     * @return 领取数量，key：优惠劵模板编号。未加载的模板，不在结果中
+     */
+    public Map<Long, Integer> getTakeCountMap(Collection<Long> templateIds, Long userId) {
+        List<Long> templateIdList = new ArrayList<>(templateIds);
+        byte[] field = userId.toString().getBytes(StandardCharsets.UTF_8);
+        List<Object> counts = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            templateIdList.forEach(templateId -> connection.hashCommands()
+                    .hGet(formatKey(templateId).getBytes(StandardCharsets.UTF_8), field));
+            return null;
+        });
+        return toTakeCountMap(templateIdList, counts);
+    }
+
+    /**
+     * 加载领取数量。已加载的用户，不进行覆盖
+     *
+     * @param templateId 优惠劵模板编号
+     * @param userTakeCounts DB 中的领取数量，key：用户编号
+     */
+    public void loadTakeCount(Long templateId, Map<Long, Integer> userTakeCounts) {
+        if (CollUtil.isEmpty(userTakeCounts)) {
+            return;
+        }
+        List<String> args = new ArrayList<>(userTakeCounts.size() * 2 + 1);
+        args.add(String.valueOf(TAKE_COUNT_EXPIRE.getSeconds()));
+        userTakeCounts.forEach((userId, count) -> {
+            args.add(userId.toString());
+            args.add(count.toString());
+        });
+        stringRedisTemplate.execute(LOAD_SCRIPT, Collections.singletonList(formatKey(templateId)), args.toArray());
+    }
+
+    /**
+     * 增加领取数量
+     *
+     * @param templateId 优惠劵模板编号
+     * @param userIds 用户编号数组
+     * @param incrCount 增加数量，负数表示减少
+     */
+    public void incrTakeCount(Long templateId, Collection<Long> userIds, int incrCount) {
+        if (CollUtil.isEmpty(userIds)) {
+            return;
+        }
+        List<String> args = new ArrayList<>(userIds.size() + 1);
+        args.add(String.valueOf(incrCount));
+        userIds.forEach(userId -> args.add(userId.toString()));
+        stringRedisTemplate.execute(INCR_SCRIPT, Collections.singletonList(formatKey(templateId)), args.toArray());
+    }
+
+    private static Map<Long, Integer> toTakeCountMap(List<Long> ids, List<Object> counts) {
+        Map<Long, Integer> result = new HashMap<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Integer count = counts != null && i < counts.size() ? Convert.toInt(counts.get(i), null) : null;
+            if (count != null) {
+                result.put(ids.get(i), count);
+            }
+        }
+        return result;
+    }
+
+    private static String formatKey(Long templateId) {
+        return String.format(COUPON_TAKE_COUNT, templateId);
+    }
+
+}
@@ -0,0 +1,252 @@
+package cn.iocoder.yudao.module.promotion.dal.redis.seckill;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.convert.Convert;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import static cn.iocoder.yudao.module.promotion.dal.redis.RedisKeyConstants.*;
+
+/**
+ * 秒杀活动库存的 Redis DAO
+ *
+ * 1. 库存扣减、归还，通过 Lua 脚本在 Redis 中原子执行，同时记录到待同步库存中
+ * 2. 待同步库存，由 SeckillStockReconcileJob 异步批量同步到 DB
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class SeckillStockRedisDAO {
+
+    /**
+     * 扣减结果：成功
+     */
+    public static final long DECR_SUCCESS = 1L;
+    /**
+     * 扣减结果：库存不足
+     */
+    public static final long DECR_STOCK_NOT_ENOUGH = 0L;
+    /**
+     * 扣减结果：库存未加载
+     */
+    public static final long DECR_NOT_LOADED = -1L;
+
+    /**
+     * 扣减库存
+     *
+     * KEYS：库存、待同步库存、待同步活动
+     * ARGV：SKU 编号、数量、活动编号
+     */
+    private static final RedisScript<Long> DECR_SCRIPT = new DefaultRedisScript<>(
+            "local stock = redis.call('HGET', KEYS[1], ARGV[1])\n" +
+            "if not stock then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "if tonumber(stock) < tonumber(ARGV[2]) then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "redis.call('HINCRBY', KEYS[1], ARGV[1], -tonumber(ARGV[2]))\n" +
+            "redis.call('HINCRBY', KEYS[2], ARGV[1], ARGV[2])\n" +
+            "redis.call('SADD', KEYS[3], ARGV[3])\n" +
+            "return 1", Long.class);
+
+    /**
+     * 归还库存。库存未加载时，只记录待同步库存，加载时会从 DB 库存中扣除
+     *
+     * KEYS：库存、待同步库存、待同步活动
+     * ARGV：SKU 编号、数量、活动编号
+     */
+    private static final RedisScript<Long> INCR_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1 then\n" +
+            "    redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])\n" +
+            "end\n" +
+            "redis.call('HINCRBY', KEYS[2], ARGV[1], -tonumber(ARGV[2]))\n" +
+            "redis.call('SADD', KEYS[3], ARGV[3])\n" +
+            "return 1", Long.class);
+
+    /**
+     * 加载库存：DB 库存，需要扣除尚未同步到 DB 的库存
+     *
+     * KEYS：库存、待同步库存、同步中库存
+     * ARGV：过期时间（秒），然后依次为 SKU 编号、DB 库存
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "for i = 2, #ARGV, 2 do\n" +
+            "    local pending = tonumber(redis.call('HGET', KEYS[2], ARGV[i]) or 0)\n" +
+            "        + tonumber(redis.call('HGET', KEYS[3], ARGV[i]) or 0)\n" +
+            "    redis.call('HSET', KEYS[1], ARGV[i], tonumber(ARGV[i + 1]) - pending)\n" +
+            "end\n" +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1])\n" +
+            "return 1", Long.class);
+
+    /**
+     * 获取待同步库存：重命名为同步中库存后返回；如果存在上次未完成的同步中库存，则直接返回它
+     *
+     * KEYS：待同步库存、同步中库存、待同步活动
+     * ARGV：活动编号
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TAKE_PENDING_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[2]) == 0 then\n" +
+            "    if redis.call('EXISTS', KEYS[1]) == 0 then\n" +
+            "        redis.call('SREM', KEYS[3], ARGV[1])\n" +
+            "        return {}\n" +
+            "    end\n" +
+            "    redis.call('RENAME', KEYS[1], KEYS[2])\n" +
+            "end\n" +
+            "return redis.call('HGETALL', KEYS[2])", List.class);
+
+    /**
+     * 库存过期时间：活动结束后，再保留 1 天
+     */
+    private static final Duration STOCK_EXPIRE_AFTER_END = Duration.ofDays(1);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+    @Resource
+    private RedissonClient redissonClient;
+
+    /**
+     * 扣减库存
+     *
+     * @param activityId 活动编号
+     * @param skuId SKU 编号
+     * @param count 数量
+     * @return 扣减结果，参见 {@link #DECR_SUCCESS}、{@link #DECR_STOCK_NOT_ENOUGH}、{@link #DECR_NOT_LOADED}
+     */
+    public long decrStock(Long activityId, Long skuId, Integer count) {
+        Long result = stringRedisTemplate.execute(DECR_SCRIPT,
+                Arrays.asList(formatKey(SECKILL_STOCK, activityId), formatKey(SECKILL_STOCK_PENDING, activityId),
+                        SECKILL_STOCK_PENDING_ACTIVITIES),
+                skuId.toString(), count.toString(), activityId.toString());
+        return result != null ? result : DECR_NOT_LOADED;
+    }
+
+    /**
+     * 归还库存
+     *
+     * @param activityId 活动编号
+     * @param skuId SKU 编号
+     * @param count 数量
+     */
+    public void incrStock(Long activityId, Long skuId, Integer count) {
+        stringRedisTemplate.execute(INCR_SCRIPT,
+                Arrays.asList(formatKey(SECKILL_STOCK, activityId), formatKey(SECKILL_STOCK_PENDING, activityId),
+                        SECKILL_STOCK_PENDING_ACTIVITIES),
+                skuId.toString(), count.toString(), activityId.toString());
+    }
+
+    /**
+     * 获得剩余库存
+     *
+     * @param activityId 活动编号
+     * @param skuId SKU 编号
+     * @return 剩余库存；未加载时，返回 null
+     */
+    public Integer getStock(Long activityId, Long skuId) {
+        Object stock = stringRedisTemplate.opsForHash().get(formatKey(SECKILL_STOCK, activityId), skuId.toString());
+        return Convert.toInt(stock, null);
+    }
+
+    public boolean hasStock(Long activityId) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(formatKey(SECKILL_STOCK, activityId)));
+    }
+
+    /**
+     * 加载库存。如果已经加载，则不进行覆盖
+     *
+     * @param activityId 活动编号
+     * @param skuStocks DB 库存，key：SKU 编号
+     * @param endTime 活动结束时间
+     */
+    public void loadStock(Long activityId, Map<Long, Integer> skuStocks, LocalDateTime endTime) {
+        Duration expire = STOCK_EXPIRE_AFTER_END;
+        if (endTime != null && endTime.isAfter(LocalDateTime.now())) {
+            expire = expire.plus(Duration.between(LocalDateTime.now(), endTime));
+        }
+        List<String> args = new ArrayList<>(skuStocks.size() * 2 + 1);
+        args.add(String.valueOf(expire.getSeconds()));
+        skuStocks.forEach((skuId, stock) -> {
+            args.add(skuId.toString());
+            args.add(stock.toString());
+        });
+        stringRedisTemplate.execute(LOAD_SCRIPT,
+                Arrays.asList(formatKey(SECKILL_STOCK, activityId), formatKey(SECKILL_STOCK_PENDING, activityId),
+                        formatKey(SECKILL_STOCK_PROCESSING, activityId)),
+                args.toArray());
+    }
+
+    public void deleteStock(Long activityId) {
+        stringRedisTemplate.delete(formatKey(SECKILL_STOCK, activityId));
+    }
+
+    /**
+     * 获得存在待同步库存的活动编号
+     *
+     * @return 活动编号
+     */
+    public Set<Long> getPendingActivityIds() {
+        Set<String> activityIds = stringRedisTemplate.opsForSet().members(SECKILL_STOCK_PENDING_ACTIVITIES);
+        return CollUtil.isEmpty(activityIds) ? Collections.emptySet() : convertSet(activityIds, Long::valueOf);
+    }
+
+    /**
+     * 获取待同步库存，并标记为同步中。同步到 DB 后，需要调用 {@link #removeProcessingStock(Long)} 方法
+     *
+     * @param activityId 活动编号
+     * @return 待同步库存，key：SKU 编号；value：待扣减的库存，负数表示待归还
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, Integer> takePendingStock(Long activityId) {
+        List<String> result = stringRedisTemplate.execute(TAKE_PENDING_SCRIPT,
+                Arrays.asList(formatKey(SECKILL_STOCK_PENDING, activityId), formatKey(SECKILL_STOCK_PROCESSING, activityId),
+                        SECKILL_STOCK_PENDING_ACTIVITIES),
+                activityId.toString());
+        if (CollUtil.isEmpty(result)) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Integer> skuCounts = new HashMap<>(result.size() / 2);
+        for (int i = 0; i + 1 < result.size(); i += 2) {
+            skuCounts.put(Long.valueOf(result.get(i)), Integer.valueOf(result.get(i + 1)));
+        }
+        return skuCounts;
+    }
+
+    public void removeProcessingStock(Long activityId) {
+        stringRedisTemplate.delete(formatKey(SECKILL_STOCK_PROCESSING, activityId));
+    }
+
+    /**
+     * 基于活动编号加锁，保证库存加载与库存同步互斥
+     *
+     * @param activityId 活动编号
+     * @param runnable 逻辑
+     */
+    public void lock(Long activityId, Runnable runnable) {
+        RLock lock = redissonClient.getLock(formatKey(SECKILL_STOCK_LOCK, activityId));
+        lock.lock();
+        try {
+            runnable.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String formatKey(String format, Long activityId) {
+        return String.format(format, activityId);
+    }
+
+}
@@ -12,6 +12,8 @@ import javax.annotation.Resource;
 /**
  * 拼团过期 Job
  *
+ * 拼团过期主要由 CombinationRecordExpireMessage 延迟消息准时触发，该 Job 只作为兜底，处理延迟消息丢失的拼团，可以低频执行
+ *
  * @author HUIHUI
  */
 @Component
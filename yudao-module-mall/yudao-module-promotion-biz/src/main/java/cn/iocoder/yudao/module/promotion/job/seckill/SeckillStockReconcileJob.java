@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.module.promotion.job.seckill;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.quartz.core.handler.JobHandler;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.promotion.service.seckill.SeckillActivityService;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 秒杀库存同步 Job，将 Redis 中已扣减、归还的秒杀库存，批量同步到 DB 中
+ *
+ * 由于 Redis 中的待同步库存，不区分租户，所以忽略租户执行。建议配置为每 10 秒执行一次
+ *
+ * @author 芋道源码
+ */
+@Component
+public class SeckillStockReconcileJob implements JobHandler {
+
+    @Resource
+    private SeckillActivityService seckillActivityService;
+
+    @Override
+    public String execute(String param) {
+        int count = TenantUtils.executeIgnore(() -> seckillActivityService.reconcileSeckillStock());
+        return StrUtil.format("同步秒杀活动库存 {} 个", count);
+    }
+
+}
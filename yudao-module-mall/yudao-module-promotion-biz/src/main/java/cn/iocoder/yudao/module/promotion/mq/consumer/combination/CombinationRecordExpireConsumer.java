@@ -0,0 +1,31 @@
+package cn.iocoder.yudao.module.promotion.mq.consumer.combination;
+
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import cn.iocoder.yudao.module.promotion.mq.message.combination.CombinationRecordExpireMessage;
+import cn.iocoder.yudao.module.promotion.service.combination.CombinationRecordService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link CombinationRecordExpireMessage} 的消费者
+ *
+ * 消息至少投递一次，所以处理逻辑需要幂等：拼团已不是进行中时，直接忽略
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class CombinationRecordExpireConsumer extends AbstractRedisStreamMessageListener<CombinationRecordExpireMessage> {
+
+    @Resource
+    private CombinationRecordService combinationRecordService;
+
+    @Override
+    public void onMessage(CombinationRecordExpireMessage message) {
+        log.info("[onMessage][消息内容({})]", message);
+        combinationRecordService.expireCombinationRecord(message.getHeadId());
+    }
+
+}
@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.promotion.mq.message.activity;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import lombok.Data;
+
+/**
+ * 营销活动索引刷新的广播消息
+ *
+ * 活动创建、修改、关闭、删除时，通知各个节点重建当前租户的活动索引
+ *
+ * @author 芋道源码
+ */
+@Data
+public class PromotionActivityRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 活动类型
+     *
+     * 枚举 {@link PromotionTypeEnum}
+     */
+    private Integer type;
+    /**
+     * 活动编号
+     */
+    private Long activityId;
+
+}
@@ -0,0 +1,21 @@
+package cn.iocoder.yudao.module.promotion.mq.message.combination;
+
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 拼团过期的延迟消息，在团长记录的过期时间到达后，处理过期 or 虚拟成团
+ *
+ * @author 芋道源码
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class CombinationRecordExpireMessage extends AbstractRedisStreamMessage {
+
+    /**
+     * 团长的拼团记录编号
+     */
+    private Long headId;
+
+}
@@ -0,0 +1,48 @@
+package cn.iocoder.yudao.module.promotion.mq.producer.activity;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import cn.iocoder.yudao.module.promotion.mq.message.activity.PromotionActivityRefreshMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.Resource;
+
+/**
+ * 营销活动相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Component
+public class PromotionActivityProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link PromotionActivityRefreshMessage} 消息，广播各节点重建活动索引
+     *
+     * 如果处于事务中，则在事务提交后发送，避免其它节点重建时读到未提交的数据
+     *
+     * @param type 活动类型，枚举 {@link PromotionTypeEnum}
+     * @param activityId 活动编号
+     */
+    public void sendActivityRefreshMessage(Integer type, Long activityId) {
+        PromotionActivityRefreshMessage message = new PromotionActivityRefreshMessage()
+                .setType(type).setActivityId(activityId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            redisMQTemplate.send(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                redisMQTemplate.send(message);
+            }
+
+        });
+    }
+
+}
@@ -0,0 +1,40 @@
+package cn.iocoder.yudao.module.promotion.mq.producer.combination;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.promotion.mq.message.combination.CombinationRecordExpireMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+
+/**
+ * 拼团记录相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class CombinationRecordProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link CombinationRecordExpireMessage} 延迟消息，在拼团过期时间到达后处理拼团
+     *
+     * 发送失败时，只打印日志，不影响主流程：由 CombinationRecordExpireJob 兜底处理
+     *
+     * @param headId 团长的拼团记录编号
+     * @param expireTime 过期时间
+     */
+    public void sendRecordExpireMessage(Long headId, LocalDateTime expireTime) {
+        CombinationRecordExpireMessage message = new CombinationRecordExpireMessage().setHeadId(headId);
+        try {
+            redisMQTemplate.sendDelay(message, expireTime);
+        } catch (Exception ex) {
+            log.error("[sendRecordExpireMessage][head({}) 发送延迟消息失败，由 Job 兜底处理]", headId, ex);
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package cn.iocoder.yudao.module.promotion.service.activity;
+
+import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountProductDO;
+import cn.iocoder.yudao.module.promotion.service.activity.bo.PromotionActivityIndexBO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 营销活动索引 Service 接口
+ *
+ * 基于本地缓存的 {@link PromotionActivityIndexBO}，提供 SPU、SKU 维度的活动匹配，不访问数据库
+ *
+ * @author 芋道源码
+ */
+public interface PromotionActivityIndexService {
+
+    /**
+     * 获得 SPU 当前生效的活动，每种活动类型最多一个
+     *
+     * @param spuIds SPU 编号数组
+     * @return 活动数组的 Map，key 为 SPU 编号
+     */
+    Map<Long, List<PromotionActivityIndexBO.Activity>> getActivityListMap(Collection<Long> spuIds);
+
+    /**
+     * 获得 SKU 当前生效的限时折扣商品
+     *
+     * @param skuIds SKU 编号数组
+     * @return 限时折扣商品数组
+     */
+    List<DiscountProductDO> getMatchDiscountProductList(Collection<Long> skuIds);
+
+    /**
+     * 失效当前租户的活动索引，下次读取时重建
+     */
+    void invalidateLocalCache();
+
+}
@@ -0,0 +1,158 @@
+package cn.iocoder.yudao.module.promotion.service.activity;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.service.TenantFrameworkService;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.bargain.BargainActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.combination.CombinationActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountProductDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.mysql.bargain.BargainActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.combination.CombinationActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountProductMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.reward.RewardActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillActivityMapper;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionActivityStatusEnum;
+import cn.iocoder.yudao.module.promotion.service.activity.bo.PromotionActivityIndexBO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static java.util.Arrays.asList;
+
+/**
+ * 营销活动索引 Service 实现类
+ *
+ * @author 芋道源码
+ */
+@Service
+@Slf4j
+public class PromotionActivityIndexServiceImpl implements PromotionActivityIndexService {
+
+    @Resource
+    private SeckillActivityMapper seckillActivityMapper;
+    @Resource
+    private CombinationActivityMapper combinationActivityMapper;
+    @Resource
+    private BargainActivityMapper bargainActivityMapper;
+    @Resource
+    private DiscountActivityMapper discountActivityMapper;
+    @Resource
+    private DiscountProductMapper discountProductMapper;
+    @Resource
+    private RewardActivityMapper rewardActivityMapper;
+
+    /**
+     * 活动索引的本地缓存，key 为租户编号
+     */
+    private final Map<Long, PromotionActivityIndexBO> localCache = new ConcurrentHashMap<>();
+
+    /**
+     * 启动时，预热各租户的活动索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initLocalCache() {
+        TenantFrameworkService tenantFrameworkService = SpringUtil.getApplicationContext()
+                .getBeanProvider(TenantFrameworkService.class).getIfAvailable();
+        if (tenantFrameworkService == null) { // 未开启多租户
+            getIndex();
+            return;
+        }
+        List<Long> tenantIds = tenantFrameworkService.getTenantIds();
+        tenantIds.forEach(tenantId -> TenantUtils.execute(tenantId, this::getIndex));
+        log.info("[initLocalCache][预热活动索引，租户数量为:{}]", tenantIds.size());
+    }
+
+    /**
+     * 通过定时任务，失效全部的活动索引
+     *
+     * 目的：兜底广播消息丢失、事务回滚等情况，保证最终一致
+     */
+    @Scheduled(initialDelay = 300, fixedRate = 300, timeUnit = TimeUnit.SECONDS)
+    public void refreshLocalCache() {
+        localCache.clear();
+    }
+
+    @Override
+    public void invalidateLocalCache() {
+        localCache.remove(TenantUtils.getTenantKey());
+    }
+
+    @Override
+    public Map<Long, List<PromotionActivityIndexBO.Activity>> getActivityListMap(Collection<Long> spuIds) {
+        if (CollUtil.isEmpty(spuIds)) {
+            return Collections.emptyMap();
+        }
+        PromotionActivityIndexBO index = getIndex();
+        Map<Long, List<PromotionActivityIndexBO.Activity>> result = new LinkedHashMap<>(spuIds.size());
+        spuIds.forEach(spuId -> result.put(spuId, index.getActivityList(spuId)));
+        return result;
+    }
+
+    @Override
+    public List<DiscountProductDO> getMatchDiscountProductList(Collection<Long> skuIds) {
+        if (CollUtil.isEmpty(skuIds)) {
+            return new ArrayList<>();
+        }
+        return getIndex().getDiscountProductList(skuIds);
+    }
+
+    /**
+     * 获得当前租户的活动索引。不存在或者已过期时，重建索引
+     *
+     * @return 活动索引
+     */
+    private PromotionActivityIndexBO getIndex() {
+        Long tenantKey = TenantUtils.getTenantKey();
+        PromotionActivityIndexBO index = localCache.get(tenantKey);
+        if (index != null && !index.isExpired(LocalDateTime.now())) {
+            return index;
+        }
+        // 通过 compute 保证同一租户只有一个线程重建；invalidateLocalCache 的 remove 也会等待重建完成，不会被旧索引覆盖
+        return localCache.compute(tenantKey, (key, oldIndex) -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (oldIndex != null && !oldIndex.isExpired(now)) {
+                return oldIndex;
+            }
+            return buildIndex(now);
+        });
+    }
+
+    private PromotionActivityIndexBO buildIndex(LocalDateTime now) {
+        // 第一步：查询未开始、进行中的活动
+        Integer enableStatus = CommonStatusEnum.ENABLE.getStatus();
+        List<SeckillActivityDO> seckillActivities = seckillActivityMapper.selectListByStatusAndEndTimeGt(enableStatus, now);
+        List<CombinationActivityDO> combinationActivities = combinationActivityMapper.selectListByStatusAndEndTimeGt(enableStatus, now);
+        List<BargainActivityDO> bargainActivities = bargainActivityMapper.selectListByStatusAndEndTimeGt(enableStatus, now);
+        List<DiscountActivityDO> discountActivities = discountActivityMapper.selectListByStatusAndEndTimeGt(enableStatus, now);
+        List<DiscountProductDO> discountProducts = discountActivities.isEmpty() ? Collections.emptyList()
+                : discountProductMapper.selectListByActivityId(convertList(discountActivities, DiscountActivityDO::getId));
+        // 满减送活动创建时的状态为 CommonStatusEnum.ENABLE，但也存在 PromotionActivityStatusEnum.RUN 的历史数据，所以都需要查询
+        List<RewardActivityDO> rewardActivities = rewardActivityMapper.selectListByStatusAndEndTimeGt(
+                asList(enableStatus, PromotionActivityStatusEnum.RUN.getStatus()), now);
+
+        // 第二步：构建索引
+        PromotionActivityIndexBO index = PromotionActivityIndexBO.build(now, seckillActivities, combinationActivities,
+                bargainActivities, discountActivities, discountProducts, rewardActivities);
+        log.info("[buildIndex][租户({}) 构建活动索引，秒杀({}) 拼团({}) 砍价({}) 限时折扣({}) 满减送({})，过期时间({})]",
+                TenantContextHolder.getTenantId(), seckillActivities.size(), combinationActivities.size(),
+                bargainActivities.size(), discountActivities.size(), rewardActivities.size(), index.getExpireTime());
+        return index;
+    }
+
+}
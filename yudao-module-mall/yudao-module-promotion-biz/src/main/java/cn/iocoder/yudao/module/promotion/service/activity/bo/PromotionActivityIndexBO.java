@@ -0,0 +1,265 @@
+package cn.iocoder.yudao.module.promotion.service.activity.bo;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.bargain.BargainActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.combination.CombinationActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountProductDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillActivityDO;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
+
+/**
+ * 营销活动索引 BO，用于商品详情、列表、价格计算等热点读路径的活动匹配
+ *
+ * 1. 将「SPU 编号 -> 生效的活动」「SKU 编号 -> 生效的限时折扣商品」预先构建成 Map，匹配时不产生任何数据库 IO
+ * 2. 只索引构建时刻生效的活动，并记录最近的一个时间边界 {@link #expireTime}，即未开始活动的开始时间、进行中活动的结束时间。
+ *    在该时间之前，生效的活动集合不会变化；到达该时间后，索引失效并重建，从而让活动恰好在开始、结束时间点生效、失效
+ *
+ * 不可变对象，读取时无需加锁
+ *
+ * @author 芋道源码
+ */
+public class PromotionActivityIndexBO {
+
+    /**
+     * 过期时间
+     *
+     * 为空时，表示没有未开始、进行中的活动，只能等待活动变更时失效
+     */
+    @Getter
+    private final LocalDateTime expireTime;
+    /**
+     * SPU 编号与生效活动的映射。每种活动类型，只保留最新（编号最大）的一个
+     */
+    private final Map<Long, List<Activity>> spuActivities;
+    /**
+     * 全场生效的活动，目前只有满减送
+     */
+    private final Activity globalActivity;
+    /**
+     * SKU 编号与生效的限时折扣商品的映射
+     */
+    private final Map<Long, List<DiscountProductDO>> skuDiscountProducts;
+
+    private PromotionActivityIndexBO(LocalDateTime expireTime, Map<Long, List<Activity>> spuActivities,
+                                     Activity globalActivity, Map<Long, List<DiscountProductDO>> skuDiscountProducts) {
+        this.expireTime = expireTime;
+        this.spuActivities = spuActivities;
+        this.globalActivity = globalActivity;
+        this.skuDiscountProducts = skuDiscountProducts;
+    }
+
+    /**
+     * 判断索引是否已过期
+     *
+     * @param now 当前时间
+     * @return 是否过期
+     */
+    public boolean isExpired(LocalDateTime now) {
+        return expireTime != null && !now.isBefore(expireTime);
+    }
+
+    /**
+     * 获得 SPU 生效的活动数组，每种活动类型最多一个
+     *
+     * @param spuId SPU 编号
+     * @return 活动数组
+     */
+    public List<Activity> getActivityList(Long spuId) {
+        List<Activity> activities = new ArrayList<>(spuActivities.getOrDefault(spuId, Collections.emptyList()));
+        // 全场活动，只在 SPU 没有指定的同类型活动时生效
+        if (globalActivity != null
+                && activities.stream().noneMatch(activity -> activity.getType().equals(globalActivity.getType()))) {
+            activities.add(globalActivity);
+        }
+        return activities;
+    }
+
+    /**
+     * 获得 SKU 生效的限时折扣商品数组
+     *
+     * @param skuIds SKU 编号数组
+     * @return 限时折扣商品数组
+     */
+    public List<DiscountProductDO> getDiscountProductList(Collection<Long> skuIds) {
+        List<DiscountProductDO> products = new ArrayList<>();
+        skuIds.forEach(skuId -> products.addAll(skuDiscountProducts.getOrDefault(skuId, Collections.emptyList())));
+        return products;
+    }
+
+    /**
+     * 构建索引
+     *
+     * 传入的活动，需要是未开始、进行中的活动，即结束时间晚于 now
+     *
+     * @param now 当前时间
+     * @param seckillActivities 秒杀活动数组
+     * @param combinationActivities 拼团活动数组
+     * @param bargainActivities 砍价活动数组
+     * @param discountActivities 限时折扣活动数组
+     * @param discountProducts 限时折扣活动的商品数组
+     * @param rewardActivities 满减送活动数组
+     * @return 索引
+     */
+    public static PromotionActivityIndexBO build(LocalDateTime now,
+                                                 Collection<SeckillActivityDO> seckillActivities,
+                                                 Collection<CombinationActivityDO> combinationActivities,
+                                                 Collection<BargainActivityDO> bargainActivities,
+                                                 Collection<DiscountActivityDO> discountActivities,
+                                                 Collection<DiscountProductDO> discountProducts,
+                                                 Collection<RewardActivityDO> rewardActivities) {
+        Builder builder = new Builder(now);
+        // 秒杀、拼团、砍价活动：一个活动对应一个 SPU
+        seckillActivities.forEach(activity -> builder.addActivity(activity.getSpuId(), new Activity(activity.getId(),
+                PromotionTypeEnum.SECKILL_ACTIVITY.getType(), activity.getName(), activity.getStartTime(), activity.getEndTime())));
+        combinationActivities.forEach(activity -> builder.addActivity(activity.getSpuId(), new Activity(activity.getId(),
+                PromotionTypeEnum.COMBINATION_ACTIVITY.getType(), activity.getName(), activity.getStartTime(), activity.getEndTime())));
+        bargainActivities.forEach(activity -> builder.addActivity(activity.getSpuId(), new Activity(activity.getId(),
+                PromotionTypeEnum.BARGAIN_ACTIVITY.getType(), activity.getName(), activity.getStartTime(), activity.getEndTime())));
+
+        // 限时折扣活动：一个活动对应多个 SKU
+        Map<Long, Activity> discountActivityMap = convertMap(discountActivities, DiscountActivityDO::getId,
+                activity -> new Activity(activity.getId(), PromotionTypeEnum.DISCOUNT_ACTIVITY.getType(),
+                        activity.getName(), activity.getStartTime(), activity.getEndTime()));
+        discountActivityMap.values().forEach(builder::updateExpireTime);
+        discountProducts.forEach(product -> {
+            Activity activity = discountActivityMap.get(product.getActivityId());
+            if (activity == null || !activity.isEffective(now)) {
+                return;
+            }
+            builder.addActivity(product.getSpuId(), activity);
+            builder.skuDiscountProducts.computeIfAbsent(product.getSkuId(), key -> new ArrayList<>()).add(product);
+        });
+
+        // 满减送活动：指定商品，或者全场
+        rewardActivities.forEach(activity -> {
+            Activity rewardActivity = new Activity(activity.getId(), PromotionTypeEnum.REWARD_ACTIVITY.getType(),
+                    activity.getName(), activity.getStartTime(), activity.getEndTime());
+            if (PromotionProductScopeEnum.ALL.getScope().equals(activity.getProductScope())) {
+                builder.setGlobalActivity(rewardActivity);
+            } else if (PromotionProductScopeEnum.SPU.getScope().equals(activity.getProductScope())) {
+                CollUtil.emptyIfNull(activity.getProductSpuIds()).forEach(spuId -> builder.addActivity(spuId, rewardActivity));
+            } else { // 品类范围的活动，需要商品的分类编号，暂不索引；但仍需参与过期时间的计算
+                builder.updateExpireTime(rewardActivity);
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * 索引中的活动
+     */
+    @Getter
+    @AllArgsConstructor
+    @ToString
+    public static class Activity {
+
+        /**
+         * 活动编号
+         */
+        private final Long id;
+        /**
+         * 活动类型
+         *
+         * 枚举 {@link PromotionTypeEnum}
+         */
+        private final Integer type;
+        /**
+         * 活动名称
+         */
+        private final String name;
+        /**
+         * 开始时间
+         */
+        private final LocalDateTime startTime;
+        /**
+         * 结束时间
+         */
+        private final LocalDateTime endTime;
+
+        /**
+         * 判断活动在指定时间是否生效，即 startTime <= now < endTime
+         *
+         * @param now 指定时间
+         * @return 是否生效
+         */
+        public boolean isEffective(LocalDateTime now) {
+            return !now.isBefore(startTime) && now.isBefore(endTime);
+        }
+
+    }
+
+    private static class Builder {
+
+        private final LocalDateTime now;
+        private LocalDateTime expireTime;
+        private final Map<Long, List<Activity>> spuActivities = new HashMap<>();
+        private Activity globalActivity;
+        private final Map<Long, List<DiscountProductDO>> skuDiscountProducts = new HashMap<>();
+
+        private Builder(LocalDateTime now) {
+            this.now = now;
+        }
+
+        /**
+         * 基于活动的开始、结束时间，更新索引的过期时间为最近的一个时间边界
+         */
+        private void updateExpireTime(Activity activity) {
+            LocalDateTime boundary = now.isBefore(activity.getStartTime()) ? activity.getStartTime() : activity.getEndTime();
+            if (expireTime == null || boundary.isBefore(expireTime)) {
+                expireTime = boundary;
+            }
+        }
+
+        /**
+         * 添加 SPU 生效的活动。同一类型，保留编号最大的活动（时间越大 id 也越大）
+         */
+        private void addActivity(Long spuId, Activity activity) {
+            updateExpireTime(activity);
+            if (spuId == null || !activity.isEffective(now)) {
+                return;
+            }
+            List<Activity> activities = spuActivities.computeIfAbsent(spuId, key -> new ArrayList<>());
+            for (int i = 0; i < activities.size(); i++) {
+                Activity exists = activities.get(i);
+                if (exists.getType().equals(activity.getType())) {
+                    if (exists.getId() < activity.getId()) {
+                        activities.set(i, activity);
+                    }
+                    return;
+                }
+            }
+            activities.add(activity);
+        }
+
+        private void setGlobalActivity(Activity activity) {
+            updateExpireTime(activity);
+            if (!activity.isEffective(now)) {
+                return;
+            }
+            if (globalActivity == null || globalActivity.getId() < activity.getId()) {
+                globalActivity = activity;
+            }
+        }
+
+        private PromotionActivityIndexBO build() {
+            Map<Long, List<DiscountProductDO>> discountProducts = new HashMap<>(skuDiscountProducts.size());
+            skuDiscountProducts.forEach((skuId, products) -> discountProducts.put(skuId, Collections.unmodifiableList(products)));
+            Map<Long, List<Activity>> activities = new HashMap<>(spuActivities.size());
+            spuActivities.forEach((spuId, list) -> activities.put(spuId, Collections.unmodifiableList(list)));
+            return new PromotionActivityIndexBO(expireTime, activities, globalActivity, discountProducts);
+        }
+
+    }
+
+}
@@ -15,6 +15,8 @@ import cn.iocoder.yudao.module.promotion.controller.admin.bargain.vo.activity.Ba
 import cn.iocoder.yudao.module.promotion.convert.bargain.BargainActivityConvert;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.bargain.BargainActivityDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.bargain.BargainActivityMapper;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -44,6 +46,9 @@ public class BargainActivityServiceImpl implements BargainActivityService {
     @Resource
     private ProductSkuApi productSkuApi;
 
+    @Resource
+    private PromotionActivityProducer promotionActivityProducer;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createBargainActivity(BargainActivityCreateReqVO createReqVO) {
@@ -57,6 +62,8 @@ public class BargainActivityServiceImpl implements BargainActivityService {
                 .setTotalStock(createReqVO.getStock())
                 .setStatus(CommonStatusEnum.ENABLE.getStatus());
         bargainActivityMapper.insert(activityDO);
+        // 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.BARGAIN_ACTIVITY.getType(), activityDO.getId());
         return activityDO.getId();
     }
 
@@ -80,6 +87,8 @@ public class BargainActivityServiceImpl implements BargainActivityService {
             updateObj.setTotalStock(updateObj.getStock());
         }
         bargainActivityMapper.updateById(updateObj);
+        // 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.BARGAIN_ACTIVITY.getType(), updateObj.getId());
     }
 
     @Override
@@ -106,6 +115,8 @@ public class BargainActivityServiceImpl implements BargainActivityService {
 
         bargainActivityMapper.updateById(new BargainActivityDO().setId(id)
                 .setStatus(CommonStatusEnum.DISABLE.getStatus()));
+        // 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.BARGAIN_ACTIVITY.getType(), id);
     }
 
     private void validateBargainConflict(Long spuId, Long activityId) {
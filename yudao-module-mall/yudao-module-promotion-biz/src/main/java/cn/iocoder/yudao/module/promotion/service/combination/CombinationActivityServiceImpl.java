@@ -19,6 +19,8 @@ import cn.iocoder.yudao.module.promotion.convert.combination.CombinationActivity
 import cn.iocoder.yudao.module.promotion.dal.dataobject.combination.CombinationActivityDO;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.combination.CombinationProductDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.combination.CombinationActivityMapper;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
 import cn.iocoder.yudao.module.promotion.dal.mysql.combination.CombinationProductMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -57,6 +59,9 @@ public class CombinationActivityServiceImpl implements CombinationActivityServic
     @Resource
     private ProductSkuApi productSkuApi;
 
+    @Resource
+    private PromotionActivityProducer promotionActivityProducer;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createCombinationActivity(CombinationActivityCreateReqVO createReqVO) {
@@ -72,6 +77,8 @@ public class CombinationActivityServiceImpl implements CombinationActivityServic
         // 插入商品
         List<CombinationProductDO> products = CombinationActivityConvert.INSTANCE.convertList(createReqVO.getProducts(), activity);
         combinationProductMapper.insertBatch(products);
+        // 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.COMBINATION_ACTIVITY.getType(), activity.getId());
         return activity.getId();
     }
 
@@ -136,6 +143,8 @@ public class CombinationActivityServiceImpl implements CombinationActivityServic
         combinationActivityMapper.updateById(updateObj);
         // 更新商品
         updateCombinationProduct(updateObj, updateReqVO.getProducts());
+        // 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.COMBINATION_ACTIVITY.getType(), updateObj.getId());
     }
 
     @Override
@@ -150,6 +159,8 @@ public class CombinationActivityServiceImpl implements CombinationActivityServic
         // 关闭活动
         combinationActivityMapper.updateById(new CombinationActivityDO().setId(id)
                 .setStatus(CommonStatusEnum.DISABLE.getStatus()));
+        // 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.COMBINATION_ACTIVITY.getType(), id);
     }
 
     /**
@@ -164,6 +164,15 @@ public interface CombinationRecordService {
      */
     KeyValue<Integer, Integer> expireCombinationRecord();
 
+    /**
+     * 处理指定的过期拼团，由拼团过期的延迟消息触发
+     *
+     * 如果拼团已不是进行中，或者尚未过期，则忽略
+     *
+     * @param headId 团长的拼团记录编号
+     */
+    void expireCombinationRecord(Long headId);
+
     /**
      * 获得拼团记录分页数据
      *
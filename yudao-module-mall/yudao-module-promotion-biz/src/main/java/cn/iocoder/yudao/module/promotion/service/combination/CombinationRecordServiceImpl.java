@@ -23,6 +23,7 @@ import cn.iocoder.yudao.module.promotion.dal.dataobject.combination.CombinationP
 import cn.iocoder.yudao.module.promotion.dal.dataobject.combination.CombinationRecordDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.combination.CombinationRecordMapper;
 import cn.iocoder.yudao.module.promotion.enums.combination.CombinationRecordStatusEnum;
+import cn.iocoder.yudao.module.promotion.mq.producer.combination.CombinationRecordProducer;
 import cn.iocoder.yudao.module.trade.api.order.TradeOrderApi;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
@@ -69,6 +70,9 @@ public class CombinationRecordServiceImpl implements CombinationRecordService {
     @Lazy
     private TradeOrderApi tradeOrderApi;
 
+    @Resource
+    private CombinationRecordProducer combinationRecordProducer;
+
     // TODO @芋艿：在详细预览下；
     @Override
     public KeyValue<CombinationActivityDO, CombinationProductDO> validateCombinationRecord(
@@ -173,6 +177,9 @@ public class CombinationRecordServiceImpl implements CombinationRecordService {
         // 3. 更新拼团记录
         if (ObjUtil.notEqual(CombinationRecordDO.HEAD_ID_GROUP, record.getHeadId())) {
             updateCombinationRecordWhenCreate(reqDTO.getHeadId(), keyValue.getKey());
+        } else {
+            // 4. 团长：发送延迟消息，在过期时间到达后处理拼团
+            combinationRecordProducer.sendRecordExpireMessage(record.getId(), record.getExpireTime());
         }
         return record;
     }
@@ -337,15 +344,10 @@ public class CombinationRecordServiceImpl implements CombinationRecordService {
         KeyValue<Integer, Integer> keyValue = new KeyValue<>(0, 0); // 统计过期拼团和虚拟成团
         for (CombinationRecordDO record : headExpireRecords) {
             try {
-                CombinationActivityDO activity = activityMap.get(record.getActivityId());
-                if (activity == null || !activity.getVirtualGroup()) { // 取不到活动的或者不是虚拟拼团的
-                    // 3.1. 处理过期的拼团
-                    getSelf().handleExpireRecord(record);
-                    keyValue.setKey(keyValue.getKey() + 1);
-                } else {
-                    // 3.2. 处理虚拟成团
-                    getSelf().handleVirtualGroupRecord(record);
+                if (expireCombinationRecord0(record, activityMap.get(record.getActivityId()))) {
                     keyValue.setValue(keyValue.getValue() + 1);
+                } else {
+                    keyValue.setKey(keyValue.getKey() + 1);
                 }
             } catch (Exception ignored) { // 处理异常继续循环
                 log.error("[expireCombinationRecord][record({}) 处理异常，请进行处理！record 数据是：{}]",
@@ -355,6 +357,40 @@ public class CombinationRecordServiceImpl implements CombinationRecordService {
         return keyValue;
     }
 
+    @Override
+    public void expireCombinationRecord(Long headId) {
+        // 1. 校验是进行中、且已过期的父拼团。消息可能重复投递，或者已被 Job 处理，所以需要校验
+        CombinationRecordDO headRecord = combinationRecordMapper.selectById(headId);
+        if (headRecord == null
+                || ObjUtil.notEqual(headRecord.getHeadId(), CombinationRecordDO.HEAD_ID_GROUP)
+                || !CombinationRecordStatusEnum.isInProgress(headRecord.getStatus())
+                || afterNow(headRecord.getExpireTime())) {
+            return;
+        }
+
+        // 2. 处理拼团，过期 or 虚拟成团
+        CombinationActivityDO activity = combinationActivityService.getCombinationActivity(headRecord.getActivityId());
+        expireCombinationRecord0(headRecord, activity);
+    }
+
+    /**
+     * 处理单个过期的父拼团，过期 or 虚拟成团
+     *
+     * @param headRecord 过期拼团团长记录
+     * @param activity   拼团活动，可能为空
+     * @return 是否虚拟成团
+     */
+    private boolean expireCombinationRecord0(CombinationRecordDO headRecord, CombinationActivityDO activity) {
+        if (activity == null || !activity.getVirtualGroup()) { // 取不到活动的或者不是虚拟拼团的
+            // 1. 处理过期的拼团
+            getSelf().handleExpireRecord(headRecord);
+            return false;
+        }
+        // 2. 处理虚拟成团
+        getSelf().handleVirtualGroupRecord(headRecord);
+        return true;
+    }
+
     /**
      * 处理过期拼团
      *
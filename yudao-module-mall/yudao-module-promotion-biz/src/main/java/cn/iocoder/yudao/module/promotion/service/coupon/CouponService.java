@@ -8,6 +8,7 @@ import cn.iocoder.yudao.module.promotion.controller.app.coupon.vo.coupon.AppCoup
 import cn.iocoder.yudao.module.promotion.dal.dataobject.coupon.CouponDO;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.coupon.CouponTemplateDO;
 import cn.iocoder.yudao.module.promotion.enums.coupon.CouponTakeTypeEnum;
+import org.springframework.scheduling.annotation.Async;
 
 import java.util.*;
 
@@ -89,6 +90,8 @@ public interface CouponService {
     /**
      * 领取优惠券
      *
+     * 用户较多时，按批次发放，每批一个事务。如果中途失败，已发放的批次不会回滚
+     *
      * @param templateId 优惠券模板编号
      * @param userIds    用户编号列表
      * @param takeType   领取方式
@@ -105,6 +108,18 @@ public interface CouponService {
         takeCoupon(templateId, userIds, CouponTakeTypeEnum.ADMIN);
     }
 
+    /**
+     * 【管理员】给全部会员发送优惠券，异步执行
+     *
+     * 按用户编号游标分页，每页一个事务发放，并在日志中输出进度。
+     * 如果中途失败，可以传入日志中的最后一个用户编号，从该位置继续发放
+     *
+     * @param templateId 优惠券模板编号
+     * @param lastUserId 从该用户编号之后开始发放，为空时从头开始
+     */
+    @Async
+    void takeCouponByAdminForAllUser(Long templateId, Long lastUserId);
+
     /**
      * 【会员】领取优惠券
      *
@@ -155,6 +170,8 @@ public interface CouponService {
     /**
      * 过期优惠券
      *
+     * 按编号分批查询、批量更新，避免一次加载全部待过期的优惠劵
+     *
      * @return 过期数量
      */
     int expireCoupon();
@@ -1,6 +1,5 @@
 package cn.iocoder.yudao.module.promotion.service.coupon;
 
-import cn.hutool.core.collection.CollStreamUtil;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.ObjectUtil;
@@ -16,23 +15,27 @@ import cn.iocoder.yudao.module.promotion.convert.coupon.CouponConvert;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.coupon.CouponDO;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.coupon.CouponTemplateDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.coupon.CouponMapper;
+import cn.iocoder.yudao.module.promotion.dal.redis.coupon.CouponTakeCountRedisDAO;
 import cn.iocoder.yudao.module.promotion.enums.coupon.CouponStatusEnum;
 import cn.iocoder.yudao.module.promotion.enums.coupon.CouponTakeTypeEnum;
 import cn.iocoder.yudao.module.promotion.enums.coupon.CouponTemplateValidityTypeEnum;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
 import static cn.iocoder.yudao.module.promotion.enums.ErrorCodeConstants.*;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 
 /**
  * 优惠劵 Service 实现类
@@ -44,11 +47,22 @@ import static java.util.Arrays.asList;
 @Validated
 public class CouponServiceImpl implements CouponService {
 
+    /**
+     * 批量发放优惠劵时，每批的用户数量
+     */
+    private static final int TAKE_BATCH_SIZE = 500;
+    /**
+     * 过期优惠劵时，每批的优惠劵数量
+     */
+    private static final int EXPIRE_BATCH_SIZE = 1000;
+
     @Resource
     private CouponTemplateService couponTemplateService;
 
     @Resource
     private CouponMapper couponMapper;
+    @Resource
+    private CouponTakeCountRedisDAO couponTakeCountRedisDAO;
 
     @Resource
     private MemberUserApi memberUserApi;
@@ -132,7 +146,7 @@ public class CouponServiceImpl implements CouponService {
     @Transactional
     public void deleteCoupon(Long id) {
         // 校验存在
-        validateCouponExists(id);
+        CouponDO coupon = validateCouponExists(id);
 
         // 更新优惠劵
         int deleteCount = couponMapper.delete(id,
@@ -141,7 +155,10 @@ public class CouponServiceImpl implements CouponService {
             throw exception(COUPON_DELETE_FAIL_USED);
         }
         // 减少优惠劵模板的领取数量 -1
-        couponTemplateService.updateCouponTemplateTakeCount(id, -1);
+        couponTemplateService.updateCouponTemplateTakeCount(coupon.getTemplateId(), -1);
+        // 减少用户的领取数量 -1
+        afterCommit(() -> couponTakeCountRedisDAO.incrTakeCount(coupon.getTemplateId(),
+                singletonList(coupon.getUserId()), -1));
     }
 
     @Override
@@ -149,10 +166,12 @@ public class CouponServiceImpl implements CouponService {
         return couponMapper.selectListByUserIdAndStatus(userId, status);
     }
 
-    private void validateCouponExists(Long id) {
-        if (couponMapper.selectById(id) == null) {
+    private CouponDO validateCouponExists(Long id) {
+        CouponDO coupon = couponMapper.selectById(id);
+        if (coupon == null) {
             throw exception(COUPON_NOT_EXISTS);
         }
+        return coupon;
     }
 
     @Override
@@ -162,17 +181,77 @@ public class CouponServiceImpl implements CouponService {
 
     @Override
     public void takeCoupon(Long templateId, Set<Long> userIds, CouponTakeTypeEnum takeType) {
+        // 1. 校验优惠劵是否可以领取
+        CouponTemplateDO template = couponTemplateService.getCouponTemplate(templateId);
+        validateCouponTemplateCanTake(template, takeType);
+
+        // 2. 分批发放，避免一次性构建、插入全部优惠劵
+        int takeCount = 0;
+        for (List<Long> batchUserIds : CollUtil.split(userIds, TAKE_BATCH_SIZE)) {
+            takeCount += getSelf().takeCouponBatch(template, batchUserIds);
+        }
+        // 如果所有用户都领取过，则抛出异常
+        if (takeCount == 0) {
+            throw exception(COUPON_TEMPLATE_USER_ALREADY_TAKE);
+        }
+    }
+
+    @Override
+    public void takeCouponByAdminForAllUser(Long templateId, Long lastUserId) {
+        // 1. 校验优惠劵是否可以领取
         CouponTemplateDO template = couponTemplateService.getCouponTemplate(templateId);
+        validateCouponTemplateCanTake(template, CouponTakeTypeEnum.ADMIN);
+
+        // 2. 按用户编号游标分页，逐页发放
+        int takeCount = 0;
+        lastUserId = ObjectUtil.defaultIfNull(lastUserId, 0L);
+        while (true) {
+            List<Long> userIds = memberUserApi.getUserIdListByIdGt(lastUserId, TAKE_BATCH_SIZE);
+            if (CollUtil.isEmpty(userIds)) {
+                break;
+            }
+            try {
+                takeCount += getSelf().takeCouponBatch(template, userIds);
+            } catch (Exception e) {
+                log.error("[takeCouponByAdminForAllUser][template({}) 发放失败，已发放 {} 个，可从 lastUserId({}) 继续发放]",
+                        templateId, takeCount, lastUserId, e);
+                return;
+            }
+            lastUserId = CollUtil.getLast(userIds);
+            log.info("[takeCouponByAdminForAllUser][template({}) 已发放 {} 个，lastUserId({})]", templateId, takeCount, lastUserId);
+            if (userIds.size() < TAKE_BATCH_SIZE) {
+                break;
+            }
+        }
+        log.info("[takeCouponByAdminForAllUser][template({}) 发放完成，共发放 {} 个]", templateId, takeCount);
+    }
+
+    /**
+     * 给一批用户发放优惠劵，一批一个事务
+     *
+     * @param template 优惠劵模板
+     * @param userIds  用户编号列表
+     * @return 发放数量，不包括达到领取限制的用户
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int takeCouponBatch(CouponTemplateDO template, Collection<Long> userIds) {
         // 1. 过滤掉达到领取限制的用户
-        removeTakeLimitUser(userIds, template);
-        // 2. 校验优惠劵是否可以领取
-        validateCouponTemplateCanTake(template, userIds, takeType);
+        List<Long> takeUserIds = removeTakeLimitUser(userIds, template);
+        if (CollUtil.isEmpty(takeUserIds)) {
+            return 0;
+        }
+
+        // 2. 增加优惠劵模板的领取数量，同时校验剩余数量
+        if (!couponTemplateService.incrCouponTemplateTakeCount(template.getId(), takeUserIds.size())) {
+            throw exception(COUPON_TEMPLATE_NOT_ENOUGH);
+        }
 
         // 3. 批量保存优惠劵
-        couponMapper.insertBatch(convertList(userIds, userId -> CouponConvert.INSTANCE.convert(template, userId)));
+        couponMapper.insertBatch(convertList(takeUserIds, userId -> CouponConvert.INSTANCE.convert(template, userId)));
 
-        // 3. 增加优惠劵模板的领取数量
-        couponTemplateService.updateCouponTemplateTakeCount(templateId, userIds.size());
+        // 4. 增加用户的领取数量
+        afterCommit(() -> couponTakeCountRedisDAO.incrTakeCount(template.getId(), takeUserIds, 1));
+        return takeUserIds.size();
     }
 
     @Override
@@ -189,7 +268,19 @@ public class CouponServiceImpl implements CouponService {
         if (CollUtil.isEmpty(templateIds)) {
             return Collections.emptyMap();
         }
-        return couponMapper.selectCountByUserIdAndTemplateIdIn(userId, templateIds);
+        // 1. 优先从 Redis 中读取
+        Map<Long, Integer> takeCountMap = couponTakeCountRedisDAO.getTakeCountMap(templateIds, userId);
+        // 2. 未加载的模板，从 DB 中统计，并加载到 Redis 中
+        List<Long> missTemplateIds = filterList(templateIds, templateId -> !takeCountMap.containsKey(templateId));
+        if (CollUtil.isNotEmpty(missTemplateIds)) {
+            Map<Long, Integer> dbTakeCountMap = couponMapper.selectCountByUserIdAndTemplateIdIn(userId, missTemplateIds);
+            missTemplateIds.forEach(templateId -> {
+                Integer count = dbTakeCountMap.getOrDefault(templateId, 0);
+                couponTakeCountRedisDAO.loadTakeCount(templateId, singletonMap(userId, count));
+                takeCountMap.put(templateId, count);
+            });
+        }
+        return takeCountMap;
     }
 
     @Override
@@ -201,25 +292,31 @@ public class CouponServiceImpl implements CouponService {
 
     @Override
     public int expireCoupon() {
-        // 1. 查询待过期的优惠券
-        List<CouponDO> list = couponMapper.selectListByStatusAndValidEndTimeLe(
-                CouponStatusEnum.UNUSED.getStatus(), LocalDateTime.now());
-        if (CollUtil.isEmpty(list)) {
-            return 0;
-        }
-
-        // 2. 遍历执行
+        LocalDateTime now = LocalDateTime.now();
         int count = 0;
-        for (CouponDO coupon : list) {
+        Long lastId = 0L;
+        while (true) {
+            // 1. 按编号分批查询待过期的优惠券
+            List<CouponDO> list = couponMapper.selectIdListByStatusAndValidEndTimeLe(
+                    CouponStatusEnum.UNUSED.getStatus(), now, lastId, EXPIRE_BATCH_SIZE);
+            if (CollUtil.isEmpty(list)) {
+                break;
+            }
+
+            // 2. 批量更新为已过期。带上状态、有效期条件，避免覆盖期间已被使用的优惠券
+            List<Long> ids = convertList(list, CouponDO::getId);
             try {
-                boolean success = getSelf().expireCoupon(coupon);
-                if (success) {
-                    count++;
-                }
+                count += couponMapper.updateByIdInAndStatusAndValidEndTimeLe(ids, CouponStatusEnum.UNUSED.getStatus(),
+                        now, new CouponDO().setStatus(CouponStatusEnum.EXPIRE.getStatus()));
             } catch (Exception e) {
-                log.error("[expireCoupon][coupon({}) 更新为已过期失败]", coupon.getId(), e);
+                log.error("[expireCoupon][coupon({} ~ {}) 更新为已过期失败]", ids.get(0), CollUtil.getLast(ids), e);
+            }
+            lastId = CollUtil.getLast(ids);
+            if (list.size() < EXPIRE_BATCH_SIZE) {
+                break;
             }
         }
+        log.info("[expireCoupon][更新 {} 个优惠券为已过期]", count);
         return count;
     }
 
@@ -244,43 +341,21 @@ public class CouponServiceImpl implements CouponService {
         return userCanTakeMap;
     }
 
-    /**
-     * 过期单个优惠劵
-     *
-     * @param coupon 优惠劵
-     * @return 是否过期成功
-     */
-    private boolean expireCoupon(CouponDO coupon) {
-        // 更新记录状态
-        int updateRows = couponMapper.updateByIdAndStatus(coupon.getId(), CouponStatusEnum.UNUSED.getStatus(),
-                new CouponDO().setStatus(CouponStatusEnum.EXPIRE.getStatus()));
-        if (updateRows == 0) {
-            log.error("[expireCoupon][coupon({}) 更新为已过期失败]", coupon.getId());
-            return false;
-        }
-        log.info("[expireCoupon][coupon({}) 更新为已过期成功]", coupon.getId());
-        return true;
-    }
-
     /**
      * 校验优惠券是否可以领取
      *
+     * 剩余数量，在每批发放时通过 {@link CouponTemplateService#incrCouponTemplateTakeCount(Long, int)} 校验
+     *
      * @param couponTemplate 优惠券模板
-     * @param userIds        领取人列表
      * @param takeType       领取方式
      */
-    private void validateCouponTemplateCanTake(CouponTemplateDO couponTemplate, Set<Long> userIds, CouponTakeTypeEnum takeType) {
-        // 如果所有用户都领取过，则抛出异常
-        if (CollUtil.isEmpty(userIds)) {
-            throw exception(COUPON_TEMPLATE_USER_ALREADY_TAKE);
-        }
-
+    private void validateCouponTemplateCanTake(CouponTemplateDO couponTemplate, CouponTakeTypeEnum takeType) {
         // 校验模板
         if (couponTemplate == null) {
             throw exception(COUPON_TEMPLATE_NOT_EXISTS);
         }
         // 校验剩余数量
-        if (couponTemplate.getTakeCount() + userIds.size() > couponTemplate.getTotalCount()) {
+        if (couponTemplate.getTotalCount() != -1 && couponTemplate.getTakeCount() >= couponTemplate.getTotalCount()) {
             throw exception(COUPON_TEMPLATE_NOT_ENOUGH);
         }
         // 校验"固定日期"的有效期类型是否过期
@@ -300,19 +375,57 @@ public class CouponServiceImpl implements CouponService {
      *
      * @param userIds        用户编号数组
      * @param couponTemplate 优惠劵模版
+     * @return 未达到领取上限的用户编号数组
      */
-    private void removeTakeLimitUser(Set<Long> userIds, CouponTemplateDO couponTemplate) {
+    private List<Long> removeTakeLimitUser(Collection<Long> userIds, CouponTemplateDO couponTemplate) {
         if (couponTemplate.getTakeLimitCount() <= 0) {
-            return;
+            return new ArrayList<>(userIds);
         }
-        // 查询已领过券的用户
-        List<CouponDO> alreadyTakeCoupons = couponMapper.selectListByTemplateIdAndUserId(couponTemplate.getId(), userIds);
-        if (CollUtil.isEmpty(alreadyTakeCoupons)) {
+        // 查询用户的领取数量
+        Map<Long, Integer> userTakeCountMap = getTakeCountMap(couponTemplate.getId(), userIds);
+        // 移除达到领取限制的用户
+        return filterList(userIds, userId -> MapUtil.getInt(userTakeCountMap, userId, 0) < couponTemplate.getTakeLimitCount());
+    }
+
+    /**
+     * 获得多个用户，领取指定优惠劵模板的数量
+     *
+     * @param templateId 优惠劵模板编号
+     * @param userIds    用户编号数组
+     * @return 领取数量，key：用户编号
+     */
+    private Map<Long, Integer> getTakeCountMap(Long templateId, Collection<Long> userIds) {
+        // 1. 优先从 Redis 中读取
+        Map<Long, Integer> takeCountMap = couponTakeCountRedisDAO.getTakeCountMap(templateId, userIds);
+        // 2. 未加载的用户，从 DB 中统计，并加载到 Redis 中
+        List<Long> missUserIds = filterList(userIds, userId -> !takeCountMap.containsKey(userId));
+        if (CollUtil.isNotEmpty(missUserIds)) {
+            Map<Long, Integer> dbTakeCountMap = new HashMap<>(couponMapper.selectCountByTemplateIdAndUserIdIn(templateId, missUserIds));
+            missUserIds.forEach(userId -> dbTakeCountMap.putIfAbsent(userId, 0));
+            couponTakeCountRedisDAO.loadTakeCount(templateId, dbTakeCountMap);
+            takeCountMap.putAll(dbTakeCountMap);
+        }
+        return takeCountMap;
+    }
+
+    /**
+     * 在事务提交后执行；不存在事务时，直接执行
+     *
+     * @param runnable 逻辑
+     */
+    private static void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
             return;
         }
-        // 移除达到领取限制的用户
-        Map<Long, Integer> userTakeCountMap = CollStreamUtil.groupBy(alreadyTakeCoupons, CouponDO::getUserId, Collectors.summingInt(c -> 1));
-        userIds.removeIf(userId -> MapUtil.getInt(userTakeCountMap, userId, 0) >= couponTemplate.getTakeLimitCount());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+
+        });
     }
 
     @Override
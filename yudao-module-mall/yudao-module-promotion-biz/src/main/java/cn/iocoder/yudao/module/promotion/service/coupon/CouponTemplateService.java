@@ -72,6 +72,15 @@ public interface CouponTemplateService {
      */
     void updateCouponTemplateTakeCount(Long id, int incrCount);
 
+    /**
+     * 增加优惠劵模板的领取数量，并保证不超过发放数量
+     *
+     * @param id        优惠劵模板编号
+     * @param incrCount 增加数量
+     * @return 是否增加成功；失败时，说明剩余数量不足
+     */
+    boolean incrCouponTemplateTakeCount(Long id, int incrCount);
+
     /**
      * 获得指定领取方式的优惠券模板
      *
@@ -116,6 +116,11 @@ public class CouponTemplateServiceImpl implements CouponTemplateService {
         couponTemplateMapper.updateTakeCount(id, incrCount);
     }
 
+    @Override
+    public boolean incrCouponTemplateTakeCount(Long id, int incrCount) {
+        return couponTemplateMapper.updateTakeCountIncr(id, incrCount) > 0;
+    }
+
     @Override
     public List<CouponTemplateDO> getCouponTemplateListByTakeType(CouponTakeTypeEnum takeType) {
         return couponTemplateMapper.selectListByTakeType(takeType.getValue());
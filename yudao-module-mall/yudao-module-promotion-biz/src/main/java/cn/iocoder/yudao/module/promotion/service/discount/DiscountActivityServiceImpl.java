@@ -15,6 +15,9 @@ import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountProduct
 import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountActivityMapper;
 import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountProductMapper;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionActivityStatusEnum;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
+import cn.iocoder.yudao.module.promotion.service.activity.PromotionActivityIndexService;
 import cn.iocoder.yudao.module.promotion.util.PromotionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
@@ -46,11 +49,16 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
     @Resource
     private DiscountProductMapper discountProductMapper;
 
+    @Resource
+    private PromotionActivityIndexService promotionActivityIndexService;
+
+    @Resource
+    private PromotionActivityProducer promotionActivityProducer;
+
     @Override
     public List<DiscountProductDO> getMatchDiscountProductList(Collection<Long> skuIds) {
-        // TODO @zhangshuai：这里是不是可以直接 return discountProductMapper.getMatchDiscountProductList(skuIds)； 一般来说，如果 idea 报“黄色”的警告，尽量都处理下哈；原则是，一切警告，皆为异常（错误），这样可以写出更好的代码。
-        List<DiscountProductDO> matchDiscountProductList = discountProductMapper.getMatchDiscountProductList(skuIds);
-        return matchDiscountProductList;
+        // 价格计算等热点读路径，基于活动索引匹配，不访问数据库
+        return promotionActivityIndexService.getMatchDiscountProductList(skuIds);
     }
 
     @Override
@@ -68,6 +76,8 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
         List<DiscountProductDO> discountProducts = convertList(createReqVO.getProducts(),
                 product -> DiscountActivityConvert.INSTANCE.convert(product).setActivityId(discountActivity.getId()));
         discountProductMapper.insertBatch(discountProducts);
+        // 通知刷新活动索引
+        sendActivityRefreshMessage(discountActivity.getId());
         // 返回
         return discountActivity.getId();
     }
@@ -88,6 +98,8 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
         discountActivityMapper.updateById(updateObj);
         // 更新商品
         updateDiscountProduct(updateReqVO);
+        // 通知刷新活动索引
+        sendActivityRefreshMessage(updateReqVO.getId());
     }
 
     private void updateDiscountProduct(DiscountActivityUpdateReqVO updateReqVO) {
@@ -126,7 +138,8 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
         List<DiscountProductDO> list = discountProductMapper.selectListByActivityId(id);
         // TODO @zhangshuai：一般简单的 stream 方法，建议是使用 CollectionUtils，例如说这里是 convertList 对把。
         List<Long> skuIds = list.stream().map(item -> item.getSkuId()).collect(Collectors.toList());
-        List<DiscountProductDO> matchDiscountProductList = getMatchDiscountProductList(skuIds);
+        // 管理后台的校验，需要以数据库为准，所以不走活动索引
+        List<DiscountProductDO> matchDiscountProductList = discountProductMapper.getMatchDiscountProductList(skuIds);
         if (id != null) { // 排除自己这个活动
             matchDiscountProductList.removeIf(product -> id.equals(product.getActivityId()));
         }
@@ -147,6 +160,8 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
         // 更新
         DiscountActivityDO updateObj = new DiscountActivityDO().setId(id).setStatus(PromotionActivityStatusEnum.CLOSE.getStatus());
         discountActivityMapper.updateById(updateObj);
+        // 通知刷新活动索引
+        sendActivityRefreshMessage(id);
     }
 
     @Override
@@ -161,6 +176,10 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
         discountActivityMapper.deleteById(id);
     }
 
+    private void sendActivityRefreshMessage(Long id) {
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.DISCOUNT_ACTIVITY.getType(), id);
+    }
+
     private DiscountActivityDO validateDiscountActivityExists(Long id) {
         DiscountActivityDO discountActivity = discountActivityMapper.selectById(id);
         if (discountActivity == null) {
@@ -10,6 +10,8 @@ import cn.iocoder.yudao.module.promotion.convert.reward.RewardActivityConvert;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.reward.RewardActivityMapper;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionActivityStatusEnum;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
 import cn.iocoder.yudao.module.promotion.util.PromotionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
@@ -37,6 +39,9 @@ public class RewardActivityServiceImpl implements RewardActivityService {
     @Resource
     private RewardActivityMapper rewardActivityMapper;
 
+    @Resource
+    private PromotionActivityProducer promotionActivityProducer;
+
     @Override
     public Long createRewardActivity(RewardActivityCreateReqVO createReqVO) {
         // 校验商品是否冲突
@@ -46,6 +51,8 @@ public class RewardActivityServiceImpl implements RewardActivityService {
         RewardActivityDO rewardActivity = RewardActivityConvert.INSTANCE.convert(createReqVO)
                 .setStatus(PromotionUtils.calculateActivityStatus(createReqVO.getEndTime()));
         rewardActivityMapper.insert(rewardActivity);
+        // 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.REWARD_ACTIVITY.getType(), rewardActivity.getId());
         // 返回
         return rewardActivity.getId();
     }
@@ -64,6 +71,8 @@ public class RewardActivityServiceImpl implements RewardActivityService {
         RewardActivityDO updateObj = RewardActivityConvert.INSTANCE.convert(updateReqVO)
                 .setStatus(PromotionUtils.calculateActivityStatus(updateReqVO.getEndTime()));
         rewardActivityMapper.updateById(updateObj);
+        // 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.REWARD_ACTIVITY.getType(), updateObj.getId());
     }
 
     @Override
@@ -80,6 +89,8 @@ public class RewardActivityServiceImpl implements RewardActivityService {
         // 更新
         RewardActivityDO updateObj = new RewardActivityDO().setId(id).setStatus(PromotionActivityStatusEnum.CLOSE.getStatus());
         rewardActivityMapper.updateById(updateObj);
+        // 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.REWARD_ACTIVITY.getType(), id);
     }
 
     @Override
@@ -39,6 +39,8 @@ public interface SeckillActivityService {
     /**
      * 更新秒杀库存（减少）
      *
+     * 基于 Redis 扣减库存，DB 库存由 {@link #reconcileSeckillStock()} 异步同步
+     *
      * @param id    活动编号
      * @param skuId sku 编号
      * @param count 数量（正数）
@@ -54,6 +56,13 @@ public interface SeckillActivityService {
      */
     void updateSeckillStockIncr(Long id, Long skuId, Integer count);
 
+    /**
+     * 将 Redis 中已扣减、归还的秒杀库存，批量同步到 DB 中
+     *
+     * @return 同步的活动数量
+     */
+    int reconcileSeckillStock();
+
     /**
      * 关闭秒杀活动
      *
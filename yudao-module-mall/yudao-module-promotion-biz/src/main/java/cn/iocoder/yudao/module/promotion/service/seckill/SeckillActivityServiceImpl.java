@@ -4,6 +4,7 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils;
@@ -23,8 +24,14 @@ import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillConfigDO;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillProductDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillActivityMapper;
 import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillProductMapper;
+import cn.iocoder.yudao.module.promotion.dal.redis.seckill.SeckillStockRedisDAO;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
@@ -33,6 +40,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static cn.hutool.core.collection.CollUtil.isNotEmpty;
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
@@ -50,6 +58,7 @@ import static java.util.Collections.singletonList;
  */
 @Service
 @Validated
+@Slf4j
 public class SeckillActivityServiceImpl implements SeckillActivityService {
 
     @Resource
@@ -63,6 +72,12 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
     @Resource
     private ProductSkuApi productSkuApi;
 
+    @Resource
+    private SeckillStockRedisDAO seckillStockRedisDAO;
+
+    @Resource
+    private PromotionActivityProducer promotionActivityProducer;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createSeckillActivity(SeckillActivityCreateReqVO createReqVO) {
@@ -80,6 +95,10 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         // 2.2 插入商品
         List<SeckillProductDO> products = SeckillActivityConvert.INSTANCE.convertList(createReqVO.getProducts(), activity);
         seckillProductMapper.insertBatch(products);
+        // 2.3 事务提交后，加载库存到 Redis 中
+        refreshSeckillStockAfterCommit(activity.getId());
+        // 2.4 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.SECKILL_ACTIVITY.getType(), activity.getId());
         return activity.getId();
     }
 
@@ -154,43 +173,135 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         seckillActivityMapper.updateById(updateObj);
         // 2.2 更新商品
         updateSeckillProduct(updateObj, updateReqVO.getProducts());
+        // 2.3 事务提交后，重新加载库存到 Redis 中
+        refreshSeckillStockAfterCommit(updateObj.getId());
+        // 2.4 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.SECKILL_ACTIVITY.getType(), updateObj.getId());
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public void updateSeckillStockDecr(Long id, Long skuId, Integer count) {
-        // 1.1 校验活动库存是否充足
-        SeckillActivityDO seckillActivity = validateSeckillActivityExists(id);
-        if (count > seckillActivity.getTotalStock()) {
-            throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
+        // 1. 基于 Redis 扣减库存；如果库存未加载，则从 DB 加载后重试
+        long result = seckillStockRedisDAO.decrStock(id, skuId, count);
+        if (result == SeckillStockRedisDAO.DECR_NOT_LOADED) {
+            loadSeckillStock(id, false);
+            result = seckillStockRedisDAO.decrStock(id, skuId, count);
         }
-        // 1.2 校验商品库存是否充足
-        SeckillProductDO product = seckillProductMapper.selectByActivityIdAndSkuId(id, skuId);
-        if (product == null || count > product.getStock()) {
+        if (result != SeckillStockRedisDAO.DECR_SUCCESS) {
             throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
         }
 
-        // 2.1 更新活动商品库存
-        int updateCount = seckillProductMapper.updateStockDecr(product.getId(), count);
-        if (updateCount == 0) {
-            throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
+        // 2. 如果调用方的事务回滚（例如说，订单创建失败），则归还库存
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        seckillStockRedisDAO.incrStock(id, skuId, count);
+                    }
+                }
+
+            });
         }
+    }
 
-        // 2.2 更新活动库存
-        updateCount = seckillActivityMapper.updateStockDecr(seckillActivity.getId(), count);
-        if (updateCount == 0) {
-            throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
+    @Override
+    public void updateSeckillStockIncr(Long id, Long skuId, Integer count) {
+        // 如果调用方存在事务（例如说，取消订单），则在事务提交后，再归还库存
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            seckillStockRedisDAO.incrStock(id, skuId, count);
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                seckillStockRedisDAO.incrStock(id, skuId, count);
+            }
+
+        });
     }
 
     @Override
+    public int reconcileSeckillStock() {
+        Set<Long> activityIds = seckillStockRedisDAO.getPendingActivityIds();
+        activityIds.forEach(activityId -> {
+            try {
+                seckillStockRedisDAO.lock(activityId, () -> reconcileSeckillStock(activityId));
+            } catch (Exception ex) {
+                log.error("[reconcileSeckillStock][活动({}) 同步库存失败]", activityId, ex);
+            }
+        });
+        return activityIds.size();
+    }
+
+    private void reconcileSeckillStock(Long activityId) {
+        // 1. 获取待同步库存
+        Map<Long, Integer> skuCounts = seckillStockRedisDAO.takePendingStock(activityId);
+        if (CollUtil.isEmpty(skuCounts)) {
+            return;
+        }
+        // 2. 同步到 DB 中
+        getSelf().updateSeckillStockDecrForce(activityId, skuCounts);
+        // 3. 同步完成，删除同步中库存
+        seckillStockRedisDAO.removeProcessingStock(activityId);
+    }
+
+    /**
+     * 批量扣减 DB 中的活动商品库存、活动库存
+     *
+     * @param activityId 活动编号
+     * @param skuCounts  扣减的库存，key：SKU 编号；value：扣减数量，负数表示增加
+     */
     @Transactional(rollbackFor = Exception.class)
-    public void updateSeckillStockIncr(Long id, Long skuId, Integer count) {
-        SeckillProductDO product = seckillProductMapper.selectByActivityIdAndSkuId(id, skuId);
-        // 更新活动商品库存
-        seckillProductMapper.updateStockIncr(product.getId(), count);
-        // 更新活动库存
-        seckillActivityMapper.updateStockIncr(id, count);
+    public void updateSeckillStockDecrForce(Long activityId, Map<Long, Integer> skuCounts) {
+        skuCounts.forEach((skuId, count) -> {
+            if (count != 0) {
+                seckillProductMapper.updateStockDecrForce(activityId, skuId, count);
+            }
+        });
+        int totalCount = getSumValue(skuCounts.values(), count -> count, Integer::sum);
+        if (totalCount != 0) {
+            seckillActivityMapper.updateStockDecrForce(activityId, totalCount);
+        }
+    }
+
+    /**
+     * 加载秒杀活动的库存到 Redis 中
+     *
+     * @param activityId 活动编号
+     * @param refresh    是否刷新。如果是，则删除已加载的库存后，重新加载
+     */
+    private void loadSeckillStock(Long activityId, boolean refresh) {
+        seckillStockRedisDAO.lock(activityId, () -> {
+            if (refresh) {
+                seckillStockRedisDAO.deleteStock(activityId);
+            } else if (seckillStockRedisDAO.hasStock(activityId)) {
+                return;
+            }
+            SeckillActivityDO activity = seckillActivityMapper.selectById(activityId);
+            if (activity == null) {
+                return;
+            }
+            List<SeckillProductDO> products = seckillProductMapper.selectListByActivityId(activityId);
+            if (CollUtil.isEmpty(products)) {
+                return;
+            }
+            seckillStockRedisDAO.loadStock(activityId,
+                    convertMap(products, SeckillProductDO::getSkuId, SeckillProductDO::getStock), activity.getEndTime());
+        });
+    }
+
+    private void refreshSeckillStockAfterCommit(Long activityId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                loadSeckillStock(activityId, true);
+            }
+
+        });
     }
 
     /**
@@ -234,6 +345,8 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         // 更新
         SeckillActivityDO updateObj = new SeckillActivityDO().setId(id).setStatus(CommonStatusEnum.DISABLE.getStatus());
         seckillActivityMapper.updateById(updateObj);
+        // 通知刷新活动索引
+        promotionActivityProducer.sendActivityRefreshMessage(PromotionTypeEnum.SECKILL_ACTIVITY.getType(), id);
     }
 
     @Override
@@ -317,8 +430,9 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         if (product == null) {
             throw exception(SECKILL_JOIN_ACTIVITY_PRODUCT_NOT_EXISTS);
         }
-        // 2.2 校验库存是否充足
-        if (count > product.getStock()) {
+        // 2.2 校验库存是否充足，优先使用 Redis 中的库存
+        Integer stock = seckillStockRedisDAO.getStock(activityId, skuId);
+        if (count > (stock != null ? stock : product.getStock())) {
             throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
         }
         return SeckillActivityConvert.INSTANCE.convert02(activity, product);
@@ -336,4 +450,13 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
                 convertSet(spuIdAndActivityIdMaps, map -> MapUtil.getLong(map, "activityId")), dateTime);
     }
 
+    /**
+     * 获得自身的代理对象，解决 AOP 生效问题
+     *
+     * @return 自己
+     */
+    private SeckillActivityServiceImpl getSelf() {
+        return SpringUtil.getBean(getClass());
+    }
+
 }
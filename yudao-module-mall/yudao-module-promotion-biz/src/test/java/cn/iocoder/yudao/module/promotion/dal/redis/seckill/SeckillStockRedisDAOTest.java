@@ -0,0 +1,162 @@
+package cn.iocoder.yudao.module.promotion.dal.redis.seckill;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static cn.iocoder.yudao.module.promotion.dal.redis.seckill.SeckillStockRedisDAO.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link SeckillStockRedisDAO} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@Import(SeckillStockRedisDAO.class)
+public class SeckillStockRedisDAOTest extends BaseRedisUnitTest {
+
+    private static final Long ACTIVITY_ID = 1L;
+    private static final Long SKU_ID = 10L;
+
+    @Resource
+    private SeckillStockRedisDAO seckillStockRedisDAO;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.getRequiredConnectionFactory().getConnection().flushDb();
+    }
+
+    @Test
+    public void testDecrStock_notLoaded() {
+        // 调用
+        long result = seckillStockRedisDAO.decrStock(ACTIVITY_ID, SKU_ID, 1);
+        // 断言
+        assertEquals(DECR_NOT_LOADED, result);
+        assertNull(seckillStockRedisDAO.getStock(ACTIVITY_ID, SKU_ID));
+        assertTrue(seckillStockRedisDAO.getPendingActivityIds().isEmpty());
+    }
+
+    @Test
+    public void testDecrStock_success() {
+        // mock 数据
+        loadStock(10);
+
+        // 调用
+        long result = seckillStockRedisDAO.decrStock(ACTIVITY_ID, SKU_ID, 3);
+        // 断言
+        assertEquals(DECR_SUCCESS, result);
+        assertEquals(7, seckillStockRedisDAO.getStock(ACTIVITY_ID, SKU_ID));
+        assertEquals(Collections.singleton(ACTIVITY_ID), seckillStockRedisDAO.getPendingActivityIds());
+        assertEquals(Collections.singletonMap(SKU_ID, 3), seckillStockRedisDAO.takePendingStock(ACTIVITY_ID));
+    }
+
+    @Test
+    public void testDecrStock_notEnough() {
+        // mock 数据
+        loadStock(2);
+
+        // 调用
+        long result = seckillStockRedisDAO.decrStock(ACTIVITY_ID, SKU_ID, 3);
+        // 断言：库存不变，也不记录待同步库存
+        assertEquals(DECR_STOCK_NOT_ENOUGH, result);
+        assertEquals(2, seckillStockRedisDAO.getStock(ACTIVITY_ID, SKU_ID));
+        assertTrue(seckillStockRedisDAO.getPendingActivityIds().isEmpty());
+    }
+
+    @Test
+    public void testIncrStock_loaded() {
+        // mock 数据
+        loadStock(10);
+        seckillStockRedisDAO.decrStock(ACTIVITY_ID, SKU_ID, 3);
+
+        // 调用
+        seckillStockRedisDAO.incrStock(ACTIVITY_ID, SKU_ID, 3);
+        // 断言：扣减、归还相互抵消
+        assertEquals(10, seckillStockRedisDAO.getStock(ACTIVITY_ID, SKU_ID));
+        assertEquals(Collections.singletonMap(SKU_ID, 0), seckillStockRedisDAO.takePendingStock(ACTIVITY_ID));
+    }
+
+    @Test
+    public void testIncrStock_notLoaded() {
+        // 调用
+        seckillStockRedisDAO.incrStock(ACTIVITY_ID, SKU_ID, 2);
+        // 断言：只记录待同步库存
+        assertNull(seckillStockRedisDAO.getStock(ACTIVITY_ID, SKU_ID));
+        assertEquals(Collections.singleton(ACTIVITY_ID), seckillStockRedisDAO.getPendingActivityIds());
+
+        // 调用：加载时，DB 库存需要加上待归还的库存
+        loadStock(10);
+        // 断言
+        assertEquals(12, seckillStockRedisDAO.getStock(ACTIVITY_ID, SKU_ID));
+    }
+
+    @Test
+    public void testLoadStock_withPendingAndProcessing() {
+        // mock 数据：已扣减 3 个，其中 2 个正在同步中，1 个待同步
+        loadStock(10);
+        seckillStockRedisDAO.decrStock(ACTIVITY_ID, SKU_ID, 2);
+        seckillStockRedisDAO.takePendingStock(ACTIVITY_ID);
+        seckillStockRedisDAO.decrStock(ACTIVITY_ID, SKU_ID, 1);
+        seckillStockRedisDAO.deleteStock(ACTIVITY_ID);
+
+        // 调用：DB 库存还是 10 个
+        loadStock(10);
+        // 断言：需要扣除待同步、同步中的库存
+        assertEquals(7, seckillStockRedisDAO.getStock(ACTIVITY_ID, SKU_ID));
+    }
+
+    @Test
+    public void testLoadStock_exists() {
+        // mock 数据
+        loadStock(10);
+        seckillStockRedisDAO.decrStock(ACTIVITY_ID, SKU_ID, 3);
+
+        // 调用：已经加载时，不进行覆盖
+        loadStock(100);
+        // 断言
+        assertEquals(7, seckillStockRedisDAO.getStock(ACTIVITY_ID, SKU_ID));
+    }
+
+    @Test
+    public void testTakePendingStock() {
+        // mock 数据
+        loadStock(10);
+        seckillStockRedisDAO.decrStock(ACTIVITY_ID, SKU_ID, 3);
+
+        // 调用：第一次获取
+        Map<Long, Integer> skuCounts = seckillStockRedisDAO.takePendingStock(ACTIVITY_ID);
+        // 断言
+        assertEquals(Collections.singletonMap(SKU_ID, 3), skuCounts);
+
+        // 调用：未删除同步中库存时（例如说，上次同步失败），新的扣减不会混入，再次获取仍返回上次的同步中库存
+        seckillStockRedisDAO.decrStock(ACTIVITY_ID, SKU_ID, 1);
+        assertEquals(Collections.singletonMap(SKU_ID, 3), seckillStockRedisDAO.takePendingStock(ACTIVITY_ID));
+
+        // 调用：删除同步中库存后，获取新的待同步库存
+        seckillStockRedisDAO.removeProcessingStock(ACTIVITY_ID);
+        assertEquals(Collections.singletonMap(SKU_ID, 1), seckillStockRedisDAO.takePendingStock(ACTIVITY_ID));
+
+        // 调用：全部同步完成后，移除待同步活动
+        seckillStockRedisDAO.removeProcessingStock(ACTIVITY_ID);
+        assertTrue(seckillStockRedisDAO.takePendingStock(ACTIVITY_ID).isEmpty());
+        assertTrue(seckillStockRedisDAO.getPendingActivityIds().isEmpty());
+    }
+
+    private void loadStock(int stock) {
+        Map<Long, Integer> skuStocks = new HashMap<>();
+        skuStocks.put(SKU_ID, stock);
+        seckillStockRedisDAO.loadStock(ACTIVITY_ID, skuStocks, LocalDateTime.now().plusHours(1));
+    }
+
+}
@@ -0,0 +1,132 @@
+package cn.iocoder.yudao.module.promotion.service.activity;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountProductDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.mysql.bargain.BargainActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.combination.CombinationActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountProductMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.reward.RewardActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillActivityMapper;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import cn.iocoder.yudao.module.promotion.service.activity.bo.PromotionActivityIndexBO;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link PromotionActivityIndexServiceImpl} 的单元测试类
+ *
+ * @author 芋道源码
+ */
+public class PromotionActivityIndexServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private PromotionActivityIndexServiceImpl promotionActivityIndexService;
+
+    @Mock
+    private SeckillActivityMapper seckillActivityMapper;
+    @Mock
+    private CombinationActivityMapper combinationActivityMapper;
+    @Mock
+    private BargainActivityMapper bargainActivityMapper;
+    @Mock
+    private DiscountActivityMapper discountActivityMapper;
+    @Mock
+    private DiscountProductMapper discountProductMapper;
+    @Mock
+    private RewardActivityMapper rewardActivityMapper;
+
+    @Test
+    public void testGetActivityListMap() {
+        LocalDateTime now = LocalDateTime.now();
+        // mock 方法（秒杀：同一 SPU 两个进行中的活动，一个未开始的活动）
+        when(seckillActivityMapper.selectListByStatusAndEndTimeGt(any(), any())).thenReturn(asList(
+                new SeckillActivityDO().setId(1L).setSpuId(10L).setName("秒杀 1")
+                        .setStartTime(now.minusHours(1)).setEndTime(now.plusHours(1)),
+                new SeckillActivityDO().setId(2L).setSpuId(10L).setName("秒杀 2")
+                        .setStartTime(now.minusHours(1)).setEndTime(now.plusHours(2)),
+                new SeckillActivityDO().setId(3L).setSpuId(20L).setName("秒杀 3")
+                        .setStartTime(now.plusDays(1)).setEndTime(now.plusDays(2))));
+        // mock 方法（满减送：全场活动）
+        when(rewardActivityMapper.selectListByStatusAndEndTimeGt(any(), any())).thenReturn(singletonList(
+                new RewardActivityDO().setId(4L).setName("满减送").setProductScope(PromotionProductScopeEnum.ALL.getScope())
+                        .setStartTime(now.minusHours(1)).setEndTime(now.plusHours(3))));
+
+        // 调用
+        Map<Long, List<PromotionActivityIndexBO.Activity>> result = promotionActivityIndexService.getActivityListMap(asList(10L, 20L));
+        // 断言：SPU 10 命中最新的秒杀活动，以及全场满减送
+        List<PromotionActivityIndexBO.Activity> activities10 = result.get(10L);
+        assertEquals(2, activities10.size());
+        assertEquals(2L, activities10.get(0).getId());
+        assertEquals(PromotionTypeEnum.SECKILL_ACTIVITY.getType(), activities10.get(0).getType());
+        assertEquals(4L, activities10.get(1).getId());
+        // 断言：SPU 20 的秒杀活动未开始，只命中全场满减送
+        List<PromotionActivityIndexBO.Activity> activities20 = result.get(20L);
+        assertEquals(1, activities20.size());
+        assertEquals(PromotionTypeEnum.REWARD_ACTIVITY.getType(), activities20.get(0).getType());
+
+        // 再次调用，命中本地缓存，不再查询数据库
+        promotionActivityIndexService.getActivityListMap(singletonList(10L));
+        verify(seckillActivityMapper, times(1)).selectListByStatusAndEndTimeGt(any(), any());
+    }
+
+    @Test
+    public void testGetActivityListMap_expired() {
+        LocalDateTime now = LocalDateTime.now();
+        // mock 方法（活动已到达结束时间）
+        when(seckillActivityMapper.selectListByStatusAndEndTimeGt(any(), any())).thenReturn(singletonList(
+                new SeckillActivityDO().setId(1L).setSpuId(10L).setName("秒杀 1")
+                        .setStartTime(now.minusHours(1)).setEndTime(now)));
+
+        // 调用
+        promotionActivityIndexService.getActivityListMap(singletonList(10L));
+        Map<Long, List<PromotionActivityIndexBO.Activity>> result = promotionActivityIndexService.getActivityListMap(singletonList(10L));
+        // 断言：活动不生效，且索引的过期时间为活动的结束时间，所以每次读取都会重建
+        assertTrue(result.get(10L).isEmpty());
+        verify(seckillActivityMapper, times(2)).selectListByStatusAndEndTimeGt(any(), any());
+    }
+
+    @Test
+    public void testGetMatchDiscountProductList() {
+        LocalDateTime now = LocalDateTime.now();
+        // mock 方法
+        when(discountActivityMapper.selectListByStatusAndEndTimeGt(any(), any())).thenReturn(asList(
+                new DiscountActivityDO().setId(1L).setName("进行中").setStartTime(now.minusHours(1)).setEndTime(now.plusHours(1)),
+                new DiscountActivityDO().setId(2L).setName("未开始").setStartTime(now.plusHours(1)).setEndTime(now.plusHours(2))));
+        when(discountProductMapper.selectListByActivityId(anyCollection())).thenReturn(asList(
+                new DiscountProductDO().setActivityId(1L).setSpuId(10L).setSkuId(100L),
+                new DiscountProductDO().setActivityId(2L).setSpuId(20L).setSkuId(200L)));
+
+        // 调用
+        List<DiscountProductDO> products = promotionActivityIndexService.getMatchDiscountProductList(asList(100L, 200L));
+        // 断言：只匹配进行中的活动
+        assertEquals(1, products.size());
+        assertEquals(100L, products.get(0).getSkuId());
+    }
+
+    @Test
+    public void testInvalidateLocalCache() {
+        // 调用
+        promotionActivityIndexService.getActivityListMap(singletonList(10L));
+        promotionActivityIndexService.invalidateLocalCache();
+        promotionActivityIndexService.getActivityListMap(singletonList(10L));
+        // 断言：失效后重建
+        verify(seckillActivityMapper, times(2)).selectListByStatusAndEndTimeGt(any(), any());
+    }
+
+}
@@ -0,0 +1,81 @@
+package cn.iocoder.yudao.module.promotion.service.coupon;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.coupon.CouponDO;
+import cn.iocoder.yudao.module.promotion.dal.mysql.coupon.CouponMapper;
+import cn.iocoder.yudao.module.promotion.dal.redis.coupon.CouponTakeCountRedisDAO;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link CouponServiceImpl} 的单元测试类
+ *
+ * @author 芋道源码
+ */
+public class CouponServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private CouponServiceImpl couponService;
+
+    @Mock
+    private CouponTemplateService couponTemplateService;
+    @Mock
+    private CouponMapper couponMapper;
+    @Mock
+    private CouponTakeCountRedisDAO couponTakeCountRedisDAO;
+    @Mock
+    private MemberUserApi memberUserApi;
+
+    @Test
+    public void testExpireCoupon() {
+        // mock 方法（第一批满 1000 个，第二批 1 个）
+        List<CouponDO> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            firstBatch.add(new CouponDO().setId(id));
+        }
+        when(couponMapper.selectIdListByStatusAndValidEndTimeLe(any(), any(), eq(0L), eq(1000)))
+                .thenReturn(firstBatch);
+        when(couponMapper.selectIdListByStatusAndValidEndTimeLe(any(), any(), eq(1000L), eq(1000)))
+                .thenReturn(Collections.singletonList(new CouponDO().setId(1001L)));
+        when(couponMapper.updateByIdInAndStatusAndValidEndTimeLe(anyCollection(), any(), any(), any()))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+
+        // 调用
+        int count = couponService.expireCoupon();
+        // 断言：分两批更新，第二批不足 1000 个，不再继续查询
+        assertEquals(1001, count);
+        verify(couponMapper, times(2)).updateByIdInAndStatusAndValidEndTimeLe(anyCollection(), any(), any(), any());
+        verify(couponMapper, times(2)).selectIdListByStatusAndValidEndTimeLe(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void testGetTakeCountMapByTemplateIds() {
+        // mock 方法（模板 1 已加载到 Redis；模板 2、3 未加载，其中模板 2 在 DB 中领取过）
+        Long userId = 10L;
+        when(couponTakeCountRedisDAO.getTakeCountMap(anyCollection(), eq(userId)))
+                .thenReturn(new HashMap<>(singletonMap(1L, 2)));
+        when(couponMapper.selectCountByUserIdAndTemplateIdIn(eq(userId), eq(asList(2L, 3L))))
+                .thenReturn(singletonMap(2L, 1));
+
+        // 调用
+        Map<Long, Integer> result = couponService.getTakeCountMapByTemplateIds(asList(1L, 2L, 3L), userId);
+        // 断言
+        assertEquals(3, result.size());
+        assertEquals(2, result.get(1L));
+        assertEquals(1, result.get(2L));
+        assertEquals(0, result.get(3L));
+        verify(couponTakeCountRedisDAO).loadTakeCount(eq(2L), eq(singletonMap(userId, 1)));
+        verify(couponTakeCountRedisDAO).loadTakeCount(eq(3L), eq(singletonMap(userId, 0)));
+    }
+
+}
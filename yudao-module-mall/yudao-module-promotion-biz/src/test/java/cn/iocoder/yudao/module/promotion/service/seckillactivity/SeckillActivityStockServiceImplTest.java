@@ -0,0 +1,173 @@
+package cn.iocoder.yudao.module.promotion.service.seckillactivity;
+
+import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbAndRedisUnitTest;
+import cn.iocoder.yudao.module.product.api.sku.ProductSkuApi;
+import cn.iocoder.yudao.module.product.api.spu.ProductSpuApi;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillProductDO;
+import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillProductMapper;
+import cn.iocoder.yudao.module.promotion.dal.redis.seckill.SeckillStockRedisDAO;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
+import cn.iocoder.yudao.module.promotion.service.seckill.SeckillActivityServiceImpl;
+import cn.iocoder.yudao.module.promotion.service.seckill.SeckillConfigService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
+import static cn.iocoder.yudao.module.promotion.enums.ErrorCodeConstants.SECKILL_ACTIVITY_UPDATE_STOCK_FAIL;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * {@link SeckillActivityServiceImpl} 的库存扣减、归还、同步的单元测试，基于内存 DB + Redis
+ *
+ * @author 芋道源码
+ */
+@Import({SeckillActivityServiceImpl.class, SeckillStockRedisDAO.class})
+public class SeckillActivityStockServiceImplTest extends BaseDbAndRedisUnitTest {
+
+    private static final Long SKU_ID = 10L;
+
+    @Resource
+    private SeckillActivityServiceImpl seckillActivityService;
+
+    @Resource
+    private SeckillActivityMapper seckillActivityMapper;
+    @Resource
+    private SeckillProductMapper seckillProductMapper;
+    @Resource
+    private SeckillStockRedisDAO seckillStockRedisDAO;
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @MockBean
+    private SeckillConfigService seckillConfigService;
+    @MockBean
+    private ProductSpuApi productSpuApi;
+    @MockBean
+    private ProductSkuApi productSkuApi;
+    @MockBean
+    private PromotionActivityProducer promotionActivityProducer;
+
+    private MockedStatic<SpringUtil> springUtilMockedStatic;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.getRequiredConnectionFactory().getConnection().flushDb();
+        // getSelf() 通过 SpringUtil 获得自身
+        springUtilMockedStatic = mockStatic(SpringUtil.class);
+        springUtilMockedStatic.when(() -> SpringUtil.getBean(eq(SeckillActivityServiceImpl.class)))
+                .thenReturn(seckillActivityService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        springUtilMockedStatic.close();
+    }
+
+    @Test
+    public void testUpdateSeckillStockDecr_loadFromDb() {
+        // mock 数据
+        Long activityId = createActivity(10);
+
+        // 调用：库存未加载时，从 DB 加载后扣减
+        seckillActivityService.updateSeckillStockDecr(activityId, SKU_ID, 3);
+        // 断言：Redis 库存已扣减，DB 库存在同步前不变
+        assertEquals(7, seckillStockRedisDAO.getStock(activityId, SKU_ID));
+        assertProductStock(activityId, 10);
+    }
+
+    @Test
+    public void testUpdateSeckillStockDecr_notEnough() {
+        // mock 数据
+        Long activityId = createActivity(2);
+
+        // 调用，并断言异常
+        assertServiceException(() -> seckillActivityService.updateSeckillStockDecr(activityId, SKU_ID, 3),
+                SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
+        // 断言：库存不变
+        assertEquals(2, seckillStockRedisDAO.getStock(activityId, SKU_ID));
+    }
+
+    @Test
+    public void testUpdateSeckillStockDecr_oversell() {
+        // mock 数据
+        Long activityId = createActivity(5);
+
+        // 调用：扣减 6 次，只有 5 次成功
+        int success = 0;
+        for (int i = 0; i < 6; i++) {
+            try {
+                seckillActivityService.updateSeckillStockDecr(activityId, SKU_ID, 1);
+                success++;
+            } catch (ServiceException ignore) {
+            }
+        }
+        // 断言
+        assertEquals(5, success);
+        assertEquals(0, seckillStockRedisDAO.getStock(activityId, SKU_ID));
+    }
+
+    @Test
+    public void testReconcileSeckillStock() {
+        // mock 数据：扣减 3 个，再归还 1 个
+        Long activityId = createActivity(10);
+        seckillActivityService.updateSeckillStockDecr(activityId, SKU_ID, 3);
+        seckillActivityService.updateSeckillStockIncr(activityId, SKU_ID, 1);
+
+        // 调用
+        int count = seckillActivityService.reconcileSeckillStock();
+        // 断言：DB 库存与 Redis 库存一致
+        assertEquals(1, count);
+        assertProductStock(activityId, 8);
+        assertEquals(8, seckillActivityMapper.selectById(activityId).getStock());
+        assertEquals(8, seckillStockRedisDAO.getStock(activityId, SKU_ID));
+
+        // 调用：再次同步，没有待同步库存
+        assertEquals(0, seckillActivityService.reconcileSeckillStock());
+        assertProductStock(activityId, 8);
+    }
+
+    @Test
+    public void testReconcileSeckillStock_reload() {
+        // mock 数据：扣减 3 个，同步前 Redis 库存过期
+        Long activityId = createActivity(10);
+        seckillActivityService.updateSeckillStockDecr(activityId, SKU_ID, 3);
+        seckillStockRedisDAO.deleteStock(activityId);
+
+        // 调用：重新加载时，需要扣除待同步库存；同步后，DB 库存与 Redis 库存一致
+        seckillActivityService.updateSeckillStockDecr(activityId, SKU_ID, 1);
+        assertEquals(6, seckillStockRedisDAO.getStock(activityId, SKU_ID));
+        seckillActivityService.reconcileSeckillStock();
+        // 断言
+        assertProductStock(activityId, 6);
+        assertEquals(6, seckillActivityMapper.selectById(activityId).getStock());
+    }
+
+    private Long createActivity(int stock) {
+        SeckillActivityDO activity = randomPojo(SeckillActivityDO.class, o -> o.setStock(stock)
+                .setEndTime(LocalDateTime.now().plusHours(1)));
+        seckillActivityMapper.insert(activity);
+        seckillProductMapper.insert(randomPojo(SeckillProductDO.class, o -> o.setActivityId(activity.getId())
+                .setSkuId(SKU_ID).setStock(stock)));
+        return activity.getId();
+    }
+
+    private void assertProductStock(Long activityId, int stock) {
+        assertEquals(stock, seckillProductMapper.selectByActivityIdAndSkuId(activityId, SKU_ID).getStock());
+    }
+
+}
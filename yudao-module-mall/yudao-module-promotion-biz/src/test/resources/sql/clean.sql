@@ -4,6 +4,8 @@ DELETE FROM "promotion_coupon";
 DELETE FROM "promotion_reward_activity";
 DELETE FROM "promotion_discount_activity";
 DELETE FROM "promotion_discount_product";
+DELETE FROM "promotion_seckill_activity";
+DELETE FROM "promotion_seckill_product";
 DELETE FROM "promotion_seckill_config";
 DELETE FROM "promotion_combination_activity";
 DELETE FROM "promotion_article_category";
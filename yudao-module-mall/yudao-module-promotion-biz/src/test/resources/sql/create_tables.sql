@@ -119,13 +119,13 @@ CREATE TABLE IF NOT EXISTS "promotion_seckill_activity"
     "name"               varchar  NOT NULL,
     "status"             int      NOT NULL,
     "remark"             varchar,
-    "start_time"         varchar  NOT NULL,
-    "end_time"           varchar  NOT NULL,
+    "start_time"         datetime NOT NULL,
+    "end_time"           datetime NOT NULL,
     "sort"               int      NOT NULL,
     "config_ids"         varchar  NOT NULL,
-    "order_count"        int      NOT NULL,
-    "user_count"         int      NOT NULL,
-    "total_price"        int      NOT NULL,
+    "order_count"        int,
+    "user_count"         int,
+    "total_price"        int,
     "total_limit_count"  int,
     "single_limit_count" int,
     "stock"              int,
@@ -135,10 +135,30 @@ CREATE TABLE IF NOT EXISTS "promotion_seckill_activity"
     "updater"            varchar           DEFAULT '',
     "update_time"        datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     "deleted"            bit      NOT NULL DEFAULT FALSE,
-    "tenant_id"          bigint   NOT NULL,
+    "tenant_id"          bigint   NOT NULL DEFAULT 0,
     PRIMARY KEY ("id")
 ) COMMENT '秒杀活动';
 
+CREATE TABLE IF NOT EXISTS "promotion_seckill_product"
+(
+    "id"                  bigint   NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    "activity_id"         bigint   NOT NULL,
+    "config_ids"          varchar  NOT NULL,
+    "spu_id"              bigint   NOT NULL,
+    "sku_id"              bigint   NOT NULL,
+    "seckill_price"       int      NOT NULL,
+    "stock"               int      NOT NULL,
+    "activity_status"     int      NOT NULL,
+    "activity_start_time" datetime NOT NULL,
+    "activity_end_time"   datetime NOT NULL,
+    "creator"             varchar           DEFAULT '',
+    "create_time"         datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "updater"             varchar           DEFAULT '',
+    "update_time"         datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    "deleted"             bit      NOT NULL DEFAULT FALSE,
+    PRIMARY KEY ("id")
+) COMMENT '秒杀参与商品';
+
 CREATE TABLE IF NOT EXISTS "promotion_seckill_config"
 (
     "id"          bigint   NOT NULL GENERATED BY DEFAULT AS IDENTITY,
@@ -0,0 +1,38 @@
+package cn.iocoder.yudao.module.trade.enums.order;
+
+import cn.iocoder.yudao.framework.common.core.IntArrayValuable;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * 交易订单 - 超时类型
+ *
+ * @author 芋道源码
+ */
+@RequiredArgsConstructor
+@Getter
+public enum TradeOrderTimeoutTypeEnum implements IntArrayValuable {
+
+    PAY(10, "超时未支付，自动取消"),
+    RECEIVE(20, "超时未收货，自动收货"),
+    COMMENT(30, "超时未评论，自动评论");
+
+    public static final int[] ARRAYS = Arrays.stream(values()).mapToInt(TradeOrderTimeoutTypeEnum::getType).toArray();
+
+    /**
+     * 超时类型
+     */
+    private final Integer type;
+    /**
+     * 超时类型名
+     */
+    private final String name;
+
+    @Override
+    public int[] array() {
+        return ARRAYS;
+    }
+
+}
@@ -1,18 +1,33 @@
 package cn.iocoder.yudao.module.trade.dal.redis.no;
 
 import cn.hutool.core.date.DatePattern;
-import cn.hutool.core.date.DateUtil;
 import cn.iocoder.yudao.module.trade.dal.redis.RedisKeyConstants;
+import com.google.common.annotations.VisibleForTesting;
+import lombok.AllArgsConstructor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.Resource;
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 订单序号的 Redis DAO
  *
+ * 序号格式为「前缀 + 秒级时间 + 自增序号」。每个节点按秒，从 Redis 租用一段序号（号段），然后在内存中无锁分配；
+ * 只有号段用完、或者进入下一秒时，才会访问 Redis，从而避免每个序号都访问一次 Redis
+ *
  * @author HUIHUI
  */
 @Repository
@@ -22,9 +37,33 @@ public class TradeNoRedisDAO {
 
     public static final String AFTER_SALE_NO_PREFIX = "r";
 
+    /**
+     * 每次从 Redis 租用的序号数量
+     */
+    private static final int BLOCK_SIZE = 100;
+
+    /**
+     * 序号 Key 的过期时间，单位：秒
+     */
+    private static final long KEY_EXPIRE_SECONDS = TimeUnit.MINUTES.toSeconds(1);
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DatePattern.PURE_DATETIME_PATTERN);
+
     @Resource
     private StringRedisTemplate stringRedisTemplate;
 
+    /**
+     * 每个前缀，当前使用的号段
+     *
+     * key：前缀
+     */
+    private final ConcurrentMap<String, AtomicReference<NoBlock>> blocks = new ConcurrentHashMap<>();
+
+    /**
+     * 时钟，用于获取当前秒
+     */
+    private Clock clock = Clock.systemDefaultZone();
+
     /**
      * 生成序号
      *
@@ -32,13 +71,81 @@ public class TradeNoRedisDAO {
      * @return 序号
      */
     public String generate(String prefix) {
-        // 递增序号
-        String noPrefix = prefix + DateUtil.format(LocalDateTime.now(), DatePattern.PURE_DATETIME_PATTERN);
-        String key = RedisKeyConstants.TRADE_NO + noPrefix;
-        Long no = stringRedisTemplate.opsForValue().increment(key);
-        // 设置过期时间
-        stringRedisTemplate.expire(key, Duration.ofMinutes(1L));
-        return noPrefix + no;
+        AtomicReference<NoBlock> blockRef = blocks.get(prefix);
+        if (blockRef == null) {
+            blockRef = blocks.computeIfAbsent(prefix, key -> new AtomicReference<>());
+        }
+        while (true) {
+            // 1. 从当前号段中分配。每次循环重新获取时间，避免等待租用期间进入下一秒；
+            //    号段的秒大于当前秒时（其它线程已经租用下一秒的号段，或者时钟回拨），继续使用该号段，保证序号不回退
+            long second = clock.millis() / 1000;
+            NoBlock block = blockRef.get();
+            if (block != null && block.second >= second) {
+                long no = block.next.getAndIncrement();
+                if (no <= block.end) {
+                    return block.noPrefix + no;
+                }
+            }
+            // 2. 号段用完、或者进入下一秒，租用新的号段。加锁，避免同一节点的多个线程重复租用
+            synchronized (blockRef) {
+                if (blockRef.get() != block) { // 其它线程已经租用新的号段
+                    continue;
+                }
+                // 号段的秒只能递增：号段用完时，如果还在同一秒（或者时钟回拨），继续租用号段的秒
+                NoBlock newBlock = leaseBlock(prefix, block != null ? Math.max(block.second, second) : second);
+                blockRef.compareAndSet(block, newBlock);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * 从 Redis 租用一段序号。通过 pipeline 执行 INCRBY + EXPIRE，只需要一次网络往返
+     *
+     * @param prefix 前缀
+     * @param second 秒级时间戳
+     * @return 号段
+     */
+    private NoBlock leaseBlock(String prefix, long second) {
+        String noPrefix = prefix + DATE_TIME_FORMATTER.format(
+                LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault()));
+        byte[] key = (RedisKeyConstants.TRADE_NO + noPrefix).getBytes(StandardCharsets.UTF_8);
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().incrBy(key, BLOCK_SIZE);
+            connection.keyCommands().expire(key, KEY_EXPIRE_SECONDS);
+            return null;
+        });
+        long end = (Long) results.get(0);
+        return new NoBlock(second, noPrefix, new AtomicLong(end - BLOCK_SIZE + 1), end);
+    }
+
+    /**
+     * 号段
+     */
+    @AllArgsConstructor
+    private static class NoBlock {
+
+        /**
+         * 秒级时间戳
+         */
+        private final long second;
+        /**
+         * 序号前缀，即「前缀 + 秒级时间」
+         */
+        private final String noPrefix;
+        /**
+         * 下一个序号
+         */
+        private final AtomicLong next;
+        /**
+         * 最大序号（包含）
+         */
+        private final long end;
+
     }
 
 }
@@ -0,0 +1,37 @@
+package cn.iocoder.yudao.module.trade.framework.price.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 价格计算的 Configuration
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+public class TradePriceConfiguration {
+
+    public static final String PRICE_THREAD_POOL_TASK_EXECUTOR = "PRICE_THREAD_POOL_TASK_EXECUTOR";
+
+    /**
+     * 价格计算时，并行预加载数据的线程池
+     *
+     * 由于 ThreadPoolTaskExecutor 会被 YudaoAsyncAutoConfiguration 接入 TransmittableThreadLocal，所以租户等上下文可以透传
+     */
+    @Bean(PRICE_THREAD_POOL_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor priceThreadPoolTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(16); // 设置核心线程数
+        executor.setMaxPoolSize(64); // 设置最大线程数
+        executor.setKeepAliveSeconds(60); // 设置空闲时间
+        executor.setQueueCapacity(1000); // 设置队列大小
+        executor.setThreadNamePrefix("price-task-"); // 配置线程池的前缀
+        // 线程池满时，由调用线程执行，退化为串行加载
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+}
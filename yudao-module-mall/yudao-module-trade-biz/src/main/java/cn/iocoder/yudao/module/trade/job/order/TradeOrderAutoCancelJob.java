@@ -10,6 +10,8 @@ import javax.annotation.Resource;
 /**
  * 交易订单的自动过期 Job
  *
+ * 下单时发送的支付超时延迟消息会准时取消订单，这里只扫描消息丢失、仍未取消的待支付订单
+ *
  * @author 芋道源码
  */
 @Component
@@ -10,6 +10,8 @@ import javax.annotation.Resource;
 /**
  * 交易订单的自动评论 Job
  *
+ * 收货时发送的评价超时延迟消息会准时默认好评，这里只扫描消息丢失、仍未评价的已完成订单
+ *
  * @author 芋道源码
  */
 @Component
@@ -10,6 +10,8 @@ import javax.annotation.Resource;
 /**
  * 交易订单的自动收货 Job
  *
+ * 发货时发送的收货超时延迟消息会准时确认收货，这里只扫描消息丢失、仍未收货的已发货订单
+ *
  * @author 芋道源码
  */
 @Component
@@ -0,0 +1,40 @@
+package cn.iocoder.yudao.module.trade.mq.consumer.order;
+
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTimeoutTypeEnum;
+import cn.iocoder.yudao.module.trade.mq.message.order.TradeOrderTimeoutMessage;
+import cn.iocoder.yudao.module.trade.service.order.TradeOrderUpdateService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link TradeOrderTimeoutMessage} 的消费者
+ *
+ * 消息至少投递一次，所以处理逻辑需要幂等：订单状态已变化时，直接忽略
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class TradeOrderTimeoutConsumer extends AbstractRedisStreamMessageListener<TradeOrderTimeoutMessage> {
+
+    @Resource
+    private TradeOrderUpdateService tradeOrderUpdateService;
+
+    @Override
+    public void onMessage(TradeOrderTimeoutMessage message) {
+        log.info("[onMessage][消息内容({})]", message);
+        if (TradeOrderTimeoutTypeEnum.PAY.getType().equals(message.getType())) {
+            tradeOrderUpdateService.cancelOrderBySystem(message.getOrderId());
+        } else if (TradeOrderTimeoutTypeEnum.RECEIVE.getType().equals(message.getType())) {
+            tradeOrderUpdateService.receiveOrderBySystem(message.getOrderId());
+        } else if (TradeOrderTimeoutTypeEnum.COMMENT.getType().equals(message.getType())) {
+            tradeOrderUpdateService.createOrderItemCommentBySystem(message.getOrderId());
+        } else {
+            log.error("[onMessage][未知的超时类型({})]", message.getType());
+        }
+    }
+
+}
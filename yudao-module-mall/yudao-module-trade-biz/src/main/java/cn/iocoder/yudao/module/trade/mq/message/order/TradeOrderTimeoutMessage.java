@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.trade.mq.message.order;
+
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
+import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTimeoutTypeEnum;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 交易订单超时的延迟消息，用于自动取消、自动收货、自动评论
+ *
+ * @author 芋道源码
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class TradeOrderTimeoutMessage extends AbstractRedisStreamMessage {
+
+    /**
+     * 订单编号
+     */
+    private Long orderId;
+    /**
+     * 超时类型
+     *
+     * 枚举 {@link TradeOrderTimeoutTypeEnum}
+     */
+    private Integer type;
+
+}
@@ -0,0 +1,43 @@
+package cn.iocoder.yudao.module.trade.mq.producer.order;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTimeoutTypeEnum;
+import cn.iocoder.yudao.module.trade.mq.message.order.TradeOrderTimeoutMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+
+/**
+ * 交易订单相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class TradeOrderProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link TradeOrderTimeoutMessage} 延迟消息，在超时时间到达后处理订单
+     *
+     * 发送失败时，只打印日志，不影响主流程：由 TradeOrderAutoCancelJob 等 Job 兜底处理
+     *
+     * @param orderId 订单编号
+     * @param type 超时类型
+     * @param timeoutTime 超时时间
+     */
+    public void sendOrderTimeoutMessage(Long orderId, TradeOrderTimeoutTypeEnum type, LocalDateTime timeoutTime) {
+        TradeOrderTimeoutMessage message = new TradeOrderTimeoutMessage().setOrderId(orderId).setType(type.getType());
+        try {
+            redisMQTemplate.sendDelay(message, timeoutTime);
+        } catch (Exception ex) {
+            log.error("[sendOrderTimeoutMessage][order({}) type({}) 发送延迟消息失败，由 Job 兜底处理]",
+                    orderId, type, ex);
+        }
+    }
+
+}
@@ -71,6 +71,15 @@ public interface TradeOrderUpdateService {
      */
     int receiveOrderBySystem();
 
+    /**
+     * 【系统】自动收货单个交易订单，由超时的延迟消息触发
+     *
+     * 订单不处于待收货状态，或者未到收货超时时间，则忽略
+     *
+     * @param id 订单编号
+     */
+    void receiveOrderBySystem(Long id);
+
     /**
      * 【会员】取消交易订单
      *
@@ -86,6 +95,15 @@ public interface TradeOrderUpdateService {
      */
     int cancelOrderBySystem();
 
+    /**
+     * 【系统】自动取消单个订单，由超时的延迟消息触发
+     *
+     * 订单不处于待支付状态，或者未到支付超时时间，则忽略
+     *
+     * @param id 订单编号
+     */
+    void cancelOrderBySystem(Long id);
+
     /**
      * 【会员】删除订单
      *
@@ -177,6 +195,15 @@ public interface TradeOrderUpdateService {
      */
     int createOrderItemCommentBySystem();
 
+    /**
+     * 【系统】创建单个订单的订单项评论，由超时的延迟消息触发
+     *
+     * 订单不处于已完成且未评论的状态，或者未到评论超时时间，则忽略
+     *
+     * @param id 订单编号
+     */
+    void createOrderItemCommentBySystem(Long id);
+
     /**
      * 更新拼团相关信息到订单
      *
@@ -40,6 +40,7 @@ import cn.iocoder.yudao.module.trade.enums.order.*;
 import cn.iocoder.yudao.module.trade.framework.order.config.TradeOrderProperties;
 import cn.iocoder.yudao.module.trade.framework.order.core.annotations.TradeOrderLog;
 import cn.iocoder.yudao.module.trade.framework.order.core.utils.TradeOrderLogUtils;
+import cn.iocoder.yudao.module.trade.mq.producer.order.TradeOrderProducer;
 import cn.iocoder.yudao.module.trade.service.cart.CartService;
 import cn.iocoder.yudao.module.trade.service.delivery.DeliveryExpressService;
 import cn.iocoder.yudao.module.trade.service.message.TradeMessageService;
@@ -107,6 +108,9 @@ public class TradeOrderUpdateServiceImpl implements TradeOrderUpdateService {
     @Resource
     private TradeOrderProperties tradeOrderProperties;
 
+    @Resource
+    private TradeOrderProducer tradeOrderProducer;
+
     // =================== Order ===================
 
     @Override
@@ -117,8 +121,8 @@ public class TradeOrderUpdateServiceImpl implements TradeOrderUpdateService {
             settlementReqVO.setAddressId(address.getId());
         }
 
-        // 2. 计算价格
-        TradePriceCalculateRespBO calculateRespBO = calculatePrice(userId, settlementReqVO);
+        // 2. 计算价格。结算页会被频繁调用，所以允许使用缓存
+        TradePriceCalculateRespBO calculateRespBO = calculatePrice(userId, settlementReqVO, true);
 
         // 3. 拼接返回
         return TradeOrderConvert.INSTANCE.convert(calculateRespBO, address);
@@ -143,9 +147,11 @@ public class TradeOrderUpdateServiceImpl implements TradeOrderUpdateService {
      *
      * @param userId          用户编号
      * @param settlementReqVO 结算信息
+     * @param useCache        是否使用缓存的数据快照
      * @return 订单价格
      */
-    private TradePriceCalculateRespBO calculatePrice(Long userId, AppTradeOrderSettlementReqVO settlementReqVO) {
+    private TradePriceCalculateRespBO calculatePrice(Long userId, AppTradeOrderSettlementReqVO settlementReqVO,
+                                                     boolean useCache) {
         // 1. 如果来自购物车，则获得购物车的商品
         List<CartDO> cartList = cartService.getCartList(userId,
                 convertSet(settlementReqVO.getItems(), AppTradeOrderSettlementReqVO.Item::getCartId));
@@ -154,7 +160,8 @@ public class TradeOrderUpdateServiceImpl implements TradeOrderUpdateService {
         TradePriceCalculateReqBO calculateReqBO = TradeOrderConvert.INSTANCE.convert(userId, settlementReqVO, cartList);
         calculateReqBO.getItems().forEach(item -> Assert.isTrue(item.getSelected(), // 防御性编程，保证都是选中的
                 "商品({}) 未设置为选中", item.getSkuId()));
-        return tradePriceService.calculatePrice(calculateReqBO);
+        return useCache ? tradePriceService.calculatePriceWithCache(calculateReqBO)
+                : tradePriceService.calculatePrice(calculateReqBO);
     }
 
     @Override
@@ -162,7 +169,7 @@ public class TradeOrderUpdateServiceImpl implements TradeOrderUpdateService {
     @TradeOrderLog(operateType = TradeOrderOperateTypeEnum.MEMBER_CREATE)
     public TradeOrderDO createOrder(Long userId, AppTradeOrderCreateReqVO createReqVO) {
         // 1.1 价格计算
-        TradePriceCalculateRespBO calculateRespBO = calculatePrice(userId, createReqVO);
+        TradePriceCalculateRespBO calculateRespBO = calculatePrice(userId, createReqVO, false);
         // 1.2 构建订单
         TradeOrderDO order = buildTradeOrder(userId, createReqVO, calculateRespBO);
         List<TradeOrderItemDO> orderItems = buildTradeOrderItems(order, calculateRespBO);
@@ -177,6 +184,9 @@ public class TradeOrderUpdateServiceImpl implements TradeOrderUpdateService {
 
         // 4. 订单创建后的逻辑
         afterCreateTradeOrder(order, orderItems, createReqVO);
+        // 5. 超时未支付时，自动取消
+        tradeOrderProducer.sendOrderTimeoutMessage(order.getId(), TradeOrderTimeoutTypeEnum.PAY,
+                LocalDateTime.now().plus(tradeOrderProperties.getPayExpireTime()));
         return order;
     }
 
@@ -358,6 +368,9 @@ public class TradeOrderUpdateServiceImpl implements TradeOrderUpdateService {
         if (updateCount == 0) {
             throw exception(ORDER_DELIVERY_FAIL_STATUS_NOT_UNDELIVERED);
         }
+        // 超时未收货时，自动收货
+        tradeOrderProducer.sendOrderTimeoutMessage(order.getId(), TradeOrderTimeoutTypeEnum.RECEIVE,
+                updateOrderObj.getDeliveryTime().plus(tradeOrderProperties.getReceiveExpireTime()));
 
         // 3. 记录订单日志
         TradeOrderLogUtils.setOrderInfo(order.getId(), order.getStatus(), TradeOrderStatusEnum.DELIVERED.getStatus(),
@@ -433,6 +446,21 @@ public class TradeOrderUpdateServiceImpl implements TradeOrderUpdateService {
         return count;
     }
 
+    @Override
+    public void receiveOrderBySystem(Long id) {
+        TradeOrderDO order = tradeOrderMapper.selectById(id);
+        if (order == null || !TradeOrderStatusEnum.isDelivered(order.getStatus())) {
+            return;
+        }
+        // 消息提前投递（例如说，修改了收货过期时间）时，重新发送在到期时间的延迟消息
+        LocalDateTime expireTime = order.getDeliveryTime().plus(tradeOrderProperties.getReceiveExpireTime());
+        if (expireTime.isAfter(LocalDateTime.now())) {
+            tradeOrderProducer.sendOrderTimeoutMessage(id, TradeOrderTimeoutTypeEnum.RECEIVE, expireTime);
+            return;
+        }
+        getSelf().receiveOrderBySystem(order);
+    }
+
     /**
      * 自动收货单个订单
      *
@@ -451,11 +479,15 @@ public class TradeOrderUpdateServiceImpl implements TradeOrderUpdateService {
      */
     private void receiveOrder0(TradeOrderDO order) {
         // 更新 TradeOrderDO 状态为已完成
+        LocalDateTime receiveTime = LocalDateTime.now();
         int updateCount = tradeOrderMapper.updateByIdAndStatus(order.getId(), order.getStatus(),
-                new TradeOrderDO().setStatus(TradeOrderStatusEnum.COMPLETED.getStatus()).setReceiveTime(LocalDateTime.now()));
+                new TradeOrderDO().setStatus(TradeOrderStatusEnum.COMPLETED.getStatus()).setReceiveTime(receiveTime));
         if (updateCount == 0) {
             throw exception(ORDER_RECEIVE_FAIL_STATUS_NOT_DELIVERED);
         }
+        // 超时未评论时，自动评论
+        tradeOrderProducer.sendOrderTimeoutMessage(order.getId(), TradeOrderTimeoutTypeEnum.COMMENT,
+                receiveTime.plus(tradeOrderProperties.getCommentExpireTime()));
 
         // 插入订单日志
         TradeOrderLogUtils.setOrderInfo(order.getId(), order.getStatus(), TradeOrderStatusEnum.COMPLETED.getStatus());
@@ -524,6 +556,21 @@ public class TradeOrderUpdateServiceImpl implements TradeOrderUpdateService {
         return count;
     }
 
+    @Override
+    public void cancelOrderBySystem(Long id) {
+        TradeOrderDO order = tradeOrderMapper.selectById(id);
+        if (order == null || !TradeOrderStatusEnum.isUnpaid(order.getStatus())) {
+            return;
+        }
+        // 消息提前投递（例如说，修改了支付过期时间）时，重新发送在到期时间的延迟消息
+        LocalDateTime expireTime = order.getCreateTime().plus(tradeOrderProperties.getPayExpireTime());
+        if (expireTime.isAfter(LocalDateTime.now())) {
+            tradeOrderProducer.sendOrderTimeoutMessage(id, TradeOrderTimeoutTypeEnum.PAY, expireTime);
+            return;
+        }
+        getSelf().cancelOrderBySystem(order);
+    }
+
     /**
      * 自动取消单个订单
      *
@@ -818,6 +865,22 @@ public class TradeOrderUpdateServiceImpl implements TradeOrderUpdateService {
         return count;
     }
 
+    @Override
+    public void createOrderItemCommentBySystem(Long id) {
+        TradeOrderDO order = tradeOrderMapper.selectById(id);
+        if (order == null || !TradeOrderStatusEnum.isCompleted(order.getStatus())
+                || Boolean.TRUE.equals(order.getCommentStatus())) {
+            return;
+        }
+        // 消息提前投递（例如说，修改了评价过期时间）时，重新发送在到期时间的延迟消息
+        LocalDateTime expireTime = order.getReceiveTime().plus(tradeOrderProperties.getCommentExpireTime());
+        if (expireTime.isAfter(LocalDateTime.now())) {
+            tradeOrderProducer.sendOrderTimeoutMessage(id, TradeOrderTimeoutTypeEnum.COMMENT, expireTime);
+            return;
+        }
+        getSelf().createOrderItemCommentBySystemBySystem(order);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void updateOrderCombinationInfo(Long orderId, Long activityId, Long combinationRecordId, Long headId) {
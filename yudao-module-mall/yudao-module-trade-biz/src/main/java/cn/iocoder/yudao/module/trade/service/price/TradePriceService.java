@@ -20,4 +20,14 @@ public interface TradePriceService {
      */
     TradePriceCalculateRespBO calculatePrice(@Valid TradePriceCalculateReqBO calculateReqDTO);
 
+    /**
+     * 价格计算，优先使用短期缓存的数据快照
+     *
+     * 适合结算页等频繁计算、但不下单的场景；下单时，需要使用 {@link #calculatePrice(TradePriceCalculateReqBO)} 方法，保证数据最新
+     *
+     * @param calculateReqDTO 计算信息
+     * @return 计算结果
+     */
+    TradePriceCalculateRespBO calculatePriceWithCache(@Valid TradePriceCalculateReqBO calculateReqDTO);
+
 }
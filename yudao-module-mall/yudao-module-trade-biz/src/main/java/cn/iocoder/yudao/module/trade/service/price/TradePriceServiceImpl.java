@@ -1,20 +1,50 @@
 package cn.iocoder.yudao.module.trade.service.price;
 
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.module.member.api.level.MemberLevelApi;
+import cn.iocoder.yudao.module.member.api.level.dto.MemberLevelRespDTO;
+import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
+import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
 import cn.iocoder.yudao.module.product.api.sku.ProductSkuApi;
 import cn.iocoder.yudao.module.product.api.sku.dto.ProductSkuRespDTO;
 import cn.iocoder.yudao.module.product.api.spu.ProductSpuApi;
 import cn.iocoder.yudao.module.product.api.spu.dto.ProductSpuRespDTO;
+import cn.iocoder.yudao.module.promotion.api.bargain.BargainRecordApi;
+import cn.iocoder.yudao.module.promotion.api.bargain.dto.BargainValidateJoinRespDTO;
+import cn.iocoder.yudao.module.promotion.api.combination.CombinationRecordApi;
+import cn.iocoder.yudao.module.promotion.api.combination.dto.CombinationValidateJoinRespDTO;
+import cn.iocoder.yudao.module.promotion.api.coupon.CouponApi;
+import cn.iocoder.yudao.module.promotion.api.coupon.dto.CouponRespDTO;
+import cn.iocoder.yudao.module.promotion.api.coupon.dto.CouponValidReqDTO;
+import cn.iocoder.yudao.module.promotion.api.discount.DiscountActivityApi;
+import cn.iocoder.yudao.module.promotion.api.discount.dto.DiscountProductRespDTO;
+import cn.iocoder.yudao.module.promotion.api.reward.RewardActivityApi;
+import cn.iocoder.yudao.module.promotion.api.reward.dto.RewardActivityMatchRespDTO;
+import cn.iocoder.yudao.module.promotion.api.seckill.SeckillActivityApi;
+import cn.iocoder.yudao.module.promotion.api.seckill.dto.SeckillValidateJoinRespDTO;
+import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
+import cn.iocoder.yudao.module.trade.framework.price.config.TradePriceConfiguration;
+import cn.iocoder.yudao.module.trade.service.order.TradeOrderQueryService;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculator;
 import cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculatorHelper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
@@ -26,6 +56,9 @@ import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.PRICE_CALCU
 /**
  * 价格计算 Service 实现类
  *
+ * 1. 先并行预加载各个 {@link TradePriceCalculator} 需要的数据，构建 {@link TradePriceCalculateSnapshot} 快照
+ * 2. 再依次执行各个 {@link TradePriceCalculator}，基于快照在内存中计算
+ *
  * @author 芋道源码
  */
 @Service
@@ -33,25 +66,81 @@ import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.PRICE_CALCU
 @Slf4j
 public class TradePriceServiceImpl implements TradePriceService {
 
+    /**
+     * 数据快照的缓存时间
+     *
+     * 结算页的每次修改（例如说，修改数量）都会重新计算价格，短期缓存即可避免大部分的重复加载
+     */
+    private static final Duration SNAPSHOT_CACHE_EXPIRE = Duration.ofSeconds(10L);
+
     @Resource
     private ProductSkuApi productSkuApi;
     @Resource
     private ProductSpuApi productSpuApi;
+    @Resource
+    private MemberUserApi memberUserApi;
+    @Resource
+    private MemberLevelApi memberLevelApi;
+    @Resource
+    private CouponApi couponApi;
+    @Resource
+    private DiscountActivityApi discountActivityApi;
+    @Resource
+    private RewardActivityApi rewardActivityApi;
+    @Resource
+    private SeckillActivityApi seckillActivityApi;
+    @Resource
+    private CombinationRecordApi combinationRecordApi;
+    @Resource
+    private BargainRecordApi bargainRecordApi;
+
+    @Resource
+    private TradeOrderQueryService tradeOrderQueryService;
 
     @Resource
     private List<TradePriceCalculator> priceCalculators;
 
+    @Resource(name = TradePriceConfiguration.PRICE_THREAD_POOL_TASK_EXECUTOR)
+    private Executor priceThreadPoolTaskExecutor;
+
+    /**
+     * 数据快照的缓存
+     *
+     * key：用户编号 + SKU 编号数组 + 优惠劵编号，参见 {@link #buildSnapshotCacheKey(TradePriceCalculateReqBO)} 方法
+     */
+    private final Cache<String, TradePriceCalculateSnapshot> snapshotCache = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(SNAPSHOT_CACHE_EXPIRE)
+            .build();
+
     @Override
     public TradePriceCalculateRespBO calculatePrice(TradePriceCalculateReqBO calculateReqBO) {
-        // 1.1 获得商品 SKU 数组
-        List<ProductSkuRespDTO> skuList = checkSkuList(calculateReqBO);
-        // 1.2 获得商品 SPU 数组
-        List<ProductSpuRespDTO> spuList = checkSpuList(skuList);
+        return calculatePrice(calculateReqBO, buildSnapshot(calculateReqBO));
+    }
+
+    @Override
+    public TradePriceCalculateRespBO calculatePriceWithCache(TradePriceCalculateReqBO calculateReqBO) {
+        String cacheKey = buildSnapshotCacheKey(calculateReqBO);
+        if (cacheKey == null) {
+            return calculatePrice(calculateReqBO);
+        }
+        TradePriceCalculateSnapshot snapshot = snapshotCache.getIfPresent(cacheKey);
+        if (snapshot == null) {
+            snapshot = buildSnapshot(calculateReqBO);
+            snapshotCache.put(cacheKey, snapshot);
+        }
+        return calculatePrice(calculateReqBO, snapshot);
+    }
+
+    private TradePriceCalculateRespBO calculatePrice(TradePriceCalculateReqBO calculateReqBO,
+                                                     TradePriceCalculateSnapshot snapshot) {
+        // 1. 校验商品 SKU
+        validateSkuList(calculateReqBO, snapshot.getSkus());
 
         // 2.1 计算价格
         TradePriceCalculateRespBO calculateRespBO = TradePriceCalculatorHelper
-                .buildCalculateResp(calculateReqBO, spuList, skuList);
-        priceCalculators.forEach(calculator -> calculator.calculate(calculateReqBO, calculateRespBO));
+                .buildCalculateResp(calculateReqBO, snapshot.getSpus(), snapshot.getSkus());
+        priceCalculators.forEach(calculator -> calculator.calculate(calculateReqBO, snapshot, calculateRespBO));
         // 2.2  如果最终支付金额小于等于 0，则抛出业务异常
         if (calculateRespBO.getPrice().getPayPrice() <= 0) {
             log.error("[calculatePrice][价格计算不正确，请求 calculateReqDTO({})，结果 priceCalculate({})]",
@@ -61,13 +150,9 @@ public class TradePriceServiceImpl implements TradePriceService {
         return calculateRespBO;
     }
 
-    private List<ProductSkuRespDTO> checkSkuList(TradePriceCalculateReqBO reqBO) {
-        // 获得商品 SKU 数组
+    private void validateSkuList(TradePriceCalculateReqBO reqBO, List<ProductSkuRespDTO> skus) {
         Map<Long, Integer> skuIdCountMap = convertMap(reqBO.getItems(),
                 TradePriceCalculateReqBO.Item::getSkuId, TradePriceCalculateReqBO.Item::getCount);
-        List<ProductSkuRespDTO> skus = productSkuApi.getSkuList(skuIdCountMap.keySet());
-
-        // 校验商品 SKU
         skus.forEach(sku -> {
             Integer count = skuIdCountMap.get(sku.getId());
             if (count == null) {
@@ -77,12 +162,106 @@ public class TradePriceServiceImpl implements TradePriceService {
                 throw exception(SKU_STOCK_NOT_ENOUGH);
             }
         });
-        return skus;
     }
 
-    private List<ProductSpuRespDTO> checkSpuList(List<ProductSkuRespDTO> skuList) {
-        // 获得商品 SPU 数组
-        return productSpuApi.validateSpuList(convertSet(skuList, ProductSkuRespDTO::getSpuId));
+    // ========== 数据快照 ==========
+
+    /**
+     * 并行加载价格计算需要的数据，构建快照
+     *
+     * @param reqBO 计算信息
+     * @return 数据快照
+     */
+    TradePriceCalculateSnapshot buildSnapshot(TradePriceCalculateReqBO reqBO) {
+        boolean normal = TradeOrderTypeEnum.NORMAL.getType().equals(TradePriceCalculatorHelper.getOrderType(reqBO));
+        Set<Long> skuIds = convertSet(reqBO.getItems(), TradePriceCalculateReqBO.Item::getSkuId);
+        // 1.1 获得商品 SKU、SPU 数组
+        CompletableFuture<List<ProductSkuRespDTO>> skusFuture = supplyAsync(() -> productSkuApi.getSkuList(skuIds));
+        CompletableFuture<List<ProductSpuRespDTO>> spusFuture = skusFuture.thenApplyAsync(skus ->
+                productSpuApi.validateSpuList(convertSet(skus, ProductSkuRespDTO::getSpuId)), priceThreadPoolTaskExecutor);
+        // 1.2 获得用户、会员等级
+        CompletableFuture<MemberUserRespDTO> userFuture = reqBO.getUserId() == null ? completedFuture(null)
+                : supplyAsync(() -> memberUserApi.getUser(reqBO.getUserId()));
+        CompletableFuture<MemberLevelRespDTO> memberLevelFuture = !normal ? completedFuture(null)
+                : userFuture.thenApplyAsync(user -> user == null || user.getLevelId() == null || user.getLevelId() <= 0 ? null
+                : memberLevelApi.getMemberLevel(user.getLevelId()), priceThreadPoolTaskExecutor);
+
+        // 2.1 获得限时折扣、满减送活动，只有【普通】订单才需要
+        CompletableFuture<List<DiscountProductRespDTO>> discountProductsFuture = !normal ? completedFuture(null)
+                : supplyAsync(() -> discountActivityApi.getMatchDiscountProductList(skuIds));
+        CompletableFuture<List<RewardActivityMatchRespDTO>> rewardActivitiesFuture = !normal ? completedFuture(null)
+                : skusFuture.thenApplyAsync(skus -> rewardActivityApi.getMatchRewardActivityList(
+                convertSet(skus, ProductSkuRespDTO::getSpuId)), priceThreadPoolTaskExecutor);
+        // 2.2 校验优惠劵
+        CompletableFuture<CouponRespDTO> couponFuture = reqBO.getCouponId() == null ? completedFuture(null)
+                : supplyAsync(() -> couponApi.validateCoupon(new CouponValidReqDTO()
+                .setId(reqBO.getCouponId()).setUserId(reqBO.getUserId())));
+        // 2.3 校验秒杀、拼团、砍价活动。这些活动只允许一个商品，多个商品时，交给对应的 TradePriceCalculator 断言
+        TradePriceCalculateReqBO.Item item = reqBO.getItems().size() == 1 ? reqBO.getItems().get(0) : null;
+        CompletableFuture<SeckillValidateJoinRespDTO> seckillActivityFuture = reqBO.getSeckillActivityId() == null || item == null
+                ? completedFuture(null) : supplyAsync(() -> seckillActivityApi.validateJoinSeckill(
+                reqBO.getSeckillActivityId(), item.getSkuId(), item.getCount()));
+        CompletableFuture<Integer> seckillProductCountFuture = reqBO.getSeckillActivityId() == null ? completedFuture(0)
+                : supplyAsync(() -> tradeOrderQueryService.getSeckillProductCount(reqBO.getUserId(), reqBO.getSeckillActivityId()));
+        CompletableFuture<CombinationValidateJoinRespDTO> combinationActivityFuture = reqBO.getCombinationActivityId() == null || item == null
+                ? completedFuture(null) : supplyAsync(() -> combinationRecordApi.validateJoinCombination(
+                reqBO.getUserId(), reqBO.getCombinationActivityId(), reqBO.getCombinationHeadId(), item.getSkuId(), item.getCount()));
+        CompletableFuture<BargainValidateJoinRespDTO> bargainActivityFuture = reqBO.getBargainRecordId() == null || item == null
+                ? completedFuture(null) : supplyAsync(() -> bargainRecordApi.validateJoinBargain(
+                reqBO.getUserId(), reqBO.getBargainRecordId(), item.getSkuId()));
+
+        // 3. 等待全部加载完成，构建快照
+        return TradePriceCalculateSnapshot.builder()
+                .skus(unmodifiableList(join(skusFuture))).spus(unmodifiableList(join(spusFuture)))
+                .user(join(userFuture)).memberLevel(join(memberLevelFuture))
+                .discountProducts(unmodifiableList(join(discountProductsFuture)))
+                .rewardActivities(unmodifiableList(join(rewardActivitiesFuture)))
+                .coupon(join(couponFuture))
+                .seckillActivity(join(seckillActivityFuture)).seckillProductCount(join(seckillProductCountFuture))
+                .combinationActivity(join(combinationActivityFuture))
+                .bargainActivity(join(bargainActivityFuture))
+                .build();
+    }
+
+    /**
+     * 构建数据快照的缓存 Key
+     *
+     * @param reqBO 计算信息
+     * @return 缓存 Key。如果返回 null，说明不允许缓存
+     */
+    private static String buildSnapshotCacheKey(TradePriceCalculateReqBO reqBO) {
+        // 秒杀、拼团、砍价等活动订单，需要实时校验活动，不进行缓存
+        if (ObjectUtil.notEqual(TradePriceCalculatorHelper.getOrderType(reqBO), TradeOrderTypeEnum.NORMAL.getType())) {
+            return null;
+        }
+        return StrUtil.format("{}:{}:{}", reqBO.getUserId(),
+                new TreeSet<>(convertSet(reqBO.getItems(), TradePriceCalculateReqBO.Item::getSkuId)), reqBO.getCouponId());
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, priceThreadPoolTaskExecutor);
+    }
+
+    private static <T> CompletableFuture<T> completedFuture(T value) {
+        return CompletableFuture.completedFuture(value);
+    }
+
+    /**
+     * 等待加载完成。如果加载失败，抛出原始异常，保证 ServiceException 等业务异常可以正常返回
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private static <T> List<T> unmodifiableList(List<T> list) {
+        return CollUtil.isEmpty(list) ? Collections.emptyList() : Collections.unmodifiableList(list);
     }
 
 }
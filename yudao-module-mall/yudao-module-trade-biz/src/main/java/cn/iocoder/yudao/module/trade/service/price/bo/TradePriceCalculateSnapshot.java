@@ -0,0 +1,92 @@
+package cn.iocoder.yudao.module.trade.service.price.bo;
+
+import cn.iocoder.yudao.module.member.api.level.dto.MemberLevelRespDTO;
+import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
+import cn.iocoder.yudao.module.product.api.sku.dto.ProductSkuRespDTO;
+import cn.iocoder.yudao.module.product.api.spu.dto.ProductSpuRespDTO;
+import cn.iocoder.yudao.module.promotion.api.bargain.dto.BargainValidateJoinRespDTO;
+import cn.iocoder.yudao.module.promotion.api.combination.dto.CombinationValidateJoinRespDTO;
+import cn.iocoder.yudao.module.promotion.api.coupon.dto.CouponRespDTO;
+import cn.iocoder.yudao.module.promotion.api.discount.dto.DiscountProductRespDTO;
+import cn.iocoder.yudao.module.promotion.api.reward.dto.RewardActivityMatchRespDTO;
+import cn.iocoder.yudao.module.promotion.api.seckill.dto.SeckillValidateJoinRespDTO;
+import cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculator;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 价格计算的数据快照
+ *
+ * 价格计算前，并行预加载 {@link TradePriceCalculator} 需要的数据，之后计算器只基于快照在内存中计算，不再访问远程服务或数据库。
+ * 快照创建后不可修改，可以被短期缓存，在多次结算请求之间复用
+ *
+ * @author 芋道源码
+ */
+@Getter
+@Builder
+@ToString
+public class TradePriceCalculateSnapshot {
+
+    /**
+     * 商品 SKU 数组
+     */
+    @Builder.Default
+    private final List<ProductSkuRespDTO> skus = Collections.emptyList();
+    /**
+     * 商品 SPU 数组
+     */
+    @Builder.Default
+    private final List<ProductSpuRespDTO> spus = Collections.emptyList();
+
+    /**
+     * 用户
+     */
+    private final MemberUserRespDTO user;
+    /**
+     * 用户的会员等级
+     *
+     * 只有【普通】订单，才会加载
+     */
+    private final MemberLevelRespDTO memberLevel;
+
+    /**
+     * SKU 匹配的限时折扣数组
+     *
+     * 只有【普通】订单，才会加载
+     */
+    @Builder.Default
+    private final List<DiscountProductRespDTO> discountProducts = Collections.emptyList();
+    /**
+     * SPU 匹配的满减送活动数组
+     *
+     * 只有【普通】订单，才会加载
+     */
+    @Builder.Default
+    private final List<RewardActivityMatchRespDTO> rewardActivities = Collections.emptyList();
+    /**
+     * 校验通过的优惠劵
+     */
+    private final CouponRespDTO coupon;
+
+    /**
+     * 校验通过的秒杀活动
+     */
+    private final SeckillValidateJoinRespDTO seckillActivity;
+    /**
+     * 用户已购买的秒杀商品数量
+     */
+    private final Integer seckillProductCount;
+    /**
+     * 校验通过的拼团活动
+     */
+    private final CombinationValidateJoinRespDTO combinationActivity;
+    /**
+     * 校验通过的砍价活动
+     */
+    private final BargainValidateJoinRespDTO bargainActivity;
+
+}
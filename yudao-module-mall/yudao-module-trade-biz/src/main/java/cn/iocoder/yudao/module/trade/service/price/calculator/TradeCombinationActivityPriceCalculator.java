@@ -2,16 +2,14 @@ package cn.iocoder.yudao.module.trade.service.price.calculator;
 
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.StrUtil;
-import cn.iocoder.yudao.module.promotion.api.combination.CombinationRecordApi;
 import cn.iocoder.yudao.module.promotion.api.combination.dto.CombinationValidateJoinRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.Resource;
-
 // TODO @puhui999：单测可以后补下
 
 /**
@@ -23,11 +21,9 @@ import javax.annotation.Resource;
 @Order(TradePriceCalculator.ORDER_COMBINATION_ACTIVITY)
 public class TradeCombinationActivityPriceCalculator implements TradePriceCalculator {
 
-    @Resource
-    private CombinationRecordApi combinationRecordApi;
-
     @Override
-    public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+    public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateSnapshot snapshot,
+                          TradePriceCalculateRespBO result) {
         // 1. 判断订单类型和是否具有拼团活动编号
         if (param.getCombinationActivityId() == null) {
             return;
@@ -35,9 +31,8 @@ public class TradeCombinationActivityPriceCalculator implements TradePriceCalcul
         Assert.isTrue(param.getItems().size() == 1, "拼团时，只允许选择一个商品");
         // 2. 校验是否可以参与拼团
         TradePriceCalculateRespBO.OrderItem orderItem = result.getItems().get(0);
-        CombinationValidateJoinRespDTO combinationActivity = combinationRecordApi.validateJoinCombination(
-                param.getUserId(), param.getCombinationActivityId(), param.getCombinationHeadId(),
-                orderItem.getSkuId(), orderItem.getCount());
+        CombinationValidateJoinRespDTO combinationActivity = snapshot.getCombinationActivity();
+        Assert.notNull(combinationActivity, "校验通过的拼团活动，不能为空");
 
         // 3.1 记录优惠明细
         Integer discountPrice = orderItem.getPayPrice() - combinationActivity.getCombinationPrice() * orderItem.getCount();
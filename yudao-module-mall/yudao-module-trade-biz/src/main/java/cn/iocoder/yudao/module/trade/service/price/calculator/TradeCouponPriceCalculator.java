@@ -4,19 +4,17 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.iocoder.yudao.module.promotion.api.coupon.CouponApi;
 import cn.iocoder.yudao.module.promotion.api.coupon.dto.CouponRespDTO;
-import cn.iocoder.yudao.module.promotion.api.coupon.dto.CouponValidReqDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionDiscountTypeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.Resource;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -35,17 +33,14 @@ import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.PRICE_CALCU
 @Order(TradePriceCalculator.ORDER_COUPON)
 public class TradeCouponPriceCalculator implements TradePriceCalculator {
 
-    @Resource
-    private CouponApi couponApi;
-
     @Override
-    public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+    public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateSnapshot snapshot,
+                          TradePriceCalculateRespBO result) {
         // 1.1 校验优惠劵
         if (param.getCouponId() == null) {
             return;
         }
-        CouponRespDTO coupon = couponApi.validateCoupon(new CouponValidReqDTO()
-                .setId(param.getCouponId()).setUserId(param.getUserId()));
+        CouponRespDTO coupon = snapshot.getCoupon();
         Assert.notNull(coupon, "校验通过的优惠劵({})，不能为空", param.getCouponId());
         // 1.2 只有【普通】订单，才允许使用优惠劵
         if (ObjectUtil.notEqual(result.getType(), TradeOrderTypeEnum.NORMAL.getType())) {
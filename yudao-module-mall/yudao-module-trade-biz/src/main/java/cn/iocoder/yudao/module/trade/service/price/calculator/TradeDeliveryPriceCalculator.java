@@ -16,6 +16,7 @@ import cn.iocoder.yudao.module.trade.service.delivery.DeliveryPickUpStoreService
 import cn.iocoder.yudao.module.trade.service.delivery.bo.DeliveryExpressTemplateRespBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO.OrderItem;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
@@ -51,7 +52,8 @@ public class TradeDeliveryPriceCalculator implements TradePriceCalculator {
     private TradeConfigService tradeConfigService;
 
     @Override
-    public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+    public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateSnapshot snapshot,
+                          TradePriceCalculateRespBO result) {
         if (param.getDeliveryType() == null) {
             return;
         }
@@ -3,22 +3,20 @@ package cn.iocoder.yudao.module.trade.service.price.calculator;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.iocoder.yudao.module.promotion.api.discount.DiscountActivityApi;
 import cn.iocoder.yudao.module.promotion.api.discount.dto.DiscountProductRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionDiscountTypeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.Resource;
 import java.util.List;
 import java.util.Map;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculatorHelper.formatPrice;
 
 /**
@@ -30,18 +28,15 @@ import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceC
 @Order(TradePriceCalculator.ORDER_DISCOUNT_ACTIVITY)
 public class TradeDiscountActivityPriceCalculator implements TradePriceCalculator {
 
-    @Resource
-    private DiscountActivityApi discountActivityApi;
-
     @Override
-    public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+    public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateSnapshot snapshot,
+                          TradePriceCalculateRespBO result) {
         // 0. 只有【普通】订单，才计算该优惠
         if (ObjectUtil.notEqual(result.getType(), TradeOrderTypeEnum.NORMAL.getType())) {
             return;
         }
         // 获得 SKU 对应的限时折扣活动
-        List<DiscountProductRespDTO> discountProducts = discountActivityApi.getMatchDiscountProductList(
-                convertSet(result.getItems(), TradePriceCalculateRespBO.OrderItem::getSkuId));
+        List<DiscountProductRespDTO> discountProducts = snapshot.getDiscountProducts();
         if (CollUtil.isEmpty(discountProducts)) {
             return;
         }
@@ -2,6 +2,7 @@ package cn.iocoder.yudao.module.trade.service.price.calculator;
 
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 
 /**
  * 价格计算的计算器接口
@@ -36,6 +37,14 @@ public interface TradePriceCalculator {
      */
     int ORDER_POINT_GIVE = 999;
 
-    void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result);
+    /**
+     * 计算价格
+     *
+     * @param param    计算参数
+     * @param snapshot 预加载的数据快照。计算器只能读取快照中的数据，不允许再访问远程服务或数据库
+     * @param result   计算结果
+     */
+    void calculate(TradePriceCalculateReqBO param, TradePriceCalculateSnapshot snapshot,
+                   TradePriceCalculateRespBO result);
 
 }
@@ -79,7 +79,7 @@ public class TradePriceCalculatorHelper {
      * @param param 计算参数
      * @return 订单类型
      */
-    private static Integer getOrderType(TradePriceCalculateReqBO param) {
+    public static Integer getOrderType(TradePriceCalculateReqBO param) {
         if (param.getSeckillActivityId() != null) {
             return TradeOrderTypeEnum.SECKILL.getType();
         }
@@ -2,17 +2,14 @@ package cn.iocoder.yudao.module.trade.service.price.calculator;
 
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.StrUtil;
-import cn.iocoder.yudao.module.promotion.api.seckill.SeckillActivityApi;
 import cn.iocoder.yudao.module.promotion.api.seckill.dto.SeckillValidateJoinRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
-import cn.iocoder.yudao.module.trade.service.order.TradeOrderQueryService;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.Resource;
-
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.PRICE_CALCULATE_SECKILL_TOTAL_LIMIT_COUNT;
 
@@ -26,14 +23,9 @@ import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.PRICE_CALCU
 @Order(TradePriceCalculator.ORDER_SECKILL_ACTIVITY)
 public class TradeSeckillActivityPriceCalculator implements TradePriceCalculator {
 
-    @Resource
-    private SeckillActivityApi seckillActivityApi;
-
-    @Resource
-    private TradeOrderQueryService tradeOrderQueryService;
-
     @Override
-    public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+    public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateSnapshot snapshot,
+                          TradePriceCalculateRespBO result) {
         // 1. 判断订单类型和是否具有秒杀活动编号
         if (param.getSeckillActivityId() == null) {
             return;
@@ -41,9 +33,7 @@ public class TradeSeckillActivityPriceCalculator implements TradePriceCalculator
         Assert.isTrue(param.getItems().size() == 1, "秒杀时，只允许选择一个商品");
         // 2. 校验是否可以参与秒杀
         TradePriceCalculateRespBO.OrderItem orderItem = result.getItems().get(0);
-        SeckillValidateJoinRespDTO seckillActivity = validateJoinSeckill(
-                param.getUserId(), param.getSeckillActivityId(),
-                orderItem.getSkuId(), orderItem.getCount());
+        SeckillValidateJoinRespDTO seckillActivity = validateJoinSeckill(snapshot, orderItem.getCount());
 
         // 3.1 记录优惠明细
         Integer discountPrice = orderItem.getPayPrice() - seckillActivity.getSeckillPrice() * orderItem.getCount();
@@ -57,12 +47,12 @@ public class TradeSeckillActivityPriceCalculator implements TradePriceCalculator
         TradePriceCalculatorHelper.recountAllPrice(result);
     }
 
-    private SeckillValidateJoinRespDTO validateJoinSeckill(Long userId, Long activityId, Long skuId, Integer count) {
-        // 1. 校验是否可以参与秒杀
-        SeckillValidateJoinRespDTO seckillActivity = seckillActivityApi.validateJoinSeckill(activityId, skuId, count);
+    private SeckillValidateJoinRespDTO validateJoinSeckill(TradePriceCalculateSnapshot snapshot, Integer count) {
+        // 1. 校验是否可以参与秒杀，在预加载快照时已校验
+        SeckillValidateJoinRespDTO seckillActivity = snapshot.getSeckillActivity();
+        Assert.notNull(seckillActivity, "校验通过的秒杀活动，不能为空");
         // 2. 校验总限购数量，目前只有 trade 有具体下单的数据，需要交给 trade 价格计算使用
-        int seckillProductCount = tradeOrderQueryService.getSeckillProductCount(userId, activityId);
-        if (seckillProductCount + count > seckillActivity.getTotalLimitCount()) {
+        if (snapshot.getSeckillProductCount() + count > seckillActivity.getTotalLimitCount()) {
             throw exception(PRICE_CALCULATE_SECKILL_TOTAL_LIMIT_COUNT);
         }
         return seckillActivity;
@@ -0,0 +1,93 @@
+package cn.iocoder.yudao.module.trade.dal.redis.no;
+
+import cn.hutool.core.date.DatePattern;
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.util.ReflectUtil;
+import cn.iocoder.yudao.module.trade.dal.redis.RedisKeyConstants;
+import com.github.fppt.jedismock.RedisServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.redisson.spring.data.connection.RedissonConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TradeNoRedisDAO} 生成序号的基准测试，单位为「个/秒」，即单节点每秒可生成的序号数量
+ *
+ * 对比每个序号 INCR + EXPIRE 两次访问 Redis 的原实现，与按号段租用、内存中分配的 {@link TradeNoRedisDAO#generate(String)}。
+ * 使用内嵌的 jedis-mock 作为 Redis 服务器，只有本机回环的网络开销，真实环境下号段租用的优势会更明显
+ *
+ * 非单元测试，通过 main 方法运行
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TradeNoRedisDAOBenchmark {
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private StringRedisTemplate stringRedisTemplate;
+    private TradeNoRedisDAO tradeNoRedisDAO;
+
+    @Setup
+    public void setup() throws IOException {
+        // 启动内嵌的 Redis 服务器
+        redisServer = RedisServer.newRedisServer();
+        redisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redisServer.getHost() + ":" + redisServer.getBindPort());
+        redissonClient = Redisson.create(config);
+        stringRedisTemplate = new StringRedisTemplate(new RedissonConnectionFactory(redissonClient));
+        stringRedisTemplate.afterPropertiesSet();
+        // 创建 TradeNoRedisDAO
+        tradeNoRedisDAO = new TradeNoRedisDAO();
+        ReflectUtil.setFieldValue(tradeNoRedisDAO, "stringRedisTemplate", stringRedisTemplate);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    /**
+     * 原实现：每个序号 INCR + EXPIRE
+     */
+    @Benchmark
+    public String generateByIncr() {
+        String noPrefix = TradeNoRedisDAO.TRADE_ORDER_NO_PREFIX + DateUtil.format(LocalDateTime.now(), DatePattern.PURE_DATETIME_PATTERN);
+        String key = RedisKeyConstants.TRADE_NO + noPrefix;
+        Long no = stringRedisTemplate.opsForValue().increment(key);
+        stringRedisTemplate.expire(key, Duration.ofMinutes(1L));
+        return noPrefix + no;
+    }
+
+    @Benchmark
+    public String generate() {
+        return tradeNoRedisDAO.generate(TradeNoRedisDAO.TRADE_ORDER_NO_PREFIX);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TradeNoRedisDAOBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,170 @@
+package cn.iocoder.yudao.module.trade.dal.redis.no;
+
+import cn.hutool.core.date.DatePattern;
+import cn.hutool.core.util.ReflectUtil;
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static cn.iocoder.yudao.module.trade.dal.redis.no.TradeNoRedisDAO.TRADE_ORDER_NO_PREFIX;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link TradeNoRedisDAO} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@Import(TradeNoRedisDAO.class)
+public class TradeNoRedisDAOTest extends BaseRedisUnitTest {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DatePattern.PURE_DATETIME_PATTERN);
+
+    @Resource
+    private TradeNoRedisDAO tradeNoRedisDAO;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private MockClock clock;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.getRequiredConnectionFactory().getConnection().flushDb();
+        // 清理本地的号段，与 Redis 保持一致
+        ((Map<?, ?>) ReflectUtil.getFieldValue(tradeNoRedisDAO, "blocks")).clear();
+        clock = new MockClock(System.currentTimeMillis() / 1000 * 1000);
+        tradeNoRedisDAO.setClock(clock);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tradeNoRedisDAO.setClock(Clock.systemDefaultZone());
+    }
+
+    @Test
+    public void testGenerate_blockExhausted() {
+        // 调用：超过一个号段的数量
+        List<String> nos = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            nos.add(tradeNoRedisDAO.generate(TRADE_ORDER_NO_PREFIX));
+        }
+        // 断言：同一秒内，序号连续递增
+        String noPrefix = buildNoPrefix(clock.millis());
+        for (int i = 0; i < nos.size(); i++) {
+            assertEquals(noPrefix + (i + 1), nos.get(i));
+        }
+    }
+
+    @Test
+    public void testGenerate_concurrent() throws Exception {
+        // 准备参数
+        int threads = 8;
+        int count = 500;
+        Set<String> nos = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        try {
+            // 调用：多个线程并发生成，过程中进入下一秒
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int j = 0; j < count; j++) {
+                        nos.add(tradeNoRedisDAO.generate(TRADE_ORDER_NO_PREFIX));
+                        if (j == count / 2) {
+                            clock.tick(1000);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // 断言：序号不重复
+        assertEquals(threads * count, nos.size());
+    }
+
+    @Test
+    public void testGenerate_secondRollover() {
+        // 调用：第一秒
+        long firstMillis = clock.millis();
+        String no1 = tradeNoRedisDAO.generate(TRADE_ORDER_NO_PREFIX);
+        String no2 = tradeNoRedisDAO.generate(TRADE_ORDER_NO_PREFIX);
+        // 断言
+        assertEquals(buildNoPrefix(firstMillis) + 1, no1);
+        assertEquals(buildNoPrefix(firstMillis) + 2, no2);
+
+        // 调用：进入下一秒，使用新的号段，序号重新开始
+        clock.tick(1000);
+        String no3 = tradeNoRedisDAO.generate(TRADE_ORDER_NO_PREFIX);
+        // 断言
+        assertEquals(buildNoPrefix(clock.millis()) + 1, no3);
+
+        // 调用：时钟回拨，继续使用下一秒的号段，不回退
+        clock.tick(-1000);
+        String no4 = tradeNoRedisDAO.generate(TRADE_ORDER_NO_PREFIX);
+        // 断言
+        assertEquals(buildNoPrefix(firstMillis + 1000) + 2, no4);
+    }
+
+    private static String buildNoPrefix(long millis) {
+        return TRADE_ORDER_NO_PREFIX + DATE_TIME_FORMATTER.format(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+    }
+
+    /**
+     * 可调整时间的时钟
+     */
+    private static class MockClock extends Clock {
+
+        private final AtomicLong millis;
+
+        private MockClock(long millis) {
+            this.millis = new AtomicLong(millis);
+        }
+
+        public void tick(long deltaMillis) {
+            millis.addAndGet(deltaMillis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+    }
+
+}
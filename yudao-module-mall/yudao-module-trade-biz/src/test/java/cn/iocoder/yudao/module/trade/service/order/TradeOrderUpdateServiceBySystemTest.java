@@ -0,0 +1,220 @@
+package cn.iocoder.yudao.module.trade.service.order;
+
+import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.trade.dal.dataobject.order.TradeOrderDO;
+import cn.iocoder.yudao.module.trade.dal.mysql.order.TradeOrderMapper;
+import cn.iocoder.yudao.module.trade.enums.order.TradeOrderStatusEnum;
+import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTimeoutTypeEnum;
+import cn.iocoder.yudao.module.trade.framework.order.config.TradeOrderProperties;
+import cn.iocoder.yudao.module.trade.mq.producer.order.TradeOrderProducer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link TradeOrderUpdateServiceImpl} 按订单编号自动取消、收货、评价的单元测试
+ *
+ * 延迟消息可能重复投递、晚于用户操作投递，所以需要重新校验订单的状态、时间
+ *
+ * @author 芋道源码
+ */
+public class TradeOrderUpdateServiceBySystemTest extends BaseMockitoUnitTest {
+
+    private static final Long ORDER_ID = 1L;
+
+    @InjectMocks
+    private TradeOrderUpdateServiceImpl tradeOrderUpdateService;
+
+    @Mock
+    private TradeOrderMapper tradeOrderMapper;
+    @Mock
+    private TradeOrderProperties tradeOrderProperties;
+    @Mock
+    private TradeOrderProducer tradeOrderProducer;
+
+    /**
+     * getSelf() 获得的代理对象
+     */
+    private TradeOrderUpdateServiceImpl self;
+    private MockedStatic<SpringUtil> springUtilMockedStatic;
+
+    @BeforeEach
+    public void setUp() {
+        self = mock(TradeOrderUpdateServiceImpl.class);
+        springUtilMockedStatic = mockStatic(SpringUtil.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        springUtilMockedStatic.close();
+    }
+
+    // ========== 自动取消 ==========
+
+    @Test
+    public void testCancelOrderBySystem_success() {
+        // mock 数据：创建 2 小时，超过 1 小时的支付过期时间
+        TradeOrderDO order = mockOrder(TradeOrderStatusEnum.UNPAID);
+        order.setCreateTime(LocalDateTime.now().minusHours(2));
+        when(tradeOrderProperties.getPayExpireTime()).thenReturn(Duration.ofHours(1));
+        mockSelf();
+
+        // 调用
+        tradeOrderUpdateService.cancelOrderBySystem(ORDER_ID);
+        // 断言
+        verify(self).cancelOrderBySystem(eq(order));
+    }
+
+    @Test
+    public void testCancelOrderBySystem_notExists() {
+        // 调用
+        tradeOrderUpdateService.cancelOrderBySystem(ORDER_ID);
+        // 断言
+        verify(self, never()).cancelOrderBySystem(any(TradeOrderDO.class));
+        verify(tradeOrderProducer, never()).sendOrderTimeoutMessage(any(), any(), any());
+    }
+
+    @Test
+    public void testCancelOrderBySystem_paid() {
+        // mock 数据：消息投递前，用户已经支付
+        mockOrder(TradeOrderStatusEnum.UNDELIVERED);
+
+        // 调用
+        tradeOrderUpdateService.cancelOrderBySystem(ORDER_ID);
+        // 断言
+        verify(self, never()).cancelOrderBySystem(any(TradeOrderDO.class));
+        verify(tradeOrderProducer, never()).sendOrderTimeoutMessage(any(), any(), any());
+    }
+
+    @Test
+    public void testCancelOrderBySystem_notExpired() {
+        // mock 数据：消息提前投递，例如说修改了支付过期时间
+        TradeOrderDO order = mockOrder(TradeOrderStatusEnum.UNPAID);
+        order.setCreateTime(LocalDateTime.now().minusMinutes(30));
+        when(tradeOrderProperties.getPayExpireTime()).thenReturn(Duration.ofHours(1));
+
+        // 调用
+        tradeOrderUpdateService.cancelOrderBySystem(ORDER_ID);
+        // 断言：不取消，而是在到期时间重新投递
+        verify(self, never()).cancelOrderBySystem(any(TradeOrderDO.class));
+        verify(tradeOrderProducer).sendOrderTimeoutMessage(eq(ORDER_ID), eq(TradeOrderTimeoutTypeEnum.PAY),
+                eq(order.getCreateTime().plusHours(1)));
+    }
+
+    // ========== 自动收货 ==========
+
+    @Test
+    public void testReceiveOrderBySystem_success() {
+        // mock 数据
+        TradeOrderDO order = mockOrder(TradeOrderStatusEnum.DELIVERED).setDeliveryTime(LocalDateTime.now().minusDays(8));
+        when(tradeOrderProperties.getReceiveExpireTime()).thenReturn(Duration.ofDays(7));
+        mockSelf();
+
+        // 调用
+        tradeOrderUpdateService.receiveOrderBySystem(ORDER_ID);
+        // 断言
+        verify(self).receiveOrderBySystem(eq(order));
+    }
+
+    @Test
+    public void testReceiveOrderBySystem_received() {
+        // mock 数据：重复投递时，订单已经收货
+        mockOrder(TradeOrderStatusEnum.COMPLETED).setDeliveryTime(LocalDateTime.now().minusDays(8));
+
+        // 调用
+        tradeOrderUpdateService.receiveOrderBySystem(ORDER_ID);
+        // 断言
+        verify(self, never()).receiveOrderBySystem(any(TradeOrderDO.class));
+    }
+
+    @Test
+    public void testReceiveOrderBySystem_notExpired() {
+        // mock 数据
+        TradeOrderDO order = mockOrder(TradeOrderStatusEnum.DELIVERED).setDeliveryTime(LocalDateTime.now().minusDays(6));
+        when(tradeOrderProperties.getReceiveExpireTime()).thenReturn(Duration.ofDays(7));
+
+        // 调用
+        tradeOrderUpdateService.receiveOrderBySystem(ORDER_ID);
+        // 断言：不收货，而是在到期时间重新投递
+        verify(self, never()).receiveOrderBySystem(any(TradeOrderDO.class));
+        verify(tradeOrderProducer).sendOrderTimeoutMessage(eq(ORDER_ID), eq(TradeOrderTimeoutTypeEnum.RECEIVE),
+                eq(order.getDeliveryTime().plusDays(7)));
+    }
+
+    // ========== 自动评价 ==========
+
+    @Test
+    public void testCreateOrderItemCommentBySystem_success() {
+        // mock 数据
+        TradeOrderDO order = mockOrder(TradeOrderStatusEnum.COMPLETED).setCommentStatus(false)
+                .setReceiveTime(LocalDateTime.now().minusDays(8));
+        when(tradeOrderProperties.getCommentExpireTime()).thenReturn(Duration.ofDays(7));
+        mockSelf();
+
+        // 调用
+        tradeOrderUpdateService.createOrderItemCommentBySystem(ORDER_ID);
+        // 断言
+        verify(self).createOrderItemCommentBySystemBySystem(eq(order));
+    }
+
+    @Test
+    public void testCreateOrderItemCommentBySystem_commented() {
+        // mock 数据：用户已经评价
+        mockOrder(TradeOrderStatusEnum.COMPLETED).setCommentStatus(true)
+                .setReceiveTime(LocalDateTime.now().minusDays(8));
+
+        // 调用
+        tradeOrderUpdateService.createOrderItemCommentBySystem(ORDER_ID);
+        // 断言
+        verify(self, never()).createOrderItemCommentBySystemBySystem(any(TradeOrderDO.class));
+    }
+
+    @Test
+    public void testCreateOrderItemCommentBySystem_notCompleted() {
+        // mock 数据：收货后又发起售后，订单已经关闭
+        mockOrder(TradeOrderStatusEnum.CANCELED).setCommentStatus(false)
+                .setReceiveTime(LocalDateTime.now().minusDays(8));
+
+        // 调用
+        tradeOrderUpdateService.createOrderItemCommentBySystem(ORDER_ID);
+        // 断言
+        verify(self, never()).createOrderItemCommentBySystemBySystem(any(TradeOrderDO.class));
+    }
+
+    @Test
+    public void testCreateOrderItemCommentBySystem_notExpired() {
+        // mock 数据
+        TradeOrderDO order = mockOrder(TradeOrderStatusEnum.COMPLETED).setCommentStatus(false)
+                .setReceiveTime(LocalDateTime.now().minusDays(6));
+        when(tradeOrderProperties.getCommentExpireTime()).thenReturn(Duration.ofDays(7));
+
+        // 调用
+        tradeOrderUpdateService.createOrderItemCommentBySystem(ORDER_ID);
+        // 断言：不评价，而是在到期时间重新投递
+        verify(self, never()).createOrderItemCommentBySystemBySystem(any(TradeOrderDO.class));
+        verify(tradeOrderProducer).sendOrderTimeoutMessage(eq(ORDER_ID), eq(TradeOrderTimeoutTypeEnum.COMMENT),
+                eq(order.getReceiveTime().plusDays(7)));
+    }
+
+    private TradeOrderDO mockOrder(TradeOrderStatusEnum status) {
+        TradeOrderDO order = new TradeOrderDO().setId(ORDER_ID).setStatus(status.getStatus());
+        when(tradeOrderMapper.selectById(eq(ORDER_ID))).thenReturn(order);
+        return order;
+    }
+
+    private void mockSelf() {
+        springUtilMockedStatic.when(() -> SpringUtil.getBean(eq(TradeOrderUpdateServiceImpl.class))).thenReturn(self);
+    }
+
+}
@@ -0,0 +1,185 @@
+package cn.iocoder.yudao.module.trade.service.price;
+
+import cn.hutool.core.util.ReflectUtil;
+import cn.iocoder.yudao.module.member.api.level.MemberLevelApi;
+import cn.iocoder.yudao.module.member.api.level.dto.MemberLevelRespDTO;
+import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
+import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
+import cn.iocoder.yudao.module.product.api.sku.ProductSkuApi;
+import cn.iocoder.yudao.module.product.api.sku.dto.ProductSkuRespDTO;
+import cn.iocoder.yudao.module.product.api.spu.ProductSpuApi;
+import cn.iocoder.yudao.module.product.api.spu.dto.ProductSpuRespDTO;
+import cn.iocoder.yudao.module.product.enums.spu.ProductSpuStatusEnum;
+import cn.iocoder.yudao.module.promotion.api.discount.DiscountActivityApi;
+import cn.iocoder.yudao.module.promotion.api.discount.dto.DiscountProductRespDTO;
+import cn.iocoder.yudao.module.promotion.api.reward.RewardActivityApi;
+import cn.iocoder.yudao.module.promotion.api.reward.dto.RewardActivityMatchRespDTO;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionConditionTypeEnum;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionDiscountTypeEnum;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.calculator.*;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * {@link TradePriceServiceImpl} 价格计算的基准测试，单位为「微秒/次」，即每次价格计算的平均耗时
+ *
+ * 对比三种方式：
+ * 1. serial：通过同步的 Executor 依次加载数据，相当于各个计算器各自串行查询的原实现
+ * 2. parallel：并行预加载数据快照，再基于快照计算
+ * 3. cached：命中短期缓存的数据快照，不再加载数据，模拟结算页的重复计算
+ *
+ * 每次远程调用（或数据库查询）通过 {@link #IO_LATENCY_NANOS} 模拟耗时
+ *
+ * 非单元测试，通过 main 方法运行
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradePriceServiceBenchmark {
+
+    /**
+     * 模拟的单次远程调用耗时：1 毫秒
+     */
+    private static final long IO_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 购物车的商品数量
+     */
+    @Param({"1", "20", "100"})
+    private int itemCount;
+
+    private ThreadPoolTaskExecutor executor;
+    private TradePriceServiceImpl serialPriceService;
+    private TradePriceServiceImpl parallelPriceService;
+    private TradePriceCalculateReqBO reqBO;
+
+    @Setup
+    public void setup() {
+        // 准备数据
+        List<ProductSkuRespDTO> skus = new ArrayList<>(itemCount);
+        List<ProductSpuRespDTO> spus = new ArrayList<>();
+        List<DiscountProductRespDTO> discountProducts = new ArrayList<>();
+        List<TradePriceCalculateReqBO.Item> items = new ArrayList<>(itemCount);
+        for (long i = 1; i <= itemCount; i++) {
+            long spuId = i % 10 + 1;
+            skus.add(new ProductSkuRespDTO().setId(i).setSpuId(spuId).setPrice(1000).setStock(10000));
+            if (i <= 10) {
+                spus.add(new ProductSpuRespDTO().setId(spuId).setName("商品" + spuId).setCategoryId(1L)
+                        .setStatus(ProductSpuStatusEnum.ENABLE.getStatus()));
+            }
+            if (i % 2 == 0) {
+                discountProducts.add(new DiscountProductRespDTO().setSkuId(i).setActivityId(1L).setActivityName("限时折扣")
+                        .setDiscountType(PromotionDiscountTypeEnum.PERCENT.getType()).setDiscountPercent(80));
+            }
+            items.add(new TradePriceCalculateReqBO.Item().setSkuId(i).setCount(2).setSelected(true));
+        }
+        List<RewardActivityMatchRespDTO> rewardActivities = singletonList(new RewardActivityMatchRespDTO()
+                .setId(1L).setName("满减送").setConditionType(PromotionConditionTypeEnum.PRICE.getType())
+                .setSpuIds(Arrays.asList(1L, 2L, 3L))
+                .setRules(singletonList(new RewardActivityMatchRespDTO.Rule().setLimit(1000).setDiscountPrice(100))));
+        reqBO = new TradePriceCalculateReqBO().setUserId(1L).setPointStatus(false).setItems(items);
+
+        // 模拟远程调用。使用 stubOnly 模式，避免 Mockito 记录调用历史导致内存膨胀
+        ProductSkuApi productSkuApi = mock(ProductSkuApi.class);
+        when(productSkuApi.getSkuList(any())).thenAnswer(withLatency(() -> skus));
+        ProductSpuApi productSpuApi = mock(ProductSpuApi.class);
+        when(productSpuApi.validateSpuList(any())).thenAnswer(withLatency(() -> spus));
+        MemberUserApi memberUserApi = mock(MemberUserApi.class);
+        when(memberUserApi.getUser(anyLong())).thenAnswer(withLatency(() -> new MemberUserRespDTO().setId(1L).setLevelId(1L)));
+        MemberLevelApi memberLevelApi = mock(MemberLevelApi.class);
+        when(memberLevelApi.getMemberLevel(anyLong())).thenAnswer(withLatency(() ->
+                new MemberLevelRespDTO().setId(1L).setName("VIP").setDiscountPercent(95)));
+        DiscountActivityApi discountActivityApi = mock(DiscountActivityApi.class);
+        when(discountActivityApi.getMatchDiscountProductList(any())).thenAnswer(withLatency(() -> discountProducts));
+        RewardActivityApi rewardActivityApi = mock(RewardActivityApi.class);
+        when(rewardActivityApi.getMatchRewardActivityList(any())).thenAnswer(withLatency(() -> rewardActivities));
+
+        // 创建 TradePriceServiceImpl
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(16);
+        executor.setThreadNamePrefix("price-task-");
+        executor.initialize();
+        List<TradePriceCalculator> priceCalculators = Arrays.asList(new TradeMemberLevelPriceCalculator(),
+                new TradeDiscountActivityPriceCalculator(), new TradeRewardActivityPriceCalculator(),
+                new TradeCouponPriceCalculator());
+        serialPriceService = new TradePriceServiceImpl();
+        parallelPriceService = new TradePriceServiceImpl();
+        for (TradePriceServiceImpl priceService : Arrays.asList(serialPriceService, parallelPriceService)) {
+            ReflectUtil.setFieldValue(priceService, "productSkuApi", productSkuApi);
+            ReflectUtil.setFieldValue(priceService, "productSpuApi", productSpuApi);
+            ReflectUtil.setFieldValue(priceService, "memberUserApi", memberUserApi);
+            ReflectUtil.setFieldValue(priceService, "memberLevelApi", memberLevelApi);
+            ReflectUtil.setFieldValue(priceService, "discountActivityApi", discountActivityApi);
+            ReflectUtil.setFieldValue(priceService, "rewardActivityApi", rewardActivityApi);
+            ReflectUtil.setFieldValue(priceService, "priceCalculators", priceCalculators);
+        }
+        ReflectUtil.setFieldValue(serialPriceService, "priceThreadPoolTaskExecutor", (Executor) Runnable::run);
+        ReflectUtil.setFieldValue(parallelPriceService, "priceThreadPoolTaskExecutor", executor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public TradePriceCalculateRespBO serial() {
+        return serialPriceService.calculatePrice(reqBO);
+    }
+
+    @Benchmark
+    public TradePriceCalculateRespBO parallel() {
+        return parallelPriceService.calculatePrice(reqBO);
+    }
+
+    @Benchmark
+    public TradePriceCalculateRespBO cached() {
+        return parallelPriceService.calculatePriceWithCache(reqBO);
+    }
+
+    private static <T> T mock(Class<T> clazz) {
+        return Mockito.mock(clazz, withSettings().stubOnly());
+    }
+
+    private static Answer<Object> withLatency(Supplier<Object> supplier) {
+        return invocation -> {
+            LockSupport.parkNanos(IO_LATENCY_NANOS);
+            return supplier.get();
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TradePriceServiceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
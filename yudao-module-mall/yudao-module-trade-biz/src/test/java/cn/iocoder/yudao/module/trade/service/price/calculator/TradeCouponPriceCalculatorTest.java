@@ -1,18 +1,16 @@
 package cn.iocoder.yudao.module.trade.service.price.calculator;
 
 import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
-import cn.iocoder.yudao.module.promotion.api.coupon.CouponApi;
 import cn.iocoder.yudao.module.promotion.api.coupon.dto.CouponRespDTO;
-import cn.iocoder.yudao.module.promotion.api.coupon.dto.CouponValidReqDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionDiscountTypeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
-import org.mockito.Mock;
 
 import java.util.ArrayList;
 
@@ -20,8 +18,6 @@ import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
 import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
 
 /**
  * {@link TradeCouponPriceCalculator} 的单元测试类
@@ -33,9 +29,6 @@ public class TradeCouponPriceCalculatorTest extends BaseMockitoUnitTest {
     @InjectMocks
     private TradeCouponPriceCalculator tradeCouponPriceCalculator;
 
-    @Mock
-    private CouponApi couponApi;
-
     @Test
     public void testCalculate() {
         // 准备参数
@@ -65,15 +58,15 @@ public class TradeCouponPriceCalculatorTest extends BaseMockitoUnitTest {
         TradePriceCalculatorHelper.recountPayPrice(result.getItems());
         TradePriceCalculatorHelper.recountAllPrice(result);
 
-        // mock 方法（优惠劵 Coupon 信息）
+        // 准备快照（优惠劵 Coupon 信息）
         CouponRespDTO coupon = randomPojo(CouponRespDTO.class, o -> o.setId(1024L).setName("程序员节")
                 .setProductScope(PromotionProductScopeEnum.SPU.getScope()).setProductScopeValues(asList(1L, 2L))
                 .setUsePrice(350).setDiscountType(PromotionDiscountTypeEnum.PERCENT.getType())
                 .setDiscountPercent(50).setDiscountLimitPrice(70));
-        when(couponApi.validateCoupon(eq(new CouponValidReqDTO().setId(1024L).setUserId(233L)))).thenReturn(coupon);
+        TradePriceCalculateSnapshot snapshot = TradePriceCalculateSnapshot.builder().coupon(coupon).build();
 
         // 调用
-        tradeCouponPriceCalculator.calculate(param, result);
+        tradeCouponPriceCalculator.calculate(param, snapshot, result);
         // 断言
         assertEquals(result.getCouponId(), 1024L);
         // 断言：Price 部分
@@ -12,6 +12,7 @@ import cn.iocoder.yudao.module.trade.service.delivery.DeliveryExpressTemplateSer
 import cn.iocoder.yudao.module.trade.service.delivery.bo.DeliveryExpressTemplateRespBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -103,7 +104,7 @@ public class TradeDeliveryPriceCalculatorTest  extends BaseMockitoUnitTest {
                 .setDeliveryExpressFreePrice(2200));
 
         // 调用
-        calculator.calculate(reqBO, resultBO);
+        calculator.calculate(reqBO, TradePriceCalculateSnapshot.builder().build(), resultBO);
         TradePriceCalculateRespBO.Price price = resultBO.getPrice();
         assertThat(price)
                 .extracting("totalPrice","discountPrice","couponPrice","pointPrice","deliveryPrice","payPrice")
@@ -134,7 +135,7 @@ public class TradeDeliveryPriceCalculatorTest  extends BaseMockitoUnitTest {
                 .thenReturn(MapUtil.of(1L, templateRespBO));
 
         // 调用
-        calculator.calculate(reqBO, resultBO);
+        calculator.calculate(reqBO, TradePriceCalculateSnapshot.builder().build(), resultBO);
         // 断言
         TradePriceCalculateRespBO.Price price = resultBO.getPrice();
         assertThat(price)
@@ -169,7 +170,7 @@ public class TradeDeliveryPriceCalculatorTest  extends BaseMockitoUnitTest {
                 .thenReturn(MapUtil.of(1L, templateRespBO));
 
         // 调用
-        calculator.calculate(reqBO, resultBO);
+        calculator.calculate(reqBO, TradePriceCalculateSnapshot.builder().build(), resultBO);
         // 断言
         TradePriceCalculateRespBO.Price price = resultBO.getPrice();
         assertThat(price)
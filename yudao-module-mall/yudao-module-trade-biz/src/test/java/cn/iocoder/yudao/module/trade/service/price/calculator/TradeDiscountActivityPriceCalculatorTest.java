@@ -1,25 +1,21 @@
 package cn.iocoder.yudao.module.trade.service.price.calculator;
 
 import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
-import cn.iocoder.yudao.module.promotion.api.discount.DiscountActivityApi;
 import cn.iocoder.yudao.module.promotion.api.discount.dto.DiscountProductRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionDiscountTypeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
-import org.mockito.Mock;
 
 import java.util.ArrayList;
 
-import static cn.iocoder.yudao.framework.common.util.collection.SetUtils.asSet;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
 import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
 
 /**
  * {@link TradeDiscountActivityPriceCalculator} 的单元测试类
@@ -31,9 +27,6 @@ public class TradeDiscountActivityPriceCalculatorTest extends BaseMockitoUnitTes
     @InjectMocks
     private TradeDiscountActivityPriceCalculator tradeDiscountActivityPriceCalculator;
 
-    @Mock
-    private DiscountActivityApi discountActivityApi;
-
     @Test
     public void testCalculate() {
         // 准备参数
@@ -56,20 +49,20 @@ public class TradeDiscountActivityPriceCalculatorTest extends BaseMockitoUnitTes
         TradePriceCalculatorHelper.recountPayPrice(result.getItems());
         TradePriceCalculatorHelper.recountAllPrice(result);
 
-        // mock 方法（限时折扣活动）
-        when(discountActivityApi.getMatchDiscountProductList(eq(asSet(10L, 20L)))).thenReturn(asList(
+        // 准备快照（限时折扣活动）
+        TradePriceCalculateSnapshot snapshot = TradePriceCalculateSnapshot.builder().discountProducts(asList(
                 randomPojo(DiscountProductRespDTO.class, o -> o.setActivityId(1000L)
                         .setActivityName("活动 1000 号").setSkuId(10L)
                         .setDiscountType(PromotionDiscountTypeEnum.PRICE.getType()).setDiscountPrice(40)),
                 randomPojo(DiscountProductRespDTO.class, o -> o.setActivityId(2000L)
                         .setActivityName("活动 2000 号").setSkuId(20L)
                         .setDiscountType(PromotionDiscountTypeEnum.PERCENT.getType()).setDiscountPercent(60))
-        ));
+        )).build();
         // 10L: 100 * 2 - 40 * 2 = 120
         // 20L：50 * 3 - 50 * 3 * 0.4 = 90
 
         // 调用
-        tradeDiscountActivityPriceCalculator.calculate(param, result);
+        tradeDiscountActivityPriceCalculator.calculate(param, snapshot, result);
         // 断言：Price 部分
         TradePriceCalculateRespBO.Price price = result.getPrice();
         assertEquals(price.getTotalPrice(), 200);
@@ -1,24 +1,19 @@
 package cn.iocoder.yudao.module.trade.service.price.calculator;
 
 import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
-import cn.iocoder.yudao.module.member.api.level.MemberLevelApi;
 import cn.iocoder.yudao.module.member.api.level.dto.MemberLevelRespDTO;
-import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
-import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
-import org.mockito.Mock;
 
 import java.util.ArrayList;
 
 import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
 
 /**
  * {@link TradeMemberLevelPriceCalculator} 的单元测试类
@@ -30,11 +25,6 @@ public class TradeMemberLevelPriceCalculatorTest extends BaseMockitoUnitTest {
     @InjectMocks
     private TradeMemberLevelPriceCalculator memberLevelPriceCalculator;
 
-    @Mock
-    private MemberLevelApi memberLevelApi;
-    @Mock
-    private MemberUserApi memberUserApi;
-
     @Test
     public void testCalculate() {
         // 准备参数
@@ -58,13 +48,12 @@ public class TradeMemberLevelPriceCalculatorTest extends BaseMockitoUnitTest {
         TradePriceCalculatorHelper.recountPayPrice(result.getItems());
         TradePriceCalculatorHelper.recountAllPrice(result);
 
-        // mock 方法（会员等级）
-        when(memberUserApi.getUser(eq(1024L))).thenReturn(new MemberUserRespDTO().setLevelId(2048L));
-        when(memberLevelApi.getMemberLevel(eq(2048L))).thenReturn(
-                new MemberLevelRespDTO().setId(2048L).setName("VIP 会员").setDiscountPercent(60));
+        // 准备快照（会员等级）
+        TradePriceCalculateSnapshot snapshot = TradePriceCalculateSnapshot.builder().memberLevel(
+                new MemberLevelRespDTO().setId(2048L).setName("VIP 会员").setDiscountPercent(60)).build();
 
         // 调用
-        memberLevelPriceCalculator.calculate(param, result);
+        memberLevelPriceCalculator.calculate(param, snapshot, result);
         // 断言：Price 部分
         TradePriceCalculateRespBO.Price price = result.getPrice();
         assertEquals(price.getTotalPrice(), 200);
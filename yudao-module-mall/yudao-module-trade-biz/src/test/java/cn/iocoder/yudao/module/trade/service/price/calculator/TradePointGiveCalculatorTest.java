@@ -6,6 +6,7 @@ import cn.iocoder.yudao.module.member.api.config.dto.MemberConfigRespDTO;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -68,7 +69,7 @@ public class TradePointGiveCalculatorTest extends BaseMockitoUnitTest {
         when(memberConfigApi.getConfig()).thenReturn(memberConfig);
 
         // 调用
-        tradePointGiveCalculator.calculate(param, result);
+        tradePointGiveCalculator.calculate(param, TradePriceCalculateSnapshot.builder().build(), result);
         // 断言：Price 部分
         assertEquals(result.getGivePoint(), 2 * 100 + 3 * 50 + 100);
         // 断言：SKU 1
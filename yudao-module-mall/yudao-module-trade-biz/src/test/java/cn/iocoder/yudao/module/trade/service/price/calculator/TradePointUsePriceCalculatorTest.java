@@ -9,6 +9,7 @@ import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -74,7 +75,7 @@ public class TradePointUsePriceCalculatorTest extends BaseMockitoUnitTest {
         when(memberUserApi.getUser(user.getId())).thenReturn(user);
 
         // 调用
-        tradePointUsePriceCalculator.calculate(param, result);
+        tradePointUsePriceCalculator.calculate(param, TradePriceCalculateSnapshot.builder().build(), result);
         // 断言：使用了多少积分
         assertEquals(result.getUsePoint(), 100);
         // 断言：Price 部分
@@ -164,7 +165,7 @@ public class TradePointUsePriceCalculatorTest extends BaseMockitoUnitTest {
         when(memberUserApi.getUser(user.getId())).thenReturn(user);
 
         // 调用
-        tradePointUsePriceCalculator.calculate(param, result);
+        tradePointUsePriceCalculator.calculate(param, TradePriceCalculateSnapshot.builder().build(), result);
         // 断言：使用了多少积分
         assertEquals(result.getUsePoint(), 50);
         // 断言：Price 部分
@@ -244,7 +245,7 @@ public class TradePointUsePriceCalculatorTest extends BaseMockitoUnitTest {
         TradePriceCalculatorHelper.recountAllPrice(result);
 
         // 调用
-        tradePointUsePriceCalculator.calculate(param, result);
+        tradePointUsePriceCalculator.calculate(param, TradePriceCalculateSnapshot.builder().build(), result);
         // 断言：没有使用积分
         assertNotUsePoint(result);
     }
@@ -289,7 +290,7 @@ public class TradePointUsePriceCalculatorTest extends BaseMockitoUnitTest {
         when(memberUserApi.getUser(user.getId())).thenReturn(user);
 
         // 调用
-        tradePointUsePriceCalculator.calculate(param, result);
+        tradePointUsePriceCalculator.calculate(param, TradePriceCalculateSnapshot.builder().build(), result);
 
         // 断言：没有使用积分
         assertNotUsePoint(result);
@@ -1,26 +1,22 @@
 package cn.iocoder.yudao.module.trade.service.price.calculator;
 
 import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
-import cn.iocoder.yudao.module.promotion.api.reward.RewardActivityApi;
 import cn.iocoder.yudao.module.promotion.api.reward.dto.RewardActivityMatchRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionConditionTypeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateSnapshot;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
-import org.mockito.Mock;
 
 import java.util.ArrayList;
 
-import static cn.iocoder.yudao.framework.common.util.collection.SetUtils.asSet;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
 
 /**
  * {@link TradeRewardActivityPriceCalculator} 的单元测试类
@@ -32,9 +28,6 @@ public class TradeRewardActivityPriceCalculatorTest extends BaseMockitoUnitTest
     @InjectMocks
     private TradeRewardActivityPriceCalculator tradeRewardActivityPriceCalculator;
 
-    @Mock
-    private RewardActivityApi rewardActivityApi;
-
     @Test
     public void testCalculate_match() {
         // 准备参数
@@ -60,8 +53,8 @@ public class TradeRewardActivityPriceCalculatorTest extends BaseMockitoUnitTest
         TradePriceCalculatorHelper.recountPayPrice(result.getItems());
         TradePriceCalculatorHelper.recountAllPrice(result);
 
-        // mock 方法（限时折扣 DiscountActivity 信息）
-        when(rewardActivityApi.getMatchRewardActivityList(eq(asSet(1L, 2L, 3L)))).thenReturn(asList(
+        // 准备快照（满减送 RewardActivity 信息）
+        TradePriceCalculateSnapshot snapshot = TradePriceCalculateSnapshot.builder().rewardActivities(asList(
                 randomPojo(RewardActivityMatchRespDTO.class, o -> o.setId(1000L).setName("活动 1000 号")
                         .setSpuIds(asList(1L, 2L)).setConditionType(PromotionConditionTypeEnum.PRICE.getType())
                         .setRules(singletonList(new RewardActivityMatchRespDTO.Rule().setLimit(200).setDiscountPrice(70)))),
@@ -70,10 +63,10 @@ public class TradeRewardActivityPriceCalculatorTest extends BaseMockitoUnitTest
                         .setRules(asList(new RewardActivityMatchRespDTO.Rule().setLimit(1).setDiscountPrice(10),
                                 new RewardActivityMatchRespDTO.Rule().setLimit(2).setDiscountPrice(60), // 最大可满足，因为是 4 个
                                 new RewardActivityMatchRespDTO.Rule().setLimit(10).setDiscountPrice(100))))
-        ));
+        )).build();
 
         // 调用
-        tradeRewardActivityPriceCalculator.calculate(param, result);
+        tradeRewardActivityPriceCalculator.calculate(param, snapshot, result);
         // 断言 Order 部分
         TradePriceCalculateRespBO.Price price = result.getPrice();
         assertEquals(price.getTotalPrice(), 470);
@@ -172,15 +165,15 @@ public class TradeRewardActivityPriceCalculatorTest extends BaseMockitoUnitTest
         TradePriceCalculatorHelper.recountPayPrice(result.getItems());
         TradePriceCalculatorHelper.recountAllPrice(result);
 
-        // mock 方法（限时折扣 DiscountActivity 信息）
-        when(rewardActivityApi.getMatchRewardActivityList(eq(asSet(1L, 2L)))).thenReturn(singletonList(
+        // 准备快照（满减送 RewardActivity 信息）
+        TradePriceCalculateSnapshot snapshot = TradePriceCalculateSnapshot.builder().rewardActivities(singletonList(
                 randomPojo(RewardActivityMatchRespDTO.class, o -> o.setId(1000L).setName("活动 1000 号")
                         .setSpuIds(asList(1L, 2L)).setConditionType(PromotionConditionTypeEnum.PRICE.getType())
                         .setRules(singletonList(new RewardActivityMatchRespDTO.Rule().setLimit(351).setDiscountPrice(70))))
-        ));
+        )).build();
 
         // 调用
-        tradeRewardActivityPriceCalculator.calculate(param, result);
+        tradeRewardActivityPriceCalculator.calculate(param, snapshot, result);
         // 断言 Order 部分
         TradePriceCalculateRespBO.Price price = result.getPrice();
         assertEquals(price.getTotalPrice(), 350);
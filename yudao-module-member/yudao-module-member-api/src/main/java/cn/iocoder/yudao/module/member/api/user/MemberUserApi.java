@@ -57,4 +57,15 @@ public interface MemberUserApi {
      * @return 用户信息
      */
     MemberUserRespDTO getUserByMobile(String mobile);
+
+    /**
+     * 获得编号大于 lastId 的用户编号列表，按编号升序
+     *
+     * 用于按游标分页遍历全部用户，例如说批量发放优惠劵
+     *
+     * @param lastId 上一页最后一个用户编号，首页传 0
+     * @param limit  数量
+     * @return 用户编号列表
+     */
+    List<Long> getUserIdListByIdGt(Long lastId, Integer limit);
 }
@@ -44,4 +44,9 @@ public class MemberUserApiImpl implements MemberUserApi {
         return MemberUserConvert.INSTANCE.convert2(userService.getUserByMobile(mobile));
     }
 
+    @Override
+    public List<Long> getUserIdListByIdGt(Long lastId, Integer limit) {
+        return userService.getUserIdListByIdGt(lastId, limit);
+    }
+
 }
@@ -31,6 +31,14 @@ public interface MemberUserMapper extends BaseMapperX<MemberUserDO> {
                 .likeIfPresent(MemberUserDO::getNickname, nickname));
     }
 
+    default List<MemberUserDO> selectIdListByIdGt(Long lastId, Integer limit) {
+        LambdaQueryWrapperX<MemberUserDO> query = new LambdaQueryWrapperX<>();
+        query.select(MemberUserDO::getId)
+                .gt(MemberUserDO::getId, lastId)
+                .orderByAsc(MemberUserDO::getId);
+        return selectList(query.limitN(limit));
+    }
+
     default PageResult<MemberUserDO> selectPage(MemberUserPageReqVO reqVO) {
         // 处理 tagIds 过滤条件
         String tagIdSql = "";
@@ -35,6 +35,15 @@ public interface MemberUserService {
      */
     List<MemberUserDO> getUserListByNickname(String nickname);
 
+    /**
+     * 获得编号大于 lastId 的用户编号列表，按编号升序
+     *
+     * @param lastId 上一页最后一个用户编号
+     * @param limit  数量
+     * @return 用户编号列表
+     */
+    List<Long> getUserIdListByIdGt(Long lastId, Integer limit);
+
     /**
      * 基于手机号创建用户。
      * 如果用户已经存在，则直接进行返回
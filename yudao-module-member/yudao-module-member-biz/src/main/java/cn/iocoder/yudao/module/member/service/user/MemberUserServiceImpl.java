@@ -36,6 +36,7 @@ import java.util.Collection;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
 import static cn.iocoder.yudao.framework.common.util.servlet.ServletUtils.getClientIP;
 import static cn.iocoder.yudao.module.member.enums.ErrorCodeConstants.*;
 
@@ -74,6 +75,11 @@ public class MemberUserServiceImpl implements MemberUserService {
         return memberUserMapper.selectListByNicknameLike(nickname);
     }
 
+    @Override
+    public List<Long> getUserIdListByIdGt(Long lastId, Integer limit) {
+        return convertList(memberUserMapper.selectIdListByIdGt(lastId, limit), MemberUserDO::getId);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public MemberUserDO createUserIfAbsent(String mobile, String registerIp, Integer terminal) {
@@ -56,4 +56,14 @@ public class PayWalletDO extends BaseDO {
      */
     private Integer totalRecharge;
 
+    /**
+     * 账本模式下，已同步到钱包金额的最大钱包流水编号，即同步的水位
+     *
+     * 编号大于它的钱包流水，尚未同步到钱包金额中，由 PayWalletBalanceCompactJob 汇总后同步
+     * 为空时，表示钱包未处于账本模式，所有钱包流水都已经同步到钱包金额中
+     *
+     * 关联 {@link PayWalletTransactionDO#getId()}
+     */
+    private Long ledgerTransactionId;
+
 }
@@ -30,6 +30,11 @@ public interface PayNotifyTaskMapper extends BaseMapperX<PayNotifyTaskDO> {
                 .le(PayNotifyTaskDO::getNextNotifyTime, LocalDateTime.now()));
     }
 
+    default int updateByIdAndNotifyTimes(Long id, Integer notifyTimes, PayNotifyTaskDO update) {
+        return update(update, new LambdaQueryWrapper<PayNotifyTaskDO>()
+                .eq(PayNotifyTaskDO::getId, id).eq(PayNotifyTaskDO::getNotifyTimes, notifyTimes));
+    }
+
     default PageResult<PayNotifyTaskDO> selectPage(PayNotifyTaskPageReqVO reqVO) {
         return selectPage(reqVO, new LambdaQueryWrapperX<PayNotifyTaskDO>()
                 .eqIfPresent(PayNotifyTaskDO::getAppId, reqVO.getAppId())
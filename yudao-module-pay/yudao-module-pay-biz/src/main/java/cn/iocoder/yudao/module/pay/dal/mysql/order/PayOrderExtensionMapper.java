@@ -1,11 +1,13 @@
 package cn.iocoder.yudao.module.pay.dal.mysql.order;
 
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
 import cn.iocoder.yudao.module.pay.dal.dataobject.order.PayOrderExtensionDO;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import org.apache.ibatis.annotations.Mapper;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -24,10 +26,18 @@ public interface PayOrderExtensionMapper extends BaseMapperX<PayOrderExtensionDO
         return selectList(PayOrderExtensionDO::getOrderId, orderId);
     }
 
-    default List<PayOrderExtensionDO> selectListByStatusAndCreateTimeLe(Integer status, LocalDateTime minCreateTime) {
-        return selectList(new LambdaQueryWrapper<PayOrderExtensionDO>()
-                .eq(PayOrderExtensionDO::getStatus, status)
-                .le(PayOrderExtensionDO::getCreateTime, minCreateTime));
+    default List<PayOrderExtensionDO> selectListByOrderId(Collection<Long> orderIds) {
+        return selectList(PayOrderExtensionDO::getOrderId, orderIds);
+    }
+
+    default List<PayOrderExtensionDO> selectListByStatusAndCreateTimeGe(Integer status, LocalDateTime minCreateTime,
+                                                                        Long lastId, Integer limit) {
+        LambdaQueryWrapperX<PayOrderExtensionDO> query = new LambdaQueryWrapperX<>();
+        query.eq(PayOrderExtensionDO::getStatus, status)
+                .ge(PayOrderExtensionDO::getCreateTime, minCreateTime)
+                .gt(PayOrderExtensionDO::getId, lastId)
+                .orderByAsc(PayOrderExtensionDO::getId);
+        return selectList(query.limitN(limit));
     }
 
 }
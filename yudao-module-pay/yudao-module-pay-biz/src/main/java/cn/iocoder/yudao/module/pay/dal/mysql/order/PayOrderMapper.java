@@ -10,6 +10,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import org.apache.ibatis.annotations.Mapper;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -53,10 +54,19 @@ public interface PayOrderMapper extends BaseMapperX<PayOrderDO> {
                 .eq(PayOrderDO::getId, id).eq(PayOrderDO::getStatus, status));
     }
 
-    default List<PayOrderDO> selectListByStatusAndExpireTimeLt(Integer status, LocalDateTime expireTime) {
-        return selectList(new LambdaQueryWrapper<PayOrderDO>()
-                .eq(PayOrderDO::getStatus, status)
-                .lt(PayOrderDO::getExpireTime, expireTime));
+    default int updateByIdInAndStatus(Collection<Long> ids, Integer status, PayOrderDO update) {
+        return update(update, new LambdaQueryWrapper<PayOrderDO>()
+                .in(PayOrderDO::getId, ids).eq(PayOrderDO::getStatus, status));
+    }
+
+    default List<PayOrderDO> selectListByStatusAndExpireTimeLt(Integer status, LocalDateTime expireTime,
+                                                               Long lastId, Integer limit) {
+        LambdaQueryWrapperX<PayOrderDO> query = new LambdaQueryWrapperX<>();
+        query.eq(PayOrderDO::getStatus, status)
+                .lt(PayOrderDO::getExpireTime, expireTime)
+                .gt(PayOrderDO::getId, lastId)
+                .orderByAsc(PayOrderDO::getId);
+        return selectList(query.limitN(limit));
     }
 
 }
@@ -72,7 +72,11 @@ public interface PayRefundMapper extends BaseMapperX<PayRefundDO> {
                 .orderByDesc(PayRefundDO::getId));
     }
 
-    default List<PayRefundDO> selectListByStatus(Integer status) {
-        return selectList(PayRefundDO::getStatus, status);
+    default List<PayRefundDO> selectListByStatus(Integer status, Long lastId, Integer limit) {
+        LambdaQueryWrapperX<PayRefundDO> query = new LambdaQueryWrapperX<>();
+        query.eq(PayRefundDO::getStatus, status)
+                .gt(PayRefundDO::getId, lastId)
+                .orderByAsc(PayRefundDO::getId);
+        return selectList(query.limitN(limit));
     }
 }
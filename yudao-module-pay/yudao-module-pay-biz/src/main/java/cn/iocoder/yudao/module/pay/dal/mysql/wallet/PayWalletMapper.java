@@ -25,96 +25,70 @@ public interface PayWalletMapper extends BaseMapperX<PayWalletDO> {
                 .orderByDesc(PayWalletDO::getId));
     }
 
-    /**
-     * 当消费退款时候， 更新钱包
-     *
-     * @param id 钱包 id
-     * @param price 消费金额
-     */
-    default int updateWhenConsumptionRefund(Long id, Integer price){
-        LambdaUpdateWrapper<PayWalletDO> lambdaUpdateWrapper = new LambdaUpdateWrapper<PayWalletDO>()
-                .setSql(" balance = balance + " + price
-                        + ", total_expense = total_expense - " + price)
-                .eq(PayWalletDO::getId, id);
-        return update(null, lambdaUpdateWrapper);
-    }
-
-    /**
-     * 当消费时候， 更新钱包
-     *
-     * @param price 消费金额
-     * @param id 钱包 id
-     */
-    default int updateWhenConsumption(Long id, Integer price){
-        LambdaUpdateWrapper<PayWalletDO> lambdaUpdateWrapper = new LambdaUpdateWrapper<PayWalletDO>()
-                .setSql(" balance = balance - " + price
-                        + ", total_expense = total_expense + " + price)
+    default PayWalletDO selectByIdForUpdate(Long id) {
+        return selectOne(new LambdaQueryWrapperX<PayWalletDO>()
                 .eq(PayWalletDO::getId, id)
-                .ge(PayWalletDO::getBalance, price); // cas 逻辑
-        return update(null, lambdaUpdateWrapper);
+                .last("FOR UPDATE"));
     }
 
     /**
-     * 当充值的时候，更新钱包
+     * 更新钱包金额
      *
      * @param id 钱包 id
-     * @param price 钱包金额
+     * @param check 是否校验金额减少的字段，变更后不能小于 0
+     * @param balance 余额的变更金额，负数表示减少
+     * @param freezePrice 冻结金额的变更金额
+     * @param totalExpense 累计支出的变更金额
+     * @param totalRecharge 累计充值的变更金额
+     * @return 影响的行数；为 0 时，表示金额不足
      */
-    default int updateWhenRecharge(Long id, Integer price){
+    default int updateBalance(Long id, boolean check,
+                              int balance, int freezePrice, int totalExpense, int totalRecharge) {
         LambdaUpdateWrapper<PayWalletDO> lambdaUpdateWrapper = new LambdaUpdateWrapper<PayWalletDO>()
-                .setSql(" balance = balance + " + price
-                        + ", total_recharge = total_recharge + " + price)
-                .eq(PayWalletDO::getId, id);
-        return update(null, lambdaUpdateWrapper);
-    }
-
-    /**
-     * 冻结钱包部分余额
-     *
-     * @param id 钱包 id
-     * @param price 冻结金额
-     */
-    default int freezePrice(Long id, Integer price){
-        LambdaUpdateWrapper<PayWalletDO> lambdaUpdateWrapper = new LambdaUpdateWrapper<PayWalletDO>()
-                .setSql(" balance = balance - " + price
-                        + ", freeze_price = freeze_price + " + price)
+                .setSql(" balance = balance + " + balance
+                        + ", freeze_price = freeze_price + " + freezePrice
+                        + ", total_expense = total_expense + " + totalExpense
+                        + ", total_recharge = total_recharge + " + totalRecharge)
                 .eq(PayWalletDO::getId, id)
-                .ge(PayWalletDO::getBalance, price); // cas 逻辑
+                // cas 逻辑
+                .ge(check && balance < 0, PayWalletDO::getBalance, -balance)
+                .ge(check && freezePrice < 0, PayWalletDO::getFreezePrice, -freezePrice)
+                .ge(check && totalExpense < 0, PayWalletDO::getTotalExpense, -totalExpense)
+                .ge(check && totalRecharge < 0, PayWalletDO::getTotalRecharge, -totalRecharge);
         return update(null, lambdaUpdateWrapper);
     }
 
     /**
-     * 解冻钱包余额
+     * 账本模式下，将钱包流水汇总的金额同步到钱包，并推进同步的水位
      *
-     * @param id 钱包 id
-     * @param price 解冻金额
-     */
-    default int unFreezePrice(Long id, Integer price){
-        LambdaUpdateWrapper<PayWalletDO> lambdaUpdateWrapper = new LambdaUpdateWrapper<PayWalletDO>()
-                .setSql(" balance = balance + " + price
-                        + ", freeze_price = freeze_price - " + price)
-                .eq(PayWalletDO::getId, id)
-                .ge(PayWalletDO::getFreezePrice, price); // cas 逻辑
-        return update(null, lambdaUpdateWrapper);
-    }
-
-    /**
-     * 当充值退款时, 更新钱包
+     * 基于水位进行 cas 更新，避免并发同步时，重复同步同一批钱包流水
      *
      * @param id 钱包 id
-     * @param price 退款金额
+     * @param balance 余额的变更金额，负数表示减少
+     * @param freezePrice 冻结金额的变更金额
+     * @param totalExpense 累计支出的变更金额
+     * @param totalRecharge 累计充值的变更金额
+     * @param whereLedgerTransactionId 当前的水位
+     * @param ledgerTransactionId 新的水位；为空时，表示关闭钱包的账本模式
+     * @return 影响的行数
      */
-    default  int updateWhenRechargeRefund(Long id, Integer price){
+    default int updateLedgerBalance(Long id, int balance, int freezePrice, int totalExpense, int totalRecharge,
+                                    Long whereLedgerTransactionId, Long ledgerTransactionId) {
         LambdaUpdateWrapper<PayWalletDO> lambdaUpdateWrapper = new LambdaUpdateWrapper<PayWalletDO>()
-                .setSql(" freeze_price = freeze_price - " + price
-                        + ", total_recharge = total_recharge - " + price)
-                .eq(PayWalletDO::getId, id)
-                .ge(PayWalletDO::getFreezePrice, price)
-                .ge(PayWalletDO::getTotalRecharge, price);// cas 逻辑
+                .setSql(" balance = balance + " + balance
+                        + ", freeze_price = freeze_price + " + freezePrice
+                        + ", total_expense = total_expense + " + totalExpense
+                        + ", total_recharge = total_recharge + " + totalRecharge)
+                .set(PayWalletDO::getLedgerTransactionId, ledgerTransactionId)
+                .eq(PayWalletDO::getId, id);
+        if (whereLedgerTransactionId != null) {
+            lambdaUpdateWrapper.eq(PayWalletDO::getLedgerTransactionId, whereLedgerTransactionId);
+        } else {
+            lambdaUpdateWrapper.isNull(PayWalletDO::getLedgerTransactionId);
+        }
         return update(null, lambdaUpdateWrapper);
     }
 
-
 }
 
 
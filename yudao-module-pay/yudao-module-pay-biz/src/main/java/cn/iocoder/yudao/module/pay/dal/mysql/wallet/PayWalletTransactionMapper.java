@@ -19,6 +19,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
 
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
 import static cn.iocoder.yudao.module.pay.controller.app.wallet.vo.transaction.AppPayWalletTransactionPageReqVO.*;
 
 @Mapper
@@ -51,6 +52,27 @@ public interface PayWalletTransactionMapper extends BaseMapperX<PayWalletTransac
         return MapUtil.getInt(first, "priceSum", 0);
     }
 
+    default Long selectMaxId(Long walletId, Long minId, LocalDateTime maxCreateTime) {
+        List<Map<String, Object>> result = selectMaps(new QueryWrapperX<PayWalletTransactionDO>()
+                .select("MAX(id) AS maxId")
+                .eq("wallet_id", walletId)
+                .gt(minId != null, "id", minId)
+                .lt(maxCreateTime != null, "create_time", maxCreateTime));
+        return MapUtil.getLong(CollUtil.getFirst(result), "maxId");
+    }
+
+    default Map<Integer, Integer> selectPriceSumMapByBizType(Long walletId, Long minId, Long maxId) {
+        // SQL sum 查询
+        List<Map<String, Object>> result = selectMaps(new QueryWrapperX<PayWalletTransactionDO>()
+                .select("biz_type AS bizType", "SUM(price) AS priceSum")
+                .eq("wallet_id", walletId)
+                .gt("id", minId)
+                .le(maxId != null, "id", maxId)
+                .groupBy("biz_type"));
+        // 获得 sum 结果
+        return convertMap(result, map -> MapUtil.getInt(map, "bizType"), map -> MapUtil.getInt(map, "priceSum", 0));
+    }
+
     default PayWalletTransactionDO selectByNo(String no) {
         return selectOne(PayWalletTransactionDO::getNo, no);
     }
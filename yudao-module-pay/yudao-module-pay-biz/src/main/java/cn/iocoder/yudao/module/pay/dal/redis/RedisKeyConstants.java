@@ -10,9 +10,9 @@ public interface RedisKeyConstants {
     /**
      * 通知任务的分布式锁
      *
-     * KEY 格式：pay_notify:lock:%d // 参数来自 DefaultLockKeyBuilder 类
-     * VALUE 数据格式：HASH // RLock.class：Redisson 的 Lock 锁，使用 Hash 数据结构
-     * 过期时间：不固定
+     * KEY 格式：pay_notify:lock:%d // 参数为通知任务编号
+     * VALUE 数据格式：String // 持有者标识，解锁时校验，避免误删其它节点的锁
+     * 过期时间：通知的最大超时时间 + 写入结果的预留时间
      */
     String PAY_NOTIFY_LOCK = "pay_notify:lock:%d";
 
@@ -24,4 +24,41 @@ public interface RedisKeyConstants {
      */
     String PAY_NO = "pay_no:";
 
+    /**
+     * 钱包的实时余额，账本模式下使用，作为余额校验与查询的缓存
+     *
+     * 即 DB 中的钱包金额，加上尚未同步到钱包的钱包流水的金额
+     *
+     * KEY 格式：pay_wallet_balance:{walletId}
+     * VALUE 数据格式：HASH // key：balance、freezePrice、totalExpense、totalRecharge；value：金额，单位分
+     * 过期时间：最后一次变更后 1 天，过期后从 DB 重新加载
+     */
+    String PAY_WALLET_BALANCE = "pay_wallet_balance:%d";
+
+    /**
+     * 可能存在未同步钱包流水的钱包，用于 PayWalletBalanceCompactJob 查找需要同步的钱包
+     *
+     * KEY 格式：pay_wallet_balance_pending_wallets
+     * VALUE 数据格式：SET // 钱包编号
+     */
+    String PAY_WALLET_BALANCE_PENDING_WALLETS = "pay_wallet_balance_pending_wallets";
+
+    /**
+     * 钱包余额的分布式锁，保证余额加载与余额同步互斥
+     *
+     * KEY 格式：pay_wallet_balance:lock:%d // 参数为钱包编号
+     * VALUE 数据格式：HASH // RLock.class：Redisson 的 Lock 锁，使用 Hash 数据结构
+     * 过期时间：不固定
+     */
+    String PAY_WALLET_BALANCE_LOCK = "pay_wallet_balance:lock:%d";
+
+    /**
+     * 钱包进行中（尚未提交或回滚）的钱包流水事务，用于同步时，水位不越过尚未提交的钱包流水
+     *
+     * KEY 格式：pay_wallet_balance:inflight:%d // 参数为钱包编号
+     * VALUE 数据格式：ZSET // member：事务标识；score：事务变更余额的时间戳，单位毫秒
+     * 过期时间：最后一次变更后 1 天
+     */
+    String PAY_WALLET_BALANCE_INFLIGHT = "pay_wallet_balance:inflight:%d";
+
 }
@@ -1,10 +1,13 @@
 package cn.iocoder.yudao.module.pay.dal.redis.notify;
 
-import org.redisson.api.RLock;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.Resource;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
 import static cn.iocoder.yudao.module.pay.dal.redis.RedisKeyConstants.PAY_NOTIFY_LOCK;
@@ -12,24 +15,58 @@ import static cn.iocoder.yudao.module.pay.dal.redis.RedisKeyConstants.PAY_NOTIFY
 /**
  * 支付通知的锁 Redis DAO
  *
+ * 通知是异步发起的，加锁、解锁不在同一个线程，所以不使用 RLock，而是使用「SET NX PX + 持有者标识」的租约锁
+ *
  * @author 芋道源码
  */
 @Repository
 public class PayNotifyLockRedisDAO {
 
+    /**
+     * 续期的 Lua 脚本：只有持有者标识匹配时，才会重新设置过期时间
+     */
+    private static final String RENEW_SCRIPT = "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('PEXPIRE', KEYS[1], ARGV[2]) else return 0 end";
+
     @Resource
     private RedissonClient redissonClient;
 
-    public void lock(Long id, Long timeoutMillis, Runnable runnable) {
-        String lockKey = formatKey(id);
-        RLock lock = redissonClient.getLock(lockKey);
-        try {
-            lock.lock(timeoutMillis, TimeUnit.MILLISECONDS);
-            // 执行逻辑
-            runnable.run();
-        } finally {
-            lock.unlock();
-        }
+    /**
+     * 尝试加锁
+     *
+     * @param id 通知任务编号
+     * @param value 持有者标识，解锁时需要传入相同的值
+     * @param timeoutMillis 锁的过期时间，持有者异常退出时，到期后自动释放
+     * @return 是否加锁成功
+     */
+    public boolean tryLock(Long id, String value, long timeoutMillis) {
+        RBucket<String> bucket = redissonClient.getBucket(formatKey(id), StringCodec.INSTANCE);
+        return bucket.trySet(value, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 解锁。只有持有者标识匹配时，才会删除，避免误删过期后被其它节点持有的锁
+     *
+     * @param id 通知任务编号
+     * @param value 持有者标识
+     */
+    public void unlock(Long id, String value) {
+        RBucket<String> bucket = redissonClient.getBucket(formatKey(id), StringCodec.INSTANCE);
+        bucket.compareAndSet(value, null);
+    }
+
+    /**
+     * 续期。只有持有者标识匹配时，才会重新设置过期时间
+     *
+     * @param id 通知任务编号
+     * @param value 持有者标识
+     * @param timeoutMillis 锁的过期时间
+     * @return 是否续期成功。失败时，说明锁已经过期，可能已被其它节点持有
+     */
+    public boolean renew(Long id, String value, long timeoutMillis) {
+        Boolean result = redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, RENEW_SCRIPT,
+                RScript.ReturnType.BOOLEAN, Collections.singletonList(formatKey(id)), value, String.valueOf(timeoutMillis));
+        return Boolean.TRUE.equals(result);
     }
 
     private static String formatKey(Long id) {
@@ -0,0 +1,283 @@
+package cn.iocoder.yudao.module.pay.dal.redis.wallet;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.util.ObjectUtil;
+import cn.iocoder.yudao.module.pay.dal.dataobject.wallet.PayWalletDO;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.*;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import static cn.iocoder.yudao.module.pay.dal.redis.RedisKeyConstants.*;
+
+/**
+ * 钱包余额的 Redis DAO，用于钱包的账本模式
+ *
+ * 1. 余额的变更，通过 Lua 脚本在 Redis 中原子执行：校验余额是否充足、变更余额、返回变更后的余额。
+ *    不需要锁定 pay_wallet 记录，钱包流水的余额也是准确的
+ * 2. Redis 只作为余额校验与查询的缓存，已提交的钱包流水才是账本，由 PayWalletBalanceCompactJob 汇总后同步到 DB。
+ *    所以 Redis 中的余额丢失时，可以从 DB 重新加载
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class PayWalletBalanceRedisDAO {
+
+    public static final String FIELD_BALANCE = "balance";
+    public static final String FIELD_FREEZE_PRICE = "freezePrice";
+    public static final String FIELD_TOTAL_EXPENSE = "totalExpense";
+    public static final String FIELD_TOTAL_RECHARGE = "totalRecharge";
+
+    /**
+     * 变更结果：余额未加载
+     */
+    public static final long UPDATE_NOT_LOADED = Long.MIN_VALUE;
+    /**
+     * 变更结果：余额（或冻结金额等）不足
+     */
+    public static final long UPDATE_NOT_ENOUGH = Long.MIN_VALUE + 1;
+
+    /**
+     * 变更余额。校验时，金额减少的字段，变更后不能小于 0
+     *
+     * KEYS：余额、待同步钱包
+     * ARGV：钱包编号、过期时间（秒）、是否校验（1 是，0 否），然后依次为 balance、freezePrice、totalExpense、totalRecharge 的变更金额
+     * 返回：{ 1, 变更后的余额 }；{ 0 } 不足；{ -1 } 未加载
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> UPDATE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then\n" +
+            "    return { -1 }\n" +
+            "end\n" +
+            "local fields = { 'balance', 'freezePrice', 'totalExpense', 'totalRecharge' }\n" +
+            "if ARGV[3] == '1' then\n" +
+            "    for i = 1, 4 do\n" +
+            "        local delta = tonumber(ARGV[i + 3])\n" +
+            "        if delta < 0 and tonumber(redis.call('HGET', KEYS[1], fields[i]) or 0) + delta < 0 then\n" +
+            "            return { 0 }\n" +
+            "        end\n" +
+            "    end\n" +
+            "end\n" +
+            "for i = 1, 4 do\n" +
+            "    local delta = tonumber(ARGV[i + 3])\n" +
+            "    if delta ~= 0 then\n" +
+            "        redis.call('HINCRBY', KEYS[1], fields[i], delta)\n" +
+            "    end\n" +
+            "end\n" +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2])\n" +
+            "redis.call('SADD', KEYS[2], ARGV[1])\n" +
+            "return { 1, tonumber(redis.call('HGET', KEYS[1], 'balance')) }", List.class);
+
+    /**
+     * 回滚变更。余额未加载时（例如说，已过期），重新加载时不会包含未提交的变更，所以无需回滚
+     *
+     * KEYS：余额
+     * ARGV：依次为 balance、freezePrice、totalExpense、totalRecharge 的变更金额
+     */
+    private static final RedisScript<Long> REVERT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "local fields = { 'balance', 'freezePrice', 'totalExpense', 'totalRecharge' }\n" +
+            "for i = 1, 4 do\n" +
+            "    local delta = tonumber(ARGV[i])\n" +
+            "    if delta ~= 0 then\n" +
+            "        redis.call('HINCRBY', KEYS[1], fields[i], delta)\n" +
+            "    end\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    /**
+     * 加载余额。如果已经加载，则不进行覆盖
+     *
+     * KEYS：余额
+     * ARGV：过期时间（秒），然后依次为 balance、freezePrice、totalExpense、totalRecharge 的金额
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then\n" +
+            "    return 0\n" +
+            "end\n" +
+            "local fields = { 'balance', 'freezePrice', 'totalExpense', 'totalRecharge' }\n" +
+            "for i = 1, 4 do\n" +
+            "    redis.call('HSET', KEYS[1], fields[i], ARGV[i + 1])\n" +
+            "end\n" +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1])\n" +
+            "return 1", Long.class);
+
+    /**
+     * 余额的过期时间。每次变更时刷新，避免事务执行过程中过期，导致重新加载的余额不包含该事务的变更
+     */
+    private static final Duration BALANCE_EXPIRE = Duration.ofDays(1);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+    @Resource
+    private RedissonClient redissonClient;
+
+    /**
+     * 变更余额
+     *
+     * @param walletId 钱包编号
+     * @param check 是否校验金额减少的字段，变更后不能小于 0
+     * @param balance 余额的变更金额，负数表示减少
+     * @param freezePrice 冻结金额的变更金额
+     * @param totalExpense 累计支出的变更金额
+     * @param totalRecharge 累计充值的变更金额
+     * @return 变更后的余额；失败时，返回 {@link #UPDATE_NOT_LOADED} 或 {@link #UPDATE_NOT_ENOUGH}
+     */
+    public long updateBalance(Long walletId, boolean check,
+                              int balance, int freezePrice, int totalExpense, int totalRecharge) {
+        List<?> result = stringRedisTemplate.execute(UPDATE_SCRIPT,
+                Arrays.asList(formatKey(PAY_WALLET_BALANCE, walletId), PAY_WALLET_BALANCE_PENDING_WALLETS),
+                walletId.toString(), String.valueOf(BALANCE_EXPIRE.getSeconds()), check ? "1" : "0",
+                String.valueOf(balance), String.valueOf(freezePrice),
+                String.valueOf(totalExpense), String.valueOf(totalRecharge));
+        long code = CollUtil.isEmpty(result) ? -1 : Convert.toLong(result.get(0));
+        if (code == -1) {
+            return UPDATE_NOT_LOADED;
+        }
+        if (code == 0) {
+            return UPDATE_NOT_ENOUGH;
+        }
+        return Convert.toLong(result.get(1));
+    }
+
+    /**
+     * 回滚变更，即反向变更余额，不进行校验
+     *
+     * @param walletId 钱包编号
+     * @param balance 余额的变更金额（回滚前），负数表示减少
+     * @param freezePrice 冻结金额的变更金额（回滚前）
+     * @param totalExpense 累计支出的变更金额（回滚前）
+     * @param totalRecharge 累计充值的变更金额（回滚前）
+     */
+    public void revertBalance(Long walletId, int balance, int freezePrice, int totalExpense, int totalRecharge) {
+        stringRedisTemplate.execute(REVERT_SCRIPT, Collections.singletonList(formatKey(PAY_WALLET_BALANCE, walletId)),
+                String.valueOf(-balance), String.valueOf(-freezePrice),
+                String.valueOf(-totalExpense), String.valueOf(-totalRecharge));
+    }
+
+    /**
+     * 获得实时余额
+     *
+     * @param walletId 钱包编号
+     * @return 实时余额，key：字段名，参见 FIELD_ 开头的常量；未加载时，返回 null
+     */
+    public Map<String, Integer> getBalance(Long walletId) {
+        Map<Object, Object> balance = stringRedisTemplate.opsForHash().entries(formatKey(PAY_WALLET_BALANCE, walletId));
+        return CollUtil.isEmpty(balance) ? null : toIntMap(balance);
+    }
+
+    public boolean hasBalance(Long walletId) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(formatKey(PAY_WALLET_BALANCE, walletId)));
+    }
+
+    /**
+     * 加载余额。如果已经加载，则不进行覆盖
+     *
+     * @param wallet 钱包，金额需要包含尚未同步到钱包的钱包流水的金额
+     */
+    public void loadBalance(PayWalletDO wallet) {
+        stringRedisTemplate.execute(LOAD_SCRIPT, Collections.singletonList(formatKey(PAY_WALLET_BALANCE, wallet.getId())),
+                String.valueOf(BALANCE_EXPIRE.getSeconds()),
+                toString(wallet.getBalance()), toString(wallet.getFreezePrice()),
+                toString(wallet.getTotalExpense()), toString(wallet.getTotalRecharge()));
+    }
+
+    public void deleteBalance(Long walletId) {
+        stringRedisTemplate.delete(formatKey(PAY_WALLET_BALANCE, walletId));
+    }
+
+    /**
+     * 获得可能存在未同步钱包流水的钱包编号
+     *
+     * @return 钱包编号
+     */
+    public Set<Long> getPendingWalletIds() {
+        Set<String> walletIds = stringRedisTemplate.opsForSet().members(PAY_WALLET_BALANCE_PENDING_WALLETS);
+        return CollUtil.isEmpty(walletIds) ? Collections.emptySet() : convertSet(walletIds, Long::valueOf);
+    }
+
+    public void addPendingWalletId(Long walletId) {
+        stringRedisTemplate.opsForSet().add(PAY_WALLET_BALANCE_PENDING_WALLETS, walletId.toString());
+    }
+
+    public void removePendingWalletId(Long walletId) {
+        stringRedisTemplate.opsForSet().remove(PAY_WALLET_BALANCE_PENDING_WALLETS, walletId.toString());
+    }
+
+    /**
+     * 记录进行中的钱包流水事务
+     *
+     * @param walletId 钱包编号
+     * @param token 事务标识
+     * @param startTime 事务变更余额的时间戳，单位：毫秒
+     */
+    public void addInflightTransaction(Long walletId, String token, long startTime) {
+        String key = formatKey(PAY_WALLET_BALANCE_INFLIGHT, walletId);
+        stringRedisTemplate.opsForZSet().add(key, token, startTime);
+        stringRedisTemplate.expire(key, BALANCE_EXPIRE);
+    }
+
+    public void removeInflightTransaction(Long walletId, String token) {
+        stringRedisTemplate.opsForZSet().remove(formatKey(PAY_WALLET_BALANCE_INFLIGHT, walletId), token);
+    }
+
+    /**
+     * 获得进行中的钱包流水事务的最早开始时间
+     *
+     * @param walletId 钱包编号
+     * @param expireTime 早于该时间开始的事务，视为已经结束（例如说，节点宕机后未移除），直接移除
+     * @return 最早开始时间，单位：毫秒；不存在时，返回 null
+     */
+    public Long getInflightTransactionMinStartTime(Long walletId, long expireTime) {
+        String key = formatKey(PAY_WALLET_BALANCE_INFLIGHT, walletId);
+        stringRedisTemplate.opsForZSet().removeRangeByScore(key, 0, expireTime);
+        Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet().rangeWithScores(key, 0, 0);
+        if (CollUtil.isEmpty(tuples)) {
+            return null;
+        }
+        Double score = CollUtil.getFirst(tuples).getScore();
+        return score != null ? score.longValue() : null;
+    }
+
+    /**
+     * 基于钱包编号加锁，保证余额加载与余额同步互斥
+     *
+     * @param walletId 钱包编号
+     * @param runnable 逻辑
+     */
+    public void lock(Long walletId, Runnable runnable) {
+        RLock lock = redissonClient.getLock(formatKey(PAY_WALLET_BALANCE_LOCK, walletId));
+        lock.lock();
+        try {
+            runnable.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String toString(Integer price) {
+        return String.valueOf(ObjectUtil.defaultIfNull(price, 0));
+    }
+
+    private static Map<String, Integer> toIntMap(Map<Object, Object> map) {
+        Map<String, Integer> result = new HashMap<>(map.size());
+        map.forEach((key, value) -> result.put(key.toString(), Convert.toInt(value)));
+        return result;
+    }
+
+    private static String formatKey(String format, Long walletId) {
+        return String.format(format, walletId);
+    }
+
+}
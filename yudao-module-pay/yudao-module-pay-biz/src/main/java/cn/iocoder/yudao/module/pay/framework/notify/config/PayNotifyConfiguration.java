@@ -0,0 +1,43 @@
+package cn.iocoder.yudao.module.pay.framework.notify.config;
+
+import cn.iocoder.yudao.module.pay.framework.notify.core.PayNotifyCallTimer;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(PayNotifyProperties.class)
+public class PayNotifyConfiguration {
+
+    public static final String NOTIFY_HTTP_CLIENT = "NOTIFY_HTTP_CLIENT";
+
+    /**
+     * 支付通知使用的异步 HTTP 客户端
+     *
+     * 1. 由 {@link Dispatcher} 限制总并发数、单个域名的并发数，超出的请求在内存中排队，不占用线程
+     * 2. 复用连接池，避免每次通知都重新建立连接
+     * 3. 不自动重试，失败后由通知任务的 nextNotifyTime 重试
+     * 4. 通过 {@link PayNotifyCallTimer} 记录调用真正开始执行的时间，用于统计回调域名的耗时
+     */
+    @Bean(NOTIFY_HTTP_CLIENT)
+    public OkHttpClient notifyHttpClient(PayNotifyProperties properties) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(properties.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(properties.getMaxRequestsPerHost());
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(properties.getMaxIdleConnections(), 5, TimeUnit.MINUTES))
+                .connectTimeout(properties.getConnectTimeout())
+                .readTimeout(properties.getMaxTimeout())
+                .writeTimeout(properties.getMaxTimeout())
+                .retryOnConnectionFailure(false)
+                .addInterceptor(PayNotifyCallTimer.INTERCEPTOR)
+                .build();
+    }
+
+}
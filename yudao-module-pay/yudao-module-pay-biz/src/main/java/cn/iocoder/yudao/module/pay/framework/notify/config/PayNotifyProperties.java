@@ -0,0 +1,66 @@
+package cn.iocoder.yudao.module.pay.framework.notify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 支付通知的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.pay.notify")
+@Validated
+@Data
+public class PayNotifyProperties {
+
+    /**
+     * 同时进行的通知请求的最大数量
+     */
+    @NotNull(message = "通知请求的最大并发数不能为空")
+    private Integer maxRequests = 64;
+
+    /**
+     * 同一个回调域名，同时进行的通知请求的最大数量
+     *
+     * 目的：某个接入方的回调接口变慢时，只会占用自己的并发数，不会拖慢其它接入方的通知
+     */
+    @NotNull(message = "单个域名的最大并发数不能为空")
+    private Integer maxRequestsPerHost = 4;
+
+    /**
+     * 连接池的最大空闲连接数
+     */
+    @NotNull(message = "最大空闲连接数不能为空")
+    private Integer maxIdleConnections = 32;
+
+    /**
+     * 连接超时时间
+     */
+    @NotNull(message = "连接超时时间不能为空")
+    private Duration connectTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 通知请求的最小超时时间
+     *
+     * 实际超时时间，会根据回调域名的历史响应耗时自适应，在 [minTimeout, maxTimeout] 之间
+     */
+    @NotNull(message = "最小超时时间不能为空")
+    private Duration minTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 通知请求的最大超时时间
+     */
+    @NotNull(message = "最大超时时间不能为空")
+    private Duration maxTimeout = Duration.ofSeconds(30);
+
+    /**
+     * 批量写入通知结果时，每批的数量
+     */
+    @NotNull(message = "每批写入的数量不能为空")
+    private Integer flushBatchSize = 200;
+
+}
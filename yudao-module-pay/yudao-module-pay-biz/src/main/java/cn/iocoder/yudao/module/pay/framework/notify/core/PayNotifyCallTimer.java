@@ -0,0 +1,46 @@
+package cn.iocoder.yudao.module.pay.framework.notify.core;
+
+import okhttp3.Interceptor;
+
+/**
+ * 支付通知 HTTP 调用的计时器，作为 {@link okhttp3.Request} 的 tag 传递
+ *
+ * 目的：通知的耗时，需要从 {@link okhttp3.Dispatcher} 真正执行调用时开始计算，排除在 Dispatcher 中排队的时间，
+ * 与 call.timeout() 的计时起点保持一致。而 OkHttp 的 EventListener#callStart 在 enqueue 时就已经触发，
+ * 所以通过 {@link #INTERCEPTOR} 应用拦截器，在调用开始执行时记录开始时间
+ *
+ * @author 芋道源码
+ */
+public class PayNotifyCallTimer {
+
+    /**
+     * 记录开始时间的应用拦截器，在 Dispatcher 开始执行调用时触发
+     */
+    public static final Interceptor INTERCEPTOR = chain -> {
+        PayNotifyCallTimer timer = chain.request().tag(PayNotifyCallTimer.class);
+        if (timer != null) {
+            timer.start();
+        }
+        return chain.proceed(chain.request());
+    };
+
+    /**
+     * 开始时间，单位：纳秒。为 null 时，表示还未开始执行
+     */
+    private volatile Long startNanos;
+
+    private void start() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * 获得从开始执行到现在的耗时
+     *
+     * @return 耗时，单位：毫秒。未开始执行时（例如说在排队时被取消），返回 null
+     */
+    public Long getElapsedMillis() {
+        Long startNanos = this.startNanos;
+        return startNanos != null ? (System.nanoTime() - startNanos) / 1_000_000 : null;
+    }
+
+}
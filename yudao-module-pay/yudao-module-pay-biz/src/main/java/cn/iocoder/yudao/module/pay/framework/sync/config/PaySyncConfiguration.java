@@ -0,0 +1,39 @@
+package cn.iocoder.yudao.module.pay.framework.sync.config;
+
+import cn.iocoder.yudao.module.pay.framework.sync.core.PayChannelSyncExecutor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(PaySyncProperties.class)
+public class PaySyncConfiguration {
+
+    public static final String SYNC_THREAD_POOL_TASK_EXECUTOR = "PAY_SYNC_THREAD_POOL_TASK_EXECUTOR";
+
+    @Bean(SYNC_THREAD_POOL_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor paySyncThreadPoolTaskExecutor(PaySyncProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getConcurrency()); // 设置核心线程数
+        executor.setMaxPoolSize(properties.getConcurrency()); // 设置最大线程数
+        executor.setKeepAliveSeconds(60); // 设置空闲时间
+        executor.setAllowCoreThreadTimeOut(true); // 同步 Job 执行间隔较长，空闲时释放线程
+        executor.setQueueCapacity(properties.getPageSize()); // 设置队列大小
+        executor.setThreadNamePrefix("pay-sync-"); // 配置线程池的前缀
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // 进行加载
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public PayChannelSyncExecutor payChannelSyncExecutor(PaySyncProperties properties,
+                                                         @Qualifier(SYNC_THREAD_POOL_TASK_EXECUTOR) ThreadPoolTaskExecutor executor) {
+        return new PayChannelSyncExecutor(executor, properties.getChannelPermitsPerSecond());
+    }
+
+}
@@ -0,0 +1,39 @@
+package cn.iocoder.yudao.module.pay.framework.sync.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * 支付渠道状态同步（对账）的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.pay.sync")
+@Validated
+@Data
+public class PaySyncProperties {
+
+    /**
+     * 每批处理的待同步单据数量
+     */
+    @NotNull(message = "每批处理的数量不能为空")
+    private Integer pageSize = 200;
+
+    /**
+     * 并发查询支付渠道的线程数
+     */
+    @NotNull(message = "并发线程数不能为空")
+    private Integer concurrency = 16;
+
+    /**
+     * 每个支付渠道，每秒最多查询的次数
+     *
+     * 目的：避免触发支付渠道（支付宝、微信支付等）的接口限流
+     */
+    @NotNull(message = "渠道每秒查询次数不能为空")
+    private Double channelPermitsPerSecond = 20D;
+
+}
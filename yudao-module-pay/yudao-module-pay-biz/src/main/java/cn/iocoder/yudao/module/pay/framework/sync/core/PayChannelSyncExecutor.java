@@ -0,0 +1,77 @@
+package cn.iocoder.yudao.module.pay.framework.sync.core;
+
+import cn.hutool.core.util.ObjectUtil;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import com.google.common.util.concurrent.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * 支付渠道的并发查询执行器，用于支付单、退款单等的状态同步（对账）
+ *
+ * 1. 通过 {@link #executor} 并发查询支付渠道，避免逐个串行查询导致同步 Job 超时
+ * 2. 每个支付渠道一个 {@link RateLimiter}，避免触发支付渠道的接口限流
+ *
+ * 只负责查询，不处理查询结果：状态的变更，由调用方在当前线程中统一处理，从而复用事务、多租户等上下文
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class PayChannelSyncExecutor {
+
+    private final Executor executor;
+    private final double channelPermitsPerSecond;
+
+    /**
+     * 支付渠道编号与限流器的映射
+     */
+    private final Map<Long, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    public PayChannelSyncExecutor(Executor executor, double channelPermitsPerSecond) {
+        this.executor = executor;
+        this.channelPermitsPerSecond = channelPermitsPerSecond;
+    }
+
+    /**
+     * 并发查询支付渠道，并等待全部查询完成
+     *
+     * @param items 待查询的单据数组
+     * @param channelIdFunc 获得单据的支付渠道编号
+     * @param queryFunc 查询方法。返回 null 或抛出异常时，对应的结果为 null
+     * @return 查询结果数组，与 items 一一对应
+     */
+    public <T, R> List<R> query(List<T> items, Function<T, Long> channelIdFunc, Function<T, R> queryFunc) {
+        // 1. 提交查询任务。查询渠道时，可能需要加载渠道配置，所以需要传递租户上下文
+        Long tenantId = TenantContextHolder.getTenantId();
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                getRateLimiter(channelIdFunc.apply(item)).acquire();
+                return tenantId != null ? TenantUtils.execute(tenantId, () -> queryFunc.apply(item))
+                        : queryFunc.apply(item);
+            }, executor).exceptionally(ex -> {
+                log.error("[query][单据({}) 查询支付渠道异常]", item, ex);
+                return null;
+            }));
+        }
+
+        // 2. 等待全部完成，按顺序返回结果
+        List<R> results = new ArrayList<>(futures.size());
+        futures.forEach(future -> results.add(future.join()));
+        return results;
+    }
+
+    private RateLimiter getRateLimiter(Long channelId) {
+        return rateLimiters.computeIfAbsent(ObjectUtil.defaultIfNull(channelId, 0L),
+                key -> RateLimiter.create(channelPermitsPerSecond));
+    }
+
+}
@@ -0,0 +1,14 @@
+package cn.iocoder.yudao.module.pay.framework.wallet.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * pay 模块的钱包组件的 Configuration
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(PayWalletProperties.class)
+public class PayWalletConfiguration {
+}
@@ -0,0 +1,46 @@
+package cn.iocoder.yudao.module.pay.framework.wallet.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 钱包的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.pay.wallet")
+@Data
+@Validated
+public class PayWalletProperties {
+
+    /**
+     * 是否开启账本模式
+     *
+     * 开启后，余额的校验与变更在 Redis 中原子执行，只追加钱包流水，不再锁定 pay_wallet 记录；
+     * pay_wallet 记录由 PayWalletBalanceCompactJob 汇总钱包流水后批量同步，适合分佣结算、充值等同一钱包高频变更的场景
+     */
+    @NotNull(message = "是否开启账本模式不能为空")
+    private Boolean ledgerEnable = false;
+
+    /**
+     * 账本模式下，钱包流水创建多久后，才同步到 pay_wallet 记录
+     *
+     * 钱包流水的编号，在插入时分配，但提交的顺序可能不同。同步的水位不会越过进行中的事务，参见 {@link #ledgerTransactionTimeout}；
+     * 该延迟作为额外的余量，覆盖节点之间的时钟偏差、create_time 的精度
+     */
+    @NotNull(message = "钱包流水的同步延迟不能为空")
+    private Duration ledgerCompactDelay = Duration.ofMinutes(1);
+
+    /**
+     * 账本模式下，钱包流水所在事务的最长执行时间
+     *
+     * 同步时，水位不会越过进行中的事务；超过该时间仍未结束的事务（例如说，节点宕机），视为已经结束，不再阻塞同步
+     */
+    @NotNull(message = "钱包流水的事务超时时间不能为空")
+    private Duration ledgerTransactionTimeout = Duration.ofMinutes(10);
+
+}
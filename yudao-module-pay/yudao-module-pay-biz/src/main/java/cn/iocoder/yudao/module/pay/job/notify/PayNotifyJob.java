@@ -12,6 +12,8 @@ import javax.annotation.Resource;
  * 支付通知 Job
  * 通过不断扫描待通知的 PayNotifyTaskDO 记录，回调业务线的回调接口
  *
+ * 通知的重试，已经由 PayNotifyMessage 延迟消息驱动；该 Job 用于兜底延迟消息发送失败、服务重启等情况，执行频率可以适当调低
+ *
  * @author 芋道源码
  */
 @Component
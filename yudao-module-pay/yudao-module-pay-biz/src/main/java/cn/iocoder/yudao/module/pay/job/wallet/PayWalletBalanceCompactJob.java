@@ -0,0 +1,31 @@
+package cn.iocoder.yudao.module.pay.job.wallet;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.quartz.core.handler.JobHandler;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.pay.service.wallet.PayWalletService;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 钱包余额同步 Job，将账本模式下尚未同步的钱包流水，按照钱包汇总后批量同步到 DB 中
+ *
+ * 由于 Redis 中的待同步钱包，不区分租户，所以忽略租户执行。建议配置为每 10 秒执行一次
+ * 关闭账本模式后，也建议保留该 Job，将不再变更的钱包同步完成
+ *
+ * @author 芋道源码
+ */
+@Component
+public class PayWalletBalanceCompactJob implements JobHandler {
+
+    @Resource
+    private PayWalletService walletService;
+
+    @Override
+    public String execute(String param) {
+        int count = TenantUtils.executeIgnore(() -> walletService.compactWalletBalance());
+        return StrUtil.format("同步钱包余额 {} 个", count);
+    }
+
+}
@@ -0,0 +1,31 @@
+package cn.iocoder.yudao.module.pay.mq.consumer.notify;
+
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import cn.iocoder.yudao.module.pay.mq.message.notify.PayNotifyMessage;
+import cn.iocoder.yudao.module.pay.service.notify.PayNotifyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link PayNotifyMessage} 的消费者
+ *
+ * 消息至少投递一次，所以处理逻辑需要幂等：通知次数已变化时，直接忽略
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class PayNotifyConsumer extends AbstractRedisStreamMessageListener<PayNotifyMessage> {
+
+    @Resource
+    private PayNotifyService payNotifyService;
+
+    @Override
+    public void onMessage(PayNotifyMessage message) {
+        log.info("[onMessage][消息内容({})]", message);
+        payNotifyService.executeNotify(message.getTaskId(), message.getNotifyTimes());
+    }
+
+}
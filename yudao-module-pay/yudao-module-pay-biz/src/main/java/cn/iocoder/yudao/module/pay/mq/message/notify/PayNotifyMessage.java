@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.pay.mq.message.notify;
+
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 支付通知重试的延迟消息，在通知任务的 nextNotifyTime 到达后，再次发起通知
+ *
+ * @author 芋道源码
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class PayNotifyMessage extends AbstractRedisStreamMessage {
+
+    /**
+     * 通知任务编号
+     */
+    private Long taskId;
+    /**
+     * 发送消息时，通知任务的已通知次数
+     *
+     * 消费时，如果与数据库中的不一致，说明已经被 Job 等其它途径通知过，直接忽略
+     */
+    private Integer notifyTimes;
+
+}
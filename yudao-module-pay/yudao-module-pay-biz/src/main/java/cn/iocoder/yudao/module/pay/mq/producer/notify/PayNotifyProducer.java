@@ -0,0 +1,42 @@
+package cn.iocoder.yudao.module.pay.mq.producer.notify;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.pay.mq.message.notify.PayNotifyMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+
+/**
+ * 支付通知相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class PayNotifyProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link PayNotifyMessage} 延迟消息，在下次通知时间到达后重试通知
+     *
+     * 发送失败时，只打印日志，不影响主流程：由 PayNotifyJob 兜底处理
+     *
+     * @param taskId 通知任务编号
+     * @param notifyTimes 已通知次数
+     * @param nextNotifyTime 下次通知时间
+     */
+    public void sendNotifyMessage(Long taskId, Integer notifyTimes, LocalDateTime nextNotifyTime) {
+        PayNotifyMessage message = new PayNotifyMessage().setTaskId(taskId).setNotifyTimes(notifyTimes);
+        try {
+            redisMQTemplate.sendDelay(message, nextNotifyTime);
+        } catch (Exception ex) {
+            log.error("[sendNotifyMessage][task({}) notifyTimes({}) 发送延迟消息失败，由 Job 兜底处理]",
+                    taskId, notifyTimes, ex);
+        }
+    }
+
+}
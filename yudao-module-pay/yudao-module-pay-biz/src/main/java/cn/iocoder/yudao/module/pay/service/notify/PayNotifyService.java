@@ -26,9 +26,21 @@ public interface PayNotifyService {
      * 执行回调通知
      *
      * 注意，该方法提供给定时任务调用。目前是 yudao-server 进行调用
-     * @return 通知数量
+     * 通知是异步发起的，方法返回时，通知不一定已经完成
+     *
+     * @return 发起的通知数量
+     */
+    int executeNotify();
+
+    /**
+     * 执行指定任务的回调通知，提供给重试的延迟消息调用
+     *
+     * 如果任务已结束，或者已通知次数与 notifyTimes 不一致，说明已经被其它途径通知过，直接忽略
+     *
+     * @param id 通知任务编号
+     * @param notifyTimes 已通知次数
      */
-    int executeNotify() throws InterruptedException;
+    void executeNotify(Long id, Integer notifyTimes);
 
     /**
      * 获得回调通知
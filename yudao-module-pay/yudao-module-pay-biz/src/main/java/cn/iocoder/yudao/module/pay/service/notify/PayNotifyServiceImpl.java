@@ -2,14 +2,14 @@ package cn.iocoder.yudao.module.pay.service.notify;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.exceptions.ExceptionUtil;
+import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.extra.spring.SpringUtil;
-import cn.hutool.http.HttpResponse;
-import cn.hutool.http.HttpUtil;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.date.DateUtils;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.common.util.object.ObjectUtils;
 import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.pay.api.notify.dto.PayOrderNotifyReqDTO;
 import cn.iocoder.yudao.module.pay.api.notify.dto.PayRefundNotifyReqDTO;
@@ -25,13 +25,29 @@ import cn.iocoder.yudao.module.pay.dal.mysql.notify.PayNotifyTaskMapper;
 import cn.iocoder.yudao.module.pay.dal.redis.notify.PayNotifyLockRedisDAO;
 import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyStatusEnum;
 import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyTypeEnum;
+import cn.iocoder.yudao.module.pay.framework.notify.config.PayNotifyProperties;
+import cn.iocoder.yudao.module.pay.framework.notify.core.PayNotifyCallTimer;
+import cn.iocoder.yudao.module.pay.mq.producer.notify.PayNotifyProducer;
 import cn.iocoder.yudao.module.pay.service.order.PayOrderService;
 import cn.iocoder.yudao.module.pay.service.refund.PayRefundService;
 import cn.iocoder.yudao.module.pay.service.transfer.PayTransferService;
 import com.google.common.annotations.VisibleForTesting;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
@@ -39,17 +55,18 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 
 import javax.annotation.Resource;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.CountDownLatch;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.addTime;
-import static cn.iocoder.yudao.module.pay.framework.job.config.PayJobConfiguration.NOTIFY_THREAD_POOL_TASK_EXECUTOR;
+import static cn.iocoder.yudao.module.pay.framework.notify.config.PayNotifyConfiguration.NOTIFY_HTTP_CLIENT;
 
 /**
  * 支付通知 Core Service 实现类
@@ -62,13 +79,19 @@ import static cn.iocoder.yudao.module.pay.framework.job.config.PayJobConfigurati
 public class PayNotifyServiceImpl implements PayNotifyService {
 
     /**
-     * 通知超时时间，单位：秒
+     * 分布式锁的过期时间，在通知最大超时时间之上，额外预留的写入结果的时间，单位：毫秒
      */
-    public static final int NOTIFY_TIMEOUT = 120;
+    private static final long LOCK_TIMEOUT_MARGIN_MILLIS = 30 * DateUtils.SECOND_MILLIS;
     /**
-     * {@link #NOTIFY_TIMEOUT} 的毫秒
+     * 分布式锁的续期间隔，单位：毫秒。需要明显小于锁的过期时间
      */
-    public static final long NOTIFY_TIMEOUT_MILLIS = 120 * DateUtils.SECOND_MILLIS;
+    private static final long LOCK_RENEW_INTERVAL_MILLIS = 10 * DateUtils.SECOND_MILLIS;
+    /**
+     * 通知超时时间，相对于回调域名平均响应耗时的倍数
+     */
+    private static final long TIMEOUT_LATENCY_MULTIPLE = 4;
+
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.get("application/json; charset=utf-8");
 
     @Resource
     @Lazy // 循环依赖，避免报错
@@ -85,12 +108,37 @@ public class PayNotifyServiceImpl implements PayNotifyService {
     @Resource
     private PayNotifyLogMapper notifyLogMapper;
 
-    @Resource(name = NOTIFY_THREAD_POOL_TASK_EXECUTOR)
-    private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+    @Resource(name = NOTIFY_HTTP_CLIENT)
+    private OkHttpClient notifyHttpClient;
+    @Resource
+    private PayNotifyProperties notifyProperties;
 
     @Resource
     private PayNotifyLockRedisDAO notifyLockCoreRedisDAO;
 
+    @Resource
+    private PayNotifyProducer notifyProducer;
+
+    /**
+     * 回调域名的平均响应耗时，单位：毫秒。用于计算自适应的通知超时时间
+     */
+    private final Map<String, Long> hostLatencies = new ConcurrentHashMap<>();
+
+    /**
+     * 待写入数据库的通知结果
+     *
+     * 目的：通知在 HTTP 回调线程中完成，不适合逐个开启事务写入，所以先放入队列，再定时批量写入
+     */
+    private final Queue<NotifyResult> notifyResults = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 当前节点正在通知中的任务，key 为通知任务编号，value 为分布式锁的持有者标识
+     *
+     * 1. 从发起通知，到通知结果写入数据库，期间任务可能在 Dispatcher 中排队，此时 PayNotifyJob、延迟消息会再次触发通知，需要忽略
+     * 2. 由 {@link #renewNotifyLocks()} 对这些任务的分布式锁续期，避免排队时间过长导致锁过期，被其它节点重复通知
+     */
+    private final Map<Long, String> notifyingTasks = new ConcurrentHashMap<>();
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void createPayNotifyTask(Integer type, Long dataId) {
@@ -125,97 +173,125 @@ public class PayNotifyServiceImpl implements PayNotifyService {
     }
 
     @Override
-    public int executeNotify() throws InterruptedException {
+    public int executeNotify() {
         // 获得需要通知的任务
         List<PayNotifyTaskDO> tasks = notifyTaskMapper.selectListByNotify();
         if (CollUtil.isEmpty(tasks)) {
             return 0;
         }
 
-        // 遍历，逐个通知
-        CountDownLatch latch = new CountDownLatch(tasks.size());
-        tasks.forEach(task -> threadPoolTaskExecutor.execute(() -> {
-            try {
-                executeNotify(task);
-            } finally {
-                latch.countDown();
-            }
-        }));
-        // 等待完成
-        awaitExecuteNotify(latch);
-        // 返回执行完成的任务数（成功 + 失败)
+        // 遍历，逐个发起通知。通知是异步的，由 notifyHttpClient 控制并发，无需等待完成
+        tasks.forEach(this::executeNotify);
+        // 返回发起通知的任务数
         return tasks.size();
     }
 
-    /**
-     * 等待全部支付通知的完成
-     * 每 1 秒会打印一次剩余任务数量
-     *
-     * @param latch Latch
-     * @throws InterruptedException 如果被打断
-     */
-    private void awaitExecuteNotify(CountDownLatch latch) throws InterruptedException {
-        long size = latch.getCount();
-        for (int i = 0; i < NOTIFY_TIMEOUT; i++) {
-            if (latch.await(1L, TimeUnit.SECONDS)) {
-                return;
-            }
-            log.info("[awaitExecuteNotify][任务处理中， 总任务数({}) 剩余任务数({})]", size, latch.getCount());
+    @Override
+    public void executeNotify(Long id, Integer notifyTimes) {
+        PayNotifyTaskDO task = notifyTaskMapper.selectById(id);
+        if (task == null || isNotifyFinished(task) || ObjectUtil.notEqual(task.getNotifyTimes(), notifyTimes)) {
+            log.info("[executeNotify][task({}) notifyTimes({}) 任务已结束或已被通知，忽略]", id, notifyTimes);
+            return;
         }
-        log.error("[awaitExecuteNotify][任务未处理完，总任务数({}) 剩余任务数({})]", size, latch.getCount());
+        executeNotify(task);
     }
 
     /**
-     * 同步执行单个支付通知
+     * 异步执行单个支付通知
+     *
+     * 加锁后发起 HTTP 调用，锁在通知结果写入数据库后，由 {@link #flushNotifyResults()} 释放；期间由 {@link #renewNotifyLocks()} 续期
      *
      * @param task 通知任务
      */
     public void executeNotify(PayNotifyTaskDO task) {
-        // 分布式锁，避免并发问题
-        notifyLockCoreRedisDAO.lock(task.getId(), NOTIFY_TIMEOUT_MILLIS, () -> {
+        // 当前节点已经在通知中（例如说，还在 Dispatcher 中排队），直接忽略
+        String lockValue = IdUtil.fastSimpleUUID();
+        if (notifyingTasks.putIfAbsent(task.getId(), lockValue) != null) {
+            log.info("[executeNotify][task({}) 任务正在当前节点通知中，忽略]", task.getId());
+            return;
+        }
+        // 分布式锁，避免并发问题。锁由 renewNotifyLocks 续期，直到通知结果写入数据库
+        if (!notifyLockCoreRedisDAO.tryLock(task.getId(), lockValue, getLockTimeoutMillis())) {
+            notifyingTasks.remove(task.getId(), lockValue);
+            log.info("[executeNotify][task({}) 任务正在通知中，忽略]", task.getId());
+            return;
+        }
+        boolean invoked = false;
+        try {
             // 校验，当前任务是否已经被通知过
             // 虽然已经通过分布式加锁，但是可能同时满足通知的条件，然后都去获得锁。此时，第一个执行完后，第二个还是能拿到锁，然后会再执行一次。
             // 因此，此处我们通过第 notifyTimes 通知次数是否匹配来判断
             PayNotifyTaskDO dbTask = notifyTaskMapper.selectById(task.getId());
-            if (ObjectUtil.notEqual(task.getNotifyTimes(), dbTask.getNotifyTimes())) {
-                log.warn("[executeNotifySync][task({}) 任务被忽略，原因是它的通知不是第 ({}) 次，可能是因为并发执行了]",
-                        JsonUtils.toJsonString(task), dbTask.getNotifyTimes());
+            if (dbTask == null || ObjectUtil.notEqual(task.getNotifyTimes(), dbTask.getNotifyTimes())) {
+                log.warn("[executeNotify][task({}) 任务被忽略，原因是它的通知不是第 ({}) 次，可能是因为并发执行了]",
+                        JsonUtils.toJsonString(task), dbTask != null ? dbTask.getNotifyTimes() : null);
                 return;
             }
 
             // 执行通知
-            getSelf().executeNotify0(dbTask);
-        });
+            executeNotifyInvoke(dbTask, lockValue);
+            invoked = true;
+        } finally {
+            if (!invoked) {
+                releaseNotifyLock(task.getId(), lockValue);
+            }
+        }
     }
 
-    @Transactional(rollbackFor = Exception.class)
-    public void executeNotify0(PayNotifyTaskDO task) {
-        // 发起回调
-        CommonResult<?> invokeResult = null;
-        Throwable invokeException = null;
+    /**
+     * 异步发起单个支付任务的 HTTP 调用，结果通过 {@link #addNotifyResult(PayNotifyTaskDO, String, CommonResult, Throwable)} 记录
+     *
+     * @param task 通知任务
+     * @param lockValue 分布式锁的持有者标识
+     */
+    private void executeNotifyInvoke(PayNotifyTaskDO task, String lockValue) {
+        // 构建请求
+        Request request;
         try {
-            invokeResult = executeNotifyInvoke(task);
-        } catch (Throwable e) {
-            invokeException = e;
+            request = buildNotifyRequest(task);
+        } catch (Throwable ex) {
+            addNotifyResult(task, lockValue, null, ex);
+            return;
         }
 
-        // 处理结果
-        Integer newStatus = processNotifyResult(task, invokeResult, invokeException);
+        // 发起请求：超时时间根据回调域名的响应耗时自适应，避免慢接口长时间占用并发数
+        // 耗时从 Dispatcher 真正执行调用时开始计算，不包含排队时间，与 call.timeout() 保持一致
+        String host = request.url().host();
+        PayNotifyCallTimer timer = new PayNotifyCallTimer();
+        Call call = notifyHttpClient.newCall(request.newBuilder().tag(PayNotifyCallTimer.class, timer).build());
+        call.timeout().timeout(getNotifyTimeoutMillis(host), TimeUnit.MILLISECONDS);
+        call.enqueue(new Callback() {
 
-        // 记录 PayNotifyLog 日志
-        String response = invokeException != null ? ExceptionUtil.getRootCauseMessage(invokeException) :
-                JsonUtils.toJsonString(invokeResult);
-        notifyLogMapper.insert(PayNotifyLogDO.builder().taskId(task.getId())
-                .notifyTimes(task.getNotifyTimes() + 1).status(newStatus).response(response).build());
+            @Override
+            public void onResponse(Call call, Response response) {
+                CommonResult<?> invokeResult = null;
+                Throwable invokeException = null;
+                try (ResponseBody body = response.body()) {
+                    // 解析结果
+                    invokeResult = JsonUtils.parseObject(body.string(), CommonResult.class);
+                } catch (Throwable ex) {
+                    invokeException = ex;
+                }
+                updateHostLatency(host, timer.getElapsedMillis());
+                addNotifyResult(task, lockValue, invokeResult, invokeException);
+            }
+
+            @Override
+            public void onFailure(Call call, IOException ex) {
+                updateHostLatency(host, timer.getElapsedMillis());
+                addNotifyResult(task, lockValue, null, ex);
+            }
+
+        });
     }
 
     /**
-     * 执行单个支付任务的 HTTP 调用
+     * 构建单个支付任务的 HTTP 请求
      *
      * @param task 通知任务
-     * @return HTTP 响应
+     * @return HTTP 请求
      */
-    private CommonResult<?> executeNotifyInvoke(PayNotifyTaskDO task) {
+    private Request buildNotifyRequest(PayNotifyTaskDO task) {
         // 拼接 body 参数
         Object request;
         if (Objects.equals(task.getType(), PayNotifyTypeEnum.ORDER.getType())) {
@@ -234,25 +310,70 @@ public class PayNotifyServiceImpl implements PayNotifyService {
         Map<String, String> headers = new HashMap<>();
         TenantUtils.addTenantHeader(headers, task.getTenantId());
 
-        // 发起请求
-        try (HttpResponse response = HttpUtil.createPost(task.getNotifyUrl())
-                .body(JsonUtils.toJsonString(request)).addHeaders(headers)
-                .timeout((int) NOTIFY_TIMEOUT_MILLIS).execute()) {
-            // 解析结果
-            return JsonUtils.parseObject(response.body(), CommonResult.class);
+        return new Request.Builder().url(task.getNotifyUrl()).headers(Headers.of(headers))
+                .post(RequestBody.create(JsonUtils.toJsonString(request), JSON_MEDIA_TYPE)).build();
+    }
+
+    /**
+     * 获得回调域名的通知超时时间：响应耗时的 {@link #TIMEOUT_LATENCY_MULTIPLE} 倍，并限制在 [minTimeout, maxTimeout] 之间
+     *
+     * 没有历史耗时的域名，使用 maxTimeout
+     *
+     * @param host 回调域名
+     * @return 超时时间，单位：毫秒
+     */
+    private long getNotifyTimeoutMillis(String host) {
+        long maxTimeout = notifyProperties.getMaxTimeout().toMillis();
+        Long latency = hostLatencies.get(host);
+        if (latency == null) {
+            return maxTimeout;
         }
+        return Math.max(notifyProperties.getMinTimeout().toMillis(), Math.min(maxTimeout, latency * TIMEOUT_LATENCY_MULTIPLE));
     }
 
     /**
-     * 处理并更新通知结果
+     * 更新回调域名的响应耗时，使用指数加权移动平均，新耗时的权重为 1/4
+     *
+     * 超时的请求，耗时即为超时时间，从而让持续变慢的域名，超时时间逐步放宽到 maxTimeout
+     *
+     * @param host 回调域名
+     * @param latency 本次耗时，单位：毫秒。为 null 时，说明调用未真正执行（例如说在排队时被取消），不更新
+     */
+    private void updateHostLatency(String host, Long latency) {
+        if (latency == null) {
+            return;
+        }
+        hostLatencies.merge(host, latency, (oldValue, newValue) -> (oldValue * 3 + newValue) / 4);
+    }
+
+    /**
+     * 记录通知结果，等待 {@link #flushNotifyResults()} 批量写入数据库
      *
      * @param task 通知任务
+     * @param lockValue 分布式锁的持有者标识
      * @param invokeResult 通知结果
      * @param invokeException 通知异常
-     * @return 最终任务的状态
+     */
+    private void addNotifyResult(PayNotifyTaskDO task, String lockValue,
+                                 CommonResult<?> invokeResult, Throwable invokeException) {
+        PayNotifyTaskDO updateTask = processNotifyResult(task, invokeResult, invokeException);
+        String response = invokeException != null ? ExceptionUtil.getRootCauseMessage(invokeException) :
+                JsonUtils.toJsonString(invokeResult);
+        PayNotifyLogDO notifyLog = PayNotifyLogDO.builder().taskId(task.getId())
+                .notifyTimes(updateTask.getNotifyTimes()).status(updateTask.getStatus()).response(response).build();
+        notifyResults.add(new NotifyResult(task.getTenantId(), lockValue, updateTask, notifyLog));
+    }
+
+    /**
+     * 处理通知结果，计算需要更新的 PayNotifyTaskDO 字段
+     *
+     * @param task 通知任务
+     * @param invokeResult 通知结果
+     * @param invokeException 通知异常
+     * @return 需要更新的通知任务
      */
     @VisibleForTesting
-    Integer processNotifyResult(PayNotifyTaskDO task, CommonResult<?> invokeResult, Throwable invokeException) {
+    PayNotifyTaskDO processNotifyResult(PayNotifyTaskDO task, CommonResult<?> invokeResult, Throwable invokeException) {
         // 设置通用的更新 PayNotifyTaskDO 的字段
         PayNotifyTaskDO updateTask = new PayNotifyTaskDO()
                 .setId(task.getId())
@@ -261,24 +382,133 @@ public class PayNotifyServiceImpl implements PayNotifyService {
 
         // 情况一：调用成功
         if (invokeResult != null && invokeResult.isSuccess()) {
-            updateTask.setStatus(PayNotifyStatusEnum.SUCCESS.getStatus());
-            notifyTaskMapper.updateById(updateTask);
-            return updateTask.getStatus();
+            return updateTask.setStatus(PayNotifyStatusEnum.SUCCESS.getStatus());
         }
 
         // 情况二：调用失败、调用异常
         // 2.1 超过最大回调次数
         if (updateTask.getNotifyTimes() >= PayNotifyTaskDO.NOTIFY_FREQUENCY.length) {
-            updateTask.setStatus(PayNotifyStatusEnum.FAILURE.getStatus());
-            notifyTaskMapper.updateById(updateTask);
-            return updateTask.getStatus();
+            return updateTask.setStatus(PayNotifyStatusEnum.FAILURE.getStatus());
         }
         // 2.2 未超过最大回调次数
         updateTask.setNextNotifyTime(addTime(Duration.ofSeconds(PayNotifyTaskDO.NOTIFY_FREQUENCY[updateTask.getNotifyTimes()])));
-        updateTask.setStatus(invokeException != null ? PayNotifyStatusEnum.REQUEST_FAILURE.getStatus()
+        return updateTask.setStatus(invokeException != null ? PayNotifyStatusEnum.REQUEST_FAILURE.getStatus()
                 : PayNotifyStatusEnum.REQUEST_SUCCESS.getStatus());
-        notifyTaskMapper.updateById(updateTask);
-        return updateTask.getStatus();
+    }
+
+    /**
+     * 批量写入通知结果，并释放对应的分布式锁
+     *
+     * 写入成功后，对需要重试的任务，发送在 nextNotifyTime 到达的延迟消息；
+     * 写入失败时，任务的 notifyTimes 不变，由 PayNotifyJob 兜底重新通知
+     */
+    @Scheduled(initialDelay = 1, fixedDelay = 1, timeUnit = TimeUnit.SECONDS)
+    @EventListener(ContextClosedEvent.class) // 关闭时，写入剩余的结果
+    public void flushNotifyResults() {
+        // 取出当前的全部结果，按租户分组
+        Map<Long, List<NotifyResult>> resultMap = new HashMap<>();
+        for (NotifyResult result = notifyResults.poll(); result != null; result = notifyResults.poll()) {
+            resultMap.computeIfAbsent(ObjectUtil.defaultIfNull(result.getTenantId(), TenantUtils.TENANT_ID_NONE),
+                    key -> new ArrayList<>()).add(result);
+        }
+        // 分批写入
+        resultMap.forEach((tenantKey, results) -> TenantUtils.executeByTenantKey(tenantKey,
+                () -> CollUtil.split(results, notifyProperties.getFlushBatchSize()).forEach(this::flushNotifyResults)));
+    }
+
+    private void flushNotifyResults(List<NotifyResult> results) {
+        try {
+            Set<Long> updatedTaskIds = getSelf().updateNotifyResults(convertList(results, NotifyResult::getUpdateTask),
+                    convertList(results, NotifyResult::getNotifyLog));
+            // 需要重试的任务，发送延迟消息
+            results.forEach(result -> {
+                PayNotifyTaskDO updateTask = result.getUpdateTask();
+                if (!updatedTaskIds.contains(updateTask.getId())) {
+                    log.warn("[flushNotifyResults][task({}) 通知次数已被其它通知更新，忽略过期的第 ({}) 次通知结果]",
+                            updateTask.getId(), updateTask.getNotifyTimes());
+                    return;
+                }
+                if (updateTask.getNextNotifyTime() != null) {
+                    notifyProducer.sendNotifyMessage(updateTask.getId(), updateTask.getNotifyTimes(),
+                            updateTask.getNextNotifyTime());
+                }
+            });
+        } catch (Exception ex) {
+            log.error("[flushNotifyResults][写入 {} 条通知结果失败，由 PayNotifyJob 兜底处理]", results.size(), ex);
+        } finally {
+            results.forEach(result -> releaseNotifyLock(result.getUpdateTask().getId(), result.getLockValue()));
+        }
+    }
+
+    /**
+     * 批量更新通知任务，并记录 PayNotifyLog 日志
+     *
+     * 更新时，要求通知次数未变化：锁过期后，任务可能已被其它节点通知并写入，此时丢弃过期的结果
+     *
+     * @param updateTasks 需要更新的通知任务
+     * @param notifyLogs 通知日志
+     * @return 更新成功的通知任务编号
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public Set<Long> updateNotifyResults(List<PayNotifyTaskDO> updateTasks, List<PayNotifyLogDO> notifyLogs) {
+        Set<Long> updatedTaskIds = new HashSet<>();
+        updateTasks.forEach(updateTask -> {
+            // processNotifyResult 时，notifyTimes 已经 + 1，所以使用 - 1 的值作为条件
+            if (notifyTaskMapper.updateByIdAndNotifyTimes(updateTask.getId(), updateTask.getNotifyTimes() - 1, updateTask) > 0) {
+                updatedTaskIds.add(updateTask.getId());
+            }
+        });
+        List<PayNotifyLogDO> updatedNotifyLogs = filterList(notifyLogs, notifyLog -> updatedTaskIds.contains(notifyLog.getTaskId()));
+        if (CollUtil.isNotEmpty(updatedNotifyLogs)) {
+            notifyLogMapper.insertBatch(updatedNotifyLogs);
+        }
+        return updatedTaskIds;
+    }
+
+    /**
+     * 对当前节点正在通知中的任务，续期分布式锁，直到通知结果写入数据库
+     */
+    @Scheduled(initialDelay = LOCK_RENEW_INTERVAL_MILLIS, fixedDelay = LOCK_RENEW_INTERVAL_MILLIS)
+    public void renewNotifyLocks() {
+        long lockTimeoutMillis = getLockTimeoutMillis();
+        notifyingTasks.forEach((id, lockValue) -> {
+            try {
+                if (!notifyLockCoreRedisDAO.renew(id, lockValue, lockTimeoutMillis)) {
+                    log.warn("[renewNotifyLocks][task({}) 锁已过期，通知结果写入时，若已被其它节点通知，将被忽略]", id);
+                }
+            } catch (Exception ex) { // 续期失败时，下次继续续期
+                log.error("[renewNotifyLocks][task({}) 续期锁失败]", id, ex);
+            }
+        });
+    }
+
+    /**
+     * 获得分布式锁的过期时间：需要覆盖「续期间隔 + 写入」的耗时，并不小于通知的最大超时时间
+     *
+     * @return 过期时间，单位：毫秒
+     */
+    private long getLockTimeoutMillis() {
+        return notifyProperties.getMaxTimeout().toMillis() + LOCK_TIMEOUT_MARGIN_MILLIS;
+    }
+
+    /**
+     * 释放通知任务的分布式锁，并移除当前节点的通知中标记
+     *
+     * @param id 通知任务编号
+     * @param lockValue 分布式锁的持有者标识
+     */
+    private void releaseNotifyLock(Long id, String lockValue) {
+        notifyingTasks.remove(id, lockValue);
+        try {
+            notifyLockCoreRedisDAO.unlock(id, lockValue);
+        } catch (Exception ex) { // 释放失败时，锁到期后自动释放
+            log.error("[releaseNotifyLock][task({}) 释放锁失败]", id, ex);
+        }
+    }
+
+    private static boolean isNotifyFinished(PayNotifyTaskDO task) {
+        return ObjectUtils.equalsAny(task.getStatus(), PayNotifyStatusEnum.SUCCESS.getStatus(),
+                PayNotifyStatusEnum.FAILURE.getStatus());
     }
 
     @Override
@@ -296,6 +526,32 @@ public class PayNotifyServiceImpl implements PayNotifyService {
         return notifyLogMapper.selectListByTaskId(taskId);
     }
 
+    /**
+     * 通知结果，等待批量写入数据库
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class NotifyResult {
+
+        /**
+         * 租户编号
+         */
+        private final Long tenantId;
+        /**
+         * 分布式锁的持有者标识
+         */
+        private final String lockValue;
+        /**
+         * 需要更新的通知任务
+         */
+        private final PayNotifyTaskDO updateTask;
+        /**
+         * 通知日志
+         */
+        private final PayNotifyLogDO notifyLog;
+
+    }
+
     /**
      * 获得自身的代理对象，解决 AOP 生效问题
      *
@@ -28,6 +28,8 @@ import cn.iocoder.yudao.module.pay.dal.redis.no.PayNoRedisDAO;
 import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyTypeEnum;
 import cn.iocoder.yudao.module.pay.enums.order.PayOrderStatusEnum;
 import cn.iocoder.yudao.module.pay.framework.pay.config.PayProperties;
+import cn.iocoder.yudao.module.pay.framework.sync.config.PaySyncProperties;
+import cn.iocoder.yudao.module.pay.framework.sync.core.PayChannelSyncExecutor;
 import cn.iocoder.yudao.module.pay.service.app.PayAppService;
 import cn.iocoder.yudao.module.pay.service.channel.PayChannelService;
 import cn.iocoder.yudao.module.pay.service.notify.PayNotifyService;
@@ -39,12 +41,10 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
 import static cn.iocoder.yudao.framework.common.util.json.JsonUtils.toJsonString;
 import static cn.iocoder.yudao.module.pay.enums.ErrorCodeConstants.*;
 
@@ -60,6 +60,8 @@ public class PayOrderServiceImpl implements PayOrderService {
 
     @Resource
     private PayProperties payProperties;
+    @Resource
+    private PaySyncProperties syncProperties;
 
     @Resource
     private PayOrderMapper orderMapper;
@@ -75,6 +77,9 @@ public class PayOrderServiceImpl implements PayOrderService {
     @Resource
     private PayNotifyService notifyService;
 
+    @Resource
+    private PayChannelSyncExecutor channelSyncExecutor;
+
     @Override
     public PayOrderDO getOrder(Long id) {
         return orderMapper.selectById(id);
@@ -448,16 +453,40 @@ public class PayOrderServiceImpl implements PayOrderService {
 
     @Override
     public int syncOrder(LocalDateTime minCreateTime) {
-        // 1. 查询指定创建时间前的待支付订单
-        List<PayOrderExtensionDO> orderExtensions = orderExtensionMapper.selectListByStatusAndCreateTimeLe(
-                PayOrderStatusEnum.WAITING.getStatus(), minCreateTime);
-        if (CollUtil.isEmpty(orderExtensions)) {
-            return 0;
+        int count = 0;
+        Long lastId = 0L;
+        Integer pageSize = syncProperties.getPageSize();
+        while (true) {
+            // 1. 分批查询指定创建时间后的待支付订单
+            List<PayOrderExtensionDO> orderExtensions = orderExtensionMapper.selectListByStatusAndCreateTimeGe(
+                    PayOrderStatusEnum.WAITING.getStatus(), minCreateTime, lastId, pageSize);
+            if (CollUtil.isEmpty(orderExtensions)) {
+                break;
+            }
+            // 2. 批量执行
+            count += syncOrder(orderExtensions);
+            if (orderExtensions.size() < pageSize) {
+                break;
+            }
+            lastId = CollUtil.getLast(orderExtensions).getId();
         }
-        // 2. 遍历执行
+        return count;
+    }
+
+    /**
+     * 同步一批支付拓展单
+     *
+     * @param orderExtensions 支付拓展单数组
+     * @return 已支付的数量
+     */
+    private int syncOrder(List<PayOrderExtensionDO> orderExtensions) {
+        // 1. 并发查询支付订单信息
+        List<PayOrderRespDTO> respDTOs = channelSyncExecutor.query(orderExtensions,
+                PayOrderExtensionDO::getChannelId, this::getChannelOrder);
+        // 2. 逐个回调支付结果
         int count = 0;
-        for (PayOrderExtensionDO orderExtension : orderExtensions) {
-            count += syncOrder(orderExtension) ? 1 : 0;
+        for (int i = 0; i < orderExtensions.size(); i++) {
+            count += syncOrder(orderExtensions.get(i), respDTOs.get(i)) ? 1 : 0;
         }
         return count;
     }
@@ -466,18 +495,15 @@ public class PayOrderServiceImpl implements PayOrderService {
      * 同步单个支付拓展单
      *
      * @param orderExtension 支付拓展单
+     * @param respDTO 支付渠道的支付订单信息，为 null 时说明查询失败
      * @return 是否已支付
      */
-    private boolean syncOrder(PayOrderExtensionDO orderExtension) {
+    private boolean syncOrder(PayOrderExtensionDO orderExtension, PayOrderRespDTO respDTO) {
+        if (respDTO == null) {
+            return false;
+        }
         try {
-            // 1.1 查询支付订单信息
-            PayClient payClient = channelService.getPayClient(orderExtension.getChannelId());
-            if (payClient == null) {
-                log.error("[syncOrder][渠道编号({}) 找不到对应的支付客户端]", orderExtension.getChannelId());
-                return false;
-            }
-            PayOrderRespDTO respDTO = payClient.getOrder(orderExtension.getNo());
-            // 1.2 回调支付结果
+            // 1. 回调支付结果
             notifyOrder(orderExtension.getChannelId(), respDTO);
 
             // 2. 如果是已支付，则返回 true
@@ -488,50 +514,118 @@ public class PayOrderServiceImpl implements PayOrderService {
         }
     }
 
+    /**
+     * 查询支付渠道的支付订单信息，由 {@link PayChannelSyncExecutor} 并发调用
+     *
+     * @param orderExtension 支付拓展单
+     * @return 支付订单信息。支付客户端不存在时，返回 null
+     */
+    private PayOrderRespDTO getChannelOrder(PayOrderExtensionDO orderExtension) {
+        PayClient payClient = channelService.getPayClient(orderExtension.getChannelId());
+        if (payClient == null) {
+            log.error("[getChannelOrder][渠道编号({}) 找不到对应的支付客户端]", orderExtension.getChannelId());
+            return null;
+        }
+        return payClient.getOrder(orderExtension.getNo());
+    }
+
     @Override
     public int expireOrder() {
-        // 1. 查询过期的待支付订单
-        List<PayOrderDO> orders = orderMapper.selectListByStatusAndExpireTimeLt(
-                PayOrderStatusEnum.WAITING.getStatus(), LocalDateTime.now());
-        if (CollUtil.isEmpty(orders)) {
-            return 0;
+        int count = 0;
+        Long lastId = 0L;
+        Integer pageSize = syncProperties.getPageSize();
+        LocalDateTime now = LocalDateTime.now();
+        while (true) {
+            // 1. 分批查询过期的待支付订单
+            List<PayOrderDO> orders = orderMapper.selectListByStatusAndExpireTimeLt(
+                    PayOrderStatusEnum.WAITING.getStatus(), now, lastId, pageSize);
+            if (CollUtil.isEmpty(orders)) {
+                break;
+            }
+            // 2. 批量执行
+            count += expireOrder(orders);
+            if (orders.size() < pageSize) {
+                break;
+            }
+            lastId = CollUtil.getLast(orders).getId();
         }
+        return count;
+    }
 
-        // 2. 遍历执行
-        int count = 0;
-        for (PayOrderDO order : orders) {
-            count += expireOrder(order) ? 1 : 0;
+    /**
+     * 过期一批支付单
+     *
+     * @param orders 支付单数组
+     * @return 过期的数量
+     */
+    private int expireOrder(List<PayOrderDO> orders) {
+        // 1.1 批量查询关联的支付拓展单
+        Map<Long, List<PayOrderExtensionDO>> orderExtensionMap = convertMultiMap(
+                orderExtensionMapper.selectListByOrderId(convertSet(orders, PayOrderDO::getId)),
+                PayOrderExtensionDO::getOrderId);
+        // 1.2 需要先处理关联的支付拓展单，避免错误的过期已支付 or 已退款的订单
+        // 情况一：校验数据库中的 orderExtension 是不是已支付
+        List<PayOrderDO> checkedOrders = filterList(orders, order -> {
+            PayOrderExtensionDO successExtension = findFirst(orderExtensionMap.get(order.getId()),
+                    orderExtension -> PayOrderStatusEnum.isSuccess(orderExtension.getStatus()));
+            if (successExtension != null) {
+                log.error("[expireOrder][order({}) 的 extension({}) 已支付，可能是数据不一致]",
+                        order.getId(), successExtension.getId());
+                return false;
+            }
+            return true;
+        });
+        // 情况二：并发调用三方接口，查询支付单状态，是不是已支付/已退款
+        List<PayOrderExtensionDO> waitingExtensions = new ArrayList<>();
+        checkedOrders.forEach(order -> CollUtil.emptyIfNull(orderExtensionMap.get(order.getId())).stream()
+                .filter(orderExtension -> !PayOrderStatusEnum.isClosed(orderExtension.getStatus()))
+                .forEach(waitingExtensions::add));
+        List<PayOrderRespDTO> respDTOs = channelSyncExecutor.query(waitingExtensions,
+                PayOrderExtensionDO::getChannelId, this::getChannelOrder);
+        Map<Long, PayOrderRespDTO> respDTOMap = new HashMap<>(waitingExtensions.size());
+        for (int i = 0; i < waitingExtensions.size(); i++) {
+            respDTOMap.put(waitingExtensions.get(i).getId(), respDTOs.get(i));
+        }
+
+        // 2.1 逐个关闭支付拓展单
+        List<Long> closeOrderIds = new ArrayList<>(checkedOrders.size());
+        for (PayOrderDO order : checkedOrders) {
+            List<PayOrderExtensionDO> orderExtensions = filterList(CollUtil.emptyIfNull(orderExtensionMap.get(order.getId())),
+                    orderExtension -> respDTOMap.containsKey(orderExtension.getId()));
+            if (expireOrderExtensions(order, orderExtensions, respDTOMap)) {
+                closeOrderIds.add(order.getId());
+            }
+        }
+        if (CollUtil.isEmpty(closeOrderIds)) {
+            return 0;
+        }
+        // 2.2 都没有上述情况，可以安心批量更新为已关闭
+        int count = orderMapper.updateByIdInAndStatus(closeOrderIds, PayOrderStatusEnum.WAITING.getStatus(),
+                new PayOrderDO().setStatus(PayOrderStatusEnum.CLOSED.getStatus()));
+        if (count != closeOrderIds.size()) {
+            log.error("[expireOrder][orders({}) 部分更新为支付关闭失败，成功数量({})]", closeOrderIds, count);
+        } else {
+            log.info("[expireOrder][orders({}) 更新为支付关闭成功]", closeOrderIds);
         }
         return count;
     }
 
     /**
-     * 同步单个支付单
+     * 关闭单个支付单的支付拓展单
      *
      * @param order 支付单
-     * @return 是否已过期
+     * @param orderExtensions 待关闭的支付拓展单数组
+     * @param respDTOMap 支付拓展单编号与支付渠道的支付订单信息的映射
+     * @return 支付单是否可以过期
      */
-    private boolean expireOrder(PayOrderDO order) {
+    private boolean expireOrderExtensions(PayOrderDO order, List<PayOrderExtensionDO> orderExtensions,
+                                          Map<Long, PayOrderRespDTO> respDTOMap) {
         try {
-            // 1. 需要先处理关联的支付拓展单，避免错误的过期已支付 or 已退款的订单
-            List<PayOrderExtensionDO> orderExtensions = orderExtensionMapper.selectListByOrderId(order.getId());
             for (PayOrderExtensionDO orderExtension : orderExtensions) {
-                if (PayOrderStatusEnum.isClosed(orderExtension.getStatus())) {
-                    continue;
-                }
-                // 情况一：校验数据库中的 orderExtension 是不是已支付
-                if (PayOrderStatusEnum.isSuccess(orderExtension.getStatus())) {
-                    log.error("[expireOrder][order({}) 的 extension({}) 已支付，可能是数据不一致]",
-                            order.getId(), orderExtension.getId());
-                    return false;
-                }
-                // 情况二：调用三方接口，查询支付单状态，是不是已支付/已退款
-                PayClient payClient = channelService.getPayClient(orderExtension.getChannelId());
-                if (payClient == null) {
-                    log.error("[expireOrder][渠道编号({}) 找不到对应的支付客户端]", orderExtension.getChannelId());
+                PayOrderRespDTO respDTO = respDTOMap.get(orderExtension.getId());
+                if (respDTO == null) { // 查询失败，例如说支付客户端不存在、调用异常，等待下次过期
                     return false;
                 }
-                PayOrderRespDTO respDTO = payClient.getOrder(orderExtension.getNo());
                 if (PayOrderStatusRespEnum.isRefund(respDTO.getStatus())) {
                     // 补充说明：按道理，应该是 WAITING => SUCCESS => REFUND 状态，如果直接 WAITING => REFUND 状态，说明中间丢了过程
                     // 此时，需要人工介入，手工补齐数据，保持 WAITING => SUCCESS => REFUND 的过程
@@ -553,14 +647,6 @@ public class PayOrderServiceImpl implements PayOrderService {
                 }
                 log.info("[expireOrder][extension({}) 更新为支付关闭成功]", orderExtension.getId());
             }
-
-            // 2. 都没有上述情况，可以安心更新为已关闭
-            PayOrderDO updateObj = new PayOrderDO().setStatus(PayOrderStatusEnum.CLOSED.getStatus());
-            if (orderMapper.updateByIdAndStatus(order.getId(), order.getStatus(), updateObj) == 0) {
-                log.error("[expireOrder][order({}) 更新为支付关闭失败]", order.getId());
-                return false;
-            }
-            log.info("[expireOrder][order({}) 更新为支付关闭失败]", order.getId());
             return true;
         } catch (Throwable e) {
             log.error("[expireOrder][order({}) 过期订单异常]", order.getId(), e);
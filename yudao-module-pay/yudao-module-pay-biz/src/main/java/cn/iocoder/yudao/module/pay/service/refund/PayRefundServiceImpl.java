@@ -22,6 +22,8 @@ import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyTypeEnum;
 import cn.iocoder.yudao.module.pay.enums.order.PayOrderStatusEnum;
 import cn.iocoder.yudao.module.pay.enums.refund.PayRefundStatusEnum;
 import cn.iocoder.yudao.module.pay.framework.pay.config.PayProperties;
+import cn.iocoder.yudao.module.pay.framework.sync.config.PaySyncProperties;
+import cn.iocoder.yudao.module.pay.framework.sync.core.PayChannelSyncExecutor;
 import cn.iocoder.yudao.module.pay.service.app.PayAppService;
 import cn.iocoder.yudao.module.pay.service.channel.PayChannelService;
 import cn.iocoder.yudao.module.pay.service.notify.PayNotifyService;
@@ -50,6 +52,8 @@ public class PayRefundServiceImpl implements PayRefundService {
 
     @Resource
     private PayProperties payProperties;
+    @Resource
+    private PaySyncProperties syncProperties;
 
     @Resource
     private PayRefundMapper refundMapper;
@@ -65,6 +69,9 @@ public class PayRefundServiceImpl implements PayRefundService {
     @Resource
     private PayNotifyService notifyService;
 
+    @Resource
+    private PayChannelSyncExecutor channelSyncExecutor;
+
     @Override
     public PayRefundDO getRefund(Long id) {
         return refundMapper.selectById(id);
@@ -279,15 +286,40 @@ public class PayRefundServiceImpl implements PayRefundService {
 
     @Override
     public int syncRefund() {
-        // 1. 查询指定创建时间内的待退款订单
-        List<PayRefundDO> refunds = refundMapper.selectListByStatus(PayRefundStatusEnum.WAITING.getStatus());
-        if (CollUtil.isEmpty(refunds)) {
-            return 0;
+        int count = 0;
+        Long lastId = 0L;
+        Integer pageSize = syncProperties.getPageSize();
+        while (true) {
+            // 1. 分批查询待退款订单
+            List<PayRefundDO> refunds = refundMapper.selectListByStatus(PayRefundStatusEnum.WAITING.getStatus(),
+                    lastId, pageSize);
+            if (CollUtil.isEmpty(refunds)) {
+                break;
+            }
+            // 2. 批量执行
+            count += syncRefund(refunds);
+            if (refunds.size() < pageSize) {
+                break;
+            }
+            lastId = CollUtil.getLast(refunds).getId();
         }
-        // 2. 遍历执行
+        return count;
+    }
+
+    /**
+     * 同步一批退款订单
+     *
+     * @param refunds 退款订单数组
+     * @return 同步到的数量
+     */
+    private int syncRefund(List<PayRefundDO> refunds) {
+        // 1. 并发查询退款订单信息
+        List<PayRefundRespDTO> respDTOs = channelSyncExecutor.query(refunds,
+                PayRefundDO::getChannelId, this::getChannelRefund);
+        // 2. 逐个回调退款结果
         int count = 0;
-        for (PayRefundDO refund : refunds) {
-            count += syncRefund(refund) ? 1 : 0;
+        for (int i = 0; i < refunds.size(); i++) {
+            count += syncRefund(refunds.get(i), respDTOs.get(i)) ? 1 : 0;
         }
         return count;
     }
@@ -296,18 +328,15 @@ public class PayRefundServiceImpl implements PayRefundService {
      * 同步单个退款订单
      *
      * @param refund 退款订单
+     * @param respDTO 支付渠道的退款订单信息，为 null 时说明查询失败
      * @return 是否同步到
      */
-    private boolean syncRefund(PayRefundDO refund) {
+    private boolean syncRefund(PayRefundDO refund, PayRefundRespDTO respDTO) {
+        if (respDTO == null) {
+            return false;
+        }
         try {
-            // 1.1 查询退款订单信息
-            PayClient payClient = channelService.getPayClient(refund.getChannelId());
-            if (payClient == null) {
-                log.error("[syncRefund][渠道编号({}) 找不到对应的支付客户端]", refund.getChannelId());
-                return false;
-            }
-            PayRefundRespDTO respDTO = payClient.getRefund(refund.getOrderNo(), refund.getNo());
-            // 1.2 回调退款结果
+            // 1. 回调退款结果
             notifyRefund(refund.getChannelId(), respDTO);
 
             // 2. 如果同步到，则返回 true
@@ -319,6 +348,21 @@ public class PayRefundServiceImpl implements PayRefundService {
         }
     }
 
+    /**
+     * 查询支付渠道的退款订单信息，由 {@link PayChannelSyncExecutor} 并发调用
+     *
+     * @param refund 退款订单
+     * @return 退款订单信息。支付客户端不存在时，返回 null
+     */
+    private PayRefundRespDTO getChannelRefund(PayRefundDO refund) {
+        PayClient payClient = channelService.getPayClient(refund.getChannelId());
+        if (payClient == null) {
+            log.error("[getChannelRefund][渠道编号({}) 找不到对应的支付客户端]", refund.getChannelId());
+            return null;
+        }
+        return payClient.getRefund(refund.getOrderNo(), refund.getNo());
+    }
+
     /**
      * 获得自身的代理对象，解决 AOP 生效问题
      *
@@ -97,4 +97,11 @@ public interface PayWalletService {
      */
     void unfreezePrice(Long id, Integer price);
 
+    /**
+     * 同步钱包余额，将账本模式下尚未同步的钱包流水，按照钱包汇总后批量同步到 DB 中
+     *
+     * @return 同步的钱包数量
+     */
+    int compactWalletBalance();
+
 }
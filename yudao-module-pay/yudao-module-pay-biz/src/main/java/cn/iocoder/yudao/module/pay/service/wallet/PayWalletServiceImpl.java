@@ -1,6 +1,10 @@
 package cn.iocoder.yudao.module.pay.service.wallet;
 
+import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.hutool.core.lang.Assert;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.pay.controller.admin.wallet.vo.wallet.PayWalletPageReqVO;
 import cn.iocoder.yudao.module.pay.dal.dataobject.order.PayOrderExtensionDO;
@@ -8,19 +12,28 @@ import cn.iocoder.yudao.module.pay.dal.dataobject.refund.PayRefundDO;
 import cn.iocoder.yudao.module.pay.dal.dataobject.wallet.PayWalletDO;
 import cn.iocoder.yudao.module.pay.dal.dataobject.wallet.PayWalletTransactionDO;
 import cn.iocoder.yudao.module.pay.dal.mysql.wallet.PayWalletMapper;
+import cn.iocoder.yudao.module.pay.dal.redis.wallet.PayWalletBalanceRedisDAO;
 import cn.iocoder.yudao.module.pay.enums.wallet.PayWalletBizTypeEnum;
+import cn.iocoder.yudao.module.pay.framework.wallet.config.PayWalletProperties;
 import cn.iocoder.yudao.module.pay.service.order.PayOrderService;
 import cn.iocoder.yudao.module.pay.service.refund.PayRefundService;
+import cn.iocoder.yudao.module.pay.service.wallet.bo.WalletBalanceDeltaBO;
 import cn.iocoder.yudao.module.pay.service.wallet.bo.WalletTransactionCreateReqBO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.module.pay.dal.redis.wallet.PayWalletBalanceRedisDAO.*;
 import static cn.iocoder.yudao.module.pay.enums.ErrorCodeConstants.*;
 import static cn.iocoder.yudao.module.pay.enums.wallet.PayWalletBizTypeEnum.PAYMENT;
 import static cn.iocoder.yudao.module.pay.enums.wallet.PayWalletBizTypeEnum.PAYMENT_REFUND;
@@ -34,9 +47,14 @@ import static cn.iocoder.yudao.module.pay.enums.wallet.PayWalletBizTypeEnum.PAYM
 @Slf4j
 public class PayWalletServiceImpl implements  PayWalletService {
 
+    @Resource
+    private PayWalletProperties walletProperties;
+
     @Resource
     private PayWalletMapper walletMapper;
     @Resource
+    private PayWalletBalanceRedisDAO walletBalanceRedisDAO;
+    @Resource
     private PayWalletTransactionService walletTransactionService;
     @Resource
     @Lazy
@@ -54,12 +72,12 @@ public class PayWalletServiceImpl implements  PayWalletService {
             wallet.setCreateTime(LocalDateTime.now());
             walletMapper.insert(wallet);
         }
-        return wallet;
+        return mergeLedgerBalance(wallet);
     }
 
     @Override
     public PayWalletDO getWallet(Long walletId) {
-        return walletMapper.selectById(walletId);
+        return mergeLedgerBalance(walletMapper.selectById(walletId));
     }
 
     @Override
@@ -119,6 +137,7 @@ public class PayWalletServiceImpl implements  PayWalletService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public PayWalletTransactionDO reduceWalletBalance(Long walletId, Long bizId,
                                                       PayWalletBizTypeEnum bizType, Integer price) {
         // 1. 获取钱包
@@ -129,26 +148,11 @@ public class PayWalletServiceImpl implements  PayWalletService {
         }
 
         // 2.1 扣除余额
-        int updateCounts;
-        switch (bizType) {
-            case PAYMENT: {
-                updateCounts = walletMapper.updateWhenConsumption(payWallet.getId(), price);
-                break;
-            }
-            case RECHARGE_REFUND: {
-                updateCounts = walletMapper.updateWhenRechargeRefund(payWallet.getId(), price);
-                break;
-            }
-            default: {
-                // TODO 其它类型待实现
-                throw new UnsupportedOperationException("待实现");
-            }
-        }
-        if (updateCounts == 0) {
+        Integer afterBalance = updateWalletBalance(payWallet, buildBalanceDelta(bizType, -price));
+        if (afterBalance == null) {
             throw exception(WALLET_BALANCE_NOT_ENOUGH);
         }
         // 2.2 生成钱包流水
-        Integer afterBalance = payWallet.getBalance() - price;
         WalletTransactionCreateReqBO bo = new WalletTransactionCreateReqBO().setWalletId(payWallet.getId())
                 .setPrice(-price).setBalance(afterBalance).setBizId(String.valueOf(bizId))
                 .setBizType(bizType.getType()).setTitle(bizType.getDescription());
@@ -156,6 +160,7 @@ public class PayWalletServiceImpl implements  PayWalletService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public PayWalletTransactionDO addWalletBalance(Long walletId, String bizId,
                                                    PayWalletBizTypeEnum bizType, Integer price) {
         // 1.1 获取钱包
@@ -165,42 +170,357 @@ public class PayWalletServiceImpl implements  PayWalletService {
             throw exception(WALLET_NOT_FOUND);
         }
         // 1.2 更新钱包金额
-        switch (bizType) {
-            case PAYMENT_REFUND: { // 退款更新
-                walletMapper.updateWhenConsumptionRefund(payWallet.getId(), price);
-                break;
-            }
-            case RECHARGE: { // 充值更新
-                walletMapper.updateWhenRecharge(payWallet.getId(), price);
-                break;
-            }
-            default: {
-                // TODO 其它类型待实现
-                throw new UnsupportedOperationException("待实现");
-            }
-        }
+        Integer afterBalance = updateWalletBalance(payWallet, buildBalanceDelta(bizType, price));
 
         // 2. 生成钱包流水
         WalletTransactionCreateReqBO transactionCreateReqBO = new WalletTransactionCreateReqBO()
-                .setWalletId(payWallet.getId()).setPrice(price).setBalance(payWallet.getBalance() + price)
+                .setWalletId(payWallet.getId()).setPrice(price).setBalance(afterBalance)
                 .setBizId(bizId).setBizType(bizType.getType()).setTitle(bizType.getDescription());
         return walletTransactionService.createWalletTransaction(transactionCreateReqBO);
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void freezePrice(Long id, Integer price) {
-        int updateCounts = walletMapper.freezePrice(id, price);
-        if (updateCounts == 0) {
+        WalletBalanceDeltaBO delta = new WalletBalanceDeltaBO().setCheck(true)
+                .setBalance(-price).setFreezePrice(price);
+        if (!updateWalletBalanceWithoutTransaction(id, delta)) {
             throw exception(WALLET_BALANCE_NOT_ENOUGH);
         }
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void unfreezePrice(Long id, Integer price) {
-        int updateCounts = walletMapper.unFreezePrice(id, price);
-        if (updateCounts == 0) {
+        WalletBalanceDeltaBO delta = new WalletBalanceDeltaBO().setCheck(true)
+                .setBalance(price).setFreezePrice(-price);
+        if (!updateWalletBalanceWithoutTransaction(id, delta)) {
             throw exception(WALLET_FREEZE_PRICE_NOT_ENOUGH);
         }
     }
 
+    /**
+     * 获得钱包流水对应的钱包金额变更
+     *
+     * @param bizType 业务关联分类
+     * @param price 钱包流水的金额，正值表示余额增加，负值表示余额减少
+     * @return 钱包金额变更；金额减少时，需要校验金额是否充足
+     */
+    private static WalletBalanceDeltaBO buildBalanceDelta(PayWalletBizTypeEnum bizType, int price) {
+        WalletBalanceDeltaBO delta = new WalletBalanceDeltaBO().setCheck(price < 0);
+        switch (bizType) {
+            case PAYMENT: // 支付
+            case PAYMENT_REFUND: { // 支付退款
+                return delta.setBalance(price).setTotalExpense(-price);
+            }
+            case RECHARGE: { // 充值
+                return delta.setBalance(price).setTotalRecharge(price);
+            }
+            case RECHARGE_REFUND: { // 充值退款，扣减的是申请退款时冻结的金额
+                return delta.setFreezePrice(price).setTotalRecharge(price);
+            }
+            default: {
+                // TODO 其它类型待实现
+                throw new UnsupportedOperationException("待实现");
+            }
+        }
+    }
+
+    /**
+     * 变更钱包金额
+     *
+     * @param wallet 钱包
+     * @param delta 金额变更
+     * @return 变更后的余额；金额不足时，返回 null
+     */
+    private Integer updateWalletBalance(PayWalletDO wallet, WalletBalanceDeltaBO delta) {
+        // 情况一：账本模式，在 Redis 中校验并变更金额
+        if (walletProperties.getLedgerEnable()) {
+            return updateLedgerBalance(wallet.getId(), delta);
+        }
+        // 情况二：行锁模式，条件更新 pay_wallet 记录。如果钱包之前处于账本模式，先同步尚未同步的钱包流水
+        if (wallet.getLedgerTransactionId() != null) {
+            wallet = closeLedgerBalance(wallet.getId());
+        }
+        int updateCounts = walletMapper.updateBalance(wallet.getId(), delta.isCheck(), delta.getBalance(),
+                delta.getFreezePrice(), delta.getTotalExpense(), delta.getTotalRecharge());
+        if (updateCounts == 0) {
+            return null;
+        }
+        return wallet.getBalance() + delta.getBalance();
+    }
+
+    /**
+     * 变更钱包金额，不生成钱包流水，例如说冻结、解冻
+     *
+     * 账本模式下，因为没有钱包流水可以汇总，所以在 Redis 中校验并变更后，直接更新 pay_wallet 记录
+     *
+     * @param walletId 钱包编号
+     * @param delta 金额变更
+     * @return 是否成功；金额不足时，返回 false
+     */
+    private boolean updateWalletBalanceWithoutTransaction(Long walletId, WalletBalanceDeltaBO delta) {
+        if (walletProperties.getLedgerEnable()) {
+            if (updateLedgerBalance(walletId, delta) == null) {
+                return false;
+            }
+            walletMapper.updateBalance(walletId, false, delta.getBalance(), delta.getFreezePrice(),
+                    delta.getTotalExpense(), delta.getTotalRecharge());
+            return true;
+        }
+        PayWalletDO wallet = walletMapper.selectById(walletId);
+        return wallet != null && updateWalletBalance(wallet, delta) != null;
+    }
+
+    // ========== 账本模式 ==========
+
+    /**
+     * 账本模式下，基于 Redis 原子校验并变更钱包金额
+     *
+     * Redis 只作为余额校验的缓存，调用方需要在同一个事务中插入钱包流水，作为持久化的账本；
+     * 如果调用方的事务回滚（例如说，钱包流水插入失败），则回滚变更
+     *
+     * @param walletId 钱包编号
+     * @param delta 金额变更
+     * @return 变更后的余额；金额不足时，返回 null
+     */
+    private Integer updateLedgerBalance(Long walletId, WalletBalanceDeltaBO delta) {
+        // 1. 基于 Redis 变更金额；如果余额未加载，则从 DB 加载后重试
+        long result = walletBalanceRedisDAO.updateBalance(walletId, delta.isCheck(), delta.getBalance(),
+                delta.getFreezePrice(), delta.getTotalExpense(), delta.getTotalRecharge());
+        if (result == UPDATE_NOT_LOADED) {
+            loadLedgerBalance(walletId);
+            result = walletBalanceRedisDAO.updateBalance(walletId, delta.isCheck(), delta.getBalance(),
+                    delta.getFreezePrice(), delta.getTotalExpense(), delta.getTotalRecharge());
+        }
+        if (result == UPDATE_NOT_LOADED) {
+            throw exception(WALLET_NOT_FOUND);
+        }
+        if (result == UPDATE_NOT_ENOUGH) {
+            return null;
+        }
+
+        // 2. 如果调用方的事务回滚，则回滚变更
+        // 同时记录进行中的事务，直到事务结束：钱包流水提交前，同步的水位不会越过它
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            String token = IdUtil.fastSimpleUUID();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        walletBalanceRedisDAO.revertBalance(walletId, delta.getBalance(), delta.getFreezePrice(),
+                                delta.getTotalExpense(), delta.getTotalRecharge());
+                    }
+                    walletBalanceRedisDAO.removeInflightTransaction(walletId, token);
+                }
+
+            });
+            walletBalanceRedisDAO.addInflightTransaction(walletId, token, System.currentTimeMillis());
+        }
+        return (int) result;
+    }
+
+    /**
+     * 加载钱包余额到 Redis 中
+     *
+     * @param walletId 钱包编号
+     */
+    private void loadLedgerBalance(Long walletId) {
+        walletBalanceRedisDAO.lock(walletId, () -> {
+            if (walletBalanceRedisDAO.hasBalance(walletId)) {
+                return;
+            }
+            PayWalletDO wallet = getSelf().getLedgerWalletFromDB(walletId);
+            if (wallet == null) { // 调用方事务中刚创建的钱包，新事务中不可见，此时也不存在钱包流水
+                wallet = buildLedgerWallet(walletId);
+            }
+            if (wallet == null) {
+                return;
+            }
+            walletBalanceRedisDAO.loadBalance(wallet);
+        });
+    }
+
+    /**
+     * 在新事务中，读取账本模式下的实时钱包
+     *
+     * 避免调用方事务的快照读，读到同步前的钱包、或者遗漏已提交的钱包流水，导致加载的金额不准确
+     *
+     * @param walletId 钱包编号
+     * @return 钱包
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public PayWalletDO getLedgerWalletFromDB(Long walletId) {
+        return buildLedgerWallet(walletId);
+    }
+
+    /**
+     * 读取账本模式下的实时钱包，即 DB 中的钱包，加上尚未同步的钱包流水的金额
+     *
+     * @param walletId 钱包编号
+     * @return 钱包
+     */
+    private PayWalletDO buildLedgerWallet(Long walletId) {
+        PayWalletDO wallet = walletMapper.selectById(walletId);
+        if (wallet == null) {
+            return null;
+        }
+        // 情况一：首次开启账本模式，或者关闭后再次开启，此时钱包流水都已经同步，从最大的钱包流水编号开始记录水位
+        Long ledgerTransactionId = wallet.getLedgerTransactionId();
+        if (ledgerTransactionId == null) {
+            ledgerTransactionId = ObjectUtil.defaultIfNull(
+                    walletTransactionService.getWalletTransactionMaxId(walletId, null, null), 0L);
+            walletMapper.updateLedgerBalance(walletId, 0, 0, 0, 0, null, ledgerTransactionId);
+            return wallet.setLedgerTransactionId(ledgerTransactionId);
+        }
+        // 情况二：加上尚未同步的钱包流水的金额。同时记录到待同步钱包中，避免 Redis 数据丢失后，钱包流水一直未同步
+        WalletBalanceDeltaBO delta = getLedgerBalanceDelta(walletId, ledgerTransactionId, null);
+        walletBalanceRedisDAO.addPendingWalletId(walletId);
+        return addBalanceDelta(wallet, delta);
+    }
+
+    /**
+     * 关闭钱包的账本模式：将尚未同步的钱包流水汇总后，同步到 pay_wallet 记录
+     *
+     * 关闭账本模式后，钱包第一次在行锁模式下变更金额时调用，之后的钱包流水都已经同步，不再需要汇总
+     *
+     * @param walletId 钱包编号
+     * @return 同步后的钱包
+     */
+    private PayWalletDO closeLedgerBalance(Long walletId) {
+        PayWalletDO wallet = walletMapper.selectByIdForUpdate(walletId);
+        Long ledgerTransactionId = wallet.getLedgerTransactionId();
+        if (ledgerTransactionId == null) { // 已经被其它请求关闭
+            return wallet;
+        }
+        WalletBalanceDeltaBO delta = getLedgerBalanceDelta(walletId, ledgerTransactionId, null);
+        walletMapper.updateLedgerBalance(walletId, delta.getBalance(), delta.getFreezePrice(),
+                delta.getTotalExpense(), delta.getTotalRecharge(), ledgerTransactionId, null);
+        // 删除 Redis 中的余额，避免再次开启账本模式时，使用关闭期间未变更的余额
+        walletBalanceRedisDAO.deleteBalance(walletId);
+        return addBalanceDelta(wallet, delta).setLedgerTransactionId(null);
+    }
+
+    /**
+     * 汇总尚未同步的钱包流水，获得钱包金额变更
+     *
+     * @param walletId 钱包编号
+     * @param minId 同步的水位，即钱包流水的最小编号（不包含）
+     * @param maxId 钱包流水的最大编号（包含）；为空时，不限制
+     * @return 金额变更
+     */
+    private WalletBalanceDeltaBO getLedgerBalanceDelta(Long walletId, Long minId, Long maxId) {
+        WalletBalanceDeltaBO result = new WalletBalanceDeltaBO();
+        walletTransactionService.getWalletTransactionPriceSumMap(walletId, minId, maxId).forEach((bizType, price) -> {
+            WalletBalanceDeltaBO delta = buildBalanceDelta(PayWalletBizTypeEnum.typeOf(bizType), price);
+            result.setBalance(result.getBalance() + delta.getBalance())
+                    .setFreezePrice(result.getFreezePrice() + delta.getFreezePrice())
+                    .setTotalExpense(result.getTotalExpense() + delta.getTotalExpense())
+                    .setTotalRecharge(result.getTotalRecharge() + delta.getTotalRecharge());
+        });
+        return result;
+    }
+
+    private static PayWalletDO addBalanceDelta(PayWalletDO wallet, WalletBalanceDeltaBO delta) {
+        return wallet.setBalance(wallet.getBalance() + delta.getBalance())
+                .setFreezePrice(wallet.getFreezePrice() + delta.getFreezePrice())
+                .setTotalExpense(wallet.getTotalExpense() + delta.getTotalExpense())
+                .setTotalRecharge(wallet.getTotalRecharge() + delta.getTotalRecharge());
+    }
+
+    /**
+     * 账本模式下，使用 Redis 中的实时金额，覆盖 DB 中尚未同步的钱包金额
+     *
+     * @param wallet 钱包
+     * @return 钱包
+     */
+    private PayWalletDO mergeLedgerBalance(PayWalletDO wallet) {
+        if (wallet == null || !walletProperties.getLedgerEnable()) {
+            return wallet;
+        }
+        Map<String, Integer> balance = walletBalanceRedisDAO.getBalance(wallet.getId());
+        if (balance == null) {
+            return wallet;
+        }
+        return wallet.setBalance(balance.get(FIELD_BALANCE)).setFreezePrice(balance.get(FIELD_FREEZE_PRICE))
+                .setTotalExpense(balance.get(FIELD_TOTAL_EXPENSE)).setTotalRecharge(balance.get(FIELD_TOTAL_RECHARGE));
+    }
+
+    @Override
+    public int compactWalletBalance() {
+        Set<Long> walletIds = walletBalanceRedisDAO.getPendingWalletIds();
+        walletIds.forEach(walletId -> {
+            // 先移除再同步：同步过程中新增的钱包流水，会重新记录到待同步钱包中
+            walletBalanceRedisDAO.removePendingWalletId(walletId);
+            try {
+                walletBalanceRedisDAO.lock(walletId, () -> {
+                    if (getSelf().compactWalletBalance(walletId)) {
+                        walletBalanceRedisDAO.addPendingWalletId(walletId);
+                    }
+                });
+            } catch (Exception ex) {
+                log.error("[compactWalletBalance][钱包({}) 同步余额失败]", walletId, ex);
+                walletBalanceRedisDAO.addPendingWalletId(walletId);
+            }
+        });
+        return walletIds.size();
+    }
+
+    /**
+     * 同步钱包余额：汇总水位之后的钱包流水，同步到 pay_wallet 记录，并推进水位
+     *
+     * 钱包流水的编号在插入时分配，提交的顺序可能不同，所以只同步创建时间早于该钱包进行中的事务的钱包流水，
+     * 并额外预留 {@link PayWalletProperties#getLedgerCompactDelay()} 的余量，保证水位之前的钱包流水都已经提交
+     *
+     * @param walletId 钱包编号
+     * @return 是否还存在未同步的钱包流水
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public boolean compactWalletBalance(Long walletId) {
+        // 1. 获得本次同步的钱包流水范围
+        PayWalletDO wallet = walletMapper.selectById(walletId);
+        if (wallet == null || wallet.getLedgerTransactionId() == null) { // 钱包的账本模式已经关闭
+            return false;
+        }
+        Long fromId = wallet.getLedgerTransactionId();
+        Long toId = walletTransactionService.getWalletTransactionMaxId(walletId, fromId, getLedgerCompactEndTime(walletId));
+
+        // 2. 汇总钱包流水的金额，同步到 pay_wallet 记录，并推进水位
+        if (toId != null) {
+            WalletBalanceDeltaBO delta = getLedgerBalanceDelta(walletId, fromId, toId);
+            int updateCounts = walletMapper.updateLedgerBalance(walletId, delta.getBalance(), delta.getFreezePrice(),
+                    delta.getTotalExpense(), delta.getTotalRecharge(), fromId, toId);
+            if (updateCounts == 0) { // 水位已经变化，例如说，钱包的账本模式已经关闭
+                return false;
+            }
+            fromId = toId;
+        }
+        // 3. 是否还存在未同步的钱包流水，例如说，创建时间还在同步延迟内的
+        return walletTransactionService.getWalletTransactionMaxId(walletId, fromId, null) != null;
+    }
+
+    /**
+     * 获得本次同步的钱包流水的截止创建时间：进行中的事务的最早开始时间、当前时间两者的较小值，减去同步延迟
+     *
+     * @param walletId 钱包编号
+     * @return 截止创建时间（不包含）
+     */
+    private LocalDateTime getLedgerCompactEndTime(Long walletId) {
+        long now = System.currentTimeMillis();
+        Long inflightStartTime = walletBalanceRedisDAO.getInflightTransactionMinStartTime(walletId,
+                now - walletProperties.getLedgerTransactionTimeout().toMillis());
+        long endTime = inflightStartTime != null ? Math.min(now, inflightStartTime) : now;
+        return LocalDateTimeUtil.of(endTime - walletProperties.getLedgerCompactDelay().toMillis());
+    }
+
+    /**
+     * 获得自身的代理对象，解决 AOP 生效问题
+     *
+     * @return 自己
+     */
+    private PayWalletServiceImpl getSelf() {
+        return SpringUtil.getBean(getClass());
+    }
+
 }
@@ -11,6 +11,7 @@ import cn.iocoder.yudao.module.pay.service.wallet.bo.WalletTransactionCreateReqB
 import javax.validation.Valid;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 /**
  * 钱包余额流水 Service 接口
@@ -60,6 +61,26 @@ public interface PayWalletTransactionService {
      */
     PayWalletTransactionDO getWalletTransaction(String bizId, PayWalletBizTypeEnum type);
 
+    /**
+     * 获得钱包流水的最大编号
+     *
+     * @param walletId 钱包编号
+     * @param minId 最小编号（不包含）；为空时，不限制
+     * @param maxCreateTime 最大创建时间（不包含）；为空时，不限制
+     * @return 最大编号；不存在时，返回 null
+     */
+    Long getWalletTransactionMaxId(Long walletId, Long minId, LocalDateTime maxCreateTime);
+
+    /**
+     * 按照业务分类，汇总钱包流水的金额
+     *
+     * @param walletId 钱包编号
+     * @param minId 最小编号（不包含）
+     * @param maxId 最大编号（包含）；为空时，不限制
+     * @return 金额汇总，key：业务分类；value：金额，正值表示余额增加，负值表示余额减少
+     */
+    Map<Integer, Integer> getWalletTransactionPriceSumMap(Long walletId, Long minId, Long maxId);
+
     /**
      * 获得钱包流水统计
      *
@@ -18,6 +18,7 @@ import org.springframework.validation.annotation.Validated;
 import javax.annotation.Resource;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 import static cn.iocoder.yudao.module.pay.controller.app.wallet.vo.transaction.AppPayWalletTransactionPageReqVO.TYPE_EXPENSE;
 import static cn.iocoder.yudao.module.pay.controller.app.wallet.vo.transaction.AppPayWalletTransactionPageReqVO.TYPE_INCOME;
@@ -74,6 +75,16 @@ public class PayWalletTransactionServiceImpl implements PayWalletTransactionServ
         return payWalletTransactionMapper.selectByBiz(bizId, type.getType());
     }
 
+    @Override
+    public Long getWalletTransactionMaxId(Long walletId, Long minId, LocalDateTime maxCreateTime) {
+        return payWalletTransactionMapper.selectMaxId(walletId, minId, maxCreateTime);
+    }
+
+    @Override
+    public Map<Integer, Integer> getWalletTransactionPriceSumMap(Long walletId, Long minId, Long maxId) {
+        return payWalletTransactionMapper.selectPriceSumMapByBizType(walletId, minId, maxId);
+    }
+
     @Override
     public AppPayWalletTransactionSummaryRespVO getWalletTransactionSummary(Long userId, Integer userType, LocalDateTime[] createTime) {
         PayWalletDO wallet = payWalletService.getOrCreateWallet(userId, userType);
@@ -0,0 +1,37 @@
+package cn.iocoder.yudao.module.pay.service.wallet.bo;
+
+import lombok.Data;
+
+/**
+ * 钱包金额变更 BO
+ *
+ * 金额的单位为分，正值表示增加，负值表示减少
+ *
+ * @author 芋道源码
+ */
+@Data
+public class WalletBalanceDeltaBO {
+
+    /**
+     * 是否校验金额减少的字段，变更后不能小于 0
+     */
+    private boolean check;
+
+    /**
+     * 余额的变更金额
+     */
+    private int balance;
+    /**
+     * 冻结金额的变更金额
+     */
+    private int freezePrice;
+    /**
+     * 累计支出的变更金额
+     */
+    private int totalExpense;
+    /**
+     * 累计充值的变更金额
+     */
+    private int totalRecharge;
+
+}
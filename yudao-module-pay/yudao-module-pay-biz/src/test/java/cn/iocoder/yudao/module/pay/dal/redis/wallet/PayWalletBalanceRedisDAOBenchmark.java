@@ -0,0 +1,173 @@
+package cn.iocoder.yudao.module.pay.dal.redis.wallet;
+
+import cn.hutool.core.util.ReflectUtil;
+import cn.iocoder.yudao.module.pay.dal.dataobject.wallet.PayWalletDO;
+import com.github.fppt.jedismock.RedisServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.redisson.spring.data.connection.RedissonConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 钱包余额变更的基准测试，单位为「次/秒」，即同一个钱包每秒可完成的余额变更次数
+ *
+ * 对比两种方式，每次变更都会插入一条钱包流水：
+ * 1. rowLock：原实现，在事务中读取钱包、条件更新 pay_wallet 记录，并发变更在同一行记录上串行
+ * 2. ledger：账本模式，通过 {@link PayWalletBalanceRedisDAO} 在 Redis 中原子变更余额，只追加钱包流水
+ *
+ * 使用内存的 H2 数据库、内嵌的 jedis-mock 作为 Redis 服务器，真实环境下 MySQL 行锁的等待时间更长，账本模式的优势会更明显
+ *
+ * 非单元测试，通过 main 方法运行
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class PayWalletBalanceRedisDAOBenchmark {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:pay_wallet_benchmark;DB_CLOSE_DELAY=-1;MODE=MySQL;LOCK_TIMEOUT=10000";
+
+    private static final Long WALLET_ID = 1L;
+    /**
+     * 初始余额，足够压测期间扣减
+     */
+    private static final int INITIAL_BALANCE = Integer.MAX_VALUE / 2;
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private Connection initConnection;
+    private PayWalletBalanceRedisDAO walletBalanceRedisDAO;
+
+    /**
+     * 每个线程独立的数据库连接
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private Connection connection;
+
+        @Setup
+        public void setup() throws SQLException {
+            connection = DriverManager.getConnection(JDBC_URL);
+        }
+
+        @TearDown
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+
+    }
+
+    @Setup
+    public void setup() throws IOException, SQLException {
+        // 创建表，初始化钱包
+        initConnection = DriverManager.getConnection(JDBC_URL);
+        try (Statement statement = initConnection.createStatement()) {
+            statement.execute("CREATE TABLE pay_wallet (id BIGINT PRIMARY KEY, balance INT NOT NULL, "
+                    + "total_expense INT NOT NULL)");
+            statement.execute("CREATE TABLE pay_wallet_transaction (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "wallet_id BIGINT NOT NULL, price INT NOT NULL, balance INT NOT NULL)");
+            statement.execute("INSERT INTO pay_wallet VALUES (" + WALLET_ID + ", " + INITIAL_BALANCE + ", 0)");
+        }
+
+        // 启动内嵌的 Redis 服务器
+        redisServer = RedisServer.newRedisServer();
+        redisServer.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redisServer.getHost() + ":" + redisServer.getBindPort());
+        redissonClient = Redisson.create(config);
+        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(new RedissonConnectionFactory(redissonClient));
+        stringRedisTemplate.afterPropertiesSet();
+        // 创建 PayWalletBalanceRedisDAO，并加载余额
+        walletBalanceRedisDAO = new PayWalletBalanceRedisDAO();
+        ReflectUtil.setFieldValue(walletBalanceRedisDAO, "stringRedisTemplate", stringRedisTemplate);
+        ReflectUtil.setFieldValue(walletBalanceRedisDAO, "redissonClient", redissonClient);
+        PayWalletDO wallet = new PayWalletDO().setId(WALLET_ID).setBalance(INITIAL_BALANCE)
+                .setFreezePrice(0).setTotalExpense(0).setTotalRecharge(0);
+        walletBalanceRedisDAO.loadBalance(wallet);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, SQLException {
+        try (Statement statement = initConnection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        initConnection.close();
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    /**
+     * 原实现：读取钱包，条件更新 pay_wallet 记录，基于读取的余额计算流水的余额
+     */
+    @Benchmark
+    public int rowLock(ThreadState state) throws SQLException {
+        Connection connection = state.connection;
+        connection.setAutoCommit(false);
+        try {
+            int balance;
+            try (PreparedStatement select = connection.prepareStatement("SELECT balance FROM pay_wallet WHERE id = ?")) {
+                select.setLong(1, WALLET_ID);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    resultSet.next();
+                    balance = resultSet.getInt(1);
+                }
+            }
+            try (PreparedStatement update = connection.prepareStatement("UPDATE pay_wallet SET balance = balance - 1, "
+                    + "total_expense = total_expense + 1 WHERE id = ? AND balance >= 1")) {
+                update.setLong(1, WALLET_ID);
+                update.executeUpdate();
+            }
+            insertTransaction(connection, balance - 1);
+            connection.commit();
+            return balance - 1;
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        }
+    }
+
+    /**
+     * 账本模式：在 Redis 中原子扣减余额，只追加钱包流水
+     */
+    @Benchmark
+    public int ledger(ThreadState state) throws SQLException {
+        Connection connection = state.connection;
+        connection.setAutoCommit(true);
+        int balance = (int) walletBalanceRedisDAO.updateBalance(WALLET_ID, true, -1, 0, 1, 0);
+        insertTransaction(connection, balance);
+        return balance;
+    }
+
+    private static void insertTransaction(Connection connection, int balance) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO pay_wallet_transaction (wallet_id, price, balance) VALUES (?, -1, ?)")) {
+            insert.setLong(1, WALLET_ID);
+            insert.setInt(2, balance);
+            insert.executeUpdate();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PayWalletBalanceRedisDAOBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
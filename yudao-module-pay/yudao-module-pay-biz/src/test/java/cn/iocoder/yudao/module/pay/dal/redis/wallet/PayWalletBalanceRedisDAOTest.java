@@ -0,0 +1,226 @@
+package cn.iocoder.yudao.module.pay.dal.redis.wallet;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import cn.iocoder.yudao.module.pay.dal.dataobject.wallet.PayWalletDO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static cn.iocoder.yudao.module.pay.dal.redis.RedisKeyConstants.PAY_WALLET_BALANCE;
+import static cn.iocoder.yudao.module.pay.dal.redis.wallet.PayWalletBalanceRedisDAO.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link PayWalletBalanceRedisDAO} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@Import(PayWalletBalanceRedisDAO.class)
+public class PayWalletBalanceRedisDAOTest extends BaseRedisUnitTest {
+
+    private static final Long WALLET_ID = 1L;
+
+    @Resource
+    private PayWalletBalanceRedisDAO walletBalanceRedisDAO;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.getRequiredConnectionFactory().getConnection().flushDb();
+    }
+
+    @Test
+    public void testUpdateBalance_notLoaded() {
+        // 调用
+        long result = walletBalanceRedisDAO.updateBalance(WALLET_ID, true, -30, 0, 30, 0);
+        // 断言：未加载时，不创建余额，也不记录待同步钱包
+        assertEquals(UPDATE_NOT_LOADED, result);
+        assertFalse(walletBalanceRedisDAO.hasBalance(WALLET_ID));
+        assertTrue(walletBalanceRedisDAO.getPendingWalletIds().isEmpty());
+    }
+
+    @Test
+    public void testUpdateBalance_success() {
+        // mock 数据
+        walletBalanceRedisDAO.loadBalance(buildWallet(100, 0, 0, 0));
+
+        // 调用
+        long result = walletBalanceRedisDAO.updateBalance(WALLET_ID, true, -30, 0, 30, 0);
+        // 断言
+        assertEquals(70, result);
+        assertBalance(70, 0, 30, 0);
+        assertEquals(Collections.singleton(WALLET_ID), walletBalanceRedisDAO.getPendingWalletIds());
+        Long expire = stringRedisTemplate.getExpire(String.format(PAY_WALLET_BALANCE, WALLET_ID));
+        assertTrue(expire != null && expire > 0);
+    }
+
+    @Test
+    public void testUpdateBalance_notEnough() {
+        // mock 数据：余额充足，但冻结金额不足
+        walletBalanceRedisDAO.loadBalance(buildWallet(100, 10, 0, 100));
+
+        // 调用：充值退款，扣减冻结金额
+        long result = walletBalanceRedisDAO.updateBalance(WALLET_ID, true, 0, -20, 0, -20);
+        // 断言：所有字段都不变更
+        assertEquals(UPDATE_NOT_ENOUGH, result);
+        assertBalance(100, 10, 0, 100);
+        assertTrue(walletBalanceRedisDAO.getPendingWalletIds().isEmpty());
+    }
+
+    @Test
+    public void testUpdateBalance_noCheck() {
+        // mock 数据
+        walletBalanceRedisDAO.loadBalance(buildWallet(0, 0, 0, 0));
+
+        // 调用：支付退款，不校验累计支出
+        long result = walletBalanceRedisDAO.updateBalance(WALLET_ID, false, 30, 0, -30, 0);
+        // 断言
+        assertEquals(30, result);
+        assertBalance(30, 0, -30, 0);
+    }
+
+    @Test
+    public void testRevertBalance_loaded() {
+        // mock 数据
+        walletBalanceRedisDAO.loadBalance(buildWallet(100, 0, 0, 0));
+        walletBalanceRedisDAO.updateBalance(WALLET_ID, true, -30, 0, 30, 0);
+
+        // 调用
+        walletBalanceRedisDAO.revertBalance(WALLET_ID, -30, 0, 30, 0);
+        // 断言
+        assertBalance(100, 0, 0, 0);
+    }
+
+    @Test
+    public void testRevertBalance_notLoaded() {
+        // 调用
+        walletBalanceRedisDAO.revertBalance(WALLET_ID, -30, 0, 30, 0);
+        // 断言：未加载时，不创建余额，避免之后不再从 DB 加载
+        assertFalse(walletBalanceRedisDAO.hasBalance(WALLET_ID));
+    }
+
+    @Test
+    public void testLoadBalance_exists() {
+        // mock 数据
+        walletBalanceRedisDAO.loadBalance(buildWallet(100, 0, 0, 0));
+        walletBalanceRedisDAO.updateBalance(WALLET_ID, true, -30, 0, 30, 0);
+
+        // 调用
+        walletBalanceRedisDAO.loadBalance(buildWallet(50, 0, 0, 0));
+        // 断言：已经加载时，不覆盖
+        assertBalance(70, 0, 30, 0);
+    }
+
+    @Test
+    public void testDeleteBalance() {
+        // mock 数据
+        walletBalanceRedisDAO.loadBalance(buildWallet(100, 0, 0, 0));
+
+        // 调用
+        walletBalanceRedisDAO.deleteBalance(WALLET_ID);
+        // 断言
+        assertFalse(walletBalanceRedisDAO.hasBalance(WALLET_ID));
+        assertNull(walletBalanceRedisDAO.getBalance(WALLET_ID));
+    }
+
+    @Test
+    public void testPendingWalletIds() {
+        // 调用
+        walletBalanceRedisDAO.addPendingWalletId(1L);
+        walletBalanceRedisDAO.addPendingWalletId(2L);
+        walletBalanceRedisDAO.removePendingWalletId(1L);
+        // 断言
+        assertEquals(Collections.singleton(2L), walletBalanceRedisDAO.getPendingWalletIds());
+    }
+
+    @Test
+    public void testInflightTransaction() {
+        // 调用
+        walletBalanceRedisDAO.addInflightTransaction(WALLET_ID, "a", 1000);
+        walletBalanceRedisDAO.addInflightTransaction(WALLET_ID, "b", 2000);
+        walletBalanceRedisDAO.addInflightTransaction(WALLET_ID, "c", 3000);
+        // 断言：最早开始时间
+        assertEquals(1000L, walletBalanceRedisDAO.getInflightTransactionMinStartTime(WALLET_ID, 0));
+
+        // 调用：移除后，为下一个
+        walletBalanceRedisDAO.removeInflightTransaction(WALLET_ID, "a");
+        // 断言
+        assertEquals(2000L, walletBalanceRedisDAO.getInflightTransactionMinStartTime(WALLET_ID, 0));
+
+        // 调用：超时的事务，被移除
+        Long result = walletBalanceRedisDAO.getInflightTransactionMinStartTime(WALLET_ID, 2500);
+        // 断言
+        assertEquals(3000L, result);
+        walletBalanceRedisDAO.removeInflightTransaction(WALLET_ID, "c");
+        assertNull(walletBalanceRedisDAO.getInflightTransactionMinStartTime(WALLET_ID, 0));
+    }
+
+    @Test
+    public void testLock() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // 准备参数：另一个线程持有锁
+            CountDownLatch locked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Future<?> holder = executor.submit(() -> walletBalanceRedisDAO.lock(WALLET_ID, () -> {
+                locked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            // 调用：锁释放后，才能执行
+            long startTime = System.currentTimeMillis();
+            new Thread(() -> {
+                sleep(200);
+                release.countDown();
+            }).start();
+            walletBalanceRedisDAO.lock(WALLET_ID, () -> {});
+            // 断言
+            assertTrue(System.currentTimeMillis() - startTime >= 200);
+            holder.get(5, TimeUnit.SECONDS);
+
+            // 调用：逻辑抛出异常时，也会释放锁
+            assertThrows(IllegalStateException.class, () -> walletBalanceRedisDAO.lock(WALLET_ID, () -> {
+                throw new IllegalStateException("模拟异常");
+            }));
+            executor.submit(() -> walletBalanceRedisDAO.lock(WALLET_ID, () -> {})).get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertBalance(int balance, int freezePrice, int totalExpense, int totalRecharge) {
+        Map<String, Integer> result = walletBalanceRedisDAO.getBalance(WALLET_ID);
+        assertNotNull(result);
+        assertEquals(balance, result.get(FIELD_BALANCE));
+        assertEquals(freezePrice, result.get(FIELD_FREEZE_PRICE));
+        assertEquals(totalExpense, result.get(FIELD_TOTAL_EXPENSE));
+        assertEquals(totalRecharge, result.get(FIELD_TOTAL_RECHARGE));
+    }
+
+    private static PayWalletDO buildWallet(int balance, int freezePrice, int totalExpense, int totalRecharge) {
+        return new PayWalletDO().setId(WALLET_ID).setBalance(balance).setFreezePrice(freezePrice)
+                .setTotalExpense(totalExpense).setTotalRecharge(totalRecharge);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
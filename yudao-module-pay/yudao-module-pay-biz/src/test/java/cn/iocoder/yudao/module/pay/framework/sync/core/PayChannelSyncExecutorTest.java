@@ -0,0 +1,130 @@
+package cn.iocoder.yudao.module.pay.framework.sync.core;
+
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link PayChannelSyncExecutor} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class PayChannelSyncExecutorTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        TenantContextHolder.clear();
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testQuery_order() {
+        // 准备参数：越靠前的查询越慢，完成顺序与提交顺序相反
+        PayChannelSyncExecutor syncExecutor = new PayChannelSyncExecutor(executor, 1000);
+        List<Integer> items = Arrays.asList(1, 2, 3, 4);
+
+        // 调用
+        List<String> results = syncExecutor.query(items, item -> 10L, item -> {
+            sleep((5 - item) * 20L);
+            return "R" + item;
+        });
+        // 断言：结果与 items 一一对应
+        assertEquals(Arrays.asList("R1", "R2", "R3", "R4"), results);
+    }
+
+    @Test
+    public void testQuery_failure() {
+        // 准备参数
+        PayChannelSyncExecutor syncExecutor = new PayChannelSyncExecutor(executor, 1000);
+        List<Integer> items = Arrays.asList(1, 2, 3);
+
+        // 调用：第 2 个查询抛出异常
+        List<String> results = syncExecutor.query(items, item -> 10L, item -> {
+            if (item == 2) {
+                throw new RuntimeException("模拟渠道异常");
+            }
+            return "R" + item;
+        });
+        // 断言：失败的查询结果为 null，不影响同一批的其它查询
+        assertEquals(Arrays.asList("R1", null, "R3"), results);
+    }
+
+    @Test
+    public void testQuery_empty() {
+        // 准备参数
+        PayChannelSyncExecutor syncExecutor = new PayChannelSyncExecutor(executor, 1000);
+
+        // 调用
+        List<String> results = syncExecutor.query(Collections.<Integer>emptyList(), item -> 10L, item -> "R" + item);
+        // 断言
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void testQuery_tenant() {
+        // 准备参数
+        PayChannelSyncExecutor syncExecutor = new PayChannelSyncExecutor(executor, 1000);
+        TenantContextHolder.setTenantId(1L);
+
+        // 调用
+        List<Long> results = syncExecutor.query(Arrays.asList(1, 2), item -> 10L,
+                item -> TenantContextHolder.getTenantId());
+        // 断言：查询线程中，使用调用方的租户
+        assertEquals(Arrays.asList(1L, 1L), results);
+    }
+
+    @Test
+    public void testQuery_rateLimit() {
+        // 准备参数：渠道 10 每秒 10 次
+        PayChannelSyncExecutor syncExecutor = new PayChannelSyncExecutor(executor, 10);
+        List<Integer> items = Arrays.asList(1, 2, 3, 4, 5, 6);
+
+        // 调用
+        long startTime = System.currentTimeMillis();
+        List<Integer> results = syncExecutor.query(items, item -> 10L, item -> item);
+        // 断言：6 次查询，至少间隔 5 个 100ms
+        assertEquals(items, results);
+        assertTrue(System.currentTimeMillis() - startTime >= 400);
+    }
+
+    @Test
+    public void testQuery_rateLimitPerChannel() {
+        // 准备参数：每个渠道每秒 1 次
+        PayChannelSyncExecutor syncExecutor = new PayChannelSyncExecutor(executor, 1);
+        List<Long> items = Arrays.asList(10L, 20L, 30L, 40L);
+
+        // 调用：每个渠道只查询 1 次
+        long startTime = System.currentTimeMillis();
+        List<Long> results = syncExecutor.query(items, item -> item, item -> item);
+        // 断言：不同渠道之间，不互相限流
+        assertEquals(items, results);
+        assertTrue(System.currentTimeMillis() - startTime < 500);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
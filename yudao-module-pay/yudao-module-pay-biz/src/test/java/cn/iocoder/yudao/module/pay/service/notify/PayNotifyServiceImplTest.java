@@ -0,0 +1,316 @@
+package cn.iocoder.yudao.module.pay.service.notify;
+
+import cn.hutool.core.util.ReflectUtil;
+import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbAndRedisUnitTest;
+import cn.iocoder.yudao.module.pay.dal.dataobject.notify.PayNotifyLogDO;
+import cn.iocoder.yudao.module.pay.dal.dataobject.notify.PayNotifyTaskDO;
+import cn.iocoder.yudao.module.pay.dal.mysql.notify.PayNotifyLogMapper;
+import cn.iocoder.yudao.module.pay.dal.mysql.notify.PayNotifyTaskMapper;
+import cn.iocoder.yudao.module.pay.dal.redis.notify.PayNotifyLockRedisDAO;
+import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyStatusEnum;
+import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyTypeEnum;
+import cn.iocoder.yudao.module.pay.framework.notify.config.PayNotifyConfiguration;
+import cn.iocoder.yudao.module.pay.mq.producer.notify.PayNotifyProducer;
+import cn.iocoder.yudao.module.pay.service.order.PayOrderService;
+import cn.iocoder.yudao.module.pay.service.refund.PayRefundService;
+import cn.iocoder.yudao.module.pay.service.transfer.PayTransferService;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static cn.iocoder.yudao.module.pay.dal.redis.RedisKeyConstants.PAY_NOTIFY_LOCK;
+import static cn.iocoder.yudao.module.pay.framework.notify.config.PayNotifyConfiguration.NOTIFY_HTTP_CLIENT;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link PayNotifyServiceImpl} 的单元测试
+ *
+ * 通过 {@link MockWebServer} 模拟接入方的回调接口，覆盖异步通知、批量写入、锁的续期与释放
+ *
+ * @author 芋道源码
+ */
+@Import({PayNotifyConfiguration.class, PayNotifyServiceImpl.class, PayNotifyLockRedisDAO.class})
+@TestPropertySource(properties = {
+        "yudao.pay.notify.max-requests-per-host=2",
+        "yudao.pay.notify.flush-batch-size=2"
+})
+public class PayNotifyServiceImplTest extends BaseDbAndRedisUnitTest {
+
+    private static final String SUCCESS_BODY = "{\"code\":0,\"data\":true}";
+    private static final String FAILURE_BODY = "{\"code\":500,\"msg\":\"模拟失败\"}";
+
+    @Resource
+    private PayNotifyServiceImpl notifyService;
+
+    @Resource
+    private PayNotifyTaskMapper notifyTaskMapper;
+    @Resource
+    private PayNotifyLogMapper notifyLogMapper;
+
+    @Resource(name = NOTIFY_HTTP_CLIENT)
+    private OkHttpClient notifyHttpClient;
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @MockBean
+    private PayOrderService orderService;
+    @MockBean
+    private PayRefundService refundService;
+    @MockBean
+    private PayTransferService transferService;
+    @MockBean
+    private PayNotifyProducer notifyProducer;
+
+    private MockWebServer server;
+
+    /**
+     * 自身的代理对象，委托给 {@link #notifyService}，用于断言批量写入的次数
+     */
+    private PayNotifyServiceImpl self;
+    private MockedStatic<SpringUtil> springUtilMockedStatic;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        stringRedisTemplate.getRequiredConnectionFactory().getConnection().flushDb();
+        server = new MockWebServer();
+        server.start();
+        // mock 方法（self）
+        self = mock(PayNotifyServiceImpl.class);
+        when(self.updateNotifyResults(anyList(), anyList())).thenAnswer(invocation ->
+                notifyService.updateNotifyResults(invocation.getArgument(0), invocation.getArgument(1)));
+        springUtilMockedStatic = mockStatic(SpringUtil.class);
+        springUtilMockedStatic.when(() -> SpringUtil.getBean(eq(PayNotifyServiceImpl.class))).thenReturn(self);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        springUtilMockedStatic.close();
+        notifyHttpClient.dispatcher().cancelAll();
+        server.shutdown();
+        getNotifyingTasks().clear();
+        getNotifyResults().clear();
+    }
+
+    @Test
+    public void testExecuteNotify_slowHost() throws Exception {
+        // mock 数据：回调接口很慢，直到 release 才响应
+        CountDownLatch release = new CountDownLatch(1);
+        server.setDispatcher(new Dispatcher() {
+
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                release.await(10, TimeUnit.SECONDS);
+                return new MockResponse().setBody(SUCCESS_BODY);
+            }
+
+        });
+        List<PayNotifyTaskDO> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(insertTask());
+        }
+
+        // 调用
+        assertEquals(4, notifyService.executeNotify());
+        // 断言：单个域名只有 maxRequestsPerHost 个请求在执行，其余在 Dispatcher 中排队
+        waitUntil(() -> server.getRequestCount() == 2);
+        assertEquals(2, notifyHttpClient.dispatcher().runningCallsCount());
+        assertEquals(2, notifyHttpClient.dispatcher().queuedCallsCount());
+        tasks.forEach(task -> assertTrue(hasLock(task.getId())));
+
+        // 调用：PayNotifyJob 再次执行，排队中的任务不会重复发起
+        notifyService.executeNotify();
+        // 断言
+        assertEquals(2, notifyHttpClient.dispatcher().runningCallsCount());
+        assertEquals(2, notifyHttpClient.dispatcher().queuedCallsCount());
+
+        // 调用：排队时间超过锁的过期时间前，续期
+        String lockKey = String.format(PAY_NOTIFY_LOCK, tasks.get(3).getId());
+        stringRedisTemplate.expire(lockKey, 1, TimeUnit.SECONDS);
+        notifyService.renewNotifyLocks();
+        // 断言
+        Long expire = stringRedisTemplate.getExpire(lockKey, TimeUnit.MILLISECONDS);
+        assertTrue(expire != null && expire > 1000);
+
+        // 调用：回调接口恢复，全部完成后写入
+        release.countDown();
+        waitUntil(() -> getNotifyResults().size() == 4);
+        notifyService.flushNotifyResults();
+        // 断言：每个任务只通知一次
+        assertEquals(4, server.getRequestCount());
+        tasks.forEach(task -> {
+            PayNotifyTaskDO dbTask = notifyTaskMapper.selectById(task.getId());
+            assertEquals(PayNotifyStatusEnum.SUCCESS.getStatus(), dbTask.getStatus());
+            assertEquals(1, dbTask.getNotifyTimes());
+            assertEquals(1, notifyLogMapper.selectListByTaskId(task.getId()).size());
+            assertFalse(hasLock(task.getId()));
+        });
+        assertTrue(getNotifyingTasks().isEmpty());
+        verify(notifyProducer, never()).sendNotifyMessage(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    public void testFlushNotifyResults_batch() throws Exception {
+        // mock 数据
+        server.setDispatcher(new StaticDispatcher(SUCCESS_BODY));
+        for (int i = 0; i < 3; i++) {
+            insertTask();
+        }
+        notifyService.executeNotify();
+        waitUntil(() -> getNotifyResults().size() == 3);
+
+        // 调用
+        notifyService.flushNotifyResults();
+        // 断言：按 flushBatchSize 分批写入
+        verify(self).updateNotifyResults(argThat(list -> list.size() == 2), anyList());
+        verify(self).updateNotifyResults(argThat(list -> list.size() == 1), anyList());
+        assertEquals(3, notifyLogMapper.selectCount());
+        assertTrue(getNotifyResults().isEmpty());
+    }
+
+    @Test
+    public void testFlushNotifyResults_retry() throws Exception {
+        // mock 数据：接入方返回失败
+        server.setDispatcher(new StaticDispatcher(FAILURE_BODY));
+        PayNotifyTaskDO task = insertTask();
+        notifyService.executeNotify(task.getId(), 0);
+        waitUntil(() -> getNotifyResults().size() == 1);
+
+        // 调用
+        notifyService.flushNotifyResults();
+        // 断言：更新任务，并发送在 nextNotifyTime 到达的延迟消息
+        PayNotifyTaskDO dbTask = notifyTaskMapper.selectById(task.getId());
+        assertEquals(PayNotifyStatusEnum.REQUEST_SUCCESS.getStatus(), dbTask.getStatus());
+        assertEquals(1, dbTask.getNotifyTimes());
+        assertTrue(dbTask.getNextNotifyTime().isAfter(LocalDateTime.now()));
+        verify(notifyProducer).sendNotifyMessage(eq(task.getId()), eq(1), eq(dbTask.getNextNotifyTime()));
+        // 断言：释放锁
+        assertFalse(hasLock(task.getId()));
+        assertTrue(getNotifyingTasks().isEmpty());
+    }
+
+    @Test
+    public void testFlushNotifyResults_stale() throws Exception {
+        // mock 数据
+        server.setDispatcher(new StaticDispatcher(FAILURE_BODY));
+        PayNotifyTaskDO task = insertTask();
+        notifyService.executeNotify(task.getId(), 0);
+        waitUntil(() -> getNotifyResults().size() == 1);
+        // mock 数据：锁过期后，其它节点已经通知并写入
+        notifyTaskMapper.updateById(new PayNotifyTaskDO().setId(task.getId()).setNotifyTimes(1)
+                .setStatus(PayNotifyStatusEnum.SUCCESS.getStatus()));
+
+        // 调用
+        notifyService.flushNotifyResults();
+        // 断言：丢弃过期的结果，不覆盖任务，不记录日志，不发送延迟消息
+        PayNotifyTaskDO dbTask = notifyTaskMapper.selectById(task.getId());
+        assertEquals(PayNotifyStatusEnum.SUCCESS.getStatus(), dbTask.getStatus());
+        assertEquals(1, dbTask.getNotifyTimes());
+        assertEquals(0L, notifyLogMapper.selectCount());
+        verify(notifyProducer, never()).sendNotifyMessage(anyLong(), anyInt(), any());
+        // 断言：释放锁
+        assertFalse(hasLock(task.getId()));
+        assertTrue(getNotifyingTasks().isEmpty());
+    }
+
+    @Test
+    public void testExecuteNotify_notifyTimesChanged() {
+        // mock 数据
+        PayNotifyTaskDO task = insertTask();
+
+        // 调用：通知次数不匹配
+        notifyService.executeNotify(new PayNotifyTaskDO().setId(task.getId()).setNotifyTimes(1));
+        // 断言：不发起通知，并释放锁
+        assertEquals(0, server.getRequestCount());
+        assertFalse(hasLock(task.getId()));
+        assertTrue(getNotifyingTasks().isEmpty());
+    }
+
+    @Test
+    public void testExecuteNotify_locked() {
+        // mock 数据：锁被其它节点持有
+        PayNotifyTaskDO task = insertTask();
+        stringRedisTemplate.opsForValue().set(String.format(PAY_NOTIFY_LOCK, task.getId()), "other");
+
+        // 调用
+        notifyService.executeNotify(task);
+        // 断言：不发起通知，也不释放其它节点的锁
+        assertEquals(0, server.getRequestCount());
+        assertEquals("other", stringRedisTemplate.opsForValue().get(String.format(PAY_NOTIFY_LOCK, task.getId())));
+        assertTrue(getNotifyingTasks().isEmpty());
+    }
+
+    private PayNotifyTaskDO insertTask() {
+        PayNotifyTaskDO task = new PayNotifyTaskDO().setAppId(1L).setType(PayNotifyTypeEnum.ORDER.getType())
+                .setDataId(1L).setMerchantOrderId("M" + System.nanoTime())
+                .setStatus(PayNotifyStatusEnum.WAITING.getStatus()).setNextNotifyTime(LocalDateTime.now().minusSeconds(1))
+                .setNotifyTimes(0).setMaxNotifyTimes(PayNotifyTaskDO.NOTIFY_FREQUENCY.length + 1)
+                .setNotifyUrl(server.url("/notify").toString());
+        notifyTaskMapper.insert(task);
+        return notifyTaskMapper.selectById(task.getId());
+    }
+
+    private boolean hasLock(Long id) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(String.format(PAY_NOTIFY_LOCK, id)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, String> getNotifyingTasks() {
+        return (Map<Long, String>) ReflectUtil.getFieldValue(AopTestUtils.getTargetObject(notifyService), "notifyingTasks");
+    }
+
+    private Collection<?> getNotifyResults() {
+        return (Collection<?>) ReflectUtil.getFieldValue(AopTestUtils.getTargetObject(notifyService), "notifyResults");
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * 固定返回内容的回调接口
+     */
+    private static class StaticDispatcher extends Dispatcher {
+
+        private final String body;
+
+        private StaticDispatcher(String body) {
+            this.body = body;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            return new MockResponse().setBody(body);
+        }
+
+    }
+
+}
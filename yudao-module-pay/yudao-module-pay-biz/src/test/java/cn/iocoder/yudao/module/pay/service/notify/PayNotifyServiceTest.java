@@ -14,15 +14,17 @@ import cn.iocoder.yudao.module.pay.dal.mysql.notify.PayNotifyTaskMapper;
 import cn.iocoder.yudao.module.pay.dal.redis.notify.PayNotifyLockRedisDAO;
 import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyStatusEnum;
 import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyTypeEnum;
-import cn.iocoder.yudao.module.pay.framework.job.config.PayJobConfiguration;
+import cn.iocoder.yudao.module.pay.framework.notify.config.PayNotifyConfiguration;
+import cn.iocoder.yudao.module.pay.mq.producer.notify.PayNotifyProducer;
 import cn.iocoder.yudao.module.pay.service.order.PayOrderService;
 import cn.iocoder.yudao.module.pay.service.refund.PayRefundService;
 import cn.iocoder.yudao.module.pay.service.refund.PayRefundServiceImpl;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
-import org.redisson.api.RLock;
+import org.redisson.api.RBucket;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 
@@ -38,8 +40,7 @@ import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomString;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -48,7 +49,7 @@ import static org.mockito.Mockito.*;
  * @author 芋艿
  */
 @Disabled // TODO 芋艿：后续 fix 补充的单测
-@Import({PayJobConfiguration.class, PayNotifyServiceImpl.class, PayNotifyLockRedisDAO.class})
+@Import({PayNotifyConfiguration.class, PayNotifyServiceImpl.class, PayNotifyLockRedisDAO.class})
 public class PayNotifyServiceTest extends BaseDbUnitTest {
 
     @Resource
@@ -66,6 +67,8 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
 
     @MockBean
     private RedissonClient redissonClient;
+    @MockBean
+    private PayNotifyProducer notifyProducer;
 
     @Test
     public void testCreatePayNotifyTask_order() {
@@ -93,8 +96,8 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
                             "appId", "merchantOrderId", "notifyUrl")
                     .containsExactly(type, dataId, PayNotifyStatusEnum.WAITING.getStatus(), 0, 9,
                             order.getAppId(), order.getMerchantOrderId(), order.getNotifyUrl());
-            // 断言，调用
-            verify(payNotifyService).executeNotify0(eq(dbTask));
+            // 断言，调用（发起通知前，会先加锁）
+            verify(redissonClient, atLeastOnce()).getBucket(eq("pay_notify:lock:" + dbTask.getId()), any(Codec.class));
         }
     }
 
@@ -124,13 +127,13 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
                             "appId", "merchantOrderId", "notifyUrl")
                     .containsExactly(type, dataId, PayNotifyStatusEnum.WAITING.getStatus(), 0, 9,
                             refund.getAppId(), refund.getMerchantOrderId(), refund.getNotifyUrl());
-            // 断言，调用
-            verify(payNotifyService).executeNotify0(eq(dbTask));
+            // 断言，调用（发起通知前，会先加锁）
+            verify(redissonClient, atLeastOnce()).getBucket(eq("pay_notify:lock:" + dbTask.getId()), any(Codec.class));
         }
     }
 
     @Test
-    public void testExecuteNotify() throws InterruptedException {
+    public void testExecuteNotify() {
         // mock 数据（notify）
         PayNotifyTaskDO dbTask01 = randomPojo(PayNotifyTaskDO.class,
                 o -> o.setStatus(PayNotifyStatusEnum.WAITING.getStatus())
@@ -167,15 +170,18 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
         assertEquals(count, 3);
     }
 
-    @Test // 由于 HttpUtil 不好 mock，所以只测试异常的情况
-    public void testExecuteNotify0_exception() {
+    @Test // 由于 OkHttpClient 不好 mock，所以只测试异常的情况
+    public void testExecuteNotify_exception() {
         // mock 数据（task）
         PayNotifyTaskDO task = randomPojo(PayNotifyTaskDO.class, o -> o.setType(-1)
                 .setNotifyTimes(0).setMaxNotifyTimes(9));
         notifyTaskMapper.insert(task);
+        // mock 方法（lock）
+        mockLock(task.getId());
 
         // 调用
-        notifyService.executeNotify0(task);
+        notifyService.executeNotify(task);
+        notifyService.flushNotifyResults();
         // 断言，task
         PayNotifyTaskDO dbTask = notifyTaskMapper.selectById(task.getId());
         assertNotEquals(task.getNextNotifyTime(), dbTask.getNextNotifyTime());
@@ -200,10 +206,9 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
         CommonResult<?> invokeResult = CommonResult.success(randomString());
 
         // 调用
-        notifyService.processNotifyResult(task, invokeResult, null);
+        PayNotifyTaskDO dbTask = notifyService.processNotifyResult(task, invokeResult, null);
         // 断言
-        PayNotifyTaskDO dbTask = notifyTaskMapper.selectById(task.getId());
-        assertEquals(task.getNextNotifyTime(), dbTask.getNextNotifyTime());
+        assertNull(dbTask.getNextNotifyTime());
         assertNotEquals(task.getLastExecuteTime(), dbTask.getNextNotifyTime());
         assertEquals(dbTask.getNotifyTimes(), 1);
         assertEquals(dbTask.getStatus(), PayNotifyStatusEnum.SUCCESS.getStatus());
@@ -219,10 +224,9 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
         CommonResult<?> invokeResult = CommonResult.error(BAD_REQUEST);
 
         // 调用
-        notifyService.processNotifyResult(task, invokeResult, null);
+        PayNotifyTaskDO dbTask = notifyService.processNotifyResult(task, invokeResult, null);
         // 断言
-        PayNotifyTaskDO dbTask = notifyTaskMapper.selectById(task.getId());
-        assertEquals(task.getNextNotifyTime(), dbTask.getNextNotifyTime());
+        assertNull(dbTask.getNextNotifyTime());
         assertNotEquals(task.getLastExecuteTime(), dbTask.getNextNotifyTime());
         assertEquals(dbTask.getNotifyTimes(), 9);
         assertEquals(dbTask.getStatus(), PayNotifyStatusEnum.FAILURE.getStatus());
@@ -238,9 +242,8 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
         CommonResult<?> invokeResult = CommonResult.error(BAD_REQUEST);
 
         // 调用
-        notifyService.processNotifyResult(task, invokeResult, null);
+        PayNotifyTaskDO dbTask = notifyService.processNotifyResult(task, invokeResult, null);
         // 断言
-        PayNotifyTaskDO dbTask = notifyTaskMapper.selectById(task.getId());
         assertNotEquals(task.getNextNotifyTime(), dbTask.getNextNotifyTime());
         assertNotEquals(task.getLastExecuteTime(), dbTask.getNextNotifyTime());
         assertEquals(dbTask.getNotifyTimes(), 1);
@@ -258,9 +261,8 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
         RuntimeException invokeException = new RuntimeException();
 
         // 调用
-        notifyService.processNotifyResult(task, invokeResult, invokeException);
+        PayNotifyTaskDO dbTask = notifyService.processNotifyResult(task, invokeResult, invokeException);
         // 断言
-        PayNotifyTaskDO dbTask = notifyTaskMapper.selectById(task.getId());
         assertNotEquals(task.getNextNotifyTime(), dbTask.getNextNotifyTime());
         assertNotEquals(task.getLastExecuteTime(), dbTask.getNextNotifyTime());
         assertEquals(dbTask.getNotifyTimes(), 1);
@@ -339,13 +341,15 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
         assertPojoEquals(dbLog, logList.get(0));
     }
 
+    @SuppressWarnings("unchecked")
     private void mockLock(Long id) {
-        RLock lock = mock(RLock.class);
+        RBucket<Object> lock = mock(RBucket.class);
+        when(lock.trySet(any(), anyLong(), any())).thenReturn(true);
         if (id == null) {
-            when(redissonClient.getLock(anyString()))
+            when(redissonClient.getBucket(anyString(), any(Codec.class)))
                     .thenReturn(lock);
         } else {
-            when(redissonClient.getLock(eq("pay_notify:lock:" + id)))
+            when(redissonClient.getBucket(eq("pay_notify:lock:" + id), any(Codec.class)))
                     .thenReturn(lock);
         }
     }
@@ -2,6 +2,7 @@ package cn.iocoder.yudao.module.pay.service.order;
 
 import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.mybatis.core.enums.SqlConstants;
 import cn.iocoder.yudao.framework.pay.core.client.PayClient;
 import cn.iocoder.yudao.framework.pay.core.client.dto.order.PayOrderRespDTO;
 import cn.iocoder.yudao.framework.pay.core.enums.channel.PayChannelEnum;
@@ -23,9 +24,13 @@ import cn.iocoder.yudao.module.pay.dal.redis.no.PayNoRedisDAO;
 import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyTypeEnum;
 import cn.iocoder.yudao.module.pay.enums.order.PayOrderStatusEnum;
 import cn.iocoder.yudao.module.pay.framework.pay.config.PayProperties;
+import cn.iocoder.yudao.module.pay.framework.sync.config.PaySyncConfiguration;
+import cn.iocoder.yudao.module.pay.framework.sync.config.PaySyncProperties;
 import cn.iocoder.yudao.module.pay.service.app.PayAppService;
 import cn.iocoder.yudao.module.pay.service.channel.PayChannelService;
 import cn.iocoder.yudao.module.pay.service.notify.PayNotifyService;
+import com.baomidou.mybatisplus.annotation.DbType;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
@@ -35,6 +40,7 @@ import org.springframework.context.annotation.Import;
 import javax.annotation.Resource;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.*;
@@ -55,7 +61,7 @@ import static org.mockito.Mockito.*;
  *
  * @author 芋艿
  */
-@Import({PayOrderServiceImpl.class, PayNoRedisDAO.class})
+@Import({PayOrderServiceImpl.class, PayNoRedisDAO.class, PaySyncConfiguration.class})
 public class PayOrderServiceTest extends BaseDbAndRedisUnitTest {
 
     @Resource
@@ -65,6 +71,8 @@ public class PayOrderServiceTest extends BaseDbAndRedisUnitTest {
     private PayOrderMapper orderMapper;
     @Resource
     private PayOrderExtensionMapper orderExtensionMapper;
+    @Resource
+    private PaySyncProperties syncProperties;
 
     @MockBean
     private PayProperties properties;
@@ -78,6 +86,14 @@ public class PayOrderServiceTest extends BaseDbAndRedisUnitTest {
     @BeforeEach
     public void setUp() {
         when(properties.getOrderNotifyUrl()).thenReturn("http://127.0.0.1");
+        // 同步、过期任务的分批查询，使用 limitN 语句
+        SqlConstants.init(DbType.MYSQL);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // 恢复默认的每批数量，避免影响共用 Spring 容器的其它单元测试
+        syncProperties.setPageSize(new PaySyncProperties().getPageSize());
     }
 
     @Test
@@ -949,6 +965,58 @@ public class PayOrderServiceTest extends BaseDbAndRedisUnitTest {
         }
     }
 
+    @Test
+    public void testSyncOrder_multiPage() {
+        PayOrderServiceImpl payOrderServiceImpl = mock(PayOrderServiceImpl.class);
+        try (MockedStatic<SpringUtil> springUtilMockedStatic = mockStatic(SpringUtil.class)) {
+            springUtilMockedStatic.when(() -> SpringUtil.getBean(eq(PayOrderServiceImpl.class)))
+                    .thenReturn(payOrderServiceImpl);
+
+            // 准备参数：每批 2 条
+            syncProperties.setPageSize(2);
+            LocalDateTime minCreateTime = LocalDateTime.now().minus(Duration.ofMinutes(10));
+            // mock 数据（PayOrderExtensionDO）：5 条待支付，分 3 批
+            for (int i = 1; i <= 5; i++) {
+                String no = "P" + i;
+                orderExtensionMapper.insert(randomPojo(PayOrderExtensionDO.class,
+                        o -> o.setStatus(PayOrderStatusEnum.WAITING.getStatus())
+                                .setChannelId(10L).setNo(no)
+                                .setCreateTime(LocalDateTime.now())));
+            }
+            // mock 数据（PayOrderExtensionDO）：创建时间过早，不同步
+            orderExtensionMapper.insert(randomPojo(PayOrderExtensionDO.class,
+                    o -> o.setStatus(PayOrderStatusEnum.WAITING.getStatus())
+                            .setChannelId(10L).setNo("P0")
+                            .setCreateTime(LocalDateTime.now().minusHours(1))));
+            // mock 方法（PayClient）：P2、P4 已支付；P3 查询异常；其它仍待支付
+            PayClient client = mock(PayClient.class);
+            when(channelService.getPayClient(eq(10L))).thenReturn(client);
+            when(client.getOrder(any())).thenAnswer(invocation -> {
+                String no = invocation.getArgument(0);
+                if ("P3".equals(no)) {
+                    throw new RuntimeException("模拟渠道异常");
+                }
+                Integer status = "P2".equals(no) || "P4".equals(no) ? PayOrderStatusRespEnum.SUCCESS.getStatus()
+                        : PayOrderStatusRespEnum.WAITING.getStatus();
+                return randomPojo(PayOrderRespDTO.class, o -> o.setOutTradeNo(no).setStatus(status));
+            });
+            // mock 方法（PayChannelDO）
+            PayChannelDO channel = randomPojo(PayChannelDO.class, o -> o.setId(10L));
+            when(channelService.validPayChannel(eq(10L))).thenReturn(channel);
+
+            // 调用
+            int count = orderService.syncOrder(minCreateTime);
+            // 断言：仍待支付的拓展单，不会阻塞后续批次；每条只查询一次
+            assertEquals(count, 2);
+            for (int i = 1; i <= 5; i++) {
+                verify(client).getOrder(eq("P" + i));
+            }
+            verify(client, never()).getOrder(eq("P0"));
+            // 断言：查询异常的 P3，不影响同一批的 P4
+            verify(payOrderServiceImpl, times(4)).notifyOrder(same(channel), any(PayOrderRespDTO.class));
+        }
+    }
+
     @Test
     public void testExpireOrder_orderExtension_isSuccess() {
         // mock 数据（PayOrderDO）
@@ -1099,4 +1167,48 @@ public class PayOrderServiceTest extends BaseDbAndRedisUnitTest {
                 "updateTime", "updater");
     }
 
+    @Test
+    public void testExpireOrder_multiPage() {
+        // 准备参数：每批 2 条
+        syncProperties.setPageSize(2);
+        // mock 数据（PayOrderDO、PayOrderExtensionDO）：5 个过期的待支付订单，分 3 批
+        List<PayOrderDO> orders = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            PayOrderDO order = randomPojo(PayOrderDO.class,
+                    o -> o.setStatus(PayOrderStatusEnum.WAITING.getStatus())
+                            .setExpireTime(addTime(Duration.ofMinutes(-1))));
+            orderMapper.insert(order);
+            orders.add(order);
+            String no = "P" + i;
+            orderExtensionMapper.insert(randomPojo(PayOrderExtensionDO.class,
+                    o -> o.setStatus(PayOrderStatusEnum.WAITING.getStatus())
+                            .setOrderId(order.getId()).setNo(no)
+                            .setChannelId(10L)));
+        }
+        // mock 方法（PayClient）：P3 查询异常；其它已关闭
+        PayClient client = mock(PayClient.class);
+        when(channelService.getPayClient(eq(10L))).thenReturn(client);
+        when(client.getOrder(any())).thenAnswer(invocation -> {
+            String no = invocation.getArgument(0);
+            if ("P3".equals(no)) {
+                throw new RuntimeException("模拟渠道异常");
+            }
+            return randomPojo(PayOrderRespDTO.class, o -> o.setOutTradeNo(no)
+                    .setStatus(PayOrderStatusRespEnum.CLOSED.getStatus()));
+        });
+
+        // 调用
+        int count = orderService.expireOrder();
+        // 断言：查询异常的订单等待下次过期，不影响其它订单
+        assertEquals(count, 4);
+        for (int i = 0; i < orders.size(); i++) {
+            Integer expectedStatus = i == 2 ? PayOrderStatusEnum.WAITING.getStatus()
+                    : PayOrderStatusEnum.CLOSED.getStatus();
+            assertEquals(expectedStatus, orderMapper.selectById(orders.get(i).getId()).getStatus());
+        }
+        for (int i = 1; i <= 5; i++) {
+            verify(client).getOrder(eq("P" + i));
+        }
+    }
+
 }
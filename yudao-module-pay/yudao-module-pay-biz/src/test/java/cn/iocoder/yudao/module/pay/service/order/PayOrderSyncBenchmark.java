@@ -0,0 +1,183 @@
+package cn.iocoder.yudao.module.pay.service.order;
+
+import cn.hutool.core.util.ReflectUtil;
+import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.pay.core.client.PayClient;
+import cn.iocoder.yudao.framework.pay.core.client.dto.order.PayOrderRespDTO;
+import cn.iocoder.yudao.framework.pay.core.client.impl.NonePayClientConfig;
+import cn.iocoder.yudao.framework.pay.core.client.impl.mock.MockPayClient;
+import cn.iocoder.yudao.module.pay.dal.dataobject.channel.PayChannelDO;
+import cn.iocoder.yudao.module.pay.dal.dataobject.order.PayOrderExtensionDO;
+import cn.iocoder.yudao.module.pay.dal.mysql.order.PayOrderExtensionMapper;
+import cn.iocoder.yudao.module.pay.enums.order.PayOrderStatusEnum;
+import cn.iocoder.yudao.module.pay.framework.sync.config.PaySyncProperties;
+import cn.iocoder.yudao.module.pay.framework.sync.core.PayChannelSyncExecutor;
+import cn.iocoder.yudao.module.pay.service.channel.PayChannelService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * {@link PayOrderServiceImpl#syncOrder(java.time.LocalDateTime)} 支付订单同步的基准测试，单位为「毫秒/次」，即每次同步 Job 的耗时
+ *
+ * 对比两种方式：
+ * 1. serial：通过同步的 Executor 逐个查询支付渠道，相当于原实现
+ * 2. concurrent：通过 {@link PayChannelSyncExecutor} 并发查询支付渠道
+ *
+ * 支付渠道使用基于 {@link MockPayClient} 的 {@link LatencyMockPayClient}，通过 {@link #CHANNEL_LATENCY_NANOS} 模拟耗时，
+ * 无需真实的支付渠道，即可离线压测
+ *
+ * 非单元测试，通过 main 方法运行
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayOrderSyncBenchmark {
+
+    /**
+     * 模拟的单次支付渠道查询耗时：20 毫秒
+     */
+    private static final long CHANNEL_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    /**
+     * 支付渠道的数量，订单均匀分布在各个渠道
+     */
+    private static final int CHANNEL_COUNT = 4;
+
+    /**
+     * 待同步的支付拓展单数量
+     */
+    @Param({"100", "1000"})
+    private int orderCount;
+
+    private ThreadPoolTaskExecutor executor;
+    private StaticApplicationContext applicationContext;
+    private PayOrderServiceImpl serialOrderService;
+    private PayOrderServiceImpl concurrentOrderService;
+
+    @Setup
+    public void setup() {
+        // 准备数据
+        List<PayOrderExtensionDO> orderExtensions = new ArrayList<>(orderCount);
+        for (long i = 1; i <= orderCount; i++) {
+            orderExtensions.add(new PayOrderExtensionDO().setId(i).setOrderId(i).setNo("P" + i)
+                    .setChannelId(i % CHANNEL_COUNT + 1).setStatus(PayOrderStatusEnum.WAITING.getStatus()));
+        }
+
+        // 模拟数据库分页查询。使用 stubOnly 模式，避免 Mockito 记录调用历史导致内存膨胀
+        PayOrderExtensionMapper orderExtensionMapper = mock(PayOrderExtensionMapper.class);
+        when(orderExtensionMapper.selectListByStatusAndCreateTimeGe(anyInt(), any(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> {
+                    Long lastId = invocation.getArgument(2);
+                    Integer limit = invocation.getArgument(3);
+                    return orderExtensions.stream().filter(orderExtension -> orderExtension.getId() > lastId)
+                            .limit(limit).collect(Collectors.toList());
+                });
+        // 模拟支付渠道
+        PayChannelService channelService = mock(PayChannelService.class);
+        for (long channelId = 1; channelId <= CHANNEL_COUNT; channelId++) {
+            PayClient payClient = new LatencyMockPayClient(channelId);
+            when(channelService.getPayClient(eq(channelId))).thenReturn(payClient);
+            PayChannelDO channel = new PayChannelDO().setId(channelId);
+            channel.setTenantId(1L);
+            when(channelService.validPayChannel(eq(channelId))).thenReturn(channel);
+        }
+
+        // 创建 PayOrderServiceImpl
+        PaySyncProperties syncProperties = new PaySyncProperties();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(syncProperties.getConcurrency());
+        executor.setQueueCapacity(syncProperties.getPageSize());
+        executor.setThreadNamePrefix("pay-sync-");
+        executor.initialize();
+        // 渠道限流设置得足够大，只对比并发查询的效果
+        serialOrderService = createOrderService(orderExtensionMapper, channelService, syncProperties,
+                new PayChannelSyncExecutor((Executor) Runnable::run, Double.MAX_VALUE));
+        concurrentOrderService = createOrderService(orderExtensionMapper, channelService, syncProperties,
+                new PayChannelSyncExecutor(executor, Double.MAX_VALUE));
+
+        // notifyOrder 通过 SpringUtil 获得自身的代理对象，所以注册到 Spring 容器中
+        applicationContext = new StaticApplicationContext();
+        applicationContext.getBeanFactory().registerSingleton("payOrderServiceImpl", concurrentOrderService);
+        applicationContext.refresh();
+        new SpringUtil().setApplicationContext(applicationContext);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public int serial() {
+        return serialOrderService.syncOrder(null);
+    }
+
+    @Benchmark
+    public int concurrent() {
+        return concurrentOrderService.syncOrder(null);
+    }
+
+    private static PayOrderServiceImpl createOrderService(PayOrderExtensionMapper orderExtensionMapper,
+                                                          PayChannelService channelService,
+                                                          PaySyncProperties syncProperties,
+                                                          PayChannelSyncExecutor channelSyncExecutor) {
+        PayOrderServiceImpl orderService = new PayOrderServiceImpl();
+        ReflectUtil.setFieldValue(orderService, "orderExtensionMapper", orderExtensionMapper);
+        ReflectUtil.setFieldValue(orderService, "channelService", channelService);
+        ReflectUtil.setFieldValue(orderService, "syncProperties", syncProperties);
+        ReflectUtil.setFieldValue(orderService, "channelSyncExecutor", channelSyncExecutor);
+        return orderService;
+    }
+
+    private static <T> T mock(Class<T> clazz) {
+        return Mockito.mock(clazz, withSettings().stubOnly());
+    }
+
+    /**
+     * 模拟渠道耗时的 {@link MockPayClient}，查询结果均为等待支付，即同步 Job 的常见情况
+     */
+    private static class LatencyMockPayClient extends MockPayClient {
+
+        public LatencyMockPayClient(Long channelId) {
+            super(channelId, new NonePayClientConfig());
+        }
+
+        @Override
+        protected PayOrderRespDTO doGetOrder(String outTradeNo) {
+            LockSupport.parkNanos(CHANNEL_LATENCY_NANOS);
+            return PayOrderRespDTO.waitingOf(null, null, outTradeNo, null);
+        }
+
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PayOrderSyncBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
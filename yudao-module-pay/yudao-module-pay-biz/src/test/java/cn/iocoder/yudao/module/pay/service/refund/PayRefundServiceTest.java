@@ -2,6 +2,7 @@ package cn.iocoder.yudao.module.pay.service.refund;
 
 import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.mybatis.core.enums.SqlConstants;
 import cn.iocoder.yudao.framework.pay.core.client.PayClient;
 import cn.iocoder.yudao.framework.pay.core.client.dto.refund.PayRefundRespDTO;
 import cn.iocoder.yudao.framework.pay.core.client.dto.refund.PayRefundUnifiedReqDTO;
@@ -21,10 +22,14 @@ import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyTypeEnum;
 import cn.iocoder.yudao.module.pay.enums.order.PayOrderStatusEnum;
 import cn.iocoder.yudao.module.pay.enums.refund.PayRefundStatusEnum;
 import cn.iocoder.yudao.module.pay.framework.pay.config.PayProperties;
+import cn.iocoder.yudao.module.pay.framework.sync.config.PaySyncConfiguration;
+import cn.iocoder.yudao.module.pay.framework.sync.config.PaySyncProperties;
 import cn.iocoder.yudao.module.pay.service.app.PayAppService;
 import cn.iocoder.yudao.module.pay.service.channel.PayChannelService;
 import cn.iocoder.yudao.module.pay.service.notify.PayNotifyService;
 import cn.iocoder.yudao.module.pay.service.order.PayOrderService;
+import com.baomidou.mybatisplus.annotation.DbType;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
@@ -54,7 +59,7 @@ import static org.mockito.Mockito.*;
  *
  * @author 芋艿
  */
-@Import({PayRefundServiceImpl.class, PayNoRedisDAO.class})
+@Import({PayRefundServiceImpl.class, PayNoRedisDAO.class, PaySyncConfiguration.class})
 public class PayRefundServiceTest extends BaseDbAndRedisUnitTest {
 
     @Resource
@@ -62,6 +67,8 @@ public class PayRefundServiceTest extends BaseDbAndRedisUnitTest {
 
     @Resource
     private PayRefundMapper refundMapper;
+    @Resource
+    private PaySyncProperties syncProperties;
 
     @MockBean
     private PayProperties payProperties;
@@ -77,6 +84,14 @@ public class PayRefundServiceTest extends BaseDbAndRedisUnitTest {
     @BeforeEach
     public void setUp() {
         when(payProperties.getRefundNotifyUrl()).thenReturn("http://127.0.0.1");
+        // 同步、过期任务的分批查询，使用 limitN 语句
+        SqlConstants.init(DbType.MYSQL);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // 恢复默认的每批数量，避免影响共用 Spring 容器的其它单元测试
+        syncProperties.setPageSize(new PaySyncProperties().getPageSize());
     }
 
     @Test
@@ -697,4 +712,48 @@ public class PayRefundServiceTest extends BaseDbAndRedisUnitTest {
         assertEquals(count, 0);
     }
 
+    @Test
+    public void testSyncRefund_multiPage() {
+        PayRefundServiceImpl payRefundServiceImpl = mock(PayRefundServiceImpl.class);
+        try (MockedStatic<SpringUtil> springUtilMockedStatic = mockStatic(SpringUtil.class)) {
+            springUtilMockedStatic.when(() -> SpringUtil.getBean(eq(PayRefundServiceImpl.class)))
+                    .thenReturn(payRefundServiceImpl);
+
+            // 准备参数：每批 2 条
+            syncProperties.setPageSize(2);
+            // mock 数据：5 条待退款，分 3 批
+            for (int i = 1; i <= 5; i++) {
+                String no = "R" + i;
+                refundMapper.insert(randomPojo(PayRefundDO.class, o -> o.setAppId(1L).setChannelId(10L)
+                        .setStatus(PayRefundStatusEnum.WAITING.getStatus())
+                        .setOrderNo("P110").setNo(no)));
+            }
+            // mock 方法（client）：R3 查询异常；R2 仍待退款；其它退款成功
+            PayClient client = mock(PayClient.class);
+            when(channelService.getPayClient(eq(10L))).thenReturn(client);
+            when(client.getRefund(eq("P110"), any())).thenAnswer(invocation -> {
+                String no = invocation.getArgument(1);
+                if ("R3".equals(no)) {
+                    throw new RuntimeException("模拟渠道异常");
+                }
+                Integer status = "R2".equals(no) ? PayRefundStatusRespEnum.WAITING.getStatus()
+                        : PayRefundStatusRespEnum.SUCCESS.getStatus();
+                return randomPojo(PayRefundRespDTO.class, o -> o.setOutRefundNo(no).setStatus(status));
+            });
+            // mock 方法（channel）
+            PayChannelDO channel = randomPojo(PayChannelDO.class, o -> o.setId(10L));
+            when(channelService.validPayChannel(eq(10L))).thenReturn(channel);
+
+            // 调用
+            int count = refundService.syncRefund();
+            // 断言：仍待退款的退款单，不会阻塞后续批次；每条只查询一次
+            assertEquals(count, 3);
+            for (int i = 1; i <= 5; i++) {
+                verify(client).getRefund(eq("P110"), eq("R" + i));
+            }
+            // 断言：查询异常的 R3，不影响同一批的 R4
+            verify(payRefundServiceImpl, times(4)).notifyRefund(same(channel), any(PayRefundRespDTO.class));
+        }
+    }
+
 }
@@ -0,0 +1,444 @@
+package cn.iocoder.yudao.module.pay.service.wallet;
+
+import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbAndRedisUnitTest;
+import cn.iocoder.yudao.module.pay.convert.wallet.PayWalletTransactionConvert;
+import cn.iocoder.yudao.module.pay.dal.dataobject.wallet.PayWalletDO;
+import cn.iocoder.yudao.module.pay.dal.dataobject.wallet.PayWalletTransactionDO;
+import cn.iocoder.yudao.module.pay.dal.mysql.wallet.PayWalletMapper;
+import cn.iocoder.yudao.module.pay.dal.mysql.wallet.PayWalletTransactionMapper;
+import cn.iocoder.yudao.module.pay.dal.redis.wallet.PayWalletBalanceRedisDAO;
+import cn.iocoder.yudao.module.pay.enums.wallet.PayWalletBizTypeEnum;
+import cn.iocoder.yudao.module.pay.framework.wallet.config.PayWalletConfiguration;
+import cn.iocoder.yudao.module.pay.framework.wallet.config.PayWalletProperties;
+import cn.iocoder.yudao.module.pay.service.order.PayOrderService;
+import cn.iocoder.yudao.module.pay.service.refund.PayRefundService;
+import cn.iocoder.yudao.module.pay.service.wallet.bo.WalletTransactionCreateReqBO;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomString;
+import static cn.iocoder.yudao.module.pay.dal.redis.wallet.PayWalletBalanceRedisDAO.*;
+import static cn.iocoder.yudao.module.pay.enums.ErrorCodeConstants.WALLET_BALANCE_NOT_ENOUGH;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link PayWalletServiceImpl} 的单元测试，覆盖行锁模式与账本模式下的余额变更
+ *
+ * @author 芋道源码
+ */
+@Import({PayWalletServiceImpl.class, PayWalletBalanceRedisDAO.class, PayWalletConfiguration.class})
+public class PayWalletServiceImplTest extends BaseDbAndRedisUnitTest {
+
+    @Resource
+    private PayWalletServiceImpl walletService;
+
+    @Resource
+    private PayWalletProperties walletProperties;
+    @Resource
+    private PayWalletMapper walletMapper;
+    @Resource
+    private PayWalletTransactionMapper walletTransactionMapper;
+    @Resource
+    private PayWalletBalanceRedisDAO walletBalanceRedisDAO;
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 钱包流水 Service 与钱包 Service 循环依赖，所以 mock 后直接读写 DB
+     */
+    @MockBean
+    private PayWalletTransactionService walletTransactionService;
+    @MockBean
+    private PayOrderService orderService;
+    @MockBean
+    private PayRefundService refundService;
+
+    private MockedStatic<SpringUtil> springUtilMockedStatic;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.getRequiredConnectionFactory().getConnection().flushDb();
+        // mock 方法：自身的代理对象
+        springUtilMockedStatic = mockStatic(SpringUtil.class);
+        springUtilMockedStatic.when(() -> SpringUtil.getBean(eq(PayWalletServiceImpl.class))).thenReturn(walletService);
+        // mock 方法：钱包流水
+        when(walletTransactionService.createWalletTransaction(any())).thenAnswer(invocation -> {
+            WalletTransactionCreateReqBO bo = invocation.getArgument(0);
+            PayWalletTransactionDO transaction = PayWalletTransactionConvert.INSTANCE.convert(bo).setNo(randomString());
+            walletTransactionMapper.insert(transaction);
+            return transaction;
+        });
+        when(walletTransactionService.getWalletTransactionMaxId(any(), any(), any())).thenAnswer(invocation ->
+                walletTransactionMapper.selectMaxId(invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2)));
+        when(walletTransactionService.getWalletTransactionPriceSumMap(any(), any(), any())).thenAnswer(invocation ->
+                walletTransactionMapper.selectPriceSumMapByBizType(invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        springUtilMockedStatic.close();
+        walletProperties.setLedgerEnable(false);
+        walletProperties.setLedgerCompactDelay(Duration.ofMinutes(1));
+    }
+
+    // ========== 行锁模式 ==========
+
+    @Test
+    public void testReduceWalletBalance_rowLock() {
+        // mock 数据
+        Long walletId = createWallet(100, 0);
+
+        // 调用
+        PayWalletTransactionDO transaction = walletService.reduceWalletBalance(walletId, 1L,
+                PayWalletBizTypeEnum.PAYMENT, 30);
+        // 断言
+        assertEquals(70, transaction.getBalance());
+        assertEquals(-30, transaction.getPrice());
+        assertWallet(walletId, 70, 0, 30, 0, null);
+        assertFalse(walletBalanceRedisDAO.hasBalance(walletId));
+    }
+
+    @Test
+    public void testReduceWalletBalance_rowLockNotEnough() {
+        // mock 数据
+        Long walletId = createWallet(100, 0);
+
+        // 调用，并断言
+        assertServiceException(() -> walletService.reduceWalletBalance(walletId, 1L,
+                PayWalletBizTypeEnum.PAYMENT, 130), WALLET_BALANCE_NOT_ENOUGH);
+        assertWallet(walletId, 100, 0, 0, 0, null);
+    }
+
+    // ========== 账本模式 ==========
+
+    @Test
+    public void testReduceWalletBalance_ledger() {
+        // mock 数据
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 0);
+
+        // 调用
+        PayWalletTransactionDO transaction = walletService.reduceWalletBalance(walletId, 1L,
+                PayWalletBizTypeEnum.PAYMENT, 30);
+        // 断言：只变更 Redis 中的余额，DB 中的钱包，只初始化水位
+        assertEquals(70, transaction.getBalance());
+        assertLedgerBalance(walletId, 70, 0, 30, 0);
+        assertWallet(walletId, 100, 0, 0, 0, 0L);
+        assertEquals(Collections.singleton(walletId), walletBalanceRedisDAO.getPendingWalletIds());
+        // 断言：查询时，使用 Redis 中的余额
+        assertEquals(70, walletService.getWallet(walletId).getBalance());
+    }
+
+    @Test
+    public void testReduceWalletBalance_ledgerNotEnough() {
+        // mock 数据
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 0);
+
+        // 调用，并断言
+        assertServiceException(() -> walletService.reduceWalletBalance(walletId, 1L,
+                PayWalletBizTypeEnum.PAYMENT, 130), WALLET_BALANCE_NOT_ENOUGH);
+        assertLedgerBalance(walletId, 100, 0, 0, 0);
+        assertEquals(0L, walletTransactionMapper.selectCount());
+    }
+
+    @Test
+    public void testReduceWalletBalance_ledgerRollback() {
+        // mock 数据
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 0);
+
+        // 调用：调用方的事务回滚
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            walletService.reduceWalletBalance(walletId, 1L, PayWalletBizTypeEnum.PAYMENT, 30);
+            assertLedgerBalance(walletId, 70, 0, 30, 0);
+            status.setRollbackOnly();
+        });
+        // 断言：Redis 中的余额，也被回滚
+        assertLedgerBalance(walletId, 100, 0, 0, 0);
+        assertEquals(0L, walletTransactionMapper.selectCount());
+        assertNull(walletBalanceRedisDAO.getInflightTransactionMinStartTime(walletId, 0));
+    }
+
+    @Test
+    public void testReduceWalletBalance_ledgerInflight() {
+        // mock 数据
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 0);
+
+        // 调用
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            walletService.reduceWalletBalance(walletId, 1L, PayWalletBizTypeEnum.PAYMENT, 30);
+            // 断言：事务提交前，记录为进行中的事务
+            assertNotNull(walletBalanceRedisDAO.getInflightTransactionMinStartTime(walletId, 0));
+        });
+        // 断言：事务提交后，移除
+        assertNull(walletBalanceRedisDAO.getInflightTransactionMinStartTime(walletId, 0));
+    }
+
+    @Test
+    public void testAddWalletBalance_ledgerReload() {
+        // mock 数据：Redis 中的余额丢失，存在尚未同步的钱包流水
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 0);
+        walletService.reduceWalletBalance(walletId, 1L, PayWalletBizTypeEnum.PAYMENT, 30);
+        walletService.addWalletBalance(walletId, "2", PayWalletBizTypeEnum.RECHARGE, 50);
+        stringRedisTemplate.getRequiredConnectionFactory().getConnection().flushDb();
+
+        // 调用
+        PayWalletTransactionDO transaction = walletService.addWalletBalance(walletId, "3",
+                PayWalletBizTypeEnum.RECHARGE, 10);
+        // 断言：重新加载时，包含尚未同步的钱包流水
+        assertEquals(130, transaction.getBalance());
+        assertLedgerBalance(walletId, 130, 0, 30, 60);
+        assertEquals(Collections.singleton(walletId), walletBalanceRedisDAO.getPendingWalletIds());
+    }
+
+    @Test
+    public void testAddWalletBalance_ledgerLoadLocked() throws Exception {
+        // mock 数据
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 0);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // mock 方法：加载过程中，其它节点已经加载余额
+            CountDownLatch locked = new CountDownLatch(1);
+            Future<?> loader = executor.submit(() -> walletBalanceRedisDAO.lock(walletId, () -> {
+                locked.countDown();
+                sleep(200);
+                walletBalanceRedisDAO.loadBalance(new PayWalletDO().setId(walletId).setBalance(80)
+                        .setFreezePrice(0).setTotalExpense(20).setTotalRecharge(0));
+            }));
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            // 调用
+            PayWalletTransactionDO transaction = walletService.addWalletBalance(walletId, "1",
+                    PayWalletBizTypeEnum.RECHARGE, 10);
+            loader.get(5, TimeUnit.SECONDS);
+            // 断言：等待锁后，不覆盖其它节点加载的余额
+            assertEquals(90, transaction.getBalance());
+            assertLedgerBalance(walletId, 90, 0, 20, 10);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFreezePrice_ledger() {
+        // mock 数据
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 100);
+
+        // 调用：冻结，没有钱包流水，直接更新 DB
+        walletService.freezePrice(walletId, 30);
+        // 断言
+        assertLedgerBalance(walletId, 70, 30, 0, 100);
+        assertWallet(walletId, 70, 30, 0, 100, 0L);
+
+        // 调用：充值退款，扣减冻结金额
+        PayWalletTransactionDO transaction = walletService.reduceWalletBalance(walletId, 1L,
+                PayWalletBizTypeEnum.RECHARGE_REFUND, 30);
+        // 断言
+        assertEquals(70, transaction.getBalance());
+        assertLedgerBalance(walletId, 70, 0, 0, 70);
+
+        // 调用：同步
+        backdateWalletTransactions();
+        walletService.compactWalletBalance();
+        // 断言
+        assertWallet(walletId, 70, 0, 0, 70, transaction.getId());
+    }
+
+    @Test
+    public void testCompactWalletBalance() {
+        // mock 数据
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 0);
+        walletService.reduceWalletBalance(walletId, 1L, PayWalletBizTypeEnum.PAYMENT, 30);
+        PayWalletTransactionDO transaction = walletService.addWalletBalance(walletId, "2",
+                PayWalletBizTypeEnum.RECHARGE, 50);
+        backdateWalletTransactions();
+
+        // 调用
+        assertEquals(1, walletService.compactWalletBalance());
+        // 断言：同步到 DB，并推进水位
+        assertWallet(walletId, 120, 0, 30, 50, transaction.getId());
+        assertLedgerBalance(walletId, 120, 0, 30, 50);
+        assertTrue(walletBalanceRedisDAO.getPendingWalletIds().isEmpty());
+
+        // 调用：Redis 中的余额丢失后，重新加载，不会重复计算已同步的钱包流水
+        walletBalanceRedisDAO.deleteBalance(walletId);
+        PayWalletTransactionDO transaction2 = walletService.addWalletBalance(walletId, "3",
+                PayWalletBizTypeEnum.RECHARGE, 10);
+        // 断言
+        assertEquals(130, transaction2.getBalance());
+    }
+
+    @Test
+    public void testCompactWalletBalance_delay() {
+        // mock 数据：一条钱包流水超过同步延迟，一条还在同步延迟内
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 0);
+        PayWalletTransactionDO transaction = walletService.reduceWalletBalance(walletId, 1L,
+                PayWalletBizTypeEnum.PAYMENT, 30);
+        backdateWalletTransactions();
+        walletService.addWalletBalance(walletId, "2", PayWalletBizTypeEnum.RECHARGE, 50);
+
+        // 调用
+        walletService.compactWalletBalance();
+        // 断言：只同步超过同步延迟的钱包流水，钱包继续等待下一次同步
+        assertWallet(walletId, 70, 0, 30, 0, transaction.getId());
+        assertEquals(Collections.singleton(walletId), walletBalanceRedisDAO.getPendingWalletIds());
+    }
+
+    @Test
+    public void testCompactWalletBalance_inflight() {
+        // mock 数据：一条钱包流水在进行中的事务开始前创建，一条在之后创建并已经提交
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 0);
+        PayWalletTransactionDO transaction = walletService.addWalletBalance(walletId, "1",
+                PayWalletBizTypeEnum.RECHARGE, 10);
+        PayWalletTransactionDO transaction2 = walletService.addWalletBalance(walletId, "2",
+                PayWalletBizTypeEnum.RECHARGE, 20);
+        backdateWalletTransaction(transaction.getId(), LocalDateTime.now().minusMinutes(10));
+        backdateWalletTransaction(transaction2.getId(), LocalDateTime.now().minusMinutes(3));
+        // mock 数据：5 分钟前开始的事务，尚未提交，它的钱包流水编号可能小于 transaction2
+        walletBalanceRedisDAO.addInflightTransaction(walletId, "late",
+                System.currentTimeMillis() - Duration.ofMinutes(5).toMillis());
+
+        // 调用
+        walletService.compactWalletBalance();
+        // 断言：水位不越过进行中的事务，钱包继续等待下一次同步
+        assertWallet(walletId, 110, 0, 0, 10, transaction.getId());
+        assertEquals(Collections.singleton(walletId), walletBalanceRedisDAO.getPendingWalletIds());
+
+        // 调用：事务结束后，继续同步
+        walletBalanceRedisDAO.removeInflightTransaction(walletId, "late");
+        walletService.compactWalletBalance();
+        // 断言
+        assertWallet(walletId, 130, 0, 0, 30, transaction2.getId());
+        assertTrue(walletBalanceRedisDAO.getPendingWalletIds().isEmpty());
+    }
+
+    @Test
+    public void testCompactWalletBalance_inflightTimeout() {
+        // mock 数据：超过事务超时时间仍未移除的事务，例如说节点宕机
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 0);
+        PayWalletTransactionDO transaction = walletService.addWalletBalance(walletId, "1",
+                PayWalletBizTypeEnum.RECHARGE, 10);
+        backdateWalletTransactions();
+        walletBalanceRedisDAO.addInflightTransaction(walletId, "dead",
+                System.currentTimeMillis() - Duration.ofMinutes(20).toMillis());
+
+        // 调用
+        walletService.compactWalletBalance();
+        // 断言：视为已经结束，不再阻塞同步
+        assertWallet(walletId, 110, 0, 0, 10, transaction.getId());
+        assertNull(walletBalanceRedisDAO.getInflightTransactionMinStartTime(walletId, 0));
+    }
+
+    @Test
+    public void testUpdateWalletBalance_ledgerDisableAndEnable() {
+        // mock 数据：账本模式下，存在尚未同步的钱包流水
+        walletProperties.setLedgerEnable(true);
+        Long walletId = createWallet(100, 0);
+        walletService.reduceWalletBalance(walletId, 1L, PayWalletBizTypeEnum.PAYMENT, 30);
+
+        // 调用：关闭账本模式
+        walletProperties.setLedgerEnable(false);
+        PayWalletTransactionDO transaction = walletService.reduceWalletBalance(walletId, 2L,
+                PayWalletBizTypeEnum.PAYMENT, 10);
+        // 断言：先同步尚未同步的钱包流水，再行锁变更；Redis 中的余额被删除
+        assertEquals(60, transaction.getBalance());
+        assertWallet(walletId, 60, 0, 40, 0, null);
+        assertFalse(walletBalanceRedisDAO.hasBalance(walletId));
+
+        // 调用：再次开启账本模式
+        walletProperties.setLedgerEnable(true);
+        PayWalletTransactionDO transaction2 = walletService.reduceWalletBalance(walletId, 3L,
+                PayWalletBizTypeEnum.PAYMENT, 5);
+        // 断言：从 DB 重新加载余额，水位从已同步的钱包流水开始
+        assertEquals(55, transaction2.getBalance());
+        assertWallet(walletId, 60, 0, 40, 0, transaction.getId());
+
+        // 调用：同步
+        backdateWalletTransactions();
+        walletService.compactWalletBalance();
+        // 断言：行锁模式下的钱包流水，不会重复同步
+        assertWallet(walletId, 55, 0, 45, 0, transaction2.getId());
+    }
+
+    private Long createWallet(int balance, int totalRecharge) {
+        PayWalletDO wallet = new PayWalletDO().setUserId(1L).setUserType(1).setBalance(balance)
+                .setFreezePrice(0).setTotalExpense(0).setTotalRecharge(totalRecharge);
+        walletMapper.insert(wallet);
+        return wallet.getId();
+    }
+
+    /**
+     * 将钱包流水的创建时间提前，超过同步延迟
+     */
+    private void backdateWalletTransactions() {
+        walletTransactionMapper.update(null, new LambdaUpdateWrapper<PayWalletTransactionDO>()
+                .set(PayWalletTransactionDO::getCreateTime, LocalDateTime.now().minusMinutes(10)));
+    }
+
+    private void backdateWalletTransaction(Long id, LocalDateTime createTime) {
+        walletTransactionMapper.update(null, new LambdaUpdateWrapper<PayWalletTransactionDO>()
+                .set(PayWalletTransactionDO::getCreateTime, createTime).eq(PayWalletTransactionDO::getId, id));
+    }
+
+    private void assertWallet(Long walletId, int balance, int freezePrice, int totalExpense, int totalRecharge,
+                              Long ledgerTransactionId) {
+        PayWalletDO wallet = walletMapper.selectById(walletId);
+        assertEquals(balance, wallet.getBalance());
+        assertEquals(freezePrice, wallet.getFreezePrice());
+        assertEquals(totalExpense, wallet.getTotalExpense());
+        assertEquals(totalRecharge, wallet.getTotalRecharge());
+        assertEquals(ledgerTransactionId, wallet.getLedgerTransactionId());
+    }
+
+    private void assertLedgerBalance(Long walletId, int balance, int freezePrice, int totalExpense, int totalRecharge) {
+        Map<String, Integer> result = walletBalanceRedisDAO.getBalance(walletId);
+        assertNotNull(result);
+        assertEquals(balance, result.get(FIELD_BALANCE));
+        assertEquals(freezePrice, result.get(FIELD_FREEZE_PRICE));
+        assertEquals(totalExpense, result.get(FIELD_TOTAL_EXPENSE));
+        assertEquals(totalRecharge, result.get(FIELD_TOTAL_RECHARGE));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -116,6 +116,7 @@ CREATE TABLE IF NOT EXISTS `pay_notify_task` (
     `type`               tinyint(4)    NOT NULL,
     `data_id`           bigint(20)    NOT NULL,
     `merchant_order_id`           varchar(64)    NOT NULL,
+    `merchant_transfer_id`        varchar(64)    NULL     DEFAULT NULL,
     `status`             tinyint(4)    NOT NULL,
     `next_notify_time`       datetime(0)   NULL     DEFAULT NULL,
     `last_execute_time`       datetime(0)   NULL     DEFAULT NULL,
@@ -144,3 +145,39 @@ CREATE TABLE IF NOT EXISTS `pay_notify_log` (
     `deleted`            bit(1)        NOT NULL DEFAULT FALSE,
     PRIMARY KEY ("id")
 ) COMMENT = '支付通知日志';
+
+CREATE TABLE IF NOT EXISTS `pay_wallet` (
+    "id" number NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    `user_id`               bigint(20)    NOT NULL,
+    `user_type`             tinyint(4)    NOT NULL,
+    `balance`               int           NOT NULL DEFAULT 0,
+    `freeze_price`          int           NOT NULL DEFAULT 0,
+    `total_expense`         int           NOT NULL DEFAULT 0,
+    `total_recharge`        int           NOT NULL DEFAULT 0,
+    `ledger_transaction_id` bigint(20)    NULL     DEFAULT NULL,
+    `creator`               varchar(64)   NULL     DEFAULT '',
+    `create_time`           datetime(0)   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `updater`               varchar(64)   NULL     DEFAULT '',
+    `update_time`           datetime(0)   NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    `deleted`               bit(1)        NOT NULL DEFAULT FALSE,
+    `tenant_id`             bigint(20)    NOT NULL DEFAULT 0,
+    PRIMARY KEY ("id")
+) COMMENT = '会员钱包';
+
+CREATE TABLE IF NOT EXISTS `pay_wallet_transaction` (
+    "id" number NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    `no`                 varchar(64)   NOT NULL,
+    `wallet_id`          bigint(20)    NOT NULL,
+    `biz_type`           tinyint(4)    NOT NULL,
+    `biz_id`             varchar(64)   NOT NULL,
+    `title`              varchar(128)  NOT NULL,
+    `price`              int           NOT NULL,
+    `balance`            int           NOT NULL,
+    `creator`            varchar(64)   NULL     DEFAULT '',
+    `create_time`        datetime(0)   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `updater`            varchar(64)   NULL     DEFAULT '',
+    `update_time`        datetime(0)   NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    `deleted`            bit(1)        NOT NULL DEFAULT FALSE,
+    `tenant_id`          bigint(20)    NOT NULL DEFAULT 0,
+    PRIMARY KEY ("id")
+) COMMENT = '会员钱包流水';
@@ -7,6 +7,7 @@ import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogV2PageReqDTO;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogV2RespDTO;
 
 import javax.validation.Valid;
+import java.util.List;
 
 /**
  * 操作日志 API 接口
@@ -22,6 +23,13 @@ public interface OperateLogApi {
      */
     void createOperateLog(@Valid OperateLogCreateReqDTO createReqDTO);
 
+    /**
+     * 批量创建操作日志
+     *
+     * @param createReqDTOs 请求列表
+     */
+    void createOperateLogBatch(@Valid List<OperateLogCreateReqDTO> createReqDTOs);
+
     /**
      * 创建操作日志
      *
@@ -29,6 +37,13 @@ public interface OperateLogApi {
      */
     void createOperateLogV2(@Valid OperateLogV2CreateReqDTO createReqDTO);
 
+    /**
+     * 批量创建操作日志
+     *
+     * @param createReqDTOs 请求列表
+     */
+    void createOperateLogV2Batch(@Valid List<OperateLogV2CreateReqDTO> createReqDTOs);
+
     /**
      * 获取指定模块的指定数据的操作日志分页
      *
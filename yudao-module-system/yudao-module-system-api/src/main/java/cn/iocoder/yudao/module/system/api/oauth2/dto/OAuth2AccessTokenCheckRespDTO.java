@@ -3,6 +3,7 @@ package cn.iocoder.yudao.module.system.api.oauth2.dto;
 import lombok.Data;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -29,5 +30,9 @@ public class OAuth2AccessTokenCheckRespDTO implements Serializable {
      * 授权范围的数组
      */
     private List<String> scopes;
+    /**
+     * 过期时间
+     */
+    private LocalDateTime expiresTime;
 
 }
@@ -39,12 +39,22 @@ public class OperateLogApiImpl implements OperateLogApi {
         operateLogService.createOperateLog(createReqDTO);
     }
 
+    @Override
+    public void createOperateLogBatch(List<OperateLogCreateReqDTO> createReqDTOs) {
+        operateLogService.createOperateLogBatch(createReqDTOs);
+    }
+
     @Override
     @Async
     public void createOperateLogV2(OperateLogV2CreateReqDTO createReqDTO) {
         operateLogService.createOperateLogV2(createReqDTO);
     }
 
+    @Override
+    public void createOperateLogV2Batch(List<OperateLogV2CreateReqDTO> createReqDTOs) {
+        operateLogService.createOperateLogV2Batch(createReqDTOs);
+    }
+
     @Override
     public PageResult<OperateLogV2RespDTO> getOperateLogPage(OperateLogV2PageReqDTO pageReqVO) {
         PageResult<OperateLogV2DO> operateLogPage = operateLogService.getOperateLogPage(pageReqVO);
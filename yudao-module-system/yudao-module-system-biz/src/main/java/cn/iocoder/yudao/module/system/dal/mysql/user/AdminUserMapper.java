@@ -25,6 +25,18 @@ public interface AdminUserMapper extends BaseMapperX<AdminUserDO> {
         return selectOne(AdminUserDO::getMobile, mobile);
     }
 
+    default List<AdminUserDO> selectListByUsernames(Collection<String> usernames) {
+        return selectList(AdminUserDO::getUsername, usernames);
+    }
+
+    default List<AdminUserDO> selectListByEmails(Collection<String> emails) {
+        return selectList(AdminUserDO::getEmail, emails);
+    }
+
+    default List<AdminUserDO> selectListByMobiles(Collection<String> mobiles) {
+        return selectList(AdminUserDO::getMobile, mobiles);
+    }
+
     default PageResult<AdminUserDO> selectPage(UserPageReqVO reqVO, Collection<Long> deptIds) {
         return selectPage(reqVO, new LambdaQueryWrapperX<AdminUserDO>()
                 .likeIfPresent(AdminUserDO::getUsername, reqVO.getUsername())
@@ -0,0 +1,37 @@
+package cn.iocoder.yudao.module.system.mq.consumer.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.mq.message.permission.PermissionIndexRefreshMessage;
+import cn.iocoder.yudao.module.system.service.permission.PermissionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+import static cn.hutool.core.util.ObjectUtil.defaultIfNull;
+
+/**
+ * 针对 {@link PermissionIndexRefreshMessage} 的消费者
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class PermissionIndexRefreshConsumer extends AbstractRedisChannelMessageListener<PermissionIndexRefreshMessage> {
+
+    @Resource
+    private PermissionService permissionService;
+
+    @Override
+    public void onMessage(PermissionIndexRefreshMessage message) {
+        log.info("[onMessage][收到 Permission 刷新消息({})]", message);
+        if (message.getRoleId() != null) {
+            permissionService.refreshLocalRoleMenu(message.getRoleId(), message.getMenuIds());
+        }
+        if (message.getMenuId() != null) {
+            permissionService.refreshLocalMenu(message.getMenuId(), message.getPermission(),
+                    defaultIfNull(message.getMenuDeleted(), false));
+        }
+    }
+
+}
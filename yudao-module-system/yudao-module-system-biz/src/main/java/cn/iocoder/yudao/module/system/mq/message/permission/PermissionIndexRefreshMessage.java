@@ -0,0 +1,48 @@
+package cn.iocoder.yudao.module.system.mq.message.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import cn.iocoder.yudao.module.system.service.permission.bo.PermissionIndexBO;
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * 权限索引刷新的广播消息
+ *
+ * 角色的菜单、菜单的权限标识变更时，通知各个节点增量更新 {@link PermissionIndexBO}。
+ * 消息携带变更后的数据，各节点无需回查数据库
+ *
+ * @author 芋道源码
+ */
+@Data
+public class PermissionIndexRefreshMessage extends AbstractRedisChannelMessage {
+
+    // ========== 角色的菜单变更 ==========
+
+    /**
+     * 角色编号
+     */
+    private Long roleId;
+    /**
+     * 角色拥有的菜单编号集合
+     *
+     * 为空时，说明角色被删除
+     */
+    private Set<Long> menuIds;
+
+    // ========== 菜单的权限标识变更 ==========
+
+    /**
+     * 菜单编号
+     */
+    private Long menuId;
+    /**
+     * 菜单的权限标识
+     */
+    private String permission;
+    /**
+     * 菜单是否被删除
+     */
+    private Boolean menuDeleted;
+
+}
@@ -0,0 +1,37 @@
+package cn.iocoder.yudao.module.system.mq.producer.oauth2;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.security.core.token.AccessTokenInvalidateMessage;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * OAuth2 令牌相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Component
+public class OAuth2TokenProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link AccessTokenInvalidateMessage} 消息，广播各节点移除访问令牌的本地缓存
+     *
+     * @param accessTokens 访问令牌数组
+     */
+    public void sendAccessTokenInvalidateMessage(Collection<String> accessTokens) {
+        if (CollUtil.isEmpty(accessTokens)) {
+            return;
+        }
+        AccessTokenInvalidateMessage message = new AccessTokenInvalidateMessage()
+                .setAccessTokens(new ArrayList<>(accessTokens));
+        redisMQTemplate.send(message);
+    }
+
+}
@@ -8,6 +8,8 @@ import cn.iocoder.yudao.module.system.controller.admin.logger.vo.operatelog.Oper
 import cn.iocoder.yudao.module.system.dal.dataobject.logger.OperateLogDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.logger.OperateLogV2DO;
 
+import java.util.List;
+
 /**
  * 操作日志 Service 接口
  *
@@ -22,6 +24,13 @@ public interface OperateLogService {
      */
     void createOperateLog(OperateLogCreateReqDTO createReqDTO);
 
+    /**
+     * 批量记录操作日志
+     *
+     * @param createReqDTOs 创建请求列表
+     */
+    void createOperateLogBatch(List<OperateLogCreateReqDTO> createReqDTOs);
+
     /**
      * 获得操作日志分页列表
      *
@@ -39,6 +48,13 @@ public interface OperateLogService {
      */
     void createOperateLogV2(OperateLogV2CreateReqDTO createReqDTO);
 
+    /**
+     * 批量记录操作日志 V2
+     *
+     * @param createReqDTOs 创建请求列表
+     */
+    void createOperateLogV2Batch(List<OperateLogV2CreateReqDTO> createReqDTOs);
+
     /**
      * 获得操作日志分页列表
      *
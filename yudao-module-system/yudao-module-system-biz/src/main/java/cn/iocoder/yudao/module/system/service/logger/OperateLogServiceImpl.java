@@ -5,6 +5,7 @@ import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.common.util.string.StrUtils;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogCreateReqDTO;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogV2CreateReqDTO;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogV2PageReqDTO;
@@ -21,7 +22,9 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.util.Collection;
+import java.util.List;
 
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.module.system.dal.dataobject.logger.OperateLogDO.JAVA_METHOD_ARGS_MAX_LENGTH;
 import static cn.iocoder.yudao.module.system.dal.dataobject.logger.OperateLogDO.RESULT_MAX_LENGTH;
@@ -46,10 +49,24 @@ public class OperateLogServiceImpl implements OperateLogService {
 
     @Override
     public void createOperateLog(OperateLogCreateReqDTO createReqDTO) {
+        operateLogMapper.insert(buildOperateLog(createReqDTO));
+    }
+
+    @Override
+    public void createOperateLogBatch(List<OperateLogCreateReqDTO> createReqDTOs) {
+        if (CollUtil.isEmpty(createReqDTOs)) {
+            return;
+        }
+        // 批量写入在后台线程执行，没有请求的租户上下文，所以按照租户分组写入
+        TenantUtils.executeByTenant(createReqDTOs, OperateLogCreateReqDTO::getTenantId, tenantCreateReqDTOs ->
+                operateLogMapper.insertBatch(convertList(tenantCreateReqDTOs, this::buildOperateLog)));
+    }
+
+    private OperateLogDO buildOperateLog(OperateLogCreateReqDTO createReqDTO) {
         OperateLogDO log = BeanUtils.toBean(createReqDTO, OperateLogDO.class);
         log.setJavaMethodArgs(StrUtils.maxLength(log.getJavaMethodArgs(), JAVA_METHOD_ARGS_MAX_LENGTH));
         log.setResultData(StrUtils.maxLength(log.getResultData(), RESULT_MAX_LENGTH));
-        operateLogMapper.insert(log);
+        return log;
     }
 
     @Override
@@ -74,6 +91,15 @@ public class OperateLogServiceImpl implements OperateLogService {
         operateLogV2Mapper.insert(log);
     }
 
+    @Override
+    public void createOperateLogV2Batch(List<OperateLogV2CreateReqDTO> createReqDTOs) {
+        if (CollUtil.isEmpty(createReqDTOs)) {
+            return;
+        }
+        TenantUtils.executeByTenant(createReqDTOs, OperateLogV2CreateReqDTO::getTenantId, tenantCreateReqDTOs ->
+                operateLogV2Mapper.insertBatch(BeanUtils.toBean(tenantCreateReqDTOs, OperateLogV2DO.class)));
+    }
+
     @Override
     public PageResult<OperateLogV2DO> getOperateLogPage(OperateLogV2PageReqDTO pageReqDTO) {
         return operateLogV2Mapper.selectPage(pageReqDTO);
@@ -56,6 +56,8 @@ public class MenuServiceImpl implements MenuService {
         MenuDO menu = BeanUtils.toBean(createReqVO, MenuDO.class);
         initMenuProperty(menu);
         menuMapper.insert(menu);
+        // 刷新权限标识
+        permissionService.processMenuUpdated(menu.getId(), menu.getPermission());
         // 返回
         return menu.getId();
     }
@@ -77,6 +79,8 @@ public class MenuServiceImpl implements MenuService {
         MenuDO updateObj = BeanUtils.toBean(updateReqVO, MenuDO.class);
         initMenuProperty(updateObj);
         menuMapper.updateById(updateObj);
+        // 刷新权限标识
+        permissionService.processMenuUpdated(updateObj.getId(), updateObj.getPermission());
     }
 
     @Override
@@ -57,6 +57,31 @@ public interface PermissionService {
      */
     void processMenuDeleted(Long menuId);
 
+    /**
+     * 处理菜单创建、更新时，刷新权限标识
+     *
+     * @param menuId 菜单编号
+     * @param permission 权限标识
+     */
+    void processMenuUpdated(Long menuId, String permission);
+
+    /**
+     * 刷新本地的权限索引中，角色拥有的菜单
+     *
+     * @param roleId 角色编号
+     * @param menuIds 菜单编号集合；为空时，说明角色被删除
+     */
+    void refreshLocalRoleMenu(Long roleId, Collection<Long> menuIds);
+
+    /**
+     * 刷新本地的权限索引中，菜单的权限标识
+     *
+     * @param menuId 菜单编号
+     * @param permission 权限标识
+     * @param deleted 菜单是否被删除
+     */
+    void refreshLocalMenu(Long menuId, String permission, boolean deleted);
+
     /**
      * 获得角色拥有的菜单编号集合
      *
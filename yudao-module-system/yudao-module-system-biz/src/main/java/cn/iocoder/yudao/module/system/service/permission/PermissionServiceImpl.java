@@ -7,6 +7,7 @@ import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.datapermission.core.annotation.DataPermission;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.system.api.permission.dto.DeptDataPermissionRespDTO;
 import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleDO;
@@ -16,7 +17,9 @@ import cn.iocoder.yudao.module.system.dal.mysql.permission.RoleMenuMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.UserRoleMapper;
 import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
 import cn.iocoder.yudao.module.system.enums.permission.DataScopeEnum;
+import cn.iocoder.yudao.module.system.mq.producer.permission.PermissionProducer;
 import cn.iocoder.yudao.module.system.service.dept.DeptService;
+import cn.iocoder.yudao.module.system.service.permission.bo.PermissionIndexBO;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
 import com.baomidou.dynamic.datasource.annotation.DSTransactional;
 import com.google.common.annotations.VisibleForTesting;
@@ -26,11 +29,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
@@ -59,6 +67,40 @@ public class PermissionServiceImpl implements PermissionService {
     @Resource
     private AdminUserService userService;
 
+    @Resource
+    private PermissionProducer permissionProducer;
+
+    /**
+     * 权限索引的本地缓存
+     *
+     * 用于 {@link #hasAnyPermissions(Long, String...)} 的判断，避免每次判断都多次访问 Redis 缓存
+     */
+    private volatile PermissionIndexBO permissionIndex = PermissionIndexBO.EMPTY;
+
+    /**
+     * 初始化 {@link #permissionIndex} 缓存
+     */
+    @PostConstruct
+    public synchronized void initLocalCache() {
+        // 第一步：查询数据。其中，角色菜单需要忽略租户，因为角色编号是全局唯一的
+        List<MenuDO> menus = menuService.getMenuList();
+        List<RoleMenuDO> roleMenus = TenantUtils.executeIgnore(() -> roleMenuMapper.selectList());
+        log.info("[initLocalCache][缓存菜单，数量为:{}；缓存角色菜单，数量为:{}]", menus.size(), roleMenus.size());
+
+        // 第二步：构建缓存
+        permissionIndex = PermissionIndexBO.build(permissionIndex.getVersion() + 1, menus, roleMenus);
+    }
+
+    /**
+     * 通过定时任务，全量刷新 {@link #permissionIndex} 缓存
+     *
+     * 目的：兜底广播消息丢失等情况。正常情况下，权限索引在事务提交后刷新并广播，参见 {@link #refreshPermissionIndexAfterCommit(Runnable)}
+     */
+    @Scheduled(initialDelay = 300, fixedRate = 300, timeUnit = TimeUnit.SECONDS)
+    public void refreshLocalCache() {
+        initLocalCache();
+    }
+
     @Override
     public boolean hasAnyPermissions(Long userId, String... permissions) {
         // 如果为空，说明已经有权限
@@ -73,41 +115,16 @@ public class PermissionServiceImpl implements PermissionService {
         }
 
         // 情况一：遍历判断每个权限，如果有一满足，说明有权限
+        Set<Long> roleIds = convertSet(roles, RoleDO::getId);
+        PermissionIndexBO index = permissionIndex;
         for (String permission : permissions) {
-            if (hasAnyPermission(roles, permission)) {
+            if (index.hasAnyRole(permission, roleIds)) {
                 return true;
             }
         }
 
         // 情况二：如果是超管，也说明有权限
-        return roleService.hasAnySuperAdmin(convertSet(roles, RoleDO::getId));
-    }
-
-    /**
-     * 判断指定角色，是否拥有该 permission 权限
-     *
-     * @param roles 指定角色数组
-     * @param permission 权限标识
-     * @return 是否拥有
-     */
-    private boolean hasAnyPermission(List<RoleDO> roles, String permission) {
-        List<Long> menuIds = menuService.getMenuIdListByPermissionFromCache(permission);
-        // 采用严格模式，如果权限找不到对应的 Menu 的话，也认为没有权限
-        if (CollUtil.isEmpty(menuIds)) {
-            return false;
-        }
-
-        // 判断是否有权限
-        Set<Long> roleIds = convertSet(roles, RoleDO::getId);
-        for (Long menuId : menuIds) {
-            // 获得拥有该菜单的角色编号集合
-            Set<Long> menuRoleIds = getSelf().getMenuRoleIdListByMenuIdFromCache(menuId);
-            // 如果有交集，说明有权限
-            if (CollUtil.containsAny(menuRoleIds, roleIds)) {
-                return true;
-            }
-        }
-        return false;
+        return roleService.hasAnySuperAdmin(roleIds);
     }
 
     @Override
@@ -131,7 +148,7 @@ public class PermissionServiceImpl implements PermissionService {
     // ========== 角色-菜单的相关方法  ==========
 
     @Override
-    @DSTransactional // 多数据源，使用 @DSTransactional 保证本地事务，以及数据源的切换
+    @Transactional(rollbackFor = Exception.class) // 需要在事务提交后，刷新权限索引，所以使用 Spring 事务
     @CacheEvict(value = RedisKeyConstants.MENU_ROLE_ID_LIST,
             allEntries = true) // allEntries 清空所有缓存，主要一次更新涉及到的 menuIds 较多，反倒批量会更快
     public void assignRoleMenu(Long roleId, Set<Long> menuIds) {
@@ -153,6 +170,13 @@ public class PermissionServiceImpl implements PermissionService {
         if (CollUtil.isNotEmpty(deleteMenuIds)) {
             roleMenuMapper.deleteListByRoleIdAndMenuIds(roleId, deleteMenuIds);
         }
+
+        // 刷新权限索引：事务提交后，本地立即生效，其它节点通过广播消息
+        Set<Long> newMenuIds = new HashSet<>(menuIdList);
+        refreshPermissionIndexAfterCommit(() -> {
+            refreshLocalRoleMenu(roleId, newMenuIds);
+            permissionProducer.sendRoleMenuRefreshMessage(roleId, newMenuIds);
+        });
     }
 
     @Override
@@ -168,12 +192,65 @@ public class PermissionServiceImpl implements PermissionService {
         userRoleMapper.deleteListByRoleId(roleId);
         // 标记删除 RoleMenu
         roleMenuMapper.deleteListByRoleId(roleId);
+
+        // 刷新权限索引：事务提交后，本地立即生效，其它节点通过广播消息
+        refreshPermissionIndexAfterCommit(() -> {
+            refreshLocalRoleMenu(roleId, Collections.emptySet());
+            permissionProducer.sendRoleMenuRefreshMessage(roleId, Collections.emptySet());
+        });
     }
 
     @Override
     @CacheEvict(value = RedisKeyConstants.MENU_ROLE_ID_LIST, key = "#menuId")
     public void processMenuDeleted(Long menuId) {
         roleMenuMapper.deleteListByMenuId(menuId);
+
+        // 刷新权限索引：事务提交后，本地立即生效，其它节点通过广播消息
+        refreshPermissionIndexAfterCommit(() -> {
+            refreshLocalMenu(menuId, null, true);
+            permissionProducer.sendMenuRefreshMessage(menuId, null, true);
+        });
+    }
+
+    @Override
+    public void processMenuUpdated(Long menuId, String permission) {
+        // 刷新权限索引：事务提交后，本地立即生效，其它节点通过广播消息
+        refreshPermissionIndexAfterCommit(() -> {
+            refreshLocalMenu(menuId, permission, false);
+            permissionProducer.sendMenuRefreshMessage(menuId, permission, false);
+        });
+    }
+
+    /**
+     * 在事务提交后，刷新权限索引，并广播给其它节点
+     *
+     * 避免事务提交前刷新，其它节点读取到未提交、或者最终回滚的数据；不在事务中时，立即刷新
+     *
+     * @param refresh 刷新逻辑
+     */
+    private static void refreshPermissionIndexAfterCommit(Runnable refresh) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                refresh.run();
+            }
+
+        });
+    }
+
+    @Override
+    public synchronized void refreshLocalRoleMenu(Long roleId, Collection<Long> menuIds) {
+        permissionIndex = permissionIndex.updateRoleMenus(roleId, menuIds);
+    }
+
+    @Override
+    public synchronized void refreshLocalMenu(Long menuId, String permission, boolean deleted) {
+        permissionIndex = permissionIndex.updateMenu(menuId, permission, deleted);
     }
 
     @Override
@@ -0,0 +1,221 @@
+package cn.iocoder.yudao.module.system.service.permission.bo;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleMenuDO;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * 权限索引 BO，用于 hasAnyPermissions 的快速判断
+ *
+ * 1. 将「权限标识 -> 菜单编号 -> 角色编号」的多次缓存查找，预先编译成「权限标识 -> 角色编号」的有序数组
+ * 2. 判断时，只需要将用户的角色编号，在有序数组中二分查找，不产生任何缓存、网络 IO
+ *
+ * 不可变对象：每次变更，都会基于当前索引，增量创建新的索引，并递增 {@link #version} 版本号。
+ * 因此，读取时无需加锁
+ *
+ * 注意：角色编号是全局唯一的，所以索引不区分租户
+ *
+ * @author 芋道源码
+ */
+public class PermissionIndexBO {
+
+    /**
+     * 空索引
+     */
+    public static final PermissionIndexBO EMPTY = new PermissionIndexBO(0L,
+            Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+    private static final long[] EMPTY_ROLE_IDS = new long[0];
+
+    /**
+     * 版本号
+     */
+    @Getter
+    private final long version;
+    /**
+     * 菜单编号与权限标识的映射
+     */
+    private final Map<Long, String> menuPermissions;
+    /**
+     * 权限标识与菜单编号的映射
+     */
+    private final Map<String, Set<Long>> permissionMenuIds;
+    /**
+     * 菜单编号与角色编号的映射
+     */
+    private final Map<Long, Set<Long>> menuRoleIds;
+    /**
+     * 权限标识与角色编号的映射，角色编号是有序数组，方便二分查找
+     */
+    private final Map<String, long[]> permissionRoleIds;
+
+    private PermissionIndexBO(long version, Map<Long, String> menuPermissions, Map<String, Set<Long>> permissionMenuIds,
+                              Map<Long, Set<Long>> menuRoleIds, Map<String, long[]> permissionRoleIds) {
+        this.version = version;
+        this.menuPermissions = menuPermissions;
+        this.permissionMenuIds = permissionMenuIds;
+        this.menuRoleIds = menuRoleIds;
+        this.permissionRoleIds = permissionRoleIds;
+    }
+
+    /**
+     * 全量构建索引
+     *
+     * @param version 版本号
+     * @param menus 菜单列表
+     * @param roleMenus 角色菜单列表
+     * @return 索引
+     */
+    public static PermissionIndexBO build(long version, Collection<MenuDO> menus, Collection<RoleMenuDO> roleMenus) {
+        Map<Long, String> menuPermissions = new HashMap<>();
+        Map<String, Set<Long>> permissionMenuIds = new HashMap<>();
+        for (MenuDO menu : menus) {
+            if (StrUtil.isEmpty(menu.getPermission())) {
+                continue;
+            }
+            menuPermissions.put(menu.getId(), menu.getPermission());
+            permissionMenuIds.computeIfAbsent(menu.getPermission(), key -> new HashSet<>()).add(menu.getId());
+        }
+        Map<Long, Set<Long>> menuRoleIds = new HashMap<>();
+        for (RoleMenuDO roleMenu : roleMenus) {
+            menuRoleIds.computeIfAbsent(roleMenu.getMenuId(), key -> new HashSet<>()).add(roleMenu.getRoleId());
+        }
+        Map<String, long[]> permissionRoleIds = new HashMap<>();
+        permissionMenuIds.keySet().forEach(permission -> permissionRoleIds.put(permission,
+                buildRoleIds(permissionMenuIds.get(permission), menuRoleIds)));
+        return new PermissionIndexBO(version, menuPermissions, permissionMenuIds, menuRoleIds, permissionRoleIds);
+    }
+
+    /**
+     * 判断角色，是否拥有该权限标识
+     *
+     * @param permission 权限标识
+     * @param roleIds 角色编号数组
+     * @return 是否拥有
+     */
+    public boolean hasAnyRole(String permission, Collection<Long> roleIds) {
+        // 采用严格模式，如果权限找不到对应的 Menu 的话，也认为没有权限
+        long[] permissionRoleIdArray = permissionRoleIds.get(permission);
+        if (permissionRoleIdArray == null || permissionRoleIdArray.length == 0) {
+            return false;
+        }
+        for (Long roleId : roleIds) {
+            if (Arrays.binarySearch(permissionRoleIdArray, roleId) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 增量更新角色拥有的菜单
+     *
+     * @param roleId 角色编号
+     * @param menuIds 角色拥有的菜单编号；为空时，说明角色被删除
+     * @return 新的索引
+     */
+    public PermissionIndexBO updateRoleMenus(Long roleId, Collection<Long> menuIds) {
+        Set<Long> newMenuIds = new HashSet<>(CollUtil.emptyIfNull(menuIds));
+        Map<Long, Set<Long>> newMenuRoleIds = new HashMap<>(menuRoleIds);
+        Set<String> changedPermissions = new HashSet<>();
+        // 移除角色，不再拥有的菜单
+        menuRoleIds.forEach((menuId, roleIds) -> {
+            if (!roleIds.contains(roleId) || newMenuIds.contains(menuId)) {
+                return;
+            }
+            Set<Long> newRoleIds = new HashSet<>(roleIds);
+            newRoleIds.remove(roleId);
+            newMenuRoleIds.put(menuId, newRoleIds);
+            CollectionUtils.addIfNotNull(changedPermissions, menuPermissions.get(menuId));
+        });
+        // 添加角色，新拥有的菜单
+        newMenuIds.forEach(menuId -> {
+            Set<Long> roleIds = menuRoleIds.getOrDefault(menuId, Collections.emptySet());
+            if (roleIds.contains(roleId)) {
+                return;
+            }
+            Set<Long> newRoleIds = new HashSet<>(roleIds);
+            newRoleIds.add(roleId);
+            newMenuRoleIds.put(menuId, newRoleIds);
+            CollectionUtils.addIfNotNull(changedPermissions, menuPermissions.get(menuId));
+        });
+        return rebuild(menuPermissions, permissionMenuIds, newMenuRoleIds, changedPermissions);
+    }
+
+    /**
+     * 增量更新菜单的权限标识
+     *
+     * @param menuId 菜单编号
+     * @param permission 权限标识；为空时，说明菜单被删除，或者没有权限标识
+     * @param deleted 菜单是否被删除；被删除时，会移除该菜单授予角色的关系
+     * @return 新的索引
+     */
+    public PermissionIndexBO updateMenu(Long menuId, String permission, boolean deleted) {
+        Map<Long, String> newMenuPermissions = new HashMap<>(menuPermissions);
+        Map<String, Set<Long>> newPermissionMenuIds = new HashMap<>(permissionMenuIds);
+        Map<Long, Set<Long>> newMenuRoleIds = menuRoleIds;
+        Set<String> changedPermissions = new HashSet<>();
+        // 移除老的权限标识
+        String oldPermission = newMenuPermissions.remove(menuId);
+        if (oldPermission != null) {
+            Set<Long> oldMenuIds = new HashSet<>(newPermissionMenuIds.get(oldPermission));
+            oldMenuIds.remove(menuId);
+            if (oldMenuIds.isEmpty()) {
+                newPermissionMenuIds.remove(oldPermission);
+            } else {
+                newPermissionMenuIds.put(oldPermission, oldMenuIds);
+            }
+            changedPermissions.add(oldPermission);
+        }
+        // 添加新的权限标识
+        if (!deleted && StrUtil.isNotEmpty(permission)) {
+            newMenuPermissions.put(menuId, permission);
+            Set<Long> newMenuIds = new HashSet<>(newPermissionMenuIds.getOrDefault(permission, Collections.emptySet()));
+            newMenuIds.add(menuId);
+            newPermissionMenuIds.put(permission, newMenuIds);
+            changedPermissions.add(permission);
+        }
+        // 菜单被删除时，移除授予角色的关系
+        if (deleted && menuRoleIds.containsKey(menuId)) {
+            newMenuRoleIds = new HashMap<>(menuRoleIds);
+            newMenuRoleIds.remove(menuId);
+        }
+        return rebuild(newMenuPermissions, newPermissionMenuIds, newMenuRoleIds, changedPermissions);
+    }
+
+    private PermissionIndexBO rebuild(Map<Long, String> newMenuPermissions, Map<String, Set<Long>> newPermissionMenuIds,
+                                      Map<Long, Set<Long>> newMenuRoleIds, Set<String> changedPermissions) {
+        // 只重新计算变更的权限标识
+        Map<String, long[]> newPermissionRoleIds = new HashMap<>(permissionRoleIds);
+        for (String permission : changedPermissions) {
+            Set<Long> menuIds = newPermissionMenuIds.get(permission);
+            if (menuIds == null) {
+                newPermissionRoleIds.remove(permission);
+            } else {
+                newPermissionRoleIds.put(permission, buildRoleIds(menuIds, newMenuRoleIds));
+            }
+        }
+        return new PermissionIndexBO(version + 1, newMenuPermissions, newPermissionMenuIds,
+                newMenuRoleIds, newPermissionRoleIds);
+    }
+
+    private static long[] buildRoleIds(Set<Long> menuIds, Map<Long, Set<Long>> menuRoleIds) {
+        Set<Long> roleIds = new HashSet<>();
+        menuIds.forEach(menuId -> {
+            Set<Long> menuRoleIdSet = menuRoleIds.get(menuId);
+            if (menuRoleIdSet != null) {
+                roleIds.addAll(menuRoleIdSet);
+            }
+        });
+        if (roleIds.isEmpty()) {
+            return EMPTY_ROLE_IDS;
+        }
+        return roleIds.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+}
@@ -178,12 +178,34 @@ public interface AdminUserService {
     /**
      * 批量导入用户
      *
+     * 按 {@link #importUserList(List, boolean, String, UserImportRespVO)} 分批导入，每批一个事务
+     *
      * @param importUsers     导入用户列表
      * @param isUpdateSupport 是否支持更新
      * @return 导入结果
      */
     UserImportRespVO importUserList(List<UserImportExcelVO> importUsers, boolean isUpdateSupport);
 
+    /**
+     * 批量导入一批用户，结果累加到 respVO 中
+     *
+     * 一般由 Excel 分批读取时调用，每批的校验、写入都是批量操作
+     *
+     * @param importUsers     一批导入用户
+     * @param isUpdateSupport 是否支持更新
+     * @param encodedPassword 加密后的初始密码，同一次导入只需要加密一次，见 {@link #encodeInitPassword()}
+     * @param respVO          导入结果
+     */
+    void importUserList(List<UserImportExcelVO> importUsers, boolean isUpdateSupport,
+                        String encodedPassword, UserImportRespVO respVO);
+
+    /**
+     * 加密导入用户的初始密码
+     *
+     * @return 加密后的初始密码
+     */
+    String encodeInitPassword();
+
     /**
      * 获得指定状态的用户们
      *
@@ -4,8 +4,8 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.io.IoUtil;
 import cn.hutool.core.util.StrUtil;
+import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
-import cn.iocoder.yudao.framework.common.exception.ServiceException;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
@@ -41,6 +41,7 @@ import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 
@@ -53,6 +54,11 @@ import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 @Slf4j
 public class AdminUserServiceImpl implements AdminUserService {
 
+    /**
+     * 导入用户时，每批的数量
+     */
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
     @Value("${sys.user.init-password:yudaoyuanma}")
     private String userInitPassword;
 
@@ -395,41 +401,124 @@ public class AdminUserServiceImpl implements AdminUserService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class) // 添加事务，异常则回滚所有导入
     public UserImportRespVO importUserList(List<UserImportExcelVO> importUsers, boolean isUpdateSupport) {
         if (CollUtil.isEmpty(importUsers)) {
             throw exception(USER_IMPORT_LIST_IS_EMPTY);
         }
         UserImportRespVO respVO = UserImportRespVO.builder().createUsernames(new ArrayList<>())
                 .updateUsernames(new ArrayList<>()).failureUsernames(new LinkedHashMap<>()).build();
+        String encodedPassword = encodeInitPassword();
+        // 每批在各自的事务中写入，与 Excel 分批读取的导入一致，避免一次导入长时间持有事务
+        CollUtil.split(importUsers, IMPORT_BATCH_SIZE).forEach(list ->
+                getSelf().importUserList(list, isUpdateSupport, encodedPassword, respVO));
+        return respVO;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void importUserList(List<UserImportExcelVO> importUsers, boolean isUpdateSupport,
+                               String encodedPassword, UserImportRespVO respVO) {
+        // 1. 批量查询已存在的用户名、手机、邮箱、部门。关闭数据权限，避免因为没有数据权限，查询不到数据，进而导致唯一校验不正确
+        Map<String, AdminUserDO> usernameMap = new HashMap<>();
+        Set<String> mobiles = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        DataPermissionUtils.executeIgnore(() -> {
+            usernameMap.putAll(convertMap(userMapper.selectListByUsernames(
+                    convertSet(importUsers, UserImportExcelVO::getUsername, user -> StrUtil.isNotBlank(user.getUsername()))),
+                    AdminUserDO::getUsername));
+            mobiles.addAll(convertSet(userMapper.selectListByMobiles(
+                    convertSet(importUsers, UserImportExcelVO::getMobile, user -> StrUtil.isNotBlank(user.getMobile()))),
+                    AdminUserDO::getMobile));
+            emails.addAll(convertSet(userMapper.selectListByEmails(
+                    convertSet(importUsers, UserImportExcelVO::getEmail, user -> StrUtil.isNotBlank(user.getEmail()))),
+                    AdminUserDO::getEmail));
+        });
+        Map<Long, DeptDO> deptMap = deptService.getDeptMap(
+                convertSet(importUsers, UserImportExcelVO::getDeptId, user -> user.getDeptId() != null));
+
+        // 2. 逐个校验，同一批内的用户名、手机、邮箱，也需要唯一
+        List<AdminUserDO> createUsers = new ArrayList<>();
+        List<AdminUserDO> updateUsers = new ArrayList<>();
+        Set<String> importUsernames = new HashSet<>();
+        Map<String, String> failureUsernames = new LinkedHashMap<>();
         importUsers.forEach(importUser -> {
-            // 校验，判断是否有不符合的原因
-            try {
-                validateUserForCreateOrUpdate(null, null, importUser.getMobile(), importUser.getEmail(),
-                        importUser.getDeptId(), null);
-            } catch (ServiceException ex) {
-                respVO.getFailureUsernames().put(importUser.getUsername(), ex.getMessage());
-                return;
+            // 2.1 校验，判断是否有不符合的原因
+            String failure = validateUserForImport(importUser, importUsernames, mobiles, emails, deptMap);
+            AdminUserDO existUser = usernameMap.get(importUser.getUsername());
+            if (failure == null && existUser != null && !isUpdateSupport) { // 如果存在，判断是否允许更新
+                failure = USER_USERNAME_EXISTS.getMsg();
             }
-            // 判断如果不存在，在进行插入
-            AdminUserDO existUser = userMapper.selectByUsername(importUser.getUsername());
-            if (existUser == null) {
-                userMapper.insert(BeanUtils.toBean(importUser, AdminUserDO.class)
-                        .setPassword(encodePassword(userInitPassword)).setPostIds(new HashSet<>())); // 设置默认密码及空岗位编号数组
-                respVO.getCreateUsernames().add(importUser.getUsername());
+            if (failure != null) {
+                failureUsernames.put(importUser.getUsername(), failure);
                 return;
             }
-            // 如果存在，判断是否允许更新
-            if (!isUpdateSupport) {
-                respVO.getFailureUsernames().put(importUser.getUsername(), USER_USERNAME_EXISTS.getMsg());
+            // 2.2 记录将要写入的用户名、手机、邮箱，用于同一批内的唯一校验。失败的用户不记录，避免误伤后续的用户
+            importUsernames.add(importUser.getUsername());
+            if (StrUtil.isNotBlank(importUser.getMobile())) {
+                mobiles.add(importUser.getMobile());
+            }
+            if (StrUtil.isNotBlank(importUser.getEmail())) {
+                emails.add(importUser.getEmail());
+            }
+            // 2.3 判断如果不存在，在进行插入；如果存在，进行更新
+            if (existUser == null) {
+                createUsers.add(BeanUtils.toBean(importUser, AdminUserDO.class)
+                        .setPassword(encodedPassword).setPostIds(new HashSet<>())); // 设置默认密码及空岗位编号数组
                 return;
             }
             AdminUserDO updateUser = BeanUtils.toBean(importUser, AdminUserDO.class);
             updateUser.setId(existUser.getId());
-            userMapper.updateById(updateUser);
-            respVO.getUpdateUsernames().add(importUser.getUsername());
+            updateUsers.add(updateUser);
         });
-        return respVO;
+
+        // 3. 批量写入，成功后再记录结果
+        if (CollUtil.isNotEmpty(createUsers)) {
+            userMapper.insertBatch(createUsers);
+        }
+        if (CollUtil.isNotEmpty(updateUsers)) {
+            userMapper.updateBatch(updateUsers);
+        }
+        respVO.getCreateUsernames().addAll(convertList(createUsers, AdminUserDO::getUsername));
+        respVO.getUpdateUsernames().addAll(convertList(updateUsers, AdminUserDO::getUsername));
+        respVO.getFailureUsernames().putAll(failureUsernames);
+    }
+
+    /**
+     * 校验导入的用户，基于批量查询的结果，不再逐个查询数据库
+     *
+     * @param importUser 导入的用户
+     * @param importUsernames 同一批内，已导入的用户名
+     * @param mobiles 已存在的手机，包括同一批内已导入的
+     * @param emails 已存在的邮箱，包括同一批内已导入的
+     * @param deptMap 部门 Map
+     * @return 失败原因；校验通过时，返回 null
+     */
+    private String validateUserForImport(UserImportExcelVO importUser, Set<String> importUsernames,
+                                         Set<String> mobiles, Set<String> emails, Map<Long, DeptDO> deptMap) {
+        if (importUsernames.contains(importUser.getUsername())) { // 同一批内的用户名重复
+            return USER_USERNAME_EXISTS.getMsg();
+        }
+        if (StrUtil.isNotBlank(importUser.getMobile()) && mobiles.contains(importUser.getMobile())) {
+            return USER_MOBILE_EXISTS.getMsg();
+        }
+        if (StrUtil.isNotBlank(importUser.getEmail()) && emails.contains(importUser.getEmail())) {
+            return USER_EMAIL_EXISTS.getMsg();
+        }
+        if (importUser.getDeptId() != null) {
+            DeptDO dept = deptMap.get(importUser.getDeptId());
+            if (dept == null) {
+                return DEPT_NOT_FOUND.getMsg();
+            }
+            if (!CommonStatusEnum.ENABLE.getStatus().equals(dept.getStatus())) {
+                return exception(DEPT_NOT_ENABLE, dept.getName()).getMessage();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String encodeInitPassword() {
+        return encodePassword(userInitPassword);
     }
 
     @Override
@@ -452,4 +541,13 @@ public class AdminUserServiceImpl implements AdminUserService {
         return passwordEncoder.encode(password);
     }
 
+    /**
+     * 获得自身的代理对象，解决 AOP 生效问题
+     *
+     * @return 自己
+     */
+    private AdminUserServiceImpl getSelf() {
+        return SpringUtil.getBean(getClass());
+    }
+
 }
@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.module.system.service.logger;
 
 import cn.hutool.core.map.MapUtil;
+import cn.hutool.core.util.RandomUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
 import cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants;
@@ -19,7 +20,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 
 import javax.annotation.Resource;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static cn.hutool.core.util.RandomUtil.randomEle;
 import static cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants.BAD_REQUEST;
@@ -55,6 +58,24 @@ public class OperateLogServiceImplTest extends BaseDbUnitTest {
         assertPojoEquals(reqVO, operateLogDO);
     }
 
+    @Test
+    public void testCreateOperateLogBatch() {
+        List<OperateLogCreateReqDTO> reqDTOs = Arrays.asList(
+                RandomUtils.randomPojo(OperateLogCreateReqDTO.class, o -> o.setExts(null)),
+                RandomUtils.randomPojo(OperateLogCreateReqDTO.class, o -> o.setExts(null)
+                        .setResultData(RandomUtil.randomString(5000))));
+
+        // 调用
+        operateLogServiceImpl.createOperateLogBatch(reqDTOs);
+        // 断言
+        List<OperateLogDO> operateLogs = operateLogMapper.selectList();
+        assertEquals(2, operateLogs.size());
+        assertPojoEquals(reqDTOs.get(0), operateLogs.get(0));
+        assertPojoEquals(reqDTOs.get(1), operateLogs.get(1), "resultData");
+        // 断言：超长的结果被截断
+        assertEquals(OperateLogDO.RESULT_MAX_LENGTH, operateLogs.get(1).getResultData().length());
+    }
+
     @Test
     public void testGetOperateLogPage() {
         // mock（用户信息）
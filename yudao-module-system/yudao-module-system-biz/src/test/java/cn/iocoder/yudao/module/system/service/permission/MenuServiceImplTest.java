@@ -28,6 +28,7 @@ import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
 
@@ -63,6 +64,8 @@ public class MenuServiceImplTest extends BaseDbUnitTest {
         // 校验记录的属性是否正确
         MenuDO dbMenu = menuMapper.selectById(menuId);
         assertPojoEquals(reqVO, dbMenu, "id");
+        // 校验权限标识的刷新
+        verify(permissionService).processMenuUpdated(eq(menuId), eq(dbMenu.getPermission()));
     }
 
     @Test
@@ -83,6 +86,8 @@ public class MenuServiceImplTest extends BaseDbUnitTest {
         // 校验记录的属性是否正确
         MenuDO dbMenu = menuMapper.selectById(sonId);
         assertPojoEquals(reqVO, dbMenu);
+        // 校验权限标识的刷新
+        verify(permissionService).processMenuUpdated(eq(sonId), eq(dbMenu.getPermission()));
     }
 
     @Test
@@ -0,0 +1,153 @@
+package cn.iocoder.yudao.module.system.service.permission;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleMenuDO;
+import cn.iocoder.yudao.module.system.service.permission.bo.PermissionIndexBO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+
+/**
+ * {@link PermissionServiceImpl#hasAnyPermissions(Long, String...)} 的基准测试
+ *
+ * 对比「权限标识 -> 菜单编号 -> 角色编号」逐级查询缓存，与 {@link PermissionIndexBO} 权限索引的性能差异。
+ * 其中，缓存使用按值存储的 {@link ConcurrentMapCacheManager} 模拟，每次读取都会反序列化，近似 Redis 缓存的开销（不含网络 IO）
+ *
+ * 非单元测试，通过 main 方法运行
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionIndexBenchmark {
+
+    private static final int MENU_COUNT = 2000;
+    private static final int ROLE_COUNT = 200;
+    private static final int ROLE_MENU_COUNT = 300;
+
+    /**
+     * 用户拥有的角色数量
+     */
+    @Param({"1", "10", "100"})
+    private int userRoleCount;
+
+    private Cache permissionMenuIdCache;
+    private Cache menuRoleIdCache;
+    private PermissionIndexBO permissionIndex;
+
+    private Set<Long> userRoleIds;
+    private String[] permissions;
+
+    @Setup
+    public void setup() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // 构造菜单：每个菜单一个权限标识
+        List<MenuDO> menus = new ArrayList<>(MENU_COUNT);
+        for (long menuId = 1; menuId <= MENU_COUNT; menuId++) {
+            menus.add(new MenuDO().setId(menuId).setPermission("system:menu" + menuId + ":query"));
+        }
+        // 构造角色菜单：每个角色随机授予若干菜单
+        List<RoleMenuDO> roleMenus = new ArrayList<>(ROLE_COUNT * ROLE_MENU_COUNT);
+        for (long roleId = 1; roleId <= ROLE_COUNT; roleId++) {
+            Set<Long> menuIds = new HashSet<>();
+            while (menuIds.size() < ROLE_MENU_COUNT) {
+                menuIds.add((long) random.nextInt(1, MENU_COUNT + 1));
+            }
+            for (Long menuId : menuIds) {
+                RoleMenuDO roleMenu = new RoleMenuDO();
+                roleMenu.setRoleId(roleId);
+                roleMenu.setMenuId(menuId);
+                roleMenus.add(roleMenu);
+            }
+        }
+
+        // 旧方式：逐级缓存
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        cacheManager.setStoreByValue(true);
+        cacheManager.setBeanClassLoader(getClass().getClassLoader());
+        permissionMenuIdCache = cacheManager.getCache("permission_menu_ids");
+        menuRoleIdCache = cacheManager.getCache("menu_role_ids");
+        menus.forEach(menu -> permissionMenuIdCache.put(menu.getPermission(),
+                new ArrayList<>(Collections.singletonList(menu.getId()))));
+        Map<Long, Set<Long>> menuRoleIds = new HashMap<>();
+        roleMenus.forEach(roleMenu -> menuRoleIds.computeIfAbsent(roleMenu.getMenuId(), key -> new HashSet<>())
+                .add(roleMenu.getRoleId()));
+        menus.forEach(menu -> menuRoleIdCache.put(menu.getId(),
+                new HashSet<>(menuRoleIds.getOrDefault(menu.getId(), Collections.emptySet()))));
+        // 新方式：权限索引
+        permissionIndex = PermissionIndexBO.build(1L, menus, roleMenus);
+
+        // 用户的角色，以及校验的权限标识
+        userRoleIds = new HashSet<>();
+        while (userRoleIds.size() < userRoleCount) {
+            userRoleIds.add((long) random.nextInt(1, ROLE_COUNT + 1));
+        }
+        permissions = convertList(menus.subList(0, 64), MenuDO::getPermission).toArray(new String[0]);
+    }
+
+    @Benchmark
+    public int cache() {
+        int count = 0;
+        for (String permission : permissions) {
+            if (hasAnyPermissionFromCache(permission)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int index() {
+        int count = 0;
+        PermissionIndexBO index = permissionIndex;
+        for (String permission : permissions) {
+            if (index.hasAnyRole(permission, userRoleIds)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 与优化前的 PermissionServiceImpl#hasAnyPermission 保持一致
+     */
+    @SuppressWarnings("unchecked")
+    private boolean hasAnyPermissionFromCache(String permission) {
+        List<Long> menuIds = permissionMenuIdCache.get(permission, List.class);
+        if (CollUtil.isEmpty(menuIds)) {
+            return false;
+        }
+        Set<Long> roleIds = convertSet(userRoleIds, roleId -> roleId);
+        for (Long menuId : menuIds) {
+            Set<Long> menuRoleIds = menuRoleIdCache.get(menuId, Set.class);
+            if (CollUtil.containsAny(menuRoleIds, roleIds)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PermissionIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
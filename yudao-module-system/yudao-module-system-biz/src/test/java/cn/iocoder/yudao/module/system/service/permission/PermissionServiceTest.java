@@ -14,15 +14,19 @@ import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.RoleMenuMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.UserRoleMapper;
 import cn.iocoder.yudao.module.system.enums.permission.DataScopeEnum;
+import cn.iocoder.yudao.module.system.mq.producer.permission.PermissionProducer;
 import cn.iocoder.yudao.module.system.service.dept.DeptService;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.Resource;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -31,10 +35,12 @@ import static cn.iocoder.yudao.framework.common.util.collection.SetUtils.asSet;
 import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertPojoEquals;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomLongId;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomString;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @Import({PermissionServiceImpl.class})
@@ -57,6 +63,12 @@ public class PermissionServiceTest extends BaseDbUnitTest {
     @MockBean
     private AdminUserService userService;
 
+    @MockBean
+    private PermissionProducer permissionProducer;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
     @Test
     public void testHasAnyPermissions_superAdmin() {
         try (MockedStatic<SpringUtil> springUtilMockedStatic = mockStatic(SpringUtil.class)) {
@@ -95,15 +107,52 @@ public class PermissionServiceTest extends BaseDbUnitTest {
             when(roleService.getRoleListFromCache(eq(singleton(100L)))).thenReturn(toList(role));
             // mock 菜单
             Long menuId = 1000L;
-            when(menuService.getMenuIdListByPermissionFromCache(
-                    eq("system:user:create"))).thenReturn(singletonList(menuId));
+            when(menuService.getMenuList()).thenReturn(singletonList(
+                    randomPojo(MenuDO.class).setId(menuId).setPermission("system:user:create")));
             roleMenuMapper.insert(randomPojo(RoleMenuDO.class).setRoleId(100L).setMenuId(1000L));
+            // mock 权限索引
+            permissionService.initLocalCache();
 
             // 调用，并断言
             assertTrue(permissionService.hasAnyPermissions(userId, roles));
         }
     }
 
+    @Test
+    public void testHasAnyPermissions_refreshLocal() {
+        try (MockedStatic<SpringUtil> springUtilMockedStatic = mockStatic(SpringUtil.class)) {
+            springUtilMockedStatic.when(() -> SpringUtil.getBean(eq(PermissionServiceImpl.class)))
+                    .thenReturn(permissionService);
+
+            // 准备参数
+            Long userId = 1L;
+            String[] roles = new String[]{"system:user:create"};
+            // mock 用户登录的角色
+            userRoleMapper.insert(randomPojo(UserRoleDO.class).setUserId(userId).setRoleId(100L));
+            RoleDO role = randomPojo(RoleDO.class, o -> o.setId(100L)
+                    .setStatus(CommonStatusEnum.ENABLE.getStatus()));
+            when(roleService.getRoleListFromCache(eq(singleton(100L)))).thenReturn(toList(role));
+
+            // 调用：菜单、角色菜单都还没有，无权限
+            assertFalse(permissionService.hasAnyPermissions(userId, roles));
+            // 调用：菜单有了，角色菜单还没有，无权限
+            permissionService.refreshLocalMenu(1000L, "system:user:create", false);
+            assertFalse(permissionService.hasAnyPermissions(userId, roles));
+            // 调用：角色菜单有了，有权限
+            permissionService.refreshLocalRoleMenu(100L, asSet(1000L));
+            assertTrue(permissionService.hasAnyPermissions(userId, roles));
+            // 调用：菜单的权限标识变更，无权限
+            permissionService.refreshLocalMenu(1000L, "system:user:update", false);
+            assertFalse(permissionService.hasAnyPermissions(userId, roles));
+            // 调用：菜单的权限标识恢复，有权限
+            permissionService.refreshLocalMenu(1000L, "system:user:create", false);
+            assertTrue(permissionService.hasAnyPermissions(userId, roles));
+            // 调用：菜单被删除，无权限
+            permissionService.refreshLocalMenu(1000L, null, true);
+            assertFalse(permissionService.hasAnyPermissions(userId, roles));
+        }
+    }
+
     @Test
     public void testHasAnyRoles() {
         try (MockedStatic<SpringUtil> springUtilMockedStatic = mockStatic(SpringUtil.class)) {
@@ -146,6 +195,33 @@ public class PermissionServiceTest extends BaseDbUnitTest {
         assertEquals(200L, roleMenuList.get(0).getMenuId());
         assertEquals(1L, roleMenuList.get(1).getRoleId());
         assertEquals(300L, roleMenuList.get(1).getMenuId());
+        // 断言消息
+        verify(permissionProducer).sendRoleMenuRefreshMessage(eq(roleId), eq(menuIds));
+    }
+
+    @Test
+    public void testAssignRoleMenu_afterCommit() {
+        // 准备参数
+        Long roleId = 1L;
+        Set<Long> menuIds = asSet(200L);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // 调用：事务回滚
+        transactionTemplate.executeWithoutResult(status -> {
+            permissionService.assignRoleMenu(roleId, menuIds);
+            status.setRollbackOnly();
+        });
+        // 断言：不刷新，也不广播
+        verify(permissionProducer, never()).sendRoleMenuRefreshMessage(any(), any());
+
+        // 调用：事务提交
+        transactionTemplate.executeWithoutResult(status -> {
+            permissionService.assignRoleMenu(roleId, menuIds);
+            // 断言：事务提交前，不刷新，也不广播
+            verify(permissionProducer, never()).sendRoleMenuRefreshMessage(any(), any());
+        });
+        // 断言：事务提交后，刷新并广播
+        verify(permissionProducer).sendRoleMenuRefreshMessage(eq(roleId), eq(menuIds));
     }
 
     @Test
@@ -173,6 +249,8 @@ public class PermissionServiceTest extends BaseDbUnitTest {
         List<UserRoleDO> dbUserRoles = userRoleMapper.selectList();
         assertEquals(1, dbUserRoles.size());
         assertPojoEquals(dbUserRoles.get(0), userRoleDO02);
+        // 断言消息
+        verify(permissionProducer).sendRoleMenuRefreshMessage(eq(roleId), eq(Collections.emptySet()));
     }
 
     @Test
@@ -191,6 +269,20 @@ public class PermissionServiceTest extends BaseDbUnitTest {
         List<RoleMenuDO> dbRoleMenus = roleMenuMapper.selectList();
         assertEquals(1, dbRoleMenus.size());
         assertPojoEquals(dbRoleMenus.get(0), roleMenuDO02);
+        // 断言消息
+        verify(permissionProducer).sendMenuRefreshMessage(eq(menuId), isNull(), eq(true));
+    }
+
+    @Test
+    public void testProcessMenuUpdated() {
+        // 准备参数
+        Long menuId = randomLongId();
+        String permission = randomString();
+
+        // 调用
+        permissionService.processMenuUpdated(menuId, permission);
+        // 断言消息
+        verify(permissionProducer).sendMenuRefreshMessage(eq(menuId), eq(permission), eq(false));
     }
 
     @Test
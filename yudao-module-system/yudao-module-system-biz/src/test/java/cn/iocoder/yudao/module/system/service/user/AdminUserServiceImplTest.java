@@ -1,8 +1,8 @@
 package cn.iocoder.yudao.module.system.service.user;
 
 import cn.hutool.core.util.RandomUtil;
+import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
-import cn.iocoder.yudao.framework.common.exception.ServiceException;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.collection.ArrayUtils;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
@@ -23,7 +23,10 @@ import cn.iocoder.yudao.module.system.service.dept.DeptService;
 import cn.iocoder.yudao.module.system.service.dept.PostService;
 import cn.iocoder.yudao.module.system.service.permission.PermissionService;
 import cn.iocoder.yudao.module.system.service.tenant.TenantService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
 import org.mockito.stubbing.Answer;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
@@ -32,6 +35,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import javax.annotation.Resource;
 import java.io.ByteArrayInputStream;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -48,6 +52,7 @@ import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.*;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static org.assertj.core.util.Lists.newArrayList;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -77,6 +82,20 @@ public class AdminUserServiceImplTest extends BaseDbUnitTest {
     @MockBean
     private FileApi fileApi;
 
+    private MockedStatic<SpringUtil> springUtilMockedStatic;
+
+    @BeforeEach
+    public void setUp() {
+        // getSelf() 通过 SpringUtil 获得自身
+        springUtilMockedStatic = mockStatic(SpringUtil.class);
+        springUtilMockedStatic.when(() -> SpringUtil.getBean(eq(AdminUserServiceImpl.class))).thenReturn(userService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        springUtilMockedStatic.close();
+    }
+
     @Test
     public void testCreatUser_success() {
         // 准备参数
@@ -420,8 +439,8 @@ public class AdminUserServiceImplTest extends BaseDbUnitTest {
         // 准备参数
         UserImportExcelVO importUser = randomPojo(UserImportExcelVO.class, o -> {
         });
-        // mock 方法，模拟失败
-        doThrow(new ServiceException(DEPT_NOT_FOUND)).when(deptService).validateDeptList(any());
+        // mock 方法，模拟失败（部门不存在）
+        when(deptService.getDeptMap(any())).thenReturn(Collections.emptyMap());
 
         // 调用
         UserImportRespVO respVO = userService.importUserList(newArrayList(importUser), true);
@@ -447,7 +466,7 @@ public class AdminUserServiceImplTest extends BaseDbUnitTest {
             o.setId(importUser.getDeptId());
             o.setStatus(CommonStatusEnum.ENABLE.getStatus());
         });
-        when(deptService.getDept(eq(dept.getId()))).thenReturn(dept);
+        when(deptService.getDeptMap(eq(singleton(dept.getId())))).thenReturn(singletonMap(dept.getId(), dept));
         // mock passwordEncoder 的方法
         when(passwordEncoder.encode(eq("yudaoyuanma"))).thenReturn("java");
 
@@ -481,7 +500,7 @@ public class AdminUserServiceImplTest extends BaseDbUnitTest {
             o.setId(importUser.getDeptId());
             o.setStatus(CommonStatusEnum.ENABLE.getStatus());
         });
-        when(deptService.getDept(eq(dept.getId()))).thenReturn(dept);
+        when(deptService.getDeptMap(eq(singleton(dept.getId())))).thenReturn(singletonMap(dept.getId(), dept));
 
         // 调用
         UserImportRespVO respVO = userService.importUserList(newArrayList(importUser), false);
@@ -511,7 +530,7 @@ public class AdminUserServiceImplTest extends BaseDbUnitTest {
             o.setId(importUser.getDeptId());
             o.setStatus(CommonStatusEnum.ENABLE.getStatus());
         });
-        when(deptService.getDept(eq(dept.getId()))).thenReturn(dept);
+        when(deptService.getDeptMap(eq(singleton(dept.getId())))).thenReturn(singletonMap(dept.getId(), dept));
 
         // 调用
         UserImportRespVO respVO = userService.importUserList(newArrayList(importUser), true);
@@ -523,6 +542,83 @@ public class AdminUserServiceImplTest extends BaseDbUnitTest {
         assertEquals(0, respVO.getFailureUsernames().size());
     }
 
+    /**
+     * 情况五，手机号已存在，以及同一批内的用户名重复
+     */
+    @Test
+    public void testImportUserList_05() {
+        // mock 数据
+        AdminUserDO dbUser = randomAdminUserDO();
+        userMapper.insert(dbUser);
+        // 准备参数
+        UserImportExcelVO importUser01 = randomPojo(UserImportExcelVO.class, o -> {
+            o.setStatus(randomEle(CommonStatusEnum.values()).getStatus()); // 保证 status 的范围
+            o.setSex(randomEle(SexEnum.values()).getSex()); // 保证 sex 的范围
+            o.setDeptId(null);
+            o.setMobile(dbUser.getMobile());
+        });
+        UserImportExcelVO importUser02 = randomPojo(UserImportExcelVO.class, o -> {
+            o.setStatus(randomEle(CommonStatusEnum.values()).getStatus()); // 保证 status 的范围
+            o.setSex(randomEle(SexEnum.values()).getSex()); // 保证 sex 的范围
+            o.setDeptId(null);
+        });
+        UserImportExcelVO importUser03 = randomPojo(UserImportExcelVO.class, o -> {
+            o.setStatus(randomEle(CommonStatusEnum.values()).getStatus()); // 保证 status 的范围
+            o.setSex(randomEle(SexEnum.values()).getSex()); // 保证 sex 的范围
+            o.setDeptId(null);
+            o.setUsername(importUser02.getUsername());
+        });
+        // mock passwordEncoder 的方法
+        when(passwordEncoder.encode(eq("yudaoyuanma"))).thenReturn("java");
+
+        // 调用
+        UserImportRespVO respVO = userService.importUserList(newArrayList(importUser01, importUser02, importUser03), true);
+        // 断言
+        assertEquals(singletonList(importUser02.getUsername()), respVO.getCreateUsernames());
+        assertEquals(0, respVO.getUpdateUsernames().size());
+        assertEquals(2, respVO.getFailureUsernames().size());
+        assertEquals(USER_MOBILE_EXISTS.getMsg(), respVO.getFailureUsernames().get(importUser01.getUsername()));
+        assertEquals(USER_USERNAME_EXISTS.getMsg(), respVO.getFailureUsernames().get(importUser02.getUsername()));
+        // 断言：初始密码只加密一次
+        verify(passwordEncoder, times(1)).encode(eq("yudaoyuanma"));
+    }
+
+    /**
+     * 情况六，同一批内用户名重复而失败的用户，不占用手机、邮箱，后续的用户仍可使用
+     */
+    @Test
+    public void testImportUserList_06() {
+        // 准备参数：importUser02 与 importUser01 的用户名重复；importUser03 与 importUser02 的手机、邮箱相同
+        UserImportExcelVO importUser01 = randomPojo(UserImportExcelVO.class, o -> {
+            o.setStatus(randomEle(CommonStatusEnum.values()).getStatus()); // 保证 status 的范围
+            o.setSex(randomEle(SexEnum.values()).getSex()); // 保证 sex 的范围
+            o.setDeptId(null);
+        });
+        UserImportExcelVO importUser02 = randomPojo(UserImportExcelVO.class, o -> {
+            o.setStatus(randomEle(CommonStatusEnum.values()).getStatus()); // 保证 status 的范围
+            o.setSex(randomEle(SexEnum.values()).getSex()); // 保证 sex 的范围
+            o.setDeptId(null);
+            o.setUsername(importUser01.getUsername());
+        });
+        UserImportExcelVO importUser03 = randomPojo(UserImportExcelVO.class, o -> {
+            o.setStatus(randomEle(CommonStatusEnum.values()).getStatus()); // 保证 status 的范围
+            o.setSex(randomEle(SexEnum.values()).getSex()); // 保证 sex 的范围
+            o.setDeptId(null);
+            o.setMobile(importUser02.getMobile());
+            o.setEmail(importUser02.getEmail());
+        });
+        // mock passwordEncoder 的方法
+        when(passwordEncoder.encode(eq("yudaoyuanma"))).thenReturn("java");
+
+        // 调用
+        UserImportRespVO respVO = userService.importUserList(newArrayList(importUser01, importUser02, importUser03), true);
+        // 断言
+        assertEquals(newArrayList(importUser01.getUsername(), importUser03.getUsername()), respVO.getCreateUsernames());
+        assertEquals(0, respVO.getUpdateUsernames().size());
+        assertEquals(singletonMap(importUser02.getUsername(), USER_USERNAME_EXISTS.getMsg()),
+                respVO.getFailureUsernames());
+    }
+
     @Test
     public void testValidateUserExists_notExists() {
         assertServiceException(() -> userService.validateUserExists(randomLongId()), USER_NOT_EXISTS);